@@ -0,0 +1,715 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+
+/**
+ * Select indices in an index array using the values of array data.
+ *
+ * <p>Arranges an array of indices into the data such that indices {@code k} of the index
+ * array correspond to their correctly sorted position in the equivalent index array fully
+ * sorted by the data. For all indices {@code k} and any index {@code i}:
+ *
+ * <pre>{@code
+ * data[index[i < k]] <= data[index[k]] <= data[index[k < i]]
+ * }</pre>
+ *
+ * <p>The data is not modified. This can be used to identify the original positions of
+ * the {@code k} smallest values in the data.
+ *
+ * <p>Examples:
+ *
+ * <pre>
+ * data    [5, 1, 4, 2, 3]
+ * index   [0, 1, 2, 3, 4]
+ *
+ *
+ * k=2   : [1, 3], [4], [2, 0]
+ * </pre>
+ *
+ * <p>Notes:
+ *
+ * <ul>
+ * <li>The index array may be a subset of the indices of the data, and may contain
+ *     duplicates.
+ * <li>The algorithm may reorder any part of the index array above and below the target
+ *     indices.
+ * <li>Correct usage for multiple target indices should not call multiple times with each
+ *     index but instead call selection only once with all indices.
+ * </ul>
+ *
+ * <p>Implementation details
+ *
+ * <p>The data referenced by the index array is copied and the values at the target indices
+ * are identified using {@link Selection}. The index array is then partitioned around those
+ * values in linear time for a single value, or using a binary search of the values for
+ * multiple targets. This requires temporary storage proportional to the length of the
+ * index array.
+ *
+ * <p>Floating-point order
+ *
+ * <p>The {@code <} relation does not impose a total order on all floating-point values.
+ * This class respects the ordering imposed by {@link Double#compare(double, double)}.
+ * {@code -0.0} is treated as less than value {@code 0.0}; {@code NaN} is considered greater
+ * than any other value; and all {@code NaN} values are considered equal.
+ *
+ * @see Selection
+ * @since 1.4
+ */
+public final class ArgSelection {
+
+    /** No instances. */
+    private ArgSelection() {}
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, index.length)}; or if any element of the index array
+     * is not a valid index of the values
+     */
+    public static void select(double[] a, int[] index, int k) {
+        IndexSupport.checkIndex(0, index.length, k);
+        doSelect(a, index, 0, index.length, k);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, index.length)}; or if any element of the index array
+     * is not a valid index of the values
+     */
+    public static void select(double[] a, int[] index, int[] k) {
+        IndexSupport.checkIndices(0, index.length, k);
+        doSelect(a, index, 0, index.length, k);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, index.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any element of the index array
+     * sub-range is not a valid index of the values
+     */
+    public static void select(double[] a, int[] index, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, index.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelect(a, index, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, index.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any element of the index array
+     * sub-range is not a valid index of the values
+     */
+    public static void select(double[] a, int[] index, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, index.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, index, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    private static void doSelect(double[] a, int[] index, int fromIndex, int toIndex, int k) {
+        final double[] x = gather(a, index, fromIndex, toIndex);
+        if (x.length <= 1) {
+            return;
+        }
+        final int i = k - fromIndex;
+        Selection.select(x, i);
+        partition(a, index, fromIndex, toIndex, x[i]);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     */
+    private static void doSelect(double[] a, int[] index, int fromIndex, int toIndex, int[] k) {
+        final double[] x = gather(a, index, fromIndex, toIndex);
+        if (k.length == 0 || x.length <= 1) {
+            return;
+        }
+        final int[] keys = sortIndices(k, fromIndex);
+        Selection.select(x, keys.clone());
+        // Distinct target values in ascending order
+        final double[] v = new double[keys.length];
+        v[0] = x[keys[0]];
+        int n = 1;
+        for (int i = 1; i < keys.length; i++) {
+            final double value = x[keys[i]];
+            if (Double.compare(value, v[n - 1]) != 0) {
+                v[n++] = value;
+            }
+        }
+        if (n == 1) {
+            partition(a, index, fromIndex, toIndex, v[0]);
+        } else {
+            partition(a, index, fromIndex, toIndex, Arrays.copyOf(v, n));
+        }
+    }
+
+    /**
+     * Copy the values referenced by the index array sub-range.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @return the values
+     */
+    private static double[] gather(double[] a, int[] index, int fromIndex, int toIndex) {
+        final double[] x = new double[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            x[i - fromIndex] = a[index[i]];
+        }
+        return x;
+    }
+
+    /**
+     * Partition the index array sub-range into indices of values less than, equal to,
+     * and greater than the pivot value.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param v Pivot value.
+     */
+    private static void partition(double[] a, int[] index, int fromIndex, int toIndex, double v) {
+        // Dijkstra's 3-way partition:
+        // |  <v  |  ==v  |  ???  |  >v  |
+        //        lt      i       gt
+        int lt = fromIndex;
+        int gt = toIndex - 1;
+        for (int i = fromIndex; i <= gt;) {
+            final int j = index[i];
+            final int c = Double.compare(a[j], v);
+            if (c < 0) {
+                index[i++] = index[lt];
+                index[lt++] = j;
+            } else if (c > 0) {
+                index[i] = index[gt];
+                index[gt--] = j;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Partition the index array sub-range into indices of values in the ranges bounded by,
+     * and equal to, the pivot values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param v Pivot values (distinct and ascending).
+     */
+    private static void partition(double[] a, int[] index, int fromIndex, int toIndex, double[] v) {
+        final int[] bins = new int[toIndex - fromIndex];
+        final int[] count = new int[(v.length << 1) + 1];
+        for (int i = fromIndex; i < toIndex; i++) {
+            final int b = bin(Arrays.binarySearch(v, a[index[i]]));
+            bins[i - fromIndex] = b;
+            count[b]++;
+        }
+        scatter(index, fromIndex, bins, count);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, index.length)}; or if any element of the index array
+     * is not a valid index of the values
+     */
+    public static void select(int[] a, int[] index, int k) {
+        IndexSupport.checkIndex(0, index.length, k);
+        doSelect(a, index, 0, index.length, k);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, index.length)}; or if any element of the index array
+     * is not a valid index of the values
+     */
+    public static void select(int[] a, int[] index, int[] k) {
+        IndexSupport.checkIndices(0, index.length, k);
+        doSelect(a, index, 0, index.length, k);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, index.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any element of the index array
+     * sub-range is not a valid index of the values
+     */
+    public static void select(int[] a, int[] index, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, index.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelect(a, index, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, index.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any element of the index array
+     * sub-range is not a valid index of the values
+     */
+    public static void select(int[] a, int[] index, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, index.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, index, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    private static void doSelect(int[] a, int[] index, int fromIndex, int toIndex, int k) {
+        final int[] x = gather(a, index, fromIndex, toIndex);
+        if (x.length <= 1) {
+            return;
+        }
+        final int i = k - fromIndex;
+        Selection.select(x, i);
+        partition(a, index, fromIndex, toIndex, x[i]);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     */
+    private static void doSelect(int[] a, int[] index, int fromIndex, int toIndex, int[] k) {
+        final int[] x = gather(a, index, fromIndex, toIndex);
+        if (k.length == 0 || x.length <= 1) {
+            return;
+        }
+        final int[] keys = sortIndices(k, fromIndex);
+        Selection.select(x, keys.clone());
+        // Distinct target values in ascending order
+        final int[] v = new int[keys.length];
+        v[0] = x[keys[0]];
+        int n = 1;
+        for (int i = 1; i < keys.length; i++) {
+            final int value = x[keys[i]];
+            if (value != v[n - 1]) {
+                v[n++] = value;
+            }
+        }
+        if (n == 1) {
+            partition(a, index, fromIndex, toIndex, v[0]);
+        } else {
+            partition(a, index, fromIndex, toIndex, Arrays.copyOf(v, n));
+        }
+    }
+
+    /**
+     * Copy the values referenced by the index array sub-range.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @return the values
+     */
+    private static int[] gather(int[] a, int[] index, int fromIndex, int toIndex) {
+        final int[] x = new int[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            x[i - fromIndex] = a[index[i]];
+        }
+        return x;
+    }
+
+    /**
+     * Partition the index array sub-range into indices of values less than, equal to,
+     * and greater than the pivot value.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param v Pivot value.
+     */
+    private static void partition(int[] a, int[] index, int fromIndex, int toIndex, int v) {
+        // Dijkstra's 3-way partition:
+        // |  <v  |  ==v  |  ???  |  >v  |
+        //        lt      i       gt
+        int lt = fromIndex;
+        int gt = toIndex - 1;
+        for (int i = fromIndex; i <= gt;) {
+            final int j = index[i];
+            final int value = a[j];
+            if (value < v) {
+                index[i++] = index[lt];
+                index[lt++] = j;
+            } else if (value > v) {
+                index[i] = index[gt];
+                index[gt--] = j;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Partition the index array sub-range into indices of values in the ranges bounded by,
+     * and equal to, the pivot values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param v Pivot values (distinct and ascending).
+     */
+    private static void partition(int[] a, int[] index, int fromIndex, int toIndex, int[] v) {
+        final int[] bins = new int[toIndex - fromIndex];
+        final int[] count = new int[(v.length << 1) + 1];
+        for (int i = fromIndex; i < toIndex; i++) {
+            final int b = bin(Arrays.binarySearch(v, a[index[i]]));
+            bins[i - fromIndex] = b;
+            count[b]++;
+        }
+        scatter(index, fromIndex, bins, count);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, index.length)}; or if any element of the index array
+     * is not a valid index of the values
+     */
+    public static void select(long[] a, int[] index, int k) {
+        IndexSupport.checkIndex(0, index.length, k);
+        doSelect(a, index, 0, index.length, k);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, index.length)}; or if any element of the index array
+     * is not a valid index of the values
+     */
+    public static void select(long[] a, int[] index, int[] k) {
+        IndexSupport.checkIndices(0, index.length, k);
+        doSelect(a, index, 0, index.length, k);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, index.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any element of the index array
+     * sub-range is not a valid index of the values
+     */
+    public static void select(long[] a, int[] index, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, index.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelect(a, index, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, index.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any element of the index array
+     * sub-range is not a valid index of the values
+     */
+    public static void select(long[] a, int[] index, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, index.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, index, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the index array such that index {@code k} corresponds to its correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    private static void doSelect(long[] a, int[] index, int fromIndex, int toIndex, int k) {
+        final long[] x = gather(a, index, fromIndex, toIndex);
+        if (x.length <= 1) {
+            return;
+        }
+        final int i = k - fromIndex;
+        Selection.select(x, i);
+        partition(a, index, fromIndex, toIndex, x[i]);
+    }
+
+    /**
+     * Partition the index array such that indices {@code k} correspond to their correctly
+     * sorted position in the equivalent index array sorted by the data values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     */
+    private static void doSelect(long[] a, int[] index, int fromIndex, int toIndex, int[] k) {
+        final long[] x = gather(a, index, fromIndex, toIndex);
+        if (k.length == 0 || x.length <= 1) {
+            return;
+        }
+        final int[] keys = sortIndices(k, fromIndex);
+        Selection.select(x, keys.clone());
+        // Distinct target values in ascending order
+        final long[] v = new long[keys.length];
+        v[0] = x[keys[0]];
+        int n = 1;
+        for (int i = 1; i < keys.length; i++) {
+            final long value = x[keys[i]];
+            if (value != v[n - 1]) {
+                v[n++] = value;
+            }
+        }
+        if (n == 1) {
+            partition(a, index, fromIndex, toIndex, v[0]);
+        } else {
+            partition(a, index, fromIndex, toIndex, Arrays.copyOf(v, n));
+        }
+    }
+
+    /**
+     * Copy the values referenced by the index array sub-range.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @return the values
+     */
+    private static long[] gather(long[] a, int[] index, int fromIndex, int toIndex) {
+        final long[] x = new long[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            x[i - fromIndex] = a[index[i]];
+        }
+        return x;
+    }
+
+    /**
+     * Partition the index array sub-range into indices of values less than, equal to,
+     * and greater than the pivot value.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param v Pivot value.
+     */
+    private static void partition(long[] a, int[] index, int fromIndex, int toIndex, long v) {
+        // Dijkstra's 3-way partition:
+        // |  <v  |  ==v  |  ???  |  >v  |
+        //        lt      i       gt
+        int lt = fromIndex;
+        int gt = toIndex - 1;
+        for (int i = fromIndex; i <= gt;) {
+            final int j = index[i];
+            final long value = a[j];
+            if (value < v) {
+                index[i++] = index[lt];
+                index[lt++] = j;
+            } else if (value > v) {
+                index[i] = index[gt];
+                index[gt--] = j;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Partition the index array sub-range into indices of values in the ranges bounded by,
+     * and equal to, the pivot values.
+     *
+     * @param a Values.
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param v Pivot values (distinct and ascending).
+     */
+    private static void partition(long[] a, int[] index, int fromIndex, int toIndex, long[] v) {
+        final int[] bins = new int[toIndex - fromIndex];
+        final int[] count = new int[(v.length << 1) + 1];
+        for (int i = fromIndex; i < toIndex; i++) {
+            final int b = bin(Arrays.binarySearch(v, a[index[i]]));
+            bins[i - fromIndex] = b;
+            count[b]++;
+        }
+        scatter(index, fromIndex, bins, count);
+    }
+
+    /**
+     * Copy the indices, offset by {@code -fromIndex}, and sort into ascending order.
+     *
+     * @param k Indices.
+     * @param fromIndex Index of the first element (inclusive).
+     * @return the sorted indices
+     */
+    private static int[] sortIndices(int[] k, int fromIndex) {
+        final int[] keys = new int[k.length];
+        for (int i = 0; i < k.length; i++) {
+            keys[i] = k[i] - fromIndex;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Map the result of a binary search of the distinct pivot values to a bin.
+     * Bins {@code 2i + 1} contain values equal to pivot {@code i}; bins {@code 2i}
+     * contain values between pivots {@code i - 1} and {@code i}.
+     *
+     * @param i Result of the binary search.
+     * @return the bin
+     */
+    private static int bin(int i) {
+        // Not found returns (-(insertion point) - 1)
+        return i < 0 ? -(i + 1) << 1 : (i << 1) + 1;
+    }
+
+    /**
+     * Stable partition of the index array sub-range using the assigned bins.
+     *
+     * @param index Indices of the values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param bins Bin of each index in the sub-range.
+     * @param count Count of each bin (destructively modified).
+     */
+    private static void scatter(int[] index, int fromIndex, int[] bins, int[] count) {
+        // Convert the counts to the start of each bin
+        int start = fromIndex;
+        for (int i = 0; i < count.length; i++) {
+            final int c = count[i];
+            count[i] = start;
+            start += c;
+        }
+        final int[] copy = Arrays.copyOfRange(index, fromIndex, fromIndex + bins.length);
+        for (int i = 0; i < bins.length; i++) {
+            index[count[bins[i]]++] = copy[i];
+        }
+    }
+}
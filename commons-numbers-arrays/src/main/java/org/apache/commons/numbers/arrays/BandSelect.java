@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+
+/**
+ * Select values from array data without modifying the data.
+ *
+ * <p>Selection requires a copy of the data. Large ranges use a Floyd-Rivest style
+ * sample of the data to estimate the values that bound the target indices. A single pass
+ * through the data counts the values below the band and copies the values within the
+ * band to a scratch buffer. If the band contains the target indices then selection is
+ * performed on the band; otherwise the entire range is copied.
+ *
+ * <p>The sample is taken from the centre of {@code s} equal sized strata of the range. The
+ * estimate of the band may fail if the data has a periodic structure matching the strata.
+ * This only affects performance and not the result.
+ *
+ * @since 1.4
+ */
+final class BandSelect {
+    /** Minimum length of a range to use a band of candidate values.
+     * Smaller ranges are copied. */
+    private static final int MIN_BAND_LENGTH = 1 << 12;
+
+    /** No instances. */
+    private BandSelect() {}
+
+    /**
+     * Find the values at indices {@code k} in the equivalent fully sorted array.
+     * The data is not modified.
+     *
+     * <p>Assumes the indices are valid within {@code [fromIndex, toIndex)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @return the values
+     */
+    static double[] select(double[] a, int fromIndex, int toIndex, int[] k) {
+        final double[] v = new double[k.length];
+        if (k.length == 0) {
+            return v;
+        }
+        int ka = k[0];
+        int kb = ka;
+        for (final int i : k) {
+            ka = Math.min(ka, i);
+            kb = Math.max(kb, i);
+        }
+        // Bounds of the band in the data: [start, start + length)
+        final int[] bounds = new int[2];
+        double[] x = null;
+        if (toIndex - fromIndex >= MIN_BAND_LENGTH) {
+            x = band(a, fromIndex, toIndex, ka, kb, bounds);
+        }
+        if (x == null) {
+            x = Arrays.copyOfRange(a, fromIndex, toIndex);
+            bounds[0] = fromIndex;
+            bounds[1] = x.length;
+        }
+        final int[] keys = new int[k.length];
+        for (int i = 0; i < k.length; i++) {
+            keys[i] = k[i] - bounds[0];
+        }
+        Selection.select(x, 0, bounds[1], keys.clone());
+        for (int i = 0; i < k.length; i++) {
+            v[i] = x[keys[i]];
+        }
+        return v;
+    }
+
+    /**
+     * Copy the band of values from the range that contains the sorted indices
+     * {@code [ka, kb]}. The band is estimated from a sample of the data.
+     *
+     * <p>Returns null if the band is too large or does not contain the indices.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index.
+     * @param kb Upper index.
+     * @param bounds Set to the start index of the band in the sorted data and its length.
+     * @return the band (or null)
+     */
+    private static double[] band(double[] a, int fromIndex, int toIndex, int ka, int kb, int[] bounds) {
+        // Floyd-Rivest: sample size = 0.5 * n^(2/3); the sample rank of the
+        // target is within a deviation of sd with high probability.
+        final int n = toIndex - fromIndex;
+        final double z = Math.log(n);
+        final int s = (int) (0.5 * Math.exp(0.6666666666666666 * z));
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n);
+        final int ll = (int) Math.floor((double) (ka - fromIndex) * s / n - sd);
+        final int rr = (int) Math.ceil((double) (kb - fromIndex) * s / n + sd);
+        final int sl = Math.max(0, ll);
+        final int sr = Math.min(s - 1, rr);
+        // Allow the band to be 50% larger than expected
+        final long e = (long) (sr - sl + 1) * n / s;
+        final long cap = e + (e >>> 1);
+        if (cap > n >>> 1) {
+            // Not worth using a band
+            return null;
+        }
+        final double[] sample = new double[s];
+        for (int i = 0; i < s; i++) {
+            sample[i] = a[fromIndex + (int) ((2L * i + 1) * n / (2L * s))];
+        }
+        Selection.select(sample, new int[] {sl, sr});
+        // Use sentinels for no lower or upper bound
+        final double lo = ll <= 0 ? Double.NEGATIVE_INFINITY : sample[sl];
+        final double hi = rr >= s - 1 ? Double.NaN : sample[sr];
+        bounds[0] = ka;
+        bounds[1] = kb;
+        return band(a, fromIndex, toIndex, lo, hi, (int) cap, bounds);
+    }
+
+    /**
+     * Copy the band of values from the range within {@code [lo, hi]} that contains the
+     * sorted indices {@code [ka, kb]}.
+     *
+     * <p>Returns null if the band is larger than the capacity or does not contain
+     * the indices.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param lo Lower bound of the band (inclusive).
+     * @param hi Upper bound of the band (inclusive).
+     * @param capacity Maximum size of the band.
+     * @param bounds Lower and upper indices {@code [ka, kb]}; set to the start index of the
+     * band in the sorted data and its length.
+     * @return the band (or null)
+     */
+    // package-private for testing
+    static double[] band(double[] a, int fromIndex, int toIndex,
+            double lo, double hi, int capacity, int[] bounds) {
+        final double[] x = new double[capacity];
+        int below = 0;
+        int m = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            final double v = a[i];
+            if (Double.compare(v, lo) < 0) {
+                below++;
+            } else if (Double.compare(v, hi) <= 0) {
+                if (m == capacity) {
+                    return null;
+                }
+                x[m++] = v;
+            }
+        }
+        final int start = fromIndex + below;
+        if (bounds[0] < start || bounds[1] >= start + m) {
+            return null;
+        }
+        bounds[0] = start;
+        bounds[1] = m;
+        return x;
+    }
+
+    /**
+     * Find the values at indices {@code k} in the equivalent fully sorted array.
+     * The data is not modified.
+     *
+     * <p>Assumes the indices are valid within {@code [fromIndex, toIndex)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @return the values
+     */
+    static int[] select(int[] a, int fromIndex, int toIndex, int[] k) {
+        final int[] v = new int[k.length];
+        if (k.length == 0) {
+            return v;
+        }
+        int ka = k[0];
+        int kb = ka;
+        for (final int i : k) {
+            ka = Math.min(ka, i);
+            kb = Math.max(kb, i);
+        }
+        // Bounds of the band in the data: [start, start + length)
+        final int[] bounds = new int[2];
+        int[] x = null;
+        if (toIndex - fromIndex >= MIN_BAND_LENGTH) {
+            x = band(a, fromIndex, toIndex, ka, kb, bounds);
+        }
+        if (x == null) {
+            x = Arrays.copyOfRange(a, fromIndex, toIndex);
+            bounds[0] = fromIndex;
+            bounds[1] = x.length;
+        }
+        final int[] keys = new int[k.length];
+        for (int i = 0; i < k.length; i++) {
+            keys[i] = k[i] - bounds[0];
+        }
+        Selection.select(x, 0, bounds[1], keys.clone());
+        for (int i = 0; i < k.length; i++) {
+            v[i] = x[keys[i]];
+        }
+        return v;
+    }
+
+    /**
+     * Copy the band of values from the range that contains the sorted indices
+     * {@code [ka, kb]}. The band is estimated from a sample of the data.
+     *
+     * <p>Returns null if the band is too large or does not contain the indices.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index.
+     * @param kb Upper index.
+     * @param bounds Set to the start index of the band in the sorted data and its length.
+     * @return the band (or null)
+     */
+    private static int[] band(int[] a, int fromIndex, int toIndex, int ka, int kb, int[] bounds) {
+        // Floyd-Rivest: sample size = 0.5 * n^(2/3); the sample rank of the
+        // target is within a deviation of sd with high probability.
+        final int n = toIndex - fromIndex;
+        final double z = Math.log(n);
+        final int s = (int) (0.5 * Math.exp(0.6666666666666666 * z));
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n);
+        final int ll = (int) Math.floor((double) (ka - fromIndex) * s / n - sd);
+        final int rr = (int) Math.ceil((double) (kb - fromIndex) * s / n + sd);
+        final int sl = Math.max(0, ll);
+        final int sr = Math.min(s - 1, rr);
+        // Allow the band to be 50% larger than expected
+        final long e = (long) (sr - sl + 1) * n / s;
+        final long cap = e + (e >>> 1);
+        if (cap > n >>> 1) {
+            // Not worth using a band
+            return null;
+        }
+        final int[] sample = new int[s];
+        for (int i = 0; i < s; i++) {
+            sample[i] = a[fromIndex + (int) ((2L * i + 1) * n / (2L * s))];
+        }
+        Selection.select(sample, new int[] {sl, sr});
+        // Use sentinels for no lower or upper bound
+        final int lo = ll <= 0 ? Integer.MIN_VALUE : sample[sl];
+        final int hi = rr >= s - 1 ? Integer.MAX_VALUE : sample[sr];
+        bounds[0] = ka;
+        bounds[1] = kb;
+        return band(a, fromIndex, toIndex, lo, hi, (int) cap, bounds);
+    }
+
+    /**
+     * Copy the band of values from the range within {@code [lo, hi]} that contains the
+     * sorted indices {@code [ka, kb]}.
+     *
+     * <p>Returns null if the band is larger than the capacity or does not contain
+     * the indices.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param lo Lower bound of the band (inclusive).
+     * @param hi Upper bound of the band (inclusive).
+     * @param capacity Maximum size of the band.
+     * @param bounds Lower and upper indices {@code [ka, kb]}; set to the start index of the
+     * band in the sorted data and its length.
+     * @return the band (or null)
+     */
+    // package-private for testing
+    static int[] band(int[] a, int fromIndex, int toIndex,
+            int lo, int hi, int capacity, int[] bounds) {
+        final int[] x = new int[capacity];
+        int below = 0;
+        int m = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            final int v = a[i];
+            if (v < lo) {
+                below++;
+            } else if (v <= hi) {
+                if (m == capacity) {
+                    return null;
+                }
+                x[m++] = v;
+            }
+        }
+        final int start = fromIndex + below;
+        if (bounds[0] < start || bounds[1] >= start + m) {
+            return null;
+        }
+        bounds[0] = start;
+        bounds[1] = m;
+        return x;
+    }
+
+    /**
+     * Find the values at indices {@code k} in the equivalent fully sorted array.
+     * The data is not modified.
+     *
+     * <p>Assumes the indices are valid within {@code [fromIndex, toIndex)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @return the values
+     */
+    static long[] select(long[] a, int fromIndex, int toIndex, int[] k) {
+        final long[] v = new long[k.length];
+        if (k.length == 0) {
+            return v;
+        }
+        int ka = k[0];
+        int kb = ka;
+        for (final int i : k) {
+            ka = Math.min(ka, i);
+            kb = Math.max(kb, i);
+        }
+        // Bounds of the band in the data: [start, start + length)
+        final int[] bounds = new int[2];
+        long[] x = null;
+        if (toIndex - fromIndex >= MIN_BAND_LENGTH) {
+            x = band(a, fromIndex, toIndex, ka, kb, bounds);
+        }
+        if (x == null) {
+            x = Arrays.copyOfRange(a, fromIndex, toIndex);
+            bounds[0] = fromIndex;
+            bounds[1] = x.length;
+        }
+        final int[] keys = new int[k.length];
+        for (int i = 0; i < k.length; i++) {
+            keys[i] = k[i] - bounds[0];
+        }
+        Selection.select(x, 0, bounds[1], keys.clone());
+        for (int i = 0; i < k.length; i++) {
+            v[i] = x[keys[i]];
+        }
+        return v;
+    }
+
+    /**
+     * Copy the band of values from the range that contains the sorted indices
+     * {@code [ka, kb]}. The band is estimated from a sample of the data.
+     *
+     * <p>Returns null if the band is too large or does not contain the indices.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index.
+     * @param kb Upper index.
+     * @param bounds Set to the start index of the band in the sorted data and its length.
+     * @return the band (or null)
+     */
+    private static long[] band(long[] a, int fromIndex, int toIndex, int ka, int kb, int[] bounds) {
+        // Floyd-Rivest: sample size = 0.5 * n^(2/3); the sample rank of the
+        // target is within a deviation of sd with high probability.
+        final int n = toIndex - fromIndex;
+        final double z = Math.log(n);
+        final int s = (int) (0.5 * Math.exp(0.6666666666666666 * z));
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n);
+        final int ll = (int) Math.floor((double) (ka - fromIndex) * s / n - sd);
+        final int rr = (int) Math.ceil((double) (kb - fromIndex) * s / n + sd);
+        final int sl = Math.max(0, ll);
+        final int sr = Math.min(s - 1, rr);
+        // Allow the band to be 50% larger than expected
+        final long e = (long) (sr - sl + 1) * n / s;
+        final long cap = e + (e >>> 1);
+        if (cap > n >>> 1) {
+            // Not worth using a band
+            return null;
+        }
+        final long[] sample = new long[s];
+        for (int i = 0; i < s; i++) {
+            sample[i] = a[fromIndex + (int) ((2L * i + 1) * n / (2L * s))];
+        }
+        Selection.select(sample, new int[] {sl, sr});
+        // Use sentinels for no lower or upper bound
+        final long lo = ll <= 0 ? Long.MIN_VALUE : sample[sl];
+        final long hi = rr >= s - 1 ? Long.MAX_VALUE : sample[sr];
+        bounds[0] = ka;
+        bounds[1] = kb;
+        return band(a, fromIndex, toIndex, lo, hi, (int) cap, bounds);
+    }
+
+    /**
+     * Copy the band of values from the range within {@code [lo, hi]} that contains the
+     * sorted indices {@code [ka, kb]}.
+     *
+     * <p>Returns null if the band is larger than the capacity or does not contain
+     * the indices.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param lo Lower bound of the band (inclusive).
+     * @param hi Upper bound of the band (inclusive).
+     * @param capacity Maximum size of the band.
+     * @param bounds Lower and upper indices {@code [ka, kb]}; set to the start index of the
+     * band in the sorted data and its length.
+     * @return the band (or null)
+     */
+    // package-private for testing
+    static long[] band(long[] a, int fromIndex, int toIndex,
+            long lo, long hi, int capacity, int[] bounds) {
+        final long[] x = new long[capacity];
+        int below = 0;
+        int m = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            final long v = a[i];
+            if (v < lo) {
+                below++;
+            } else if (v <= hi) {
+                if (m == capacity) {
+                    return null;
+                }
+                x[m++] = v;
+            }
+        }
+        final int start = fromIndex + below;
+        if (bounds[0] < start || bounds[1] >= start + m) {
+            return null;
+        }
+        bounds[0] = start;
+        bounds[1] = m;
+        return x;
+    }
+}
@@ -0,0 +1,675 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Select the same indices in each of a batch of arrays.
+ *
+ * <p>Partitions each row of a matrix, or each fixed-length segment of an array,
+ * such that indices {@code k} of the row correspond to their correctly sorted value
+ * in the equivalent fully sorted row. For each row, all indices {@code k} and any
+ * index {@code i}:
+ *
+ * <pre>{@code
+ * row[i < k] <= row[k] <= row[k < i]
+ * }</pre>
+ *
+ * <p>This is equivalent to calling {@link Selection} on each row. The indices are
+ * validated and sorted once for the batch which reduces the overhead when the rows are
+ * small. The indices are not modified.
+ *
+ * <p>The {@code parallel} methods partition the rows using fork/join tasks. The tasks
+ * are run in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling
+ * task, or the common pool. If the batch is small, or the pool has a parallelism of 1,
+ * the rows are partitioned in the calling thread.
+ *
+ * <p>Floating-point order
+ *
+ * <p>The {@code <} relation does not impose a total order on all floating-point values.
+ * This class respects the ordering imposed by {@link Double#compare(double, double)}.
+ * {@code -0.0} is treated as less than value {@code 0.0}; {@code NaN} is considered greater
+ * than any other value; and all {@code NaN} values are considered equal.
+ *
+ * @see Selection
+ * @since 1.4
+ */
+public final class BatchSelection {
+
+    /**
+     * Action on a range of rows.
+     */
+    @FunctionalInterface
+    private interface RowAction {
+        /**
+         * Perform the action on the rows in the range {@code [from, to)}.
+         *
+         * @param from Index of the first row (inclusive).
+         * @param to Index of the last row (exclusive).
+         */
+        void apply(int from, int to);
+    }
+
+    /** No instances. */
+    private BatchSelection() {}
+
+    /**
+     * Partition each row of the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted row.
+     *
+     * @param a Rows of values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    public static void selectRows(double[][] a, int... k) {
+        final int[] keys = sortKeys(k);
+        if (keys.length == 0) {
+            return;
+        }
+        checkRows(a, keys);
+        selectRows(a, keys, 0, a.length);
+    }
+
+    /**
+     * Partition each row of the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted row.
+     *
+     * <p>Rows are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Rows of values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    public static void parallelSelectRows(double[][] a, int... k) {
+        final int[] keys = sortKeys(k);
+        if (keys.length == 0) {
+            return;
+        }
+        checkRows(a, keys);
+        forEachRow(a.length, totalLength(a), (from, to) -> selectRows(a, keys, from, to));
+    }
+
+    /**
+     * Partition each segment {@code [i * length, (i + 1) * length)} of the array such that
+     * indices {@code k} correspond to their correctly sorted value in the equivalent fully
+     * sorted segment. Indices are relative to the start of each segment.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    public static void selectSegments(double[] a, int length, int... k) {
+        final int[] keys = checkSegments(a.length, length, k);
+        if (keys.length == 0) {
+            return;
+        }
+        selectSegments(a, length, keys, 0, a.length / length);
+    }
+
+    /**
+     * Partition each segment {@code [i * length, (i + 1) * length)} of the array such that
+     * indices {@code k} correspond to their correctly sorted value in the equivalent fully
+     * sorted segment. Indices are relative to the start of each segment.
+     *
+     * <p>Segments are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    public static void parallelSelectSegments(double[] a, int length, int... k) {
+        final int[] keys = checkSegments(a.length, length, k);
+        if (keys.length == 0) {
+            return;
+        }
+        forEachRow(a.length / length, a.length, (from, to) -> selectSegments(a, length, keys, from, to));
+    }
+
+    /**
+     * Partition each row of the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted row.
+     *
+     * @param a Rows of values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    public static void selectRows(int[][] a, int... k) {
+        final int[] keys = sortKeys(k);
+        if (keys.length == 0) {
+            return;
+        }
+        checkRows(a, keys);
+        selectRows(a, keys, 0, a.length);
+    }
+
+    /**
+     * Partition each row of the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted row.
+     *
+     * <p>Rows are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Rows of values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    public static void parallelSelectRows(int[][] a, int... k) {
+        final int[] keys = sortKeys(k);
+        if (keys.length == 0) {
+            return;
+        }
+        checkRows(a, keys);
+        forEachRow(a.length, totalLength(a), (from, to) -> selectRows(a, keys, from, to));
+    }
+
+    /**
+     * Partition each segment {@code [i * length, (i + 1) * length)} of the array such that
+     * indices {@code k} correspond to their correctly sorted value in the equivalent fully
+     * sorted segment. Indices are relative to the start of each segment.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    public static void selectSegments(int[] a, int length, int... k) {
+        final int[] keys = checkSegments(a.length, length, k);
+        if (keys.length == 0) {
+            return;
+        }
+        selectSegments(a, length, keys, 0, a.length / length);
+    }
+
+    /**
+     * Partition each segment {@code [i * length, (i + 1) * length)} of the array such that
+     * indices {@code k} correspond to their correctly sorted value in the equivalent fully
+     * sorted segment. Indices are relative to the start of each segment.
+     *
+     * <p>Segments are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    public static void parallelSelectSegments(int[] a, int length, int... k) {
+        final int[] keys = checkSegments(a.length, length, k);
+        if (keys.length == 0) {
+            return;
+        }
+        forEachRow(a.length / length, a.length, (from, to) -> selectSegments(a, length, keys, from, to));
+    }
+
+    /**
+     * Partition each row of the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted row.
+     *
+     * @param a Rows of values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    public static void selectRows(long[][] a, int... k) {
+        final int[] keys = sortKeys(k);
+        if (keys.length == 0) {
+            return;
+        }
+        checkRows(a, keys);
+        selectRows(a, keys, 0, a.length);
+    }
+
+    /**
+     * Partition each row of the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted row.
+     *
+     * <p>Rows are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Rows of values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    public static void parallelSelectRows(long[][] a, int... k) {
+        final int[] keys = sortKeys(k);
+        if (keys.length == 0) {
+            return;
+        }
+        checkRows(a, keys);
+        forEachRow(a.length, totalLength(a), (from, to) -> selectRows(a, keys, from, to));
+    }
+
+    /**
+     * Partition each segment {@code [i * length, (i + 1) * length)} of the array such that
+     * indices {@code k} correspond to their correctly sorted value in the equivalent fully
+     * sorted segment. Indices are relative to the start of each segment.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    public static void selectSegments(long[] a, int length, int... k) {
+        final int[] keys = checkSegments(a.length, length, k);
+        if (keys.length == 0) {
+            return;
+        }
+        selectSegments(a, length, keys, 0, a.length / length);
+    }
+
+    /**
+     * Partition each segment {@code [i * length, (i + 1) * length)} of the array such that
+     * indices {@code k} correspond to their correctly sorted value in the equivalent fully
+     * sorted segment. Indices are relative to the start of each segment.
+     *
+     * <p>Segments are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    public static void parallelSelectSegments(long[] a, int length, int... k) {
+        final int[] keys = checkSegments(a.length, length, k);
+        if (keys.length == 0) {
+            return;
+        }
+        forEachRow(a.length / length, a.length, (from, to) -> selectSegments(a, length, keys, from, to));
+    }
+
+    /**
+     * Partition the rows in {@code [from, to)}.
+     *
+     * @param a Rows of values.
+     * @param k Indices (sorted and distinct).
+     * @param from Index of the first row (inclusive).
+     * @param to Index of the last row (exclusive).
+     */
+    private static void selectRows(double[][] a, int[] k, int from, int to) {
+        final int[] bounds = new int[1];
+        for (int i = from; i < to; i++) {
+            final double[] x = a[i];
+            select(x, 0, x.length, k, bounds);
+        }
+    }
+
+    /**
+     * Partition the segments in {@code [from, to)}.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices (sorted and distinct).
+     * @param from Index of the first segment (inclusive).
+     * @param to Index of the last segment (exclusive).
+     */
+    private static void selectSegments(double[] a, int length, int[] k, int from, int to) {
+        final int[] bounds = new int[1];
+        final int[] keys = new int[k.length];
+        for (int i = from; i < to; i++) {
+            final int offset = i * length;
+            offsetKeys(k, offset, keys);
+            select(a, offset, offset + length, keys, bounds);
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (sorted and distinct).
+     * @param bounds Workspace of length 1.
+     */
+    private static void select(double[] a, int fromIndex, int toIndex, int[] k, int[] bounds) {
+        // Sort NaN / count signed zeros.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Partition. Indices invalidated by the NaN are ignored.
+        int n = k.length;
+        while (n > 0 && k[n - 1] >= end) {
+            n--;
+        }
+        if (n != 0 && end - fromIndex > 1) {
+            QuickSelect.selectSorted(a, fromIndex, end - 1, k, n, bounds);
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use the largest partition index below zero to fast-forward to zero
+            int j = fromIndex - 1;
+            int lo = 0;
+            int hi = n - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (a[k[mid]] < 0) {
+                    j = k[mid];
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            for (;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the rows in {@code [from, to)}.
+     *
+     * @param a Rows of values.
+     * @param k Indices (sorted and distinct).
+     * @param from Index of the first row (inclusive).
+     * @param to Index of the last row (exclusive).
+     */
+    private static void selectRows(int[][] a, int[] k, int from, int to) {
+        final int[] bounds = new int[1];
+        for (int i = from; i < to; i++) {
+            final int[] x = a[i];
+            if (x.length > 1) {
+                QuickSelect.selectSorted(x, 0, x.length - 1, k, k.length, bounds);
+            }
+        }
+    }
+
+    /**
+     * Partition the segments in {@code [from, to)}.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices (sorted and distinct).
+     * @param from Index of the first segment (inclusive).
+     * @param to Index of the last segment (exclusive).
+     */
+    private static void selectSegments(int[] a, int length, int[] k, int from, int to) {
+        if (length == 1) {
+            return;
+        }
+        final int[] bounds = new int[1];
+        final int[] keys = new int[k.length];
+        for (int i = from; i < to; i++) {
+            final int offset = i * length;
+            offsetKeys(k, offset, keys);
+            QuickSelect.selectSorted(a, offset, offset + length - 1, keys, keys.length, bounds);
+        }
+    }
+
+    /**
+     * Partition the rows in {@code [from, to)}.
+     *
+     * @param a Rows of values.
+     * @param k Indices (sorted and distinct).
+     * @param from Index of the first row (inclusive).
+     * @param to Index of the last row (exclusive).
+     */
+    private static void selectRows(long[][] a, int[] k, int from, int to) {
+        final int[] bounds = new int[1];
+        for (int i = from; i < to; i++) {
+            final long[] x = a[i];
+            if (x.length > 1) {
+                QuickSelect.selectSorted(x, 0, x.length - 1, k, k.length, bounds);
+            }
+        }
+    }
+
+    /**
+     * Partition the segments in {@code [from, to)}.
+     *
+     * @param a Values.
+     * @param length Length of each segment.
+     * @param k Indices (sorted and distinct).
+     * @param from Index of the first segment (inclusive).
+     * @param to Index of the last segment (exclusive).
+     */
+    private static void selectSegments(long[] a, int length, int[] k, int from, int to) {
+        if (length == 1) {
+            return;
+        }
+        final int[] bounds = new int[1];
+        final int[] keys = new int[k.length];
+        for (int i = from; i < to; i++) {
+            final int offset = i * length;
+            offsetKeys(k, offset, keys);
+            QuickSelect.selectSorted(a, offset, offset + length - 1, keys, keys.length, bounds);
+        }
+    }
+
+    /**
+     * Perform the action on the rows in {@code [0, rows)}. The rows are divided into
+     * blocks processed using fork/join tasks if the total length of the rows is large.
+     *
+     * @param rows Number of rows.
+     * @param total Total length of the rows.
+     * @param action Action.
+     */
+    private static void forEachRow(int rows, long total, RowAction action) {
+        final int length = (int) Math.min(total, Integer.MAX_VALUE);
+        if (!ParallelQuickSelect.isParallel(length)) {
+            action.apply(0, rows);
+            return;
+        }
+        // Number of rows covering the block size of elements
+        final int size = (int) Math.max(1, ParallelQuickSelect.blockSize(length) * (long) rows / total);
+        final int blocks = ParallelQuickSelect.blocks(rows, size);
+        ParallelQuickSelect.invoke(ParallelQuickSelect.currentPool(),
+            ForkJoinTask.adapt(() -> ParallelQuickSelect.forEach(blocks, b -> {
+                final int from = b * size;
+                action.apply(from, (int) Math.min(rows, (long) from + size));
+            })));
+    }
+
+    /**
+     * Copy the keys to the destination adding the offset.
+     *
+     * @param k Keys.
+     * @param offset Offset.
+     * @param keys Destination.
+     */
+    private static void offsetKeys(int[] k, int offset, int[] keys) {
+        for (int i = 0; i < k.length; i++) {
+            keys[i] = k[i] + offset;
+        }
+    }
+
+    /**
+     * Create a sorted copy of the distinct indices.
+     *
+     * @param k Indices.
+     * @return the sorted distinct indices
+     */
+    private static int[] sortKeys(int[] k) {
+        if (k.length == 0) {
+            return k;
+        }
+        final int[] keys = k.clone();
+        return Arrays.copyOf(keys, Sorting.sortIndices(keys, keys.length));
+    }
+
+    /**
+     * Check the sorted indices are valid for each row.
+     *
+     * @param a Rows of values.
+     * @param k Indices (sorted and distinct).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    private static void checkRows(double[][] a, int[] k) {
+        for (final double[] x : a) {
+            checkKeys(x.length, k);
+        }
+    }
+
+    /**
+     * Compute the total length of the rows.
+     *
+     * @param a Rows of values.
+     * @return the total length
+     */
+    private static long totalLength(double[][] a) {
+        long total = 0;
+        for (final double[] x : a) {
+            total += x.length;
+        }
+        return total;
+    }
+
+    /**
+     * Check the sorted indices are valid for each row.
+     *
+     * @param a Rows of values.
+     * @param k Indices (sorted and distinct).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    private static void checkRows(int[][] a, int[] k) {
+        for (final int[] x : a) {
+            checkKeys(x.length, k);
+        }
+    }
+
+    /**
+     * Compute the total length of the rows.
+     *
+     * @param a Rows of values.
+     * @return the total length
+     */
+    private static long totalLength(int[][] a) {
+        long total = 0;
+        for (final int[] x : a) {
+            total += x.length;
+        }
+        return total;
+    }
+
+    /**
+     * Check the sorted indices are valid for each row.
+     *
+     * @param a Rows of values.
+     * @param k Indices (sorted and distinct).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, a[i].length)} of any row {@code i}
+     */
+    private static void checkRows(long[][] a, int[] k) {
+        for (final long[] x : a) {
+            checkKeys(x.length, k);
+        }
+    }
+
+    /**
+     * Compute the total length of the rows.
+     *
+     * @param a Rows of values.
+     * @return the total length
+     */
+    private static long totalLength(long[][] a) {
+        long total = 0;
+        for (final long[] x : a) {
+            total += x.length;
+        }
+        return total;
+    }
+
+    /**
+     * Check the segment length and return the sorted distinct indices.
+     *
+     * @param n Length of the array.
+     * @param length Length of each segment.
+     * @param k Indices.
+     * @return the sorted distinct indices
+     * @throws IllegalArgumentException if the {@code length < 1}, or the array length is not
+     * a multiple of the segment length
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    private static int[] checkSegments(int n, int length, int[] k) {
+        if (length < 1) {
+            throw new IllegalArgumentException("Invalid segment length: " + length);
+        }
+        if (n % length != 0) {
+            throw new IllegalArgumentException(
+                "Array length " + n + " is not a multiple of the segment length " + length);
+        }
+        final int[] keys = sortKeys(k);
+        if (keys.length != 0) {
+            checkKeys(length, keys);
+        }
+        return keys;
+    }
+
+    /**
+     * Check the sorted indices are within the range {@code [0, length)}.
+     *
+     * @param length Length of the row.
+     * @param k Indices (sorted and distinct).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * range {@code [0, length)}
+     */
+    private static void checkKeys(int length, int[] k) {
+        IndexSupport.checkIndex(0, length, k[0]);
+        IndexSupport.checkIndex(0, length, k[k.length - 1]);
+    }
+}
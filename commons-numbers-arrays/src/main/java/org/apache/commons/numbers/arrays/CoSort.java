@@ -0,0 +1,1097 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sort an array of keys and perform the same reordering of entries on companion arrays.
+ *
+ * <p>Keys may be {@code int}, {@code long} or {@code double} values. Companion arrays
+ * may be any mix of primitive arrays or {@code Object[]} arrays; each must have the
+ * same length as the keys. For example:
+ *
+ * <pre>
+ * long[] time = {30, 10, 20};
+ * int[] id = {1, 2, 3};
+ * float[] value = {0.5f, 1.5f, 2.5f};
+ * CoSort.withDefaults().sort(time, id, value);
+ * // time = {10, 20, 30}
+ * // id = {2, 3, 1}
+ * // value = {1.5f, 2.5f, 0.5f}
+ * </pre>
+ *
+ * <p>Floating-point keys are ordered using {@link Double#compare(double, double)}:
+ * {@code -0.0} is before {@code 0.0}, and {@code NaN} is after all other values.
+ *
+ * <p>The sort computes the permutation of the keys using primitive arrays. The
+ * permutation is applied to each companion array in-place by following its cycles.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ *
+ * @see SortInPlace
+ * @since 1.4
+ */
+public final class CoSort {
+    /** Default instance. */
+    private static final CoSort DEFAULT = new CoSort(false, false, false);
+    /** Threshold below which ranges are sorted using insertion sort. */
+    private static final int INSERTION_SORT_SIZE = 20;
+    /** Mask to extract the index from the lower 32-bits of a packed long. */
+    private static final long INDEX_MASK = 0xffffffffL;
+    /** Empty companion arrays. */
+    private static final Object[] NO_COMPANIONS = {};
+
+    /** Flag for descending order. */
+    private final boolean descending;
+    /** Flag for a stable sort. */
+    private final boolean stable;
+    /** Flag for a parallel sort. */
+    private final boolean parallel;
+
+    /**
+     * @param descending Flag for descending order.
+     * @param stable Flag for a stable sort.
+     * @param parallel Flag for a parallel sort.
+     */
+    private CoSort(boolean descending, boolean stable, boolean parallel) {
+        this.descending = descending;
+        this.stable = stable;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Return an instance with the default options.
+     *
+     * <ul>
+     * <li>{@linkplain #withDescending(boolean) Descending = false}
+     * <li>{@linkplain #withStable(boolean) Stable = false}
+     * <li>{@linkplain #withParallel(boolean) Parallel = false}
+     * </ul>
+     *
+     * @return the sort implementation
+     */
+    public static CoSort withDefaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Return an instance with the configured sort order. If {@code true} the keys
+     * are sorted in descending order; otherwise ascending order.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public CoSort withDescending(boolean v) {
+        return new CoSort(v, stable, parallel);
+    }
+
+    /**
+     * Return an instance with the configured stability. If {@code true} then equal
+     * keys retain their original relative order. An unstable sort requires less
+     * working memory.
+     *
+     * <p>Note: The sort of {@code int} keys is always stable.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public CoSort withStable(boolean v) {
+        return new CoSort(descending, v, parallel);
+    }
+
+    /**
+     * Return an instance with the configured parallel behaviour. If {@code true}
+     * then large arrays are sorted using tasks in the
+     * {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. The permutation of the companion arrays is sequential.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public CoSort withParallel(boolean v) {
+        return new CoSort(descending, stable, v);
+    }
+
+    /**
+     * Sort the keys.
+     *
+     * @param keys Keys.
+     */
+    public void sort(int[] keys) {
+        sortAll(keys, NO_COMPANIONS);
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to the companion array.
+     *
+     * <p>The companion is a single array of any supported type. This includes an
+     * {@code Object[]}, for example {@code String[]}, which is not used as an array
+     * of companions.
+     *
+     * @param keys Keys.
+     * @param companion Companion array.
+     * @throws IllegalArgumentException if the companion is not an array type,
+     * or does not have the same length as the keys.
+     */
+    public void sort(int[] keys, Object companion) {
+        sortAll(keys, new Object[] {companion});
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to the companion arrays.
+     *
+     * @param keys Keys.
+     * @param companion1 First companion array.
+     * @param companion2 Second companion array.
+     * @param companions Further companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    public void sort(int[] keys, Object companion1, Object companion2, Object... companions) {
+        sortAll(keys, companions(companion1, companion2, companions));
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to each of the companion arrays.
+     *
+     * @param keys Keys.
+     * @param companions Companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    void sortAll(int[] keys, Object[] companions) {
+        final int len = keys.length;
+        checkCompanions(len, companions);
+        if (len < 2) {
+            return;
+        }
+        // Pack the key in the upper 32-bits and the index in the lower 32-bits.
+        // The index is unique and the sort is stable.
+        final long[] packed = new long[len];
+        for (int i = 0; i < len; i++) {
+            final int k = descending ? ~keys[i] : keys[i];
+            packed[i] = ((long) k << Integer.SIZE) | i;
+        }
+        if (isParallel(len)) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+        final int[] perm = new int[len];
+        for (int i = 0; i < len; i++) {
+            final long p = packed[i];
+            final int k = (int) (p >> Integer.SIZE);
+            keys[i] = descending ? ~k : k;
+            perm[i] = (int) (p & INDEX_MASK);
+        }
+        permuteAll(perm, companions);
+    }
+
+    /**
+     * Sort the keys.
+     *
+     * @param keys Keys.
+     */
+    public void sort(long[] keys) {
+        sortAll(keys, NO_COMPANIONS);
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to the companion array.
+     *
+     * <p>The companion is a single array of any supported type. This includes an
+     * {@code Object[]}, for example {@code String[]}, which is not used as an array
+     * of companions.
+     *
+     * @param keys Keys.
+     * @param companion Companion array.
+     * @throws IllegalArgumentException if the companion is not an array type,
+     * or does not have the same length as the keys.
+     */
+    public void sort(long[] keys, Object companion) {
+        sortAll(keys, new Object[] {companion});
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to the companion arrays.
+     *
+     * @param keys Keys.
+     * @param companion1 First companion array.
+     * @param companion2 Second companion array.
+     * @param companions Further companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    public void sort(long[] keys, Object companion1, Object companion2, Object... companions) {
+        sortAll(keys, companions(companion1, companion2, companions));
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to each of the companion arrays.
+     *
+     * @param keys Keys.
+     * @param companions Companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    void sortAll(long[] keys, Object[] companions) {
+        final int len = keys.length;
+        checkCompanions(len, companions);
+        if (len < 2) {
+            return;
+        }
+        // Bitwise complement reverses the order for a descending sort
+        if (descending) {
+            complement(keys);
+        }
+        final int[] perm = sortIndices(keys);
+        if (descending) {
+            complement(keys);
+        }
+        permuteAll(perm, companions);
+    }
+
+    /**
+     * Sort the keys.
+     *
+     * @param keys Keys.
+     */
+    public void sort(double[] keys) {
+        sortAll(keys, NO_COMPANIONS);
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to the companion array.
+     *
+     * <p>The companion is a single array of any supported type. This includes an
+     * {@code Object[]}, for example {@code String[]}, which is not used as an array
+     * of companions.
+     *
+     * @param keys Keys.
+     * @param companion Companion array.
+     * @throws IllegalArgumentException if the companion is not an array type,
+     * or does not have the same length as the keys.
+     */
+    public void sort(double[] keys, Object companion) {
+        sortAll(keys, new Object[] {companion});
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to the companion arrays.
+     *
+     * @param keys Keys.
+     * @param companion1 First companion array.
+     * @param companion2 Second companion array.
+     * @param companions Further companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    public void sort(double[] keys, Object companion1, Object companion2, Object... companions) {
+        sortAll(keys, companions(companion1, companion2, companions));
+    }
+
+    /**
+     * Sort the keys and apply the same reordering to each of the companion arrays.
+     *
+     * @param keys Keys.
+     * @param companions Companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    void sortAll(double[] keys, Object[] companions) {
+        final int len = keys.length;
+        checkCompanions(len, companions);
+        if (len < 2) {
+            return;
+        }
+        // Map to long keys with the same order as Double.compare
+        final long[] x = new long[len];
+        boolean nan = false;
+        for (int i = 0; i < len; i++) {
+            final double v = keys[i];
+            nan |= v != v;
+            final long bits = Double.doubleToLongBits(v);
+            final long k = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            x[i] = descending ? ~k : k;
+        }
+        final int[] perm = sortIndices(x);
+        if (nan) {
+            // Reorder the original keys to preserve NaN bits
+            permute(perm, keys);
+        } else {
+            // The mapping is self-inverse
+            for (int i = 0; i < len; i++) {
+                final long k = descending ? ~x[i] : x[i];
+                keys[i] = Double.longBitsToDouble(k ^ ((k >> 63) & Long.MAX_VALUE));
+            }
+        }
+        permuteAll(perm, companions);
+    }
+
+    /**
+     * Sort the keys and return the permutation of the original indices.
+     * On output the keys are sorted in ascending order.
+     *
+     * @param x Keys.
+     * @return the permutation
+     */
+    private int[] sortIndices(long[] x) {
+        final int len = x.length;
+        final int[] perm = new int[len];
+        for (int i = 0; i < len; i++) {
+            perm[i] = i;
+        }
+        if (stable) {
+            final long[] xt = new long[len];
+            final int[] it = new int[len];
+            if (isParallel(len)) {
+                ParallelQuickSelect.invoke(ParallelQuickSelect.currentPool(),
+                    new MergeSortTask(x, perm, xt, it, 0, len));
+            } else {
+                mergeSort(x, perm, xt, it, 0, len);
+            }
+        } else {
+            if (isParallel(len)) {
+                ParallelQuickSelect.invoke(ParallelQuickSelect.currentPool(),
+                    new QuickSortTask(x, perm, 0, len - 1, maxDepth(len)));
+            } else {
+                quickSort(x, perm, 0, len - 1, maxDepth(len));
+            }
+        }
+        return perm;
+    }
+
+    /**
+     * Checks if an array of the given length should be sorted in parallel.
+     *
+     * @param length Length of the array.
+     * @return true if parallel
+     */
+    private boolean isParallel(int length) {
+        return parallel && ParallelQuickSelect.isParallel(length);
+    }
+
+    /**
+     * Create the array of companions.
+     *
+     * @param companion1 First companion array.
+     * @param companion2 Second companion array.
+     * @param companions Further companion arrays.
+     * @return the companion arrays
+     */
+    private static Object[] companions(Object companion1, Object companion2, Object[] companions) {
+        final Object[] all = new Object[companions.length + 2];
+        all[0] = companion1;
+        all[1] = companion2;
+        System.arraycopy(companions, 0, all, 2, companions.length);
+        return all;
+    }
+
+    /**
+     * Check the companion arrays are supported array types of the given length.
+     *
+     * @param len Length.
+     * @param companions Companion arrays.
+     * @throws IllegalArgumentException if any companion array is not an array type,
+     * or not all arrays have the same length.
+     */
+    private static void checkCompanions(int len, Object[] companions) {
+        for (final Object y : companions) {
+            final int n = length(y);
+            if (n != len) {
+                throw new IllegalArgumentException("Size mismatch: " + n + " != " + len);
+            }
+        }
+    }
+
+    /**
+     * Gets the length of the array.
+     *
+     * @param a Array.
+     * @return the length
+     * @throws IllegalArgumentException if the object is not a supported array type.
+     */
+    private static int length(Object a) {
+        if (a instanceof double[]) {
+            return ((double[]) a).length;
+        } else if (a instanceof int[]) {
+            return ((int[]) a).length;
+        } else if (a instanceof long[]) {
+            return ((long[]) a).length;
+        } else if (a instanceof float[]) {
+            return ((float[]) a).length;
+        } else if (a instanceof short[]) {
+            return ((short[]) a).length;
+        } else if (a instanceof char[]) {
+            return ((char[]) a).length;
+        } else if (a instanceof byte[]) {
+            return ((byte[]) a).length;
+        } else if (a instanceof boolean[]) {
+            return ((boolean[]) a).length;
+        } else if (a instanceof Object[]) {
+            return ((Object[]) a).length;
+        }
+        // A null array throws NullPointerException
+        throw new IllegalArgumentException("Unsupported array type: " + a.getClass().getName());
+    }
+
+    /**
+     * Invert the bits of each value.
+     *
+     * @param x Values.
+     */
+    private static void complement(long[] x) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] = ~x[i];
+        }
+    }
+
+    /**
+     * Compute the depth limit for the quicksort before switching to heapsort.
+     *
+     * @param n Length of the range.
+     * @return the depth limit
+     */
+    private static int maxDepth(int n) {
+        return 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(n));
+    }
+
+    /**
+     * Stable sort of the keys in the range {@code [from, to)} using a merge sort.
+     * The same reordering is applied to the indices.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param xt Workspace for the keys.
+     * @param it Workspace for the indices.
+     * @param from Start (inclusive).
+     * @param to End (exclusive).
+     */
+    static void mergeSort(long[] x, int[] indices, long[] xt, int[] it, int from, int to) {
+        if (to - from <= INSERTION_SORT_SIZE) {
+            insertionSort(x, indices, from, to - 1);
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(x, indices, xt, it, from, mid);
+        mergeSort(x, indices, xt, it, mid, to);
+        merge(x, indices, xt, it, from, mid, to);
+    }
+
+    /**
+     * Merge the sorted ranges {@code [from, mid)} and {@code [mid, to)}.
+     * Ties take the value from the left range to maintain stability.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param xt Workspace for the keys.
+     * @param it Workspace for the indices.
+     * @param from Start (inclusive).
+     * @param mid Start of the right range.
+     * @param to End (exclusive).
+     */
+    private static void merge(long[] x, int[] indices, long[] xt, int[] it, int from, int mid, int to) {
+        // Skip the merge if the two halves are already ordered
+        if (x[mid - 1] <= x[mid]) {
+            return;
+        }
+        System.arraycopy(x, from, xt, from, mid - from);
+        System.arraycopy(indices, from, it, from, mid - from);
+        // Merge the left half from the workspace with the right half in-place
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            if (x[j] < xt[i]) {
+                x[k] = x[j];
+                indices[k] = indices[j];
+                j++;
+            } else {
+                x[k] = xt[i];
+                indices[k] = it[i];
+                i++;
+            }
+            k++;
+        }
+        // Any remaining right half values are already in place
+        final int n = mid - i;
+        System.arraycopy(xt, i, x, k, n);
+        System.arraycopy(it, i, indices, k, n);
+    }
+
+    /**
+     * Unstable sort of the keys in the range {@code [left, right]} using a quicksort
+     * with a three-way partition. Switches to a heapsort if the recursion depth
+     * is exhausted. The same reordering is applied to the indices.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param maxDepth Depth limit for recursion.
+     */
+    static void quickSort(long[] x, int[] indices, int left, int right, int maxDepth) {
+        int l = left;
+        int r = right;
+        int depth = maxDepth;
+        while (r - l >= INSERTION_SORT_SIZE) {
+            if (--depth < 0) {
+                heapSort(x, indices, l, r);
+                return;
+            }
+            final long upper = partition(x, indices, l, r);
+            final int lt = (int) (upper >>> Integer.SIZE);
+            final int gt = (int) (upper & INDEX_MASK);
+            // Recurse into the smaller range to limit the stack size
+            if (lt - l < r - gt) {
+                quickSort(x, indices, l, lt - 1, depth);
+                l = gt + 1;
+            } else {
+                quickSort(x, indices, gt + 1, r, depth);
+                r = lt - 1;
+            }
+        }
+        insertionSort(x, indices, l, r);
+    }
+
+    /**
+     * Partition the range {@code [left, right]} around a pivot chosen as the median
+     * of three values. On output the values in {@code [lt, gt]} are equal to the pivot;
+     * values before are smaller and values after are larger.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @return the bounds of the pivot range packed as {@code (lt << 32) | gt}
+     */
+    private static long partition(long[] x, int[] indices, int left, int right) {
+        final int mid = (left + right) >>> 1;
+        if (x[mid] < x[left]) {
+            swap(x, indices, mid, left);
+        }
+        if (x[right] < x[left]) {
+            swap(x, indices, right, left);
+        }
+        if (x[right] < x[mid]) {
+            swap(x, indices, right, mid);
+        }
+        final long v = x[mid];
+        // Dutch national flag partition
+        int lt = left;
+        int gt = right;
+        int i = left;
+        while (i <= gt) {
+            final long xi = x[i];
+            if (xi < v) {
+                swap(x, indices, lt++, i++);
+            } else if (xi > v) {
+                swap(x, indices, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << Integer.SIZE) | gt;
+    }
+
+    /**
+     * Sort the keys in the range {@code [left, right]} using a heapsort.
+     * The same reordering is applied to the indices.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    private static void heapSort(long[] x, int[] indices, int left, int right) {
+        final int n = right - left + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(x, indices, left, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(x, indices, left, left + end);
+            siftDown(x, indices, left, 0, end);
+        }
+    }
+
+    /**
+     * Sift the element down the max heap stored at offset {@code left}.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param left Offset of the heap.
+     * @param root Index of the element in the heap.
+     * @param n Size of the heap.
+     */
+    private static void siftDown(long[] x, int[] indices, int left, int root, int n) {
+        int p = root;
+        int c = (p << 1) + 1;
+        while (c < n) {
+            if (c + 1 < n && x[left + c] < x[left + c + 1]) {
+                c++;
+            }
+            if (x[left + p] >= x[left + c]) {
+                return;
+            }
+            swap(x, indices, left + p, left + c);
+            p = c;
+            c = (p << 1) + 1;
+        }
+    }
+
+    /**
+     * Stable sort of the keys in the range {@code [left, right]} using an insertion sort.
+     * The same reordering is applied to the indices.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    private static void insertionSort(long[] x, int[] indices, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            final long v = x[i];
+            final int index = indices[i];
+            int j = i - 1;
+            while (j >= left && v < x[j]) {
+                x[j + 1] = x[j];
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            x[j + 1] = v;
+            indices[j + 1] = index;
+        }
+    }
+
+    /**
+     * Swaps the two keys and indices.
+     *
+     * @param x Keys.
+     * @param indices Indices.
+     * @param i Index.
+     * @param j Index.
+     */
+    private static void swap(long[] x, int[] indices, int i, int j) {
+        final long v = x[i];
+        x[i] = x[j];
+        x[j] = v;
+        final int k = indices[i];
+        indices[i] = indices[j];
+        indices[j] = k;
+    }
+
+    /**
+     * Apply the permutation to each array in-place.
+     *
+     * @param perm Permutation.
+     * @param companions Arrays.
+     * @see #permute(int[], double[])
+     */
+    private static void permuteAll(int[] perm, Object[] companions) {
+        for (final Object a : companions) {
+            if (a instanceof double[]) {
+                permute(perm, (double[]) a);
+            } else if (a instanceof int[]) {
+                permute(perm, (int[]) a);
+            } else if (a instanceof long[]) {
+                permute(perm, (long[]) a);
+            } else if (a instanceof float[]) {
+                permute(perm, (float[]) a);
+            } else if (a instanceof short[]) {
+                permute(perm, (short[]) a);
+            } else if (a instanceof char[]) {
+                permute(perm, (char[]) a);
+            } else if (a instanceof byte[]) {
+                permute(perm, (byte[]) a);
+            } else if (a instanceof boolean[]) {
+                permute(perm, (boolean[]) a);
+            } else {
+                permute(perm, (Object[]) a);
+            }
+        }
+    }
+
+    /**
+     * Apply the permutation to the array in-place by following the cycles
+     * of the permutation. On output the element at index {@code i} is the element
+     * previously at {@code perm[i]}.
+     *
+     * <p>Visited positions are marked by inverting the bits of the index. The
+     * permutation is restored on output.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     */
+    private static void permute(int[] perm, double[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final double v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, int[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final int v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, long[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final long v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, float[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final float v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, short[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final short v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, char[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final char v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, byte[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final byte v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, boolean[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final boolean v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Apply the permutation to the array in-place.
+     *
+     * @param perm Permutation.
+     * @param y Array.
+     * @see #permute(int[], double[])
+     */
+    private static void permute(int[] perm, Object[] y) {
+        final int len = perm.length;
+        for (int i = 0; i < len; i++) {
+            int j = perm[i];
+            if (j < 0) {
+                continue;
+            }
+            final Object v = y[i];
+            int k = i;
+            while (j != i) {
+                y[k] = y[j];
+                perm[k] = ~j;
+                k = j;
+                j = perm[k];
+            }
+            y[k] = v;
+            perm[k] = ~j;
+        }
+        complement(perm);
+    }
+
+    /**
+     * Invert the bits of each value.
+     *
+     * @param x Values.
+     */
+    private static void complement(int[] x) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] = ~x[i];
+        }
+    }
+
+    /**
+     * Stable merge sort of a range using fork/join tasks. The two halves are sorted
+     * in parallel and then merged.
+     */
+    private static final class MergeSortTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261019L;
+
+        /** Keys. */
+        private final long[] x;
+        /** Indices. */
+        private final int[] indices;
+        /** Workspace for the keys. */
+        private final long[] xt;
+        /** Workspace for the indices. */
+        private final int[] it;
+        /** Start (inclusive). */
+        private final int from;
+        /** End (exclusive). */
+        private final int to;
+
+        /**
+         * @param x Keys.
+         * @param indices Indices.
+         * @param xt Workspace for the keys.
+         * @param it Workspace for the indices.
+         * @param from Start (inclusive).
+         * @param to End (exclusive).
+         */
+        MergeSortTask(long[] x, int[] indices, long[] xt, int[] it, int from, int to) {
+            this.x = x;
+            this.indices = indices;
+            this.xt = xt;
+            this.it = it;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < ParallelQuickSelect.PARALLEL_THRESHOLD) {
+                mergeSort(x, indices, xt, it, from, to);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new MergeSortTask(x, indices, xt, it, from, mid),
+                      new MergeSortTask(x, indices, xt, it, mid, to));
+            merge(x, indices, xt, it, from, mid, to);
+        }
+    }
+
+    /**
+     * Unstable quicksort of a range using fork/join tasks. The ranges either side
+     * of the partition are sorted in parallel.
+     */
+    private static final class QuickSortTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261019L;
+
+        /** Keys. */
+        private final long[] x;
+        /** Indices. */
+        private final int[] indices;
+        /** Lower bound (inclusive). */
+        private final int left;
+        /** Upper bound (inclusive). */
+        private final int right;
+        /** Depth limit for recursion. */
+        private final int maxDepth;
+
+        /**
+         * @param x Keys.
+         * @param indices Indices.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @param maxDepth Depth limit for recursion.
+         */
+        QuickSortTask(long[] x, int[] indices, int left, int right, int maxDepth) {
+            this.x = x;
+            this.indices = indices;
+            this.left = left;
+            this.right = right;
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        protected void compute() {
+            // Sequential sort switches to heapsort when the depth is exhausted
+            if (right - left < ParallelQuickSelect.PARALLEL_THRESHOLD || maxDepth <= 0) {
+                quickSort(x, indices, left, right, maxDepth);
+                return;
+            }
+            final long upper = partition(x, indices, left, right);
+            final int lt = (int) (upper >>> Integer.SIZE);
+            final int gt = (int) (upper & INDEX_MASK);
+            invokeAll(new QuickSortTask(x, indices, left, lt - 1, maxDepth - 1),
+                      new QuickSortTask(x, indices, gt + 1, right, maxDepth - 1));
+        }
+    }
+}
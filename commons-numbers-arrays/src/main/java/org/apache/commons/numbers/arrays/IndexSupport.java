@@ -300,6 +300,23 @@ final class IndexSupport {
         }
     }
 
+    /**
+     * Checks if the range {@code [ka, kb]} is within the half-open interval
+     * {@code [fromIndex, toIndex)} and {@code ka <= kb}.
+     *
+     * @param fromIndex Lower-bound (inclusive) of the sub-range.
+     * @param toIndex Upper-bound (exclusive) of the sub-range.
+     * @param ka Lower index (inclusive).
+     * @param kb Upper index (inclusive).
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    static void checkIndexRange(int fromIndex, int toIndex, int ka, int kb) {
+        if (ka < fromIndex || ka > kb || kb >= toIndex) {
+            throw new IndexOutOfBoundsException(
+                msgIndexRangeOutOfBounds(fromIndex, toIndex, ka, kb));
+        }
+    }
+
     // Message formatting moved to separate methods to assist inlining of the validation methods.
 
     /**
@@ -325,4 +342,17 @@ final class IndexSupport {
     private static String msgIndexOutOfBounds(int fromIndex, int toIndex, int index) {
         return String.format("Index %d out of bounds for range [%d, %d)", index, fromIndex, toIndex);
     }
+
+    /**
+     * Format a message when index range [ka, kb] is not within range [from, to).
+     *
+     * @param fromIndex Lower-bound (inclusive) of the sub-range.
+     * @param toIndex Upper-bound (exclusive) of the sub-range.
+     * @param ka Lower index (inclusive).
+     * @param kb Upper index (inclusive).
+     * @return the message
+     */
+    private static String msgIndexRangeOutOfBounds(int fromIndex, int toIndex, int ka, int kb) {
+        return String.format("Index range [%d, %d] out of bounds for range [%d, %d)", ka, kb, fromIndex, toIndex);
+    }
 }
@@ -0,0 +1,457 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Select indices in object array data.
+ *
+ * <p>Partitions an array such that indices {@code k} correspond to their correctly sorted
+ * value in the equivalent fully sorted array. The order is imposed by a {@link Comparator},
+ * or by a {@code double} key extracted from each element. For all indices {@code k} and
+ * any index {@code i}:
+ *
+ * <pre>{@code
+ * compare(data[i < k], data[k]) <= 0 && compare(data[k], data[k < i]) <= 0
+ * }</pre>
+ *
+ * <p>Examples:
+ *
+ * <pre>
+ * data    [0, 1, 2, 1, 2, 5, 2, 3, 3, 6, 7, 7, 7, 7]
+ *
+ *
+ * k=4   : [0, 1, 2, 1], [2], [5, 2, 3, 3, 6, 7, 7, 7, 7]
+ * k=4,8 : [0, 1, 2, 1], [2], [3, 3, 2], [5], [6, 7, 7, 7, 7]
+ * </pre>
+ *
+ * <p>Note: Unlike a sort, the selection is not stable: the relative order of elements that
+ * compare equal is not preserved. The algorithm may reorder any part of the range above
+ * and below the target indices. Correct usage for multiple target indices should not call
+ * multiple times with each index but instead call selection only once with all indices.
+ *
+ * <p>Implementation details
+ *
+ * <p>Object arrays ordered by a {@link Comparator} use an introselect. The pivot is a
+ * median-of-3, or Tukey's ninther for larger ranges; if a partition does not sufficiently
+ * reduce the range containing the target then the next pivot is the median of medians
+ * ensuring worse-case linear run time performance.
+ *
+ * <p>Object arrays ordered by a {@code double} key extract the keys once to a primitive
+ * array. The key values at the target indices are identified using {@link Selection}
+ * of values; the elements are then partitioned around those values in linear time for a
+ * single value, or using a binary search of the values for multiple targets. This avoids
+ * boxing the keys and requires temporary storage proportional to the length of the range.
+ * The keys are ordered using {@link Double#compare(double, double)}.
+ *
+ * @see Selection
+ * @since 1.4
+ */
+public final class ObjectSelection {
+
+    /** No instances. */
+    private ObjectSelection() {}
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param k Index.
+     * @param c Comparator.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @throws NullPointerException if the comparator is null
+     */
+    public static <T> void select(T[] a, int k, Comparator<? super T> c) {
+        IndexSupport.checkIndex(0, a.length, k);
+        doSelect(a, 0, a.length, k, c);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @param c Comparator.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @throws NullPointerException if the comparator is null
+     */
+    public static <T> void select(T[] a, int[] k, Comparator<? super T> c) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelect(a, 0, a.length, k, c);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @param c Comparator.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @throws NullPointerException if the comparator is null
+     */
+    public static <T> void select(T[] a, int fromIndex, int toIndex, int k, Comparator<? super T> c) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k, c);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @param c Comparator.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @throws NullPointerException if the comparator is null
+     */
+    public static <T> void select(T[] a, int fromIndex, int toIndex, int[] k, Comparator<? super T> c) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k, c);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @param c Comparator.
+     */
+    private static <T> void doSelect(T[] a, int fromIndex, int toIndex, int k, Comparator<? super T> c) {
+        Objects.requireNonNull(c);
+        if (toIndex - fromIndex > 1) {
+            QuickSelect.select(a, fromIndex, toIndex - 1, k, c);
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @param c Comparator.
+     */
+    private static <T> void doSelect(T[] a, int fromIndex, int toIndex, int[] k, Comparator<? super T> c) {
+        Objects.requireNonNull(c);
+        if (k.length != 0 && toIndex - fromIndex > 1) {
+            QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length, c);
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the {@code double} key of each element.
+     *
+     * <p>Keys are compared using {@link Double#compare(double, double)}. The key of
+     * each element is extracted once.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param k Index.
+     * @param key Function to extract the key of an element.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @throws NullPointerException if the key function is null
+     */
+    public static <T> void selectByKey(T[] a, int k, ToDoubleFunction<? super T> key) {
+        IndexSupport.checkIndex(0, a.length, k);
+        doSelectByKey(a, 0, a.length, k, key);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the {@code double} key of each element.
+     *
+     * <p>Keys are compared using {@link Double#compare(double, double)}. The key of
+     * each element is extracted once.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param k Indices.
+     * @param key Function to extract the key of an element.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @throws NullPointerException if the key function is null
+     */
+    public static <T> void selectByKey(T[] a, int[] k, ToDoubleFunction<? super T> key) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelectByKey(a, 0, a.length, k, key);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the {@code double} key of each element.
+     *
+     * <p>Keys are compared using {@link Double#compare(double, double)}. The key of
+     * each element is extracted once.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @param key Function to extract the key of an element.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @throws NullPointerException if the key function is null
+     */
+    public static <T> void selectByKey(T[] a, int fromIndex, int toIndex, int k,
+            ToDoubleFunction<? super T> key) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelectByKey(a, fromIndex, toIndex, k, key);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the {@code double} key of each element.
+     *
+     * <p>Keys are compared using {@link Double#compare(double, double)}. The key of
+     * each element is extracted once.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @param key Function to extract the key of an element.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @throws NullPointerException if the key function is null
+     */
+    public static <T> void selectByKey(T[] a, int fromIndex, int toIndex, int[] k,
+            ToDoubleFunction<? super T> key) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelectByKey(a, fromIndex, toIndex, k, key);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the {@code double} key of each element.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @param key Function to extract the key of an element.
+     */
+    private static <T> void doSelectByKey(T[] a, int fromIndex, int toIndex, int k,
+            ToDoubleFunction<? super T> key) {
+        Objects.requireNonNull(key);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        final long[] x = extractKeys(a, fromIndex, toIndex, key);
+        final long v = Selection.selectValue(x, 0, x.length, k - fromIndex);
+        partition(x, a, fromIndex, 0, x.length, v, new int[2]);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array using the order imposed by
+     * the {@code double} key of each element.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @param key Function to extract the key of an element.
+     */
+    private static <T> void doSelectByKey(T[] a, int fromIndex, int toIndex, int[] k,
+            ToDoubleFunction<? super T> key) {
+        Objects.requireNonNull(key);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        final long[] x = extractKeys(a, fromIndex, toIndex, key);
+        final int[] keys = new int[k.length];
+        for (int i = 0; i < k.length; i++) {
+            keys[i] = k[i] - fromIndex;
+        }
+        final long[] values = Selection.selectValues(x, 0, x.length, keys);
+        // Distinct target values in ascending order
+        Arrays.sort(values);
+        int n = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[n - 1]) {
+                values[n++] = values[i];
+            }
+        }
+        if (n == 1) {
+            partition(x, a, fromIndex, 0, x.length, values[0], new int[2]);
+        } else {
+            partition(x, a, fromIndex, Arrays.copyOf(values, n));
+        }
+    }
+
+    /**
+     * Extract the key of each element in the sub-range. The key is mapped to a
+     * {@code long} with the same ordering as {@link Double#compare(double, double)}
+     * when compared as a signed {@code long}.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param key Function to extract the key of an element.
+     * @return the keys
+     */
+    private static <T> long[] extractKeys(T[] a, int fromIndex, int toIndex,
+            ToDoubleFunction<? super T> key) {
+        final long[] x = new long[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            x[i - fromIndex] = Sorting.toKey(key.applyAsDouble(a[i]));
+        }
+        return x;
+    }
+
+    /**
+     * Partition the keys sub-range, and the corresponding elements, into keys less than,
+     * equal to, and greater than the pivot value.
+     *
+     * <p>The bounds of the central region of keys equal to the pivot are returned
+     * as {@code [lower, upper)}.
+     *
+     * @param <T> Type of the elements.
+     * @param x Keys.
+     * @param a Values; key {@code x[i]} corresponds to element {@code a[i + offset]}.
+     * @param offset Offset of the keys in the values.
+     * @param from Index of the first key (inclusive).
+     * @param to Index of the last key (exclusive).
+     * @param v Pivot value.
+     * @param bounds Partition bounds {@code [lower, upper)}.
+     */
+    private static <T> void partition(long[] x, T[] a, int offset, int from, int to, long v,
+            int[] bounds) {
+        // Two passes of a branchless Lomuto partition: [< v] then [== v]
+        int j = from;
+        for (int i = from; i < to; i++) {
+            final long y = x[i];
+            swap(x, a, offset, i, j);
+            j += y < v ? 1 : 0;
+        }
+        bounds[0] = j;
+        for (int i = j; i < to; i++) {
+            final long y = x[i];
+            swap(x, a, offset, i, j);
+            j += y == v ? 1 : 0;
+        }
+        bounds[1] = j;
+    }
+
+    /**
+     * Partition the elements sub-range into elements with keys in the ranges bounded by,
+     * and equal to, the pivot values.
+     *
+     * @param <T> Type of the elements.
+     * @param x Keys of the elements sub-range.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param v Pivot values (distinct and ascending).
+     */
+    private static <T> void partition(long[] x, T[] a, int fromIndex, long[] v) {
+        final int[] bins = new int[x.length];
+        final int[] count = new int[(v.length << 1) + 1];
+        for (int i = 0; i < x.length; i++) {
+            // Not found returns (-(insertion point) - 1).
+            // Bins 2i + 1 contain keys equal to pivot i;
+            // bins 2i contain keys between pivots i - 1 and i.
+            final int j = Arrays.binarySearch(v, x[i]);
+            final int b = j < 0 ? -(j + 1) << 1 : (j << 1) + 1;
+            bins[i] = b;
+            count[b]++;
+        }
+        // Convert the counts to the start of each bin
+        int start = fromIndex;
+        for (int i = 0; i < count.length; i++) {
+            final int c = count[i];
+            count[i] = start;
+            start += c;
+        }
+        // Stable scatter of the elements
+        final T[] copy = Arrays.copyOfRange(a, fromIndex, fromIndex + x.length);
+        for (int i = 0; i < bins.length; i++) {
+            a[count[bins[i]]++] = copy[i];
+        }
+    }
+
+    /**
+     * Swaps the two keys, and the corresponding elements.
+     *
+     * @param <T> Type of the elements.
+     * @param x Keys.
+     * @param a Values; key {@code x[i]} corresponds to element {@code a[i + offset]}.
+     * @param offset Offset of the keys in the values.
+     * @param i First index.
+     * @param j Second index.
+     */
+    private static <T> void swap(long[] x, T[] a, int offset, int i, int j) {
+        final long u = x[i];
+        x[i] = x[j];
+        x[j] = u;
+        final T v = a[i + offset];
+        a[i + offset] = a[j + offset];
+        a[j + offset] = v;
+    }
+}
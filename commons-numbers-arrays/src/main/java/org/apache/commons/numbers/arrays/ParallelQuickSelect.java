@@ -0,0 +1,1330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Partition array data using fork/join parallelism.
+ *
+ * <p>Large ranges are divided by a partition around one or two pivot values chosen
+ * from a sample of the range. Each partition is computed in parallel: fixed size blocks
+ * of the range are partitioned independently; the elements on the wrong side of the final
+ * partition point are then exchanged in parallel. Divisions of the range containing target
+ * indices are processed by independent tasks. Ranges below a threshold length
+ * are processed using {@link QuickSelect}.
+ *
+ * <p>When the target indices are close the pivots bracket the estimated rank of the
+ * indices in the sample. The target indices are then expected to be in a small central
+ * division of the range. Otherwise a single pivot at the estimated value of the median
+ * target index is used; the range is divided into values below, equal to, and above
+ * the pivot.
+ *
+ * <p>Note: The partition methods have the same requirements as {@link QuickSelect}:
+ * floating-point data must not contain NaN values and mixed signed zeros may be destroyed.
+ * The entry point for {@code double} data handles NaN and signed zeros.
+ *
+ * @see Selection
+ * @since 1.4
+ */
+final class ParallelQuickSelect {
+    /** Default minimum length of a range to partition in parallel. */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    /** Minimum length of a block of data processed by a single task. */
+    private static final int MIN_BLOCK_SIZE = 1 << 13;
+    /** Number of blocks per thread. This allows work stealing to balance the load. */
+    private static final int BLOCKS_PER_THREAD = 4;
+    /** Size of the sample used to choose pivots. */
+    private static final int SAMPLE_SIZE = 1023;
+    /** Margin around the estimated rank of the target indices in the sorted sample.
+     * This is twice the largest standard deviation of the rank of a sample quantile. */
+    private static final int SAMPLE_MARGIN = 32;
+
+    /** No instances. */
+    private ParallelQuickSelect() {}
+
+    /**
+     * Checks if a range of the given length should be partitioned in parallel using
+     * the fork/join pool of the current thread.
+     *
+     * @param length Length of the range.
+     * @return true if parallel
+     */
+    static boolean isParallel(int length) {
+        return length >= PARALLEL_THRESHOLD && currentPool().getParallelism() > 1;
+    }
+
+    /**
+     * Gets the fork/join pool of the current thread. This is the pool of the current
+     * fork/join task, or the common pool.
+     *
+     * @return the pool
+     */
+    static ForkJoinPool currentPool() {
+        final ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses the fork/join pool of the current thread.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @see #select(ForkJoinPool, int, double[], int, int, int[])
+     */
+    static void select(double[] a, int fromIndex, int toIndex, int[] k) {
+        select(currentPool(), PARALLEL_THRESHOLD, a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses the fork/join pool of the current thread.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @see #select(ForkJoinPool, int, int[], int, int, int[])
+     */
+    static void select(int[] a, int fromIndex, int toIndex, int[] k) {
+        select(currentPool(), PARALLEL_THRESHOLD, a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses the fork/join pool of the current thread.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @see #select(ForkJoinPool, int, long[], int, int, int[])
+     */
+    static void select(long[] a, int fromIndex, int toIndex, int[] k) {
+        select(currentPool(), PARALLEL_THRESHOLD, a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * <p>Assumes {@code k} contains at least one valid index into [fromIndex, toIndex).
+     *
+     * @param pool Pool used to execute the tasks.
+     * @param threshold Minimum length of a range to partition in parallel.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    static void select(ForkJoinPool pool, int threshold, double[] a, int fromIndex, int toIndex, int[] k) {
+        invoke(pool, () -> doSelect(threshold, a, fromIndex, toIndex, k));
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} contains at least one valid index into [fromIndex, toIndex).
+     *
+     * @param pool Pool used to execute the tasks.
+     * @param threshold Minimum length of a range to partition in parallel.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    static void select(ForkJoinPool pool, int threshold, int[] a, int fromIndex, int toIndex, int[] k) {
+        final int n = Sorting.sortIndices(k, k.length);
+        invoke(pool, new IntSelect(a, fromIndex, toIndex - 1, k, n, threshold,
+            maxDepth(toIndex - fromIndex)));
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} contains at least one valid index into [fromIndex, toIndex).
+     *
+     * @param pool Pool used to execute the tasks.
+     * @param threshold Minimum length of a range to partition in parallel.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    static void select(ForkJoinPool pool, int threshold, long[] a, int fromIndex, int toIndex, int[] k) {
+        final int n = Sorting.sortIndices(k, k.length);
+        invoke(pool, new LongSelect(a, fromIndex, toIndex - 1, k, n, threshold,
+            maxDepth(toIndex - fromIndex)));
+    }
+
+    /**
+     * Run the action in the pool.
+     *
+     * @param pool Pool.
+     * @param action Action.
+     */
+    private static void invoke(ForkJoinPool pool, Runnable action) {
+        invoke(pool, ForkJoinTask.adapt(action));
+    }
+
+    /**
+     * Run the task in the pool. The task is executed directly if the current
+     * thread is a worker in the pool.
+     *
+     * @param pool Pool.
+     * @param task Task.
+     */
+    static void invoke(ForkJoinPool pool, ForkJoinTask<?> task) {
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>NaN values are moved to the end of the range; negative zeros are changed to
+     * positive zero and restored after partitioning. This must be run in a fork/join pool.
+     *
+     * @param threshold Minimum length of a range to partition in parallel.
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    private static void doSelect(int threshold, double[] a, int fromIndex, int toIndex, int[] k) {
+        // Count NaN / signed zeros in parallel.
+        // Negative zeros are changed to positive zero. Data must be repaired after selection.
+        final int size = blockSize(toIndex - fromIndex);
+        final int blocks = blocks(toIndex - fromIndex, size);
+        final int[] zeros = new int[blocks];
+        final int[] nans = new int[blocks];
+        forEach(blocks, b -> {
+            final int from = fromIndex + b * size;
+            final int to = b == blocks - 1 ? toIndex : from + size;
+            int cn = 0;
+            int nan = 0;
+            for (int i = from; i < to; i++) {
+                final double v = a[i];
+                // Count negative zeros using a sign bit check
+                if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                    cn++;
+                    a[i] = 0.0;
+                } else if (v != v) {
+                    nan++;
+                }
+            }
+            zeros[b] = cn;
+            nans[b] = nan;
+        });
+        int cn = sum(zeros);
+        int end = toIndex;
+        if (sum(nans) != 0) {
+            // Move NaN to end
+            for (int i = toIndex; --i >= fromIndex;) {
+                final double v = a[i];
+                if (v != v) {
+                    a[i] = a[--end];
+                    a[end] = v;
+                }
+            }
+        }
+
+        // Partition. Indices invalidated by the NaN are ignored.
+        int n = Sorting.sortIndices(k, k.length);
+        n = searchKeys(k, 0, n, end);
+        if (n != 0 && end - fromIndex > 1) {
+            new DoubleSelect(a, fromIndex, end - 1, k, n, threshold, maxDepth(end - fromIndex)).invoke();
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use the largest partition index below zero to fast-forward to zero
+            int j = fromIndex - 1;
+            int lo = 0;
+            int hi = n - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (a[k[mid]] < 0) {
+                    j = k[mid];
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            for (;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the sum of the values.
+     *
+     * @param x Values.
+     * @return the sum
+     */
+    private static int sum(int[] x) {
+        int s = 0;
+        for (final int v : x) {
+            s += v;
+        }
+        return s;
+    }
+
+    /**
+     * Compute the size of the blocks used to divide a range into tasks. This uses
+     * the parallelism of the current fork/join pool.
+     *
+     * @param length Length of the range.
+     * @return the block size
+     */
+    static int blockSize(int length) {
+        final long blocks = (long) currentPool().getParallelism() * BLOCKS_PER_THREAD;
+        return (int) Math.max(MIN_BLOCK_SIZE, (length + blocks - 1) / blocks);
+    }
+
+    /**
+     * Compute the number of blocks required to cover the length.
+     *
+     * @param length Length of the range.
+     * @param size Size of the blocks.
+     * @return the number of blocks
+     */
+    static int blocks(int length, int size) {
+        return (int) (((long) length + size - 1) / size);
+    }
+
+    /**
+     * Perform the action on each index {@code i} in {@code [0, n)} using fork/join tasks.
+     *
+     * @param n Number of indices.
+     * @param action Action.
+     */
+    static void forEach(int n, IntConsumer action) {
+        if (n == 1) {
+            action.accept(0);
+        } else {
+            new ForEach(0, n, action).invoke();
+        }
+    }
+
+    /**
+     * Search the sorted keys for the first key that is above or equal to the value.
+     *
+     * @param keys Unique sorted keys.
+     * @param from Index of the first key (inclusive).
+     * @param to Index of the last key (exclusive).
+     * @param value Value.
+     * @return the index of the first key {@code >= value}; or {@code to}
+     */
+    private static int searchKeys(int[] keys, int from, int to, int value) {
+        final int i = Arrays.binarySearch(keys, from, to, value);
+        return i < 0 ? ~i : i;
+    }
+
+    /**
+     * Compute the rank in a sample of the given size corresponding to the index
+     * in the range.
+     *
+     * @param index Index.
+     * @param left Lower bound of data (inclusive).
+     * @param length Length of the data.
+     * @param size Size of the sample.
+     * @return the rank
+     */
+    private static int rank(int index, int left, int length, int size) {
+        return (int) ((long) (index - left) * size / length);
+    }
+
+    /**
+     * Compute the sample index corresponding to index {@code i} in a sample of the given size.
+     * Sample indices are evenly spaced in the range.
+     *
+     * @param i Index in the sample.
+     * @param left Lower bound of data (inclusive).
+     * @param length Length of the data.
+     * @param size Size of the sample.
+     * @return the data index
+     */
+    private static int sampleIndex(int i, int left, int length, int size) {
+        return left + (int) (((2L * i + 1) * length) / (2L * size));
+    }
+
+    /**
+     * Compute the maximum number of partition steps before a range of the given length
+     * is processed using {@link QuickSelect}. This protects against excess partitions
+     * that do not reduce the range length. The limit applies to the partition steps
+     * of a task and all the tasks it forks.
+     *
+     * @param length Length of the range.
+     * @return the maximum depth
+     */
+    private static int maxDepth(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    /**
+     * Action to perform on each index in a range. The range is recursively divided.
+     */
+    private static final class ForEach extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261018L;
+
+        /** Index of the first element (inclusive). */
+        private final int from;
+        /** Index of the last element (exclusive). */
+        private final int to;
+        /** Action. */
+        private final transient IntConsumer action;
+
+        /**
+         * @param from Index of the first element (inclusive).
+         * @param to Index of the last element (exclusive).
+         * @param action Action.
+         */
+        ForEach(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new ForEach(from, mid, action), new ForEach(mid, to, action));
+            }
+        }
+    }
+
+    /**
+     * Segments of elements on the wrong side of a partition point after each block
+     * of a range has been partitioned.
+     *
+     * <p>Upper values below the partition point are paired in order with lower values
+     * above the partition point. The pairs can be exchanged in any order.
+     */
+    private static final class Misplaced {
+        /** Start of each segment of upper values (inclusive). */
+        private final int[] upperStart;
+        /** End of each segment of upper values (exclusive). */
+        private final int[] upperEnd;
+        /** Offset of each segment of upper values in the sequence of all segments. */
+        private final int[] upperOffset;
+        /** Number of segments of upper values. */
+        private final int upperCount;
+        /** Start of each segment of lower values (inclusive). */
+        private final int[] lowerStart;
+        /** End of each segment of lower values (exclusive). */
+        private final int[] lowerEnd;
+        /** Offset of each segment of lower values in the sequence of all segments. */
+        private final int[] lowerOffset;
+        /** Number of segments of lower values. */
+        private final int lowerCount;
+        /** Total number of misplaced elements in either the upper or lower segments. */
+        private final int size;
+
+        /**
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param lower Number of lower values at the start of each block.
+         * @param blockSize Size of each block.
+         * @param m Partition point: the number of lower values in the range plus {@code left}.
+         */
+        Misplaced(int left, int right, int[] lower, int blockSize, int m) {
+            final int n = lower.length;
+            upperStart = new int[n];
+            upperEnd = new int[n];
+            upperOffset = new int[n];
+            lowerStart = new int[n];
+            lowerEnd = new int[n];
+            lowerOffset = new int[n];
+            int nu = 0;
+            int nl = 0;
+            int su = 0;
+            int sl = 0;
+            for (int b = 0; b < n; b++) {
+                final int from = left + b * blockSize;
+                final int to = b == n - 1 ? right + 1 : from + blockSize;
+                final int mid = from + lower[b];
+                // Upper values [mid, to) below m
+                final int ue = Math.min(to, m);
+                if (mid < ue) {
+                    upperStart[nu] = mid;
+                    upperEnd[nu] = ue;
+                    upperOffset[nu] = su;
+                    su += ue - mid;
+                    nu++;
+                }
+                // Lower values [from, mid) above or equal to m
+                final int ls = Math.max(from, m);
+                if (ls < mid) {
+                    lowerStart[nl] = ls;
+                    lowerEnd[nl] = mid;
+                    lowerOffset[nl] = sl;
+                    sl += mid - ls;
+                    nl++;
+                }
+            }
+            upperCount = nu;
+            lowerCount = nl;
+            size = su;
+        }
+
+        /**
+         * Gets the number of misplaced elements in either the upper or lower segments.
+         *
+         * @return the size
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Find the segment containing the offset.
+         *
+         * @param offsets Offset of each segment.
+         * @param n Number of segments.
+         * @param offset Offset.
+         * @return the segment
+         */
+        private static int find(int[] offsets, int n, int offset) {
+            final int i = Arrays.binarySearch(offsets, 0, n, offset);
+            // Insertion point - 1
+            return i < 0 ? -i - 2 : i;
+        }
+
+        /**
+         * Exchange the misplaced elements in the range of offsets {@code [from, to)}.
+         *
+         * @param a Values.
+         * @param from First offset (inclusive).
+         * @param to Last offset (exclusive).
+         */
+        void exchange(double[] a, int from, int to) {
+            int i = find(upperOffset, upperCount, from);
+            int j = find(lowerOffset, lowerCount, from);
+            int x = upperStart[i] + from - upperOffset[i];
+            int y = lowerStart[j] + from - lowerOffset[j];
+            for (int o = from; o < to; o++) {
+                if (x == upperEnd[i]) {
+                    x = upperStart[++i];
+                }
+                if (y == lowerEnd[j]) {
+                    y = lowerStart[++j];
+                }
+                final double v = a[x];
+                a[x++] = a[y];
+                a[y++] = v;
+            }
+        }
+
+        /**
+         * Exchange the misplaced elements in the range of offsets {@code [from, to)}.
+         *
+         * @param a Values.
+         * @param from First offset (inclusive).
+         * @param to Last offset (exclusive).
+         */
+        void exchange(int[] a, int from, int to) {
+            int i = find(upperOffset, upperCount, from);
+            int j = find(lowerOffset, lowerCount, from);
+            int x = upperStart[i] + from - upperOffset[i];
+            int y = lowerStart[j] + from - lowerOffset[j];
+            for (int o = from; o < to; o++) {
+                if (x == upperEnd[i]) {
+                    x = upperStart[++i];
+                }
+                if (y == lowerEnd[j]) {
+                    y = lowerStart[++j];
+                }
+                final int v = a[x];
+                a[x++] = a[y];
+                a[y++] = v;
+            }
+        }
+
+        /**
+         * Exchange the misplaced elements in the range of offsets {@code [from, to)}.
+         *
+         * @param a Values.
+         * @param from First offset (inclusive).
+         * @param to Last offset (exclusive).
+         */
+        void exchange(long[] a, int from, int to) {
+            int i = find(upperOffset, upperCount, from);
+            int j = find(lowerOffset, lowerCount, from);
+            int x = upperStart[i] + from - upperOffset[i];
+            int y = lowerStart[j] + from - lowerOffset[j];
+            for (int o = from; o < to; o++) {
+                if (x == upperEnd[i]) {
+                    x = upperStart[++i];
+                }
+                if (y == lowerEnd[j]) {
+                    y = lowerStart[++j];
+                }
+                final long v = a[x];
+                a[x++] = a[y];
+                a[y++] = v;
+            }
+        }
+    }
+
+    /**
+     * Partition the range in parallel such that values below the pivot are at the start.
+     *
+     * <p>If {@code inclusive} then values equal to the pivot are also moved to the start.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param p Pivot.
+     * @param inclusive Set to true to include values equal to the pivot in the start.
+     * @return the partition point {@code m}: values in {@code [left, m)} are below the pivot
+     */
+    static int partition(double[] a, int left, int right, double p, boolean inclusive) {
+        final int length = right - left + 1;
+        final int size = blockSize(length);
+        final int blocks = blocks(length, size);
+        final int[] lower = new int[blocks];
+        forEach(blocks, b -> {
+            final int from = left + b * size;
+            final int to = b == blocks - 1 ? right + 1 : from + size;
+            lower[b] = inclusive ?
+                partitionBlockInclusive(a, from, to, p) :
+                partitionBlock(a, from, to, p);
+        });
+        final int m = left + sum(lower);
+        final Misplaced misplaced = new Misplaced(left, right, lower, size, m);
+        final int n = misplaced.size();
+        if (n != 0) {
+            forEach(blocks(n, size), c -> {
+                final int from = c * size;
+                misplaced.exchange(a, from, Math.min(n - size, from) + size);
+            });
+        }
+        return m;
+    }
+
+    /**
+     * Partition the block such that values below the pivot are at the start.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param p Pivot.
+     * @return the number of values below the pivot
+     */
+    private static int partitionBlock(double[] a, int from, int to, double p) {
+        int i = from;
+        int j = to - 1;
+        for (;;) {
+            while (i <= j && a[i] < p) {
+                i++;
+            }
+            while (i < j && a[j] >= p) {
+                j--;
+            }
+            if (i >= j) {
+                return i - from;
+            }
+            final double v = a[i];
+            a[i++] = a[j];
+            a[j--] = v;
+        }
+    }
+
+    /**
+     * Partition the block such that values below or equal to the pivot are at the start.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param p Pivot.
+     * @return the number of values below or equal to the pivot
+     */
+    private static int partitionBlockInclusive(double[] a, int from, int to, double p) {
+        int i = from;
+        int j = to - 1;
+        for (;;) {
+            while (i <= j && a[i] <= p) {
+                i++;
+            }
+            while (i < j && a[j] > p) {
+                j--;
+            }
+            if (i >= j) {
+                return i - from;
+            }
+            final double v = a[i];
+            a[i++] = a[j];
+            a[j--] = v;
+        }
+    }
+
+    /**
+     * Create a sorted sample of values from the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return the sample
+     */
+    private static double[] sample(double[] a, int left, int right) {
+        final int length = right - left + 1;
+        final double[] x = new double[Math.min(length, SAMPLE_SIZE)];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = a[sampleIndex(i, left, length, x.length)];
+        }
+        Arrays.sort(x);
+        return x;
+    }
+
+    /**
+     * Partition the range such that the target indices correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     */
+    static final class DoubleSelect extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261018L;
+
+        /** Values. */
+        private final double[] a;
+        /** Lower bound of data (inclusive). */
+        private final int left;
+        /** Upper bound of data (inclusive). */
+        private final int right;
+        /** Unique sorted target indices. */
+        private final int[] keys;
+        /** Index of the first key (inclusive). */
+        private final int from;
+        /** Index of the last key (exclusive). */
+        private final int to;
+        /** Minimum length of a range to partition in parallel. */
+        private final int threshold;
+        /** Maximum number of parallel partitions. */
+        private final int depth;
+
+        /**
+         * @param a Values.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param keys Unique sorted target indices.
+         * @param n Count of target indices.
+         * @param threshold Minimum length of a range to partition in parallel.
+         * @param depth Maximum number of parallel partitions.
+         */
+        DoubleSelect(double[] a, int left, int right, int[] keys, int n, int threshold, int depth) {
+            this.a = a;
+            this.left = left;
+            this.right = right;
+            this.keys = keys;
+            this.from = 0;
+            this.to = n;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        /**
+         * Create a task for a division of the parent range.
+         *
+         * @param parent Parent task.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param from Index of the first key (inclusive).
+         * @param to Index of the last key (exclusive).
+         * @param depth Maximum number of parallel partitions.
+         */
+        private DoubleSelect(DoubleSelect parent, int left, int right, int from, int to, int depth) {
+            this.a = parent.a;
+            this.left = left;
+            this.right = right;
+            this.keys = parent.keys;
+            this.from = from;
+            this.to = to;
+            this.threshold = parent.threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            int l = left;
+            int r = right;
+            int ka = from;
+            int kb = to;
+            boolean single = false;
+            for (int d = depth; r - l >= threshold && --d >= 0;) {
+                final int length = r - l + 1;
+                final double[] x = sample(a, l, r);
+                final int s = x.length;
+                int r1 = rank(keys[ka], l, length, s) - SAMPLE_MARGIN;
+                int r2 = rank(keys[kb - 1], l, length, s) + SAMPLE_MARGIN;
+                if (single || r2 - r1 >= s >> 1) {
+                    // Divide around a single pivot
+                    r1 = rank(keys[(ka + kb - 1) >>> 1], l, length, s);
+                    r2 = r1;
+                }
+                final double p1 = x[Math.max(0, r1)];
+                final double p2 = x[Math.min(s - 1, r2)];
+                // [l, m1) < p1; [m1, m2) <= p2; [m2, r] > p2
+                // The partition is not required if a pivot is at the edge of the sample
+                final boolean lowerCut = r1 > 0 || r1 == r2;
+                final boolean upperCut = r2 < s - 1 || r1 == r2;
+                final int m1 = lowerCut ? partition(a, l, r, p1, false) : l;
+                final int m2 = upperCut ? partition(a, m1, r, p2, true) : r + 1;
+                final int k1 = searchKeys(keys, ka, kb, m1);
+                final int k2 = searchKeys(keys, k1, kb, m2);
+                // Values in [m1, m2) are equal if p1 == p2
+                final boolean equal = lowerCut && upperCut && p1 == p2;
+                // Create a task for each division containing keys
+                final int[] bounds = {l, m1, m2, r + 1};
+                final int[] ranges = {ka, k1, k2, kb};
+                final DoubleSelect[] tasks = new DoubleSelect[3];
+                int count = 0;
+                for (int j = 0; j < 3; j++) {
+                    if (ranges[j] < ranges[j + 1] && (j != 1 || !equal)) {
+                        tasks[count++] = new DoubleSelect(this, bounds[j], bounds[j + 1] - 1,
+                            ranges[j], ranges[j + 1], d);
+                    }
+                }
+                if (count != 1) {
+                    invokeAll(Arrays.copyOf(tasks, count));
+                    return;
+                }
+                // Continue with the single division containing keys.
+                // No progress if the entire range is between the pivots.
+                final DoubleSelect t = tasks[0];
+                single = t.left == l && t.right == r;
+                l = t.left;
+                r = t.right;
+                ka = t.from;
+                kb = t.to;
+            }
+            if (kb - ka == 1) {
+                QuickSelect.select(a, l, r, keys[ka]);
+            } else {
+                QuickSelect.select(a, l, r, Arrays.copyOfRange(keys, ka, kb), kb - ka);
+            }
+        }
+    }
+
+    /**
+     * Partition the range in parallel such that values below the pivot are at the start.
+     *
+     * <p>If {@code inclusive} then values equal to the pivot are also moved to the start.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param p Pivot.
+     * @param inclusive Set to true to include values equal to the pivot in the start.
+     * @return the partition point {@code m}: values in {@code [left, m)} are below the pivot
+     */
+    static int partition(int[] a, int left, int right, int p, boolean inclusive) {
+        final int length = right - left + 1;
+        final int size = blockSize(length);
+        final int blocks = blocks(length, size);
+        final int[] lower = new int[blocks];
+        forEach(blocks, b -> {
+            final int from = left + b * size;
+            final int to = b == blocks - 1 ? right + 1 : from + size;
+            lower[b] = inclusive ?
+                partitionBlockInclusive(a, from, to, p) :
+                partitionBlock(a, from, to, p);
+        });
+        final int m = left + sum(lower);
+        final Misplaced misplaced = new Misplaced(left, right, lower, size, m);
+        final int n = misplaced.size();
+        if (n != 0) {
+            forEach(blocks(n, size), c -> {
+                final int from = c * size;
+                misplaced.exchange(a, from, Math.min(n - size, from) + size);
+            });
+        }
+        return m;
+    }
+
+    /**
+     * Partition the block such that values below the pivot are at the start.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param p Pivot.
+     * @return the number of values below the pivot
+     */
+    private static int partitionBlock(int[] a, int from, int to, int p) {
+        int i = from;
+        int j = to - 1;
+        for (;;) {
+            while (i <= j && a[i] < p) {
+                i++;
+            }
+            while (i < j && a[j] >= p) {
+                j--;
+            }
+            if (i >= j) {
+                return i - from;
+            }
+            final int v = a[i];
+            a[i++] = a[j];
+            a[j--] = v;
+        }
+    }
+
+    /**
+     * Partition the block such that values below or equal to the pivot are at the start.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param p Pivot.
+     * @return the number of values below or equal to the pivot
+     */
+    private static int partitionBlockInclusive(int[] a, int from, int to, int p) {
+        int i = from;
+        int j = to - 1;
+        for (;;) {
+            while (i <= j && a[i] <= p) {
+                i++;
+            }
+            while (i < j && a[j] > p) {
+                j--;
+            }
+            if (i >= j) {
+                return i - from;
+            }
+            final int v = a[i];
+            a[i++] = a[j];
+            a[j--] = v;
+        }
+    }
+
+    /**
+     * Create a sorted sample of values from the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return the sample
+     */
+    private static int[] sample(int[] a, int left, int right) {
+        final int length = right - left + 1;
+        final int[] x = new int[Math.min(length, SAMPLE_SIZE)];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = a[sampleIndex(i, left, length, x.length)];
+        }
+        Arrays.sort(x);
+        return x;
+    }
+
+    /**
+     * Partition the range such that the target indices correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     */
+    static final class IntSelect extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261018L;
+
+        /** Values. */
+        private final int[] a;
+        /** Lower bound of data (inclusive). */
+        private final int left;
+        /** Upper bound of data (inclusive). */
+        private final int right;
+        /** Unique sorted target indices. */
+        private final int[] keys;
+        /** Index of the first key (inclusive). */
+        private final int from;
+        /** Index of the last key (exclusive). */
+        private final int to;
+        /** Minimum length of a range to partition in parallel. */
+        private final int threshold;
+        /** Maximum number of parallel partitions. */
+        private final int depth;
+
+        /**
+         * @param a Values.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param keys Unique sorted target indices.
+         * @param n Count of target indices.
+         * @param threshold Minimum length of a range to partition in parallel.
+         * @param depth Maximum number of parallel partitions.
+         */
+        IntSelect(int[] a, int left, int right, int[] keys, int n, int threshold, int depth) {
+            this.a = a;
+            this.left = left;
+            this.right = right;
+            this.keys = keys;
+            this.from = 0;
+            this.to = n;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        /**
+         * Create a task for a division of the parent range.
+         *
+         * @param parent Parent task.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param from Index of the first key (inclusive).
+         * @param to Index of the last key (exclusive).
+         * @param depth Maximum number of parallel partitions.
+         */
+        private IntSelect(IntSelect parent, int left, int right, int from, int to, int depth) {
+            this.a = parent.a;
+            this.left = left;
+            this.right = right;
+            this.keys = parent.keys;
+            this.from = from;
+            this.to = to;
+            this.threshold = parent.threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            int l = left;
+            int r = right;
+            int ka = from;
+            int kb = to;
+            boolean single = false;
+            for (int d = depth; r - l >= threshold && --d >= 0;) {
+                final int length = r - l + 1;
+                final int[] x = sample(a, l, r);
+                final int s = x.length;
+                int r1 = rank(keys[ka], l, length, s) - SAMPLE_MARGIN;
+                int r2 = rank(keys[kb - 1], l, length, s) + SAMPLE_MARGIN;
+                if (single || r2 - r1 >= s >> 1) {
+                    // Divide around a single pivot
+                    r1 = rank(keys[(ka + kb - 1) >>> 1], l, length, s);
+                    r2 = r1;
+                }
+                final int p1 = x[Math.max(0, r1)];
+                final int p2 = x[Math.min(s - 1, r2)];
+                // [l, m1) < p1; [m1, m2) <= p2; [m2, r] > p2
+                // The partition is not required if a pivot is at the edge of the sample
+                final boolean lowerCut = r1 > 0 || r1 == r2;
+                final boolean upperCut = r2 < s - 1 || r1 == r2;
+                final int m1 = lowerCut ? partition(a, l, r, p1, false) : l;
+                final int m2 = upperCut ? partition(a, m1, r, p2, true) : r + 1;
+                final int k1 = searchKeys(keys, ka, kb, m1);
+                final int k2 = searchKeys(keys, k1, kb, m2);
+                // Values in [m1, m2) are equal if p1 == p2
+                final boolean equal = lowerCut && upperCut && p1 == p2;
+                // Create a task for each division containing keys
+                final int[] bounds = {l, m1, m2, r + 1};
+                final int[] ranges = {ka, k1, k2, kb};
+                final IntSelect[] tasks = new IntSelect[3];
+                int count = 0;
+                for (int j = 0; j < 3; j++) {
+                    if (ranges[j] < ranges[j + 1] && (j != 1 || !equal)) {
+                        tasks[count++] = new IntSelect(this, bounds[j], bounds[j + 1] - 1,
+                            ranges[j], ranges[j + 1], d);
+                    }
+                }
+                if (count != 1) {
+                    invokeAll(Arrays.copyOf(tasks, count));
+                    return;
+                }
+                // Continue with the single division containing keys.
+                // No progress if the entire range is between the pivots.
+                final IntSelect t = tasks[0];
+                single = t.left == l && t.right == r;
+                l = t.left;
+                r = t.right;
+                ka = t.from;
+                kb = t.to;
+            }
+            if (kb - ka == 1) {
+                QuickSelect.select(a, l, r, keys[ka]);
+            } else {
+                QuickSelect.select(a, l, r, Arrays.copyOfRange(keys, ka, kb), kb - ka);
+            }
+        }
+    }
+
+    /**
+     * Partition the range in parallel such that values below the pivot are at the start.
+     *
+     * <p>If {@code inclusive} then values equal to the pivot are also moved to the start.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param p Pivot.
+     * @param inclusive Set to true to include values equal to the pivot in the start.
+     * @return the partition point {@code m}: values in {@code [left, m)} are below the pivot
+     */
+    static int partition(long[] a, int left, int right, long p, boolean inclusive) {
+        final int length = right - left + 1;
+        final int size = blockSize(length);
+        final int blocks = blocks(length, size);
+        final int[] lower = new int[blocks];
+        forEach(blocks, b -> {
+            final int from = left + b * size;
+            final int to = b == blocks - 1 ? right + 1 : from + size;
+            lower[b] = inclusive ?
+                partitionBlockInclusive(a, from, to, p) :
+                partitionBlock(a, from, to, p);
+        });
+        final int m = left + sum(lower);
+        final Misplaced misplaced = new Misplaced(left, right, lower, size, m);
+        final int n = misplaced.size();
+        if (n != 0) {
+            forEach(blocks(n, size), c -> {
+                final int from = c * size;
+                misplaced.exchange(a, from, Math.min(n - size, from) + size);
+            });
+        }
+        return m;
+    }
+
+    /**
+     * Partition the block such that values below the pivot are at the start.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param p Pivot.
+     * @return the number of values below the pivot
+     */
+    private static int partitionBlock(long[] a, int from, int to, long p) {
+        int i = from;
+        int j = to - 1;
+        for (;;) {
+            while (i <= j && a[i] < p) {
+                i++;
+            }
+            while (i < j && a[j] >= p) {
+                j--;
+            }
+            if (i >= j) {
+                return i - from;
+            }
+            final long v = a[i];
+            a[i++] = a[j];
+            a[j--] = v;
+        }
+    }
+
+    /**
+     * Partition the block such that values below or equal to the pivot are at the start.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param p Pivot.
+     * @return the number of values below or equal to the pivot
+     */
+    private static int partitionBlockInclusive(long[] a, int from, int to, long p) {
+        int i = from;
+        int j = to - 1;
+        for (;;) {
+            while (i <= j && a[i] <= p) {
+                i++;
+            }
+            while (i < j && a[j] > p) {
+                j--;
+            }
+            if (i >= j) {
+                return i - from;
+            }
+            final long v = a[i];
+            a[i++] = a[j];
+            a[j--] = v;
+        }
+    }
+
+    /**
+     * Create a sorted sample of values from the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return the sample
+     */
+    private static long[] sample(long[] a, int left, int right) {
+        final int length = right - left + 1;
+        final long[] x = new long[Math.min(length, SAMPLE_SIZE)];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = a[sampleIndex(i, left, length, x.length)];
+        }
+        Arrays.sort(x);
+        return x;
+    }
+
+    /**
+     * Partition the range such that the target indices correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     */
+    static final class LongSelect extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261018L;
+
+        /** Values. */
+        private final long[] a;
+        /** Lower bound of data (inclusive). */
+        private final int left;
+        /** Upper bound of data (inclusive). */
+        private final int right;
+        /** Unique sorted target indices. */
+        private final int[] keys;
+        /** Index of the first key (inclusive). */
+        private final int from;
+        /** Index of the last key (exclusive). */
+        private final int to;
+        /** Minimum length of a range to partition in parallel. */
+        private final int threshold;
+        /** Maximum number of parallel partitions. */
+        private final int depth;
+
+        /**
+         * @param a Values.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param keys Unique sorted target indices.
+         * @param n Count of target indices.
+         * @param threshold Minimum length of a range to partition in parallel.
+         * @param depth Maximum number of parallel partitions.
+         */
+        LongSelect(long[] a, int left, int right, int[] keys, int n, int threshold, int depth) {
+            this.a = a;
+            this.left = left;
+            this.right = right;
+            this.keys = keys;
+            this.from = 0;
+            this.to = n;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        /**
+         * Create a task for a division of the parent range.
+         *
+         * @param parent Parent task.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param from Index of the first key (inclusive).
+         * @param to Index of the last key (exclusive).
+         * @param depth Maximum number of parallel partitions.
+         */
+        private LongSelect(LongSelect parent, int left, int right, int from, int to, int depth) {
+            this.a = parent.a;
+            this.left = left;
+            this.right = right;
+            this.keys = parent.keys;
+            this.from = from;
+            this.to = to;
+            this.threshold = parent.threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            int l = left;
+            int r = right;
+            int ka = from;
+            int kb = to;
+            boolean single = false;
+            for (int d = depth; r - l >= threshold && --d >= 0;) {
+                final int length = r - l + 1;
+                final long[] x = sample(a, l, r);
+                final int s = x.length;
+                int r1 = rank(keys[ka], l, length, s) - SAMPLE_MARGIN;
+                int r2 = rank(keys[kb - 1], l, length, s) + SAMPLE_MARGIN;
+                if (single || r2 - r1 >= s >> 1) {
+                    // Divide around a single pivot
+                    r1 = rank(keys[(ka + kb - 1) >>> 1], l, length, s);
+                    r2 = r1;
+                }
+                final long p1 = x[Math.max(0, r1)];
+                final long p2 = x[Math.min(s - 1, r2)];
+                // [l, m1) < p1; [m1, m2) <= p2; [m2, r] > p2
+                // The partition is not required if a pivot is at the edge of the sample
+                final boolean lowerCut = r1 > 0 || r1 == r2;
+                final boolean upperCut = r2 < s - 1 || r1 == r2;
+                final int m1 = lowerCut ? partition(a, l, r, p1, false) : l;
+                final int m2 = upperCut ? partition(a, m1, r, p2, true) : r + 1;
+                final int k1 = searchKeys(keys, ka, kb, m1);
+                final int k2 = searchKeys(keys, k1, kb, m2);
+                // Values in [m1, m2) are equal if p1 == p2
+                final boolean equal = lowerCut && upperCut && p1 == p2;
+                // Create a task for each division containing keys
+                final int[] bounds = {l, m1, m2, r + 1};
+                final int[] ranges = {ka, k1, k2, kb};
+                final LongSelect[] tasks = new LongSelect[3];
+                int count = 0;
+                for (int j = 0; j < 3; j++) {
+                    if (ranges[j] < ranges[j + 1] && (j != 1 || !equal)) {
+                        tasks[count++] = new LongSelect(this, bounds[j], bounds[j + 1] - 1,
+                            ranges[j], ranges[j + 1], d);
+                    }
+                }
+                if (count != 1) {
+                    invokeAll(Arrays.copyOf(tasks, count));
+                    return;
+                }
+                // Continue with the single division containing keys.
+                // No progress if the entire range is between the pivots.
+                final LongSelect t = tasks[0];
+                single = t.left == l && t.right == r;
+                l = t.left;
+                r = t.right;
+                ka = t.from;
+                kb = t.to;
+            }
+            if (kb - ka == 1) {
+                QuickSelect.select(a, l, r, keys[ka]);
+            } else {
+                QuickSelect.select(a, l, r, Arrays.copyOfRange(keys, ka, kb), kb - ka);
+            }
+        }
+    }
+}
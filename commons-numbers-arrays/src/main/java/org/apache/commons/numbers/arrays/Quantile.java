@@ -0,0 +1,556 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Provides quantile computation.
+ *
+ * <p>For values of length {@code n}:
+ * <ul>
+ * <li>The result is {@code NaN} if {@code n = 0}.
+ * <li>The result is {@code values[0]} if {@code n = 1}.
+ * <li>Otherwise the result is computed using the {@link EstimationMethod}.
+ * </ul>
+ *
+ * <p>Computation of multiple quantiles will use a single selection of all the
+ * required order statistics from the data.
+ *
+ * <p>Floating-point values are ordered using {@link Double#compare(double, double)}.
+ * The handling of {@code NaN} is configured using a {@link NaNPolicy}. If {@code NaN}
+ * is included then it is considered greater than any other value and the result may be
+ * {@code NaN}.
+ *
+ * <p>Instances of this class are immutable and thread-safe. The data is not modified
+ * unless the instance is configured with {@code copy=false}; in this case the data is
+ * partially sorted in-place.
+ *
+ * <p>References
+ *
+ * <ol>
+ * <li>Hyndman and Fan (1996)
+ * Sample Quantiles in Statistical Packages.
+ * The American Statistician, 50, 361-365.
+ * <a href="https://doi.org/10.2307/2684934">doi.org/10.2307/2684934</a></li>
+ * <li><a href="https://en.wikipedia.org/wiki/Quantile">Quantile (Wikipedia)</a></li>
+ * </ol>
+ *
+ * @see Selection
+ * @since 1.4
+ */
+public final class Quantile {
+    /** Default instance. */
+    private static final Quantile DEFAULT = new Quantile(true, NaNPolicy.INCLUDE, EstimationMethod.HF8);
+
+    /** Flag to indicate if the data should be copied. */
+    private final boolean copy;
+    /** NaN policy for floating-point data. */
+    private final NaNPolicy nanPolicy;
+    /** Estimation method. */
+    private final EstimationMethod method;
+
+    /**
+     * Estimation methods for a quantile. Provides the nine quantile algorithms
+     * defined in Hyndman and Fan (1996).
+     *
+     * <p>Samples quantiles are defined using the ordered data {@code x}
+     * and a position {@code h} computed using the probability {@code p} and
+     * the length {@code n}. The {@code h}-th smallest value in {@code x} is
+     * {@code x[h]} using a 1-based index. For non-integer {@code h} the
+     * quantile may be an interpolation using the adjacent values:
+     *
+     * <pre>
+     * Q(p) = x[floor(h)] + (h - floor(h)) * (x[floor(h) + 1] - x[floor(h)])
+     * </pre>
+     *
+     * <p>Positions {@code h < 1} use {@code x[1]} and {@code h > n} use {@code x[n]}.
+     *
+     * @see <a href="https://en.wikipedia.org/wiki/Quantile#Estimating_quantiles_from_a_sample">
+     * Estimating quantiles from a sample (Wikipedia)</a>
+     */
+    public enum EstimationMethod {
+        /**
+         * Inverse of the empirical distribution function.
+         *
+         * <p>\( h = np \). \( Q(p) = x_{\lceil h \rceil} \).
+         */
+        HF1 {
+            @Override
+            double position0(double p, int n) {
+                return Math.ceil(n * p) - 1;
+            }
+        },
+        /**
+         * Similar to {@link #HF1} with averaging at discontinuities.
+         *
+         * <p>\( h = np \). \( Q(p) = \frac{x_{h} + x_{h+1}}{2} \) if \( h \) is an
+         * integer; otherwise \( x_{\lceil h \rceil} \).
+         */
+        HF2 {
+            @Override
+            double position0(double p, int n) {
+                final double h = n * p;
+                // Average of floor and ceil: h - 0.5 if h is an integer; otherwise ceil(h) - 1
+                return (Math.floor(h) + Math.ceil(h)) * 0.5 - 0.5;
+            }
+        },
+        /**
+         * The observation closest to \( np \). Ties are resolved to the nearest even
+         * order statistic.
+         *
+         * <p>\( h = np \). \( Q(p) = x_{\lfloor h \rceil} \).
+         */
+        HF3 {
+            @Override
+            double position0(double p, int n) {
+                return Math.rint(n * p) - 1;
+            }
+        },
+        /**
+         * Linear interpolation of the inverse of the empirical distribution function.
+         *
+         * <p>\( h = np \).
+         */
+        HF4 {
+            @Override
+            double position0(double p, int n) {
+                return n * p - 1;
+            }
+        },
+        /**
+         * A piecewise linear function where the knots are the values midway through the
+         * steps of the empirical distribution function.
+         *
+         * <p>\( h = np + \frac{1}{2} \).
+         */
+        HF5 {
+            @Override
+            double position0(double p, int n) {
+                return n * p - 0.5;
+            }
+        },
+        /**
+         * Linear interpolation of the expectations for the order statistics for the
+         * uniform distribution on [0,1].
+         *
+         * <p>\( h = (n + 1)p \).
+         */
+        HF6 {
+            @Override
+            double position0(double p, int n) {
+                return (n + 1.0) * p - 1;
+            }
+        },
+        /**
+         * Linear interpolation of the modes for the order statistics for the uniform
+         * distribution on [0,1].
+         *
+         * <p>\( h = (n - 1)p + 1 \).
+         */
+        HF7 {
+            @Override
+            double position0(double p, int n) {
+                return (n - 1.0) * p;
+            }
+        },
+        /**
+         * Linear interpolation of the approximate medians for order statistics.
+         * The resulting quantile estimates are approximately median-unbiased regardless
+         * of the distribution of the data.
+         *
+         * <p>\( h = (n + \frac{1}{3})p + \frac{1}{3} \).
+         */
+        HF8 {
+            @Override
+            double position0(double p, int n) {
+                return n * p + (p + 1) / 3 - 1;
+            }
+        },
+        /**
+         * The resulting quantile estimates are approximately unbiased for the expected
+         * order statistics if the data is normally distributed.
+         *
+         * <p>\( h = (n + \frac{1}{4})p + \frac{3}{8} \).
+         */
+        HF9 {
+            @Override
+            double position0(double p, int n) {
+                return n * p + p / 4 - 0.625;
+            }
+        };
+
+        /**
+         * Compute the position in the sorted data using a 0-based index.
+         * The result may be outside the range of the data.
+         *
+         * @param p Probability.
+         * @param n Size of the data.
+         * @return the position
+         */
+        abstract double position0(double p, int n);
+
+        /**
+         * Compute the position in the sorted data using a 0-based index.
+         * The result is clipped to the range {@code [0, n - 1]}.
+         *
+         * @param p Probability.
+         * @param n Size of the data.
+         * @return the position
+         */
+        final double index(double p, int n) {
+            final double i = position0(p, n);
+            return i < 0 ? 0 : Math.min(i, n - 1);
+        }
+    }
+
+    /**
+     * @param copy Flag to indicate if the data should be copied.
+     * @param nanPolicy NaN policy.
+     * @param method Estimation method.
+     */
+    private Quantile(boolean copy, NaNPolicy nanPolicy, EstimationMethod method) {
+        this.copy = copy;
+        this.nanPolicy = nanPolicy;
+        this.method = method;
+    }
+
+    /**
+     * Return a new instance with the default options.
+     *
+     * <ul>
+     * <li>{@linkplain #withCopy(boolean) Copy = true}
+     * <li>{@linkplain #with(NaNPolicy) NaN policy = include}
+     * <li>{@linkplain #with(EstimationMethod) Estimation method = HF8}
+     * </ul>
+     *
+     * <p>Note: The default options do not modify the input data. Processing in-place
+     * using {@code copy=false} is more efficient when the data can be reordered.
+     *
+     * @return the quantile implementation
+     * @see #withCopy(boolean)
+     * @see #with(NaNPolicy)
+     * @see #with(EstimationMethod)
+     */
+    public static Quantile withDefaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Return an instance with the configured copy behaviour. If {@code false} then
+     * the input array will be modified by the call to evaluate the quantiles; otherwise
+     * the computation uses a copy of the data. The copy may be restricted to the values
+     * bounding the target order statistics.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Quantile withCopy(boolean v) {
+        return new Quantile(v, nanPolicy, method);
+    }
+
+    /**
+     * Return an instance with the configured {@link NaNPolicy}.
+     *
+     * <p>Note: This implementation respects the ordering imposed by
+     * {@link Double#compare(double, double)} for {@code NaN} values: {@code NaN} is
+     * considered greater than all other values, and all {@code NaN} values are equal.
+     * The {@link NaNPolicy} changes the computation of the quantile as follows:
+     * <ul>
+     * <li>Include {@code NaN} in the data size; quantiles that use {@code NaN}
+     * will be {@code NaN}.
+     * <li>Exclude {@code NaN} from the data size.
+     * <li>Error if the data contains {@code NaN}.
+     * </ul>
+     *
+     * <p>This policy is applied to floating-point data only.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Quantile with(NaNPolicy v) {
+        return new Quantile(copy, Objects.requireNonNull(v), method);
+    }
+
+    /**
+     * Return an instance with the configured {@link EstimationMethod}.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Quantile with(EstimationMethod v) {
+        return new Quantile(copy, nanPolicy, Objects.requireNonNull(v));
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of the values.
+     *
+     * <p>Note: This method may partially sort the input values if not configured to
+     * {@link #withCopy(boolean) copy} the input data.
+     *
+     * @param values Values.
+     * @param p Probability for the quantile to compute.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]};
+     * or if the values contain NaN and the configuration is {@link NaNPolicy#ERROR}
+     * @see #with(NaNPolicy)
+     */
+    public double evaluate(double[] values, double p) {
+        return evaluate(values, new double[] {p})[0];
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantiles of the values.
+     *
+     * <p>Note: This method may partially sort the input values if not configured to
+     * {@link #withCopy(boolean) copy} the input data.
+     *
+     * @param values Values.
+     * @param p Probabilities for the quantiles to compute.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability {@code p} is not in the range {@code [0, 1]};
+     * or if the values contain NaN and the configuration is {@link NaNPolicy#ERROR}
+     * @see #with(NaNPolicy)
+     */
+    public double[] evaluate(double[] values, double... p) {
+        checkProbabilities(p);
+        final int n = size(values);
+        final double[] q = new double[p.length];
+        if (n == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+        final double[] pos = new double[p.length];
+        final int[] k = indices(p, n, pos);
+        final double[] x;
+        if (copy) {
+            x = Selection.selectValues(values, k);
+        } else {
+            Selection.select(values, k.clone());
+            x = new double[k.length];
+            for (int i = 0; i < k.length; i++) {
+                x[i] = values[k[i]];
+            }
+        }
+        for (int i = 0; i < p.length; i++) {
+            final int j = i << 1;
+            q[i] = interpolate(x[j], x[j + 1], pos[i] - k[j]);
+        }
+        return q;
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of the values.
+     *
+     * <p>Note: This method may partially sort the input values if not configured to
+     * {@link #withCopy(boolean) copy} the input data.
+     *
+     * @param values Values.
+     * @param p Probability for the quantile to compute.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public double evaluate(int[] values, double p) {
+        return evaluate(values, new double[] {p})[0];
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantiles of the values.
+     *
+     * <p>Note: This method may partially sort the input values if not configured to
+     * {@link #withCopy(boolean) copy} the input data.
+     *
+     * @param values Values.
+     * @param p Probabilities for the quantiles to compute.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public double[] evaluate(int[] values, double... p) {
+        checkProbabilities(p);
+        final int n = values.length;
+        final double[] q = new double[p.length];
+        if (n == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+        final double[] pos = new double[p.length];
+        final int[] k = indices(p, n, pos);
+        final int[] x;
+        if (copy) {
+            x = Selection.selectValues(values, k);
+        } else {
+            Selection.select(values, k.clone());
+            x = new int[k.length];
+            for (int i = 0; i < k.length; i++) {
+                x[i] = values[k[i]];
+            }
+        }
+        for (int i = 0; i < p.length; i++) {
+            final int j = i << 1;
+            q[i] = interpolate(x[j], x[j + 1], pos[i] - k[j]);
+        }
+        return q;
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of the values.
+     *
+     * <p>Note: This method may partially sort the input values if not configured to
+     * {@link #withCopy(boolean) copy} the input data.
+     *
+     * <p>The quantile is interpolated in {@code double} precision.
+     *
+     * @param values Values.
+     * @param p Probability for the quantile to compute.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public double evaluate(long[] values, double p) {
+        return evaluate(values, new double[] {p})[0];
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantiles of the values.
+     *
+     * <p>Note: This method may partially sort the input values if not configured to
+     * {@link #withCopy(boolean) copy} the input data.
+     *
+     * <p>The quantiles are interpolated in {@code double} precision.
+     *
+     * @param values Values.
+     * @param p Probabilities for the quantiles to compute.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public double[] evaluate(long[] values, double... p) {
+        checkProbabilities(p);
+        final int n = values.length;
+        final double[] q = new double[p.length];
+        if (n == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+        final double[] pos = new double[p.length];
+        final int[] k = indices(p, n, pos);
+        final long[] x;
+        if (copy) {
+            x = Selection.selectValues(values, k);
+        } else {
+            Selection.select(values, k.clone());
+            x = new long[k.length];
+            for (int i = 0; i < k.length; i++) {
+                x[i] = values[k[i]];
+            }
+        }
+        for (int i = 0; i < p.length; i++) {
+            final int j = i << 1;
+            q[i] = interpolate(x[j], x[j + 1], pos[i] - k[j]);
+        }
+        return q;
+    }
+
+    /**
+     * Gets the size of the data after applying the NaN policy.
+     *
+     * <p>As {@code NaN} is ordered above all other values, any excluded {@code NaN}
+     * are above the order statistics of the remaining data and are not removed.
+     *
+     * @param values Values.
+     * @return the size
+     * @throws IllegalArgumentException if the values contain NaN and the configuration is
+     * {@link NaNPolicy#ERROR}
+     */
+    private int size(double[] values) {
+        if (nanPolicy == NaNPolicy.INCLUDE) {
+            return values.length;
+        }
+        int n = 0;
+        for (final double v : values) {
+            if (v == v) {
+                n++;
+            }
+        }
+        if (n != values.length && nanPolicy == NaNPolicy.ERROR) {
+            throw new IllegalArgumentException("NaN in data");
+        }
+        return n;
+    }
+
+    /**
+     * Compute the indices of the order statistics required for each probability.
+     * Each probability requires two indices: the lower index {@code k[2i]} and
+     * the upper index {@code k[2i + 1]}. These are equal if no interpolation
+     * is required.
+     *
+     * @param p Probabilities.
+     * @param n Size of the data.
+     * @param pos Position of each probability (0-based index).
+     * @return the indices
+     */
+    private int[] indices(double[] p, int n, double[] pos) {
+        final int[] k = new int[p.length << 1];
+        for (int i = 0; i < p.length; i++) {
+            final double x = method.index(p[i], n);
+            final int j = (int) x;
+            pos[i] = x;
+            k[i << 1] = j;
+            k[(i << 1) + 1] = x > j ? j + 1 : j;
+        }
+        return k;
+    }
+
+    /**
+     * Check the probabilities are in the range {@code [0, 1]}.
+     *
+     * @param p Probabilities.
+     * @throws IllegalArgumentException if any probability {@code p} is not in the range {@code [0, 1]}
+     */
+    private static void checkProbabilities(double[] p) {
+        for (final double x : p) {
+            if (!(x >= 0 && x <= 1)) {
+                throw new IllegalArgumentException("Invalid probability: " + x);
+            }
+        }
+    }
+
+    /**
+     * Linear interpolation between sorted values {@code a <= b} using the
+     * interpolant {@code t} in {@code [0, 1]}.
+     *
+     * <p>Handles infinite values and overflow of {@code b - a}. The result
+     * is {@code NaN} if either value is {@code NaN}, or for interpolation
+     * between negative and positive infinity.
+     *
+     * @param a Lower value.
+     * @param b Upper value.
+     * @param t Interpolant.
+     * @return the value
+     */
+    static double interpolate(double a, double b, double t) {
+        if (a == b) {
+            // Includes t = 0 for non-NaN values and equal infinite values
+            return a;
+        }
+        final double d = b - a;
+        if (Double.isInfinite(d)) {
+            return (1 - t) * a + t * b;
+        }
+        return a + t * d;
+    }
+}
@@ -17,6 +17,9 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * Partition array data.
  *
@@ -187,10 +190,19 @@ final class QuickSelect {
     private static final double STEP_LEFT = 0.4375;
     /** Threshold to use repeated step right: 9 / 16. */
     private static final double STEP_RIGHT = 0.5625;
+    /** Shift applied to the number of elements to sort in a partial sort to
+     * determine if heap select is used. The heap select is used when the
+     * heap is small relative to the range: {@code m << shift < n}. */
+    private static final int PARTIAL_SORT_HEAP_SHIFT = 7;
     /** Threshold to use repeated step far-left: 1 / 12. */
     private static final double STEP_FAR_LEFT = 0.08333333333333333;
     /** Threshold to use repeated step far-right: 11 / 12. */
     private static final double STEP_FAR_RIGHT = 0.9166666666666666;
+    /** Object array sort size. Ranges below this length are sorted using an insertion sort. */
+    private static final int OBJECT_SORT_SIZE = 20;
+    /** Object array ninther size. Ranges above this length choose the pivot using the
+     * median of 3 medians-of-3 (Tukey's ninther); otherwise the median-of-3 is used. */
+    private static final int OBJECT_NINTHER_SIZE = 40;
 
     /** No instances. */
     private QuickSelect() {}
@@ -556,6 +568,72 @@ final class QuickSelect {
         return count;
     }
 
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This is a variant of {@link #select(double[], int, int, int[], int)} for repeat
+     * selection of the same indices. The indices are not modified and the workspace is
+     * reused to avoid allocation.
+     *
+     * <p>Assumes the indices are sorted, distinct and within {@code [left, right]},
+     * and {@code n > 0}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices.
+     * @param n Count of indices.
+     * @param bounds Workspace of length 1.
+     */
+    static void selectSorted(double[] a, int left, int right, int[] k, int n, int[] bounds) {
+        final int k1 = k[0];
+        final int kn = k[n - 1];
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, bounds, MODE_FR_SAMPLING);
+        } else {
+            dualPivotQuickSelect(a, left, right, new KeyUpdatingInterval(k, n),
+                dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partially sort the array such that the elements in {@code [ka, kb]} are
+     * sorted and correspond to their correctly sorted value in the equivalent
+     * fully sorted array. All other elements are partitioned around the
+     * sorted range.
+     *
+     * <p>For all indices {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= ... <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>Assumes {@code left <= ka <= kb <= right}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param ka Lower index to sort.
+     * @param kb Upper index to sort.
+     */
+    static void partialSort(double[] a, int left, int right, int ka, int kb) {
+        // Number of elements from the nearest end to the sorted range
+        final int m = Math.min(kb - left, right - ka) + 1;
+        if (m < LINEAR_SORTSELECT_SIZE) {
+            sortSelect(a, left, right, ka, kb);
+        } else if ((long) m << PARTIAL_SORT_HEAP_SHIFT < right - left + 1) {
+            // Heap select sorts [ka, kb] in the heap
+            heapSelect(a, left, right, ka, kb);
+        } else if (ka == kb) {
+            select(a, left, right, ka);
+        } else {
+            // Partition the ends of the range and sort the interior
+            select(a, left, right, new int[] {ka, kb}, 2);
+            Arrays.sort(a, ka + 1, kb);
+        }
+    }
+
     /**
      * Partition the array such that indices {@code k} correspond to their
      * correctly sorted value in the equivalent fully sorted array.
@@ -1474,7 +1552,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelect(int[] a, int left, int right, int ka, int kb) {
+    static void heapSelect(float[] a, int left, int right, int ka, int kb) {
         if (right <= left) {
             return;
         }
@@ -1499,7 +1577,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelectLeft(int[] a, int left, int right, int ka, int kb) {
+    static void heapSelectLeft(float[] a, int left, int right, int ka, int kb) {
         // Create a max heap in-place in [left, k], rooted at a[left] = max
         // |l|-max-heap-|k|--------------|
         // Build the heap using Floyd's heap-construction algorithm for heap size n.
@@ -1511,9 +1589,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int max = a[left];
+        float max = a[left];
         for (int i = right; i > kb; i--) {
-            final int v = a[i];
+            final float v = a[i];
             if (v < max) {
                 a[i] = max;
                 maxHeapSiftDown(a, v, left, left, end);
@@ -1543,7 +1621,7 @@ final class QuickSelect {
      * @param root Root of the heap.
      * @param end End of the heap (exclusive).
      */
-    private static void maxHeapSiftDown(int[] a, int v, int p, int root, int end) {
+    private static void maxHeapSiftDown(float[] a, float v, int p, int root, int end) {
         // child2 = root + 2 * (parent - root) + 2
         //        = 2 * parent - root + 2
         while (true) {
@@ -1581,7 +1659,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelectRight(int[] a, int left, int right, int ka, int kb) {
+    static void heapSelectRight(float[] a, int left, int right, int ka, int kb) {
         // Create a min heap in-place in [k, right], rooted at a[right] = min
         // |--------------|k|-min-heap-|r|
         // Build the heap using Floyd's heap-construction algorithm for heap size n.
@@ -1593,9 +1671,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int min = a[right];
+        float min = a[right];
         for (int i = left; i < ka; i++) {
-            final int v = a[i];
+            final float v = a[i];
             if (v > min) {
                 a[i] = min;
                 minHeapSiftDown(a, v, right, right, end);
@@ -1625,7 +1703,7 @@ final class QuickSelect {
      * @param root Root of the heap.
      * @param end End of the heap (exclusive).
      */
-    private static void minHeapSiftDown(int[] a, int v, int p, int root, int end) {
+    private static void minHeapSiftDown(float[] a, float v, int p, int root, int end) {
         // child2 = root - 2 * (root - parent) - 2
         //        = 2 * parent - root - 2
         while (true) {
@@ -1660,7 +1738,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void sortSelect(int[] a, int left, int right, int ka, int kb) {
+    static void sortSelect(float[] a, int left, int right, int ka, int kb) {
         // Combine the test for right <= left with
         // avoiding the overhead of sort select on tiny data.
         if (right - left <= MIN_SORTSELECT_SIZE) {
@@ -1691,10 +1769,10 @@ final class QuickSelect {
      * @param right Upper bound (inclusive).
      * @param k Index to select.
      */
-    static void sortSelectLeft(int[] a, int left, int right, int k) {
+    static void sortSelectLeft(float[] a, int left, int right, int k) {
         // Sort
         for (int i = left; ++i <= k;) {
-            final int v = a[i];
+            final float v = a[i];
             // Move preceding higher elements above (if required)
             if (v < a[i - 1]) {
                 int j = i;
@@ -1706,9 +1784,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int m = a[k];
+        float m = a[k];
         for (int i = right; i > k; i--) {
-            final int v = a[i];
+            final float v = a[i];
             if (v < m) {
                 a[i] = m;
                 int j = k;
@@ -1737,10 +1815,10 @@ final class QuickSelect {
      * @param right Upper bound (inclusive).
      * @param k Index to select.
      */
-    static void sortSelectRight(int[] a, int left, int right, int k) {
+    static void sortSelectRight(float[] a, int left, int right, int k) {
         // Sort
         for (int i = right; --i >= k;) {
-            final int v = a[i];
+            final float v = a[i];
             // Move succeeding lower elements below (if required)
             if (v > a[i + 1]) {
                 int j = i;
@@ -1752,9 +1830,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int m = a[k];
+        float m = a[k];
         for (int i = left; i < k; i++) {
-            final int v = a[i];
+            final float v = a[i];
             if (v > m) {
                 a[i] = m;
                 int j = k;
@@ -1778,7 +1856,7 @@ final class QuickSelect {
      * @param right Upper bound of data (inclusive).
      * @param k Index.
      */
-    static void select(int[] a, int left, int right, int k) {
+    static void select(float[] a, int left, int right, int k) {
         quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
     }
 
@@ -1786,21 +1864,31 @@ final class QuickSelect {
      * Partition the array such that indices {@code k} correspond to their correctly
      * sorted value in the equivalent fully sorted array.
      *
+     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
+     * the count is returned as a negative.
+     *
      * @param a Values.
      * @param left Lower bound of data (inclusive).
      * @param right Upper bound of data (inclusive).
      * @param k Indices (may be destructively modified).
      * @param n Count of indices.
+     * @return the count of used indices
      */
-    static void select(int[] a, int left, int right, int[] k, int n) {
+    static int select(float[] a, int left, int right, int[] k, int n) {
+        if (n < 1) {
+            return 0;
+        }
         if (n == 1) {
             quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
-            return;
+            return -1;
         }
 
         // Interval creation validates the indices are in [left, right]
         final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
 
+        // Save number of used indices
+        final int count = IndexSupport.countIndices(keys, n);
+
         // Note: If the keys are not separated then they are effectively a single key.
         // Any split of keys separated by the sort select size
         // will be finished on the next iteration.
@@ -1812,6 +1900,7 @@ final class QuickSelect {
             // Dual-pivot mode with small range sort length configured using index density
             dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
         }
+        return count;
     }
 
     /**
@@ -1842,7 +1931,7 @@ final class QuickSelect {
      * @param flags Adaption flags.
      * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
      */
-    static int quickSelectAdaptive(int[] a, int left, int right, int ka, int kb,
+    static int quickSelectAdaptive(float[] a, int left, int right, int ka, int kb,
             int[] bounds, int flags) {
         int l = left;
         int r = right;
@@ -1945,7 +2034,7 @@ final class QuickSelect {
      * @param upper Upper bound (inclusive) of the pivot range.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int sampleStep(int[] a, int l, int r, int k, int[] upper) {
+    private static int sampleStep(float[] a, int l, int r, int k, int[] upper) {
         // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
         // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
         // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
@@ -1984,7 +2073,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStep(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStep(float[] a, int l, int r, int k, int[] upper, int flags) {
         // Adapted from Alexandrescu (2016), algorithm 8.
         final int fp;
         final int s;
@@ -2039,7 +2128,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepLeft(float[] a, int l, int r, int k, int[] upper, int flags) {
         // Adapted from Alexandrescu (2016), algorithm 9.
         final int fp;
         final int s;
@@ -2096,7 +2185,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepRight(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepRight(float[] a, int l, int r, int k, int[] upper, int flags) {
         // Mirror image repeatedStepLeft using upper median into 3rd quartile
         final int fp;
         final int e;
@@ -2152,7 +2241,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepFarLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepFarLeft(float[] a, int l, int r, int k, int[] upper, int flags) {
         // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
         // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
         // The differences are:
@@ -2178,17 +2267,17 @@ final class QuickSelect {
             final int end = l + f2;
             for (int i = l + f; i < end; i++) {
                 if (a[i + f] < a[i - f]) {
-                    final int u = a[i + f];
+                    final float u = a[i + f];
                     a[i + f] = a[i - f];
                     a[i - f] = u;
                 }
                 if (a[i + f2] < a[i]) {
-                    final int v = a[i + f2];
+                    final float v = a[i + f2];
                     a[i + f2] = a[i];
                     a[i] = v;
                 }
                 if (a[i] < a[i - f]) {
-                    final int u = a[i];
+                    final float u = a[i];
                     a[i] = a[i - f];
                     a[i - f] = u;
                 }
@@ -2231,7 +2320,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepFarRight(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepFarRight(float[] a, int l, int r, int k, int[] upper, int flags) {
         // Mirror image repeatedStepFarLeft
         final int fp;
         final int e;
@@ -2249,17 +2338,17 @@ final class QuickSelect {
             final int end = r - f2;
             for (int i = r - f; i > end; i--) {
                 if (a[i - f] > a[i + f]) {
-                    final int u = a[i - f];
+                    final float u = a[i - f];
                     a[i - f] = a[i + f];
                     a[i + f] = u;
                 }
                 if (a[i - f2] > a[i]) {
-                    final int v = a[i - f2];
+                    final float v = a[i - f2];
                     a[i - f2] = a[i];
                     a[i] = v;
                 }
                 if (a[i] > a[i + f]) {
-                    final int u = a[i];
+                    final float u = a[i];
                     a[i] = a[i + f];
                     a[i + f] = u;
                 }
@@ -2305,7 +2394,7 @@ final class QuickSelect {
      * @return Lower bound (inclusive) of the pivot range [k0].
      */
     // package-private for testing
-    static int expandPartition(int[] a, int left, int right, int start, int end,
+    static int expandPartition(float[] a, int left, int right, int start, int end,
         int pivot0, int pivot1, int[] upper) {
         // 3-way partition of the data using a pivot value into
         // less-than, equal or greater-than.
@@ -2325,10 +2414,10 @@ final class QuickSelect {
         // |l                       |p0  p1|           |         | r|
         // |         <              |  ==  |       >   |   ???   |<=|
 
-        final int v = a[pivot0];
+        final float v = a[pivot0];
         // Use start/end as sentinels (requires start != end)
-        int vi = a[start];
-        int vj = a[end];
+        float vi = a[start];
+        float vj = a[end];
         a[start] = a[left];
         a[end] = a[right];
         a[left] = vj;
@@ -2370,7 +2459,7 @@ final class QuickSelect {
                     do {
                         ++j;
                     } while (a[j] > v);
-                    final int w = a[j];
+                    final float w = a[j];
                     // Move upper bound of pivot region
                     a[j] = a[++p1];
                     a[p1] = v;
@@ -2387,7 +2476,7 @@ final class QuickSelect {
                     do {
                         --i;
                     } while (a[i] < v);
-                    final int w = a[i];
+                    final float w = a[i];
                     // Move lower bound of pivot region
                     a[i] = a[--p0];
                     a[p0] = v;
@@ -2434,7 +2523,7 @@ final class QuickSelect {
      * @param flags Control flags.
      */
     // package-private for testing
-    static void dualPivotQuickSelect(int[] a, int left, int right, UpdatingInterval k, int flags) {
+    static void dualPivotQuickSelect(float[] a, int left, int right, UpdatingInterval k, int flags) {
         // If partitioning splits the interval then recursion is used for the left-most side(s)
         // and the right-most side remains within this function. If partitioning does
         // not split the interval then it remains within this function.
@@ -2555,7 +2644,7 @@ final class QuickSelect {
      * @param bounds Points [k1, k2, k3].
      * @return Lower bound (inclusive) of the pivot range [k0].
      */
-    private static int partition(int[] a, int left, int right, int[] bounds) {
+    private static int partition(float[] a, int left, int right, int[] bounds) {
         // Pick 2 pivots from 5 approximately uniform through the range.
         // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
         // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
@@ -2586,10 +2675,10 @@ final class QuickSelect {
         // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
 
         // Swap ends to the pivot locations.
-        final int v1 = a[i2];
+        final float v1 = a[i2];
         a[i2] = a[left];
         a[left] = v1;
-        final int v2 = a[i4];
+        final float v2 = a[i4];
         a[i4] = a[right];
         a[right] = v2;
 
@@ -2610,7 +2699,7 @@ final class QuickSelect {
         // unvisited in [less, great]
         SORTING:
         for (int k = less; k <= great; k++) {
-            final int v = a[k];
+            final float v = a[k];
             if (v < v1) {
                 // swap(a, k, less++)
                 a[k] = a[less];
@@ -2628,7 +2717,7 @@ final class QuickSelect {
                 // swap(a, k, great--)
                 // if a[k] < v1:
                 //   swap(a, k, less++)
-                final int w = a[great];
+                final float w = a[great];
                 a[great] = v;
                 great--;
                 // delay a[k] = w
@@ -2678,7 +2767,7 @@ final class QuickSelect {
             // This copies the logic in the sorting loop using == comparisons
             EQUAL:
             for (int k = less; k <= great; k++) {
-                final int v = a[k];
+                final float v = a[k];
                 if (v == v1) {
                     a[k] = a[less];
                     a[less] = v;
@@ -2690,7 +2779,7 @@ final class QuickSelect {
                             break EQUAL;
                         }
                     }
-                    final int w = a[great];
+                    final float w = a[great];
                     a[great] = v;
                     great--;
                     if (w == v1) {
@@ -2732,7 +2821,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelect(long[] a, int left, int right, int ka, int kb) {
+    static void heapSelect(int[] a, int left, int right, int ka, int kb) {
         if (right <= left) {
             return;
         }
@@ -2757,7 +2846,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelectLeft(long[] a, int left, int right, int ka, int kb) {
+    static void heapSelectLeft(int[] a, int left, int right, int ka, int kb) {
         // Create a max heap in-place in [left, k], rooted at a[left] = max
         // |l|-max-heap-|k|--------------|
         // Build the heap using Floyd's heap-construction algorithm for heap size n.
@@ -2769,9 +2858,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        long max = a[left];
+        int max = a[left];
         for (int i = right; i > kb; i--) {
-            final long v = a[i];
+            final int v = a[i];
             if (v < max) {
                 a[i] = max;
                 maxHeapSiftDown(a, v, left, left, end);
@@ -2801,7 +2890,7 @@ final class QuickSelect {
      * @param root Root of the heap.
      * @param end End of the heap (exclusive).
      */
-    private static void maxHeapSiftDown(long[] a, long v, int p, int root, int end) {
+    private static void maxHeapSiftDown(int[] a, int v, int p, int root, int end) {
         // child2 = root + 2 * (parent - root) + 2
         //        = 2 * parent - root + 2
         while (true) {
@@ -2839,7 +2928,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelectRight(long[] a, int left, int right, int ka, int kb) {
+    static void heapSelectRight(int[] a, int left, int right, int ka, int kb) {
         // Create a min heap in-place in [k, right], rooted at a[right] = min
         // |--------------|k|-min-heap-|r|
         // Build the heap using Floyd's heap-construction algorithm for heap size n.
@@ -2851,9 +2940,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        long min = a[right];
+        int min = a[right];
         for (int i = left; i < ka; i++) {
-            final long v = a[i];
+            final int v = a[i];
             if (v > min) {
                 a[i] = min;
                 minHeapSiftDown(a, v, right, right, end);
@@ -2883,7 +2972,7 @@ final class QuickSelect {
      * @param root Root of the heap.
      * @param end End of the heap (exclusive).
      */
-    private static void minHeapSiftDown(long[] a, long v, int p, int root, int end) {
+    private static void minHeapSiftDown(int[] a, int v, int p, int root, int end) {
         // child2 = root - 2 * (root - parent) - 2
         //        = 2 * parent - root - 2
         while (true) {
@@ -2918,7 +3007,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void sortSelect(long[] a, int left, int right, int ka, int kb) {
+    static void sortSelect(int[] a, int left, int right, int ka, int kb) {
         // Combine the test for right <= left with
         // avoiding the overhead of sort select on tiny data.
         if (right - left <= MIN_SORTSELECT_SIZE) {
@@ -2949,10 +3038,10 @@ final class QuickSelect {
      * @param right Upper bound (inclusive).
      * @param k Index to select.
      */
-    static void sortSelectLeft(long[] a, int left, int right, int k) {
+    static void sortSelectLeft(int[] a, int left, int right, int k) {
         // Sort
         for (int i = left; ++i <= k;) {
-            final long v = a[i];
+            final int v = a[i];
             // Move preceding higher elements above (if required)
             if (v < a[i - 1]) {
                 int j = i;
@@ -2964,9 +3053,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        long m = a[k];
+        int m = a[k];
         for (int i = right; i > k; i--) {
-            final long v = a[i];
+            final int v = a[i];
             if (v < m) {
                 a[i] = m;
                 int j = k;
@@ -2995,10 +3084,10 @@ final class QuickSelect {
      * @param right Upper bound (inclusive).
      * @param k Index to select.
      */
-    static void sortSelectRight(long[] a, int left, int right, int k) {
+    static void sortSelectRight(int[] a, int left, int right, int k) {
         // Sort
         for (int i = right; --i >= k;) {
-            final long v = a[i];
+            final int v = a[i];
             // Move succeeding lower elements below (if required)
             if (v > a[i + 1]) {
                 int j = i;
@@ -3010,9 +3099,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        long m = a[k];
+        int m = a[k];
         for (int i = left; i < k; i++) {
-            final long v = a[i];
+            final int v = a[i];
             if (v > m) {
                 a[i] = m;
                 int j = k;
@@ -3036,7 +3125,7 @@ final class QuickSelect {
      * @param right Upper bound of data (inclusive).
      * @param k Index.
      */
-    static void select(long[] a, int left, int right, int k) {
+    static void select(int[] a, int left, int right, int k) {
         quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
     }
 
@@ -3050,7 +3139,7 @@ final class QuickSelect {
      * @param k Indices (may be destructively modified).
      * @param n Count of indices.
      */
-    static void select(long[] a, int left, int right, int[] k, int n) {
+    static void select(int[] a, int left, int right, int[] k, int n) {
         if (n == 1) {
             quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
             return;
@@ -3072,6 +3161,72 @@ final class QuickSelect {
         }
     }
 
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This is a variant of {@link #select(int[], int, int, int[], int)} for repeat
+     * selection of the same indices. The indices are not modified and the workspace is
+     * reused to avoid allocation.
+     *
+     * <p>Assumes the indices are sorted, distinct and within {@code [left, right]},
+     * and {@code n > 0}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices.
+     * @param n Count of indices.
+     * @param bounds Workspace of length 1.
+     */
+    static void selectSorted(int[] a, int left, int right, int[] k, int n, int[] bounds) {
+        final int k1 = k[0];
+        final int kn = k[n - 1];
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, bounds, MODE_FR_SAMPLING);
+        } else {
+            dualPivotQuickSelect(a, left, right, new KeyUpdatingInterval(k, n),
+                dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partially sort the array such that the elements in {@code [ka, kb]} are
+     * sorted and correspond to their correctly sorted value in the equivalent
+     * fully sorted array. All other elements are partitioned around the
+     * sorted range.
+     *
+     * <p>For all indices {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= ... <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>Assumes {@code left <= ka <= kb <= right}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param ka Lower index to sort.
+     * @param kb Upper index to sort.
+     */
+    static void partialSort(int[] a, int left, int right, int ka, int kb) {
+        // Number of elements from the nearest end to the sorted range
+        final int m = Math.min(kb - left, right - ka) + 1;
+        if (m < LINEAR_SORTSELECT_SIZE) {
+            sortSelect(a, left, right, ka, kb);
+        } else if ((long) m << PARTIAL_SORT_HEAP_SHIFT < right - left + 1) {
+            // Heap select sorts [ka, kb] in the heap
+            heapSelect(a, left, right, ka, kb);
+        } else if (ka == kb) {
+            select(a, left, right, ka);
+        } else {
+            // Partition the ends of the range and sort the interior
+            select(a, left, right, new int[] {ka, kb}, 2);
+            Arrays.sort(a, ka + 1, kb);
+        }
+    }
+
     /**
      * Partition the array such that indices {@code k} correspond to their
      * correctly sorted value in the equivalent fully sorted array.
@@ -3100,7 +3255,7 @@ final class QuickSelect {
      * @param flags Adaption flags.
      * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
      */
-    static int quickSelectAdaptive(long[] a, int left, int right, int ka, int kb,
+    static int quickSelectAdaptive(int[] a, int left, int right, int ka, int kb,
             int[] bounds, int flags) {
         int l = left;
         int r = right;
@@ -3203,7 +3358,7 @@ final class QuickSelect {
      * @param upper Upper bound (inclusive) of the pivot range.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int sampleStep(long[] a, int l, int r, int k, int[] upper) {
+    private static int sampleStep(int[] a, int l, int r, int k, int[] upper) {
         // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
         // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
         // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
@@ -3242,7 +3397,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStep(long[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStep(int[] a, int l, int r, int k, int[] upper, int flags) {
         // Adapted from Alexandrescu (2016), algorithm 8.
         final int fp;
         final int s;
@@ -3297,7 +3452,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepLeft(long[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
         // Adapted from Alexandrescu (2016), algorithm 9.
         final int fp;
         final int s;
@@ -3354,7 +3509,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepRight(long[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepRight(int[] a, int l, int r, int k, int[] upper, int flags) {
         // Mirror image repeatedStepLeft using upper median into 3rd quartile
         final int fp;
         final int e;
@@ -3410,7 +3565,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepFarLeft(long[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepFarLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
         // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
         // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
         // The differences are:
@@ -3436,17 +3591,17 @@ final class QuickSelect {
             final int end = l + f2;
             for (int i = l + f; i < end; i++) {
                 if (a[i + f] < a[i - f]) {
-                    final long u = a[i + f];
+                    final int u = a[i + f];
                     a[i + f] = a[i - f];
                     a[i - f] = u;
                 }
                 if (a[i + f2] < a[i]) {
-                    final long v = a[i + f2];
+                    final int v = a[i + f2];
                     a[i + f2] = a[i];
                     a[i] = v;
                 }
                 if (a[i] < a[i - f]) {
-                    final long u = a[i];
+                    final int u = a[i];
                     a[i] = a[i - f];
                     a[i - f] = u;
                 }
@@ -3489,7 +3644,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepFarRight(long[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepFarRight(int[] a, int l, int r, int k, int[] upper, int flags) {
         // Mirror image repeatedStepFarLeft
         final int fp;
         final int e;
@@ -3507,17 +3662,17 @@ final class QuickSelect {
             final int end = r - f2;
             for (int i = r - f; i > end; i--) {
                 if (a[i - f] > a[i + f]) {
-                    final long u = a[i - f];
+                    final int u = a[i - f];
                     a[i - f] = a[i + f];
                     a[i + f] = u;
                 }
                 if (a[i - f2] > a[i]) {
-                    final long v = a[i - f2];
+                    final int v = a[i - f2];
                     a[i - f2] = a[i];
                     a[i] = v;
                 }
                 if (a[i] > a[i + f]) {
-                    final long u = a[i];
+                    final int u = a[i];
                     a[i] = a[i + f];
                     a[i + f] = u;
                 }
@@ -3563,7 +3718,7 @@ final class QuickSelect {
      * @return Lower bound (inclusive) of the pivot range [k0].
      */
     // package-private for testing
-    static int expandPartition(long[] a, int left, int right, int start, int end,
+    static int expandPartition(int[] a, int left, int right, int start, int end,
         int pivot0, int pivot1, int[] upper) {
         // 3-way partition of the data using a pivot value into
         // less-than, equal or greater-than.
@@ -3583,10 +3738,10 @@ final class QuickSelect {
         // |l                       |p0  p1|           |         | r|
         // |         <              |  ==  |       >   |   ???   |<=|
 
-        final long v = a[pivot0];
+        final int v = a[pivot0];
         // Use start/end as sentinels (requires start != end)
-        long vi = a[start];
-        long vj = a[end];
+        int vi = a[start];
+        int vj = a[end];
         a[start] = a[left];
         a[end] = a[right];
         a[left] = vj;
@@ -3628,7 +3783,7 @@ final class QuickSelect {
                     do {
                         ++j;
                     } while (a[j] > v);
-                    final long w = a[j];
+                    final int w = a[j];
                     // Move upper bound of pivot region
                     a[j] = a[++p1];
                     a[p1] = v;
@@ -3645,7 +3800,7 @@ final class QuickSelect {
                     do {
                         --i;
                     } while (a[i] < v);
-                    final long w = a[i];
+                    final int w = a[i];
                     // Move lower bound of pivot region
                     a[i] = a[--p0];
                     a[p0] = v;
@@ -3692,7 +3847,7 @@ final class QuickSelect {
      * @param flags Control flags.
      */
     // package-private for testing
-    static void dualPivotQuickSelect(long[] a, int left, int right, UpdatingInterval k, int flags) {
+    static void dualPivotQuickSelect(int[] a, int left, int right, UpdatingInterval k, int flags) {
         // If partitioning splits the interval then recursion is used for the left-most side(s)
         // and the right-most side remains within this function. If partitioning does
         // not split the interval then it remains within this function.
@@ -3813,7 +3968,7 @@ final class QuickSelect {
      * @param bounds Points [k1, k2, k3].
      * @return Lower bound (inclusive) of the pivot range [k0].
      */
-    private static int partition(long[] a, int left, int right, int[] bounds) {
+    private static int partition(int[] a, int left, int right, int[] bounds) {
         // Pick 2 pivots from 5 approximately uniform through the range.
         // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
         // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
@@ -3844,10 +3999,10 @@ final class QuickSelect {
         // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
 
         // Swap ends to the pivot locations.
-        final long v1 = a[i2];
+        final int v1 = a[i2];
         a[i2] = a[left];
         a[left] = v1;
-        final long v2 = a[i4];
+        final int v2 = a[i4];
         a[i4] = a[right];
         a[right] = v2;
 
@@ -3868,7 +4023,7 @@ final class QuickSelect {
         // unvisited in [less, great]
         SORTING:
         for (int k = less; k <= great; k++) {
-            final long v = a[k];
+            final int v = a[k];
             if (v < v1) {
                 // swap(a, k, less++)
                 a[k] = a[less];
@@ -3886,7 +4041,7 @@ final class QuickSelect {
                 // swap(a, k, great--)
                 // if a[k] < v1:
                 //   swap(a, k, less++)
-                final long w = a[great];
+                final int w = a[great];
                 a[great] = v;
                 great--;
                 // delay a[k] = w
@@ -3936,7 +4091,7 @@ final class QuickSelect {
             // This copies the logic in the sorting loop using == comparisons
             EQUAL:
             for (int k = less; k <= great; k++) {
-                final long v = a[k];
+                final int v = a[k];
                 if (v == v1) {
                     a[k] = a[less];
                     a[less] = v;
@@ -3948,7 +4103,7 @@ final class QuickSelect {
                             break EQUAL;
                         }
                     }
-                    final long w = a[great];
+                    final int w = a[great];
                     a[great] = v;
                     great--;
                     if (w == v1) {
@@ -3981,30 +4136,5128 @@ final class QuickSelect {
     }
 
     /**
-     * Map the distance from the edge of {@code [l, r]} to a new distance in {@code [0, n)}.
-     *
-     * <p>The provides the adaption {@code kf'/|A|} from Alexandrescu (2016) where
-     * {@code k == d}, {@code f' == n} and {@code |A| == r-l+1}.
-     *
-     * <p>For convenience this accepts the input range {@code [l, r]}.
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
      *
-     * @param d Distance from the edge in {@code [0, r - l]}.
-     * @param l Lower bound (inclusive).
-     * @param r Upper bound (inclusive).
-     * @param n Size of the new range.
-     * @return the mapped distance in [0, n)
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
      */
-    private static int mapDistance(int d, int l, int r, int n) {
-        return (int) (d * (n - 1.0) / (r - l));
+    static void heapSelect(long[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
     }
 
     /**
-     * Configure the dual-pivot control flags. This packs the maximum recursion depth and
-     * sort select size into a single integer.
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
      *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
      * @param left Lower bound (inclusive).
      * @param right Upper bound (inclusive).
-     * @param k1 First key of interest.
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(long[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long max = a[left];
+        for (int i = right; i > kb; i--) {
+            final long v = a[i];
+            if (v < max) {
+                a[i] = max;
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(long[] a, long v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a[c] < a[c - 1]) {
+                --c;
+            }
+            if (v >= a[c]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(long[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long min = a[right];
+        for (int i = left; i < ka; i++) {
+            final long v = a[i];
+            if (v > min) {
+                a[i] = min;
+                minHeapSiftDown(a, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(long[] a, long v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a[c] > a[c + 1]) {
+                ++c;
+            }
+            if (v <= a[c]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(long[] a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(long[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final long v = a[i];
+            // Move preceding higher elements above (if required)
+            if (v < a[i - 1]) {
+                int j = i;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long m = a[k];
+        for (int i = right; i > k; i--) {
+            final long v = a[i];
+            if (v < m) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(long[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final long v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (v > a[i + 1]) {
+                int j = i;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long m = a[k];
+        for (int i = left; i < k; i++) {
+            final long v = a[i];
+            if (v > m) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(long[] a, int left, int right, int k) {
+        quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(long[] a, int left, int right, int[] k, int n) {
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Note: If the keys are not separated then they are effectively a single key.
+        // Any split of keys separated by the sort select size
+        // will be finished on the next iteration.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else {
+            // Dual-pivot mode with small range sort length configured using index density
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This is a variant of {@link #select(long[], int, int, int[], int)} for repeat
+     * selection of the same indices. The indices are not modified and the workspace is
+     * reused to avoid allocation.
+     *
+     * <p>Assumes the indices are sorted, distinct and within {@code [left, right]},
+     * and {@code n > 0}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices.
+     * @param n Count of indices.
+     * @param bounds Workspace of length 1.
+     */
+    static void selectSorted(long[] a, int left, int right, int[] k, int n, int[] bounds) {
+        final int k1 = k[0];
+        final int kn = k[n - 1];
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, bounds, MODE_FR_SAMPLING);
+        } else {
+            dualPivotQuickSelect(a, left, right, new KeyUpdatingInterval(k, n),
+                dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partially sort the array such that the elements in {@code [ka, kb]} are
+     * sorted and correspond to their correctly sorted value in the equivalent
+     * fully sorted array. All other elements are partitioned around the
+     * sorted range.
+     *
+     * <p>For all indices {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= ... <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>Assumes {@code left <= ka <= kb <= right}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param ka Lower index to sort.
+     * @param kb Upper index to sort.
+     */
+    static void partialSort(long[] a, int left, int right, int ka, int kb) {
+        // Number of elements from the nearest end to the sorted range
+        final int m = Math.min(kb - left, right - ka) + 1;
+        if (m < LINEAR_SORTSELECT_SIZE) {
+            sortSelect(a, left, right, ka, kb);
+        } else if ((long) m << PARTIAL_SORT_HEAP_SHIFT < right - left + 1) {
+            // Heap select sorts [ka, kb] in the heap
+            heapSelect(a, left, right, ka, kb);
+        } else if (ka == kb) {
+            select(a, left, right, ka);
+        } else {
+            // Partition the ends of the range and sort the interior
+            select(a, left, right, new int[] {ka, kb}, 2);
+            Arrays.sort(a, ka + 1, kb);
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code [ka, kb]} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>This function accepts indices {@code [ka, kb]} that define the
+     * range of indices to partition. It is expected that the range is small.
+     *
+     * <p>The {@code flags} are used to control the sampling mode and adaption of
+     * the index within the sample.
+     *
+     * <p>Returns the bounds containing {@code [ka, kb]}. These may be lower/higher
+     * than the keys if equal values are present in the data.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param ka First key of interest.
+     * @param kb Last key of interest.
+     * @param bounds Upper bound of the range containing {@code [ka, kb]} (inclusive).
+     * @param flags Adaption flags.
+     * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
+     */
+    static int quickSelectAdaptive(long[] a, int left, int right, int ka, int kb,
+            int[] bounds, int flags) {
+        int l = left;
+        int r = right;
+        int m = flags;
+        while (true) {
+            // Select when ka and kb are close to the same end
+            // |l|-----|ka|kkkkkkkk|kb|------|r|
+            if (Math.min(kb - l, r - ka) < LINEAR_SORTSELECT_SIZE) {
+                sortSelect(a, l, r, ka, kb);
+                bounds[0] = kb;
+                return ka;
+            }
+
+            // Only target ka; kb is assumed to be close
+            int p0;
+            final int n = r - l;
+            // f in [0, 1]
+            final double f = (double) (ka - l) / n;
+            // Record the larger margin (start at 1/4) to create the estimated size.
+            // step        L     R
+            // far left    1/12  1/3   (use 1/4 + 1/32 + 1/64 ~ 0.328)
+            // left        1/6   1/4
+            // middle      2/9   2/9   (use 1/4 - 1/32 ~ 0.219)
+            int margin = n >> 2;
+            if (m < MODE_SAMPLING && r - l > FR_SAMPLING_SIZE) {
+                // Floyd-Rivest sample step uses the same margins
+                p0 = sampleStep(a, l, r, ka, bounds);
+                if (f <= STEP_FAR_LEFT || f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                } else if (f > STEP_LEFT && f < STEP_RIGHT) {
+                    margin -= n >> 5;
+                }
+            } else if (f <= STEP_LEFT) {
+                if (f <= STEP_FAR_LEFT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarLeft(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepLeft(a, l, r, ka, bounds, m);
+                }
+            } else if (f >= STEP_RIGHT) {
+                if (f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarRight(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepRight(a, l, r, ka, bounds, m);
+                }
+            } else {
+                margin -= n >> 5;
+                p0 = repeatedStep(a, l, r, ka, bounds, m);
+            }
+
+            // Note: Here we expect [ka, kb] to be small and splitting is unlikely.
+            //                   p0 p1
+            // |l|--|ka|kkkk|kb|--|P|-------------------|r|
+            // |l|----------------|P|--|ka|kkk|kb|------|r|
+            // |l|-----------|ka|k|P|k|kb|--------------|r|
+            final int p1 = bounds[0];
+            if (kb < p0) {
+                // Entirely on left side
+                r = p0 - 1;
+            } else if (ka > p1) {
+                // Entirely on right side
+                l = p1 + 1;
+            } else {
+                // Pivot splits [ka, kb]. Expect ends to be close to the pivot and finish.
+                // Here we set the bounds for use after median-of-medians pivot selection.
+                // In the event there are many equal values this allows collecting those
+                // known to be equal together when moving around the medians sample.
+                if (kb > p1) {
+                    sortSelectLeft(a, p1 + 1, r, kb);
+                    bounds[0] = kb;
+                }
+                if (ka < p0) {
+                    sortSelectRight(a, l, p0 - 1, ka);
+                    p0 = ka;
+                }
+                return p0;
+            }
+            // Update mode based on target partition size
+            if (r - l > n - margin) {
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Partitions a Floyd-Rivest sample around a pivot offset so that the input {@code k} will
+     * fall in the smaller partition when the entire range is partitioned.
+     *
+     * <p>Assumes the range {@code r - l} is large.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int sampleStep(long[] a, int l, int r, int k, int[] upper) {
+        // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
+        // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
+        // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
+        final int n = r - l + 1;
+        final int ith = k - l + 1;
+        final double z = Math.log(n);
+        // sample size = 0.5 * n^(2/3)
+        final double s = 0.5 * Math.exp(0.6666666666666666 * z);
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Integer.signum(ith - (n >> 1));
+        final int ll = Math.max(l, (int) (k - ith * s / n + sd));
+        final int rr = Math.min(r, (int) (k + (n - ith) * s / n + sd));
+        // Sample recursion restarts from [ll, rr]
+        final int p = quickSelectAdaptive(a, ll, rr, k, k, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, ll, rr, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 8}; the caller is responsible for selection on a smaller
+     * range. If using a 12th-tile for sampling then assumes {@code r - l >= 11}.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the median of 3 then median of 3; the final sample is placed in the
+     * 5th 9th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 2/9 and 2/9.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStep(long[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 8.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            s = k - mapDistance(k - l, l, r, fp);
+            p = k;
+        } else {
+            // i in tertile [3f':6f')
+            fp = (r - l + 1) / 9;
+            final int f3 = 3 * fp;
+            final int end = l + (f3 << 1);
+            for (int i = l + f3; i < end; i++) {
+                Sorting.sort3(a, i - f3, i, i + f3);
+            }
+            // 5th 9th-tile: [4f':5f')
+            s = l + (fp << 2);
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the lower median of 4 then either median of 3 with the final sample placed in the
+     * 5th 12th-tile, or min of 3 with the final sample in the 4th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/6 and 1/4.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepLeft(long[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 9.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (k-l)/(r-l) -> 1/12
+            s = Math.max(k - mapDistance(k - l, l, r, fp), l + fp);
+            p = k;
+        } else {
+            // i in 2nd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                Sorting.lowerMedian4(a, i - f, i, i + f, i + f2);
+            }
+            // i in 5th 12th-tile
+            fp = f / 3;
+            s = l + f + fp;
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the upper median of 4 then either median of 3 with the final sample placed in the
+     * 8th 12th-tile, or max of 3 with the final sample in the 9th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/4 and 1/6.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepRight(long[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepLeft using upper median into 3rd quartile
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (r-k)/(r-l) -> 11/12
+            e = Math.min(k + mapDistance(r - k, l, r, fp), r - fp);
+            p = k;
+        } else {
+            // i in 3rd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                Sorting.upperMedian4(a, i - f2, i - f, i, i + f);
+            }
+            // i in 8th 12th-tile
+            fp = f / 3;
+            e = r - f - fp;
+            // No adaption uses the middle to enforce strict margins
+            p = e - (flags == MODE_ADAPTION ? mapDistance(r - k, l, r, fp) : (fp >>> 1));
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the minimum of 4 then median of 3; the final sample is placed in the
+     * 2nd 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/12 and 1/3.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarLeft(long[] a, int l, int r, int k, int[] upper, int flags) {
+        // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
+        // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
+        // The differences are:
+        // - The upper margin when not sampling is 8/24 vs. 9/24; the lower margin remains at 1/12.
+        // - The position of the sample is closer to the expected location of k < |A| / 12.
+        // - Sampling mode uses a median-of-3 with adaptive k, matching the other step methods.
+        //   A min-of-3 sample can create a pivot too small if used with adaption of k leaving
+        //   k in the larger parition and a wasted iteration.
+        // - Adaption is adjusted to force use of the lower margin when not sampling.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 2nd 12th-tile
+            fp = (r - l + 1) / 12;
+            s = l + fp;
+            // Use adaption
+            p = s + mapDistance(k - l, l, r, fp);
+        } else {
+            // i in 2nd quartile; min into i-f (1st quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                if (a[i + f] < a[i - f]) {
+                    final long u = a[i + f];
+                    a[i + f] = a[i - f];
+                    a[i - f] = u;
+                }
+                if (a[i + f2] < a[i]) {
+                    final long v = a[i + f2];
+                    a[i + f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] < a[i - f]) {
+                    final long u = a[i];
+                    a[i] = a[i - f];
+                    a[i - f] = u;
+                }
+            }
+            // 2nd 12th-tile
+            fp = f / 3;
+            s = l + fp;
+            // Lower margin has 2(d+1) elements; d == (position in sample) - s
+            // Force k into the lower margin. Note p will be within [s, e]
+            // if: (double) (k - l) / (r - l) < 1/12 => (k - l) / 2 < (r - l) / 24
+            p = s + ((k - l) >>> 1);
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the maximum of 4 then median of 3; the final sample is placed in the
+     * 11th 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/3 and 1/12.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarRight(long[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepFarLeft
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 11th 12th-tile
+            fp = (r - l + 1) / 12;
+            e = r - fp;
+            // Use adaption
+            p = e - mapDistance(r - k, l, r, fp);
+        } else {
+            // i in 3rd quartile; max into i+f (4th quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                if (a[i - f] > a[i + f]) {
+                    final long u = a[i - f];
+                    a[i - f] = a[i + f];
+                    a[i + f] = u;
+                }
+                if (a[i - f2] > a[i]) {
+                    final long v = a[i - f2];
+                    a[i - f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] > a[i + f]) {
+                    final long u = a[i];
+                    a[i] = a[i + f];
+                    a[i + f] = u;
+                }
+            }
+            // 11th 12th-tile
+            fp = f / 3;
+            e = r - fp;
+            // Upper margin has 2(d+1) elements; d == e - (position in sample)
+            // Force k into the upper margin. Note p will be within [s, e]
+            // if: (double) (r - k) / (r - l) < 1/12 => (r - k) / 2 < (r - l) / 24
+            p = e - ((r - k) >>> 1);
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Expand a partition around a single pivot. Partitioning exchanges array
+     * elements such that all elements smaller than pivot are before it and all
+     * elements larger than pivot are after it. The central region is already
+     * partitioned.
+     *
+     * <pre>{@code
+     * |l             |s   |p0 p1|   e|                r|
+     * |    ???       | <P | ==P | >P |        ???      |
+     * }</pre>
+     *
+     * <p>This requires that {@code start != end}. However it handles
+     * {@code left == start} and/or {@code end == right}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param start Start of the partition range (inclusive).
+     * @param end End of the partitioned range (inclusive).
+     * @param pivot0 Lower pivot location (inclusive).
+     * @param pivot1 Upper pivot location (inclusive).
+     * @param upper Upper bound (inclusive) of the pivot range [k1].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    // package-private for testing
+    static int expandPartition(long[] a, int left, int right, int start, int end,
+        int pivot0, int pivot1, int[] upper) {
+        // 3-way partition of the data using a pivot value into
+        // less-than, equal or greater-than.
+        // Based on Sedgewick's Bentley-McIroy partitioning: always swap i<->j then
+        // check for equal to the pivot and move again.
+        //
+        // Move sentinels from start and end to left and right. Scan towards the
+        // sentinels until >=,<=. Swap then move == to the pivot region.
+        //           <-i                           j->
+        // |l |        |            |p0  p1|       |             | r|
+        // |>=|   ???  |     <      |  ==  |   >   |     ???     |<=|
+        //
+        // When either i or j reach the edge perform finishing loop.
+        // Finish loop for a[j] <= v replaces j with p1+1, optionally moves value
+        // to p0 for < and updates the pivot range p1 (and optionally p0):
+        //                                             j->
+        // |l                       |p0  p1|           |         | r|
+        // |         <              |  ==  |       >   |   ???   |<=|
+
+        final long v = a[pivot0];
+        // Use start/end as sentinels (requires start != end)
+        long vi = a[start];
+        long vj = a[end];
+        a[start] = a[left];
+        a[end] = a[right];
+        a[left] = vj;
+        a[right] = vi;
+
+        int i = start + 1;
+        int j = end - 1;
+
+        // Positioned for pre-in/decrement to write to pivot region
+        int p0 = pivot0 == start ? i : pivot0;
+        int p1 = pivot1 == end ? j : pivot1;
+
+        while (true) {
+            do {
+                --i;
+            } while (a[i] < v);
+            do {
+                ++j;
+            } while (a[j] > v);
+            vj = a[i];
+            vi = a[j];
+            a[i] = vi;
+            a[j] = vj;
+            // Move the equal values to pivot region
+            if (vi == v) {
+                a[i] = a[--p0];
+                a[p0] = v;
+            }
+            if (vj == v) {
+                a[j] = a[++p1];
+                a[p1] = v;
+            }
+            // Termination check and finishing loops.
+            // Note: This works even if pivot region is zero length (p1 == p0-1 due to
+            // length 1 pivot region at either start/end) because we pre-inc/decrement
+            // one side and post-inc/decrement the other side.
+            if (i == left) {
+                while (j < right) {
+                    do {
+                        ++j;
+                    } while (a[j] > v);
+                    final long w = a[j];
+                    // Move upper bound of pivot region
+                    a[j] = a[++p1];
+                    a[p1] = v;
+                    // Move lower bound of pivot region
+                    if (w != v) {
+                        a[p0] = w;
+                        p0++;
+                    }
+                }
+                break;
+            }
+            if (j == right) {
+                while (i > left) {
+                    do {
+                        --i;
+                    } while (a[i] < v);
+                    final long w = a[i];
+                    // Move lower bound of pivot region
+                    a[i] = a[--p0];
+                    a[p0] = v;
+                    // Move upper bound of pivot region
+                    if (w != v) {
+                        a[p1] = w;
+                        p1--;
+                    }
+                }
+                break;
+            }
+        }
+
+        upper[0] = p1;
+        return p0;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(long[] a, int left, int right, UpdatingInterval k, int flags) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                n < (f & SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (kb - ka < DP_SORTSELECT_SIZE) {
+                // Switch to single-pivot mode with Floyd-Rivest sub-sampling
+                quickSelectAdaptive(a, l, r, ka, kb, upper, MODE_FR_SAMPLING);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(long[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        Sorting.sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final long v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final long v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a[less] < v1);
+        do {
+            --great;
+        } while (a[great] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final long v = a[k];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a[great] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final long w = a[great];
+                a[great] = v;
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a[less] == v1);
+            do {
+                --great;
+            } while (a[great] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final long v = a[k];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (v == v2) {
+                    while (a[great] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final long w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (w == v1) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(short[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(short[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        short max = a[left];
+        for (int i = right; i > kb; i--) {
+            final short v = a[i];
+            if (v < max) {
+                a[i] = max;
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(short[] a, short v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a[c] < a[c - 1]) {
+                --c;
+            }
+            if (v >= a[c]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(short[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        short min = a[right];
+        for (int i = left; i < ka; i++) {
+            final short v = a[i];
+            if (v > min) {
+                a[i] = min;
+                minHeapSiftDown(a, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(short[] a, short v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a[c] > a[c + 1]) {
+                ++c;
+            }
+            if (v <= a[c]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(short[] a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(short[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final short v = a[i];
+            // Move preceding higher elements above (if required)
+            if (v < a[i - 1]) {
+                int j = i;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        short m = a[k];
+        for (int i = right; i > k; i--) {
+            final short v = a[i];
+            if (v < m) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(short[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final short v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (v > a[i + 1]) {
+                int j = i;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        short m = a[k];
+        for (int i = left; i < k; i++) {
+            final short v = a[i];
+            if (v > m) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(short[] a, int left, int right, int k) {
+        quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(short[] a, int left, int right, int[] k, int n) {
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Note: If the keys are not separated then they are effectively a single key.
+        // Any split of keys separated by the sort select size
+        // will be finished on the next iteration.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else {
+            // Dual-pivot mode with small range sort length configured using index density
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code [ka, kb]} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>This function accepts indices {@code [ka, kb]} that define the
+     * range of indices to partition. It is expected that the range is small.
+     *
+     * <p>The {@code flags} are used to control the sampling mode and adaption of
+     * the index within the sample.
+     *
+     * <p>Returns the bounds containing {@code [ka, kb]}. These may be lower/higher
+     * than the keys if equal values are present in the data.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param ka First key of interest.
+     * @param kb Last key of interest.
+     * @param bounds Upper bound of the range containing {@code [ka, kb]} (inclusive).
+     * @param flags Adaption flags.
+     * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
+     */
+    static int quickSelectAdaptive(short[] a, int left, int right, int ka, int kb,
+            int[] bounds, int flags) {
+        int l = left;
+        int r = right;
+        int m = flags;
+        while (true) {
+            // Select when ka and kb are close to the same end
+            // |l|-----|ka|kkkkkkkk|kb|------|r|
+            if (Math.min(kb - l, r - ka) < LINEAR_SORTSELECT_SIZE) {
+                sortSelect(a, l, r, ka, kb);
+                bounds[0] = kb;
+                return ka;
+            }
+
+            // Only target ka; kb is assumed to be close
+            int p0;
+            final int n = r - l;
+            // f in [0, 1]
+            final double f = (double) (ka - l) / n;
+            // Record the larger margin (start at 1/4) to create the estimated size.
+            // step        L     R
+            // far left    1/12  1/3   (use 1/4 + 1/32 + 1/64 ~ 0.328)
+            // left        1/6   1/4
+            // middle      2/9   2/9   (use 1/4 - 1/32 ~ 0.219)
+            int margin = n >> 2;
+            if (m < MODE_SAMPLING && r - l > FR_SAMPLING_SIZE) {
+                // Floyd-Rivest sample step uses the same margins
+                p0 = sampleStep(a, l, r, ka, bounds);
+                if (f <= STEP_FAR_LEFT || f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                } else if (f > STEP_LEFT && f < STEP_RIGHT) {
+                    margin -= n >> 5;
+                }
+            } else if (f <= STEP_LEFT) {
+                if (f <= STEP_FAR_LEFT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarLeft(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepLeft(a, l, r, ka, bounds, m);
+                }
+            } else if (f >= STEP_RIGHT) {
+                if (f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarRight(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepRight(a, l, r, ka, bounds, m);
+                }
+            } else {
+                margin -= n >> 5;
+                p0 = repeatedStep(a, l, r, ka, bounds, m);
+            }
+
+            // Note: Here we expect [ka, kb] to be small and splitting is unlikely.
+            //                   p0 p1
+            // |l|--|ka|kkkk|kb|--|P|-------------------|r|
+            // |l|----------------|P|--|ka|kkk|kb|------|r|
+            // |l|-----------|ka|k|P|k|kb|--------------|r|
+            final int p1 = bounds[0];
+            if (kb < p0) {
+                // Entirely on left side
+                r = p0 - 1;
+            } else if (ka > p1) {
+                // Entirely on right side
+                l = p1 + 1;
+            } else {
+                // Pivot splits [ka, kb]. Expect ends to be close to the pivot and finish.
+                // Here we set the bounds for use after median-of-medians pivot selection.
+                // In the event there are many equal values this allows collecting those
+                // known to be equal together when moving around the medians sample.
+                if (kb > p1) {
+                    sortSelectLeft(a, p1 + 1, r, kb);
+                    bounds[0] = kb;
+                }
+                if (ka < p0) {
+                    sortSelectRight(a, l, p0 - 1, ka);
+                    p0 = ka;
+                }
+                return p0;
+            }
+            // Update mode based on target partition size
+            if (r - l > n - margin) {
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Partitions a Floyd-Rivest sample around a pivot offset so that the input {@code k} will
+     * fall in the smaller partition when the entire range is partitioned.
+     *
+     * <p>Assumes the range {@code r - l} is large.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int sampleStep(short[] a, int l, int r, int k, int[] upper) {
+        // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
+        // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
+        // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
+        final int n = r - l + 1;
+        final int ith = k - l + 1;
+        final double z = Math.log(n);
+        // sample size = 0.5 * n^(2/3)
+        final double s = 0.5 * Math.exp(0.6666666666666666 * z);
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Integer.signum(ith - (n >> 1));
+        final int ll = Math.max(l, (int) (k - ith * s / n + sd));
+        final int rr = Math.min(r, (int) (k + (n - ith) * s / n + sd));
+        // Sample recursion restarts from [ll, rr]
+        final int p = quickSelectAdaptive(a, ll, rr, k, k, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, ll, rr, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 8}; the caller is responsible for selection on a smaller
+     * range. If using a 12th-tile for sampling then assumes {@code r - l >= 11}.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the median of 3 then median of 3; the final sample is placed in the
+     * 5th 9th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 2/9 and 2/9.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStep(short[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 8.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            s = k - mapDistance(k - l, l, r, fp);
+            p = k;
+        } else {
+            // i in tertile [3f':6f')
+            fp = (r - l + 1) / 9;
+            final int f3 = 3 * fp;
+            final int end = l + (f3 << 1);
+            for (int i = l + f3; i < end; i++) {
+                Sorting.sort3(a, i - f3, i, i + f3);
+            }
+            // 5th 9th-tile: [4f':5f')
+            s = l + (fp << 2);
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the lower median of 4 then either median of 3 with the final sample placed in the
+     * 5th 12th-tile, or min of 3 with the final sample in the 4th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/6 and 1/4.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepLeft(short[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 9.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (k-l)/(r-l) -> 1/12
+            s = Math.max(k - mapDistance(k - l, l, r, fp), l + fp);
+            p = k;
+        } else {
+            // i in 2nd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                Sorting.lowerMedian4(a, i - f, i, i + f, i + f2);
+            }
+            // i in 5th 12th-tile
+            fp = f / 3;
+            s = l + f + fp;
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the upper median of 4 then either median of 3 with the final sample placed in the
+     * 8th 12th-tile, or max of 3 with the final sample in the 9th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/4 and 1/6.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepRight(short[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepLeft using upper median into 3rd quartile
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (r-k)/(r-l) -> 11/12
+            e = Math.min(k + mapDistance(r - k, l, r, fp), r - fp);
+            p = k;
+        } else {
+            // i in 3rd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                Sorting.upperMedian4(a, i - f2, i - f, i, i + f);
+            }
+            // i in 8th 12th-tile
+            fp = f / 3;
+            e = r - f - fp;
+            // No adaption uses the middle to enforce strict margins
+            p = e - (flags == MODE_ADAPTION ? mapDistance(r - k, l, r, fp) : (fp >>> 1));
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the minimum of 4 then median of 3; the final sample is placed in the
+     * 2nd 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/12 and 1/3.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarLeft(short[] a, int l, int r, int k, int[] upper, int flags) {
+        // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
+        // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
+        // The differences are:
+        // - The upper margin when not sampling is 8/24 vs. 9/24; the lower margin remains at 1/12.
+        // - The position of the sample is closer to the expected location of k < |A| / 12.
+        // - Sampling mode uses a median-of-3 with adaptive k, matching the other step methods.
+        //   A min-of-3 sample can create a pivot too small if used with adaption of k leaving
+        //   k in the larger parition and a wasted iteration.
+        // - Adaption is adjusted to force use of the lower margin when not sampling.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 2nd 12th-tile
+            fp = (r - l + 1) / 12;
+            s = l + fp;
+            // Use adaption
+            p = s + mapDistance(k - l, l, r, fp);
+        } else {
+            // i in 2nd quartile; min into i-f (1st quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                if (a[i + f] < a[i - f]) {
+                    final short u = a[i + f];
+                    a[i + f] = a[i - f];
+                    a[i - f] = u;
+                }
+                if (a[i + f2] < a[i]) {
+                    final short v = a[i + f2];
+                    a[i + f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] < a[i - f]) {
+                    final short u = a[i];
+                    a[i] = a[i - f];
+                    a[i - f] = u;
+                }
+            }
+            // 2nd 12th-tile
+            fp = f / 3;
+            s = l + fp;
+            // Lower margin has 2(d+1) elements; d == (position in sample) - s
+            // Force k into the lower margin. Note p will be within [s, e]
+            // if: (double) (k - l) / (r - l) < 1/12 => (k - l) / 2 < (r - l) / 24
+            p = s + ((k - l) >>> 1);
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the maximum of 4 then median of 3; the final sample is placed in the
+     * 11th 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/3 and 1/12.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarRight(short[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepFarLeft
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 11th 12th-tile
+            fp = (r - l + 1) / 12;
+            e = r - fp;
+            // Use adaption
+            p = e - mapDistance(r - k, l, r, fp);
+        } else {
+            // i in 3rd quartile; max into i+f (4th quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                if (a[i - f] > a[i + f]) {
+                    final short u = a[i - f];
+                    a[i - f] = a[i + f];
+                    a[i + f] = u;
+                }
+                if (a[i - f2] > a[i]) {
+                    final short v = a[i - f2];
+                    a[i - f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] > a[i + f]) {
+                    final short u = a[i];
+                    a[i] = a[i + f];
+                    a[i + f] = u;
+                }
+            }
+            // 11th 12th-tile
+            fp = f / 3;
+            e = r - fp;
+            // Upper margin has 2(d+1) elements; d == e - (position in sample)
+            // Force k into the upper margin. Note p will be within [s, e]
+            // if: (double) (r - k) / (r - l) < 1/12 => (r - k) / 2 < (r - l) / 24
+            p = e - ((r - k) >>> 1);
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Expand a partition around a single pivot. Partitioning exchanges array
+     * elements such that all elements smaller than pivot are before it and all
+     * elements larger than pivot are after it. The central region is already
+     * partitioned.
+     *
+     * <pre>{@code
+     * |l             |s   |p0 p1|   e|                r|
+     * |    ???       | <P | ==P | >P |        ???      |
+     * }</pre>
+     *
+     * <p>This requires that {@code start != end}. However it handles
+     * {@code left == start} and/or {@code end == right}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param start Start of the partition range (inclusive).
+     * @param end End of the partitioned range (inclusive).
+     * @param pivot0 Lower pivot location (inclusive).
+     * @param pivot1 Upper pivot location (inclusive).
+     * @param upper Upper bound (inclusive) of the pivot range [k1].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    // package-private for testing
+    static int expandPartition(short[] a, int left, int right, int start, int end,
+        int pivot0, int pivot1, int[] upper) {
+        // 3-way partition of the data using a pivot value into
+        // less-than, equal or greater-than.
+        // Based on Sedgewick's Bentley-McIroy partitioning: always swap i<->j then
+        // check for equal to the pivot and move again.
+        //
+        // Move sentinels from start and end to left and right. Scan towards the
+        // sentinels until >=,<=. Swap then move == to the pivot region.
+        //           <-i                           j->
+        // |l |        |            |p0  p1|       |             | r|
+        // |>=|   ???  |     <      |  ==  |   >   |     ???     |<=|
+        //
+        // When either i or j reach the edge perform finishing loop.
+        // Finish loop for a[j] <= v replaces j with p1+1, optionally moves value
+        // to p0 for < and updates the pivot range p1 (and optionally p0):
+        //                                             j->
+        // |l                       |p0  p1|           |         | r|
+        // |         <              |  ==  |       >   |   ???   |<=|
+
+        final short v = a[pivot0];
+        // Use start/end as sentinels (requires start != end)
+        short vi = a[start];
+        short vj = a[end];
+        a[start] = a[left];
+        a[end] = a[right];
+        a[left] = vj;
+        a[right] = vi;
+
+        int i = start + 1;
+        int j = end - 1;
+
+        // Positioned for pre-in/decrement to write to pivot region
+        int p0 = pivot0 == start ? i : pivot0;
+        int p1 = pivot1 == end ? j : pivot1;
+
+        while (true) {
+            do {
+                --i;
+            } while (a[i] < v);
+            do {
+                ++j;
+            } while (a[j] > v);
+            vj = a[i];
+            vi = a[j];
+            a[i] = vi;
+            a[j] = vj;
+            // Move the equal values to pivot region
+            if (vi == v) {
+                a[i] = a[--p0];
+                a[p0] = v;
+            }
+            if (vj == v) {
+                a[j] = a[++p1];
+                a[p1] = v;
+            }
+            // Termination check and finishing loops.
+            // Note: This works even if pivot region is zero length (p1 == p0-1 due to
+            // length 1 pivot region at either start/end) because we pre-inc/decrement
+            // one side and post-inc/decrement the other side.
+            if (i == left) {
+                while (j < right) {
+                    do {
+                        ++j;
+                    } while (a[j] > v);
+                    final short w = a[j];
+                    // Move upper bound of pivot region
+                    a[j] = a[++p1];
+                    a[p1] = v;
+                    // Move lower bound of pivot region
+                    if (w != v) {
+                        a[p0] = w;
+                        p0++;
+                    }
+                }
+                break;
+            }
+            if (j == right) {
+                while (i > left) {
+                    do {
+                        --i;
+                    } while (a[i] < v);
+                    final short w = a[i];
+                    // Move lower bound of pivot region
+                    a[i] = a[--p0];
+                    a[p0] = v;
+                    // Move upper bound of pivot region
+                    if (w != v) {
+                        a[p1] = w;
+                        p1--;
+                    }
+                }
+                break;
+            }
+        }
+
+        upper[0] = p1;
+        return p0;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(short[] a, int left, int right, UpdatingInterval k, int flags) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                n < (f & SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (kb - ka < DP_SORTSELECT_SIZE) {
+                // Switch to single-pivot mode with Floyd-Rivest sub-sampling
+                quickSelectAdaptive(a, l, r, ka, kb, upper, MODE_FR_SAMPLING);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(short[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        Sorting.sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final short v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final short v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a[less] < v1);
+        do {
+            --great;
+        } while (a[great] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final short v = a[k];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a[great] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final short w = a[great];
+                a[great] = v;
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a[less] == v1);
+            do {
+                --great;
+            } while (a[great] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final short v = a[k];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (v == v2) {
+                    while (a[great] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final short w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (w == v1) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(char[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(char[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        char max = a[left];
+        for (int i = right; i > kb; i--) {
+            final char v = a[i];
+            if (v < max) {
+                a[i] = max;
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(char[] a, char v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a[c] < a[c - 1]) {
+                --c;
+            }
+            if (v >= a[c]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(char[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        char min = a[right];
+        for (int i = left; i < ka; i++) {
+            final char v = a[i];
+            if (v > min) {
+                a[i] = min;
+                minHeapSiftDown(a, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(char[] a, char v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a[c] > a[c + 1]) {
+                ++c;
+            }
+            if (v <= a[c]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(char[] a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(char[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final char v = a[i];
+            // Move preceding higher elements above (if required)
+            if (v < a[i - 1]) {
+                int j = i;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        char m = a[k];
+        for (int i = right; i > k; i--) {
+            final char v = a[i];
+            if (v < m) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(char[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final char v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (v > a[i + 1]) {
+                int j = i;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        char m = a[k];
+        for (int i = left; i < k; i++) {
+            final char v = a[i];
+            if (v > m) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(char[] a, int left, int right, int k) {
+        quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(char[] a, int left, int right, int[] k, int n) {
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Note: If the keys are not separated then they are effectively a single key.
+        // Any split of keys separated by the sort select size
+        // will be finished on the next iteration.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else {
+            // Dual-pivot mode with small range sort length configured using index density
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code [ka, kb]} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>This function accepts indices {@code [ka, kb]} that define the
+     * range of indices to partition. It is expected that the range is small.
+     *
+     * <p>The {@code flags} are used to control the sampling mode and adaption of
+     * the index within the sample.
+     *
+     * <p>Returns the bounds containing {@code [ka, kb]}. These may be lower/higher
+     * than the keys if equal values are present in the data.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param ka First key of interest.
+     * @param kb Last key of interest.
+     * @param bounds Upper bound of the range containing {@code [ka, kb]} (inclusive).
+     * @param flags Adaption flags.
+     * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
+     */
+    static int quickSelectAdaptive(char[] a, int left, int right, int ka, int kb,
+            int[] bounds, int flags) {
+        int l = left;
+        int r = right;
+        int m = flags;
+        while (true) {
+            // Select when ka and kb are close to the same end
+            // |l|-----|ka|kkkkkkkk|kb|------|r|
+            if (Math.min(kb - l, r - ka) < LINEAR_SORTSELECT_SIZE) {
+                sortSelect(a, l, r, ka, kb);
+                bounds[0] = kb;
+                return ka;
+            }
+
+            // Only target ka; kb is assumed to be close
+            int p0;
+            final int n = r - l;
+            // f in [0, 1]
+            final double f = (double) (ka - l) / n;
+            // Record the larger margin (start at 1/4) to create the estimated size.
+            // step        L     R
+            // far left    1/12  1/3   (use 1/4 + 1/32 + 1/64 ~ 0.328)
+            // left        1/6   1/4
+            // middle      2/9   2/9   (use 1/4 - 1/32 ~ 0.219)
+            int margin = n >> 2;
+            if (m < MODE_SAMPLING && r - l > FR_SAMPLING_SIZE) {
+                // Floyd-Rivest sample step uses the same margins
+                p0 = sampleStep(a, l, r, ka, bounds);
+                if (f <= STEP_FAR_LEFT || f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                } else if (f > STEP_LEFT && f < STEP_RIGHT) {
+                    margin -= n >> 5;
+                }
+            } else if (f <= STEP_LEFT) {
+                if (f <= STEP_FAR_LEFT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarLeft(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepLeft(a, l, r, ka, bounds, m);
+                }
+            } else if (f >= STEP_RIGHT) {
+                if (f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarRight(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepRight(a, l, r, ka, bounds, m);
+                }
+            } else {
+                margin -= n >> 5;
+                p0 = repeatedStep(a, l, r, ka, bounds, m);
+            }
+
+            // Note: Here we expect [ka, kb] to be small and splitting is unlikely.
+            //                   p0 p1
+            // |l|--|ka|kkkk|kb|--|P|-------------------|r|
+            // |l|----------------|P|--|ka|kkk|kb|------|r|
+            // |l|-----------|ka|k|P|k|kb|--------------|r|
+            final int p1 = bounds[0];
+            if (kb < p0) {
+                // Entirely on left side
+                r = p0 - 1;
+            } else if (ka > p1) {
+                // Entirely on right side
+                l = p1 + 1;
+            } else {
+                // Pivot splits [ka, kb]. Expect ends to be close to the pivot and finish.
+                // Here we set the bounds for use after median-of-medians pivot selection.
+                // In the event there are many equal values this allows collecting those
+                // known to be equal together when moving around the medians sample.
+                if (kb > p1) {
+                    sortSelectLeft(a, p1 + 1, r, kb);
+                    bounds[0] = kb;
+                }
+                if (ka < p0) {
+                    sortSelectRight(a, l, p0 - 1, ka);
+                    p0 = ka;
+                }
+                return p0;
+            }
+            // Update mode based on target partition size
+            if (r - l > n - margin) {
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Partitions a Floyd-Rivest sample around a pivot offset so that the input {@code k} will
+     * fall in the smaller partition when the entire range is partitioned.
+     *
+     * <p>Assumes the range {@code r - l} is large.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int sampleStep(char[] a, int l, int r, int k, int[] upper) {
+        // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
+        // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
+        // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
+        final int n = r - l + 1;
+        final int ith = k - l + 1;
+        final double z = Math.log(n);
+        // sample size = 0.5 * n^(2/3)
+        final double s = 0.5 * Math.exp(0.6666666666666666 * z);
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Integer.signum(ith - (n >> 1));
+        final int ll = Math.max(l, (int) (k - ith * s / n + sd));
+        final int rr = Math.min(r, (int) (k + (n - ith) * s / n + sd));
+        // Sample recursion restarts from [ll, rr]
+        final int p = quickSelectAdaptive(a, ll, rr, k, k, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, ll, rr, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 8}; the caller is responsible for selection on a smaller
+     * range. If using a 12th-tile for sampling then assumes {@code r - l >= 11}.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the median of 3 then median of 3; the final sample is placed in the
+     * 5th 9th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 2/9 and 2/9.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStep(char[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 8.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            s = k - mapDistance(k - l, l, r, fp);
+            p = k;
+        } else {
+            // i in tertile [3f':6f')
+            fp = (r - l + 1) / 9;
+            final int f3 = 3 * fp;
+            final int end = l + (f3 << 1);
+            for (int i = l + f3; i < end; i++) {
+                Sorting.sort3(a, i - f3, i, i + f3);
+            }
+            // 5th 9th-tile: [4f':5f')
+            s = l + (fp << 2);
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the lower median of 4 then either median of 3 with the final sample placed in the
+     * 5th 12th-tile, or min of 3 with the final sample in the 4th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/6 and 1/4.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepLeft(char[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 9.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (k-l)/(r-l) -> 1/12
+            s = Math.max(k - mapDistance(k - l, l, r, fp), l + fp);
+            p = k;
+        } else {
+            // i in 2nd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                Sorting.lowerMedian4(a, i - f, i, i + f, i + f2);
+            }
+            // i in 5th 12th-tile
+            fp = f / 3;
+            s = l + f + fp;
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the upper median of 4 then either median of 3 with the final sample placed in the
+     * 8th 12th-tile, or max of 3 with the final sample in the 9th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/4 and 1/6.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepRight(char[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepLeft using upper median into 3rd quartile
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (r-k)/(r-l) -> 11/12
+            e = Math.min(k + mapDistance(r - k, l, r, fp), r - fp);
+            p = k;
+        } else {
+            // i in 3rd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                Sorting.upperMedian4(a, i - f2, i - f, i, i + f);
+            }
+            // i in 8th 12th-tile
+            fp = f / 3;
+            e = r - f - fp;
+            // No adaption uses the middle to enforce strict margins
+            p = e - (flags == MODE_ADAPTION ? mapDistance(r - k, l, r, fp) : (fp >>> 1));
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the minimum of 4 then median of 3; the final sample is placed in the
+     * 2nd 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/12 and 1/3.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarLeft(char[] a, int l, int r, int k, int[] upper, int flags) {
+        // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
+        // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
+        // The differences are:
+        // - The upper margin when not sampling is 8/24 vs. 9/24; the lower margin remains at 1/12.
+        // - The position of the sample is closer to the expected location of k < |A| / 12.
+        // - Sampling mode uses a median-of-3 with adaptive k, matching the other step methods.
+        //   A min-of-3 sample can create a pivot too small if used with adaption of k leaving
+        //   k in the larger parition and a wasted iteration.
+        // - Adaption is adjusted to force use of the lower margin when not sampling.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 2nd 12th-tile
+            fp = (r - l + 1) / 12;
+            s = l + fp;
+            // Use adaption
+            p = s + mapDistance(k - l, l, r, fp);
+        } else {
+            // i in 2nd quartile; min into i-f (1st quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                if (a[i + f] < a[i - f]) {
+                    final char u = a[i + f];
+                    a[i + f] = a[i - f];
+                    a[i - f] = u;
+                }
+                if (a[i + f2] < a[i]) {
+                    final char v = a[i + f2];
+                    a[i + f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] < a[i - f]) {
+                    final char u = a[i];
+                    a[i] = a[i - f];
+                    a[i - f] = u;
+                }
+            }
+            // 2nd 12th-tile
+            fp = f / 3;
+            s = l + fp;
+            // Lower margin has 2(d+1) elements; d == (position in sample) - s
+            // Force k into the lower margin. Note p will be within [s, e]
+            // if: (double) (k - l) / (r - l) < 1/12 => (k - l) / 2 < (r - l) / 24
+            p = s + ((k - l) >>> 1);
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the maximum of 4 then median of 3; the final sample is placed in the
+     * 11th 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/3 and 1/12.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarRight(char[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepFarLeft
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 11th 12th-tile
+            fp = (r - l + 1) / 12;
+            e = r - fp;
+            // Use adaption
+            p = e - mapDistance(r - k, l, r, fp);
+        } else {
+            // i in 3rd quartile; max into i+f (4th quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                if (a[i - f] > a[i + f]) {
+                    final char u = a[i - f];
+                    a[i - f] = a[i + f];
+                    a[i + f] = u;
+                }
+                if (a[i - f2] > a[i]) {
+                    final char v = a[i - f2];
+                    a[i - f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] > a[i + f]) {
+                    final char u = a[i];
+                    a[i] = a[i + f];
+                    a[i + f] = u;
+                }
+            }
+            // 11th 12th-tile
+            fp = f / 3;
+            e = r - fp;
+            // Upper margin has 2(d+1) elements; d == e - (position in sample)
+            // Force k into the upper margin. Note p will be within [s, e]
+            // if: (double) (r - k) / (r - l) < 1/12 => (r - k) / 2 < (r - l) / 24
+            p = e - ((r - k) >>> 1);
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Expand a partition around a single pivot. Partitioning exchanges array
+     * elements such that all elements smaller than pivot are before it and all
+     * elements larger than pivot are after it. The central region is already
+     * partitioned.
+     *
+     * <pre>{@code
+     * |l             |s   |p0 p1|   e|                r|
+     * |    ???       | <P | ==P | >P |        ???      |
+     * }</pre>
+     *
+     * <p>This requires that {@code start != end}. However it handles
+     * {@code left == start} and/or {@code end == right}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param start Start of the partition range (inclusive).
+     * @param end End of the partitioned range (inclusive).
+     * @param pivot0 Lower pivot location (inclusive).
+     * @param pivot1 Upper pivot location (inclusive).
+     * @param upper Upper bound (inclusive) of the pivot range [k1].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    // package-private for testing
+    static int expandPartition(char[] a, int left, int right, int start, int end,
+        int pivot0, int pivot1, int[] upper) {
+        // 3-way partition of the data using a pivot value into
+        // less-than, equal or greater-than.
+        // Based on Sedgewick's Bentley-McIroy partitioning: always swap i<->j then
+        // check for equal to the pivot and move again.
+        //
+        // Move sentinels from start and end to left and right. Scan towards the
+        // sentinels until >=,<=. Swap then move == to the pivot region.
+        //           <-i                           j->
+        // |l |        |            |p0  p1|       |             | r|
+        // |>=|   ???  |     <      |  ==  |   >   |     ???     |<=|
+        //
+        // When either i or j reach the edge perform finishing loop.
+        // Finish loop for a[j] <= v replaces j with p1+1, optionally moves value
+        // to p0 for < and updates the pivot range p1 (and optionally p0):
+        //                                             j->
+        // |l                       |p0  p1|           |         | r|
+        // |         <              |  ==  |       >   |   ???   |<=|
+
+        final char v = a[pivot0];
+        // Use start/end as sentinels (requires start != end)
+        char vi = a[start];
+        char vj = a[end];
+        a[start] = a[left];
+        a[end] = a[right];
+        a[left] = vj;
+        a[right] = vi;
+
+        int i = start + 1;
+        int j = end - 1;
+
+        // Positioned for pre-in/decrement to write to pivot region
+        int p0 = pivot0 == start ? i : pivot0;
+        int p1 = pivot1 == end ? j : pivot1;
+
+        while (true) {
+            do {
+                --i;
+            } while (a[i] < v);
+            do {
+                ++j;
+            } while (a[j] > v);
+            vj = a[i];
+            vi = a[j];
+            a[i] = vi;
+            a[j] = vj;
+            // Move the equal values to pivot region
+            if (vi == v) {
+                a[i] = a[--p0];
+                a[p0] = v;
+            }
+            if (vj == v) {
+                a[j] = a[++p1];
+                a[p1] = v;
+            }
+            // Termination check and finishing loops.
+            // Note: This works even if pivot region is zero length (p1 == p0-1 due to
+            // length 1 pivot region at either start/end) because we pre-inc/decrement
+            // one side and post-inc/decrement the other side.
+            if (i == left) {
+                while (j < right) {
+                    do {
+                        ++j;
+                    } while (a[j] > v);
+                    final char w = a[j];
+                    // Move upper bound of pivot region
+                    a[j] = a[++p1];
+                    a[p1] = v;
+                    // Move lower bound of pivot region
+                    if (w != v) {
+                        a[p0] = w;
+                        p0++;
+                    }
+                }
+                break;
+            }
+            if (j == right) {
+                while (i > left) {
+                    do {
+                        --i;
+                    } while (a[i] < v);
+                    final char w = a[i];
+                    // Move lower bound of pivot region
+                    a[i] = a[--p0];
+                    a[p0] = v;
+                    // Move upper bound of pivot region
+                    if (w != v) {
+                        a[p1] = w;
+                        p1--;
+                    }
+                }
+                break;
+            }
+        }
+
+        upper[0] = p1;
+        return p0;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(char[] a, int left, int right, UpdatingInterval k, int flags) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                n < (f & SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (kb - ka < DP_SORTSELECT_SIZE) {
+                // Switch to single-pivot mode with Floyd-Rivest sub-sampling
+                quickSelectAdaptive(a, l, r, ka, kb, upper, MODE_FR_SAMPLING);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(char[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        Sorting.sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final char v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final char v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a[less] < v1);
+        do {
+            --great;
+        } while (a[great] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final char v = a[k];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a[great] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final char w = a[great];
+                a[great] = v;
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a[less] == v1);
+            do {
+                --great;
+            } while (a[great] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final char v = a[k];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (v == v2) {
+                    while (a[great] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final char w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (w == v1) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(byte[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(byte[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        byte max = a[left];
+        for (int i = right; i > kb; i--) {
+            final byte v = a[i];
+            if (v < max) {
+                a[i] = max;
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(byte[] a, byte v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a[c] < a[c - 1]) {
+                --c;
+            }
+            if (v >= a[c]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(byte[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        byte min = a[right];
+        for (int i = left; i < ka; i++) {
+            final byte v = a[i];
+            if (v > min) {
+                a[i] = min;
+                minHeapSiftDown(a, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(byte[] a, byte v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a[c] > a[c + 1]) {
+                ++c;
+            }
+            if (v <= a[c]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(byte[] a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(byte[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final byte v = a[i];
+            // Move preceding higher elements above (if required)
+            if (v < a[i - 1]) {
+                int j = i;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        byte m = a[k];
+        for (int i = right; i > k; i--) {
+            final byte v = a[i];
+            if (v < m) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(byte[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final byte v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (v > a[i + 1]) {
+                int j = i;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        byte m = a[k];
+        for (int i = left; i < k; i++) {
+            final byte v = a[i];
+            if (v > m) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(byte[] a, int left, int right, int k) {
+        quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(byte[] a, int left, int right, int[] k, int n) {
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Note: If the keys are not separated then they are effectively a single key.
+        // Any split of keys separated by the sort select size
+        // will be finished on the next iteration.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else {
+            // Dual-pivot mode with small range sort length configured using index density
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code [ka, kb]} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>This function accepts indices {@code [ka, kb]} that define the
+     * range of indices to partition. It is expected that the range is small.
+     *
+     * <p>The {@code flags} are used to control the sampling mode and adaption of
+     * the index within the sample.
+     *
+     * <p>Returns the bounds containing {@code [ka, kb]}. These may be lower/higher
+     * than the keys if equal values are present in the data.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param ka First key of interest.
+     * @param kb Last key of interest.
+     * @param bounds Upper bound of the range containing {@code [ka, kb]} (inclusive).
+     * @param flags Adaption flags.
+     * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
+     */
+    static int quickSelectAdaptive(byte[] a, int left, int right, int ka, int kb,
+            int[] bounds, int flags) {
+        int l = left;
+        int r = right;
+        int m = flags;
+        while (true) {
+            // Select when ka and kb are close to the same end
+            // |l|-----|ka|kkkkkkkk|kb|------|r|
+            if (Math.min(kb - l, r - ka) < LINEAR_SORTSELECT_SIZE) {
+                sortSelect(a, l, r, ka, kb);
+                bounds[0] = kb;
+                return ka;
+            }
+
+            // Only target ka; kb is assumed to be close
+            int p0;
+            final int n = r - l;
+            // f in [0, 1]
+            final double f = (double) (ka - l) / n;
+            // Record the larger margin (start at 1/4) to create the estimated size.
+            // step        L     R
+            // far left    1/12  1/3   (use 1/4 + 1/32 + 1/64 ~ 0.328)
+            // left        1/6   1/4
+            // middle      2/9   2/9   (use 1/4 - 1/32 ~ 0.219)
+            int margin = n >> 2;
+            if (m < MODE_SAMPLING && r - l > FR_SAMPLING_SIZE) {
+                // Floyd-Rivest sample step uses the same margins
+                p0 = sampleStep(a, l, r, ka, bounds);
+                if (f <= STEP_FAR_LEFT || f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                } else if (f > STEP_LEFT && f < STEP_RIGHT) {
+                    margin -= n >> 5;
+                }
+            } else if (f <= STEP_LEFT) {
+                if (f <= STEP_FAR_LEFT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarLeft(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepLeft(a, l, r, ka, bounds, m);
+                }
+            } else if (f >= STEP_RIGHT) {
+                if (f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarRight(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepRight(a, l, r, ka, bounds, m);
+                }
+            } else {
+                margin -= n >> 5;
+                p0 = repeatedStep(a, l, r, ka, bounds, m);
+            }
+
+            // Note: Here we expect [ka, kb] to be small and splitting is unlikely.
+            //                   p0 p1
+            // |l|--|ka|kkkk|kb|--|P|-------------------|r|
+            // |l|----------------|P|--|ka|kkk|kb|------|r|
+            // |l|-----------|ka|k|P|k|kb|--------------|r|
+            final int p1 = bounds[0];
+            if (kb < p0) {
+                // Entirely on left side
+                r = p0 - 1;
+            } else if (ka > p1) {
+                // Entirely on right side
+                l = p1 + 1;
+            } else {
+                // Pivot splits [ka, kb]. Expect ends to be close to the pivot and finish.
+                // Here we set the bounds for use after median-of-medians pivot selection.
+                // In the event there are many equal values this allows collecting those
+                // known to be equal together when moving around the medians sample.
+                if (kb > p1) {
+                    sortSelectLeft(a, p1 + 1, r, kb);
+                    bounds[0] = kb;
+                }
+                if (ka < p0) {
+                    sortSelectRight(a, l, p0 - 1, ka);
+                    p0 = ka;
+                }
+                return p0;
+            }
+            // Update mode based on target partition size
+            if (r - l > n - margin) {
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Partitions a Floyd-Rivest sample around a pivot offset so that the input {@code k} will
+     * fall in the smaller partition when the entire range is partitioned.
+     *
+     * <p>Assumes the range {@code r - l} is large.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int sampleStep(byte[] a, int l, int r, int k, int[] upper) {
+        // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
+        // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
+        // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
+        final int n = r - l + 1;
+        final int ith = k - l + 1;
+        final double z = Math.log(n);
+        // sample size = 0.5 * n^(2/3)
+        final double s = 0.5 * Math.exp(0.6666666666666666 * z);
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Integer.signum(ith - (n >> 1));
+        final int ll = Math.max(l, (int) (k - ith * s / n + sd));
+        final int rr = Math.min(r, (int) (k + (n - ith) * s / n + sd));
+        // Sample recursion restarts from [ll, rr]
+        final int p = quickSelectAdaptive(a, ll, rr, k, k, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, ll, rr, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 8}; the caller is responsible for selection on a smaller
+     * range. If using a 12th-tile for sampling then assumes {@code r - l >= 11}.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the median of 3 then median of 3; the final sample is placed in the
+     * 5th 9th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 2/9 and 2/9.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStep(byte[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 8.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            s = k - mapDistance(k - l, l, r, fp);
+            p = k;
+        } else {
+            // i in tertile [3f':6f')
+            fp = (r - l + 1) / 9;
+            final int f3 = 3 * fp;
+            final int end = l + (f3 << 1);
+            for (int i = l + f3; i < end; i++) {
+                Sorting.sort3(a, i - f3, i, i + f3);
+            }
+            // 5th 9th-tile: [4f':5f')
+            s = l + (fp << 2);
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the lower median of 4 then either median of 3 with the final sample placed in the
+     * 5th 12th-tile, or min of 3 with the final sample in the 4th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/6 and 1/4.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepLeft(byte[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 9.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (k-l)/(r-l) -> 1/12
+            s = Math.max(k - mapDistance(k - l, l, r, fp), l + fp);
+            p = k;
+        } else {
+            // i in 2nd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                Sorting.lowerMedian4(a, i - f, i, i + f, i + f2);
+            }
+            // i in 5th 12th-tile
+            fp = f / 3;
+            s = l + f + fp;
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the upper median of 4 then either median of 3 with the final sample placed in the
+     * 8th 12th-tile, or max of 3 with the final sample in the 9th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/4 and 1/6.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepRight(byte[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepLeft using upper median into 3rd quartile
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (r-k)/(r-l) -> 11/12
+            e = Math.min(k + mapDistance(r - k, l, r, fp), r - fp);
+            p = k;
+        } else {
+            // i in 3rd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                Sorting.upperMedian4(a, i - f2, i - f, i, i + f);
+            }
+            // i in 8th 12th-tile
+            fp = f / 3;
+            e = r - f - fp;
+            // No adaption uses the middle to enforce strict margins
+            p = e - (flags == MODE_ADAPTION ? mapDistance(r - k, l, r, fp) : (fp >>> 1));
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the minimum of 4 then median of 3; the final sample is placed in the
+     * 2nd 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/12 and 1/3.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarLeft(byte[] a, int l, int r, int k, int[] upper, int flags) {
+        // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
+        // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
+        // The differences are:
+        // - The upper margin when not sampling is 8/24 vs. 9/24; the lower margin remains at 1/12.
+        // - The position of the sample is closer to the expected location of k < |A| / 12.
+        // - Sampling mode uses a median-of-3 with adaptive k, matching the other step methods.
+        //   A min-of-3 sample can create a pivot too small if used with adaption of k leaving
+        //   k in the larger parition and a wasted iteration.
+        // - Adaption is adjusted to force use of the lower margin when not sampling.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 2nd 12th-tile
+            fp = (r - l + 1) / 12;
+            s = l + fp;
+            // Use adaption
+            p = s + mapDistance(k - l, l, r, fp);
+        } else {
+            // i in 2nd quartile; min into i-f (1st quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                if (a[i + f] < a[i - f]) {
+                    final byte u = a[i + f];
+                    a[i + f] = a[i - f];
+                    a[i - f] = u;
+                }
+                if (a[i + f2] < a[i]) {
+                    final byte v = a[i + f2];
+                    a[i + f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] < a[i - f]) {
+                    final byte u = a[i];
+                    a[i] = a[i - f];
+                    a[i - f] = u;
+                }
+            }
+            // 2nd 12th-tile
+            fp = f / 3;
+            s = l + fp;
+            // Lower margin has 2(d+1) elements; d == (position in sample) - s
+            // Force k into the lower margin. Note p will be within [s, e]
+            // if: (double) (k - l) / (r - l) < 1/12 => (k - l) / 2 < (r - l) / 24
+            p = s + ((k - l) >>> 1);
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the maximum of 4 then median of 3; the final sample is placed in the
+     * 11th 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/3 and 1/12.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarRight(byte[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepFarLeft
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 11th 12th-tile
+            fp = (r - l + 1) / 12;
+            e = r - fp;
+            // Use adaption
+            p = e - mapDistance(r - k, l, r, fp);
+        } else {
+            // i in 3rd quartile; max into i+f (4th quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                if (a[i - f] > a[i + f]) {
+                    final byte u = a[i - f];
+                    a[i - f] = a[i + f];
+                    a[i + f] = u;
+                }
+                if (a[i - f2] > a[i]) {
+                    final byte v = a[i - f2];
+                    a[i - f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] > a[i + f]) {
+                    final byte u = a[i];
+                    a[i] = a[i + f];
+                    a[i + f] = u;
+                }
+            }
+            // 11th 12th-tile
+            fp = f / 3;
+            e = r - fp;
+            // Upper margin has 2(d+1) elements; d == e - (position in sample)
+            // Force k into the upper margin. Note p will be within [s, e]
+            // if: (double) (r - k) / (r - l) < 1/12 => (r - k) / 2 < (r - l) / 24
+            p = e - ((r - k) >>> 1);
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Expand a partition around a single pivot. Partitioning exchanges array
+     * elements such that all elements smaller than pivot are before it and all
+     * elements larger than pivot are after it. The central region is already
+     * partitioned.
+     *
+     * <pre>{@code
+     * |l             |s   |p0 p1|   e|                r|
+     * |    ???       | <P | ==P | >P |        ???      |
+     * }</pre>
+     *
+     * <p>This requires that {@code start != end}. However it handles
+     * {@code left == start} and/or {@code end == right}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param start Start of the partition range (inclusive).
+     * @param end End of the partitioned range (inclusive).
+     * @param pivot0 Lower pivot location (inclusive).
+     * @param pivot1 Upper pivot location (inclusive).
+     * @param upper Upper bound (inclusive) of the pivot range [k1].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    // package-private for testing
+    static int expandPartition(byte[] a, int left, int right, int start, int end,
+        int pivot0, int pivot1, int[] upper) {
+        // 3-way partition of the data using a pivot value into
+        // less-than, equal or greater-than.
+        // Based on Sedgewick's Bentley-McIroy partitioning: always swap i<->j then
+        // check for equal to the pivot and move again.
+        //
+        // Move sentinels from start and end to left and right. Scan towards the
+        // sentinels until >=,<=. Swap then move == to the pivot region.
+        //           <-i                           j->
+        // |l |        |            |p0  p1|       |             | r|
+        // |>=|   ???  |     <      |  ==  |   >   |     ???     |<=|
+        //
+        // When either i or j reach the edge perform finishing loop.
+        // Finish loop for a[j] <= v replaces j with p1+1, optionally moves value
+        // to p0 for < and updates the pivot range p1 (and optionally p0):
+        //                                             j->
+        // |l                       |p0  p1|           |         | r|
+        // |         <              |  ==  |       >   |   ???   |<=|
+
+        final byte v = a[pivot0];
+        // Use start/end as sentinels (requires start != end)
+        byte vi = a[start];
+        byte vj = a[end];
+        a[start] = a[left];
+        a[end] = a[right];
+        a[left] = vj;
+        a[right] = vi;
+
+        int i = start + 1;
+        int j = end - 1;
+
+        // Positioned for pre-in/decrement to write to pivot region
+        int p0 = pivot0 == start ? i : pivot0;
+        int p1 = pivot1 == end ? j : pivot1;
+
+        while (true) {
+            do {
+                --i;
+            } while (a[i] < v);
+            do {
+                ++j;
+            } while (a[j] > v);
+            vj = a[i];
+            vi = a[j];
+            a[i] = vi;
+            a[j] = vj;
+            // Move the equal values to pivot region
+            if (vi == v) {
+                a[i] = a[--p0];
+                a[p0] = v;
+            }
+            if (vj == v) {
+                a[j] = a[++p1];
+                a[p1] = v;
+            }
+            // Termination check and finishing loops.
+            // Note: This works even if pivot region is zero length (p1 == p0-1 due to
+            // length 1 pivot region at either start/end) because we pre-inc/decrement
+            // one side and post-inc/decrement the other side.
+            if (i == left) {
+                while (j < right) {
+                    do {
+                        ++j;
+                    } while (a[j] > v);
+                    final byte w = a[j];
+                    // Move upper bound of pivot region
+                    a[j] = a[++p1];
+                    a[p1] = v;
+                    // Move lower bound of pivot region
+                    if (w != v) {
+                        a[p0] = w;
+                        p0++;
+                    }
+                }
+                break;
+            }
+            if (j == right) {
+                while (i > left) {
+                    do {
+                        --i;
+                    } while (a[i] < v);
+                    final byte w = a[i];
+                    // Move lower bound of pivot region
+                    a[i] = a[--p0];
+                    a[p0] = v;
+                    // Move upper bound of pivot region
+                    if (w != v) {
+                        a[p1] = w;
+                        p1--;
+                    }
+                }
+                break;
+            }
+        }
+
+        upper[0] = p1;
+        return p0;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(byte[] a, int left, int right, UpdatingInterval k, int flags) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                n < (f & SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (kb - ka < DP_SORTSELECT_SIZE) {
+                // Switch to single-pivot mode with Floyd-Rivest sub-sampling
+                quickSelectAdaptive(a, l, r, ka, kb, upper, MODE_FR_SAMPLING);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(byte[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        Sorting.sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final byte v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final byte v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a[less] < v1);
+        do {
+            --great;
+        } while (a[great] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final byte v = a[k];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a[great] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final byte w = a[great];
+                a[great] = v;
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a[less] == v1);
+            do {
+                --great;
+            } while (a[great] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final byte v = a[k];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (v == v2) {
+                    while (a[great] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final byte w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (w == v1) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Map the distance from the edge of {@code [l, r]} to a new distance in {@code [0, n)}.
+     *
+     * <p>The provides the adaption {@code kf'/|A|} from Alexandrescu (2016) where
+     * {@code k == d}, {@code f' == n} and {@code |A| == r-l+1}.
+     *
+     * <p>For convenience this accepts the input range {@code [l, r]}.
+     *
+     * @param d Distance from the edge in {@code [0, r - l]}.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param n Size of the new range.
+     * @return the mapped distance in [0, n)
+     */
+    private static int mapDistance(int d, int l, int r, int n) {
+        return (int) (d * (n - 1.0) / (r - l));
+    }
+
+    /**
+     * Configure the dual-pivot control flags. This packs the maximum recursion depth and
+     * sort select size into a single integer.
+     *
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k1 First key of interest.
      * @param kn Last key of interest.
      * @return the flags
      */
@@ -4149,4 +9402,257 @@ final class QuickSelect {
         // Stable performance across platforms using a modest length dependence.
         return DP_SORTSELECT_SIZE * 2;
     }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses an introselect. The pivot is the median-of-3, or Tukey's ninther for
+     * larger ranges. If a partition does not remove at least a quarter of the range
+     * then the next pivot is the median of medians which ensures a set fraction of the
+     * data is eliminated and worst-case linear run time performance.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index.
+     * @param c Comparator.
+     */
+    static <T> void select(T[] a, int left, int right, int k, Comparator<? super T> c) {
+        selectRange(a, left, right, k, c, new int[2]);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The indices are sorted and the range is recursively divided using the
+     * introselect pivot method only into partitions that contain indices.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices (must be strictly positive).
+     * @param c Comparator.
+     */
+    static <T> void select(T[] a, int left, int right, int[] k, int n, Comparator<? super T> c) {
+        final int m = Sorting.sortIndices(k, n);
+        selectRange(a, left, right, k, 0, m - 1, c, new int[2]);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index.
+     * @param c Comparator.
+     * @param bounds Partition bounds (working space).
+     */
+    private static <T> void selectRange(T[] a, int left, int right, int k,
+            Comparator<? super T> c, int[] bounds) {
+        int l = left;
+        int r = right;
+        boolean linear = false;
+        while (r - l >= OBJECT_SORT_SIZE) {
+            final int size = r - l;
+            final int p = linear ? medianOfMedians(a, l, r, c, bounds) : pivot(a, l, r, c);
+            partition(a, l, r, p, c, bounds);
+            if (k < bounds[0]) {
+                r = bounds[0] - 1;
+            } else if (k > bounds[1]) {
+                l = bounds[1] + 1;
+            } else {
+                return;
+            }
+            // Adaption: switch to a guaranteed margin if the range did not reduce by 1/4
+            linear = r - l > size - (size >>> 2);
+        }
+        Sorting.sort(a, l, r, c);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Indices (sorted and unique).
+     * @param ia Index of the first index in {@code k} (inclusive).
+     * @param ib Index of the last index in {@code k} (inclusive).
+     * @param c Comparator.
+     * @param bounds Partition bounds (working space).
+     */
+    private static <T> void selectRange(T[] a, int left, int right, int[] k, int ia, int ib,
+            Comparator<? super T> c, int[] bounds) {
+        int l = left;
+        int r = right;
+        int i0 = ia;
+        int i1 = ib;
+        boolean linear = false;
+        while (i0 < i1) {
+            if (r - l < OBJECT_SORT_SIZE) {
+                Sorting.sort(a, l, r, c);
+                return;
+            }
+            final int size = r - l;
+            final int p = linear ? medianOfMedians(a, l, r, c, bounds) : pivot(a, l, r, c);
+            partition(a, l, r, p, c, bounds);
+            final int lt = bounds[0];
+            final int gt = bounds[1];
+            // Divide the indices: [i0, j0) < lt; (j1, i1] > gt
+            int j0 = i0;
+            while (j0 <= i1 && k[j0] < lt) {
+                j0++;
+            }
+            int j1 = i1;
+            while (j1 >= j0 && k[j1] > gt) {
+                j1--;
+            }
+            // Recurse into the smaller range; continue with the larger range
+            if (lt - l < r - gt) {
+                if (j0 > i0) {
+                    selectRange(a, l, lt - 1, k, i0, j0 - 1, c, bounds);
+                }
+                l = gt + 1;
+                i0 = j1 + 1;
+            } else {
+                if (j1 < i1) {
+                    selectRange(a, gt + 1, r, k, j1 + 1, i1, c, bounds);
+                }
+                r = lt - 1;
+                i1 = j0 - 1;
+            }
+            linear = r - l > size - (size >>> 2);
+        }
+        if (i0 == i1) {
+            selectRange(a, l, r, k[i0], c, bounds);
+        }
+    }
+
+    /**
+     * Choose a pivot from the range. Uses the median-of-3, or for larger ranges the
+     * median of 3 medians-of-3 (Tukey's ninther).
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param c Comparator.
+     * @return the pivot index
+     */
+    private static <T> int pivot(T[] a, int l, int r, Comparator<? super T> c) {
+        final int m = (l + r) >>> 1;
+        if (r - l < OBJECT_NINTHER_SIZE) {
+            return median3(a, l, m, r, c);
+        }
+        final int s = (r - l) >>> 3;
+        return median3(a,
+            median3(a, l, l + s, l + (s << 1), c),
+            median3(a, m - s, m, m + s, c),
+            median3(a, r - (s << 1), r - s, r, c), c);
+    }
+
+    /**
+     * Choose a pivot from the range using the median of medians of groups of 5.
+     * The pivot is placed in the range with a guaranteed fraction of at least 3/10 of
+     * the range below and above it.
+     *
+     * <p>The medians of each group are moved to the start of the range.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param c Comparator.
+     * @param bounds Partition bounds (working space).
+     * @return the pivot index
+     */
+    private static <T> int medianOfMedians(T[] a, int l, int r, Comparator<? super T> c,
+            int[] bounds) {
+        int m = l;
+        for (int i = l; i + 4 <= r; i += 5) {
+            Sorting.sort(a, i, i + 4, c);
+            final T v = a[i + 2];
+            a[i + 2] = a[m];
+            a[m++] = v;
+        }
+        final int p = (l + m - 1) >>> 1;
+        selectRange(a, l, m - 1, p, c, bounds);
+        return p;
+    }
+
+    /**
+     * Return the index of the median of the three indexed elements.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param i First index.
+     * @param j Second index.
+     * @param k Third index.
+     * @param c Comparator.
+     * @return the median index
+     */
+    private static <T> int median3(T[] a, int i, int j, int k, Comparator<? super T> c) {
+        if (c.compare(a[i], a[j]) < 0) {
+            if (c.compare(a[j], a[k]) < 0) {
+                return j;
+            }
+            return c.compare(a[i], a[k]) < 0 ? k : i;
+        }
+        if (c.compare(a[j], a[k]) > 0) {
+            return j;
+        }
+        return c.compare(a[i], a[k]) > 0 ? k : i;
+    }
+
+    /**
+     * Partition the range into elements less than, equal to, and greater than the
+     * pivot element. The comparator is invoked once for each element.
+     *
+     * <p>The bounds of the central region of elements equal to the pivot are returned
+     * as {@code [lower, upper]} (inclusive).
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param p Pivot index.
+     * @param c Comparator.
+     * @param bounds Partition bounds {@code [lower, upper]}.
+     */
+    private static <T> void partition(T[] a, int l, int r, int p, Comparator<? super T> c,
+            int[] bounds) {
+        // Dijkstra's 3-way partition with the pivot moved to the start:
+        // |  <v  |  ==v  |  ???  |  >v  |
+        //        lt      i       gt
+        final T v = a[p];
+        a[p] = a[l];
+        a[l] = v;
+        int lt = l;
+        int gt = r;
+        for (int i = l + 1; i <= gt;) {
+            final T x = a[i];
+            final int cmp = c.compare(x, v);
+            if (cmp < 0) {
+                a[i++] = a[lt];
+                a[lt++] = x;
+            } else if (cmp > 0) {
+                a[i] = a[gt];
+                a[gt--] = x;
+            } else {
+                i++;
+            }
+        }
+        bounds[0] = lt;
+        bounds[1] = gt;
+    }
 }
@@ -0,0 +1,512 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Sort array data using a least significant digit (LSD) radix sort.
+ *
+ * <p>Each pass distributes the data into buckets using an 8-bit digit of the value;
+ * passes where all values have the same digit are skipped. The sort requires
+ * {@code O(n)} time and a buffer of the same length as the data. Small ranges are
+ * sorted using {@link Arrays#sort(long[], int, int) Arrays.sort}.
+ *
+ * <p>Floating-point values are sorted using a transformation of the IEEE 754 bit
+ * representation to an unsigned integer with the same order. This respects the
+ * ordering imposed by {@link Double#compare(double, double)}: {@code -0.0} is
+ * less than {@code 0.0}; {@code NaN} is considered greater than any other value;
+ * and all {@code NaN} values are considered equal.
+ *
+ * <p>The parallel methods divide each pass into blocks processed by tasks in the
+ * {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+ * or the common pool. If the array is small, or the pool has a parallelism of 1,
+ * the parallel methods perform a sequential sort.
+ *
+ * @see Selection
+ * @since 1.4
+ */
+public final class RadixSort {
+    /** Minimum length of a range to sort using a radix sort. */
+    static final int MIN_RADIX_SORT_LENGTH = 1 << 10;
+    /** Number of bits in a digit. */
+    private static final int DIGIT_BITS = 8;
+    /** Number of buckets for a digit. */
+    private static final int RADIX = 1 << DIGIT_BITS;
+    /** Mask to extract a digit. */
+    private static final int MASK = RADIX - 1;
+
+    /** No instances. */
+    private RadixSort() {}
+
+    /**
+     * Sorts the array into ascending numerical order.
+     *
+     * @param a Values.
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the range of the array into ascending numerical order.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     */
+    public static void sort(int[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the array into ascending numerical order using fork/join tasks.
+     *
+     * @param a Values.
+     */
+    public static void parallelSort(int[] a) {
+        parallelSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the range of the array into ascending numerical order using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     */
+    public static void parallelSort(int[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.invoke(ParallelQuickSelect.currentPool(),
+                ForkJoinTask.adapt(() -> sort(a, fromIndex, toIndex, true)));
+        } else {
+            sort(a, fromIndex, toIndex, false);
+        }
+    }
+
+    /**
+     * Sorts the array into ascending numerical order.
+     *
+     * @param a Values.
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the range of the array into ascending numerical order.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     */
+    public static void sort(long[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the array into ascending numerical order using fork/join tasks.
+     *
+     * @param a Values.
+     */
+    public static void parallelSort(long[] a) {
+        parallelSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the range of the array into ascending numerical order using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     */
+    public static void parallelSort(long[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.invoke(ParallelQuickSelect.currentPool(),
+                ForkJoinTask.adapt(() -> sort(a, fromIndex, toIndex, true)));
+        } else {
+            sort(a, fromIndex, toIndex, false);
+        }
+    }
+
+    /**
+     * Sorts the array into ascending numerical order.
+     *
+     * @param a Values.
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sorts the range of the array into ascending numerical order.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     */
+    public static void sort(double[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        sort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the array into ascending numerical order using fork/join tasks.
+     *
+     * @param a Values.
+     */
+    public static void parallelSort(double[] a) {
+        parallelSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the range of the array into ascending numerical order using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     */
+    public static void parallelSort(double[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.invoke(ParallelQuickSelect.currentPool(),
+                ForkJoinTask.adapt(() -> sort(a, fromIndex, toIndex, true)));
+        } else {
+            sort(a, fromIndex, toIndex, false);
+        }
+    }
+
+    /**
+     * Sorts the range of the array.
+     *
+     * <p>The range is divided into blocks. The histograms of all digits are computed in
+     * an initial pass. Each pass computes the bucket offsets for each block and then
+     * distributes the values of each block. A sequential sort uses a single block and
+     * requires no further histograms. If parallel the blocks are processed by fork/join
+     * tasks; this method must be called within the pool.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param parallel Flag to process blocks in parallel.
+     */
+    private static void sort(int[] a, int from, int to, boolean parallel) {
+        final int n = to - from;
+        if (n < MIN_RADIX_SORT_LENGTH) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        final int size = parallel ? ParallelQuickSelect.blockSize(n) : n;
+        final int blocks = ParallelQuickSelect.blocks(n, size);
+        // Histogram of all digits for each block
+        final int[][][] h = new int[blocks][][];
+        ParallelQuickSelect.forEach(blocks, b -> {
+            final int[][] c = new int[Integer.BYTES][RADIX];
+            for (int i = from + b * size, end = Math.min(to, i + size); i < end; i++) {
+                final int k = a[i] ^ Integer.MIN_VALUE;
+                for (int p = 0; p < Integer.BYTES; p++) {
+                    c[p][(k >>> (p * DIGIT_BITS)) & MASK]++;
+                }
+            }
+            h[b] = c;
+        });
+        int[] src = a;
+        int srcFrom = from;
+        int[] dst = new int[n];
+        int dstFrom = 0;
+        boolean unchanged = true;
+        for (int p = 0; p < Integer.BYTES; p++) {
+            final int shift = p * DIGIT_BITS;
+            if (isSingleBucket(h, p, n)) {
+                continue;
+            }
+            final int[] x = src;
+            final int xFrom = srcFrom;
+            final int[] y = dst;
+            // Histogram of the digit for each block. The initial histograms of a single
+            // block are valid for all passes. The histograms of multiple blocks must be
+            // recomputed after the data has been reordered by a pass.
+            final int[][] offsets = new int[blocks][];
+            if (unchanged || blocks == 1) {
+                for (int b = 0; b < blocks; b++) {
+                    offsets[b] = h[b][p];
+                }
+            } else {
+                ParallelQuickSelect.forEach(blocks, b -> {
+                    final int[] c = new int[RADIX];
+                    for (int i = xFrom + b * size, end = Math.min(xFrom + n, i + size); i < end; i++) {
+                        c[((x[i] ^ Integer.MIN_VALUE) >>> shift) & MASK]++;
+                    }
+                    offsets[b] = c;
+                });
+            }
+            computeOffsets(offsets, dstFrom);
+            ParallelQuickSelect.forEach(blocks, b -> {
+                final int[] c = offsets[b];
+                for (int i = xFrom + b * size, end = Math.min(xFrom + n, i + size); i < end; i++) {
+                    final int v = x[i];
+                    y[c[((v ^ Integer.MIN_VALUE) >>> shift) & MASK]++] = v;
+                }
+            });
+            unchanged = false;
+            src = dst;
+            dst = x;
+            srcFrom = dstFrom;
+            dstFrom = xFrom;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcFrom, a, from, n);
+        }
+    }
+
+    /**
+     * Sorts the range of the array.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param parallel Flag to process blocks in parallel.
+     * @see #sort(int[], int, int, boolean)
+     */
+    private static void sort(long[] a, int from, int to, boolean parallel) {
+        final int n = to - from;
+        if (n < MIN_RADIX_SORT_LENGTH) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        final int size = parallel ? ParallelQuickSelect.blockSize(n) : n;
+        final int blocks = ParallelQuickSelect.blocks(n, size);
+        final int[][][] h = new int[blocks][][];
+        ParallelQuickSelect.forEach(blocks, b -> {
+            final int[][] c = new int[Long.BYTES][RADIX];
+            for (int i = from + b * size, end = Math.min(to, i + size); i < end; i++) {
+                final long k = a[i] ^ Long.MIN_VALUE;
+                for (int p = 0; p < Long.BYTES; p++) {
+                    c[p][(int) (k >>> (p * DIGIT_BITS)) & MASK]++;
+                }
+            }
+            h[b] = c;
+        });
+        long[] src = a;
+        int srcFrom = from;
+        long[] dst = new long[n];
+        int dstFrom = 0;
+        boolean unchanged = true;
+        for (int p = 0; p < Long.BYTES; p++) {
+            final int shift = p * DIGIT_BITS;
+            if (isSingleBucket(h, p, n)) {
+                continue;
+            }
+            final long[] x = src;
+            final int xFrom = srcFrom;
+            final long[] y = dst;
+            final int[][] offsets = new int[blocks][];
+            if (unchanged || blocks == 1) {
+                for (int b = 0; b < blocks; b++) {
+                    offsets[b] = h[b][p];
+                }
+            } else {
+                ParallelQuickSelect.forEach(blocks, b -> {
+                    final int[] c = new int[RADIX];
+                    for (int i = xFrom + b * size, end = Math.min(xFrom + n, i + size); i < end; i++) {
+                        c[(int) ((x[i] ^ Long.MIN_VALUE) >>> shift) & MASK]++;
+                    }
+                    offsets[b] = c;
+                });
+            }
+            computeOffsets(offsets, dstFrom);
+            ParallelQuickSelect.forEach(blocks, b -> {
+                final int[] c = offsets[b];
+                for (int i = xFrom + b * size, end = Math.min(xFrom + n, i + size); i < end; i++) {
+                    final long v = x[i];
+                    y[c[(int) ((v ^ Long.MIN_VALUE) >>> shift) & MASK]++] = v;
+                }
+            });
+            unchanged = false;
+            src = dst;
+            dst = x;
+            srcFrom = dstFrom;
+            dstFrom = xFrom;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcFrom, a, from, n);
+        }
+    }
+
+    /**
+     * Sorts the range of the array.
+     *
+     * <p>{@code NaN} values are moved to the end of the range. The remaining values
+     * are sorted using the key {@link #key(double)}.
+     *
+     * @param a Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param parallel Flag to process blocks in parallel.
+     * @see #sort(int[], int, int, boolean)
+     */
+    private static void sort(double[] a, int from, int to, boolean parallel) {
+        // Move NaN to end
+        int last = to;
+        for (int i = to; --i >= from;) {
+            final double v = a[i];
+            if (v != v) {
+                a[i] = a[--last];
+                a[last] = v;
+            }
+        }
+        final int n = last - from;
+        if (n < MIN_RADIX_SORT_LENGTH) {
+            // Sorts -0.0 before 0.0
+            Arrays.sort(a, from, last);
+            return;
+        }
+        final int size = parallel ? ParallelQuickSelect.blockSize(n) : n;
+        final int blocks = ParallelQuickSelect.blocks(n, size);
+        final int end0 = last;
+        final int[][][] h = new int[blocks][][];
+        ParallelQuickSelect.forEach(blocks, b -> {
+            final int[][] c = new int[Long.BYTES][RADIX];
+            for (int i = from + b * size, end = Math.min(end0, i + size); i < end; i++) {
+                final long k = key(a[i]);
+                for (int p = 0; p < Long.BYTES; p++) {
+                    c[p][(int) (k >>> (p * DIGIT_BITS)) & MASK]++;
+                }
+            }
+            h[b] = c;
+        });
+        double[] src = a;
+        int srcFrom = from;
+        double[] dst = new double[n];
+        int dstFrom = 0;
+        boolean unchanged = true;
+        for (int p = 0; p < Long.BYTES; p++) {
+            final int shift = p * DIGIT_BITS;
+            if (isSingleBucket(h, p, n)) {
+                continue;
+            }
+            final double[] x = src;
+            final int xFrom = srcFrom;
+            final double[] y = dst;
+            final int[][] offsets = new int[blocks][];
+            if (unchanged || blocks == 1) {
+                for (int b = 0; b < blocks; b++) {
+                    offsets[b] = h[b][p];
+                }
+            } else {
+                ParallelQuickSelect.forEach(blocks, b -> {
+                    final int[] c = new int[RADIX];
+                    for (int i = xFrom + b * size, end = Math.min(xFrom + n, i + size); i < end; i++) {
+                        c[(int) (key(x[i]) >>> shift) & MASK]++;
+                    }
+                    offsets[b] = c;
+                });
+            }
+            computeOffsets(offsets, dstFrom);
+            ParallelQuickSelect.forEach(blocks, b -> {
+                final int[] c = offsets[b];
+                for (int i = xFrom + b * size, end = Math.min(xFrom + n, i + size); i < end; i++) {
+                    final double v = x[i];
+                    y[c[(int) (key(v) >>> shift) & MASK]++] = v;
+                }
+            });
+            unchanged = false;
+            src = dst;
+            dst = x;
+            srcFrom = dstFrom;
+            dstFrom = xFrom;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcFrom, a, from, n);
+        }
+    }
+
+    /**
+     * Map the value to an unsigned key with the same order as
+     * {@link Double#compare(double, double)} for non-NaN values.
+     *
+     * <p>Negative values have all the bits inverted; positive values have the sign
+     * bit inverted. Thus {@code -0.0} is mapped below {@code 0.0}.
+     *
+     * @param v Value.
+     * @return the key
+     */
+    private static long key(double v) {
+        final long bits = Double.doubleToRawLongBits(v);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Check if all values have the same digit for the pass. The pass can be skipped.
+     *
+     * @param h Histograms of all digits for each block.
+     * @param p Pass.
+     * @param n Number of values.
+     * @return true if all values are in a single bucket
+     */
+    private static boolean isSingleBucket(int[][][] h, int p, int n) {
+        // Find a non-empty bucket
+        int d = 0;
+        int[] c = h[0][p];
+        while (c[d] == 0) {
+            d++;
+        }
+        int count = 0;
+        for (final int[][] x : h) {
+            count += x[p][d];
+        }
+        return count == n;
+    }
+
+    /**
+     * Convert the histograms of each block to the starting offset of each bucket
+     * for each block. Buckets are in ascending order; within a bucket the blocks
+     * are in ascending order. This maintains the relative order of values with
+     * the same digit.
+     *
+     * @param c Histogram of each block (updated in-place).
+     * @param start Offset of the first bucket.
+     */
+    private static void computeOffsets(int[][] c, int start) {
+        int s = start;
+        for (int d = 0; d < RADIX; d++) {
+            for (final int[] x : c) {
+                final int t = x[d];
+                x[d] = s;
+                s += t;
+            }
+        }
+    }
+}
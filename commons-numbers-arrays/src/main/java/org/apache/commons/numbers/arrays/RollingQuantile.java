@@ -0,0 +1,507 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongConsumer;
+import org.apache.commons.numbers.arrays.Quantile.EstimationMethod;
+
+/**
+ * Provides computation of a quantile over a sliding window of data.
+ *
+ * <p>The window holds the most recent {@code w} values of a stream. Each new value
+ * replaces the oldest value in the window and the quantile is updated in
+ * {@code O(log w)} time. This is more efficient than selection of the quantile from
+ * each window of the data which is {@code O(w)} for each value.
+ *
+ * <p>The quantile is computed using the {@link EstimationMethod} of the values in
+ * the window. When the window is not full the quantile is computed from the values
+ * added so far.
+ *
+ * <p>Floating-point values are ordered using {@link Double#compare(double, double)}.
+ * {@code NaN} is considered greater than any other value and the result may be
+ * {@code NaN}.
+ *
+ * <p>Instances of this class are immutable and thread-safe. The {@link DoubleWindow}
+ * and {@link LongWindow} instances created to process a stream are not thread-safe.
+ *
+ * @see Quantile
+ * @since 1.4
+ */
+public final class RollingQuantile {
+    /** Default estimation method. */
+    private static final EstimationMethod DEFAULT_METHOD = EstimationMethod.HF8;
+
+    /** Size of the window. */
+    private final int window;
+    /** Estimation method. */
+    private final EstimationMethod method;
+
+    /**
+     * Computes the quantile of a sliding window of {@code double} values.
+     */
+    public static final class DoubleWindow implements DoubleConsumer, DoubleSupplier {
+        /** Order statistics of the most recent values. */
+        private final OrderStatistics stats;
+
+        /**
+         * @param stats Order statistics of the most recent values.
+         */
+        DoubleWindow(OrderStatistics stats) {
+            this.stats = stats;
+        }
+
+        /**
+         * Add the value to the window. If the window is full the oldest value
+         * is removed.
+         *
+         * @param value Value.
+         */
+        @Override
+        public void accept(double value) {
+            stats.add(Sorting.toKey(value));
+        }
+
+        /**
+         * Gets the number of values in the window.
+         *
+         * @return the size
+         */
+        public int size() {
+            return stats.size();
+        }
+
+        /**
+         * Gets the quantile of the values in the window. The result is {@code NaN}
+         * if the window is empty.
+         *
+         * @return the quantile
+         */
+        @Override
+        public double getAsDouble() {
+            if (stats.size() == 0) {
+                return Double.NaN;
+            }
+            return Quantile.interpolate(Sorting.fromKey(stats.lower()), Sorting.fromKey(stats.upper()),
+                stats.interpolant());
+        }
+    }
+
+    /**
+     * Computes the quantile of a sliding window of {@code long} values.
+     */
+    public static final class LongWindow implements LongConsumer, DoubleSupplier {
+        /** Order statistics of the most recent values. */
+        private final OrderStatistics stats;
+
+        /**
+         * @param stats Order statistics of the most recent values.
+         */
+        LongWindow(OrderStatistics stats) {
+            this.stats = stats;
+        }
+
+        /**
+         * Add the value to the window. If the window is full the oldest value
+         * is removed.
+         *
+         * @param value Value.
+         */
+        @Override
+        public void accept(long value) {
+            stats.add(value);
+        }
+
+        /**
+         * Gets the number of values in the window.
+         *
+         * @return the size
+         */
+        public int size() {
+            return stats.size();
+        }
+
+        /**
+         * Gets the quantile of the values in the window. The result is {@code NaN}
+         * if the window is empty.
+         *
+         * @return the quantile
+         */
+        @Override
+        public double getAsDouble() {
+            if (stats.size() == 0) {
+                return Double.NaN;
+            }
+            return Quantile.interpolate(stats.lower(), stats.upper(), stats.interpolant());
+        }
+    }
+
+    /**
+     * Maintains the order statistics {@code x[j]} and {@code x[j+1]} of a sliding window
+     * of {@code long} keys, where {@code j} is the lower index of the position of the
+     * quantile in the sorted window.
+     *
+     * <p>The window is stored in a circular buffer of slots. The slots are partitioned
+     * into a max-heap of the lowest {@code j + 1} keys and a min-heap of the remaining
+     * keys; the order statistics are the heads of each heap. The position of each slot
+     * in the heaps is tracked to allow the key of the oldest slot to be replaced and
+     * the heap repaired in {@code O(log w)} time.
+     *
+     * <p>The heap index of each slot is stored as {@code ~i} in the lower heap and
+     * {@code i} in the upper heap. Comparisons in the lower heap use the complement
+     * of the key to reverse the ordering. The same {@code tag} of {@code -1} (lower) or
+     * {@code 0} (upper) is used to encode both.
+     */
+    private static final class OrderStatistics {
+        /** Tag of the lower max-heap. */
+        private static final int LOWER = -1;
+        /** Tag of the upper min-heap. */
+        private static final int UPPER = 0;
+
+        /** Probability. */
+        private final double p;
+        /** Estimation method. */
+        private final EstimationMethod method;
+        /** Key of each slot. */
+        private final long[] key;
+        /** Heap index of each slot. */
+        private final int[] index;
+        /** Lower max-heap of slots. */
+        private final int[] lo;
+        /** Upper min-heap of slots. */
+        private final int[] hi;
+        /** Size of the lower heap. */
+        private int nlo;
+        /** Size of the upper heap. */
+        private int nhi;
+        /** Next slot to replace when the window is full. */
+        private int next;
+        /** Position of the quantile in the sorted window (0-based index). */
+        private double pos;
+        /** Required size of the lower heap. */
+        private int lowerSize;
+
+        /**
+         * @param window Size of the window.
+         * @param p Probability.
+         * @param method Estimation method.
+         */
+        OrderStatistics(int window, double p, EstimationMethod method) {
+            this.p = p;
+            this.method = method;
+            key = new long[window];
+            index = new int[window];
+            lo = new int[window];
+            hi = new int[window];
+        }
+
+        /**
+         * Gets the number of keys in the window.
+         *
+         * @return the size
+         */
+        int size() {
+            return nlo + nhi;
+        }
+
+        /**
+         * Gets the lower order statistic {@code x[j]}. Assumes the window is not empty.
+         *
+         * @return the key
+         */
+        long lower() {
+            return key[lo[0]];
+        }
+
+        /**
+         * Gets the upper order statistic {@code x[j+1]}, or {@code x[j]} if no
+         * interpolation is required. Assumes the window is not empty.
+         *
+         * @return the key
+         */
+        long upper() {
+            return pos > lowerSize - 1 ? key[hi[0]] : key[lo[0]];
+        }
+
+        /**
+         * Gets the interpolant between the lower and upper order statistic.
+         *
+         * @return the interpolant
+         */
+        double interpolant() {
+            return pos - (lowerSize - 1);
+        }
+
+        /**
+         * Add the key to the window. If the window is full the oldest key is replaced.
+         *
+         * @param k Key.
+         */
+        void add(long k) {
+            final int n = size();
+            if (n < key.length) {
+                key[n] = k;
+                if (nlo != 0 && k < key[lo[0]]) {
+                    lo[nlo] = n;
+                    siftUp(lo, LOWER, nlo++);
+                } else {
+                    hi[nhi] = n;
+                    siftUp(hi, UPPER, nhi++);
+                }
+                pos = method.index(p, n + 1);
+                lowerSize = (int) pos + 1;
+                balance();
+                return;
+            }
+            final int slot = next;
+            next = slot + 1 == key.length ? 0 : slot + 1;
+            key[slot] = k;
+            final int i = index[slot];
+            if (i < 0) {
+                siftDown(lo, nlo, LOWER, siftUp(lo, LOWER, ~i));
+            } else {
+                siftDown(hi, nhi, UPPER, siftUp(hi, UPPER, i));
+            }
+            // Only the replaced key can be out of order between the heaps
+            if (nhi != 0 && key[lo[0]] > key[hi[0]]) {
+                final int a = lo[0];
+                final int b = hi[0];
+                lo[0] = b;
+                hi[0] = a;
+                index[b] = ~0;
+                index[a] = 0;
+                siftDown(lo, nlo, LOWER, 0);
+                siftDown(hi, nhi, UPPER, 0);
+            }
+        }
+
+        /**
+         * Move keys between the heaps so the lower heap has the required size.
+         */
+        private void balance() {
+            while (nlo > lowerSize) {
+                hi[nhi] = pop(lo, --nlo, LOWER);
+                siftUp(hi, UPPER, nhi++);
+            }
+            while (nlo < lowerSize) {
+                lo[nlo] = pop(hi, --nhi, UPPER);
+                siftUp(lo, LOWER, nlo++);
+            }
+        }
+
+        /**
+         * Remove the head of the heap.
+         *
+         * @param h Heap.
+         * @param n Size of the heap after removal.
+         * @param tag Heap tag.
+         * @return the slot
+         */
+        private int pop(int[] h, int n, int tag) {
+            final int s = h[0];
+            if (n != 0) {
+                h[0] = h[n];
+                siftDown(h, n, tag, 0);
+            }
+            return s;
+        }
+
+        /**
+         * Move the slot at heap index {@code i} towards the head of the heap.
+         *
+         * @param h Heap.
+         * @param tag Heap tag.
+         * @param i Heap index.
+         * @return the final heap index
+         */
+        private int siftUp(int[] h, int tag, int i) {
+            final int s = h[i];
+            final long v = key[s] ^ tag;
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                final int ps = h[parent];
+                if ((key[ps] ^ tag) <= v) {
+                    break;
+                }
+                h[i] = ps;
+                index[ps] = i ^ tag;
+                i = parent;
+            }
+            h[i] = s;
+            index[s] = i ^ tag;
+            return i;
+        }
+
+        /**
+         * Move the slot at heap index {@code i} away from the head of the heap.
+         *
+         * @param h Heap.
+         * @param n Size of the heap.
+         * @param tag Heap tag.
+         * @param i Heap index.
+         */
+        private void siftDown(int[] h, int n, int tag, int i) {
+            final int s = h[i];
+            final long v = key[s] ^ tag;
+            int c;
+            while ((c = (i << 1) + 1) < n) {
+                int cs = h[c];
+                long cv = key[cs] ^ tag;
+                if (c + 1 < n) {
+                    final int rs = h[c + 1];
+                    final long rv = key[rs] ^ tag;
+                    if (rv < cv) {
+                        c++;
+                        cs = rs;
+                        cv = rv;
+                    }
+                }
+                if (cv >= v) {
+                    break;
+                }
+                h[i] = cs;
+                index[cs] = i ^ tag;
+                i = c;
+            }
+            h[i] = s;
+            index[s] = i ^ tag;
+        }
+    }
+
+    /**
+     * @param window Size of the window.
+     * @param method Estimation method.
+     */
+    private RollingQuantile(int window, EstimationMethod method) {
+        this.window = window;
+        this.method = method;
+    }
+
+    /**
+     * Return an instance with the specified window size and the default
+     * {@linkplain #with(EstimationMethod) estimation method = HF8}.
+     *
+     * @param window Size of the window.
+     * @return the rolling quantile implementation
+     * @throws IllegalArgumentException if the {@code window < 1}
+     */
+    public static RollingQuantile of(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Invalid window: " + window);
+        }
+        return new RollingQuantile(window, DEFAULT_METHOD);
+    }
+
+    /**
+     * Return an instance with the configured {@link EstimationMethod}.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public RollingQuantile with(EstimationMethod v) {
+        return new RollingQuantile(window, Objects.requireNonNull(v));
+    }
+
+    /**
+     * Create a sliding window to compute the {@code p}-th quantile of a stream of
+     * {@code double} values.
+     *
+     * @param p Probability for the quantile to compute.
+     * @return the window
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public DoubleWindow ofDouble(double p) {
+        checkProbability(p);
+        return new DoubleWindow(new OrderStatistics(window, p, method));
+    }
+
+    /**
+     * Create a sliding window to compute the {@code p}-th quantile of a stream of
+     * {@code long} values.
+     *
+     * @param p Probability for the quantile to compute.
+     * @return the window
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public LongWindow ofLong(double p) {
+        checkProbability(p);
+        return new LongWindow(new OrderStatistics(window, p, method));
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of each full window of the values.
+     *
+     * <p>The quantile of the window {@code [i, i + w)} is stored at index {@code i} of the
+     * result. The result is empty if the length of the values is less than the window.
+     *
+     * @param values Values.
+     * @param p Probability for the quantile to compute.
+     * @return the quantiles
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public double[] evaluate(double[] values, double p) {
+        final DoubleWindow w = ofDouble(p);
+        final double[] q = new double[Math.max(0, values.length - window + 1)];
+        for (int i = 0; i < values.length; i++) {
+            w.accept(values[i]);
+            final int j = i - window + 1;
+            if (j >= 0) {
+                q[j] = w.getAsDouble();
+            }
+        }
+        return q;
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of each full window of the values.
+     *
+     * <p>The quantile of the window {@code [i, i + w)} is stored at index {@code i} of the
+     * result. The result is empty if the length of the values is less than the window.
+     *
+     * @param values Values.
+     * @param p Probability for the quantile to compute.
+     * @return the quantiles
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    public double[] evaluate(long[] values, double p) {
+        final LongWindow w = ofLong(p);
+        final double[] q = new double[Math.max(0, values.length - window + 1)];
+        for (int i = 0; i < values.length; i++) {
+            w.accept(values[i]);
+            final int j = i - window + 1;
+            if (j >= 0) {
+                q[j] = w.getAsDouble();
+            }
+        }
+        return q;
+    }
+
+    /**
+     * Check the probability is in the range {@code [0, 1]}.
+     *
+     * @param p Probability.
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]}
+     */
+    private static void checkProbability(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Invalid probability: " + p);
+        }
+    }
+}
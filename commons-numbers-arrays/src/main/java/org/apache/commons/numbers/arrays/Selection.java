@@ -74,13 +74,23 @@ package org.apache.commons.numbers.arrays;
  * maximum number of times that {@code n} indices can be split is {@code n - 1} before all
  * indices are handled as singles.
  *
+ * <p>Parallel selection divides large ranges using a partition computed by fork/join tasks
+ * on blocks of the data. Pivots are chosen from a sample of the range to bracket the target
+ * indices. Divisions of the range containing indices are processed as independent tasks
+ * until they are small enough to use the sequential algorithm.
+ *
+ * <p>Selection of values without modification of the array data requires a copy. Large
+ * ranges use a sample of the data to estimate the values that bound the target indices
+ * and copy only the band of candidate values to a scratch buffer. If the band does not
+ * contain the target indices then the entire range is copied.
+ *
  * <p>Floating-point order
  *
  * <p>The {@code <} relation does not impose a total order on all floating-point values.
- * This class respects the ordering imposed by {@link Double#compare(double, double)}.
- * {@code -0.0} is treated as less than value {@code 0.0}; {@code Double.NaN} is
- * considered greater than any other value; and all {@code Double.NaN} values are
- * considered equal.
+ * This class respects the ordering imposed by {@link Double#compare(double, double)}
+ * and {@link Float#compare(float, float)}. {@code -0.0} is treated as less than value
+ * {@code 0.0}; {@code NaN} is considered greater than any other value; and all
+ * {@code NaN} values are considered equal.
  *
  * <p>References
  *
@@ -200,6 +210,322 @@ public final class Selection {
         doSelect(a, fromIndex, toIndex, k);
     }
 
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large arrays are partitioned in parallel using fork/join tasks. The tasks are run
+     * in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. If the array is small, or the pool has a parallelism of 1, this
+     * method is equivalent to {@link #select(double[], int)}. The value at index {@code k}
+     * is the same; other elements may be in a different order.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void parallelSelect(double[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        doParallelSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large arrays are partitioned in parallel using fork/join tasks. The tasks are run
+     * in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. If the array is small, or the pool has a parallelism of 1, this
+     * method is equivalent to {@link #select(double[], int[])}. The values at indices
+     * {@code k} are the same; other elements may be in a different order.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void parallelSelect(double[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doParallelSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large ranges are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @see #parallelSelect(double[], int)
+     * @since 1.4
+     */
+    public static void parallelSelect(double[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doParallelSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large ranges are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @see #parallelSelect(double[], int[])
+     * @since 1.4
+     */
+    public static void parallelSelect(double[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doParallelSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Return the value at index {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static double selectValue(double[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        return BandSelect.select(a, 0, a.length, new int[] {k})[0];
+    }
+
+    /**
+     * Return the values at indices {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param k Indices.
+     * @return the values
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static double[] selectValues(double[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        return BandSelect.select(a, 0, a.length, k);
+    }
+
+    /**
+     * Return the value at index {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static double selectValue(double[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        return BandSelect.select(a, fromIndex, toIndex, new int[] {k})[0];
+    }
+
+    /**
+     * Return the values at indices {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @return the values
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static double[] selectValues(double[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        return BandSelect.select(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array. The remaining elements are partitioned around the sorted range:
+     *
+     * <pre>{@code
+     * a[i < ka] <= a[ka] <= ... <= a[kb] <= a[kb < i]
+     * }</pre>
+     *
+     * @param a Values.
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     * @throws IndexOutOfBoundsException if the range {@code [ka, kb]} is not within the
+     * sub-range {@code [0, a.length)}, or {@code ka > kb}
+     * @since 1.4
+     */
+    public static void partialSort(double[] a, int ka, int kb) {
+        IndexSupport.checkIndexRange(0, a.length, ka, kb);
+        doPartialSort(a, 0, a.length, ka, kb);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array. The remaining elements are partitioned around the sorted range:
+     *
+     * <pre>{@code
+     * a[fromIndex <= i < ka] <= a[ka] <= ... <= a[kb] <= a[kb < i < toIndex]
+     * }</pre>
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if the range {@code [ka, kb]} is not within the
+     * sub-range {@code [fromIndex, toIndex)}, or {@code ka > kb}
+     * @since 1.4
+     */
+    public static void partialSort(double[] a, int fromIndex, int toIndex, int ka, int kb) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndexRange(fromIndex, toIndex, ka, kb);
+        doPartialSort(a, fromIndex, toIndex, ka, kb);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array.
+     *
+     * <p>This method pre/post-processes the data to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     */
+    private static void doPartialSort(double[] a, int fromIndex, int toIndex, int ka, int kb) {
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after sorting.
+                a[i] = 0.0;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Sort the range excluding NaN
+        final int kb1 = Math.min(kb, end - 1);
+        final boolean sorted = ka <= kb1;
+        if (sorted && end - fromIndex > 1) {
+            QuickSelect.partialSort(a, fromIndex, end - 1, ka, kb1);
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use the sorted range below zero to fast-forward to zero as much as possible
+            int j = fromIndex - 1;
+            if (sorted) {
+                int lo = ka;
+                int hi = kb1;
+                while (lo <= hi) {
+                    final int mid = (lo + hi) >>> 1;
+                    if (a[mid] < 0) {
+                        j = mid;
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+            }
+            for (;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    private static void doParallelSelect(double[] a, int fromIndex, int toIndex, int k) {
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.select(a, fromIndex, toIndex, new int[] {k});
+        } else {
+            doSelect(a, fromIndex, toIndex, k);
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    private static void doParallelSelect(double[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0) {
+            return;
+        }
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.select(a, fromIndex, toIndex, k);
+        } else {
+            doSelect(a, fromIndex, toIndex, k);
+        }
+    }
+
     /**
      * Partition the array such that index {@code k} corresponds to its correctly
      * sorted value in the equivalent fully sorted array.
@@ -243,7 +569,7 @@ public final class Selection {
         // Restore signed zeros
         if (cn != 0) {
             // Use partition index below zero to fast-forward to zero as much as possible
-            for (int j = a[k] < 0 ? k : -1;;) {
+            for (int j = a[k] < 0 ? k : fromIndex - 1;;) {
                 if (a[++j] == 0) {
                     a[j] = -0.0;
                     if (--cn == 0) {
@@ -312,7 +638,7 @@ public final class Selection {
         // Restore signed zeros
         if (cn != 0) {
             // Use partition indices below zero to fast-forward to zero as much as possible
-            int j = -1;
+            int j = fromIndex - 1;
             if (n < 0) {
                 // Binary search on -n sorted indices: hi = (-n) - 1
                 int lo = 0;
@@ -320,7 +646,7 @@ public final class Selection {
                 while (lo <= hi) {
                     final int mid = (lo + hi) >>> 1;
                     if (a[k[mid]] < 0) {
-                        j = mid;
+                        j = k[mid];
                         lo = mid + 1;
                     } else {
                         hi = mid - 1;
@@ -425,42 +751,50 @@ public final class Selection {
      * Partition the array such that index {@code k} corresponds to its correctly
      * sorted value in the equivalent fully sorted array.
      *
+     * <p>Large arrays are partitioned in parallel using fork/join tasks. The tasks are run
+     * in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. If the array is small, or the pool has a parallelism of 1, this
+     * method is equivalent to {@link #select(int[], int)}. The value at index {@code k}
+     * is the same; other elements may be in a different order.
+     *
      * @param a Values.
      * @param k Index.
      * @throws IndexOutOfBoundsException if index {@code k} is not within the
      * sub-range {@code [0, a.length)}
-     * @since 1.3
+     * @since 1.4
      */
-    public static void select(long[] a, int k) {
+    public static void parallelSelect(int[] a, int k) {
         IndexSupport.checkIndex(0, a.length, k);
-        if (a.length <= 1) {
-            return;
-        }
-        QuickSelect.select(a, 0, a.length - 1, k);
+        doParallelSelect(a, 0, a.length, k);
     }
 
     /**
      * Partition the array such that indices {@code k} correspond to their correctly
      * sorted value in the equivalent fully sorted array.
      *
+     * <p>Large arrays are partitioned in parallel using fork/join tasks. The tasks are run
+     * in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. If the array is small, or the pool has a parallelism of 1, this
+     * method is equivalent to {@link #select(int[], int[])}. The values at indices
+     * {@code k} are the same; other elements may be in a different order.
+     *
      * @param a Values.
      * @param k Indices (may be destructively modified).
      * @throws IndexOutOfBoundsException if any index {@code k} is not within the
      * sub-range {@code [0, a.length)}
-     * @since 1.3
+     * @since 1.4
      */
-    public static void select(long[] a, int[] k) {
+    public static void parallelSelect(int[] a, int[] k) {
         IndexSupport.checkIndices(0, a.length, k);
-        if (k.length == 0 || a.length <= 1) {
-            return;
-        }
-        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+        doParallelSelect(a, 0, a.length, k);
     }
 
     /**
      * Partition the array such that index {@code k} corresponds to its correctly
      * sorted value in the equivalent fully sorted array.
      *
+     * <p>Large ranges are partitioned in parallel using fork/join tasks.
+     *
      * @param a Values.
      * @param fromIndex Index of the first element (inclusive).
      * @param toIndex Index of the last element (exclusive).
@@ -468,21 +802,21 @@ public final class Selection {
      * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
      * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
      * sub-range {@code [fromIndex, toIndex)}
-     * @since 1.3
+     * @see #parallelSelect(int[], int)
+     * @since 1.4
      */
-    public static void select(long[] a, int fromIndex, int toIndex, int k) {
+    public static void parallelSelect(int[] a, int fromIndex, int toIndex, int k) {
         IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
         IndexSupport.checkIndex(fromIndex, toIndex, k);
-        if (toIndex - fromIndex <= 1) {
-            return;
-        }
-        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+        doParallelSelect(a, fromIndex, toIndex, k);
     }
 
     /**
      * Partition the array such that indices {@code k} correspond to their correctly
      * sorted value in the equivalent fully sorted array.
      *
+     * <p>Large ranges are partitioned in parallel using fork/join tasks.
+     *
      * @param a Values.
      * @param fromIndex Index of the first element (inclusive).
      * @param toIndex Index of the last element (exclusive).
@@ -490,9 +824,988 @@ public final class Selection {
      * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
      * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
      * sub-range {@code [fromIndex, toIndex)}
-     * @since 1.3
+     * @see #parallelSelect(int[], int[])
+     * @since 1.4
      */
-    public static void select(long[] a, int fromIndex, int toIndex, int[] k) {
+    public static void parallelSelect(int[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doParallelSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Return the value at index {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static int selectValue(int[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        return BandSelect.select(a, 0, a.length, new int[] {k})[0];
+    }
+
+    /**
+     * Return the values at indices {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param k Indices.
+     * @return the values
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static int[] selectValues(int[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        return BandSelect.select(a, 0, a.length, k);
+    }
+
+    /**
+     * Return the value at index {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static int selectValue(int[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        return BandSelect.select(a, fromIndex, toIndex, new int[] {k})[0];
+    }
+
+    /**
+     * Return the values at indices {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @return the values
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static int[] selectValues(int[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        return BandSelect.select(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array. The remaining elements are partitioned around the sorted range:
+     *
+     * <pre>{@code
+     * a[i < ka] <= a[ka] <= ... <= a[kb] <= a[kb < i]
+     * }</pre>
+     *
+     * @param a Values.
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     * @throws IndexOutOfBoundsException if the range {@code [ka, kb]} is not within the
+     * sub-range {@code [0, a.length)}, or {@code ka > kb}
+     * @since 1.4
+     */
+    public static void partialSort(int[] a, int ka, int kb) {
+        IndexSupport.checkIndexRange(0, a.length, ka, kb);
+        doPartialSort(a, 0, a.length, ka, kb);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array. The remaining elements are partitioned around the sorted range:
+     *
+     * <pre>{@code
+     * a[fromIndex <= i < ka] <= a[ka] <= ... <= a[kb] <= a[kb < i < toIndex]
+     * }</pre>
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if the range {@code [ka, kb]} is not within the
+     * sub-range {@code [fromIndex, toIndex)}, or {@code ka > kb}
+     * @since 1.4
+     */
+    public static void partialSort(int[] a, int fromIndex, int toIndex, int ka, int kb) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndexRange(fromIndex, toIndex, ka, kb);
+        doPartialSort(a, fromIndex, toIndex, ka, kb);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     */
+    private static void doPartialSort(int[] a, int fromIndex, int toIndex, int ka, int kb) {
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.partialSort(a, fromIndex, toIndex - 1, ka, kb);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    private static void doParallelSelect(int[] a, int fromIndex, int toIndex, int k) {
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.select(a, fromIndex, toIndex, new int[] {k});
+        } else {
+            if (toIndex - fromIndex > 1) {
+                QuickSelect.select(a, fromIndex, toIndex - 1, k);
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    private static void doParallelSelect(int[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0) {
+            return;
+        }
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.select(a, fromIndex, toIndex, k);
+        } else {
+            if (toIndex - fromIndex > 1) {
+                QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large arrays are partitioned in parallel using fork/join tasks. The tasks are run
+     * in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. If the array is small, or the pool has a parallelism of 1, this
+     * method is equivalent to {@link #select(long[], int)}. The value at index {@code k}
+     * is the same; other elements may be in a different order.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void parallelSelect(long[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        doParallelSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large arrays are partitioned in parallel using fork/join tasks. The tasks are run
+     * in the {@link java.util.concurrent.ForkJoinPool ForkJoinPool} of the calling task,
+     * or the common pool. If the array is small, or the pool has a parallelism of 1, this
+     * method is equivalent to {@link #select(long[], int[])}. The values at indices
+     * {@code k} are the same; other elements may be in a different order.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void parallelSelect(long[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doParallelSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large ranges are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @see #parallelSelect(long[], int)
+     * @since 1.4
+     */
+    public static void parallelSelect(long[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doParallelSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large ranges are partitioned in parallel using fork/join tasks.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @see #parallelSelect(long[], int[])
+     * @since 1.4
+     */
+    public static void parallelSelect(long[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doParallelSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Return the value at index {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static long selectValue(long[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        return BandSelect.select(a, 0, a.length, new int[] {k})[0];
+    }
+
+    /**
+     * Return the values at indices {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param k Indices.
+     * @return the values
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static long[] selectValues(long[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        return BandSelect.select(a, 0, a.length, k);
+    }
+
+    /**
+     * Return the value at index {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static long selectValue(long[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        return BandSelect.select(a, fromIndex, toIndex, new int[] {k})[0];
+    }
+
+    /**
+     * Return the values at indices {@code k} in the equivalent fully sorted array.
+     *
+     * <p>The array is not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @return the values
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static long[] selectValues(long[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        return BandSelect.select(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array. The remaining elements are partitioned around the sorted range:
+     *
+     * <pre>{@code
+     * a[i < ka] <= a[ka] <= ... <= a[kb] <= a[kb < i]
+     * }</pre>
+     *
+     * @param a Values.
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     * @throws IndexOutOfBoundsException if the range {@code [ka, kb]} is not within the
+     * sub-range {@code [0, a.length)}, or {@code ka > kb}
+     * @since 1.4
+     */
+    public static void partialSort(long[] a, int ka, int kb) {
+        IndexSupport.checkIndexRange(0, a.length, ka, kb);
+        doPartialSort(a, 0, a.length, ka, kb);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array. The remaining elements are partitioned around the sorted range:
+     *
+     * <pre>{@code
+     * a[fromIndex <= i < ka] <= a[ka] <= ... <= a[kb] <= a[kb < i < toIndex]
+     * }</pre>
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if the range {@code [ka, kb]} is not within the
+     * sub-range {@code [fromIndex, toIndex)}, or {@code ka > kb}
+     * @since 1.4
+     */
+    public static void partialSort(long[] a, int fromIndex, int toIndex, int ka, int kb) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndexRange(fromIndex, toIndex, ka, kb);
+        doPartialSort(a, fromIndex, toIndex, ka, kb);
+    }
+
+    /**
+     * Partially sort the array such that the elements in the range {@code [ka, kb]}
+     * are sorted and correspond to their correctly sorted values in the equivalent fully
+     * sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param ka Lower index to sort (inclusive).
+     * @param kb Upper index to sort (inclusive).
+     */
+    private static void doPartialSort(long[] a, int fromIndex, int toIndex, int ka, int kb) {
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.partialSort(a, fromIndex, toIndex - 1, ka, kb);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    private static void doParallelSelect(long[] a, int fromIndex, int toIndex, int k) {
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.select(a, fromIndex, toIndex, new int[] {k});
+        } else {
+            if (toIndex - fromIndex > 1) {
+                QuickSelect.select(a, fromIndex, toIndex - 1, k);
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     */
+    private static void doParallelSelect(long[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0) {
+            return;
+        }
+        if (ParallelQuickSelect.isParallel(toIndex - fromIndex)) {
+            ParallelQuickSelect.select(a, fromIndex, toIndex, k);
+        } else {
+            if (toIndex - fromIndex > 1) {
+                QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(float[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        doSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(float[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(float[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(float[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Float#compare(float, float)}.
+     *
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param a Values.
+     * @param k Index.
+     */
+    private static void doSelect(float[] a, int fromIndex, int toIndex, int k) {
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        // Caution: This loop contributes significantly to the runtime.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final float v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Float.floatToRawIntBits(v) == Integer.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0f;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Partition
+        if (end - fromIndex > 1 && k < end) {
+            QuickSelect.select(a, fromIndex, end - 1, k);
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use partition index below zero to fast-forward to zero as much as possible
+            for (int j = a[k] < 0 ? k : fromIndex - 1;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0f;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Float#compare(float, float)}.
+     *
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     */
+    private static void doSelect(float[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        // Caution: This loop contributes significantly to the runtime for single indices.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final float v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Float.floatToRawIntBits(v) == Integer.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0f;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Partition
+        int n = 0;
+        if (end - fromIndex > 1) {
+            n = k.length;
+            // Filter indices invalidated by NaN check
+            if (end < toIndex) {
+                for (int i = n; --i >= 0;) {
+                    final int index = k[i];
+                    if (index >= end) {
+                        // Move to end
+                        k[i] = k[--n];
+                        k[n] = index;
+                    }
+                }
+            }
+            // Return n, the count of used indices in k.
+            // Use this to post-process zeros.
+            n = QuickSelect.select(a, fromIndex, end - 1, k, n);
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use partition indices below zero to fast-forward to zero as much as possible
+            int j = fromIndex - 1;
+            if (n < 0) {
+                // Binary search on -n sorted indices: hi = (-n) - 1
+                int lo = 0;
+                int hi = ~n;
+                while (lo <= hi) {
+                    final int mid = (lo + hi) >>> 1;
+                    if (a[k[mid]] < 0) {
+                        j = k[mid];
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+            } else {
+                // Unsorted, process all indices
+                for (int i = n; --i >= 0;) {
+                    if (a[k[i]] < 0) {
+                        j = k[i];
+                    }
+                }
+            }
+            for (;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0f;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(short[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(short[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(short[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(short[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(char[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(char[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(char[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(char[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(byte[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.4
+     */
+    public static void select(byte[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(byte[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.4
+     */
+    public static void select(byte[] a, int fromIndex, int toIndex, int[] k) {
         IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
         IndexSupport.checkIndices(fromIndex, toIndex, k);
         if (k.length == 0 || toIndex - fromIndex <= 1) {
@@ -17,12 +17,6 @@
 
 package org.apache.commons.numbers.arrays;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-
 /**
  * Sort an array and perform the same reordering of entries on other arrays.
  * For example, if
@@ -37,21 +31,26 @@ import java.util.List;
  *  <li>{@code y = [2, 3, 1]}</li>
  *  <li>{@code z = [5, 7, 0]}</li>
  * </ul>
+ *
+ * <p>Values are ordered using {@link Double#compare(double, double)}. The sort is
+ * stable: equal values retain their original relative order.
+ *
+ * @see CoSort
  */
 public enum SortInPlace {
     /** Sort in ascending order. */
-    ASCENDING((o1, o2) -> Double.compare(o1.key(), o2.key())),
+    ASCENDING(false),
     /** Sort in descending order. */
-    DESCENDING((o1, o2) -> Double.compare(o2.key(), o1.key()));
+    DESCENDING(true);
 
-    /** Comparator. */
-    private final Comparator<PairDoubleInteger> comparator;
+    /** Sort implementation. */
+    private final CoSort sorter;
 
     /**
-     * @param comparator Comparator.
+     * @param descending Flag for descending order.
      */
-    SortInPlace(Comparator<PairDoubleInteger> comparator) {
-        this.comparator = comparator;
+    SortInPlace(boolean descending) {
+        sorter = CoSort.withDefaults().withStable(true).withDescending(descending);
     }
 
     /**
@@ -65,74 +64,6 @@ public enum SortInPlace {
      */
     public void apply(double[] x,
                       double[]... yList) {
-        final int yListLen = yList.length;
-        final int len = x.length;
-
-        for (int j = 0; j < yListLen; j++) {
-            final double[] y = yList[j];
-            if (y.length != len) {
-                throw new IllegalArgumentException("Size mismatch: " +
-                                                   y.length + " != " + len);
-            }
-        }
-
-        // Associate each abscissa "x[i]" with its index "i".
-        final List<PairDoubleInteger> list = new ArrayList<>(len);
-        for (int i = 0; i < len; i++) {
-            list.add(new PairDoubleInteger(x[i], i));
-        }
-
-        // Sort.
-        Collections.sort(list, comparator);
-
-        // Modify the original array so that its elements are in the prescribed order.
-        // Retrieve indices of original locations.
-        final int[] indices = new int[len];
-        for (int i = 0; i < len; i++) {
-            final PairDoubleInteger e = list.get(i);
-            x[i] = e.key();
-            indices[i] = e.value();
-        }
-
-        // In every associated array, move the elements to their new location.
-        for (int j = 0; j < yListLen; j++) {
-            // Input array will be modified in place.
-            final double[] yInPlace = yList[j];
-            final double[] yOrig = Arrays.copyOf(yInPlace, len);
-
-            for (int i = 0; i < len; i++) {
-                yInPlace[i] = yOrig[indices[i]];
-            }
-        }
-    }
-
-    /**
-     * Helper data structure holding a (double, integer) pair.
-     */
-    private static class PairDoubleInteger {
-        /** Key. */
-        private final double key;
-        /** Value. */
-        private final int value;
-
-        /**
-         * @param key Key.
-         * @param value Value.
-         */
-        PairDoubleInteger(double key,
-                          int value) {
-            this.key = key;
-            this.value = value;
-        }
-
-        /** @return the key. */
-        double key() {
-            return key;
-        }
-
-        /** @return the value. */
-        int value() {
-            return value;
-        }
+        sorter.sortAll(x, yList);
     }
 }
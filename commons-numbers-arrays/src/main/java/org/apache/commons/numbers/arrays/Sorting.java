@@ -17,6 +17,7 @@
 package org.apache.commons.numbers.arrays;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Support class for sorting arrays.
@@ -264,6 +265,234 @@ final class Sorting {
         }
     }
 
+    /**
+     * Sorts an array using an insertion sort.
+     *
+     * @param x Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    static void sort(float[] x, int left, int right) {
+        for (int i = left; ++i <= right;) {
+            final float v = x[i];
+            // Move preceding higher elements above (if required)
+            if (v < x[i - 1]) {
+                int j = i;
+                while (--j >= left && v < x[j]) {
+                    x[j + 1] = x[j];
+                }
+                x[j + 1] = v;
+            }
+        }
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     */
+    static void sort3(float[] x, int a, int b, int c) {
+        // Decision tree avoiding swaps:
+        // Order [(0,2)]
+        // Move point 1 above point 2 or below point 0
+        final float u = x[a];
+        final float v = x[b];
+        final float w = x[c];
+        if (w < u) {
+            if (v < w) {
+                x[a] = v;
+                x[b] = w;
+                x[c] = u;
+                return;
+            }
+            if (u < v) {
+                x[a] = w;
+                x[b] = u;
+                x[c] = v;
+                return;
+            }
+            // w < v < u
+            x[a] = w;
+            x[c] = u;
+            return;
+        }
+        if (v < u) {
+            // v < u < w
+            x[a] = v;
+            x[b] = u;
+            return;
+        }
+        if (w < v) {
+            // u < w < v
+            x[b] = w;
+            x[c] = v;
+        }
+        // u < v < w
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     * @param e Index.
+     */
+    static void sort5(float[] x, int a, int b, int c, int d, int e) {
+        // Uses an optimal sorting network from Knuth's Art of Computer Programming.
+        // 9 comparisons.
+        // Order pairs:
+        // [(0,3),(1,4)]
+        // [(0,2),(1,3)]
+        // [(0,1),(2,4)]
+        // [(1,2),(3,4)]
+        // [(2,3)]
+        if (x[e] < x[b]) {
+            final float u = x[e];
+            x[e] = x[b];
+            x[b] = u;
+        }
+        if (x[d] < x[a]) {
+            final float v = x[d];
+            x[d] = x[a];
+            x[a] = v;
+        }
+
+        if (x[d] < x[b]) {
+            final float u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final float v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[c]) {
+            final float u = x[e];
+            x[e] = x[c];
+            x[c] = u;
+        }
+        if (x[b] < x[a]) {
+            final float v = x[b];
+            x[b] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[d]) {
+            final float u = x[e];
+            x[e] = x[d];
+            x[d] = u;
+        }
+        if (x[c] < x[b]) {
+            final float v = x[c];
+            x[c] = x[b];
+            x[b] = v;
+        }
+
+        if (x[d] < x[c]) {
+            final float u = x[d];
+            x[d] = x[c];
+            x[c] = u;
+        }
+    }
+
+    /**
+     * Place the lower median of 4 elements in {@code b}; the smaller element in
+     * {@code a}; and the larger two elements in {@code c, d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void lowerMedian4(float[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final float u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final float v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[c] < x[b]) {
+            final float u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[b] < x[a]) {
+            //    a--c
+            // b--d
+            final float xb = x[a];
+            x[a] = x[b];
+            x[b] = xb;
+            //    b--c
+            // a--d
+            if (x[d] < xb) {
+                x[b] = x[d];
+                // Move a pair to maintain the sorted order
+                x[d] = x[c];
+                x[c] = xb;
+            }
+        }
+    }
+
+    /**
+     * Place the upper median of 4 elements in {@code c}; the smaller two elements in
+     * {@code a,b}; and the larger element in {@code d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void upperMedian4(float[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final float u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final float v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[b] > x[c]) {
+            final float u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[c] > x[d]) {
+            //    a--c
+            // b--d
+            final float xc = x[d];
+            x[d] = x[c];
+            x[c] = xc;
+            //    a--d
+            // b--c
+            if (x[a] > xc) {
+                x[c] = x[a];
+                // Move a pair to maintain the sorted order
+                x[a] = x[b];
+                x[b] = xc;
+            }
+        }
+    }
+
     /**
      * Sorts an array using an insertion sort.
      *
@@ -273,7 +502,691 @@ final class Sorting {
      */
     static void sort(int[] x, int left, int right) {
         for (int i = left; ++i <= right;) {
-            final int v = x[i];
+            final int v = x[i];
+            // Move preceding higher elements above (if required)
+            if (v < x[i - 1]) {
+                int j = i;
+                while (--j >= left && v < x[j]) {
+                    x[j + 1] = x[j];
+                }
+                x[j + 1] = v;
+            }
+        }
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     */
+    static void sort3(int[] x, int a, int b, int c) {
+        // Decision tree avoiding swaps:
+        // Order [(0,2)]
+        // Move point 1 above point 2 or below point 0
+        final int u = x[a];
+        final int v = x[b];
+        final int w = x[c];
+        if (w < u) {
+            if (v < w) {
+                x[a] = v;
+                x[b] = w;
+                x[c] = u;
+                return;
+            }
+            if (u < v) {
+                x[a] = w;
+                x[b] = u;
+                x[c] = v;
+                return;
+            }
+            // w < v < u
+            x[a] = w;
+            x[c] = u;
+            return;
+        }
+        if (v < u) {
+            // v < u < w
+            x[a] = v;
+            x[b] = u;
+            return;
+        }
+        if (w < v) {
+            // u < w < v
+            x[b] = w;
+            x[c] = v;
+        }
+        // u < v < w
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     * @param e Index.
+     */
+    static void sort5(int[] x, int a, int b, int c, int d, int e) {
+        // Uses an optimal sorting network from Knuth's Art of Computer Programming.
+        // 9 comparisons.
+        // Order pairs:
+        // [(0,3),(1,4)]
+        // [(0,2),(1,3)]
+        // [(0,1),(2,4)]
+        // [(1,2),(3,4)]
+        // [(2,3)]
+        if (x[e] < x[b]) {
+            final int u = x[e];
+            x[e] = x[b];
+            x[b] = u;
+        }
+        if (x[d] < x[a]) {
+            final int v = x[d];
+            x[d] = x[a];
+            x[a] = v;
+        }
+
+        if (x[d] < x[b]) {
+            final int u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final int v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[c]) {
+            final int u = x[e];
+            x[e] = x[c];
+            x[c] = u;
+        }
+        if (x[b] < x[a]) {
+            final int v = x[b];
+            x[b] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[d]) {
+            final int u = x[e];
+            x[e] = x[d];
+            x[d] = u;
+        }
+        if (x[c] < x[b]) {
+            final int v = x[c];
+            x[c] = x[b];
+            x[b] = v;
+        }
+
+        if (x[d] < x[c]) {
+            final int u = x[d];
+            x[d] = x[c];
+            x[c] = u;
+        }
+    }
+
+    /**
+     * Place the lower median of 4 elements in {@code b}; the smaller element in
+     * {@code a}; and the larger two elements in {@code c, d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void lowerMedian4(int[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final int u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final int v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[c] < x[b]) {
+            final int u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[b] < x[a]) {
+            //    a--c
+            // b--d
+            final int xb = x[a];
+            x[a] = x[b];
+            x[b] = xb;
+            //    b--c
+            // a--d
+            if (x[d] < xb) {
+                x[b] = x[d];
+                // Move a pair to maintain the sorted order
+                x[d] = x[c];
+                x[c] = xb;
+            }
+        }
+    }
+
+    /**
+     * Place the upper median of 4 elements in {@code c}; the smaller two elements in
+     * {@code a,b}; and the larger element in {@code d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void upperMedian4(int[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final int u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final int v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[b] > x[c]) {
+            final int u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[c] > x[d]) {
+            //    a--c
+            // b--d
+            final int xc = x[d];
+            x[d] = x[c];
+            x[c] = xc;
+            //    a--d
+            // b--c
+            if (x[a] > xc) {
+                x[c] = x[a];
+                // Move a pair to maintain the sorted order
+                x[a] = x[b];
+                x[b] = xc;
+            }
+        }
+    }
+
+    /**
+     * Sorts an array using an insertion sort.
+     *
+     * @param x Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    static void sort(long[] x, int left, int right) {
+        for (int i = left; ++i <= right;) {
+            final long v = x[i];
+            // Move preceding higher elements above (if required)
+            if (v < x[i - 1]) {
+                int j = i;
+                while (--j >= left && v < x[j]) {
+                    x[j + 1] = x[j];
+                }
+                x[j + 1] = v;
+            }
+        }
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     */
+    static void sort3(long[] x, int a, int b, int c) {
+        // Decision tree avoiding swaps:
+        // Order [(0,2)]
+        // Move point 1 above point 2 or below point 0
+        final long u = x[a];
+        final long v = x[b];
+        final long w = x[c];
+        if (w < u) {
+            if (v < w) {
+                x[a] = v;
+                x[b] = w;
+                x[c] = u;
+                return;
+            }
+            if (u < v) {
+                x[a] = w;
+                x[b] = u;
+                x[c] = v;
+                return;
+            }
+            // w < v < u
+            x[a] = w;
+            x[c] = u;
+            return;
+        }
+        if (v < u) {
+            // v < u < w
+            x[a] = v;
+            x[b] = u;
+            return;
+        }
+        if (w < v) {
+            // u < w < v
+            x[b] = w;
+            x[c] = v;
+        }
+        // u < v < w
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     * @param e Index.
+     */
+    static void sort5(long[] x, int a, int b, int c, int d, int e) {
+        // Uses an optimal sorting network from Knuth's Art of Computer Programming.
+        // 9 comparisons.
+        // Order pairs:
+        // [(0,3),(1,4)]
+        // [(0,2),(1,3)]
+        // [(0,1),(2,4)]
+        // [(1,2),(3,4)]
+        // [(2,3)]
+        if (x[e] < x[b]) {
+            final long u = x[e];
+            x[e] = x[b];
+            x[b] = u;
+        }
+        if (x[d] < x[a]) {
+            final long v = x[d];
+            x[d] = x[a];
+            x[a] = v;
+        }
+
+        if (x[d] < x[b]) {
+            final long u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final long v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[c]) {
+            final long u = x[e];
+            x[e] = x[c];
+            x[c] = u;
+        }
+        if (x[b] < x[a]) {
+            final long v = x[b];
+            x[b] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[d]) {
+            final long u = x[e];
+            x[e] = x[d];
+            x[d] = u;
+        }
+        if (x[c] < x[b]) {
+            final long v = x[c];
+            x[c] = x[b];
+            x[b] = v;
+        }
+
+        if (x[d] < x[c]) {
+            final long u = x[d];
+            x[d] = x[c];
+            x[c] = u;
+        }
+    }
+
+    /**
+     * Place the lower median of 4 elements in {@code b}; the smaller element in
+     * {@code a}; and the larger two elements in {@code c, d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void lowerMedian4(long[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final long u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final long v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[c] < x[b]) {
+            final long u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[b] < x[a]) {
+            //    a--c
+            // b--d
+            final long xb = x[a];
+            x[a] = x[b];
+            x[b] = xb;
+            //    b--c
+            // a--d
+            if (x[d] < xb) {
+                x[b] = x[d];
+                // Move a pair to maintain the sorted order
+                x[d] = x[c];
+                x[c] = xb;
+            }
+        }
+    }
+
+    /**
+     * Place the upper median of 4 elements in {@code c}; the smaller two elements in
+     * {@code a,b}; and the larger element in {@code d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void upperMedian4(long[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final long u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final long v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[b] > x[c]) {
+            final long u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[c] > x[d]) {
+            //    a--c
+            // b--d
+            final long xc = x[d];
+            x[d] = x[c];
+            x[c] = xc;
+            //    a--d
+            // b--c
+            if (x[a] > xc) {
+                x[c] = x[a];
+                // Move a pair to maintain the sorted order
+                x[a] = x[b];
+                x[b] = xc;
+            }
+        }
+    }
+
+    /**
+     * Sorts an array using an insertion sort.
+     *
+     * @param x Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    static void sort(short[] x, int left, int right) {
+        for (int i = left; ++i <= right;) {
+            final short v = x[i];
+            // Move preceding higher elements above (if required)
+            if (v < x[i - 1]) {
+                int j = i;
+                while (--j >= left && v < x[j]) {
+                    x[j + 1] = x[j];
+                }
+                x[j + 1] = v;
+            }
+        }
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     */
+    static void sort3(short[] x, int a, int b, int c) {
+        // Decision tree avoiding swaps:
+        // Order [(0,2)]
+        // Move point 1 above point 2 or below point 0
+        final short u = x[a];
+        final short v = x[b];
+        final short w = x[c];
+        if (w < u) {
+            if (v < w) {
+                x[a] = v;
+                x[b] = w;
+                x[c] = u;
+                return;
+            }
+            if (u < v) {
+                x[a] = w;
+                x[b] = u;
+                x[c] = v;
+                return;
+            }
+            // w < v < u
+            x[a] = w;
+            x[c] = u;
+            return;
+        }
+        if (v < u) {
+            // v < u < w
+            x[a] = v;
+            x[b] = u;
+            return;
+        }
+        if (w < v) {
+            // u < w < v
+            x[b] = w;
+            x[c] = v;
+        }
+        // u < v < w
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     * @param e Index.
+     */
+    static void sort5(short[] x, int a, int b, int c, int d, int e) {
+        // Uses an optimal sorting network from Knuth's Art of Computer Programming.
+        // 9 comparisons.
+        // Order pairs:
+        // [(0,3),(1,4)]
+        // [(0,2),(1,3)]
+        // [(0,1),(2,4)]
+        // [(1,2),(3,4)]
+        // [(2,3)]
+        if (x[e] < x[b]) {
+            final short u = x[e];
+            x[e] = x[b];
+            x[b] = u;
+        }
+        if (x[d] < x[a]) {
+            final short v = x[d];
+            x[d] = x[a];
+            x[a] = v;
+        }
+
+        if (x[d] < x[b]) {
+            final short u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final short v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[c]) {
+            final short u = x[e];
+            x[e] = x[c];
+            x[c] = u;
+        }
+        if (x[b] < x[a]) {
+            final short v = x[b];
+            x[b] = x[a];
+            x[a] = v;
+        }
+
+        if (x[e] < x[d]) {
+            final short u = x[e];
+            x[e] = x[d];
+            x[d] = u;
+        }
+        if (x[c] < x[b]) {
+            final short v = x[c];
+            x[c] = x[b];
+            x[b] = v;
+        }
+
+        if (x[d] < x[c]) {
+            final short u = x[d];
+            x[d] = x[c];
+            x[c] = u;
+        }
+    }
+
+    /**
+     * Place the lower median of 4 elements in {@code b}; the smaller element in
+     * {@code a}; and the larger two elements in {@code c, d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void lowerMedian4(short[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final short u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final short v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[c] < x[b]) {
+            final short u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[b] < x[a]) {
+            //    a--c
+            // b--d
+            final short xb = x[a];
+            x[a] = x[b];
+            x[b] = xb;
+            //    b--c
+            // a--d
+            if (x[d] < xb) {
+                x[b] = x[d];
+                // Move a pair to maintain the sorted order
+                x[d] = x[c];
+                x[c] = xb;
+            }
+        }
+    }
+
+    /**
+     * Place the upper median of 4 elements in {@code c}; the smaller two elements in
+     * {@code a,b}; and the larger element in {@code d}.
+     *
+     * @param x Values
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     */
+    static void upperMedian4(short[] x, int a, int b, int c, int d) {
+        // 3 to 5 comparisons
+        if (x[d] < x[b]) {
+            final short u = x[d];
+            x[d] = x[b];
+            x[b] = u;
+        }
+        if (x[c] < x[a]) {
+            final short v = x[c];
+            x[c] = x[a];
+            x[a] = v;
+        }
+        // a--c
+        // b--d
+        if (x[b] > x[c]) {
+            final short u = x[c];
+            x[c] = x[b];
+            x[b] = u;
+        } else if (x[c] > x[d]) {
+            //    a--c
+            // b--d
+            final short xc = x[d];
+            x[d] = x[c];
+            x[c] = xc;
+            //    a--d
+            // b--c
+            if (x[a] > xc) {
+                x[c] = x[a];
+                // Move a pair to maintain the sorted order
+                x[a] = x[b];
+                x[b] = xc;
+            }
+        }
+    }
+
+    /**
+     * Sorts an array using an insertion sort.
+     *
+     * @param x Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    static void sort(char[] x, int left, int right) {
+        for (int i = left; ++i <= right;) {
+            final char v = x[i];
             // Move preceding higher elements above (if required)
             if (v < x[i - 1]) {
                 int j = i;
@@ -293,13 +1206,13 @@ final class Sorting {
      * @param b Index.
      * @param c Index.
      */
-    static void sort3(int[] x, int a, int b, int c) {
+    static void sort3(char[] x, int a, int b, int c) {
         // Decision tree avoiding swaps:
         // Order [(0,2)]
         // Move point 1 above point 2 or below point 0
-        final int u = x[a];
-        final int v = x[b];
-        final int w = x[c];
+        final char u = x[a];
+        final char v = x[b];
+        final char w = x[c];
         if (w < u) {
             if (v < w) {
                 x[a] = v;
@@ -342,7 +1255,7 @@ final class Sorting {
      * @param d Index.
      * @param e Index.
      */
-    static void sort5(int[] x, int a, int b, int c, int d, int e) {
+    static void sort5(char[] x, int a, int b, int c, int d, int e) {
         // Uses an optimal sorting network from Knuth's Art of Computer Programming.
         // 9 comparisons.
         // Order pairs:
@@ -352,51 +1265,51 @@ final class Sorting {
         // [(1,2),(3,4)]
         // [(2,3)]
         if (x[e] < x[b]) {
-            final int u = x[e];
+            final char u = x[e];
             x[e] = x[b];
             x[b] = u;
         }
         if (x[d] < x[a]) {
-            final int v = x[d];
+            final char v = x[d];
             x[d] = x[a];
             x[a] = v;
         }
 
         if (x[d] < x[b]) {
-            final int u = x[d];
+            final char u = x[d];
             x[d] = x[b];
             x[b] = u;
         }
         if (x[c] < x[a]) {
-            final int v = x[c];
+            final char v = x[c];
             x[c] = x[a];
             x[a] = v;
         }
 
         if (x[e] < x[c]) {
-            final int u = x[e];
+            final char u = x[e];
             x[e] = x[c];
             x[c] = u;
         }
         if (x[b] < x[a]) {
-            final int v = x[b];
+            final char v = x[b];
             x[b] = x[a];
             x[a] = v;
         }
 
         if (x[e] < x[d]) {
-            final int u = x[e];
+            final char u = x[e];
             x[e] = x[d];
             x[d] = u;
         }
         if (x[c] < x[b]) {
-            final int v = x[c];
+            final char v = x[c];
             x[c] = x[b];
             x[b] = v;
         }
 
         if (x[d] < x[c]) {
-            final int u = x[d];
+            final char u = x[d];
             x[d] = x[c];
             x[c] = u;
         }
@@ -412,28 +1325,28 @@ final class Sorting {
      * @param c Index.
      * @param d Index.
      */
-    static void lowerMedian4(int[] x, int a, int b, int c, int d) {
+    static void lowerMedian4(char[] x, int a, int b, int c, int d) {
         // 3 to 5 comparisons
         if (x[d] < x[b]) {
-            final int u = x[d];
+            final char u = x[d];
             x[d] = x[b];
             x[b] = u;
         }
         if (x[c] < x[a]) {
-            final int v = x[c];
+            final char v = x[c];
             x[c] = x[a];
             x[a] = v;
         }
         // a--c
         // b--d
         if (x[c] < x[b]) {
-            final int u = x[c];
+            final char u = x[c];
             x[c] = x[b];
             x[b] = u;
         } else if (x[b] < x[a]) {
             //    a--c
             // b--d
-            final int xb = x[a];
+            final char xb = x[a];
             x[a] = x[b];
             x[b] = xb;
             //    b--c
@@ -457,28 +1370,28 @@ final class Sorting {
      * @param c Index.
      * @param d Index.
      */
-    static void upperMedian4(int[] x, int a, int b, int c, int d) {
+    static void upperMedian4(char[] x, int a, int b, int c, int d) {
         // 3 to 5 comparisons
         if (x[d] < x[b]) {
-            final int u = x[d];
+            final char u = x[d];
             x[d] = x[b];
             x[b] = u;
         }
         if (x[c] < x[a]) {
-            final int v = x[c];
+            final char v = x[c];
             x[c] = x[a];
             x[a] = v;
         }
         // a--c
         // b--d
         if (x[b] > x[c]) {
-            final int u = x[c];
+            final char u = x[c];
             x[c] = x[b];
             x[b] = u;
         } else if (x[c] > x[d]) {
             //    a--c
             // b--d
-            final int xc = x[d];
+            final char xc = x[d];
             x[d] = x[c];
             x[c] = xc;
             //    a--d
@@ -499,9 +1412,9 @@ final class Sorting {
      * @param left Lower bound (inclusive).
      * @param right Upper bound (inclusive).
      */
-    static void sort(long[] x, int left, int right) {
+    static void sort(byte[] x, int left, int right) {
         for (int i = left; ++i <= right;) {
-            final long v = x[i];
+            final byte v = x[i];
             // Move preceding higher elements above (if required)
             if (v < x[i - 1]) {
                 int j = i;
@@ -521,13 +1434,13 @@ final class Sorting {
      * @param b Index.
      * @param c Index.
      */
-    static void sort3(long[] x, int a, int b, int c) {
+    static void sort3(byte[] x, int a, int b, int c) {
         // Decision tree avoiding swaps:
         // Order [(0,2)]
         // Move point 1 above point 2 or below point 0
-        final long u = x[a];
-        final long v = x[b];
-        final long w = x[c];
+        final byte u = x[a];
+        final byte v = x[b];
+        final byte w = x[c];
         if (w < u) {
             if (v < w) {
                 x[a] = v;
@@ -570,7 +1483,7 @@ final class Sorting {
      * @param d Index.
      * @param e Index.
      */
-    static void sort5(long[] x, int a, int b, int c, int d, int e) {
+    static void sort5(byte[] x, int a, int b, int c, int d, int e) {
         // Uses an optimal sorting network from Knuth's Art of Computer Programming.
         // 9 comparisons.
         // Order pairs:
@@ -580,51 +1493,51 @@ final class Sorting {
         // [(1,2),(3,4)]
         // [(2,3)]
         if (x[e] < x[b]) {
-            final long u = x[e];
+            final byte u = x[e];
             x[e] = x[b];
             x[b] = u;
         }
         if (x[d] < x[a]) {
-            final long v = x[d];
+            final byte v = x[d];
             x[d] = x[a];
             x[a] = v;
         }
 
         if (x[d] < x[b]) {
-            final long u = x[d];
+            final byte u = x[d];
             x[d] = x[b];
             x[b] = u;
         }
         if (x[c] < x[a]) {
-            final long v = x[c];
+            final byte v = x[c];
             x[c] = x[a];
             x[a] = v;
         }
 
         if (x[e] < x[c]) {
-            final long u = x[e];
+            final byte u = x[e];
             x[e] = x[c];
             x[c] = u;
         }
         if (x[b] < x[a]) {
-            final long v = x[b];
+            final byte v = x[b];
             x[b] = x[a];
             x[a] = v;
         }
 
         if (x[e] < x[d]) {
-            final long u = x[e];
+            final byte u = x[e];
             x[e] = x[d];
             x[d] = u;
         }
         if (x[c] < x[b]) {
-            final long v = x[c];
+            final byte v = x[c];
             x[c] = x[b];
             x[b] = v;
         }
 
         if (x[d] < x[c]) {
-            final long u = x[d];
+            final byte u = x[d];
             x[d] = x[c];
             x[c] = u;
         }
@@ -640,28 +1553,28 @@ final class Sorting {
      * @param c Index.
      * @param d Index.
      */
-    static void lowerMedian4(long[] x, int a, int b, int c, int d) {
+    static void lowerMedian4(byte[] x, int a, int b, int c, int d) {
         // 3 to 5 comparisons
         if (x[d] < x[b]) {
-            final long u = x[d];
+            final byte u = x[d];
             x[d] = x[b];
             x[b] = u;
         }
         if (x[c] < x[a]) {
-            final long v = x[c];
+            final byte v = x[c];
             x[c] = x[a];
             x[a] = v;
         }
         // a--c
         // b--d
         if (x[c] < x[b]) {
-            final long u = x[c];
+            final byte u = x[c];
             x[c] = x[b];
             x[b] = u;
         } else if (x[b] < x[a]) {
             //    a--c
             // b--d
-            final long xb = x[a];
+            final byte xb = x[a];
             x[a] = x[b];
             x[b] = xb;
             //    b--c
@@ -685,28 +1598,28 @@ final class Sorting {
      * @param c Index.
      * @param d Index.
      */
-    static void upperMedian4(long[] x, int a, int b, int c, int d) {
+    static void upperMedian4(byte[] x, int a, int b, int c, int d) {
         // 3 to 5 comparisons
         if (x[d] < x[b]) {
-            final long u = x[d];
+            final byte u = x[d];
             x[d] = x[b];
             x[b] = u;
         }
         if (x[c] < x[a]) {
-            final long v = x[c];
+            final byte v = x[c];
             x[c] = x[a];
             x[a] = v;
         }
         // a--c
         // b--d
         if (x[b] > x[c]) {
-            final long u = x[c];
+            final byte u = x[c];
             x[c] = x[b];
             x[b] = u;
         } else if (x[c] > x[d]) {
             //    a--c
             // b--d
-            final long xc = x[d];
+            final byte xc = x[d];
             x[d] = x[c];
             x[c] = xc;
             //    a--d
@@ -720,6 +1633,29 @@ final class Sorting {
         }
     }
 
+    /**
+     * Sorts an array using an insertion sort.
+     *
+     * @param <T> Type of the elements.
+     * @param x Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param c Comparator.
+     */
+    static <T> void sort(T[] x, int left, int right, Comparator<? super T> c) {
+        for (int i = left; ++i <= right;) {
+            final T v = x[i];
+            // Move preceding higher elements above (if required)
+            if (c.compare(v, x[i - 1]) < 0) {
+                int j = i;
+                while (--j >= left && c.compare(v, x[j]) < 0) {
+                    x[j + 1] = x[j];
+                }
+                x[j + 1] = v;
+            }
+        }
+    }
+
     /**
      * Sort the unique indices in-place to the start of the array. The number of
      * unique indices is returned.
@@ -794,4 +1730,26 @@ final class Sorting {
         Arrays.sort(x, 0, ++last);
         return last;
     }
+
+    /**
+     * Map the value to a key with the same ordering as {@link Double#compare(double, double)}
+     * when compared as a signed {@code long}. All {@code NaN} values map to the same key.
+     *
+     * @param x Value.
+     * @return the key
+     */
+    static long toKey(double x) {
+        final long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Map the key to a value. This is the inverse of {@link #toKey(double)}.
+     *
+     * @param k Key.
+     * @return the value
+     */
+    static double fromKey(long k) {
+        return Double.longBitsToDouble(k ^ ((k >> 63) & Long.MAX_VALUE));
+    }
 }
@@ -0,0 +1,534 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Provides weighted quantile computation.
+ *
+ * <p>Each value {@code x[i]} has a non-negative weight {@code w[i]}. For ordered
+ * distinct values with a cumulative weight {@code C(x)} of all values less than or
+ * equal to {@code x}, and total weight {@code W}, the {@code p}-th quantile is the
+ * smallest value {@code x} with {@code C(x) >= pW}. If {@code C(x) = pW} exactly the
+ * quantile is the mean of {@code x} and the next larger value. This is the inverse of
+ * the weighted empirical distribution function with averaging at discontinuities. The
+ * {@code p = 0.5} quantile is the weighted median.
+ *
+ * <p>Ties are handled exactly:
+ * <ul>
+ * <li>Equal values are treated as a single value with the sum of their weights.
+ * <li>Values with a weight of zero are ignored.
+ * <li>If the weights are all {@code 1} the result is identical to the
+ * {@link Quantile.EstimationMethod#HF2 HF2} quantile of the values. If the weights are
+ * integers the result is identical to the {@code HF2} quantile of the values where each
+ * value is repeated by its weight.
+ * </ul>
+ *
+ * <p>The comparison of the cumulative weight with {@code pW} is exact when all the sums
+ * of weights are exactly representable, for example integer weights below
+ * 2<sup>53</sup>. Otherwise the cumulative weights are subject to floating-point
+ * rounding and the detection of {@code C(x) = pW} depends on the summation order.
+ *
+ * <p>The result is {@code NaN} if there are no values, or the total weight is zero.
+ *
+ * <p>Floating-point values are ordered using {@link Double#compare(double, double)}.
+ * The handling of {@code NaN} is configured using a {@link NaNPolicy}. If {@code NaN}
+ * is included then it is considered greater than any other value and the result may be
+ * {@code NaN}.
+ *
+ * <p>Instances of this class are immutable and thread-safe. The data is not modified
+ * unless the instance is configured with {@code copy=false}; in this case the values
+ * and weights are partially sorted in-place and the same reordering is applied to
+ * both arrays.
+ *
+ * <p>Implementation details
+ *
+ * <p>The quantile is found using a quickselect on the values that partitions the values
+ * and weights together, accumulating the weight below and equal to the pivot value. The
+ * partition that contains the target cumulative weight is processed until the target
+ * is within the values equal to the pivot. This has linear expected run time. If a
+ * partition does not sufficiently reduce the range containing the target then the next
+ * pivot is the median of the range identified using {@link Selection}; this ensures
+ * worse-case linear run time performance. Multiple quantiles are computed by recursively
+ * dividing the range only into partitions containing targets.
+ *
+ * @see Quantile
+ * @since 1.4
+ */
+public final class WeightedQuantile {
+    /** Default instance. */
+    private static final WeightedQuantile DEFAULT = new WeightedQuantile(true, NaNPolicy.INCLUDE);
+    /** Range length above which the pivot is chosen using the median of 3 medians-of-3
+     * (Tukey's ninther); otherwise the median-of-3 is used. */
+    private static final int NINTHER_SIZE = 40;
+
+    /** Flag to indicate if the data should be copied. */
+    private final boolean copy;
+    /** NaN policy for floating-point data. */
+    private final NaNPolicy nanPolicy;
+
+    /**
+     * @param copy Flag to indicate if the data should be copied.
+     * @param nanPolicy NaN policy.
+     */
+    private WeightedQuantile(boolean copy, NaNPolicy nanPolicy) {
+        this.copy = copy;
+        this.nanPolicy = nanPolicy;
+    }
+
+    /**
+     * Return an instance with the default options.
+     *
+     * <ul>
+     * <li>{@linkplain #withCopy(boolean) Copy = true}
+     * <li>{@linkplain #with(NaNPolicy) NaN policy = include}
+     * </ul>
+     *
+     * <p>Note: The default options do not modify the input data. Processing in-place
+     * using {@code copy=false} is more efficient when the data can be reordered.
+     *
+     * @return the quantile implementation
+     * @see #withCopy(boolean)
+     * @see #with(NaNPolicy)
+     */
+    public static WeightedQuantile withDefaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Return an instance with the configured copy behaviour. If {@code false} then
+     * the input values and weights will be reordered together by the call to evaluate
+     * the quantiles; otherwise the computation uses a copy of the data.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public WeightedQuantile withCopy(boolean v) {
+        return new WeightedQuantile(v, nanPolicy);
+    }
+
+    /**
+     * Return an instance with the configured {@link NaNPolicy}.
+     *
+     * <p>Note: This implementation respects the ordering imposed by
+     * {@link Double#compare(double, double)} for {@code NaN} values: {@code NaN} is
+     * considered greater than all other values, and all {@code NaN} values are equal.
+     * The {@link NaNPolicy} changes the computation of the quantile as follows:
+     * <ul>
+     * <li>Include {@code NaN} and its weight in the data; quantiles that use {@code NaN}
+     * will be {@code NaN}.
+     * <li>Exclude {@code NaN} and its weight from the data.
+     * <li>Error if the data contains {@code NaN}.
+     * </ul>
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public WeightedQuantile with(NaNPolicy v) {
+        return new WeightedQuantile(copy, Objects.requireNonNull(v));
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of the weighted values.
+     *
+     * <p>Note: This method may partially sort the input values and weights if not
+     * configured to {@link #withCopy(boolean) copy} the input data.
+     *
+     * @param values Values.
+     * @param weights Weights.
+     * @param p Probability for the quantile to compute.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability {@code p} is not in the range {@code [0, 1]};
+     * if the values and weights are different lengths; if any weight is negative, infinite
+     * or {@code NaN}; if the total weight is infinite; or if the values contain NaN and the
+     * configuration is {@link NaNPolicy#ERROR}
+     * @see #with(NaNPolicy)
+     */
+    public double evaluate(double[] values, double[] weights, double p) {
+        return evaluate(values, weights, new double[] {p})[0];
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantiles of the weighted values.
+     *
+     * <p>Note: This method may partially sort the input values and weights if not
+     * configured to {@link #withCopy(boolean) copy} the input data.
+     *
+     * @param values Values.
+     * @param weights Weights.
+     * @param p Probabilities for the quantiles to compute.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability {@code p} is not in the range {@code [0, 1]};
+     * if the values and weights are different lengths; if any weight is negative, infinite
+     * or {@code NaN}; if the total weight is infinite; or if the values contain NaN and the
+     * configuration is {@link NaNPolicy#ERROR}
+     * @see #with(NaNPolicy)
+     */
+    public double[] evaluate(double[] values, double[] weights, double... p) {
+        checkProbabilities(p);
+        if (values.length != weights.length) {
+            throw new IllegalArgumentException("Size mismatch: " + values.length + " != " + weights.length);
+        }
+        final double[] x;
+        final double[] w;
+        if (copy) {
+            x = new double[values.length];
+            w = new double[values.length];
+        } else {
+            x = values;
+            w = weights;
+        }
+        // Weights of the values in [0, n) and of NaN
+        final double[] sum = new double[2];
+        final int n = prepare(values, weights, x, w, sum);
+        final double total = sum[0] + sum[1];
+        if (total == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Infinite total weight");
+        }
+        final double[] q = new double[p.length];
+        if (total == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+        // Unique targets in ascending order. Targets that use the NaN weight are NaN.
+        final double[] t = new double[p.length];
+        int m = 0;
+        for (final double pi : p) {
+            final double ti = pi * total;
+            if (sum[1] == 0 || ti < sum[0]) {
+                t[m++] = ti;
+            }
+        }
+        Arrays.sort(t, 0, m);
+        int u = 0;
+        for (int i = 0; i < m; i++) {
+            if (u == 0 || t[i] != t[u - 1]) {
+                t[u++] = t[i];
+            }
+        }
+        final double[] r = new double[u];
+        if (u != 0) {
+            new Selector(x, w, t, r).select(0, n - 1, 0, Double.NaN, 0, u - 1);
+        }
+        for (int i = 0; i < p.length; i++) {
+            final double ti = p[i] * total;
+            final int j = sum[1] == 0 || ti < sum[0] ? Arrays.binarySearch(t, 0, u, ti) : -1;
+            q[i] = j < 0 ? Double.NaN : r[j];
+        }
+        return q;
+    }
+
+    /**
+     * Validate the weights and apply the NaN policy. Values with a positive weight, and
+     * that are not {@code NaN}, are moved to the start of the destination arrays. The
+     * count of these values is returned. The sum of their weights, and the sum of the
+     * weights of included {@code NaN} values, is stored in {@code sum}.
+     *
+     * <p>The destination arrays may be the source arrays.
+     *
+     * @param values Values.
+     * @param weights Weights.
+     * @param x Destination for the values.
+     * @param w Destination for the weights.
+     * @param sum Sum of the weights of the values and of NaN.
+     * @return the count of values
+     * @throws IllegalArgumentException if any weight is negative, infinite or {@code NaN};
+     * or if the values contain NaN and the configuration is {@link NaNPolicy#ERROR}
+     */
+    private int prepare(double[] values, double[] weights, double[] x, double[] w, double[] sum) {
+        double s = 0;
+        double nan = 0;
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double v = values[i];
+            final double wi = weights[i];
+            if (!(wi >= 0 && wi < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("Invalid weight: " + wi);
+            }
+            if (v != v) {
+                if (nanPolicy == NaNPolicy.ERROR) {
+                    throw new IllegalArgumentException("NaN in data");
+                }
+                if (nanPolicy == NaNPolicy.INCLUDE) {
+                    nan += wi;
+                }
+            } else if (wi != 0) {
+                s += wi;
+                // Move to the start. In-place this swaps with the first excluded value.
+                x[i] = x[n];
+                w[i] = w[n];
+                x[n] = v;
+                w[n] = wi;
+                n++;
+            }
+        }
+        sum[0] = s;
+        sum[1] = nan;
+        return n;
+    }
+
+    /**
+     * Selection of the quantiles for target cumulative weights. This holds the data, the
+     * targets and the working space of the recursive selection.
+     */
+    private static final class Selector {
+        /** Values. */
+        private final double[] x;
+        /** Weights. */
+        private final double[] w;
+        /** Target cumulative weights (unique and ascending). */
+        private final double[] t;
+        /** Quantile of each target. */
+        private final double[] q;
+        /** Partition weights {@code [less, equal]}. */
+        private final double[] sums = new double[2];
+        /** Partition bounds {@code [lower, upper]}. */
+        private final int[] bounds = new int[2];
+
+        /**
+         * @param x Values.
+         * @param w Weights.
+         * @param t Target cumulative weights (unique and ascending).
+         * @param q Quantile of each target.
+         */
+        Selector(double[] x, double[] w, double[] t, double[] q) {
+            this.x = x;
+            this.w = w;
+            this.t = t;
+            this.q = q;
+        }
+
+        /**
+         * Find the quantiles for the target cumulative weights within the range.
+         *
+         * <p>The values outside the range are ordered: values below the range have a total
+         * weight of {@code below}; values above the range have a minimum of {@code upper}.
+         * The target cumulative weights must be within the range.
+         *
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @param below Weight of the values below the range.
+         * @param upper Minimum value above the range ({@code NaN} if there are no values).
+         * @param ta Index of the first target (inclusive).
+         * @param tb Index of the last target (inclusive).
+         */
+        void select(int left, int right, double below, double upper, int ta, int tb) {
+            int l = left;
+            int r = right;
+            double b0 = below;
+            double up = upper;
+            int i0 = ta;
+            int i1 = tb;
+            boolean linear = false;
+            while (i0 <= i1) {
+                final int size = r - l;
+                final double v = linear ? Selection.selectValue(x, l, r + 1, (l + r) >>> 1) : pivot(x, l, r);
+                partition(x, w, l, r, v, bounds, sums);
+                final int lt = bounds[0];
+                final int gt = bounds[1];
+                // Cumulative weight below and including the pivot value
+                final double b = b0 + sums[0];
+                final double c = b + sums[1];
+                // Divide the targets: [i0, j0) <= b; (j1, i1] > c
+                int j0 = i0;
+                if (lt > l) {
+                    while (j0 <= i1 && t[j0] <= b) {
+                        j0++;
+                    }
+                }
+                int j1 = i1;
+                if (gt < r) {
+                    while (j1 >= j0 && t[j1] > c) {
+                        j1--;
+                    }
+                }
+                for (int j = j0; j <= j1; j++) {
+                    q[j] = v;
+                }
+                // Average with the next value if the target is exactly the cumulative weight.
+                // The targets in [j0, j1] are not above c.
+                if (j0 <= j1 && t[j1] >= c) {
+                    if (gt < r) {
+                        q[j1] = Quantile.interpolate(v, min(x, gt + 1, r), 0.5);
+                    } else if (up == up) {
+                        q[j1] = Quantile.interpolate(v, up, 0.5);
+                    }
+                }
+                // Recurse into the smaller range; continue with the larger range
+                if (lt - l < r - gt) {
+                    if (j0 > i0) {
+                        select(l, lt - 1, b0, v, i0, j0 - 1);
+                    }
+                    l = gt + 1;
+                    b0 = c;
+                    i0 = j1 + 1;
+                } else {
+                    if (j1 < i1) {
+                        select(gt + 1, r, c, up, j1 + 1, i1);
+                    }
+                    r = lt - 1;
+                    up = v;
+                    i1 = j0 - 1;
+                }
+                // Adaption: switch to a guaranteed margin if the range did not reduce by 1/4
+                linear = r - l > size - (size >>> 2);
+            }
+        }
+    }
+
+    /**
+     * Partition the range into values less than, equal to, and greater than the
+     * pivot value. The weights are reordered with the values.
+     *
+     * <p>The bounds of the central region of values equal to the pivot are returned
+     * as {@code [lower, upper]} (inclusive). The sum of the weights of the values
+     * less than and equal to the pivot are returned in {@code sums}.
+     *
+     * @param x Values.
+     * @param w Weights.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param v Pivot value.
+     * @param bounds Partition bounds {@code [lower, upper]}.
+     * @param sums Weights {@code [less, equal]}.
+     */
+    private static void partition(double[] x, double[] w, int l, int r, double v,
+            int[] bounds, double[] sums) {
+        // Dijkstra's 3-way partition:
+        // |  <v  |  ==v  |  ???  |  >v  |
+        //        lt      i       gt
+        double less = 0;
+        double equal = 0;
+        int lt = l;
+        int gt = r;
+        for (int i = l; i <= gt;) {
+            final double y = x[i];
+            final double wi = w[i];
+            final int c = compare(y, v);
+            if (c < 0) {
+                less += wi;
+                x[i] = x[lt];
+                w[i] = w[lt];
+                x[lt] = y;
+                w[lt] = wi;
+                i++;
+                lt++;
+            } else if (c > 0) {
+                x[i] = x[gt];
+                w[i] = w[gt];
+                x[gt] = y;
+                w[gt] = wi;
+                gt--;
+            } else {
+                equal += wi;
+                i++;
+            }
+        }
+        bounds[0] = lt;
+        bounds[1] = gt;
+        sums[0] = less;
+        sums[1] = equal;
+    }
+
+    /**
+     * Choose a pivot value from the range. Uses the median-of-3, or for larger ranges
+     * the median of 3 medians-of-3 (Tukey's ninther).
+     *
+     * @param x Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @return the pivot value
+     */
+    private static double pivot(double[] x, int l, int r) {
+        final int m = (l + r) >>> 1;
+        if (r - l < NINTHER_SIZE) {
+            return median3(x[l], x[m], x[r]);
+        }
+        final int s = (r - l) >>> 3;
+        return median3(
+            median3(x[l], x[l + s], x[l + (s << 1)]),
+            median3(x[m - s], x[m], x[m + s]),
+            median3(x[r - (s << 1)], x[r - s], x[r]));
+    }
+
+    /**
+     * Return the median of the three values.
+     *
+     * @param a First value.
+     * @param b Second value.
+     * @param c Third value.
+     * @return the median
+     */
+    private static double median3(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Return the minimum value in the range.
+     *
+     * @param x Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @return the minimum
+     */
+    private static double min(double[] x, int l, int r) {
+        double m = x[l];
+        for (int i = l + 1; i <= r; i++) {
+            if (compare(x[i], m) < 0) {
+                m = x[i];
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Compare the two non-NaN values using the ordering imposed by
+     * {@link Double#compare(double, double)}.
+     *
+     * @param a First value.
+     * @param b Second value.
+     * @return a negative value, zero, or a positive value if {@code a} is less than,
+     * equal to, or greater than {@code b}
+     */
+    private static int compare(double a, double b) {
+        if (a < b) {
+            return -1;
+        }
+        if (a > b) {
+            return 1;
+        }
+        // Equal, or signed zeros
+        return Double.compare(a, b);
+    }
+
+    /**
+     * Check the probabilities are in the range {@code [0, 1]}.
+     *
+     * @param p Probabilities.
+     * @throws IllegalArgumentException if any probability {@code p} is not in the range {@code [0, 1]}
+     */
+    private static void checkProbabilities(double[] p) {
+        for (final double x : p) {
+            if (!(x >= 0 && x <= 1)) {
+                throw new IllegalArgumentException("Invalid probability: " + x);
+            }
+        }
+    }
+}
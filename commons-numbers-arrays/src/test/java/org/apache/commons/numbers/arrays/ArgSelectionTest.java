@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.ArraySampler;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link ArgSelection}.
+ */
+class ArgSelectionTest {
+    /** Signal to ignore the range of [from, to). */
+    private static final int IGNORE_FROM = -1236481268;
+
+    @Test
+    void testExample() {
+        final double[] a = {5, 1, 4, 2, 3};
+        final int[] index = {0, 1, 2, 3, 4};
+        ArgSelection.select(a, index, 2);
+        Assertions.assertArrayEquals(new int[] {1, 3, 4, 2, 0}, index);
+        Assertions.assertArrayEquals(new double[] {5, 1, 4, 2, 3}, a, "Data modified");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSelect"})
+    void testDoubleSelect(double[] a, int[] index, int from, int to, int[] k) {
+        final double[] x = a.clone();
+        final int[] y = index.clone();
+        if (from == IGNORE_FROM) {
+            ArgSelection.select(a, y, k.clone());
+            assertSelected(a, index, y, 0, index.length, k, (i, j) -> Double.compare(a[i], a[j]));
+        } else {
+            ArgSelection.select(a, y, from, to, k.clone());
+            assertSelected(a, index, y, from, to, k, (i, j) -> Double.compare(a[i], a[j]));
+        }
+        Assertions.assertArrayEquals(x, a, "Data modified");
+        if (k.length != 1) {
+            return;
+        }
+        final int[] z = index.clone();
+        if (from == IGNORE_FROM) {
+            ArgSelection.select(a, z, k[0]);
+            assertSelected(a, index, z, 0, index.length, k, (i, j) -> Double.compare(a[i], a[j]));
+        } else {
+            ArgSelection.select(a, z, from, to, k[0]);
+            assertSelected(a, index, z, from, to, k, (i, j) -> Double.compare(a[i], a[j]));
+        }
+        Assertions.assertArrayEquals(x, a, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testDoubleSelect() {
+        final double nan = Double.NaN;
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        testIntSelect().forEach(arg -> {
+            final Object[] args = arg.get();
+            args[0] = Arrays.stream((int[]) args[0]).asDoubleStream().toArray();
+            builder.add(Arguments.of(args));
+        });
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        // Signed zeros and NaN
+        final double[] values = {nan, -0.0, 0.0, 1, -1, nan, Double.POSITIVE_INFINITY, -0.0, 0.0};
+        for (final int size : new int[] {10, 100}) {
+            final double[] a = rng.ints(size, 0, values.length).mapToDouble(i -> values[i]).toArray();
+            final int[] index = IntStream.range(0, size).toArray();
+            for (final int n : new int[] {1, 2, 5}) {
+                for (int i = 0; i < 5; i++) {
+                    builder.add(Arguments.of(a, ArraySampler.shuffle(rng, index.clone()),
+                        IGNORE_FROM, 0, rng.ints(n, 0, size).toArray()));
+                }
+            }
+        }
+        builder.add(Arguments.of(new double[] {0.0, -0.0, nan, -0.0}, new int[] {0, 1, 2, 3}, IGNORE_FROM, 0,
+            new int[] {1, 3}));
+        builder.add(Arguments.of(new double[] {nan, nan, -0.0}, new int[] {0, 1, 2}, IGNORE_FROM, 0,
+            new int[] {1, 2}));
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntSelect"})
+    void testIntSelect(int[] a, int[] index, int from, int to, int[] k) {
+        final int[] x = a.clone();
+        final int[] y = index.clone();
+        if (from == IGNORE_FROM) {
+            ArgSelection.select(a, y, k.clone());
+            assertSelected(a, index, y, 0, index.length, k, (i, j) -> Integer.compare(a[i], a[j]));
+        } else {
+            ArgSelection.select(a, y, from, to, k.clone());
+            assertSelected(a, index, y, from, to, k, (i, j) -> Integer.compare(a[i], a[j]));
+        }
+        Assertions.assertArrayEquals(x, a, "Data modified");
+        if (k.length != 1) {
+            return;
+        }
+        final int[] z = index.clone();
+        if (from == IGNORE_FROM) {
+            ArgSelection.select(a, z, k[0]);
+            assertSelected(a, index, z, 0, index.length, k, (i, j) -> Integer.compare(a[i], a[j]));
+        } else {
+            ArgSelection.select(a, z, from, to, k[0]);
+            assertSelected(a, index, z, from, to, k, (i, j) -> Integer.compare(a[i], a[j]));
+        }
+        Assertions.assertArrayEquals(x, a, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testIntSelect() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        for (final int size : new int[] {1, 2, 5, 50, 1000}) {
+            // Distinct values and values with many duplicates
+            for (final int bound : new int[] {Integer.MAX_VALUE, 5}) {
+                final int[] a = rng.ints(size, -bound, bound).toArray();
+                final int[] index = IntStream.range(0, size).toArray();
+                for (final int n : new int[] {0, 1, 2, 5, 20}) {
+                    for (int i = 0; i < 3; i++) {
+                        final int[] k = rng.ints(n, 0, size).toArray();
+                        // Full range
+                        builder.add(Arguments.of(a, index.clone(), IGNORE_FROM, 0, k));
+                        builder.add(Arguments.of(a, ArraySampler.shuffle(rng, index.clone()),
+                            IGNORE_FROM, 0, k));
+                        // Subset of indices with duplicates
+                        final int length = rng.nextInt(1, size + 1);
+                        final int[] subset = rng.ints(length, 0, size).toArray();
+                        builder.add(Arguments.of(a, subset, IGNORE_FROM, 0,
+                            rng.ints(n, 0, length).toArray()));
+                        // Range
+                        final int from = rng.nextInt(size);
+                        final int to = rng.nextInt(from, size) + 1;
+                        builder.add(Arguments.of(a, ArraySampler.shuffle(rng, index.clone()), from, to,
+                            rng.ints(n, from, to).toArray()));
+                    }
+                }
+            }
+        }
+        builder.add(Arguments.of(new int[0], new int[0], IGNORE_FROM, 0, new int[0]));
+        // Duplicate keys
+        builder.add(Arguments.of(new int[] {3, 2, 1}, new int[] {0, 1, 2}, IGNORE_FROM, 0, new int[] {1, 1}));
+        // Equal values at the keys
+        builder.add(Arguments.of(new int[] {3, 2, 2, 2, 1}, new int[] {0, 1, 2, 3, 4}, IGNORE_FROM, 0,
+            new int[] {1, 3}));
+        builder.add(Arguments.of(new int[] {3, 2, 2, 2, 1}, new int[] {0, 1, 2, 3, 4}, IGNORE_FROM, 0,
+            new int[] {0, 2, 3, 4}));
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testLongSelect"})
+    void testLongSelect(long[] a, int[] index, int from, int to, int[] k) {
+        final long[] x = a.clone();
+        final int[] y = index.clone();
+        if (from == IGNORE_FROM) {
+            ArgSelection.select(a, y, k.clone());
+            assertSelected(a, index, y, 0, index.length, k, (i, j) -> Long.compare(a[i], a[j]));
+        } else {
+            ArgSelection.select(a, y, from, to, k.clone());
+            assertSelected(a, index, y, from, to, k, (i, j) -> Long.compare(a[i], a[j]));
+        }
+        Assertions.assertArrayEquals(x, a, "Data modified");
+        if (k.length != 1) {
+            return;
+        }
+        final int[] z = index.clone();
+        if (from == IGNORE_FROM) {
+            ArgSelection.select(a, z, k[0]);
+            assertSelected(a, index, z, 0, index.length, k, (i, j) -> Long.compare(a[i], a[j]));
+        } else {
+            ArgSelection.select(a, z, from, to, k[0]);
+            assertSelected(a, index, z, from, to, k, (i, j) -> Long.compare(a[i], a[j]));
+        }
+        Assertions.assertArrayEquals(x, a, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testLongSelect() {
+        return testIntSelect().map(arg -> {
+            final Object[] args = arg.get();
+            // Scale to use the upper bits
+            args[0] = Arrays.stream((int[]) args[0]).mapToLong(i -> (long) i << 16).toArray();
+            return Arguments.of(args);
+        });
+    }
+
+    /**
+     * Assert the index array has been partitioned at the target indices {@code k}.
+     *
+     * @param a Data.
+     * @param original Original indices.
+     * @param index Partitioned indices.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param k Target indices.
+     * @param cmp Comparator of the data at indices {@code i} and {@code j}.
+     */
+    private static void assertSelected(Object a, int[] original, int[] index, int from, int to, int[] k,
+            IntBinaryOperator cmp) {
+        // Outside the range is unchanged
+        for (int i = 0; i < from; i++) {
+            Assertions.assertEquals(original[i], index[i], "Modified below the range");
+        }
+        for (int i = to; i < index.length; i++) {
+            Assertions.assertEquals(original[i], index[i], "Modified above the range");
+        }
+        // Range is a permutation of the original
+        final int[] x = Arrays.copyOfRange(original, from, to);
+        final int[] y = Arrays.copyOfRange(index, from, to);
+        Arrays.sort(x);
+        Arrays.sort(y);
+        Assertions.assertArrayEquals(x, y, "Indices destroyed");
+        for (final int ki : k) {
+            final int p = index[ki];
+            for (int i = from; i < ki; i++) {
+                final int j = i;
+                Assertions.assertTrue(cmp.applyAsInt(index[i], p) <= 0,
+                    () -> String.format("[%d] %d > [%d] %d", j, index[j], ki, p));
+            }
+            for (int i = ki + 1; i < to; i++) {
+                final int j = i;
+                Assertions.assertTrue(cmp.applyAsInt(index[i], p) >= 0,
+                    () -> String.format("[%d] %d < [%d] %d", j, index[j], ki, p));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testSelectThrows(int[] index, int[] k, int from, int to) {
+        final double[] a = {1, 2, 3, Double.NaN, 0.0, -0.0};
+        final int[] b = {1, 2, 3, 4, 5, 6};
+        final long[] c = {1, 2, 3, 4, 5, 6};
+        final int[] x = index.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(a, index, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(b, index, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(c, index, k));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(a, index, from, to, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(b, index, from, to, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(c, index, from, to, k));
+        }
+        Assertions.assertArrayEquals(x, index, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(a, index, k[0]));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(b, index, k[0]));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(c, index, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(a, index, from, to, k[0]));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(b, index, from, to, k[0]));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArgSelection.select(c, index, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, index, "Indices modified for single k");
+    }
+
+    static Stream<Arguments> testSelectThrows() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final int[] index = {0, 1, 2, 3, 4, 5};
+        // Invalid range
+        builder.add(Arguments.of(index, new int[] {0}, 0, index.length + 1));
+        builder.add(Arguments.of(index, new int[] {0}, -1, index.length));
+        builder.add(Arguments.of(index, new int[] {0}, 0, 0));
+        builder.add(Arguments.of(index, new int[] {0}, index.length, 0));
+        builder.add(Arguments.of(index, new int[] {1}, 3, 1));
+        // Single k
+        builder.add(Arguments.of(index, new int[] {-1}, IGNORE_FROM, 0));
+        builder.add(Arguments.of(index, new int[] {10}, IGNORE_FROM, 0));
+        builder.add(Arguments.of(index, new int[] {-1}, 0, 5));
+        builder.add(Arguments.of(index, new int[] {1}, 2, 5));
+        builder.add(Arguments.of(index, new int[] {10}, 2, 5));
+        // Multiple k, some invalid
+        builder.add(Arguments.of(index, new int[] {0, -1, 1, 2}, IGNORE_FROM, 0));
+        builder.add(Arguments.of(index, new int[] {0, 2, 3, 10}, IGNORE_FROM, 0));
+        builder.add(Arguments.of(index, new int[] {0, -1, 1, 2}, 0, 5));
+        builder.add(Arguments.of(index, new int[] {2, 3, 1}, 2, 5));
+        builder.add(Arguments.of(index, new int[] {2, 10, 3}, 2, 5));
+        // Invalid index into the data
+        builder.add(Arguments.of(new int[] {0, 1, 6}, new int[] {1}, IGNORE_FROM, 0));
+        builder.add(Arguments.of(new int[] {-1, 1, 2}, new int[] {1}, IGNORE_FROM, 0));
+        builder.add(Arguments.of(new int[] {0, 1, 2, 7}, new int[] {1}, 2, 4));
+        builder.add(Arguments.of(new int[] {7}, new int[] {0}, IGNORE_FROM, 0));
+        return builder.build();
+    }
+}
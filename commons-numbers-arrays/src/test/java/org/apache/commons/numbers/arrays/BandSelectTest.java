@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.ArraySampler;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link BandSelect}.
+ */
+class BandSelectTest {
+
+    @ParameterizedTest
+    @MethodSource
+    void testDoubleSelect(double[] values, int from, int to, int[] k) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        final double[] a = values.clone();
+        final double[] v = BandSelect.select(a, from, to, k);
+        Assertions.assertArrayEquals(values, a, "Data modified");
+        for (int i = 0; i < k.length; i++) {
+            Assertions.assertEquals(sorted[k[i]], v[i], "k=" + k[i]);
+        }
+    }
+
+    static Stream<Arguments> testDoubleSelect() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int size : new int[] {10, 5000, 100000}) {
+            for (final double[] values : createData(rng, size)) {
+                for (final int[] k : createIndices(rng, size)) {
+                    builder.add(Arguments.of(values, 0, size, k));
+                }
+                // Sub-range
+                final int from = size / 10;
+                final int to = size - from;
+                builder.add(Arguments.of(values, from, to, new int[] {from}));
+                builder.add(Arguments.of(values, from, to, new int[] {(from + to) >>> 1, to - 1}));
+            }
+        }
+        // Signed zeros and NaN
+        final double nan = Double.NaN;
+        for (final int size : new int[] {10, 20000}) {
+            final double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                final int v = rng.nextInt(5);
+                values[i] = v == 0 ? -0.0 : v == 1 ? 0.0 : v == 2 ? nan : rng.nextDouble() - 0.5;
+            }
+            for (final int[] k : createIndices(rng, size)) {
+                builder.add(Arguments.of(values, 0, size, k));
+            }
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testIntSelect(int[] values, int from, int to, int[] k) {
+        final int[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        final int[] a = values.clone();
+        final int[] v = BandSelect.select(a, from, to, k);
+        Assertions.assertArrayEquals(values, a, "Data modified");
+        for (int i = 0; i < k.length; i++) {
+            Assertions.assertEquals(sorted[k[i]], v[i], "k=" + k[i]);
+        }
+    }
+
+    static Stream<Arguments> testIntSelect() {
+        return testDoubleSelect().filter(arg -> !hasNaN((double[]) arg.get()[0])).map(arg -> {
+            final Object[] args = arg.get();
+            args[0] = Arrays.stream((double[]) args[0]).mapToInt(v -> (int) (v * 100000)).toArray();
+            return Arguments.of(args);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLongSelect(long[] values, int from, int to, int[] k) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        final long[] a = values.clone();
+        final long[] v = BandSelect.select(a, from, to, k);
+        Assertions.assertArrayEquals(values, a, "Data modified");
+        for (int i = 0; i < k.length; i++) {
+            Assertions.assertEquals(sorted[k[i]], v[i], "k=" + k[i]);
+        }
+    }
+
+    static Stream<Arguments> testLongSelect() {
+        return testDoubleSelect().filter(arg -> !hasNaN((double[]) arg.get()[0])).map(arg -> {
+            final Object[] args = arg.get();
+            args[0] = Arrays.stream((double[]) args[0]).mapToLong(v -> (long) (v * 0x1.0p40)).toArray();
+            return Arguments.of(args);
+        });
+    }
+
+    /**
+     * Creates the data: random, sorted, reverse sorted and with repeat elements.
+     *
+     * @param rng Source of randomness.
+     * @param size Size.
+     * @return the data
+     */
+    private static double[][] createData(UniformRandomProvider rng, int size) {
+        final double[] a = IntStream.range(0, size).asDoubleStream().toArray();
+        final double[] b = a.clone();
+        for (int i = -1, j = b.length; ++i < --j;) {
+            final double v = b[i];
+            b[i] = b[j];
+            b[j] = v;
+        }
+        return new double[][] {
+            rng.doubles(size).toArray(),
+            a,
+            b,
+            ArraySampler.shuffle(rng, a.clone()),
+            rng.ints(size, 0, 10).asDoubleStream().toArray(),
+        };
+    }
+
+    /**
+     * Creates the indices: no index; ends; middle; adjacent pair; lower and upper
+     * quartiles; and random indices.
+     *
+     * @param rng Source of randomness.
+     * @param size Size.
+     * @return the indices
+     */
+    private static int[][] createIndices(UniformRandomProvider rng, int size) {
+        return new int[][] {
+            {},
+            {0},
+            {size - 1},
+            {size >>> 1},
+            {size >>> 1, (size >>> 1) + 1},
+            {size >>> 2, size - (size >>> 2)},
+            rng.ints(3, 0, size).toArray(),
+        };
+    }
+
+    private static boolean hasNaN(double[] a) {
+        return Arrays.stream(a).anyMatch(Double::isNaN);
+    }
+
+    @Test
+    void testDoubleBand() {
+        final double[] a = IntStream.range(0, 100).asDoubleStream().toArray();
+        ArraySampler.shuffle(RandomSource.XO_SHI_RO_128_PP.create(), a);
+        final int[] bounds = {45, 55};
+        // Band [40, 59]
+        double[] x = BandSelect.band(a, 0, 100, 40, 59, 30, bounds);
+        Assertions.assertArrayEquals(new int[] {40, 20}, bounds);
+        Arrays.sort(x, 0, 20);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(
+            IntStream.range(0, 100).asDoubleStream().toArray(), 40, 60), Arrays.copyOf(x, 20));
+        // Sub-range of sorted data
+        bounds[0] = 45;
+        bounds[1] = 55;
+        x = BandSelect.band(IntStream.range(0, 100).asDoubleStream().toArray(), 10, 90, 40, 59, 30, bounds);
+        Assertions.assertArrayEquals(new int[] {40, 20}, bounds);
+        Assertions.assertEquals(40, x[0]);
+        // Capacity exceeded
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 19, bounds));
+        // Band does not contain the indices
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 30, new int[] {39, 55}));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 30, new int[] {45, 60}));
+    }
+
+    @Test
+    void testIntBand() {
+        final int[] a = IntStream.range(0, 100).toArray();
+        ArraySampler.shuffle(RandomSource.XO_SHI_RO_128_PP.create(), a);
+        final int[] bounds = {45, 55};
+        final int[] x = BandSelect.band(a, 0, 100, 40, 59, 30, bounds);
+        Assertions.assertArrayEquals(new int[] {40, 20}, bounds);
+        Arrays.sort(x, 0, 20);
+        Assertions.assertArrayEquals(IntStream.range(40, 60).toArray(), Arrays.copyOf(x, 20));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 19, bounds));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 30, new int[] {39, 55}));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 30, new int[] {45, 60}));
+    }
+
+    @Test
+    void testLongBand() {
+        final long[] a = IntStream.range(0, 100).asLongStream().toArray();
+        ArraySampler.shuffle(RandomSource.XO_SHI_RO_128_PP.create(), a);
+        final int[] bounds = {45, 55};
+        final long[] x = BandSelect.band(a, 0, 100, 40, 59, 30, bounds);
+        Assertions.assertArrayEquals(new int[] {40, 20}, bounds);
+        Arrays.sort(x, 0, 20);
+        Assertions.assertArrayEquals(IntStream.range(40, 60).asLongStream().toArray(), Arrays.copyOf(x, 20));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 19, bounds));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 30, new int[] {39, 55}));
+        Assertions.assertNull(BandSelect.band(a, 0, 100, 40, 59, 30, new int[] {45, 60}));
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for the {@link BatchSelection} class.
+ */
+class BatchSelectionTest {
+    /** Number of rows above the threshold for a parallel selection of rows of length 50. */
+    private static final int PARALLEL_ROWS = ParallelQuickSelect.PARALLEL_THRESHOLD / 50 * 3 + 7;
+
+    /** Pool used to run the parallel selection with multiple threads. */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setup() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void teardown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testSelectRowsThrows() {
+        final double[][] a = {new double[5], new double[3]};
+        final int[][] b = {new int[5], new int[3]};
+        final long[][] c = {new long[5], new long[3]};
+        for (final int[] k : new int[][] {{-1}, {3}, {0, 4}, {1, -1}}) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectRows(a, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectRows(b, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectRows(c, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.parallelSelectRows(a, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.parallelSelectRows(b, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.parallelSelectRows(c, k));
+        }
+    }
+
+    @Test
+    void testSelectRowsThrowsBeforeModification() {
+        // Invalid index for the last row
+        final double[][] a = {{3, 2, 1}, {1}};
+        final int[] k = {1};
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectRows(a, k));
+        Assertions.assertArrayEquals(new double[] {3, 2, 1}, a[0], "Data modified");
+    }
+
+    @Test
+    void testSelectSegmentsThrows() {
+        final double[] a = new double[6];
+        final int[] b = new int[6];
+        final long[] c = new long[6];
+        // Invalid segment length
+        for (final int length : new int[] {0, -1, 4}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BatchSelection.selectSegments(a, length, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BatchSelection.selectSegments(b, length, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BatchSelection.selectSegments(c, length, 0));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BatchSelection.parallelSelectSegments(a, length, 0));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BatchSelection.parallelSelectSegments(b, length, 0));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BatchSelection.parallelSelectSegments(c, length, 0));
+        }
+        // Invalid index
+        for (final int[] k : new int[][] {{-1}, {3}, {0, 3}}) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectSegments(a, 3, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectSegments(b, 3, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> BatchSelection.selectSegments(c, 3, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> BatchSelection.parallelSelectSegments(a, 3, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> BatchSelection.parallelSelectSegments(b, 3, k));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> BatchSelection.parallelSelectSegments(c, 3, k));
+        }
+    }
+
+    @Test
+    void testNoIndices() {
+        final double[][] a = {{3, 2, 1}};
+        BatchSelection.selectRows(a);
+        BatchSelection.selectSegments(a[0], 3);
+        BatchSelection.parallelSelectRows(a);
+        BatchSelection.parallelSelectSegments(a[0], 3);
+        Assertions.assertArrayEquals(new double[] {3, 2, 1}, a[0]);
+        final int[][] b = {{3, 2, 1}};
+        BatchSelection.selectSegments(b[0], 3);
+        BatchSelection.parallelSelectRows(b);
+        BatchSelection.parallelSelectSegments(b[0], 3);
+        Assertions.assertArrayEquals(new int[] {3, 2, 1}, b[0]);
+        final long[][] c = {{3, 2, 1}};
+        BatchSelection.selectSegments(c[0], 3);
+        BatchSelection.parallelSelectRows(c);
+        BatchSelection.parallelSelectSegments(c[0], 3);
+        Assertions.assertArrayEquals(new long[] {3, 2, 1}, c[0]);
+        // Rows are not validated
+        BatchSelection.selectRows(new double[][] {{}});
+        BatchSelection.selectRows(new int[][] {{}});
+        BatchSelection.selectRows(new long[][] {{}});
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDouble(double[][] values, int[] k) throws InterruptedException, ExecutionException {
+        final int[] indices = k.clone();
+        final double[][] a = copy(values);
+        BatchSelection.selectRows(a, k);
+        assertRows(values, a, indices);
+        final double[][] b = copy(values);
+        invoke(() -> BatchSelection.parallelSelectRows(b, k));
+        assertRows(values, b, indices);
+        Assertions.assertArrayEquals(indices, k, "Indices modified");
+        // Segments require equal length rows
+        final int length = values[0].length;
+        if (Arrays.stream(values).allMatch(x -> x.length == length)) {
+            final double[] c = Arrays.stream(values).flatMapToDouble(Arrays::stream).toArray();
+            BatchSelection.selectSegments(c, length, k);
+            assertRows(values, split(c, length), indices);
+            final double[] d = Arrays.stream(values).flatMapToDouble(Arrays::stream).toArray();
+            invoke(() -> BatchSelection.parallelSelectSegments(d, length, k));
+            assertRows(values, split(d, length), indices);
+        }
+    }
+
+    static Stream<Arguments> testDouble() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final double[] special = {-0.0, 0.0, Double.NaN, 1, -1};
+        for (final int length : new int[] {1, 2, 5, 50, 500}) {
+            for (final int rows : new int[] {1, 10, length == 50 ? PARALLEL_ROWS : 10}) {
+                final double[][] a = new double[rows][];
+                final double[][] b = new double[rows][];
+                final double[][] c = new double[rows][];
+                for (int i = 0; i < rows; i++) {
+                    a[i] = rng.doubles(length).toArray();
+                    b[i] = rng.ints(length, -3, 3).asDoubleStream().toArray();
+                    c[i] = rng.ints(length, 0, special.length).mapToDouble(j -> special[j]).toArray();
+                }
+                for (final double[][] x : new double[][][] {a, b, c}) {
+                    addIndices(builder, rng, x, length);
+                }
+            }
+        }
+        // Variable length rows
+        final double[][] x = new double[50][];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = rng.doubles(5 + i).map(v -> v < 0.1 ? Double.NaN : v < 0.2 ? -0.0 : v).toArray();
+        }
+        addIndices(builder, rng, x, 5);
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testInt(int[][] values, int[] k) throws InterruptedException, ExecutionException {
+        final int[] indices = k.clone();
+        final int[][] a = copy(values);
+        BatchSelection.selectRows(a, k);
+        assertRows(values, a, indices);
+        final int[][] b = copy(values);
+        invoke(() -> BatchSelection.parallelSelectRows(b, k));
+        assertRows(values, b, indices);
+        Assertions.assertArrayEquals(indices, k, "Indices modified");
+        final int length = values[0].length;
+        if (Arrays.stream(values).allMatch(x -> x.length == length)) {
+            final int[] c = Arrays.stream(values).flatMapToInt(Arrays::stream).toArray();
+            BatchSelection.selectSegments(c, length, k);
+            assertRows(values, split(c, length), indices);
+            final int[] d = Arrays.stream(values).flatMapToInt(Arrays::stream).toArray();
+            invoke(() -> BatchSelection.parallelSelectSegments(d, length, k));
+            assertRows(values, split(d, length), indices);
+        }
+    }
+
+    static Stream<Arguments> testInt() {
+        return testDouble().map(arg -> {
+            final Object[] args = arg.get();
+            final int[][] x = Arrays.stream((double[][]) args[0])
+                .map(v -> Arrays.stream(v).mapToInt(y -> (int) (y * 1000)).toArray())
+                .toArray(int[][]::new);
+            return Arguments.of(x, args[1]);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLong(long[][] values, int[] k) throws InterruptedException, ExecutionException {
+        final int[] indices = k.clone();
+        final long[][] a = copy(values);
+        BatchSelection.selectRows(a, k);
+        assertRows(values, a, indices);
+        final long[][] b = copy(values);
+        invoke(() -> BatchSelection.parallelSelectRows(b, k));
+        assertRows(values, b, indices);
+        Assertions.assertArrayEquals(indices, k, "Indices modified");
+        final int length = values[0].length;
+        if (Arrays.stream(values).allMatch(x -> x.length == length)) {
+            final long[] c = Arrays.stream(values).flatMapToLong(Arrays::stream).toArray();
+            BatchSelection.selectSegments(c, length, k);
+            assertRows(values, split(c, length), indices);
+            final long[] d = Arrays.stream(values).flatMapToLong(Arrays::stream).toArray();
+            invoke(() -> BatchSelection.parallelSelectSegments(d, length, k));
+            assertRows(values, split(d, length), indices);
+        }
+    }
+
+    static Stream<Arguments> testLong() {
+        return testDouble().map(arg -> {
+            final Object[] args = arg.get();
+            final long[][] x = Arrays.stream((double[][]) args[0])
+                .map(v -> Arrays.stream(v).mapToLong(y -> (long) (y * 0x1.0p40)).toArray())
+                .toArray(long[][]::new);
+            return Arguments.of(x, args[1]);
+        });
+    }
+
+    @Test
+    void testParallelSelectInCustomPool() throws InterruptedException, ExecutionException {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[][] values = new double[PARALLEL_ROWS][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rng.doubles(50).toArray();
+        }
+        final double[][] a = copy(values);
+        final double[] b = Arrays.stream(values).flatMapToDouble(Arrays::stream).toArray();
+        final int[] k = {24, 25};
+        invoke(() -> {
+            BatchSelection.parallelSelectRows(a, k);
+            BatchSelection.parallelSelectSegments(b, 50, k);
+        });
+        assertRows(values, a, k);
+        assertRows(values, split(b, 50), k);
+    }
+
+    /**
+     * Run the action in the multi-threaded pool.
+     *
+     * @param action Action.
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws ExecutionException if the computation threw an exception
+     */
+    private static void invoke(Runnable action) throws InterruptedException, ExecutionException {
+        pool.submit(action).get();
+    }
+
+    /**
+     * Add arguments of the rows with indices for the minimum row length.
+     *
+     * @param builder Builder.
+     * @param rng Source of randomness.
+     * @param rows Rows.
+     * @param length Minimum row length.
+     */
+    private static void addIndices(Stream.Builder<Arguments> builder, UniformRandomProvider rng,
+            double[][] rows, int length) {
+        builder.add(Arguments.of(rows, new int[] {length >> 1}));
+        builder.add(Arguments.of(rows, new int[] {0, length - 1}));
+        // Unsorted with duplicates
+        builder.add(Arguments.of(rows, rng.ints(5, 0, length).toArray()));
+        if (length > 20) {
+            // Widely separated
+            builder.add(Arguments.of(rows, new int[] {length - 1, 1, length >> 1, 1}));
+        }
+    }
+
+    private static void assertRows(double[][] expected, double[][] actual, int[] k) {
+        for (int i = 0; i < expected.length; i++) {
+            final double[] sorted = expected[i].clone();
+            Arrays.sort(sorted);
+            final double[] x = actual[i];
+            for (final int j : k) {
+                final int row = i;
+                Assertions.assertEquals(sorted[j], x[j], () -> "row " + row + " index " + j);
+                for (int m = 0; m < x.length; m++) {
+                    final int index = m;
+                    final int c = Double.compare(x[m], x[j]);
+                    Assertions.assertTrue(m < j ? c <= 0 : m == j || c >= 0,
+                        () -> "row " + row + " index " + index + " not partitioned at " + j);
+                }
+            }
+            Arrays.sort(x);
+            Assertions.assertArrayEquals(sorted, x, "Data destroyed");
+        }
+    }
+
+    private static void assertRows(int[][] expected, int[][] actual, int[] k) {
+        for (int i = 0; i < expected.length; i++) {
+            final int[] sorted = expected[i].clone();
+            Arrays.sort(sorted);
+            final int[] x = actual[i];
+            for (final int j : k) {
+                final int row = i;
+                Assertions.assertEquals(sorted[j], x[j], () -> "row " + row + " index " + j);
+                for (int m = 0; m < x.length; m++) {
+                    final int index = m;
+                    Assertions.assertTrue(m < j ? x[m] <= x[j] : m == j || x[m] >= x[j],
+                        () -> "row " + row + " index " + index + " not partitioned at " + j);
+                }
+            }
+            Arrays.sort(x);
+            Assertions.assertArrayEquals(sorted, x, "Data destroyed");
+        }
+    }
+
+    private static void assertRows(long[][] expected, long[][] actual, int[] k) {
+        for (int i = 0; i < expected.length; i++) {
+            final long[] sorted = expected[i].clone();
+            Arrays.sort(sorted);
+            final long[] x = actual[i];
+            for (final int j : k) {
+                final int row = i;
+                Assertions.assertEquals(sorted[j], x[j], () -> "row " + row + " index " + j);
+                for (int m = 0; m < x.length; m++) {
+                    final int index = m;
+                    Assertions.assertTrue(m < j ? x[m] <= x[j] : m == j || x[m] >= x[j],
+                        () -> "row " + row + " index " + index + " not partitioned at " + j);
+                }
+            }
+            Arrays.sort(x);
+            Assertions.assertArrayEquals(sorted, x, "Data destroyed");
+        }
+    }
+
+    private static double[][] copy(double[][] a) {
+        return Arrays.stream(a).map(double[]::clone).toArray(double[][]::new);
+    }
+
+    private static int[][] copy(int[][] a) {
+        return Arrays.stream(a).map(int[]::clone).toArray(int[][]::new);
+    }
+
+    private static long[][] copy(long[][] a) {
+        return Arrays.stream(a).map(long[]::clone).toArray(long[][]::new);
+    }
+
+    private static double[][] split(double[] a, int length) {
+        final double[][] x = new double[a.length / length][];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = Arrays.copyOfRange(a, i * length, (i + 1) * length);
+        }
+        return x;
+    }
+
+    private static int[][] split(int[] a, int length) {
+        final int[][] x = new int[a.length / length][];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = Arrays.copyOfRange(a, i * length, (i + 1) * length);
+        }
+        return x;
+    }
+
+    private static long[][] split(long[] a, int length) {
+        final long[][] x = new long[a.length / length][];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = Arrays.copyOfRange(a, i * length, (i + 1) * length);
+        }
+        return x;
+    }
+}
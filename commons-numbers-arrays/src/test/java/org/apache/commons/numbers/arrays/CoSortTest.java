@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for the {@link CoSort} class.
+ */
+class CoSortTest {
+    /** Pool with multiple threads to allow the parallel sort. */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setup() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void teardown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Run the action in the multi-threaded pool.
+     *
+     * @param action Action.
+     */
+    private static void invoke(Runnable action) {
+        pool.submit(action).join();
+    }
+
+    @Test
+    void testJavadocExample() {
+        final long[] time = {30, 10, 20};
+        final int[] id = {1, 2, 3};
+        final float[] value = {0.5f, 1.5f, 2.5f};
+        CoSort.withDefaults().sort(time, id, value);
+        Assertions.assertArrayEquals(new long[] {10, 20, 30}, time);
+        Assertions.assertArrayEquals(new int[] {2, 3, 1}, id);
+        Assertions.assertArrayEquals(new float[] {1.5f, 2.5f, 0.5f}, value);
+    }
+
+    @Test
+    void testAllCompanionTypes() {
+        final int[] keys = {3, 1, 2};
+        final double[] d = {3, 1, 2};
+        final int[] i = {3, 1, 2};
+        final long[] l = {3, 1, 2};
+        final float[] f = {3, 1, 2};
+        final short[] s = {3, 1, 2};
+        final char[] c = {'c', 'a', 'b'};
+        final byte[] b = {3, 1, 2};
+        final boolean[] z = {true, false, true};
+        final String[] o = {"c", "a", "b"};
+        CoSort.withDefaults().sort(keys, d, i, l, f, s, c, b, z, o);
+        Assertions.assertArrayEquals(new int[] {1, 2, 3}, keys);
+        Assertions.assertArrayEquals(new double[] {1, 2, 3}, d);
+        Assertions.assertArrayEquals(new int[] {1, 2, 3}, i);
+        Assertions.assertArrayEquals(new long[] {1, 2, 3}, l);
+        Assertions.assertArrayEquals(new float[] {1, 2, 3}, f);
+        Assertions.assertArrayEquals(new short[] {1, 2, 3}, s);
+        Assertions.assertArrayEquals(new char[] {'a', 'b', 'c'}, c);
+        Assertions.assertArrayEquals(new byte[] {1, 2, 3}, b);
+        Assertions.assertArrayEquals(new boolean[] {false, true, true}, z);
+        Assertions.assertArrayEquals(new String[] {"a", "b", "c"}, o);
+    }
+
+    @Test
+    void testSingleObjectCompanion() {
+        final String[] o = {"c", "a", "b"};
+        CoSort.withDefaults().sort(new double[] {3, 1, 2}, o);
+        Assertions.assertArrayEquals(new String[] {"a", "b", "c"}, o);
+        final Integer[] i = {3, 1, 2};
+        CoSort.withDefaults().sort(new int[] {3, 1, 2}, i);
+        Assertions.assertArrayEquals(new Integer[] {1, 2, 3}, i);
+        final Object[] l = {3L, 1L, 2L};
+        CoSort.withDefaults().sort(new long[] {3, 1, 2}, l);
+        Assertions.assertArrayEquals(new Object[] {1L, 2L, 3L}, l);
+        // An array of arrays is a single companion
+        final int[] a = {3, 1, 2};
+        final int[] b = {6, 4, 5};
+        final int[][] c = {a, b, null};
+        CoSort.withDefaults().sort(new double[] {3, 1, 2}, c);
+        Assertions.assertArrayEquals(new int[][] {b, null, a}, c);
+        Assertions.assertArrayEquals(new int[] {3, 1, 2}, a);
+    }
+
+    @Test
+    void testDoubleKeysCompanions() {
+        final double[] x = {3, 1, 2};
+        CoSort.withDefaults().sort(x);
+        Assertions.assertArrayEquals(new double[] {1, 2, 3}, x);
+        final double[] y = {3, 1, 2};
+        final int[] a = {3, 1, 2};
+        final String[] b = {"c", "a", "b"};
+        CoSort.withDefaults().withDescending(true).sort(y, a, b);
+        Assertions.assertArrayEquals(new double[] {3, 2, 1}, y);
+        Assertions.assertArrayEquals(new int[] {3, 2, 1}, a);
+        Assertions.assertArrayEquals(new String[] {"c", "b", "a"}, b);
+    }
+
+    @Test
+    void testPreconditions() {
+        final CoSort s = CoSort.withDefaults();
+        final int[] a = {1, 2};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> s.sort(a, new int[3]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> s.sort(a, "ab"));
+        Assertions.assertThrows(NullPointerException.class, () -> s.sort(new double[2], null));
+        // Arrays are not modified on error
+        final int[] b = {2, 1};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> s.sort(b, new int[2], new int[1]));
+        Assertions.assertArrayEquals(new int[] {2, 1}, b);
+    }
+
+    @Test
+    void testSignedZerosAndNaN() {
+        final double nan = Double.longBitsToDouble(0x7ff0000000000123L);
+        final double[] x = {nan, 0.0, 1, -0.0, Double.NEGATIVE_INFINITY};
+        final int[] y = {0, 1, 2, 3, 4};
+        CoSort.withDefaults().sort(x, y);
+        Assertions.assertArrayEquals(new double[] {Double.NEGATIVE_INFINITY, -0.0, 0.0, 1, nan}, x);
+        Assertions.assertArrayEquals(new int[] {4, 3, 1, 2, 0}, y);
+        // NaN bits are preserved
+        Assertions.assertEquals(Double.doubleToRawLongBits(nan), Double.doubleToRawLongBits(x[4]));
+        CoSort.withDefaults().withDescending(true).sort(x, y);
+        Assertions.assertArrayEquals(new double[] {nan, 1, 0.0, -0.0, Double.NEGATIVE_INFINITY}, x);
+        Assertions.assertArrayEquals(new int[] {0, 2, 1, 3, 4}, y);
+    }
+
+    @Test
+    void testExtremeKeys() {
+        final int[] x = {Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1};
+        final long[] y = {Long.MAX_VALUE, 0, Long.MIN_VALUE, -1};
+        CoSort.withDefaults().sort(x);
+        CoSort.withDefaults().sort(y);
+        Assertions.assertArrayEquals(new int[] {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE}, x);
+        Assertions.assertArrayEquals(new long[] {Long.MIN_VALUE, -1, 0, Long.MAX_VALUE}, y);
+        CoSort.withDefaults().withDescending(true).sort(x);
+        CoSort.withDefaults().withDescending(true).sort(y);
+        Assertions.assertArrayEquals(new int[] {Integer.MAX_VALUE, 0, -1, Integer.MIN_VALUE}, x);
+        Assertions.assertArrayEquals(new long[] {Long.MAX_VALUE, 0, -1, Long.MIN_VALUE}, y);
+    }
+
+    /**
+     * Test data that is degenerate for a quicksort. The parallel sort uses a length
+     * above the parallel threshold.
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "false, false, 5000",
+        "true, false, 5000",
+        "false, true, 100000",
+        "true, true, 100000",
+    })
+    void testSortPatterns(boolean stable, boolean parallel, int n) {
+        final CoSort sort = CoSort.withDefaults().withStable(stable).withParallel(parallel);
+        final long[][] data = {
+            new long[n],
+            IntStream.range(0, n).asLongStream().toArray(),
+            IntStream.range(0, n).asLongStream().map(i -> -i).toArray(),
+            IntStream.range(0, n).asLongStream().map(i -> i & 1).toArray(),
+            IntStream.range(0, n).asLongStream().map(i -> i < n / 2 ? i : n - i).toArray(),
+            medianOf3Killer(n, 64),
+        };
+        for (final long[] x : data) {
+            final long[] expected = x.clone();
+            Arrays.sort(expected);
+            final int[] index = IntStream.range(0, n).toArray();
+            final long[] original = x.clone();
+            invoke(() -> sort.sort(x, index));
+            Assertions.assertArrayEquals(expected, x);
+            for (int i = 0; i < n; i++) {
+                Assertions.assertEquals(original[index[i]], x[i]);
+            }
+        }
+    }
+
+    /**
+     * Create data where each partition of the quicksort using a median of 3 pivot
+     * removes only two values from the range. This exhausts the recursion depth limit.
+     * The data is created by simulating the partition for the given number of steps;
+     * unassigned values are larger than all assigned values.
+     *
+     * @param n Length.
+     * @param steps Number of partition steps.
+     * @return the data
+     */
+    private static long[] medianOf3Killer(int n, int steps) {
+        final long[] x = new long[n];
+        Arrays.fill(x, Long.MAX_VALUE);
+        final int[] pos = IntStream.range(0, n).toArray();
+        long next = 0;
+        int l = 0;
+        final int r = n - 1;
+        for (int s = 0; s < steps; s++) {
+            // Pivot is the second smallest value: left < mid < right
+            final int mid = (l + r) >>> 1;
+            x[l] = next++;
+            x[mid] = next++;
+            final long v = x[mid];
+            int lt = l;
+            int gt = r;
+            int i = l;
+            while (i <= gt) {
+                if (x[i] < v) {
+                    swap(x, pos, lt++, i++);
+                } else if (x[i] > v) {
+                    swap(x, pos, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            l = gt + 1;
+        }
+        final long[] data = new long[n];
+        for (int i = 0; i < n; i++) {
+            data[pos[i]] = x[i] == Long.MAX_VALUE ? next++ : x[i];
+        }
+        return data;
+    }
+
+    /**
+     * Swap the values and positions.
+     *
+     * @param x Values.
+     * @param pos Positions.
+     * @param i Index.
+     * @param j Index.
+     */
+    private static void swap(long[] x, int[] pos, int i, int j) {
+        final long v = x[i];
+        x[i] = x[j];
+        x[j] = v;
+        final int p = pos[i];
+        pos[i] = pos[j];
+        pos[j] = p;
+    }
+
+    /**
+     * Test the sort of {@code int} keys against a stable sort of boxed indices.
+     */
+    @ParameterizedTest
+    @MethodSource("sortArguments")
+    void testSortInt(CoSort sort, boolean descending, boolean stable, int size, int range) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final int[] x = rng.ints(size, -range, range).toArray();
+        // int keys are always stable
+        assertSort(x.clone(), x.length, (i, j) -> Integer.compare(x[i], x[j]), descending, true,
+            (keys, index) -> invoke(() -> sort.sort(keys, index)), x);
+    }
+
+    /**
+     * Test the sort of {@code long} keys against a stable sort of boxed indices.
+     */
+    @ParameterizedTest
+    @MethodSource("sortArguments")
+    void testSortLong(CoSort sort, boolean descending, boolean stable, int size, int range) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final long[] x = rng.longs(size, -range, range).map(v -> v * 12345678901L).toArray();
+        assertSort(x.clone(), x.length, (i, j) -> Long.compare(x[i], x[j]), descending, stable,
+            (keys, index) -> invoke(() -> sort.sort(keys, index)), x);
+    }
+
+    /**
+     * Test the sort of {@code double} keys against a stable sort of boxed indices.
+     */
+    @ParameterizedTest
+    @MethodSource("sortArguments")
+    void testSortDouble(CoSort sort, boolean descending, boolean stable, int size, int range) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[] x = rng.ints(size, -range, range).asDoubleStream().toArray();
+        if (size > 10) {
+            x[0] = Double.NaN;
+            x[1] = -0.0;
+            x[2] = 0.0;
+            x[3] = -0.0;
+            x[4] = Double.NEGATIVE_INFINITY;
+            x[5] = Double.NaN;
+        }
+        assertSort(x.clone(), x.length, (i, j) -> Double.compare(x[i], x[j]), descending, stable,
+            (keys, index) -> invoke(() -> sort.sort(keys, index)), x);
+    }
+
+    static Stream<Arguments> sortArguments() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final boolean descending : new boolean[] {false, true}) {
+            for (final boolean stable : new boolean[] {false, true}) {
+                for (final boolean parallel : new boolean[] {false, true}) {
+                    final CoSort sort = CoSort.withDefaults()
+                        .withDescending(descending)
+                        .withStable(stable)
+                        .withParallel(parallel);
+                    for (final int[] p : new int[][] {{0, 1}, {1, 1}, {2, 1}, {10, 3}, {50, 5},
+                                                      {1000, 10}, {1000, 1000}, {12345, 100},
+                                                      {200000, 1000}}) {
+                        builder.add(Arguments.of(sort, descending, stable, p[0], p[1]));
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the sort of the keys using an index companion array.
+     *
+     * @param <T> Type of the keys.
+     * @param keys Keys.
+     * @param n Length of the keys.
+     * @param cmp Comparator of the indices of the original keys.
+     * @param descending Flag for descending order.
+     * @param stable Flag for a stable sort.
+     * @param sort Sort function.
+     * @param original Original keys.
+     */
+    private static <T> void assertSort(T keys, int n, Comparator<Integer> cmp,
+            boolean descending, boolean stable, BiConsumer<T, int[]> sort, T original) {
+        final Comparator<Integer> c = descending ? cmp.reversed() : cmp;
+        final int[] expected = IntStream.range(0, n).boxed().sorted(c).mapToInt(Integer::intValue).toArray();
+        final int[] index = IntStream.range(0, n).toArray();
+        sort.accept(keys, index);
+        final int[] sorted = index.clone();
+        Arrays.sort(sorted);
+        Assertions.assertArrayEquals(IntStream.range(0, n).toArray(), sorted, "Not a permutation");
+        if (stable) {
+            Assertions.assertArrayEquals(expected, index);
+        } else {
+            for (int i = 0; i < n; i++) {
+                final int j = i;
+                Assertions.assertEquals(0, cmp.compare(expected[i], index[i]), () -> "Key mismatch at " + j);
+            }
+        }
+        // Keys have the same reordering as the companion array
+        Assertions.assertArrayEquals(new Object[] {permute(original, index)}, new Object[] {keys});
+    }
+
+    /**
+     * Apply the permutation to a copy of the array.
+     *
+     * @param <T> Type of the array.
+     * @param a Array.
+     * @param index Permutation.
+     * @return the permuted array
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T permute(T a, int[] index) {
+        if (a instanceof int[]) {
+            final int[] x = (int[]) a;
+            return (T) Arrays.stream(index).map(i -> x[i]).toArray();
+        } else if (a instanceof long[]) {
+            final long[] x = (long[]) a;
+            return (T) Arrays.stream(index).mapToLong(i -> x[i]).toArray();
+        }
+        final double[] x = (double[]) a;
+        return (T) Arrays.stream(index).mapToDouble(i -> x[i]).toArray();
+    }
+
+    @Test
+    void testParallelInCustomPool() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final long[] x = rng.longs(300000, 0, 1000).toArray();
+        final int[] index = IntStream.range(0, x.length).toArray();
+        final long[] expected = x.clone();
+        Arrays.sort(expected);
+        invoke(() -> CoSort.withDefaults().withStable(true).withParallel(true).sort(x, index));
+        Assertions.assertArrayEquals(expected, x);
+        for (int i = 1; i < x.length; i++) {
+            if (x[i - 1] == x[i]) {
+                Assertions.assertTrue(index[i - 1] < index[i], "Not stable");
+            }
+        }
+    }
+}
@@ -75,4 +75,26 @@ class IndexSupportTest {
         builder.add(Arguments.of(0, Integer.MAX_VALUE, Integer.MIN_VALUE));
         return builder.build();
     }
+
+    @ParameterizedTest
+    @MethodSource
+    void testCheckIndexRange(int from, int to, int ka, int kb) {
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> IndexSupport.checkIndexRange(from, to, ka, kb));
+    }
+
+    static Stream<Arguments> testCheckIndexRange() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        // ka < from
+        builder.add(Arguments.of(0, 10, -1, 5));
+        builder.add(Arguments.of(5, 10, 4, 5));
+        builder.add(Arguments.of(0, 10, Integer.MIN_VALUE, 5));
+        // ka > kb
+        builder.add(Arguments.of(0, 10, 3, 2));
+        builder.add(Arguments.of(0, 10, 9, -1));
+        // kb >= to
+        builder.add(Arguments.of(0, 10, 0, 10));
+        builder.add(Arguments.of(0, 10, 5, Integer.MAX_VALUE));
+        builder.add(Arguments.of(5, 5, 5, 5));
+        return builder.build();
+    }
 }
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link ObjectSelection}.
+ */
+class ObjectSelectionTest {
+    @ParameterizedTest
+    @MethodSource(value = {"org.apache.commons.numbers.arrays.SelectionTest#testDoublePartition",
+        "org.apache.commons.numbers.arrays.SelectionTest#testDoublePartitionBigData"})
+    void testObjectSelect(double[] values, int[] indices) {
+        SelectionTest.assertPartition(values, indices, (a, k, n) -> {
+            final Integer[] x = identities(a.length);
+            final Comparator<Integer> c = (i, j) -> Double.compare(a[i], a[j]);
+            Integer[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                ObjectSelection.select(y, k[0], c);
+            }
+            ObjectSelection.select(x, Arrays.copyOf(k, n), c);
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            gather(a, x);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"org.apache.commons.numbers.arrays.SelectionTest#testDoublePartition",
+        "org.apache.commons.numbers.arrays.SelectionTest#testDoublePartitionBigData"})
+    void testObjectSelectRange(double[] values, int[] indices) {
+        SelectionTest.assertPartition(values, indices, (a, k, n) -> {
+            final Integer[] x = identities(a.length);
+            final Comparator<Integer> c = (i, j) -> Double.compare(a[i], a[j]);
+            Integer[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                ObjectSelection.select(y, 0, y.length, k[0], c);
+            }
+            ObjectSelection.select(x, 0, x.length, Arrays.copyOf(k, n), c);
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            gather(a, x);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"org.apache.commons.numbers.arrays.SelectionTest#testDoublePartition",
+        "org.apache.commons.numbers.arrays.SelectionTest#testDoublePartitionBigData"})
+    void testObjectSelectByKey(double[] values, int[] indices) {
+        SelectionTest.assertPartition(values, indices, (a, k, n) -> {
+            final Integer[] x = identities(a.length);
+            final ToDoubleFunction<Integer> key = i -> a[i];
+            Integer[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                ObjectSelection.selectByKey(y, k[0], key);
+            }
+            ObjectSelection.selectByKey(x, Arrays.copyOf(k, n), key);
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            gather(a, x);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"org.apache.commons.numbers.arrays.SelectionTest#testDoublePartition",
+        "org.apache.commons.numbers.arrays.SelectionTest#testDoublePartitionBigData"})
+    void testObjectSelectByKeyRange(double[] values, int[] indices) {
+        SelectionTest.assertPartition(values, indices, (a, k, n) -> {
+            final Integer[] x = identities(a.length);
+            final ToDoubleFunction<Integer> key = i -> a[i];
+            Integer[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                ObjectSelection.selectByKey(y, 0, y.length, k[0], key);
+            }
+            ObjectSelection.selectByKey(x, 0, x.length, Arrays.copyOf(k, n), key);
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            gather(a, x);
+        }, false);
+    }
+
+    @Test
+    void testObjectSelectSubRange() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[] v = rng.ints(500, -10, 10).asDoubleStream().toArray();
+        final Comparator<Integer> c = (i, j) -> Double.compare(v[i], v[j]);
+        final ToDoubleFunction<Integer> key = i -> v[i];
+        final int from = 123;
+        final int to = 456;
+        final double[] sorted = Arrays.copyOfRange(v, from, to);
+        Arrays.sort(sorted);
+        for (final int[] k : new int[][] {{from}, {to - 1}, {200}, {200, 201, 300, from, 200}}) {
+            final Integer[] x = identities(v.length);
+            final Integer[] y = identities(v.length);
+            ObjectSelection.select(x, from, to, k.clone(), c);
+            ObjectSelection.selectByKey(y, from, to, k.clone(), key);
+            for (final Integer[] a : new Integer[][] {x, y}) {
+                for (int i = 0; i < from; i++) {
+                    Assertions.assertEquals(i, a[i].intValue());
+                }
+                for (int i = to; i < v.length; i++) {
+                    Assertions.assertEquals(i, a[i].intValue());
+                }
+                for (final int i : k) {
+                    final double value = sorted[i - from];
+                    Assertions.assertEquals(value, v[a[i]]);
+                    for (int j = from; j < i; j++) {
+                        Assertions.assertTrue(v[a[j]] <= value);
+                    }
+                    for (int j = i + 1; j < to; j++) {
+                        Assertions.assertTrue(v[a[j]] >= value);
+                    }
+                }
+                Assertions.assertArrayEquals(identities(v.length),
+                    Arrays.stream(a).sorted().toArray(Integer[]::new), "Data destroyed");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"org.apache.commons.numbers.arrays.SelectionTest#testDoubleSelectThrows"})
+    void testObjectSelectThrows(double[] values, int[] indices, int from, int to) {
+        final Integer[] a = identities(values.length);
+        final Comparator<Integer> c = Integer::compare;
+        final ToDoubleFunction<Integer> key = Integer::doubleValue;
+        final int[] k = indices.clone();
+        if (from == SelectionTest.IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ObjectSelection.select(a, indices, c));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> ObjectSelection.selectByKey(a, indices, key));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> ObjectSelection.select(a, from, to, indices, c));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> ObjectSelection.selectByKey(a, from, to, indices, key));
+        }
+        Assertions.assertArrayEquals(identities(values.length), a, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == SelectionTest.IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ObjectSelection.select(a, k[0], c));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ObjectSelection.selectByKey(a, k[0], key));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> ObjectSelection.select(a, from, to, k[0], c));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> ObjectSelection.selectByKey(a, from, to, k[0], key));
+        }
+        Assertions.assertArrayEquals(identities(values.length), a, "Data modified for single k");
+    }
+
+    @Test
+    void testObjectSelectNullFunction() {
+        final Integer[] a = identities(5);
+        final int[] k = {1, 2};
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.select(a, 1, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.select(a, k, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.select(a, 0, 5, 1, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.select(a, 0, 5, k, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.selectByKey(a, 1, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.selectByKey(a, k, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.selectByKey(a, 0, 5, 1, null));
+        Assertions.assertThrows(NullPointerException.class, () -> ObjectSelection.selectByKey(a, 0, 5, k, null));
+    }
+
+    /**
+     * Test the introselect on objects has linear run time against an adversary that
+     * assigns values to elements as they are compared to defeat the pivot choice. This
+     * creates quadratic run time for a quickselect without a guaranteed margin.
+     *
+     * @param n Length.
+     * @param k Index.
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "10000, 0",
+        "10000, 5000",
+        "10000, 9999",
+        "12345, 4321",
+    })
+    void testObjectSelectAdversary(int n, int k) {
+        // McIlroy (1999) A Killer Adversary for Quicksort.
+        // Software: Practice and Experience 29 (4): 341-344.
+        final int gas = n;
+        final int[] val = new int[n];
+        Arrays.fill(val, gas);
+        final int[] state = {0, 0, 0};
+        final Comparator<Integer> c = (x, y) -> {
+            // state = {comparisons, solid count, candidate}
+            state[0]++;
+            if (val[x] == gas && val[y] == gas) {
+                val[x == state[2] ? x : y] = state[1]++;
+            }
+            if (val[x] == gas) {
+                state[2] = x;
+            } else if (val[y] == gas) {
+                state[2] = y;
+            }
+            return Integer.compare(val[x], val[y]);
+        };
+        final Integer[] a = identities(n);
+        ObjectSelection.select(a, k, c);
+        final int count = state[0];
+        Assertions.assertTrue(count < 20 * n, () -> "Comparisons " + count);
+        // Freeze remaining values to verify the ordering
+        for (int i = 0; i < n; i++) {
+            if (val[i] == gas) {
+                val[i] = state[1]++;
+            }
+        }
+        final int value = val[a[k]];
+        for (int i = 0; i < n; i++) {
+            final int j = i;
+            Assertions.assertTrue(i < k ? val[a[i]] <= value : val[a[i]] >= value, () -> "k=" + k + ", i=" + j);
+        }
+    }
+
+    /**
+     * Create the identity indices {@code [0, n)}.
+     *
+     * @param n Length.
+     * @return the indices
+     */
+    private static Integer[] identities(int n) {
+        return IntStream.range(0, n).boxed().toArray(Integer[]::new);
+    }
+
+    /**
+     * Reorder the data using the indices.
+     *
+     * @param a Data.
+     * @param index Indices of the data.
+     */
+    private static void gather(double[] a, Integer[] index) {
+        final double[] x = a.clone();
+        for (int i = 0; i < x.length; i++) {
+            a[i] = x[index[i]];
+        }
+    }
+}
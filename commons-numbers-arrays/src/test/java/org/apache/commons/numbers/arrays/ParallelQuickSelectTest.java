@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link ParallelQuickSelect}.
+ *
+ * <p>Uses a small threshold to partition in parallel so the tasks are created
+ * for moderate length arrays.
+ */
+class ParallelQuickSelectTest {
+    /** Threshold to partition in parallel. */
+    private static final int THRESHOLD = 50;
+    /** Pool for the tasks. This has a parallelism above 1 irrespective of the number of processors. */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setup() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void teardown() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDoubleSelect(double[] values, int[] indices, int from, int to) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        final double[] a = values.clone();
+        ParallelQuickSelect.select(pool, THRESHOLD, a, from, to, indices.clone());
+        assertPartition(sorted, a, indices, from, to);
+        Assertions.assertArrayEquals(Arrays.copyOf(values, from), Arrays.copyOf(a, from), "Changed below range");
+        Assertions.assertArrayEquals(Arrays.copyOfRange(values, to, a.length),
+            Arrays.copyOfRange(a, to, a.length), "Changed above range");
+    }
+
+    static Stream<Arguments> testDoubleSelect() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int size : new int[] {10, 100, 1000, 20000, 100000}) {
+            for (final double[] values : createData(rng, size)) {
+                for (final int[] k : createIndices(rng, size)) {
+                    builder.add(Arguments.of(values, k, 0, size));
+                }
+                // Sub-range
+                final int from = size / 10;
+                final int to = size - from;
+                builder.add(Arguments.of(values, new int[] {from}, from, to));
+                builder.add(Arguments.of(values, new int[] {(from + to) >>> 1, to - 1}, from, to));
+            }
+        }
+        // Signed zeros and NaN
+        final double nan = Double.NaN;
+        for (final int size : new int[] {10, 1000, 20000}) {
+            final double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                final int v = rng.nextInt(5);
+                values[i] = v == 0 ? -0.0 : v == 1 ? 0.0 : v == 2 ? nan : v - 4;
+            }
+            for (final int[] k : createIndices(rng, size)) {
+                builder.add(Arguments.of(values, k, 0, size));
+            }
+            builder.add(Arguments.of(values, new int[] {size / 3}, size / 10, size - size / 10));
+            final double[] zeros = new double[size];
+            Arrays.fill(zeros, size >> 1, size, -0.0);
+            builder.add(Arguments.of(zeros, new int[] {1, size >> 1, size - 1}, 0, size));
+            final double[] nans = values.clone();
+            Arrays.fill(nans, nan);
+            nans[0] = -0.0;
+            builder.add(Arguments.of(nans, new int[] {0, size >> 1, size - 1}, 0, size));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testIntSelect(int[] values, int[] indices, int from, int to) {
+        final int[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        final int[] a = values.clone();
+        ParallelQuickSelect.select(pool, THRESHOLD, a, from, to, indices.clone());
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], a[k], () -> "k=" + k);
+        }
+        assertPartition(a, indices, from, to);
+        Arrays.sort(a, from, to);
+        Assertions.assertArrayEquals(sorted, a, "Data destroyed");
+    }
+
+    static Stream<Arguments> testIntSelect() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(456);
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int size : new int[] {10, 1000, 100000}) {
+            for (final double[] values : createData(rng, size)) {
+                final int[] x = Arrays.stream(values).mapToInt(v -> (int) (v * 1000)).toArray();
+                for (final int[] k : createIndices(rng, size)) {
+                    builder.add(Arguments.of(x, k, 0, size));
+                }
+                builder.add(Arguments.of(x, new int[] {size / 2}, size / 10, size - size / 10));
+            }
+            final int[] x = rng.ints(size).toArray();
+            x[0] = Integer.MIN_VALUE;
+            x[1] = Integer.MAX_VALUE;
+            builder.add(Arguments.of(x, new int[] {0, size - 1}, 0, size));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLongSelect(long[] values, int[] indices, int from, int to) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        final long[] a = values.clone();
+        ParallelQuickSelect.select(pool, THRESHOLD, a, from, to, indices.clone());
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], a[k], () -> "k=" + k);
+        }
+        assertPartition(Arrays.stream(a).mapToDouble(v -> v).toArray(), indices, from, to);
+        Arrays.sort(a, from, to);
+        Assertions.assertArrayEquals(sorted, a, "Data destroyed");
+    }
+
+    static Stream<Arguments> testLongSelect() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(789);
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int size : new int[] {10, 1000, 100000}) {
+            for (final double[] values : createData(rng, size)) {
+                final long[] x = Arrays.stream(values).mapToLong(v -> (long) (v * 1000)).toArray();
+                for (final int[] k : createIndices(rng, size)) {
+                    builder.add(Arguments.of(x, k, 0, size));
+                }
+                builder.add(Arguments.of(x, new int[] {size / 2}, size / 10, size - size / 10));
+            }
+            // Values outside the range of a double mantissa
+            final long[] x = rng.longs(size).toArray();
+            x[0] = Long.MIN_VALUE;
+            x[1] = Long.MAX_VALUE;
+            builder.add(Arguments.of(x, new int[] {0, size >> 1, size - 1}, 0, size));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testIsParallel() throws InterruptedException, ExecutionException {
+        final int size = ParallelQuickSelect.PARALLEL_THRESHOLD;
+        Assertions.assertFalse(ParallelQuickSelect.isParallel(size - 1));
+        // Outside a pool this uses the common pool
+        Assertions.assertEquals(ForkJoinPool.commonPool().getParallelism() > 1,
+            ParallelQuickSelect.isParallel(size));
+        Assertions.assertTrue(pool.submit(() -> ParallelQuickSelect.isParallel(size)).get());
+        final ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            Assertions.assertFalse(single.submit(() -> ParallelQuickSelect.isParallel(size)).get());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void testSelectInPool() throws InterruptedException, ExecutionException {
+        // The public API uses the pool of the calling task
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(42);
+        final int size = ParallelQuickSelect.PARALLEL_THRESHOLD * 3;
+        final double[] x = rng.doubles(size).toArray();
+        x[0] = -0.0;
+        x[1] = 0.0;
+        x[2] = Double.NaN;
+        final int[] k = {0, 1, size >> 1, size - 2, size - 1};
+        final double[] sorted = x.clone();
+        Arrays.sort(sorted);
+
+        final double[] a = x.clone();
+        pool.submit(() -> Selection.parallelSelect(a, k.clone())).get();
+        assertPartition(sorted, a, k, 0, size);
+        final double[] b = x.clone();
+        pool.submit(() -> Selection.parallelSelect(b, 0, size, size >> 1)).get();
+        Assertions.assertEquals(sorted[size >> 1], b[size >> 1]);
+
+        final int[] y = rng.ints(size).toArray();
+        final int[] c = y.clone();
+        pool.submit(() -> Selection.parallelSelect(c, k.clone())).get();
+        final int[] d = y.clone();
+        Selection.select(d, k.clone());
+        for (final int i : k) {
+            Assertions.assertEquals(d[i], c[i]);
+        }
+        final int[] c1 = y.clone();
+        pool.submit(() -> Selection.parallelSelect(c1, size >> 1)).get();
+        Assertions.assertEquals(d[size >> 1], c1[size >> 1]);
+
+        final long[] z = rng.longs(size).toArray();
+        final long[] e = z.clone();
+        pool.submit(() -> Selection.parallelSelect(e, 0, size, k.clone())).get();
+        final long[] f = z.clone();
+        Selection.select(f, k.clone());
+        for (final int i : k) {
+            Assertions.assertEquals(f[i], e[i]);
+        }
+        final long[] e1 = z.clone();
+        pool.submit(() -> Selection.parallelSelect(e1, size >> 1)).get();
+        Assertions.assertEquals(f[size >> 1], e1[size >> 1]);
+    }
+
+    @Test
+    void testSelectMaxDepth() {
+        // A task with no remaining depth is processed using QuickSelect
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(97);
+        final int size = 1000;
+        final int[] k = {10, size >> 1, size - 10};
+        for (final int depth : new int[] {0, 1}) {
+            final double[] x = rng.doubles(size).toArray();
+            final double[] sorted = x.clone();
+            Arrays.sort(sorted);
+            pool.invoke(new ParallelQuickSelect.DoubleSelect(x, 0, size - 1, k, k.length, THRESHOLD, depth));
+            assertPartition(sorted, x, k, 0, size);
+
+            final int[] y = rng.ints(size).toArray();
+            final int[] ysorted = y.clone();
+            Arrays.sort(ysorted);
+            pool.invoke(new ParallelQuickSelect.IntSelect(y, 0, size - 1, k, k.length, THRESHOLD, depth));
+            for (final int i : k) {
+                Assertions.assertEquals(ysorted[i], y[i]);
+            }
+
+            final long[] z = rng.longs(size).toArray();
+            final long[] zsorted = z.clone();
+            Arrays.sort(zsorted);
+            pool.invoke(new ParallelQuickSelect.LongSelect(z, 0, size - 1, k, k.length, THRESHOLD, depth));
+            for (final int i : k) {
+                Assertions.assertEquals(zsorted[i], z[i]);
+            }
+        }
+    }
+
+    /**
+     * Create data of the given size.
+     *
+     * @param rng Source of randomness.
+     * @param size Size.
+     * @return the data
+     */
+    private static double[][] createData(UniformRandomProvider rng, int size) {
+        final double[] sorted = rng.doubles(size).sorted().toArray();
+        final double[] reverse = new double[size];
+        for (int i = 0; i < size; i++) {
+            reverse[i] = sorted[size - 1 - i];
+        }
+        final double[] organ = new double[size];
+        for (int i = 0; i < size; i++) {
+            organ[i] = Math.min(i, size - i);
+        }
+        return new double[][] {
+            rng.doubles(size).toArray(),
+            rng.ints(size, 0, 5).asDoubleStream().toArray(),
+            new double[size],
+            sorted,
+            reverse,
+            organ,
+        };
+    }
+
+    /**
+     * Create indices for data of the given size.
+     *
+     * @param rng Source of randomness.
+     * @param size Size.
+     * @return the indices
+     */
+    private static int[][] createIndices(UniformRandomProvider rng, int size) {
+        return new int[][] {
+            {0},
+            {size - 1},
+            {size >> 1},
+            {rng.nextInt(size)},
+            {size >> 1, (size >> 1) + 1},
+            {size / 4, size >> 1, 3 * size / 4},
+            // Duplicates and unordered
+            {size - 1, 0, size - 1, 0},
+            rng.ints(10, 0, size).toArray(),
+        };
+    }
+
+    /**
+     * Assert the data is partitioned at the indices.
+     *
+     * @param sorted Sorted data.
+     * @param a Partitioned data.
+     * @param indices Indices.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     */
+    private static void assertPartition(double[] sorted, double[] a, int[] indices, int from, int to) {
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], a[k], () -> "k=" + k);
+        }
+        assertPartition(a, indices, from, to);
+        final double[] b = a.clone();
+        Arrays.sort(b, from, to);
+        Assertions.assertArrayEquals(sorted, b, "Data destroyed");
+    }
+
+    /**
+     * Assert the data is partitioned at the indices.
+     *
+     * @param a Partitioned data.
+     * @param indices Indices.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     */
+    private static void assertPartition(double[] a, int[] indices, int from, int to) {
+        for (final int k : indices) {
+            for (int i = from; i < k; i++) {
+                final int j = i;
+                Assertions.assertTrue(Double.compare(a[i], a[k]) <= 0, () -> j + " < " + k);
+            }
+            for (int i = k + 1; i < to; i++) {
+                final int j = i;
+                Assertions.assertTrue(Double.compare(a[i], a[k]) >= 0, () -> k + " < " + j);
+            }
+        }
+    }
+
+    /**
+     * Assert the data is partitioned at the indices.
+     *
+     * @param a Partitioned data.
+     * @param indices Indices.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     */
+    private static void assertPartition(int[] a, int[] indices, int from, int to) {
+        assertPartition(Arrays.stream(a).asDoubleStream().toArray(), indices, from, to);
+    }
+}
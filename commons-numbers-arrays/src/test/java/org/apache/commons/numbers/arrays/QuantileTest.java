@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.apache.commons.numbers.arrays.Quantile.EstimationMethod;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link Quantile}.
+ */
+class QuantileTest {
+    /** Probabilities to test. */
+    private static final double[] PROBABILITIES = {
+        0, 0.01, 0.1, 0.125, 0.2, 0.25, 1.0 / 3, 0.5, 0.6, 2.0 / 3, 0.75, 0.9, 0.99, 1,
+    };
+
+    @Test
+    void testDefaults() {
+        final Quantile q = Quantile.withDefaults();
+        Assertions.assertSame(q, Quantile.withDefaults());
+        final double[] a = {4, 3, 2, 1};
+        // HF8
+        Assertions.assertEquals(2.5, q.evaluate(a, 0.5));
+        Assertions.assertEquals(1, q.evaluate(a, 0));
+        Assertions.assertEquals(4, q.evaluate(a, 1));
+        Assertions.assertArrayEquals(new double[] {4, 3, 2, 1}, a, "Data modified");
+    }
+
+    @Test
+    void testNullOptions() {
+        final Quantile q = Quantile.withDefaults();
+        Assertions.assertThrows(NullPointerException.class, () -> q.with((NaNPolicy) null));
+        Assertions.assertThrows(NullPointerException.class, () -> q.with((EstimationMethod) null));
+    }
+
+    @ParameterizedTest
+    @EnumSource
+    void testMedianOfFour(EstimationMethod method) {
+        final double expected;
+        switch (method) {
+        case HF1:
+        case HF3:
+        case HF4:
+            expected = 2;
+            break;
+        default:
+            expected = 2.5;
+        }
+        final Quantile q = Quantile.withDefaults().with(method);
+        Assertions.assertEquals(expected, q.evaluate(new double[] {3, 1, 4, 2}, 0.5));
+        Assertions.assertEquals(expected, q.evaluate(new int[] {3, 1, 4, 2}, 0.5));
+        Assertions.assertEquals(expected, q.evaluate(new long[] {3, 1, 4, 2}, 0.5));
+    }
+
+    @ParameterizedTest
+    @EnumSource
+    void testEmpty(EstimationMethod method) {
+        final Quantile q = Quantile.withDefaults().with(method);
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[0], 0.5));
+        Assertions.assertEquals(Double.NaN, q.evaluate(new int[0], 0.5));
+        Assertions.assertEquals(Double.NaN, q.evaluate(new long[0], 0.5));
+        final double[] nan = {Double.NaN, Double.NaN};
+        Assertions.assertArrayEquals(nan, q.evaluate(new double[0], 0.25, 0.75));
+        Assertions.assertArrayEquals(nan, q.evaluate(new int[0], 0.25, 0.75));
+        Assertions.assertArrayEquals(nan, q.evaluate(new long[0], 0.25, 0.75));
+        // All NaN data is empty when excluded
+        Assertions.assertArrayEquals(nan, q.with(NaNPolicy.EXCLUDE).evaluate(nan.clone(), 0.25, 0.75));
+        // No probabilities
+        Assertions.assertArrayEquals(new double[0], q.evaluate(new double[] {1, 2}));
+    }
+
+    @ParameterizedTest
+    @EnumSource
+    void testSingleValue(EstimationMethod method) {
+        final Quantile q = Quantile.withDefaults().with(method);
+        for (final double p : PROBABILITIES) {
+            Assertions.assertEquals(42, q.evaluate(new double[] {42}, p));
+            Assertions.assertEquals(42, q.evaluate(new int[] {42}, p));
+            Assertions.assertEquals(42, q.evaluate(new long[] {42}, p));
+        }
+    }
+
+    @Test
+    void testInvalidProbability() {
+        final Quantile q = Quantile.withDefaults();
+        final double[] a = {1, 2, 3};
+        final int[] b = {1, 2, 3};
+        final long[] c = {1, 2, 3};
+        for (final double p : new double[] {-0.1, 1.1, Double.NaN, Double.NEGATIVE_INFINITY}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(a, p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(b, p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(c, p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(a, 0.5, p));
+            // Empty data is validated
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(new double[0], p));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDouble(double[] values, EstimationMethod method) {
+        final double[] expected = new double[PROBABILITIES.length];
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = quantile(sorted, PROBABILITIES[i], method);
+        }
+        // Copy
+        final Quantile q = Quantile.withDefaults().with(method);
+        final double[] a = values.clone();
+        assertQuantiles(expected, q.evaluate(a, PROBABILITIES), method);
+        Assertions.assertArrayEquals(values, a, "Data modified");
+        for (int i = 0; i < expected.length; i++) {
+            assertQuantile(expected[i], q.evaluate(a, PROBABILITIES[i]), method);
+        }
+        // In-place
+        final Quantile q2 = q.withCopy(false);
+        assertQuantiles(expected, q2.evaluate(a, PROBABILITIES), method);
+        Arrays.sort(a);
+        Assertions.assertArrayEquals(sorted, a, "Data values changed");
+        // Order of probabilities is preserved
+        final double[] p = PROBABILITIES.clone();
+        final double[] e = expected.clone();
+        reverse(p);
+        reverse(e);
+        assertQuantiles(e, q2.evaluate(values.clone(), p), method);
+        assertQuantiles(e, q.evaluate(values, p), method);
+    }
+
+    static Stream<Arguments> testDouble() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(9876);
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final EstimationMethod m : EstimationMethod.values()) {
+            for (final int size : new int[] {2, 3, 4, 5, 10, 11, 100, 101, 5000}) {
+                builder.add(Arguments.of(rng.doubles(size).toArray(), m));
+                // Repeated values
+                builder.add(Arguments.of(rng.ints(size, 0, 5).asDoubleStream().toArray(), m));
+            }
+            // Large enough to use a non-destructive band selection
+            builder.add(Arguments.of(rng.doubles(20000).toArray(), m));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "testDouble")
+    void testInt(double[] data, EstimationMethod method) {
+        final int[] values = Arrays.stream(data).mapToInt(v -> (int) (v * 100000)).toArray();
+        final double[] expected = new double[PROBABILITIES.length];
+        final double[] sorted = Arrays.stream(values).asDoubleStream().sorted().toArray();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = quantile(sorted, PROBABILITIES[i], method);
+        }
+        final Quantile q = Quantile.withDefaults().with(method);
+        final int[] a = values.clone();
+        assertQuantiles(expected, q.evaluate(a, PROBABILITIES), method);
+        Assertions.assertArrayEquals(values, a, "Data modified");
+        assertQuantile(expected[1], q.evaluate(a, PROBABILITIES[1]), method);
+        assertQuantiles(expected, q.withCopy(false).evaluate(a, PROBABILITIES), method);
+        Arrays.sort(a);
+        Assertions.assertArrayEquals(sorted, Arrays.stream(a).asDoubleStream().toArray(), "Data values changed");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "testDouble")
+    void testLong(double[] data, EstimationMethod method) {
+        final long[] values = Arrays.stream(data).mapToLong(v -> (long) (v * 0x1.0p40)).toArray();
+        final double[] expected = new double[PROBABILITIES.length];
+        final double[] sorted = Arrays.stream(values).asDoubleStream().sorted().toArray();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = quantile(sorted, PROBABILITIES[i], method);
+        }
+        final Quantile q = Quantile.withDefaults().with(method);
+        final long[] a = values.clone();
+        assertQuantiles(expected, q.evaluate(a, PROBABILITIES), method);
+        Assertions.assertArrayEquals(values, a, "Data modified");
+        assertQuantile(expected[1], q.evaluate(a, PROBABILITIES[1]), method);
+        assertQuantiles(expected, q.withCopy(false).evaluate(a, PROBABILITIES), method);
+        Arrays.sort(a);
+        Assertions.assertArrayEquals(sorted, Arrays.stream(a).asDoubleStream().toArray(), "Data values changed");
+    }
+
+    @ParameterizedTest
+    @EnumSource
+    void testNaN(EstimationMethod method) {
+        final double nan = Double.NaN;
+        final double[] values = {nan, 3, 1, nan, 4, 2};
+        final double[] finite = {3, 1, 4, 2};
+        final Quantile q = Quantile.withDefaults().with(method);
+        for (final boolean copy : new boolean[] {true, false}) {
+            final Quantile q2 = q.withCopy(copy);
+            // Include: NaN is above all other values
+            Assertions.assertEquals(1, q2.evaluate(values.clone(), 0));
+            Assertions.assertEquals(nan, q2.evaluate(values.clone(), 1));
+            Assertions.assertArrayEquals(
+                q2.evaluate(new double[] {3, 1, 4, 2, 5, 6}, 0.25, 0.5),
+                q2.evaluate(values.clone(), 0.25, 0.5));
+            // Exclude
+            final Quantile q3 = q2.with(NaNPolicy.EXCLUDE);
+            Assertions.assertArrayEquals(
+                q3.evaluate(finite.clone(), PROBABILITIES),
+                q3.evaluate(values.clone(), PROBABILITIES));
+            // Error
+            final Quantile q4 = q2.with(NaNPolicy.ERROR);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q4.evaluate(values.clone(), 0.5));
+            Assertions.assertEquals(q2.evaluate(finite.clone(), 0.5), q4.evaluate(finite.clone(), 0.5));
+        }
+    }
+
+    @Test
+    void testSignedZeros() {
+        final Quantile q = Quantile.withDefaults().with(EstimationMethod.HF1);
+        final double[] values = {0.0, -0.0, 0.0, -0.0};
+        Assertions.assertEquals(-0.0, q.evaluate(values, 0.5));
+        Assertions.assertEquals(0.0, q.evaluate(values, 0.75));
+    }
+
+    @Test
+    void testInfinite() {
+        final double inf = Double.POSITIVE_INFINITY;
+        final double max = Double.MAX_VALUE;
+        final Quantile q = Quantile.withDefaults().with(EstimationMethod.HF7);
+        Assertions.assertEquals(inf, q.evaluate(new double[] {inf, inf, 1}, 0.75));
+        Assertions.assertEquals(-inf, q.evaluate(new double[] {-inf, -inf, 1}, 0.25));
+        Assertions.assertEquals(inf, q.evaluate(new double[] {0, inf}, 0.5));
+        Assertions.assertEquals(-inf, q.evaluate(new double[] {-inf, 0}, 0.5));
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[] {-inf, inf}, 0.5));
+        // Overflow of the difference
+        Assertions.assertEquals(0, q.evaluate(new double[] {-max, max}, 0.5));
+        Assertions.assertEquals(max / 2, q.evaluate(new double[] {-max, max}, 0.75), Math.ulp(max));
+    }
+
+    @Test
+    void testLongPrecision() {
+        final Quantile q = Quantile.withDefaults().with(EstimationMethod.HF7);
+        final long max = Long.MAX_VALUE;
+        Assertions.assertEquals(max, q.evaluate(new long[] {max, max, 0}, 1));
+        Assertions.assertEquals(-0x1.0p63, q.evaluate(new long[] {Long.MIN_VALUE, max}, 0));
+        Assertions.assertEquals(0, q.evaluate(new long[] {Long.MIN_VALUE, max}, 0.5), 1);
+    }
+
+    @Test
+    void testInterpolate() {
+        Assertions.assertEquals(1, Quantile.interpolate(1, 1, 0.5));
+        Assertions.assertEquals(1.25, Quantile.interpolate(1, 2, 0.25));
+        Assertions.assertEquals(Double.NaN, Quantile.interpolate(Double.NaN, Double.NaN, 0));
+        Assertions.assertEquals(Double.NaN, Quantile.interpolate(1, Double.NaN, 0.5));
+    }
+
+    private static void reverse(double[] a) {
+        for (int i = -1, j = a.length; ++i < --j;) {
+            final double v = a[i];
+            a[i] = a[j];
+            a[j] = v;
+        }
+    }
+
+    private static void assertQuantiles(double[] expected, double[] actual, EstimationMethod method) {
+        Assertions.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertQuantile(expected[i], actual[i], method);
+        }
+    }
+
+    private static void assertQuantile(double expected, double actual, EstimationMethod method) {
+        // Discontinuous methods that select an observation should be exact
+        if (method == EstimationMethod.HF1 || method == EstimationMethod.HF3) {
+            Assertions.assertEquals(expected, actual);
+        } else {
+            Assertions.assertEquals(expected, actual, Math.abs(expected) * 1e-12);
+        }
+    }
+
+    /**
+     * Compute the quantile using the definition of Hyndman and Fan (1996) as a
+     * weighted sum of adjacent order statistics
+     * {@code Q(p) = (1 - g) x[j] + g x[j+1]} with {@code j = floor(np + m)},
+     * {@code g = np + m - j} and {@code x} indexed from 1.
+     *
+     * @param x Sorted data.
+     * @param p Probability.
+     * @param method Estimation method.
+     * @return the quantile
+     */
+    private static double quantile(double[] x, double p, EstimationMethod method) {
+        final int n = x.length;
+        final double m;
+        switch (method) {
+        case HF1:
+        case HF2:
+        case HF4:
+            m = 0;
+            break;
+        case HF3:
+            m = -0.5;
+            break;
+        case HF5:
+            m = 0.5;
+            break;
+        case HF6:
+            m = p;
+            break;
+        case HF7:
+            m = 1 - p;
+            break;
+        case HF8:
+            m = (p + 1) / 3;
+            break;
+        case HF9:
+            m = p / 4 + 3.0 / 8;
+            break;
+        default:
+            throw new IllegalStateException(method.toString());
+        }
+        final double np = n * p + m;
+        final int j = (int) Math.floor(np);
+        double g = np - j;
+        if (method == EstimationMethod.HF1) {
+            g = g > 0 ? 1 : 0;
+        } else if (method == EstimationMethod.HF2) {
+            g = g > 0 ? 1 : 0.5;
+        } else if (method == EstimationMethod.HF3) {
+            g = g == 0 && (j & 1) == 0 ? 0 : 1;
+        }
+        // Clip to the data; x_0 = x_1 and x_{n+1} = x_n
+        final double lo = x[Math.min(Math.max(j, 1), n) - 1];
+        final double hi = x[Math.min(Math.max(j + 1, 1), n) - 1];
+        if (g == 0) {
+            return lo;
+        }
+        if (g == 1) {
+            return hi;
+        }
+        return (1 - g) * lo + g * hi;
+    }
+}
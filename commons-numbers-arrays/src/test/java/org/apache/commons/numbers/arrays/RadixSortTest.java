@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for the {@link RadixSort} class.
+ */
+class RadixSortTest {
+    /** Length above the threshold for a parallel sort. */
+    private static final int PARALLEL_LENGTH = ParallelQuickSelect.PARALLEL_THRESHOLD * 3 + 7;
+
+    /** Pool used to run the parallel sort with multiple threads. */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setup() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void teardown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testInvalidRange() {
+        final int[] a = new int[5];
+        final long[] b = new long[5];
+        final double[] c = new double[5];
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RadixSort.sort(a, -1, 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RadixSort.sort(b, 3, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RadixSort.sort(c, 0, 6));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RadixSort.parallelSort(a, -1, 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RadixSort.parallelSort(b, 3, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RadixSort.parallelSort(c, 0, 6));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testSortInt(int[] a) throws InterruptedException, ExecutionException {
+        final int[] expected = a.clone();
+        Arrays.sort(expected);
+        final int[] x = a.clone();
+        RadixSort.sort(x);
+        Assertions.assertArrayEquals(expected, x);
+        final int[] y = a.clone();
+        invoke(() -> RadixSort.parallelSort(y));
+        Assertions.assertArrayEquals(expected, y);
+        if (a.length > 2) {
+            final int to = a.length - 1;
+            final int[] e = a.clone();
+            Arrays.sort(e, 1, to);
+            final int[] z = a.clone();
+            RadixSort.sort(z, 1, to);
+            Assertions.assertArrayEquals(e, z);
+            final int[] w = a.clone();
+            invoke(() -> RadixSort.parallelSort(w, 1, to));
+            Assertions.assertArrayEquals(e, w);
+        }
+    }
+
+    static Stream<Arguments> testSortInt() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int n : new int[] {0, 1, 2, 10, RadixSort.MIN_RADIX_SORT_LENGTH - 1,
+                                      RadixSort.MIN_RADIX_SORT_LENGTH, 5000, PARALLEL_LENGTH}) {
+            builder.add(Arguments.of(rng.ints(n).toArray()));
+            builder.add(Arguments.of(rng.ints(n, -10, 10).toArray()));
+            builder.add(Arguments.of(rng.ints(n, 0, 1 << 20).map(x -> x << 6).toArray()));
+            builder.add(Arguments.of(IntStream.range(0, n).map(x -> n - x).toArray()));
+            builder.add(Arguments.of(new int[n]));
+            final int[] a = rng.ints(n, -3, 3).toArray();
+            if (n > 1) {
+                a[0] = Integer.MIN_VALUE;
+                a[n - 1] = Integer.MAX_VALUE;
+            }
+            builder.add(Arguments.of(a));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testSortLong(long[] a) throws InterruptedException, ExecutionException {
+        final long[] expected = a.clone();
+        Arrays.sort(expected);
+        final long[] x = a.clone();
+        RadixSort.sort(x);
+        Assertions.assertArrayEquals(expected, x);
+        final long[] y = a.clone();
+        invoke(() -> RadixSort.parallelSort(y));
+        Assertions.assertArrayEquals(expected, y);
+        if (a.length > 2) {
+            final int to = a.length - 1;
+            final long[] e = a.clone();
+            Arrays.sort(e, 1, to);
+            final long[] z = a.clone();
+            RadixSort.sort(z, 1, to);
+            Assertions.assertArrayEquals(e, z);
+            final long[] w = a.clone();
+            invoke(() -> RadixSort.parallelSort(w, 1, to));
+            Assertions.assertArrayEquals(e, w);
+        }
+    }
+
+    static Stream<Arguments> testSortLong() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int n : new int[] {0, 1, 2, 10, RadixSort.MIN_RADIX_SORT_LENGTH - 1,
+                                      RadixSort.MIN_RADIX_SORT_LENGTH, 5000, PARALLEL_LENGTH}) {
+            builder.add(Arguments.of(rng.longs(n).toArray()));
+            builder.add(Arguments.of(rng.longs(n, -10, 10).toArray()));
+            builder.add(Arguments.of(rng.longs(n, 0, 1 << 20).map(x -> x << 40).toArray()));
+            builder.add(Arguments.of(IntStream.range(0, n).asLongStream().map(x -> n - x).toArray()));
+            builder.add(Arguments.of(new long[n]));
+            final long[] a = rng.longs(n, -3, 3).toArray();
+            if (n > 1) {
+                a[0] = Long.MIN_VALUE;
+                a[n - 1] = Long.MAX_VALUE;
+            }
+            builder.add(Arguments.of(a));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testSortDouble(double[] a) throws InterruptedException, ExecutionException {
+        final double[] expected = a.clone();
+        Arrays.sort(expected);
+        final double[] x = a.clone();
+        RadixSort.sort(x);
+        Assertions.assertArrayEquals(expected, x);
+        final double[] y = a.clone();
+        invoke(() -> RadixSort.parallelSort(y));
+        Assertions.assertArrayEquals(expected, y);
+        if (a.length > 2) {
+            final int to = a.length - 1;
+            final double[] e = a.clone();
+            Arrays.sort(e, 1, to);
+            final double[] z = a.clone();
+            RadixSort.sort(z, 1, to);
+            Assertions.assertArrayEquals(e, z);
+            final double[] w = a.clone();
+            invoke(() -> RadixSort.parallelSort(w, 1, to));
+            Assertions.assertArrayEquals(e, w);
+        }
+    }
+
+    static Stream<Arguments> testSortDouble() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[] special = {-0.0, 0.0, Double.NaN, Double.longBitsToDouble(0xfff0000000000001L),
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE,
+            Double.MAX_VALUE, -Double.MAX_VALUE, 1, -1};
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int n : new int[] {0, 1, 2, 10, RadixSort.MIN_RADIX_SORT_LENGTH - 1,
+                                      RadixSort.MIN_RADIX_SORT_LENGTH, 5000, PARALLEL_LENGTH}) {
+            builder.add(Arguments.of(rng.doubles(n).map(x -> x - 0.5).toArray()));
+            builder.add(Arguments.of(rng.doubles(n).map(x -> Math.scalb(x - 0.5, rng.nextInt(200) - 100)).toArray()));
+            builder.add(Arguments.of(rng.ints(n, -10, 10).asDoubleStream().toArray()));
+            builder.add(Arguments.of(IntStream.range(0, n).asDoubleStream().map(x -> n - x).toArray()));
+            builder.add(Arguments.of(new double[n]));
+            builder.add(Arguments.of(rng.ints(n, 0, special.length).mapToDouble(i -> special[i]).toArray()));
+            final double[] a = rng.doubles(n).toArray();
+            Arrays.fill(a, 0, n >> 1, Double.NaN);
+            builder.add(Arguments.of(a));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testParallelSortInCustomPool() throws InterruptedException, ExecutionException {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final int[] a = rng.ints(PARALLEL_LENGTH).toArray();
+        final long[] b = rng.longs(PARALLEL_LENGTH).toArray();
+        final double[] c = rng.doubles(PARALLEL_LENGTH).toArray();
+        final int[] ea = a.clone();
+        final long[] eb = b.clone();
+        final double[] ec = c.clone();
+        Arrays.sort(ea);
+        Arrays.sort(eb);
+        Arrays.sort(ec);
+        invoke(() -> {
+            RadixSort.parallelSort(a);
+            RadixSort.parallelSort(b);
+            RadixSort.parallelSort(c);
+        });
+        Assertions.assertArrayEquals(ea, a);
+        Assertions.assertArrayEquals(eb, b);
+        Assertions.assertArrayEquals(ec, c);
+    }
+
+    /**
+     * Run the action in the multi-threaded pool.
+     *
+     * @param action Action.
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws ExecutionException if the computation threw an exception
+     */
+    private static void invoke(Runnable action) throws InterruptedException, ExecutionException {
+        pool.submit(action).get();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.apache.commons.numbers.arrays.Quantile.EstimationMethod;
+import org.apache.commons.numbers.arrays.RollingQuantile.DoubleWindow;
+import org.apache.commons.numbers.arrays.RollingQuantile.LongWindow;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for the {@link RollingQuantile} class.
+ */
+class RollingQuantileTest {
+    /** Probabilities to test. */
+    private static final double[] PROBABILITIES = {0, 0.01, 0.25, 1.0 / 3, 0.5, 0.75, 0.99, 1};
+
+    @Test
+    void testInvalidWindow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RollingQuantile.of(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RollingQuantile.of(-1));
+    }
+
+    @Test
+    void testInvalidProbability() {
+        final RollingQuantile q = RollingQuantile.of(3);
+        for (final double p : new double[] {-0.1, 1.1, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.ofDouble(p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.ofLong(p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(new double[3], p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(new long[3], p));
+        }
+    }
+
+    @Test
+    void testNullEstimationMethod() {
+        final RollingQuantile q = RollingQuantile.of(3);
+        Assertions.assertThrows(NullPointerException.class, () -> q.with(null));
+    }
+
+    @Test
+    void testEmptyWindow() {
+        final DoubleWindow a = RollingQuantile.of(3).ofDouble(0.5);
+        final LongWindow b = RollingQuantile.of(3).ofLong(0.5);
+        Assertions.assertEquals(0, a.size());
+        Assertions.assertEquals(0, b.size());
+        Assertions.assertEquals(Double.NaN, a.getAsDouble());
+        Assertions.assertEquals(Double.NaN, b.getAsDouble());
+    }
+
+    @Test
+    void testShortData() {
+        final RollingQuantile q = RollingQuantile.of(5);
+        Assertions.assertEquals(0, q.evaluate(new double[4], 0.5).length);
+        Assertions.assertEquals(0, q.evaluate(new long[4], 0.5).length);
+        Assertions.assertEquals(1, q.evaluate(new double[5], 0.5).length);
+        Assertions.assertEquals(1, q.evaluate(new long[5], 0.5).length);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDouble(double[] values, int window) {
+        for (final EstimationMethod method : EstimationMethod.values()) {
+            final Quantile quantile = Quantile.withDefaults().with(method);
+            final RollingQuantile rolling = RollingQuantile.of(window).with(method);
+            for (final double p : PROBABILITIES) {
+                final double[] q = rolling.evaluate(values, p);
+                Assertions.assertEquals(Math.max(0, values.length - window + 1), q.length);
+                for (int i = 0; i < q.length; i++) {
+                    final double expected = quantile.evaluate(Arrays.copyOfRange(values, i, i + window), p);
+                    final int index = i;
+                    Assertions.assertEquals(expected, q[i], () -> method + " p=" + p + " window " + index);
+                }
+                // Partial windows
+                final DoubleWindow w = rolling.ofDouble(p);
+                for (int i = 0; i < Math.min(values.length, window); i++) {
+                    w.accept(values[i]);
+                    Assertions.assertEquals(i + 1, w.size());
+                    final double expected = quantile.evaluate(Arrays.copyOf(values, i + 1), p);
+                    final int index = i;
+                    Assertions.assertEquals(expected, w.getAsDouble(), () -> method + " p=" + p + " size " + index);
+                }
+            }
+        }
+    }
+
+    static Stream<Arguments> testDouble() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final double[] special = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1, -1};
+        for (final int w : new int[] {1, 2, 3, 4, 5, 10, 31}) {
+            builder.add(Arguments.of(rng.doubles(100).toArray(), w));
+            builder.add(Arguments.of(rng.ints(100, -3, 3).asDoubleStream().toArray(), w));
+            builder.add(Arguments.of(rng.ints(100, 0, special.length).mapToDouble(i -> special[i]).toArray(), w));
+        }
+        // Ascending and descending trends
+        builder.add(Arguments.of(rng.doubles(100).map(x -> x * 10).map(Math::rint).sorted().toArray(), 7));
+        final double[] a = rng.doubles(100).sorted().toArray();
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            final double v = a[i];
+            a[i] = a[j];
+            a[j] = v;
+        }
+        builder.add(Arguments.of(a, 7));
+        builder.add(Arguments.of(new double[3], 5));
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLong(long[] values, int window) {
+        for (final EstimationMethod method : EstimationMethod.values()) {
+            final Quantile quantile = Quantile.withDefaults().with(method);
+            final RollingQuantile rolling = RollingQuantile.of(window).with(method);
+            for (final double p : PROBABILITIES) {
+                final double[] q = rolling.evaluate(values, p);
+                Assertions.assertEquals(Math.max(0, values.length - window + 1), q.length);
+                for (int i = 0; i < q.length; i++) {
+                    final double expected = quantile.evaluate(Arrays.copyOfRange(values, i, i + window), p);
+                    final int index = i;
+                    Assertions.assertEquals(expected, q[i], () -> method + " p=" + p + " window " + index);
+                }
+                // Partial windows
+                final LongWindow w = rolling.ofLong(p);
+                for (int i = 0; i < Math.min(values.length, window); i++) {
+                    w.accept(values[i]);
+                    Assertions.assertEquals(i + 1, w.size());
+                    final double expected = quantile.evaluate(Arrays.copyOf(values, i + 1), p);
+                    final int index = i;
+                    Assertions.assertEquals(expected, w.getAsDouble(), () -> method + " p=" + p + " size " + index);
+                }
+            }
+        }
+    }
+
+    static Stream<Arguments> testLong() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final long[] special = {Long.MIN_VALUE, Long.MAX_VALUE, 0, 1, -1};
+        for (final int w : new int[] {1, 2, 3, 4, 5, 10, 31}) {
+            builder.add(Arguments.of(rng.longs(100).toArray(), w));
+            builder.add(Arguments.of(rng.longs(100, -3, 3).toArray(), w));
+            builder.add(Arguments.of(rng.ints(100, 0, special.length).mapToLong(i -> special[i]).toArray(), w));
+        }
+        builder.add(Arguments.of(rng.longs(100, 0, 10).sorted().toArray(), 7));
+        builder.add(Arguments.of(new long[3], 5));
+        return builder.build();
+    }
+}
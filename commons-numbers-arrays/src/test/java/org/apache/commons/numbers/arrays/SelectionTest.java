@@ -36,10 +36,10 @@ import org.junit.jupiter.params.provider.MethodSource;
  * Test for {@link Selection} and {@link QuickSelect}.
  */
 class SelectionTest {
+    /** Signal to ignore the range of [from, to). */
+    static final int IGNORE_FROM = -1236481268;
     /** Default sub-sampling size for the Floyd-Rivest algorithm. */
     private static final int SU = 1200;
-    /** Signal to ignore the range of [from, to). */
-    private static final int IGNORE_FROM = -1236481268;
 
     /**
      * {@link UpdatingInterval} for range {@code [left, right]}.
@@ -117,7 +117,7 @@ class SelectionTest {
     /**
      * Partition function. Used to test different implementations.
      */
-    private interface DoublePartitionFunction {
+    interface DoublePartitionFunction {
         /**
          * Partition the array such that indices {@code k} correspond to their correctly
          * sorted value in the equivalent fully sorted array. For all indices {@code k}
@@ -562,6 +562,264 @@ class SelectionTest {
         }, false);
     }
 
+    @Test
+    void testDoubleSelectSubRangeSignedZeros() {
+        // Zeros outside the sub-range must not be used to restore signed zeros
+        final double[] values = {0.0, -0.0, 0.0, -0.0, -1, -0.0, 1, -0.0, 2, 0.0, -0.0};
+        final int from = 4;
+        final int to = values.length - 1;
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        for (int k = from; k < to; k++) {
+            final double[] a = values.clone();
+            Selection.select(a, from, to, k);
+            Assertions.assertEquals(sorted[k], a[k]);
+            Arrays.sort(a, from, to);
+            Assertions.assertArrayEquals(sorted, a);
+            final double[] b = values.clone();
+            Selection.select(b, from, to, new int[] {k});
+            Assertions.assertEquals(sorted[k], b[k]);
+            Arrays.sort(b, from, to);
+            Assertions.assertArrayEquals(sorted, b);
+            final double[] c = values.clone();
+            Selection.select(c, from, to, new int[] {from, k});
+            Assertions.assertEquals(sorted[k], c[k]);
+            Arrays.sort(c, from, to);
+            Assertions.assertArrayEquals(sorted, c);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleParallelSelect(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            if (n == 1) {
+                final double[] b = a.clone();
+                Selection.parallelSelect(b, k[0]);
+                Assertions.assertEquals(sort(values)[k[0]], b[k[0]], "single k mismatch");
+            }
+            Selection.parallelSelect(a, Arrays.copyOf(k, n));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleParallelSelectRange(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            if (n == 1) {
+                final double[] b = a.clone();
+                Selection.parallelSelect(b, 0, b.length, k[0]);
+                Assertions.assertEquals(sort(values)[k[0]], b[k[0]], "single k mismatch");
+            }
+            Selection.parallelSelect(a, 0, a.length, Arrays.copyOf(k, n));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleSelectValue(double[] values, int[] indices) {
+        final double[] a = values.clone();
+        final double[] sorted = sort(values);
+        final double[] expected = Arrays.stream(indices).mapToDouble(k -> sorted[k]).toArray();
+        Assertions.assertArrayEquals(expected, Selection.selectValues(a, indices.clone()));
+        Assertions.assertArrayEquals(expected, Selection.selectValues(a, 0, a.length, indices.clone()));
+        for (int i = Math.min(5, indices.length); --i >= 0;) {
+            Assertions.assertEquals(expected[i], Selection.selectValue(a, indices[i]));
+            Assertions.assertEquals(expected[i], Selection.selectValue(a, 0, a.length, indices[i]));
+        }
+        Assertions.assertArrayEquals(values, a, "Data modified");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSelectThrows"})
+    void testDoubleSelectValueThrows(double[] values, int[] indices, int from, int to) {
+        final double[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectValues(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.selectValues(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectValue(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.selectValue(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleHeapSelectRange"})
+    void testDoubleQuickSelectPartialSort(double[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::partialSort, values, from, to, k1, k2);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDoublePartialSort(double[] values, int ka, int kb) {
+        final double[] sorted = sort(values);
+        final double[] a = values.clone();
+        Selection.partialSort(a, ka, kb);
+        assertPartialSort(sorted, a, 0, a.length, ka, kb);
+        // Sub-range excluding the ends
+        if (ka > 0 && kb < values.length - 1) {
+            final int to = values.length - 1;
+            final double[] b = values.clone();
+            Selection.partialSort(b, 1, to, ka, kb);
+            assertPartialSort(sort(values, 1, to - 1), b, 1, to, ka, kb);
+            Assertions.assertEquals(values[0], b[0]);
+            Assertions.assertEquals(values[to], b[to]);
+        }
+    }
+
+    static Stream<Arguments> testDoublePartialSort() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        builder.add(Arguments.of(new double[] {1}, 0, 0));
+        builder.add(Arguments.of(new double[] {2, 1}, 0, 1));
+        builder.add(Arguments.of(new double[] {-0.0, 0.0, -0.0, 1, -1, Double.NaN}, 1, 3));
+        builder.add(Arguments.of(new double[] {Double.NaN, 0.0, -0.0, Double.NaN, -0.0, 0.0}, 2, 5));
+        builder.add(Arguments.of(new double[] {Double.NaN, Double.NaN, 1, Double.NaN}, 1, 2));
+        for (final int size : new int[] {10, 50, 500, 5000}) {
+            final double[] a = rng.doubles(size).toArray();
+            final double[] b = rng.ints(size, -3, 3).asDoubleStream().toArray();
+            final double[] c = b.clone();
+            for (int i = 0; i < size; i += 7) {
+                c[i] = i % 2 == 0 ? -0.0 : Double.NaN;
+            }
+            for (final double[] x : new double[][] {a, b, c}) {
+                for (int i = 0; i < 5; i++) {
+                    final int ka = rng.nextInt(size);
+                    final int kb = ka + rng.nextInt(Math.min(size - ka, 1 + (size >>> (1 + i))));
+                    builder.add(Arguments.of(x.clone(), ka, kb));
+                }
+                builder.add(Arguments.of(x.clone(), 0, size - 1));
+                builder.add(Arguments.of(x.clone(), size >>> 1, size >>> 1));
+                builder.add(Arguments.of(x.clone(), 1, size - 2));
+                if (size == 5000) {
+                    // Short range near the end of a large range uses a heap select
+                    builder.add(Arguments.of(x.clone(), 30, 35));
+                    builder.add(Arguments.of(x.clone(), size - 36, size - 31));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the range {@code [ka, kb]} is sorted and the remaining data in
+     * {@code [from, to)} is partitioned around the sorted range.
+     *
+     * @param sorted Expected sort result.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param ka Lower sorted index.
+     * @param kb Upper sorted index.
+     */
+    private static void assertPartialSort(double[] sorted, double[] values, int from, int to, int ka, int kb) {
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        for (int i = from; i < ka; i++) {
+            final int index = i;
+            Assertions.assertTrue(Double.compare(values[i], values[ka]) <= 0, () -> "lower index: " + index);
+        }
+        for (int i = kb + 1; i < to; i++) {
+            final int index = i;
+            Assertions.assertTrue(Double.compare(values[i], values[kb]) >= 0, () -> "upper index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, from, to),
+            Arrays.copyOfRange(values, from, to), "Data destroyed");
+    }
+
+    @Test
+    void testDoublePartialSortSubRangeSignedZeros() {
+        // Zeros outside the sub-range must not be used to restore signed zeros
+        final double[] values = {0.0, -0.0, 0.0, -0.0, -1, -0.0, 1, -0.0, 2, 0.0, -0.0};
+        final int from = 4;
+        final int to = values.length - 1;
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        for (int ka = from; ka < to; ka++) {
+            for (int kb = ka; kb < to; kb++) {
+                final double[] a = values.clone();
+                Selection.partialSort(a, from, to, ka, kb);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, ka, kb + 1),
+                    Arrays.copyOfRange(a, ka, kb + 1));
+                Arrays.sort(a, from, to);
+                Assertions.assertArrayEquals(sorted, a);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testPartialSortThrows"})
+    void testDoublePartialSortThrows(int length, int from, int to, int ka, int kb) {
+        final double[] values = new double[length];
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.partialSort(values, ka, kb));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.partialSort(values, from, to, ka, kb));
+        }
+    }
+
+    static Stream<Arguments> testPartialSortThrows() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        // Invalid range
+        builder.add(Arguments.of(5, 0, 6, 0, 0));
+        builder.add(Arguments.of(5, -1, 5, 0, 0));
+        builder.add(Arguments.of(5, 3, 1, 1, 2));
+        // Full length
+        builder.add(Arguments.of(0, IGNORE_FROM, 0, 0, 0));
+        builder.add(Arguments.of(5, IGNORE_FROM, 0, -1, 2));
+        builder.add(Arguments.of(5, IGNORE_FROM, 0, 3, 2));
+        builder.add(Arguments.of(5, IGNORE_FROM, 0, 3, 5));
+        // Sub-range
+        builder.add(Arguments.of(5, 1, 4, 0, 2));
+        builder.add(Arguments.of(5, 1, 4, 3, 2));
+        builder.add(Arguments.of(5, 1, 4, 2, 4));
+        builder.add(Arguments.of(5, 1, 1, 1, 1));
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSelectThrows"})
+    void testDoubleParallelSelectThrows(double[] values, int[] indices, int from, int to) {
+        final double[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.parallelSelect(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.parallelSelect(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.parallelSelect(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.parallelSelect(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
     static void assertPartition(double[] values, int[] indices, DoublePartitionFunction function,
         boolean sortedRange) {
         final double[] data = values.clone();
@@ -1363,6 +1621,193 @@ class SelectionTest {
         }, false);
     }
 
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntParallelSelect(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            if (n == 1) {
+                final int[] b = a.clone();
+                Selection.parallelSelect(b, k[0]);
+                Assertions.assertEquals(sort(values)[k[0]], b[k[0]], "single k mismatch");
+            }
+            Selection.parallelSelect(a, Arrays.copyOf(k, n));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntParallelSelectRange(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            if (n == 1) {
+                final int[] b = a.clone();
+                Selection.parallelSelect(b, 0, b.length, k[0]);
+                Assertions.assertEquals(sort(values)[k[0]], b[k[0]], "single k mismatch");
+            }
+            Selection.parallelSelect(a, 0, a.length, Arrays.copyOf(k, n));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntSelectValue(int[] values, int[] indices) {
+        final int[] a = values.clone();
+        final int[] sorted = sort(values);
+        final int[] expected = Arrays.stream(indices).map(k -> sorted[k]).toArray();
+        Assertions.assertArrayEquals(expected, Selection.selectValues(a, indices.clone()));
+        Assertions.assertArrayEquals(expected, Selection.selectValues(a, 0, a.length, indices.clone()));
+        for (int i = Math.min(5, indices.length); --i >= 0;) {
+            Assertions.assertEquals(expected[i], Selection.selectValue(a, indices[i]));
+            Assertions.assertEquals(expected[i], Selection.selectValue(a, 0, a.length, indices[i]));
+        }
+        Assertions.assertArrayEquals(values, a, "Data modified");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntSelectThrows"})
+    void testIntSelectValueThrows(int[] values, int[] indices, int from, int to) {
+        final int[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectValues(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.selectValues(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectValue(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.selectValue(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntHeapSelectRange"})
+    void testIntQuickSelectPartialSort(int[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::partialSort, values, from, to, k1, k2);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testIntPartialSort(int[] values, int ka, int kb) {
+        final int[] sorted = sort(values);
+        final int[] a = values.clone();
+        Selection.partialSort(a, ka, kb);
+        assertPartialSort(sorted, a, 0, a.length, ka, kb);
+        // Sub-range excluding the ends
+        if (ka > 0 && kb < values.length - 1) {
+            final int to = values.length - 1;
+            final int[] b = values.clone();
+            Selection.partialSort(b, 1, to, ka, kb);
+            assertPartialSort(sort(values, 1, to - 1), b, 1, to, ka, kb);
+            Assertions.assertEquals(values[0], b[0]);
+            Assertions.assertEquals(values[to], b[to]);
+        }
+    }
+
+    static Stream<Arguments> testIntPartialSort() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        builder.add(Arguments.of(new int[] {1}, 0, 0));
+        builder.add(Arguments.of(new int[] {2, 1}, 0, 1));
+        builder.add(Arguments.of(new int[] {0, 0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}, 1, 3));
+        for (final int size : new int[] {10, 50, 500, 5000}) {
+            final int[] a = rng.ints(size).toArray();
+            final int[] b = rng.ints(size, -3, 3).toArray();
+            final int[] c = rng.ints(size, 0, size).toArray();
+            for (final int[] x : new int[][] {a, b, c}) {
+                for (int i = 0; i < 5; i++) {
+                    final int ka = rng.nextInt(size);
+                    final int kb = ka + rng.nextInt(Math.min(size - ka, 1 + (size >>> (1 + i))));
+                    builder.add(Arguments.of(x.clone(), ka, kb));
+                }
+                builder.add(Arguments.of(x.clone(), 0, size - 1));
+                builder.add(Arguments.of(x.clone(), size >>> 1, size >>> 1));
+                builder.add(Arguments.of(x.clone(), 1, size - 2));
+                if (size == 5000) {
+                    // Short range near the end of a large range uses a heap select
+                    builder.add(Arguments.of(x.clone(), 30, 35));
+                    builder.add(Arguments.of(x.clone(), size - 36, size - 31));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the range {@code [ka, kb]} is sorted and the remaining data in
+     * {@code [from, to)} is partitioned around the sorted range.
+     *
+     * @param sorted Expected sort result.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param ka Lower sorted index.
+     * @param kb Upper sorted index.
+     */
+    private static void assertPartialSort(int[] sorted, int[] values, int from, int to, int ka, int kb) {
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        for (int i = from; i < ka; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] <= values[ka], () -> "lower index: " + index);
+        }
+        for (int i = kb + 1; i < to; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] >= values[kb], () -> "upper index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, from, to),
+            Arrays.copyOfRange(values, from, to), "Data destroyed");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testPartialSortThrows"})
+    void testIntPartialSortThrows(int length, int from, int to, int ka, int kb) {
+        final int[] values = new int[length];
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.partialSort(values, ka, kb));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.partialSort(values, from, to, ka, kb));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntSelectThrows"})
+    void testIntParallelSelectThrows(int[] values, int[] indices, int from, int to) {
+        final int[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.parallelSelect(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.parallelSelect(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.parallelSelect(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.parallelSelect(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
     static void assertPartition(int[] values, int[] indices, IntPartitionFunction function,
         boolean sortedRange) {
         final int[] data = values.clone();
@@ -2152,22 +2597,209 @@ class SelectionTest {
         }, false);
     }
 
-    static void assertPartition(long[] values, int[] indices, LongPartitionFunction function,
-        boolean sortedRange) {
-        final long[] data = values.clone();
+    @ParameterizedTest
+    @MethodSource(value = {"testLongPartition", "testLongPartitionBigData"})
+    void testLongParallelSelect(long[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            if (n == 1) {
+                final long[] b = a.clone();
+                Selection.parallelSelect(b, k[0]);
+                Assertions.assertEquals(sort(values)[k[0]], b[k[0]], "single k mismatch");
+            }
+            Selection.parallelSelect(a, Arrays.copyOf(k, n));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testLongPartition", "testLongPartitionBigData"})
+    void testLongParallelSelectRange(long[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            if (n == 1) {
+                final long[] b = a.clone();
+                Selection.parallelSelect(b, 0, b.length, k[0]);
+                Assertions.assertEquals(sort(values)[k[0]], b[k[0]], "single k mismatch");
+            }
+            Selection.parallelSelect(a, 0, a.length, Arrays.copyOf(k, n));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testLongPartition", "testLongPartitionBigData"})
+    void testLongSelectValue(long[] values, int[] indices) {
+        final long[] a = values.clone();
         final long[] sorted = sort(values);
-        // Indices may be destructively modified
-        function.partition(data, indices.clone(), indices.length);
-        if (indices.length == 0) {
-            return;
-        }
-        for (final int k : indices) {
-            Assertions.assertEquals(sorted[k], data[k], () -> "k[" + k + "]");
+        final long[] expected = Arrays.stream(indices).mapToLong(k -> sorted[k]).toArray();
+        Assertions.assertArrayEquals(expected, Selection.selectValues(a, indices.clone()));
+        Assertions.assertArrayEquals(expected, Selection.selectValues(a, 0, a.length, indices.clone()));
+        for (int i = Math.min(5, indices.length); --i >= 0;) {
+            Assertions.assertEquals(expected[i], Selection.selectValue(a, indices[i]));
+            Assertions.assertEquals(expected[i], Selection.selectValue(a, 0, a.length, indices[i]));
         }
-        // Check partial ordering
-        Arrays.sort(indices);
-        int i = 0;
-        for (final int k : indices) {
+        Assertions.assertArrayEquals(values, a, "Data modified");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testLongSelectThrows"})
+    void testLongSelectValueThrows(long[] values, int[] indices, int from, int to) {
+        final long[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectValues(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.selectValues(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectValue(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.selectValue(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testLongHeapSelectRange"})
+    void testLongQuickSelectPartialSort(long[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::partialSort, values, from, to, k1, k2);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLongPartialSort(long[] values, int ka, int kb) {
+        final long[] sorted = sort(values);
+        final long[] a = values.clone();
+        Selection.partialSort(a, ka, kb);
+        assertPartialSort(sorted, a, 0, a.length, ka, kb);
+        // Sub-range excluding the ends
+        if (ka > 0 && kb < values.length - 1) {
+            final int to = values.length - 1;
+            final long[] b = values.clone();
+            Selection.partialSort(b, 1, to, ka, kb);
+            assertPartialSort(sort(values, 1, to - 1), b, 1, to, ka, kb);
+            Assertions.assertEquals(values[0], b[0]);
+            Assertions.assertEquals(values[to], b[to]);
+        }
+    }
+
+    static Stream<Arguments> testLongPartialSort() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        builder.add(Arguments.of(new long[] {1}, 0, 0));
+        builder.add(Arguments.of(new long[] {2, 1}, 0, 1));
+        builder.add(Arguments.of(new long[] {0, 0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE}, 1, 3));
+        for (final int size : new int[] {10, 50, 500, 5000}) {
+            final long[] a = rng.longs(size).toArray();
+            final long[] b = rng.longs(size, -3, 3).toArray();
+            final long[] c = rng.longs(size, 0, size).toArray();
+            for (final long[] x : new long[][] {a, b, c}) {
+                for (int i = 0; i < 5; i++) {
+                    final int ka = rng.nextInt(size);
+                    final int kb = ka + rng.nextInt(Math.min(size - ka, 1 + (size >>> (1 + i))));
+                    builder.add(Arguments.of(x.clone(), ka, kb));
+                }
+                builder.add(Arguments.of(x.clone(), 0, size - 1));
+                builder.add(Arguments.of(x.clone(), size >>> 1, size >>> 1));
+                builder.add(Arguments.of(x.clone(), 1, size - 2));
+                if (size == 5000) {
+                    // Short range near the end of a large range uses a heap select
+                    builder.add(Arguments.of(x.clone(), 30, 35));
+                    builder.add(Arguments.of(x.clone(), size - 36, size - 31));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the range {@code [ka, kb]} is sorted and the remaining data in
+     * {@code [from, to)} is partitioned around the sorted range.
+     *
+     * @param sorted Expected sort result.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param ka Lower sorted index.
+     * @param kb Upper sorted index.
+     */
+    private static void assertPartialSort(long[] sorted, long[] values, int from, int to, int ka, int kb) {
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        for (int i = from; i < ka; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] <= values[ka], () -> "lower index: " + index);
+        }
+        for (int i = kb + 1; i < to; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] >= values[kb], () -> "upper index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, from, to),
+            Arrays.copyOfRange(values, from, to), "Data destroyed");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testPartialSortThrows"})
+    void testLongPartialSortThrows(int length, int from, int to, int ka, int kb) {
+        final long[] values = new long[length];
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.partialSort(values, ka, kb));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.partialSort(values, from, to, ka, kb));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testLongSelectThrows"})
+    void testLongParallelSelectThrows(long[] values, int[] indices, int from, int to) {
+        final long[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.parallelSelect(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.parallelSelect(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.parallelSelect(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> Selection.parallelSelect(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    static void assertPartition(long[] values, int[] indices, LongPartitionFunction function,
+        boolean sortedRange) {
+        final long[] data = values.clone();
+        final long[] sorted = sort(values);
+        // Indices may be destructively modified
+        function.partition(data, indices.clone(), indices.length);
+        if (indices.length == 0) {
+            return;
+        }
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], data[k], () -> "k[" + k + "]");
+        }
+        // Check partial ordering
+        Arrays.sort(indices);
+        int i = 0;
+        for (final int k : indices) {
             final long value = sorted[k];
             while (i < k) {
                 final int j = i;
@@ -2540,6 +3172,2031 @@ class SelectionTest {
         return builder.build();
     }
 
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface FloatRangePartitionFunction {
+        /**
+         * Partition the array such that range of indices {@code [ka, kb]} correspond to
+         * their correctly sorted value in the equivalent fully sorted array. For all
+         * indices {@code k} and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * @param a Data array to use to find out the K<sup>th</sup> value.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @param ka Lower index to select.
+         * @param kb Upper index to select.
+         */
+        void partition(float[] a, int left, int right, int ka, int kb);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface FloatPartitionFunction {
+        /**
+         * Partition the array such that indices {@code k} correspond to their correctly
+         * sorted value in the equivalent fully sorted array. For all indices {@code k}
+         * and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * <p>This method allows variable length indices using a count of the indices to
+         * process.
+         *
+         * @param a Values.
+         * @param k Indices.
+         * @param n Count of indices.
+         */
+        void partition(float[] a, int[] k, int n);
+    }
+
+    /**
+     * Return a sorted copy of the {@code values}.
+     *
+     * @param values Values.
+     * @return the copy
+     */
+    private static float[] sort(float[] values) {
+        final float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Return a copy of the {@code values} sorted in the range {@code [from, to]}.
+     *
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @return the copy
+     */
+    private static float[] sort(float[] values, int from, int to) {
+        final float[] sorted = values.clone();
+        Arrays.sort(sorted, from, to + 1);
+        return sorted;
+    }
+
+    /**
+     * Move NaN values to the end of the array.
+     * This allows all other values to be compared using {@code <, ==, >} operators (with
+     * the exception of signed zeros).
+     *
+     * @param data Values.
+     * @return index of last non-NaN value (or -1)
+     */
+    private static int sortNaN(float[] data) {
+        int end = data.length;
+        // Find first non-NaN
+        while (--end >= 0) {
+            if (!Float.isNaN(data[end])) {
+                break;
+            }
+        }
+        for (int i = end; --i >= 0;) {
+            final float v = data[i];
+            if (Float.isNaN(v)) {
+                // swap(data, i, end--)
+                data[i] = data[end];
+                data[end] = v;
+                end--;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Replace negative zeros with a proxy. Uses -{@link Float#MIN_VALUE} as the proxy.
+     *
+     * @param a Data.
+     * @param from Lower bound (inclusive).
+     * @param to Upper bound (inclusive).
+     */
+    private static void replaceNegativeZeros(float[] a, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            if (Float.floatToRawIntBits(a[i]) == Integer.MIN_VALUE) {
+                a[i] = -Float.MIN_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Restore proxy negative zeros.
+     *
+     * @param a Data.
+     * @param from Lower bound (inclusive).
+     * @param to Upper bound (inclusive).
+     */
+    private static void restoreNegativeZeros(float[] a, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            if (a[i] == -Float.MIN_VALUE) {
+                a[i] = -0.0f;
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatHeapSelect", "testFloatSelectMinMax", "testFloatSelectMinMax2"})
+    void testFloatHeapSelectLeft(float[] values, int from, int to) {
+        final float[] sorted = sort(values, from, to);
+
+        final float[] x = values.clone();
+        final FloatRangePartitionFunction fun = QuickSelect::heapSelectLeft;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k > from) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k - 1, k);
+                if (k > from + 1) {
+                    // Sort all
+                    // Test clipping with k < from
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, from - 23, k);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatHeapSelect", "testFloatSelectMinMax", "testFloatSelectMinMax2"})
+    void testFloatHeapSelectRight(float[] values, int from, int to) {
+        final float[] sorted = sort(values, from, to);
+
+        final float[] x = values.clone();
+        final FloatRangePartitionFunction fun = QuickSelect::heapSelectRight;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k < to) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k, k + 1);
+                if (k < to - 1) {
+                    // Sort all
+                    // Test clipping with k > to
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, k, to + 23);
+                }
+            }
+        }
+    }
+
+    static Stream<Arguments> testFloatHeapSelect() {
+        return testDoubleHeapSelect().map(SelectionTest::toFloatArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatHeapSelectRange"})
+    void testFloatHeapSelectRange(float[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::heapSelect, values, from, to, k1, k2);
+    }
+
+    static Stream<Arguments> testFloatHeapSelectRange() {
+        return testDoubleHeapSelectRange().map(SelectionTest::toFloatArguments);
+    }
+
+    static Stream<Arguments> testFloatSelectMinMax() {
+        return testDoubleSelectMinMax().map(SelectionTest::toFloatArguments);
+    }
+
+    static Stream<Arguments> testFloatSelectMinMax2() {
+        return testDoubleSelectMinMax2().map(SelectionTest::toFloatArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatHeapSelect", "testFloatSelectMinMax", "testFloatSelectMinMax2"})
+    void testFloatSortSelectLeft(float[] values, int from, int to) {
+        final float[] sorted = sort(values, from, to);
+
+        final float[] x = values.clone();
+        final FloatRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectLeft(a, l, r, kb);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, from, k);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatHeapSelect", "testFloatSelectMinMax", "testFloatSelectMinMax2"})
+    void testFloatSortSelectRight(float[] values, int from, int to) {
+        final float[] sorted = sort(values, from, to);
+
+        final float[] x = values.clone();
+        final FloatRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectRight(a, l, r, ka);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, to);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatHeapSelectRange"})
+    void testFloatSortSelectRange(float[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::sortSelect, values, from, to, k1, k2);
+    }
+
+    /**
+     * Assert the function correctly partitions the range.
+     *
+     * @param sorted Expected sort result.
+     * @param fun Partition function.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void assertPartitionRange(float[] sorted,
+            FloatRangePartitionFunction fun,
+            float[] values, int from, int to, int ka, int kb) {
+        Arrays.sort(sorted, from, to + 1);
+        fun.partition(values, from, to, ka, kb);
+        // Clip
+        ka = ka < from ? from : ka;
+        kb = kb > to ? to : kb;
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to + 1);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testFloatSelectThrows(float[] values, int[] indices, int from, int to) {
+        final float[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testFloatSelectThrows() {
+        return testDoubleSelectThrows().map(SelectionTest::toFloatArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatQuickSelectAdaptiveFRSampling(float[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_FR_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatQuickSelectAdaptiveSampling(float[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatQuickSelectAdaptiveAdaption(float[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_ADAPTION);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatQuickSelectAdaptiveStrict(float[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_STRICT);
+    }
+
+    private static void assertQuickSelectAdaptive(float[] values, int[] indices, int mode) {
+        Assumptions.assumeTrue(indices.length == 1 ||
+            (indices.length == 2 && Math.abs(indices[1] - indices[0]) < 10));
+        final int k1 = Math.min(indices[0], indices[indices.length - 1]);
+        final int kn = Math.max(indices[0], indices[indices.length - 1]);
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = sortNaN(a);
+            if (right < 1) {
+                return;
+            }
+            replaceNegativeZeros(a, 0, right);
+            QuickSelect.quickSelectAdaptive(a, 0, right, k1, kn, new int[1], mode);
+            restoreNegativeZeros(a, 0, right);
+        }, true);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatDualPivotQuickSelectMaxRecursion(float[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = sortNaN(a);
+            // Sanitise indices
+            k = Arrays.stream(k).filter(i -> i <= right).toArray();
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            replaceNegativeZeros(a, 0, right);
+            QuickSelect.dualPivotQuickSelect(a, 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+            restoreNegativeZeros(a, 0, right);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatSelect(float[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            float[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, k[0]);
+            }
+            Selection.select(a, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatPartition", "testFloatPartitionBigData"})
+    void testFloatSelectRange(float[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            float[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, 0, b.length, k[0]);
+            }
+            Selection.select(a, 0, a.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    @Test
+    void testFloatSelectSubRangeSignedZeros() {
+        // Zeros outside the sub-range must not be used to restore signed zeros
+        final float[] values = {0.0f, -0.0f, 0.0f, -0.0f, -1, -0.0f, 1, -0.0f, 2, 0.0f, -0.0f};
+        final int from = 4;
+        final int to = values.length - 1;
+        final float[] sorted = values.clone();
+        Arrays.sort(sorted, from, to);
+        for (int k = from; k < to; k++) {
+            final float[] a = values.clone();
+            Selection.select(a, from, to, k);
+            Assertions.assertEquals(sorted[k], a[k]);
+            Arrays.sort(a, from, to);
+            Assertions.assertArrayEquals(sorted, a);
+            final float[] b = values.clone();
+            Selection.select(b, from, to, new int[] {k});
+            Assertions.assertEquals(sorted[k], b[k]);
+            Arrays.sort(b, from, to);
+            Assertions.assertArrayEquals(sorted, b);
+            final float[] c = values.clone();
+            Selection.select(c, from, to, new int[] {from, k});
+            Assertions.assertEquals(sorted[k], c[k]);
+            Arrays.sort(c, from, to);
+            Assertions.assertArrayEquals(sorted, c);
+        }
+    }
+
+    static void assertPartition(float[] values, int[] indices, FloatPartitionFunction function,
+        boolean sortedRange) {
+        final float[] data = values.clone();
+        final float[] sorted = sort(values);
+        // Indices may be destructively modified
+        function.partition(data, indices.clone(), indices.length);
+        if (indices.length == 0) {
+            return;
+        }
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], data[k], () -> "k[" + k + "]");
+        }
+        // Check partial ordering
+        Arrays.sort(indices);
+        int i = 0;
+        for (final int k : indices) {
+            final float value = sorted[k];
+            while (i < k) {
+                final int j = i;
+                Assertions.assertTrue(Float.compare(data[i], value) <= 0,
+                    () -> j + " < " + k + " : " + data[j] + " < " + value);
+                i++;
+            }
+        }
+        final int k = indices[indices.length - 1];
+        final float value = sorted[k];
+        while (i < data.length) {
+            final int j = i;
+            Assertions.assertTrue(Float.compare(data[i], value) >= 0,
+                () -> k + " < " + j);
+            i++;
+        }
+        if (sortedRange) {
+            final float[] a = Arrays.copyOfRange(sorted, indices[0], k + 1);
+            final float[] b = Arrays.copyOfRange(data, indices[0], k + 1);
+            Assertions.assertArrayEquals(a, b, "Entire range of indices is not sorted");
+        }
+        Arrays.sort(data);
+        Assertions.assertArrayEquals(sorted, data, "Data destroyed");
+    }
+
+    static Stream<Arguments> testFloatPartition() {
+        return testDoublePartition().map(SelectionTest::toFloatArguments);
+    }
+
+    static Stream<Arguments> testFloatPartitionBigData() {
+        return testDoublePartitionBigData().map(SelectionTest::toFloatArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testFloatExpandPartition(float[] values, int start, int end, int pivot0, int pivot1) {
+        final int[] upper = new int[1];
+        final float[] sorted = sort(values);
+        final float v = values[pivot0];
+        final int p0 = QuickSelect.expandPartition(values, 0, values.length - 1, start, end, pivot0, pivot1, upper);
+        final int p1 = upper[0];
+        for (int i = 0; i < p0; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] < v,
+                () -> String.format("[%d] : %s < %s", index, values[index], v));
+        }
+        for (int i = p0; i <= p1; i++) {
+            final int index = i;
+            Assertions.assertEquals(v, values[i],
+                () -> String.format("[%d] : %s == %s", index, values[index], v));
+        }
+        for (int i = p1 + 1; i < values.length; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] > v,
+                () -> String.format("[%d] : %s > %s", index, values[index], v));
+        }
+        Arrays.sort(values);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    static Stream<Arguments> testFloatExpandPartition() {
+        return testDoubleExpandPartition().map(SelectionTest::toFloatArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort"})
+    void testFloatSortUsingHeapSelect(float[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = sortNaN(x);
+            // heapSelect is robust to right <= left
+            replaceNegativeZeros(x, 0, right);
+            QuickSelect.heapSelect(x, 0, right, 0, right);
+            restoreNegativeZeros(x, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort"})
+    void testFloatSortUsingHeapSelectLeft(float[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = sortNaN(x);
+            if (right < 1) {
+                return;
+            }
+            replaceNegativeZeros(x, 0, right);
+            QuickSelect.heapSelectLeft(x, 0, right, 0, right);
+            restoreNegativeZeros(x, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort"})
+    void testFloatSortUsingHeapSelectRight(float[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = sortNaN(x);
+            if (right < 1) {
+                return;
+            }
+            replaceNegativeZeros(x, 0, right);
+            QuickSelect.heapSelectRight(x, 0, right, 0, right);
+            restoreNegativeZeros(x, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort"})
+    void testFloatSortUsingSelection(float[] values) {
+        // This tests that the select function performs
+        // a full sort when the interval is saturated
+        assertSort(values, a -> {
+            final int right = sortNaN(a);
+            if (right < 1) {
+                return;
+            }
+            replaceNegativeZeros(a, 0, right);
+            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeInterval(0, right),
+                QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right), 20));
+            restoreNegativeZeros(a, 0, right);
+        });
+    }
+
+    private static void assertSort(float[] values, Consumer<float[]> function) {
+        final float[] data = values.clone();
+        final float[] sorted = sort(values);
+        function.accept(data);
+        Assertions.assertArrayEquals(sorted, data);
+    }
+
+    static Stream<float[]> testFloatSort() {
+        return testDoubleSort().map(SelectionTest::toFloat);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface ShortRangePartitionFunction {
+        /**
+         * Partition the array such that range of indices {@code [ka, kb]} correspond to
+         * their correctly sorted value in the equivalent fully sorted array. For all
+         * indices {@code k} and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * @param a Data array to use to find out the K<sup>th</sup> value.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @param ka Lower index to select.
+         * @param kb Upper index to select.
+         */
+        void partition(short[] a, int left, int right, int ka, int kb);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface ShortPartitionFunction {
+        /**
+         * Partition the array such that indices {@code k} correspond to their correctly
+         * sorted value in the equivalent fully sorted array. For all indices {@code k}
+         * and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * <p>This method allows variable length indices using a count of the indices to
+         * process.
+         *
+         * @param a Values.
+         * @param k Indices.
+         * @param n Count of indices.
+         */
+        void partition(short[] a, int[] k, int n);
+    }
+
+    /**
+     * Return a sorted copy of the {@code values}.
+     *
+     * @param values Values.
+     * @return the copy
+     */
+    private static short[] sort(short[] values) {
+        final short[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Return a copy of the {@code values} sorted in the range {@code [from, to]}.
+     *
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @return the copy
+     */
+    private static short[] sort(short[] values, int from, int to) {
+        final short[] sorted = values.clone();
+        Arrays.sort(sorted, from, to + 1);
+        return sorted;
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortHeapSelect", "testShortSelectMinMax", "testShortSelectMinMax2"})
+    void testShortHeapSelectLeft(short[] values, int from, int to) {
+        final short[] sorted = sort(values, from, to);
+
+        final short[] x = values.clone();
+        final ShortRangePartitionFunction fun = QuickSelect::heapSelectLeft;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k > from) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k - 1, k);
+                if (k > from + 1) {
+                    // Sort all
+                    // Test clipping with k < from
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, from - 23, k);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortHeapSelect", "testShortSelectMinMax", "testShortSelectMinMax2"})
+    void testShortHeapSelectRight(short[] values, int from, int to) {
+        final short[] sorted = sort(values, from, to);
+
+        final short[] x = values.clone();
+        final ShortRangePartitionFunction fun = QuickSelect::heapSelectRight;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k < to) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k, k + 1);
+                if (k < to - 1) {
+                    // Sort all
+                    // Test clipping with k > to
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, k, to + 23);
+                }
+            }
+        }
+    }
+
+    static Stream<Arguments> testShortHeapSelect() {
+        return testLongHeapSelect().map(SelectionTest::toShortArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortHeapSelectRange"})
+    void testShortHeapSelectRange(short[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::heapSelect, values, from, to, k1, k2);
+    }
+
+    static Stream<Arguments> testShortHeapSelectRange() {
+        return testLongHeapSelectRange().map(SelectionTest::toShortArguments);
+    }
+
+    static Stream<Arguments> testShortSelectMinMax() {
+        return testLongSelectMinMax().map(SelectionTest::toShortArguments);
+    }
+
+    static Stream<Arguments> testShortSelectMinMax2() {
+        return testLongSelectMinMax2().map(SelectionTest::toShortArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortHeapSelect", "testShortSelectMinMax", "testShortSelectMinMax2"})
+    void testShortSortSelectLeft(short[] values, int from, int to) {
+        final short[] sorted = sort(values, from, to);
+
+        final short[] x = values.clone();
+        final ShortRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectLeft(a, l, r, kb);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, from, k);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortHeapSelect", "testShortSelectMinMax", "testShortSelectMinMax2"})
+    void testShortSortSelectRight(short[] values, int from, int to) {
+        final short[] sorted = sort(values, from, to);
+
+        final short[] x = values.clone();
+        final ShortRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectRight(a, l, r, ka);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, to);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortHeapSelectRange"})
+    void testShortSortSelectRange(short[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::sortSelect, values, from, to, k1, k2);
+    }
+
+    /**
+     * Assert the function correctly partitions the range.
+     *
+     * @param sorted Expected sort result.
+     * @param fun Partition function.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void assertPartitionRange(short[] sorted,
+            ShortRangePartitionFunction fun,
+            short[] values, int from, int to, int ka, int kb) {
+        Arrays.sort(sorted, from, to + 1);
+        fun.partition(values, from, to, ka, kb);
+        // Clip
+        ka = ka < from ? from : ka;
+        kb = kb > to ? to : kb;
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to + 1);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testShortSelectThrows(short[] values, int[] indices, int from, int to) {
+        final short[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testShortSelectThrows() {
+        return testLongSelectThrows().map(SelectionTest::toShortArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortQuickSelectAdaptiveFRSampling(short[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_FR_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortQuickSelectAdaptiveSampling(short[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortQuickSelectAdaptiveAdaption(short[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_ADAPTION);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortQuickSelectAdaptiveStrict(short[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_STRICT);
+    }
+
+    private static void assertQuickSelectAdaptive(short[] values, int[] indices, int mode) {
+        Assumptions.assumeTrue(indices.length == 1 ||
+            (indices.length == 2 && Math.abs(indices[1] - indices[0]) < 10));
+        final int k1 = Math.min(indices[0], indices[indices.length - 1]);
+        final int kn = Math.max(indices[0], indices[indices.length - 1]);
+        assertPartition(values, indices, (a, k, n) ->
+            QuickSelect.quickSelectAdaptive(a, 0, a.length - 1, k1, kn, new int[1], mode), true);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortDualPivotQuickSelectMaxRecursion(short[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = a.length - 1;
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            QuickSelect.dualPivotQuickSelect(a, 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortSelect(short[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            short[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, k[0]);
+            }
+            Selection.select(a, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortPartition", "testShortPartitionBigData"})
+    void testShortSelectRange(short[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            short[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, 0, b.length, k[0]);
+            }
+            Selection.select(a, 0, a.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    static void assertPartition(short[] values, int[] indices, ShortPartitionFunction function,
+        boolean sortedRange) {
+        final short[] data = values.clone();
+        final short[] sorted = sort(values);
+        // Indices may be destructively modified
+        function.partition(data, indices.clone(), indices.length);
+        if (indices.length == 0) {
+            return;
+        }
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], data[k], () -> "k[" + k + "]");
+        }
+        // Check partial ordering
+        Arrays.sort(indices);
+        int i = 0;
+        for (final int k : indices) {
+            final short value = sorted[k];
+            while (i < k) {
+                final int j = i;
+                Assertions.assertTrue(Short.compare(data[i], value) <= 0,
+                    () -> j + " < " + k + " : " + data[j] + " < " + value);
+                i++;
+            }
+        }
+        final int k = indices[indices.length - 1];
+        final short value = sorted[k];
+        while (i < data.length) {
+            final int j = i;
+            Assertions.assertTrue(Short.compare(data[i], value) >= 0,
+                () -> k + " < " + j);
+            i++;
+        }
+        if (sortedRange) {
+            final short[] a = Arrays.copyOfRange(sorted, indices[0], k + 1);
+            final short[] b = Arrays.copyOfRange(data, indices[0], k + 1);
+            Assertions.assertArrayEquals(a, b, "Entire range of indices is not sorted");
+        }
+        Arrays.sort(data);
+        Assertions.assertArrayEquals(sorted, data, "Data destroyed");
+    }
+
+    static Stream<Arguments> testShortPartition() {
+        return testLongPartition().map(SelectionTest::toShortArguments);
+    }
+
+    static Stream<Arguments> testShortPartitionBigData() {
+        return testLongPartitionBigData().map(SelectionTest::toShortArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testShortExpandPartition(short[] values, int start, int end, int pivot0, int pivot1) {
+        final int[] upper = new int[1];
+        final short[] sorted = sort(values);
+        final short v = values[pivot0];
+        final int p0 = QuickSelect.expandPartition(values, 0, values.length - 1, start, end, pivot0, pivot1, upper);
+        final int p1 = upper[0];
+        for (int i = 0; i < p0; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] < v,
+                () -> String.format("[%d] : %s < %s", index, values[index], v));
+        }
+        for (int i = p0; i <= p1; i++) {
+            final int index = i;
+            Assertions.assertEquals(v, values[i],
+                () -> String.format("[%d] : %s == %s", index, values[index], v));
+        }
+        for (int i = p1 + 1; i < values.length; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] > v,
+                () -> String.format("[%d] : %s > %s", index, values[index], v));
+        }
+        Arrays.sort(values);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    static Stream<Arguments> testShortExpandPartition() {
+        return testLongExpandPartition().map(SelectionTest::toShortArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort"})
+    void testShortSortUsingHeapSelect(short[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            // heapSelect is robust to right <= left
+            QuickSelect.heapSelect(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort"})
+    void testShortSortUsingHeapSelectLeft(short[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.heapSelectLeft(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort"})
+    void testShortSortUsingHeapSelectRight(short[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.heapSelectRight(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort"})
+    void testShortSortUsingSelection(short[] values) {
+        // This tests that the select function performs
+        // a full sort when the interval is saturated
+        assertSort(values, a -> {
+            final int right = a.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeInterval(0, right),
+                QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right), 20));
+        });
+    }
+
+    private static void assertSort(short[] values, Consumer<short[]> function) {
+        final short[] data = values.clone();
+        final short[] sorted = sort(values);
+        function.accept(data);
+        Assertions.assertArrayEquals(sorted, data);
+    }
+
+    static Stream<short[]> testShortSort() {
+        return testLongSort().map(SelectionTest::toShort);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface CharRangePartitionFunction {
+        /**
+         * Partition the array such that range of indices {@code [ka, kb]} correspond to
+         * their correctly sorted value in the equivalent fully sorted array. For all
+         * indices {@code k} and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * @param a Data array to use to find out the K<sup>th</sup> value.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @param ka Lower index to select.
+         * @param kb Upper index to select.
+         */
+        void partition(char[] a, int left, int right, int ka, int kb);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface CharPartitionFunction {
+        /**
+         * Partition the array such that indices {@code k} correspond to their correctly
+         * sorted value in the equivalent fully sorted array. For all indices {@code k}
+         * and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * <p>This method allows variable length indices using a count of the indices to
+         * process.
+         *
+         * @param a Values.
+         * @param k Indices.
+         * @param n Count of indices.
+         */
+        void partition(char[] a, int[] k, int n);
+    }
+
+    /**
+     * Return a sorted copy of the {@code values}.
+     *
+     * @param values Values.
+     * @return the copy
+     */
+    private static char[] sort(char[] values) {
+        final char[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Return a copy of the {@code values} sorted in the range {@code [from, to]}.
+     *
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @return the copy
+     */
+    private static char[] sort(char[] values, int from, int to) {
+        final char[] sorted = values.clone();
+        Arrays.sort(sorted, from, to + 1);
+        return sorted;
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharHeapSelect", "testCharSelectMinMax", "testCharSelectMinMax2"})
+    void testCharHeapSelectLeft(char[] values, int from, int to) {
+        final char[] sorted = sort(values, from, to);
+
+        final char[] x = values.clone();
+        final CharRangePartitionFunction fun = QuickSelect::heapSelectLeft;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k > from) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k - 1, k);
+                if (k > from + 1) {
+                    // Sort all
+                    // Test clipping with k < from
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, from - 23, k);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharHeapSelect", "testCharSelectMinMax", "testCharSelectMinMax2"})
+    void testCharHeapSelectRight(char[] values, int from, int to) {
+        final char[] sorted = sort(values, from, to);
+
+        final char[] x = values.clone();
+        final CharRangePartitionFunction fun = QuickSelect::heapSelectRight;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k < to) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k, k + 1);
+                if (k < to - 1) {
+                    // Sort all
+                    // Test clipping with k > to
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, k, to + 23);
+                }
+            }
+        }
+    }
+
+    static Stream<Arguments> testCharHeapSelect() {
+        return testLongHeapSelect().map(SelectionTest::toCharArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharHeapSelectRange"})
+    void testCharHeapSelectRange(char[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::heapSelect, values, from, to, k1, k2);
+    }
+
+    static Stream<Arguments> testCharHeapSelectRange() {
+        return testLongHeapSelectRange().map(SelectionTest::toCharArguments);
+    }
+
+    static Stream<Arguments> testCharSelectMinMax() {
+        return testLongSelectMinMax().map(SelectionTest::toCharArguments);
+    }
+
+    static Stream<Arguments> testCharSelectMinMax2() {
+        return testLongSelectMinMax2().map(SelectionTest::toCharArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharHeapSelect", "testCharSelectMinMax", "testCharSelectMinMax2"})
+    void testCharSortSelectLeft(char[] values, int from, int to) {
+        final char[] sorted = sort(values, from, to);
+
+        final char[] x = values.clone();
+        final CharRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectLeft(a, l, r, kb);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, from, k);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharHeapSelect", "testCharSelectMinMax", "testCharSelectMinMax2"})
+    void testCharSortSelectRight(char[] values, int from, int to) {
+        final char[] sorted = sort(values, from, to);
+
+        final char[] x = values.clone();
+        final CharRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectRight(a, l, r, ka);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, to);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharHeapSelectRange"})
+    void testCharSortSelectRange(char[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::sortSelect, values, from, to, k1, k2);
+    }
+
+    /**
+     * Assert the function correctly partitions the range.
+     *
+     * @param sorted Expected sort result.
+     * @param fun Partition function.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void assertPartitionRange(char[] sorted,
+            CharRangePartitionFunction fun,
+            char[] values, int from, int to, int ka, int kb) {
+        Arrays.sort(sorted, from, to + 1);
+        fun.partition(values, from, to, ka, kb);
+        // Clip
+        ka = ka < from ? from : ka;
+        kb = kb > to ? to : kb;
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to + 1);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testCharSelectThrows(char[] values, int[] indices, int from, int to) {
+        final char[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testCharSelectThrows() {
+        return testLongSelectThrows().map(SelectionTest::toCharArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharQuickSelectAdaptiveFRSampling(char[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_FR_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharQuickSelectAdaptiveSampling(char[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharQuickSelectAdaptiveAdaption(char[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_ADAPTION);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharQuickSelectAdaptiveStrict(char[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_STRICT);
+    }
+
+    private static void assertQuickSelectAdaptive(char[] values, int[] indices, int mode) {
+        Assumptions.assumeTrue(indices.length == 1 ||
+            (indices.length == 2 && Math.abs(indices[1] - indices[0]) < 10));
+        final int k1 = Math.min(indices[0], indices[indices.length - 1]);
+        final int kn = Math.max(indices[0], indices[indices.length - 1]);
+        assertPartition(values, indices, (a, k, n) ->
+            QuickSelect.quickSelectAdaptive(a, 0, a.length - 1, k1, kn, new int[1], mode), true);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharDualPivotQuickSelectMaxRecursion(char[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = a.length - 1;
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            QuickSelect.dualPivotQuickSelect(a, 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharSelect(char[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            char[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, k[0]);
+            }
+            Selection.select(a, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharPartition", "testCharPartitionBigData"})
+    void testCharSelectRange(char[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            char[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, 0, b.length, k[0]);
+            }
+            Selection.select(a, 0, a.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    static void assertPartition(char[] values, int[] indices, CharPartitionFunction function,
+        boolean sortedRange) {
+        final char[] data = values.clone();
+        final char[] sorted = sort(values);
+        // Indices may be destructively modified
+        function.partition(data, indices.clone(), indices.length);
+        if (indices.length == 0) {
+            return;
+        }
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], data[k], () -> "k[" + k + "]");
+        }
+        // Check partial ordering
+        Arrays.sort(indices);
+        int i = 0;
+        for (final int k : indices) {
+            final char value = sorted[k];
+            while (i < k) {
+                final int j = i;
+                Assertions.assertTrue(Character.compare(data[i], value) <= 0,
+                    () -> j + " < " + k + " : " + data[j] + " < " + value);
+                i++;
+            }
+        }
+        final int k = indices[indices.length - 1];
+        final char value = sorted[k];
+        while (i < data.length) {
+            final int j = i;
+            Assertions.assertTrue(Character.compare(data[i], value) >= 0,
+                () -> k + " < " + j);
+            i++;
+        }
+        if (sortedRange) {
+            final char[] a = Arrays.copyOfRange(sorted, indices[0], k + 1);
+            final char[] b = Arrays.copyOfRange(data, indices[0], k + 1);
+            Assertions.assertArrayEquals(a, b, "Entire range of indices is not sorted");
+        }
+        Arrays.sort(data);
+        Assertions.assertArrayEquals(sorted, data, "Data destroyed");
+    }
+
+    static Stream<Arguments> testCharPartition() {
+        return testLongPartition().map(SelectionTest::toCharArguments);
+    }
+
+    static Stream<Arguments> testCharPartitionBigData() {
+        return testLongPartitionBigData().map(SelectionTest::toCharArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testCharExpandPartition(char[] values, int start, int end, int pivot0, int pivot1) {
+        final int[] upper = new int[1];
+        final char[] sorted = sort(values);
+        final char v = values[pivot0];
+        final int p0 = QuickSelect.expandPartition(values, 0, values.length - 1, start, end, pivot0, pivot1, upper);
+        final int p1 = upper[0];
+        for (int i = 0; i < p0; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] < v,
+                () -> String.format("[%d] : %s < %s", index, values[index], v));
+        }
+        for (int i = p0; i <= p1; i++) {
+            final int index = i;
+            Assertions.assertEquals(v, values[i],
+                () -> String.format("[%d] : %s == %s", index, values[index], v));
+        }
+        for (int i = p1 + 1; i < values.length; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] > v,
+                () -> String.format("[%d] : %s > %s", index, values[index], v));
+        }
+        Arrays.sort(values);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    static Stream<Arguments> testCharExpandPartition() {
+        return testLongExpandPartition().map(SelectionTest::toCharArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort"})
+    void testCharSortUsingHeapSelect(char[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            // heapSelect is robust to right <= left
+            QuickSelect.heapSelect(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort"})
+    void testCharSortUsingHeapSelectLeft(char[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.heapSelectLeft(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort"})
+    void testCharSortUsingHeapSelectRight(char[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.heapSelectRight(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort"})
+    void testCharSortUsingSelection(char[] values) {
+        // This tests that the select function performs
+        // a full sort when the interval is saturated
+        assertSort(values, a -> {
+            final int right = a.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeInterval(0, right),
+                QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right), 20));
+        });
+    }
+
+    private static void assertSort(char[] values, Consumer<char[]> function) {
+        final char[] data = values.clone();
+        final char[] sorted = sort(values);
+        function.accept(data);
+        Assertions.assertArrayEquals(sorted, data);
+    }
+
+    static Stream<char[]> testCharSort() {
+        return testLongSort().map(SelectionTest::toChar);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface ByteRangePartitionFunction {
+        /**
+         * Partition the array such that range of indices {@code [ka, kb]} correspond to
+         * their correctly sorted value in the equivalent fully sorted array. For all
+         * indices {@code k} and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * @param a Data array to use to find out the K<sup>th</sup> value.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @param ka Lower index to select.
+         * @param kb Upper index to select.
+         */
+        void partition(byte[] a, int left, int right, int ka, int kb);
+    }
+
+    /**
+     * Partition function. Used to test different implementations.
+     */
+    private interface BytePartitionFunction {
+        /**
+         * Partition the array such that indices {@code k} correspond to their correctly
+         * sorted value in the equivalent fully sorted array. For all indices {@code k}
+         * and any index {@code i}:
+         *
+         * <pre>{@code
+         * data[i < k] <= data[k] <= data[k < i]
+         * }</pre>
+         *
+         * <p>This method allows variable length indices using a count of the indices to
+         * process.
+         *
+         * @param a Values.
+         * @param k Indices.
+         * @param n Count of indices.
+         */
+        void partition(byte[] a, int[] k, int n);
+    }
+
+    /**
+     * Return a sorted copy of the {@code values}.
+     *
+     * @param values Values.
+     * @return the copy
+     */
+    private static byte[] sort(byte[] values) {
+        final byte[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Return a copy of the {@code values} sorted in the range {@code [from, to]}.
+     *
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @return the copy
+     */
+    private static byte[] sort(byte[] values, int from, int to) {
+        final byte[] sorted = values.clone();
+        Arrays.sort(sorted, from, to + 1);
+        return sorted;
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteHeapSelect", "testByteSelectMinMax", "testByteSelectMinMax2"})
+    void testByteHeapSelectLeft(byte[] values, int from, int to) {
+        final byte[] sorted = sort(values, from, to);
+
+        final byte[] x = values.clone();
+        final ByteRangePartitionFunction fun = QuickSelect::heapSelectLeft;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k > from) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k - 1, k);
+                if (k > from + 1) {
+                    // Sort all
+                    // Test clipping with k < from
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, from - 23, k);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteHeapSelect", "testByteSelectMinMax", "testByteSelectMinMax2"})
+    void testByteHeapSelectRight(byte[] values, int from, int to) {
+        final byte[] sorted = sort(values, from, to);
+
+        final byte[] x = values.clone();
+        final ByteRangePartitionFunction fun = QuickSelect::heapSelectRight;
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, k);
+            if (k < to) {
+                // Sort an extra 1
+                assertPartitionRange(sorted, fun, x.clone(), from, to, k, k + 1);
+                if (k < to - 1) {
+                    // Sort all
+                    // Test clipping with k > to
+                    assertPartitionRange(sorted, fun, x.clone(), from, to, k, to + 23);
+                }
+            }
+        }
+    }
+
+    static Stream<Arguments> testByteHeapSelect() {
+        return testLongHeapSelect().map(SelectionTest::toByteArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteHeapSelectRange"})
+    void testByteHeapSelectRange(byte[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::heapSelect, values, from, to, k1, k2);
+    }
+
+    static Stream<Arguments> testByteHeapSelectRange() {
+        return testLongHeapSelectRange().map(SelectionTest::toByteArguments);
+    }
+
+    static Stream<Arguments> testByteSelectMinMax() {
+        return testLongSelectMinMax().map(SelectionTest::toByteArguments);
+    }
+
+    static Stream<Arguments> testByteSelectMinMax2() {
+        return testLongSelectMinMax2().map(SelectionTest::toByteArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteHeapSelect", "testByteSelectMinMax", "testByteSelectMinMax2"})
+    void testByteSortSelectLeft(byte[] values, int from, int to) {
+        final byte[] sorted = sort(values, from, to);
+
+        final byte[] x = values.clone();
+        final ByteRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectLeft(a, l, r, kb);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, from, k);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteHeapSelect", "testByteSelectMinMax", "testByteSelectMinMax2"})
+    void testByteSortSelectRight(byte[] values, int from, int to) {
+        final byte[] sorted = sort(values, from, to);
+
+        final byte[] x = values.clone();
+        final ByteRangePartitionFunction fun = (a, l, r, ka, kb) ->
+            QuickSelect.sortSelectRight(a, l, r, ka);
+
+        for (int k = from; k <= to; k++) {
+            assertPartitionRange(sorted, fun, x.clone(), from, to, k, to);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteHeapSelectRange"})
+    void testByteSortSelectRange(byte[] values, int from, int to, int k1, int k2) {
+        assertPartitionRange(sort(values, from, to),
+            QuickSelect::sortSelect, values, from, to, k1, k2);
+    }
+
+    /**
+     * Assert the function correctly partitions the range.
+     *
+     * @param sorted Expected sort result.
+     * @param fun Partition function.
+     * @param values Values.
+     * @param from From (inclusive).
+     * @param to To (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void assertPartitionRange(byte[] sorted,
+            ByteRangePartitionFunction fun,
+            byte[] values, int from, int to, int ka, int kb) {
+        Arrays.sort(sorted, from, to + 1);
+        fun.partition(values, from, to, ka, kb);
+        // Clip
+        ka = ka < from ? from : ka;
+        kb = kb > to ? to : kb;
+        for (int i = ka; i <= kb; i++) {
+            final int index = i;
+            Assertions.assertEquals(sorted[i], values[i], () -> "index: " + index);
+        }
+        // Check the data is the same
+        Arrays.sort(values, from, to + 1);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testByteSelectThrows(byte[] values, int[] indices, int from, int to) {
+        final byte[] x = values.clone();
+        final int[] k = indices.clone();
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, indices));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, indices));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified");
+        Assertions.assertArrayEquals(k, indices, "Indices modified");
+        if (k.length != 1) {
+            return;
+        }
+        if (from == IGNORE_FROM) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, k[0]));
+        } else {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(values, from, to, k[0]));
+        }
+        Assertions.assertArrayEquals(x, values, "Data modified for single k");
+    }
+
+    static Stream<Arguments> testByteSelectThrows() {
+        return testLongSelectThrows().map(SelectionTest::toByteArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteQuickSelectAdaptiveFRSampling(byte[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_FR_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteQuickSelectAdaptiveSampling(byte[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_SAMPLING);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteQuickSelectAdaptiveAdaption(byte[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_ADAPTION);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteQuickSelectAdaptiveStrict(byte[] values, int[] indices) {
+        assertQuickSelectAdaptive(values, indices, QuickSelect.MODE_STRICT);
+    }
+
+    private static void assertQuickSelectAdaptive(byte[] values, int[] indices, int mode) {
+        Assumptions.assumeTrue(indices.length == 1 ||
+            (indices.length == 2 && Math.abs(indices[1] - indices[0]) < 10));
+        final int k1 = Math.min(indices[0], indices[indices.length - 1]);
+        final int kn = Math.max(indices[0], indices[indices.length - 1]);
+        assertPartition(values, indices, (a, k, n) ->
+            QuickSelect.quickSelectAdaptive(a, 0, a.length - 1, k1, kn, new int[1], mode), true);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteDualPivotQuickSelectMaxRecursion(byte[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = a.length - 1;
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            QuickSelect.dualPivotQuickSelect(a, 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteSelect(byte[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            byte[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, k[0]);
+            }
+            Selection.select(a, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testBytePartition", "testBytePartitionBigData"})
+    void testByteSelectRange(byte[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            byte[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(b, 0, b.length, k[0]);
+            }
+            Selection.select(a, 0, a.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    static void assertPartition(byte[] values, int[] indices, BytePartitionFunction function,
+        boolean sortedRange) {
+        final byte[] data = values.clone();
+        final byte[] sorted = sort(values);
+        // Indices may be destructively modified
+        function.partition(data, indices.clone(), indices.length);
+        if (indices.length == 0) {
+            return;
+        }
+        for (final int k : indices) {
+            Assertions.assertEquals(sorted[k], data[k], () -> "k[" + k + "]");
+        }
+        // Check partial ordering
+        Arrays.sort(indices);
+        int i = 0;
+        for (final int k : indices) {
+            final byte value = sorted[k];
+            while (i < k) {
+                final int j = i;
+                Assertions.assertTrue(Byte.compare(data[i], value) <= 0,
+                    () -> j + " < " + k + " : " + data[j] + " < " + value);
+                i++;
+            }
+        }
+        final int k = indices[indices.length - 1];
+        final byte value = sorted[k];
+        while (i < data.length) {
+            final int j = i;
+            Assertions.assertTrue(Byte.compare(data[i], value) >= 0,
+                () -> k + " < " + j);
+            i++;
+        }
+        if (sortedRange) {
+            final byte[] a = Arrays.copyOfRange(sorted, indices[0], k + 1);
+            final byte[] b = Arrays.copyOfRange(data, indices[0], k + 1);
+            Assertions.assertArrayEquals(a, b, "Entire range of indices is not sorted");
+        }
+        Arrays.sort(data);
+        Assertions.assertArrayEquals(sorted, data, "Data destroyed");
+    }
+
+    static Stream<Arguments> testBytePartition() {
+        return testLongPartition().map(SelectionTest::toByteArguments);
+    }
+
+    static Stream<Arguments> testBytePartitionBigData() {
+        return testLongPartitionBigData().map(SelectionTest::toByteArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testByteExpandPartition(byte[] values, int start, int end, int pivot0, int pivot1) {
+        final int[] upper = new int[1];
+        final byte[] sorted = sort(values);
+        final byte v = values[pivot0];
+        final int p0 = QuickSelect.expandPartition(values, 0, values.length - 1, start, end, pivot0, pivot1, upper);
+        final int p1 = upper[0];
+        for (int i = 0; i < p0; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] < v,
+                () -> String.format("[%d] : %s < %s", index, values[index], v));
+        }
+        for (int i = p0; i <= p1; i++) {
+            final int index = i;
+            Assertions.assertEquals(v, values[i],
+                () -> String.format("[%d] : %s == %s", index, values[index], v));
+        }
+        for (int i = p1 + 1; i < values.length; i++) {
+            final int index = i;
+            Assertions.assertTrue(values[i] > v,
+                () -> String.format("[%d] : %s > %s", index, values[index], v));
+        }
+        Arrays.sort(values);
+        Assertions.assertArrayEquals(sorted, values, "Data destroyed");
+    }
+
+    static Stream<Arguments> testByteExpandPartition() {
+        return testLongExpandPartition().map(SelectionTest::toByteArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort"})
+    void testByteSortUsingHeapSelect(byte[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            // heapSelect is robust to right <= left
+            QuickSelect.heapSelect(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort"})
+    void testByteSortUsingHeapSelectLeft(byte[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.heapSelectLeft(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort"})
+    void testByteSortUsingHeapSelectRight(byte[] values) {
+        Assumptions.assumeTrue(values.length > 0);
+        assertSort(values, x -> {
+            final int right = x.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.heapSelectRight(x, 0, right, 0, right);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort"})
+    void testByteSortUsingSelection(byte[] values) {
+        // This tests that the select function performs
+        // a full sort when the interval is saturated
+        assertSort(values, a -> {
+            final int right = a.length - 1;
+            if (right < 1) {
+                return;
+            }
+            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeInterval(0, right),
+                QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right), 20));
+        });
+    }
+
+    private static void assertSort(byte[] values, Consumer<byte[]> function) {
+        final byte[] data = values.clone();
+        final byte[] sorted = sort(values);
+        function.accept(data);
+        Assertions.assertArrayEquals(sorted, data);
+    }
+
+    static Stream<byte[]> testByteSort() {
+        return testLongSort().map(SelectionTest::toByte);
+    }
+
+    /**
+     * Convert the {@code double[]} data to {@code float[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toFloatArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof double[]) {
+                args[i] = toFloat((double[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code double[]} data to {@code float[]} using a narrowing primitive conversion.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static float[] toFloat(double[] a) {
+        final float[] x = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (float) a[i];
+        }
+        return x;
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code short[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toShortArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof long[]) {
+                args[i] = toShort((long[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code short[]} using a narrowing primitive conversion.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static short[] toShort(long[] a) {
+        final short[] x = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (short) a[i];
+        }
+        return x;
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code char[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toCharArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof long[]) {
+                args[i] = toChar((long[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code char[]} using a narrowing primitive conversion.
+     * Values are offset so the order of values in the range of a {@code short} is preserved.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static char[] toChar(long[] a) {
+        final char[] x = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (char) (a[i] - Short.MIN_VALUE);
+        }
+        return x;
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code byte[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toByteArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof long[]) {
+                args[i] = toByte((long[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code byte[]} using a narrowing primitive conversion.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static byte[] toByte(long[] a) {
+        final byte[] x = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (byte) a[i];
+        }
+        return x;
+    }
+
     @Test
     void testDualPivotMaxDepth() {
         // Reasonable behaviour at small x
@@ -17,8 +17,15 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 /**
  * Test cases for the {@link SortInPlace} class.
@@ -88,4 +95,71 @@ class SortInPlaceTest {
         Assertions.assertThrows(NullPointerException.class, () -> SortInPlace.ASCENDING.apply(one, nullArray));
         Assertions.assertThrows(NullPointerException.class, () -> SortInPlace.ASCENDING.apply(one, onep, nullArray));
     }
+
+    @Test
+    void testEmptyAndSingle() {
+        final double[] x0 = {};
+        final double[] y0 = {};
+        SortInPlace.ASCENDING.apply(x0, y0);
+        final double[] x1 = {3};
+        final double[] y1 = {4};
+        SortInPlace.DESCENDING.apply(x1, y1);
+        Assertions.assertArrayEquals(new double[] {3}, x1);
+        Assertions.assertArrayEquals(new double[] {4}, y1);
+    }
+
+    @Test
+    void testNoCompanionArrays() {
+        final double[] x = {2, 5, -3, 1, 4};
+        SortInPlace.ASCENDING.apply(x);
+        Assertions.assertArrayEquals(new double[] {-3, 1, 2, 4, 5}, x);
+    }
+
+    @Test
+    void testSignedZerosAndNaN() {
+        final double[] x = {Double.NaN, 0.0, 1, -0.0, Double.NEGATIVE_INFINITY};
+        final double[] y = {0, 1, 2, 3, 4};
+        SortInPlace.ASCENDING.apply(x, y);
+        Assertions.assertArrayEquals(new double[] {Double.NEGATIVE_INFINITY, -0.0, 0.0, 1, Double.NaN}, x);
+        Assertions.assertArrayEquals(new double[] {4, 3, 1, 2, 0}, y);
+        SortInPlace.DESCENDING.apply(x, y);
+        Assertions.assertArrayEquals(new double[] {Double.NaN, 1, 0.0, -0.0, Double.NEGATIVE_INFINITY}, x);
+        Assertions.assertArrayEquals(new double[] {0, 2, 1, 3, 4}, y);
+    }
+
+    /**
+     * Test the sort is stable using companion arrays that record the original index.
+     * The result is compared to a stable sort of boxed values.
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "10, 3",
+        "50, 5",
+        "1000, 10",
+        "1000, 1000",
+        "12345, 100",
+    })
+    void testStableSort(int size, int range) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        for (final SortInPlace sort : SortInPlace.values()) {
+            final double[] x = rng.ints(size, 0, range).asDoubleStream().toArray();
+            final double[] y = IntStream.range(0, size).asDoubleStream().toArray();
+            final double[] z = Arrays.stream(y).map(v -> -v).toArray();
+
+            Comparator<Integer> cmp = (i, j) -> Double.compare(x[i], x[j]);
+            if (sort == SortInPlace.DESCENDING) {
+                cmp = cmp.reversed();
+            }
+            final int[] order = IntStream.range(0, size).boxed().sorted(cmp).mapToInt(Integer::intValue).toArray();
+            final double[] xE = Arrays.stream(order).mapToDouble(i -> x[i]).toArray();
+            final double[] yE = Arrays.stream(order).mapToDouble(i -> y[i]).toArray();
+            final double[] zE = Arrays.stream(order).mapToDouble(i -> z[i]).toArray();
+
+            sort.apply(x, y, z);
+
+            Assertions.assertArrayEquals(xE, x);
+            Assertions.assertArrayEquals(yE, y);
+            Assertions.assertArrayEquals(zE, z);
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.apache.commons.rng.sampling.PermutationSampler;
 import org.apache.commons.rng.simple.RandomSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -1010,6 +1011,947 @@ class SortingTest {
         return data;
     }
 
+    // float[]
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort"})
+    void testFloatInsertionSort(float[] values) {
+        assertSort(values, x -> Sorting.sort(x, 0, x.length - 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort", "testFloatSort3"})
+    void testFloatSort3(float[] values) {
+        final float[] data = Arrays.copyOf(values, 3);
+        assertSort(data, x -> Sorting.sort3(x, 0, 1, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort", "testFloatSort5"})
+    void testFloatSort5(float[] values) {
+        final float[] data = Arrays.copyOf(values, 5);
+        assertSort(data, x -> Sorting.sort5(x, 0, 1, 2, 3, 4));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort3Internal"})
+    void testFloatSort3Internal(float[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        assertSortInternal(values, x -> Sorting.sort3(x, a, b, c), indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort5Internal"})
+    void testFloatSort5Internal(float[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        final int e = indices[4];
+        assertSortInternal(values, x -> Sorting.sort5(x, a, b, c, d, e), indices);
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(float[])}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     */
+    private static void assertSort(float[] values, Consumer<float[]> function) {
+        final float[] expected = values.clone();
+        Arrays.sort(expected);
+        final float[] actual = values.clone();
+        function.accept(actual);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(float[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param indices Indices.
+     */
+    private static void assertSortInternal(float[] values, Consumer<float[]> function, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final float[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final float[] data = values.clone();
+        function.accept(data);
+        // Pick out the data that was sorted
+        final float[] actual = extractIndices(data, indices);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+    }
+
+    static Stream<float[]> testFloatSort() {
+        return testDoubleSort().map(SortingTest::toFloat);
+    }
+
+    static Stream<float[]> testFloatSort3() {
+        return testDoubleSort3().map(SortingTest::toFloat);
+    }
+
+    static Stream<float[]> testFloatSort5() {
+        return testDoubleSort5().map(SortingTest::toFloat);
+    }
+
+    static Stream<Arguments> testFloatSort3Internal() {
+        return testDoubleSort3Internal().map(SortingTest::toFloatArguments);
+    }
+
+    static Stream<Arguments> testFloatSort5Internal() {
+        return testDoubleSort5Internal().map(SortingTest::toFloatArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort4Internal"})
+    void testFloatLowerMedian4Internal(float[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.lowerMedian4(x, a, b, c, d);
+            return b;
+        }, true, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort4Internal"})
+    void testFloatUpperMedian4Internal(float[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.upperMedian4(x, a, b, c, d);
+            return c;
+        }, false, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort4"})
+    void testFloatLowerMedian4(float[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.lowerMedian4(x, 0, 1, 2, 3);
+            return 1;
+        }, true, true, 0, 1, 2, 3);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testFloatSort4"})
+    void testFloatUpperMedian4(float[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.upperMedian4(x, 0, 1, 2, 3);
+            return 2;
+        }, false, true, 0, 1, 2, 3);
+    }
+
+    /**
+     * Assert that the median {@code function} computes the same result as
+     * {@link Arrays#sort(float[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param lower For even lengths use the lower median; else the upper median.
+     * @param stable If true then no swaps should be made on the second pass.
+     * @param indices Indices.
+     */
+    private static void assertMedian(float[] values, ToIntFunction<float[]> function,
+        boolean lower, boolean stable, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final float[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final float[] data = values.clone();
+        final int m = function.applyAsInt(data);
+        Assertions.assertEquals(expected[(lower ? -1 : 0) + (expected.length >>> 1)], data[m]);
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+        // This is not a strict requirement but check that no swaps occur on a second pass
+        if (stable) {
+            final float[] x = data.clone();
+            final int m2 = function.applyAsInt(data);
+            Assertions.assertEquals(m, m2);
+            Assertions.assertArrayEquals(x, data);
+        }
+    }
+
+    static Stream<float[]> testFloatSort4() {
+        return testDoubleSort4().map(SortingTest::toFloat);
+    }
+
+    static Stream<Arguments> testFloatSort4Internal() {
+        return testDoubleSort4Internal().map(SortingTest::toFloatArguments);
+    }
+
+    private static float[] extractIndices(float[] values, int[] indices) {
+        final float[] data = new float[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            data[i] = values[indices[i]];
+        }
+        return data;
+    }
+
+    // short[]
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort"})
+    void testShortInsertionSort(short[] values) {
+        assertSort(values, x -> Sorting.sort(x, 0, x.length - 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort", "testShortSort3"})
+    void testShortSort3(short[] values) {
+        final short[] data = Arrays.copyOf(values, 3);
+        assertSort(data, x -> Sorting.sort3(x, 0, 1, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort", "testShortSort5"})
+    void testShortSort5(short[] values) {
+        final short[] data = Arrays.copyOf(values, 5);
+        assertSort(data, x -> Sorting.sort5(x, 0, 1, 2, 3, 4));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort3Internal"})
+    void testShortSort3Internal(short[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        assertSortInternal(values, x -> Sorting.sort3(x, a, b, c), indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort5Internal"})
+    void testShortSort5Internal(short[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        final int e = indices[4];
+        assertSortInternal(values, x -> Sorting.sort5(x, a, b, c, d, e), indices);
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(short[])}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     */
+    private static void assertSort(short[] values, Consumer<short[]> function) {
+        final short[] expected = values.clone();
+        Arrays.sort(expected);
+        final short[] actual = values.clone();
+        function.accept(actual);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(short[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param indices Indices.
+     */
+    private static void assertSortInternal(short[] values, Consumer<short[]> function, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final short[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final short[] data = values.clone();
+        function.accept(data);
+        // Pick out the data that was sorted
+        final short[] actual = extractIndices(data, indices);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+    }
+
+    static Stream<short[]> testShortSort() {
+        return testLongSort().map(SortingTest::toShort);
+    }
+
+    static Stream<short[]> testShortSort3() {
+        return testLongSort3().map(SortingTest::toShort);
+    }
+
+    static Stream<short[]> testShortSort5() {
+        return testLongSort5().map(SortingTest::toShort);
+    }
+
+    static Stream<Arguments> testShortSort3Internal() {
+        return testLongSort3Internal().map(SortingTest::toShortArguments);
+    }
+
+    static Stream<Arguments> testShortSort5Internal() {
+        return testLongSort5Internal().map(SortingTest::toShortArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort4Internal"})
+    void testShortLowerMedian4Internal(short[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.lowerMedian4(x, a, b, c, d);
+            return b;
+        }, true, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort4Internal"})
+    void testShortUpperMedian4Internal(short[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.upperMedian4(x, a, b, c, d);
+            return c;
+        }, false, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort4"})
+    void testShortLowerMedian4(short[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.lowerMedian4(x, 0, 1, 2, 3);
+            return 1;
+        }, true, true, 0, 1, 2, 3);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testShortSort4"})
+    void testShortUpperMedian4(short[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.upperMedian4(x, 0, 1, 2, 3);
+            return 2;
+        }, false, true, 0, 1, 2, 3);
+    }
+
+    /**
+     * Assert that the median {@code function} computes the same result as
+     * {@link Arrays#sort(short[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param lower For even lengths use the lower median; else the upper median.
+     * @param stable If true then no swaps should be made on the second pass.
+     * @param indices Indices.
+     */
+    private static void assertMedian(short[] values, ToIntFunction<short[]> function,
+        boolean lower, boolean stable, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final short[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final short[] data = values.clone();
+        final int m = function.applyAsInt(data);
+        Assertions.assertEquals(expected[(lower ? -1 : 0) + (expected.length >>> 1)], data[m]);
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+        // This is not a strict requirement but check that no swaps occur on a second pass
+        if (stable) {
+            final short[] x = data.clone();
+            final int m2 = function.applyAsInt(data);
+            Assertions.assertEquals(m, m2);
+            Assertions.assertArrayEquals(x, data);
+        }
+    }
+
+    static Stream<short[]> testShortSort4() {
+        return testLongSort4().map(SortingTest::toShort);
+    }
+
+    static Stream<Arguments> testShortSort4Internal() {
+        return testLongSort4Internal().map(SortingTest::toShortArguments);
+    }
+
+    private static short[] extractIndices(short[] values, int[] indices) {
+        final short[] data = new short[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            data[i] = values[indices[i]];
+        }
+        return data;
+    }
+
+    // char[]
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort"})
+    void testCharInsertionSort(char[] values) {
+        assertSort(values, x -> Sorting.sort(x, 0, x.length - 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort", "testCharSort3"})
+    void testCharSort3(char[] values) {
+        final char[] data = Arrays.copyOf(values, 3);
+        assertSort(data, x -> Sorting.sort3(x, 0, 1, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort", "testCharSort5"})
+    void testCharSort5(char[] values) {
+        final char[] data = Arrays.copyOf(values, 5);
+        assertSort(data, x -> Sorting.sort5(x, 0, 1, 2, 3, 4));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort3Internal"})
+    void testCharSort3Internal(char[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        assertSortInternal(values, x -> Sorting.sort3(x, a, b, c), indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort5Internal"})
+    void testCharSort5Internal(char[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        final int e = indices[4];
+        assertSortInternal(values, x -> Sorting.sort5(x, a, b, c, d, e), indices);
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(char[])}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     */
+    private static void assertSort(char[] values, Consumer<char[]> function) {
+        final char[] expected = values.clone();
+        Arrays.sort(expected);
+        final char[] actual = values.clone();
+        function.accept(actual);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(char[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param indices Indices.
+     */
+    private static void assertSortInternal(char[] values, Consumer<char[]> function, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final char[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final char[] data = values.clone();
+        function.accept(data);
+        // Pick out the data that was sorted
+        final char[] actual = extractIndices(data, indices);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+    }
+
+    static Stream<char[]> testCharSort() {
+        return testLongSort().map(SortingTest::toChar);
+    }
+
+    static Stream<char[]> testCharSort3() {
+        return testLongSort3().map(SortingTest::toChar);
+    }
+
+    static Stream<char[]> testCharSort5() {
+        return testLongSort5().map(SortingTest::toChar);
+    }
+
+    static Stream<Arguments> testCharSort3Internal() {
+        return testLongSort3Internal().map(SortingTest::toCharArguments);
+    }
+
+    static Stream<Arguments> testCharSort5Internal() {
+        return testLongSort5Internal().map(SortingTest::toCharArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort4Internal"})
+    void testCharLowerMedian4Internal(char[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.lowerMedian4(x, a, b, c, d);
+            return b;
+        }, true, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort4Internal"})
+    void testCharUpperMedian4Internal(char[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.upperMedian4(x, a, b, c, d);
+            return c;
+        }, false, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort4"})
+    void testCharLowerMedian4(char[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.lowerMedian4(x, 0, 1, 2, 3);
+            return 1;
+        }, true, true, 0, 1, 2, 3);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testCharSort4"})
+    void testCharUpperMedian4(char[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.upperMedian4(x, 0, 1, 2, 3);
+            return 2;
+        }, false, true, 0, 1, 2, 3);
+    }
+
+    /**
+     * Assert that the median {@code function} computes the same result as
+     * {@link Arrays#sort(char[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param lower For even lengths use the lower median; else the upper median.
+     * @param stable If true then no swaps should be made on the second pass.
+     * @param indices Indices.
+     */
+    private static void assertMedian(char[] values, ToIntFunction<char[]> function,
+        boolean lower, boolean stable, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final char[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final char[] data = values.clone();
+        final int m = function.applyAsInt(data);
+        Assertions.assertEquals(expected[(lower ? -1 : 0) + (expected.length >>> 1)], data[m]);
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+        // This is not a strict requirement but check that no swaps occur on a second pass
+        if (stable) {
+            final char[] x = data.clone();
+            final int m2 = function.applyAsInt(data);
+            Assertions.assertEquals(m, m2);
+            Assertions.assertArrayEquals(x, data);
+        }
+    }
+
+    static Stream<char[]> testCharSort4() {
+        return testLongSort4().map(SortingTest::toChar);
+    }
+
+    static Stream<Arguments> testCharSort4Internal() {
+        return testLongSort4Internal().map(SortingTest::toCharArguments);
+    }
+
+    private static char[] extractIndices(char[] values, int[] indices) {
+        final char[] data = new char[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            data[i] = values[indices[i]];
+        }
+        return data;
+    }
+
+    // byte[]
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort"})
+    void testByteInsertionSort(byte[] values) {
+        assertSort(values, x -> Sorting.sort(x, 0, x.length - 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort", "testByteSort3"})
+    void testByteSort3(byte[] values) {
+        final byte[] data = Arrays.copyOf(values, 3);
+        assertSort(data, x -> Sorting.sort3(x, 0, 1, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort", "testByteSort5"})
+    void testByteSort5(byte[] values) {
+        final byte[] data = Arrays.copyOf(values, 5);
+        assertSort(data, x -> Sorting.sort5(x, 0, 1, 2, 3, 4));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort3Internal"})
+    void testByteSort3Internal(byte[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        assertSortInternal(values, x -> Sorting.sort3(x, a, b, c), indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort5Internal"})
+    void testByteSort5Internal(byte[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        final int e = indices[4];
+        assertSortInternal(values, x -> Sorting.sort5(x, a, b, c, d, e), indices);
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(byte[])}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     */
+    private static void assertSort(byte[] values, Consumer<byte[]> function) {
+        final byte[] expected = values.clone();
+        Arrays.sort(expected);
+        final byte[] actual = values.clone();
+        function.accept(actual);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+    }
+
+    /**
+     * Assert that the sort {@code function} computes the same result as
+     * {@link Arrays#sort(byte[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param indices Indices.
+     */
+    private static void assertSortInternal(byte[] values, Consumer<byte[]> function, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final byte[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final byte[] data = values.clone();
+        function.accept(data);
+        // Pick out the data that was sorted
+        final byte[] actual = extractIndices(data, indices);
+        Assertions.assertArrayEquals(expected, actual, "Invalid sort");
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+    }
+
+    static Stream<byte[]> testByteSort() {
+        return testLongSort().map(SortingTest::toByte);
+    }
+
+    static Stream<byte[]> testByteSort3() {
+        return testLongSort3().map(SortingTest::toByte);
+    }
+
+    static Stream<byte[]> testByteSort5() {
+        return testLongSort5().map(SortingTest::toByte);
+    }
+
+    static Stream<Arguments> testByteSort3Internal() {
+        return testLongSort3Internal().map(SortingTest::toByteArguments);
+    }
+
+    static Stream<Arguments> testByteSort5Internal() {
+        return testLongSort5Internal().map(SortingTest::toByteArguments);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort4Internal"})
+    void testByteLowerMedian4Internal(byte[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.lowerMedian4(x, a, b, c, d);
+            return b;
+        }, true, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort4Internal"})
+    void testByteUpperMedian4Internal(byte[] values, int[] indices) {
+        final int a = indices[0];
+        final int b = indices[1];
+        final int c = indices[2];
+        final int d = indices[3];
+        assertMedian(values, x -> {
+            Sorting.upperMedian4(x, a, b, c, d);
+            return c;
+        }, false, false, indices);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort4"})
+    void testByteLowerMedian4(byte[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.lowerMedian4(x, 0, 1, 2, 3);
+            return 1;
+        }, true, true, 0, 1, 2, 3);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testByteSort4"})
+    void testByteUpperMedian4(byte[] a) {
+        // This method computes in place
+        assertMedian(a, x -> {
+            Sorting.upperMedian4(x, 0, 1, 2, 3);
+            return 2;
+        }, false, true, 0, 1, 2, 3);
+    }
+
+    /**
+     * Assert that the median {@code function} computes the same result as
+     * {@link Arrays#sort(byte[])} run on the provided {@code indices}.
+     *
+     * @param values Data.
+     * @param function Sort function.
+     * @param lower For even lengths use the lower median; else the upper median.
+     * @param stable If true then no swaps should be made on the second pass.
+     * @param indices Indices.
+     */
+    private static void assertMedian(byte[] values, ToIntFunction<byte[]> function,
+        boolean lower, boolean stable, int... indices) {
+        Assertions.assertFalse(containsDuplicates(indices), () -> "Duplicate indices: " + Arrays.toString(indices));
+        // Pick out the data to sort
+        final byte[] expected = extractIndices(values, indices);
+        Arrays.sort(expected);
+        final byte[] data = values.clone();
+        final int m = function.applyAsInt(data);
+        Assertions.assertEquals(expected[(lower ? -1 : 0) + (expected.length >>> 1)], data[m]);
+        // Check outside the sorted indices
+        OUTSIDE: for (int i = 0; i < values.length; i++) {
+            for (final int ignore : indices) {
+                if (i == ignore) {
+                    continue OUTSIDE;
+                }
+            }
+            Assertions.assertEquals(values[i], data[i]);
+        }
+        // This is not a strict requirement but check that no swaps occur on a second pass
+        if (stable) {
+            final byte[] x = data.clone();
+            final int m2 = function.applyAsInt(data);
+            Assertions.assertEquals(m, m2);
+            Assertions.assertArrayEquals(x, data);
+        }
+    }
+
+    static Stream<byte[]> testByteSort4() {
+        return testLongSort4().map(SortingTest::toByte);
+    }
+
+    static Stream<Arguments> testByteSort4Internal() {
+        return testLongSort4Internal().map(SortingTest::toByteArguments);
+    }
+
+    private static byte[] extractIndices(byte[] values, int[] indices) {
+        final byte[] data = new byte[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            data[i] = values[indices[i]];
+        }
+        return data;
+    }
+
+    /**
+     * Convert the {@code double[]} data to {@code float[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toFloatArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof double[]) {
+                args[i] = toFloat((double[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code double[]} data to {@code float[]} using a narrowing primitive conversion.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static float[] toFloat(double[] a) {
+        final float[] x = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (float) a[i];
+        }
+        return x;
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code short[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toShortArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof long[]) {
+                args[i] = toShort((long[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code short[]} using a narrowing primitive conversion.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static short[] toShort(long[] a) {
+        final short[] x = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (short) a[i];
+        }
+        return x;
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code char[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toCharArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof long[]) {
+                args[i] = toChar((long[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code char[]} using a narrowing primitive conversion.
+     * Values are offset so the order of values in the range of a {@code short} is preserved.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static char[] toChar(long[] a) {
+        final char[] x = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (char) (a[i] - Short.MIN_VALUE);
+        }
+        return x;
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code byte[]}. Other arguments are unchanged.
+     *
+     * @param arguments Arguments.
+     * @return the converted arguments
+     */
+    private static Arguments toByteArguments(Arguments arguments) {
+        final Object[] args = arguments.get();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof long[]) {
+                args[i] = toByte((long[]) args[i]);
+            }
+        }
+        return Arguments.of(args);
+    }
+
+    /**
+     * Convert the {@code long[]} data to {@code byte[]} using a narrowing primitive conversion.
+     *
+     * @param a Data.
+     * @return the converted data
+     */
+    private static byte[] toByte(long[] a) {
+        final byte[] x = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (byte) a[i];
+        }
+        return x;
+    }
+
     // Sorting unique indices
 
     @ParameterizedTest
@@ -1106,4 +2048,21 @@ class SortingTest {
         }
         return false;
     }
+
+    @Test
+    void testToKey() {
+        final double[] values = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1, -Double.MIN_VALUE,
+            -0.0, 0.0, Double.MIN_VALUE, 1, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN};
+        for (int i = 0; i < values.length; i++) {
+            final long k = Sorting.toKey(values[i]);
+            Assertions.assertEquals(Double.doubleToLongBits(values[i]),
+                Double.doubleToLongBits(Sorting.fromKey(k)), "Round trip");
+            if (i > 0) {
+                Assertions.assertTrue(Sorting.toKey(values[i - 1]) < k, () -> "Order of " + k);
+            }
+        }
+        // All NaN values have the same key
+        Assertions.assertEquals(Sorting.toKey(Double.NaN),
+            Sorting.toKey(Double.longBitsToDouble(0xfff0000000000123L)));
+    }
 }
@@ -16,6 +16,8 @@
  */
 package org.apache.commons.numbers.arrays;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -68,4 +70,97 @@ class UserGuideTest {
         Assertions.assertEquals(2, data[4]);
         Assertions.assertEquals(5, data[8]);
     }
+
+    @Test
+    void testSelection2() {
+        final int[] data = {5, 9, 1, 7, 3, 8, 2, 6, 4, 0};
+
+        Selection.partialSort(data, 7, 9);
+        Assertions.assertArrayEquals(new int[] {7, 8, 9}, Arrays.copyOfRange(data, 7, 10));
+    }
+
+    @Test
+    void testSelection3() {
+        final String[] words = {"pear", "fig", "banana", "kiwi", "apple"};
+
+        ObjectSelection.select(words, 1, Comparator.comparingInt(String::length));
+        Assertions.assertEquals(4, words[1].length());
+        ObjectSelection.selectByKey(words, 4, String::length);
+        Assertions.assertEquals("banana", words[4]);
+    }
+
+    @Test
+    void testBatchSelection1() {
+        final double[][] data = {{3, 1, 2}, {6, 5, 4}};
+
+        BatchSelection.selectRows(data, 1);
+        Assertions.assertEquals(2, data[0][1]);
+        Assertions.assertEquals(5, data[1][1]);
+    }
+
+    @Test
+    void testArgSelection1() {
+        final double[] scores = {0.7, 0.2, 0.9, 0.1, 0.5};
+        final int[] index = {0, 1, 2, 3, 4};
+
+        ArgSelection.select(scores, index, 1);
+        Assertions.assertEquals(3, index[0]);
+        Assertions.assertEquals(1, index[1]);
+    }
+
+    @Test
+    void testQuantile1() {
+        final double[] data = {3, 1, 4, 2};
+        final Quantile q = Quantile.withDefaults().with(Quantile.EstimationMethod.HF7);
+
+        final double m = q.evaluate(data, 0.5);
+        final double[] iqr = q.evaluate(data, 0.25, 0.75);
+        Assertions.assertEquals(2.5, m);
+        Assertions.assertArrayEquals(new double[] {1.75, 3.25}, iqr);
+    }
+
+    @Test
+    void testRollingQuantile1() {
+        final double[] data = {1, 5, 2, 8, 3, 9};
+        final RollingQuantile rq = RollingQuantile.of(3);
+
+        final double[] m = rq.evaluate(data, 0.5);
+        Assertions.assertArrayEquals(new double[] {2, 5, 3, 8}, m);
+
+        final RollingQuantile.DoubleWindow w = rq.ofDouble(0.5);
+        for (final double x : data) {
+            w.accept(x);
+        }
+        Assertions.assertEquals(8, w.getAsDouble());
+    }
+
+    @Test
+    void testWeightedQuantile1() {
+        final double[] values = {3, 1, 4, 2};
+        final double[] weights = {2, 1, 4, 1};
+        final WeightedQuantile wq = WeightedQuantile.withDefaults();
+
+        final double m = wq.evaluate(values, weights, 0.5);
+        Assertions.assertEquals(3.5, m);
+        final double[] q = wq.evaluate(values, weights, 0.1, 0.25);
+        Assertions.assertArrayEquals(new double[] {1, 2.5}, q);
+    }
+
+    @Test
+    void testCoSort1() {
+        final long[] time = {30, 10, 20};
+        final int[] id = {1, 2, 3};
+        final float[] value = {0.5f, 1.5f, 2.5f};
+        CoSort.withDefaults().withStable(true).sort(time, id, value);
+        Assertions.assertArrayEquals(new long[] {10, 20, 30}, time);
+        Assertions.assertArrayEquals(new int[] {2, 3, 1}, id);
+        Assertions.assertArrayEquals(new float[] {1.5f, 2.5f, 0.5f}, value);
+    }
+
+    @Test
+    void testRadixSort1() {
+        final double[] x = {3, Double.NaN, 0.0, -0.0, -1};
+        RadixSort.sort(x);
+        Assertions.assertArrayEquals(new double[] {-1, -0.0, 0.0, 3, Double.NaN}, x);
+    }
 }
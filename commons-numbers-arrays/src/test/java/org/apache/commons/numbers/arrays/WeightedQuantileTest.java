@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.numbers.arrays.Quantile.EstimationMethod;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for the {@link WeightedQuantile} class.
+ */
+class WeightedQuantileTest {
+    /** Probabilities to test. */
+    private static final double[] PROBABILITIES = {0, 0.01, 0.1, 0.25, 1.0 / 3, 0.5, 0.75, 0.9, 0.99, 1};
+
+    @Test
+    void testInvalidProbability() {
+        final WeightedQuantile q = WeightedQuantile.withDefaults();
+        final double[] x = {1, 2, 3};
+        final double[] w = {1, 1, 1};
+        for (final double p : new double[] {-0.1, 1.1, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(x, w, p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(x, w, 0.5, p));
+        }
+    }
+
+    @Test
+    void testSizeMismatch() {
+        final WeightedQuantile q = WeightedQuantile.withDefaults();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(new double[3], new double[2], 0.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(new double[2], new double[3], 0.5));
+    }
+
+    @Test
+    void testInvalidWeight() {
+        final double[] x = {1, 2, 3};
+        for (final double v : new double[] {-1, -0.0, Double.NaN, Double.POSITIVE_INFINITY}) {
+            final double[] w = {1, v, 1};
+            if (v == 0) {
+                // -0.0 is a zero weight
+                Assertions.assertEquals(2, WeightedQuantile.withDefaults().evaluate(x, w, 0.5));
+                continue;
+            }
+            for (final boolean copy : new boolean[] {true, false}) {
+                final WeightedQuantile q = WeightedQuantile.withDefaults().withCopy(copy);
+                Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(x, w, 0.5));
+            }
+        }
+        final double[] w = {Double.MAX_VALUE, Double.MAX_VALUE, 1};
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> WeightedQuantile.withDefaults().evaluate(x, w, 0.5));
+    }
+
+    @Test
+    void testNaNPolicy() {
+        final double[] x = {1, Double.NaN, 3, Double.NaN};
+        final double[] w = {1, 1, 1, 1};
+        Assertions.assertThrows(NullPointerException.class, () -> WeightedQuantile.withDefaults().with(null));
+        final WeightedQuantile q = WeightedQuantile.withDefaults();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> q.with(NaNPolicy.ERROR).evaluate(x, w, 0.5));
+        Assertions.assertEquals(2, q.with(NaNPolicy.EXCLUDE).evaluate(x, w, 0.5));
+        Assertions.assertEquals(2, q.with(NaNPolicy.INCLUDE).evaluate(x, w, 0.25));
+        Assertions.assertEquals(3, q.with(NaNPolicy.INCLUDE).evaluate(x, w, 0.4));
+        // Averaged with NaN
+        Assertions.assertEquals(Double.NaN, q.with(NaNPolicy.INCLUDE).evaluate(x, w, 0.5));
+        Assertions.assertEquals(Double.NaN, q.with(NaNPolicy.INCLUDE).evaluate(x, w, 0.8));
+        // NaN with zero weight is ignored
+        w[1] = 0;
+        w[3] = 0;
+        Assertions.assertEquals(3, q.with(NaNPolicy.INCLUDE).evaluate(x, w, 0.8));
+        // NaN is an error even with zero weight
+        Assertions.assertThrows(IllegalArgumentException.class, () -> q.with(NaNPolicy.ERROR).evaluate(x, w, 0.8));
+    }
+
+    @Test
+    void testNoData() {
+        final WeightedQuantile q = WeightedQuantile.withDefaults();
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[0], new double[0], 0.5));
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[3], new double[3], 0.5));
+        Assertions.assertArrayEquals(new double[] {Double.NaN, Double.NaN},
+            q.evaluate(new double[] {1, 2}, new double[2], 0, 1));
+        Assertions.assertEquals(Double.NaN, q.with(NaNPolicy.EXCLUDE).evaluate(new double[] {Double.NaN},
+            new double[] {1}, 0.5));
+        Assertions.assertArrayEquals(new double[0], q.evaluate(new double[] {1, 2}, new double[] {1, 1}));
+    }
+
+    @Test
+    void testTies() {
+        final WeightedQuantile q = WeightedQuantile.withDefaults();
+        final double[] x = {4, 1, 2, 3};
+        // Cumulative weight [1, 2] = 3 = total / 2
+        Assertions.assertEquals(2.5, q.evaluate(x, new double[] {1, 2, 1, 2}, 0.5));
+        Assertions.assertEquals(2, q.evaluate(x, new double[] {1, 2, 1.5, 2}, 0.5));
+        Assertions.assertEquals(3, q.evaluate(x, new double[] {1, 2, 0.5, 2}, 0.5));
+        // Zero weight does not create a value for averaging
+        Assertions.assertEquals(1.5, q.evaluate(x, new double[] {1, 2, 1, 0}, 0.5));
+        Assertions.assertEquals(2, q.evaluate(x, new double[] {1, 2, 0, 1}, 0.5));
+        Assertions.assertEquals(2.5, q.evaluate(x, new double[] {0, 2, 1, 3}, 0.5));
+        // Equal values are combined
+        final double[] y = {2, 1, 2, 3, 1};
+        Assertions.assertEquals(2, q.evaluate(y, new double[] {1, 1, 1, 2, 1}, 0.5));
+        Assertions.assertEquals(1.5, q.evaluate(y, new double[] {1, 1, 1, 1, 1}, 0.4));
+        Assertions.assertEquals(2.5, q.evaluate(y, new double[] {1, 1, 1, 4, 1}, 0.5));
+        // Signed zeros
+        final double[] z = {0.0, -0.0, 1, -1};
+        Assertions.assertEquals(-0.0, q.evaluate(z, new double[] {1, 1, 1, 1}, 0.4));
+        Assertions.assertEquals(0.0, q.evaluate(z, new double[] {1, 1, 1, 1}, 0.6));
+        // Mean of -0.0 and 0.0 is consistent with Quantile
+        Assertions.assertEquals(-0.0, q.evaluate(z, new double[] {1, 1, 1, 1}, 0.5));
+        Assertions.assertEquals(0.0, q.evaluate(z, new double[] {1, 0, 1, 1}, 0.5));
+        Assertions.assertEquals(-0.0, q.evaluate(z, new double[] {0, 1, 1, 1}, 0.5));
+        Assertions.assertEquals(-0.5, q.evaluate(z, new double[] {0, 1, 1, 1}, 1.0 / 3));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testUnitWeights(double[] values) {
+        final double[] w = new double[values.length];
+        Arrays.fill(w, 1);
+        for (final NaNPolicy policy : NaNPolicy.values()) {
+            if (policy == NaNPolicy.ERROR) {
+                continue;
+            }
+            final Quantile expected = Quantile.withDefaults().with(EstimationMethod.HF2).with(policy);
+            final WeightedQuantile q = WeightedQuantile.withDefaults().with(policy);
+            assertQuantiles(expected.evaluate(values, PROBABILITIES), q, values, w, policy.toString());
+        }
+    }
+
+    static Stream<Arguments> testUnitWeights() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final double[] special = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1, -1};
+        for (final int n : new int[] {1, 2, 3, 4, 5, 10, 31, 100, 1000}) {
+            builder.add(Arguments.of(rng.doubles(n).toArray()));
+            builder.add(Arguments.of(rng.ints(n, -3, 3).asDoubleStream().toArray()));
+            builder.add(Arguments.of(rng.ints(n, 0, special.length).mapToDouble(i -> special[i]).toArray()));
+            builder.add(Arguments.of(IntStream.range(0, n).asDoubleStream().toArray()));
+            builder.add(Arguments.of(new double[n]));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testIntegerWeights(double[] values, double[] weights) {
+        // Equivalent to repeating each value by its weight
+        final double[] data = IntStream.range(0, values.length)
+            .flatMap(i -> IntStream.range(0, (int) weights[i]).map(j -> i))
+            .mapToDouble(i -> values[i]).toArray();
+        for (final NaNPolicy policy : NaNPolicy.values()) {
+            if (policy == NaNPolicy.ERROR) {
+                continue;
+            }
+            final Quantile expected = Quantile.withDefaults().with(EstimationMethod.HF2).with(policy);
+            final WeightedQuantile q = WeightedQuantile.withDefaults().with(policy);
+            assertQuantiles(expected.evaluate(data, PROBABILITIES), q, values, weights, policy.toString());
+        }
+    }
+
+    static Stream<Arguments> testIntegerWeights() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final double[] special = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1, -1};
+        for (final int n : new int[] {1, 2, 3, 5, 10, 31, 100, 1000}) {
+            for (final int maxWeight : new int[] {2, 5, 20}) {
+                final double[] w = rng.ints(n, 0, maxWeight).asDoubleStream().toArray();
+                if (Arrays.stream(w).sum() == 0) {
+                    w[0] = 1;
+                }
+                builder.add(Arguments.of(rng.doubles(n).toArray(), w));
+                builder.add(Arguments.of(rng.ints(n, -3, 3).asDoubleStream().toArray(), w));
+                builder.add(Arguments.of(rng.ints(n, 0, special.length).mapToDouble(i -> special[i]).toArray(), w));
+            }
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testWeights(double[] values, double[] weights) {
+        final double[] p = rngProbabilities();
+        final double[] expected = Arrays.stream(p).map(pi -> quantile(values, weights, pi)).toArray();
+        assertQuantiles(expected, WeightedQuantile.withDefaults(), values, weights, p, "");
+    }
+
+    static Stream<Arguments> testWeights() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int n : new int[] {1, 2, 10, 100, 1000, 50000}) {
+            final double[] w = rng.doubles(n).toArray();
+            final double[] x = rng.doubles(n).toArray();
+            builder.add(Arguments.of(x, w));
+            builder.add(Arguments.of(rng.ints(n, 0, 10).asDoubleStream().toArray(), w));
+            // Ordered data to exercise the pivot choice
+            final double[] y = x.clone();
+            Arrays.sort(y);
+            builder.add(Arguments.of(y, w));
+            final double[] z = new double[n];
+            for (int i = 0; i < n; i++) {
+                z[i] = y[n - i - 1];
+            }
+            builder.add(Arguments.of(z, w));
+            // Organ pipe
+            builder.add(Arguments.of(IntStream.range(0, n).mapToDouble(i -> Math.min(i, n - i)).toArray(), w));
+            // Sawtooth
+            builder.add(Arguments.of(IntStream.range(0, n).mapToDouble(i -> i % 16).toArray(), w));
+            // Skewed weight
+            final double[] v = w.clone();
+            v[n >> 1] = n;
+            builder.add(Arguments.of(x, v));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testCopy() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final int n = 1000;
+        final double[] x = rng.ints(n, 0, 100).asDoubleStream().toArray();
+        final double[] w = rng.ints(n, 0, 5).asDoubleStream().toArray();
+        final double[] x0 = x.clone();
+        final double[] w0 = w.clone();
+        final double[] expected = WeightedQuantile.withDefaults().evaluate(x, w, PROBABILITIES);
+        Assertions.assertArrayEquals(x0, x, "values modified");
+        Assertions.assertArrayEquals(w0, w, "weights modified");
+        final double[] actual = WeightedQuantile.withDefaults().withCopy(false).evaluate(x, w, PROBABILITIES);
+        Assertions.assertArrayEquals(expected, actual);
+        // Pairs are reordered together: compare as (value, weight) sorted
+        Assertions.assertArrayEquals(pairs(x0, w0), pairs(x, w), "pairs destroyed");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = NaNPolicy.class, names = {"INCLUDE", "EXCLUDE"})
+    void testMultipleProbabilities(NaNPolicy policy) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final int n = 500;
+        final double[] x = rng.ints(n, 0, 50).asDoubleStream().toArray();
+        final double[] w = rng.ints(n, 0, 4).asDoubleStream().toArray();
+        x[3] = Double.NaN;
+        x[7] = Double.NaN;
+        final WeightedQuantile q = WeightedQuantile.withDefaults().with(policy);
+        // Unordered with duplicates
+        final double[] p = {0.5, 0.1, 1, 0.5, 0, 0.999, 0.25, 0.1};
+        final double[] expected = Arrays.stream(p).map(pi -> q.evaluate(x, w, pi)).toArray();
+        Assertions.assertArrayEquals(expected, q.evaluate(x, w, p));
+    }
+
+    /**
+     * Assert the quantiles for {@link #PROBABILITIES}, evaluated individually and
+     * collectively, and in-place.
+     */
+    private static void assertQuantiles(double[] expected, WeightedQuantile q, double[] values,
+            double[] weights, String msg) {
+        assertQuantiles(expected, q, values, weights, PROBABILITIES, msg);
+    }
+
+    /**
+     * Assert the quantiles evaluated individually and collectively, and in-place.
+     */
+    private static void assertQuantiles(double[] expected, WeightedQuantile q, double[] values,
+            double[] weights, double[] p, String msg) {
+        for (int i = 0; i < p.length; i++) {
+            final int j = i;
+            Assertions.assertEquals(expected[i], q.evaluate(values, weights, p[i]), () -> msg + " p=" + p[j]);
+        }
+        Assertions.assertArrayEquals(expected, q.evaluate(values, weights, p), () -> msg + " multiple");
+        Assertions.assertArrayEquals(expected,
+            q.withCopy(false).evaluate(values.clone(), weights.clone(), p), () -> msg + " in-place");
+    }
+
+    /**
+     * Create random probabilities.
+     *
+     * @return the probabilities
+     */
+    private static double[] rngProbabilities() {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[] p = rng.doubles(10).toArray();
+        p[0] = 0;
+        p[1] = 1;
+        p[2] = 0.5;
+        return p;
+    }
+
+    /**
+     * Compute the weighted quantile using a sort of the data. Values must not be NaN.
+     *
+     * @param values Values.
+     * @param weights Weights.
+     * @param p Probability.
+     * @return the quantile
+     */
+    private static double quantile(double[] values, double[] weights, double p) {
+        final double[][] data = IntStream.range(0, values.length)
+            .filter(i -> weights[i] != 0)
+            .mapToObj(i -> new double[] {values[i], weights[i]})
+            .sorted((a, b) -> Double.compare(a[0], b[0]))
+            .toArray(double[][]::new);
+        if (data.length == 0) {
+            return Double.NaN;
+        }
+        final double total = Arrays.stream(weights).sum();
+        final double t = p * total;
+        double c = 0;
+        for (int i = 0; i < data.length; i++) {
+            final double v = data[i][0];
+            c += data[i][1];
+            // Combine equal values
+            while (i + 1 < data.length && Double.compare(data[i + 1][0], v) == 0) {
+                c += data[++i][1];
+            }
+            if (c >= t) {
+                if (c == t && i + 1 < data.length) {
+                    return Quantile.interpolate(v, data[i + 1][0], 0.5);
+                }
+                return v;
+            }
+        }
+        return data[data.length - 1][0];
+    }
+
+    /**
+     * Create the (value, weight) pairs sorted by value then weight.
+     *
+     * @param x Values.
+     * @param w Weights.
+     * @return the pairs
+     */
+    private static double[] pairs(double[] x, double[] w) {
+        return IntStream.range(0, x.length)
+            .mapToObj(i -> new double[] {x[i], w[i]})
+            .sorted((a, b) -> {
+                final int c = Double.compare(a[0], b[0]);
+                return c != 0 ? c : Double.compare(a[1], b[1]);
+            })
+            .flatMapToDouble(Arrays::stream)
+            .toArray();
+    }
+}
@@ -17,6 +17,9 @@
 package org.apache.commons.numbers.core;
 
 import java.math.BigInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * Some useful, arithmetics related, additions to the built-in functions in
@@ -26,9 +29,23 @@ import java.math.BigInteger;
 public final class ArithmeticUtils {
 
     /** Negative exponent exception message part 1. */
-    private static final String NEGATIVE_EXPONENT_1 = "negative exponent ({";
+    static final String NEGATIVE_EXPONENT_1 = "negative exponent ({";
     /** Negative exponent exception message part 2. */
-    private static final String NEGATIVE_EXPONENT_2 = "})";
+    static final String NEGATIVE_EXPONENT_2 = "})";
+    /** Mask to extract the lower 32-bits from a long. */
+    private static final long MASK32 = 0xffff_ffffL;
+    /** Message for gcd overflow of an int pair. */
+    private static final String GCD_PAIR_OVERFLOW_32 = "overflow: gcd(%d, %d) is 2^31";
+    /** Message for gcd overflow of a long pair. */
+    private static final String GCD_PAIR_OVERFLOW_64 = "overflow: gcd(%d, %d) is 2^63";
+    /** Message for gcd overflow of an int. */
+    private static final String GCD_OVERFLOW_32 = "overflow: gcd is 2^31";
+    /** Message for gcd overflow of a long. */
+    private static final String GCD_OVERFLOW_64 = "overflow: gcd is 2^63";
+    /** Message for lcm overflow of an int. */
+    private static final String LCM_OVERFLOW_32 = "overflow: lcm is above 2^31 - 1";
+    /** Message for lcm overflow of a long. */
+    private static final String LCM_OVERFLOW_64 = "overflow: lcm is above 2^63 - 1";
 
     /** Private constructor. */
     private ArithmeticUtils() {
@@ -102,7 +119,7 @@ public final class ArithmeticUtils {
             negatedGcd = a << shift;
         }
         if (negatedGcd == Integer.MIN_VALUE) {
-            throw new NumbersArithmeticException("overflow: gcd(%d, %d) is 2^31",
+            throw new NumbersArithmeticException(GCD_PAIR_OVERFLOW_32,
                                                  p, q);
         }
         return -negatedGcd;
@@ -185,7 +202,7 @@ public final class ArithmeticUtils {
             negatedGcd = a << shift;
         }
         if (negatedGcd == Long.MIN_VALUE) {
-            throw new NumbersArithmeticException("overflow: gcd(%d, %d) is 2^63",
+            throw new NumbersArithmeticException(GCD_PAIR_OVERFLOW_64,
                     p, q);
         }
         return -negatedGcd;
@@ -257,6 +274,239 @@ public final class ArithmeticUtils {
         return lcm;
     }
 
+    /**
+     * Computes the greatest common divisor of the absolute value of the numbers.
+     *
+     * <p>This is equivalent to the repeated application of {@link #gcd(int, int)} with the
+     * exception that intermediate results are not required to be representable as an
+     * {@code int}. The binary gcd is computed on the odd part of the values; the common
+     * power of 2 is obtained from the trailing zeros of the bitwise OR of all the values.
+     * Evaluation of the odd part stops when it is 1.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>The result is {@code 0} if the array is empty or contains only zeros.</li>
+     *  <li>The result for a single value {@code x} is the absolute value of {@code x}.</li>
+     * </ul>
+     *
+     * @param values Numbers.
+     * @return the greatest common divisor (never negative).
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code int} value.
+     * @see #gcd(IntStream)
+     * @since 1.4
+     */
+    public static int gcd(int... values) {
+        // Bitwise OR of the values: the trailing zeros are the common power of 2.
+        int bits = 0;
+        // Negated odd part of the gcd
+        int g = 0;
+        int i = 0;
+        while (i < values.length) {
+            final int v = values[i++];
+            if (v != 0) {
+                bits |= v;
+                int a = v > 0 ? -v : v;
+                a >>= Integer.numberOfTrailingZeros(a);
+                g = g == 0 ? a : negatedOddGcd(g, a);
+                if (g == -1) {
+                    break;
+                }
+            }
+        }
+        // The odd part is 1 (or all values are processed). Only the power of 2 may change.
+        while (i < values.length && (bits & 0x1) == 0) {
+            bits |= values[i++];
+        }
+        final int negatedGcd = g << Integer.numberOfTrailingZeros(bits);
+        if (negatedGcd == Integer.MIN_VALUE) {
+            throw new NumbersArithmeticException(GCD_OVERFLOW_32);
+        }
+        return -negatedGcd;
+    }
+
+    /**
+     * Computes the greatest common divisor of the absolute value of the numbers.
+     *
+     * <p>This is equivalent to the repeated application of {@link #gcd(long, long)} with the
+     * exception that intermediate results are not required to be representable as a
+     * {@code long}. The binary gcd is computed on the odd part of the values; the common
+     * power of 2 is obtained from the trailing zeros of the bitwise OR of all the values.
+     * Evaluation of the odd part stops when it is 1.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>The result is {@code 0} if the array is empty or contains only zeros.</li>
+     *  <li>The result for a single value {@code x} is the absolute value of {@code x}.</li>
+     * </ul>
+     *
+     * @param values Numbers.
+     * @return the greatest common divisor (never negative).
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code long} value.
+     * @see #gcd(LongStream)
+     * @since 1.4
+     */
+    public static long gcd(long... values) {
+        long bits = 0;
+        long g = 0;
+        int i = 0;
+        while (i < values.length) {
+            final long v = values[i++];
+            if (v != 0) {
+                bits |= v;
+                g = GcdAccumulator.accumulate(g, v);
+                if (g == -1) {
+                    break;
+                }
+            }
+        }
+        while (i < values.length && (bits & 0x1) == 0) {
+            bits |= values[i++];
+        }
+        return GcdAccumulator.gcd(g, bits);
+    }
+
+    /**
+     * Computes the greatest common divisor of the absolute value of the numbers
+     * in the stream.
+     *
+     * <p>This uses the same algorithm as {@link #gcd(int...)}. The stream is consumed
+     * using a mutable reduction and may be processed in parallel.
+     *
+     * @param values Numbers.
+     * @return the greatest common divisor (never negative).
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code int} value.
+     * @see #gcd(int...)
+     * @since 1.4
+     */
+    public static int gcd(IntStream values) {
+        final long gcd = values.asLongStream()
+            .collect(GcdAccumulator::new, GcdAccumulator::add, GcdAccumulator::combine).getAsLong();
+        if (gcd > Integer.MAX_VALUE) {
+            throw new NumbersArithmeticException(GCD_OVERFLOW_32);
+        }
+        return (int) gcd;
+    }
+
+    /**
+     * Computes the greatest common divisor of the absolute value of the numbers
+     * in the stream.
+     *
+     * <p>This uses the same algorithm as {@link #gcd(long...)}. The stream is consumed
+     * using a mutable reduction and may be processed in parallel.
+     *
+     * @param values Numbers.
+     * @return the greatest common divisor (never negative).
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code long} value.
+     * @see #gcd(long...)
+     * @since 1.4
+     */
+    public static long gcd(LongStream values) {
+        return values.collect(GcdAccumulator::new, GcdAccumulator::add, GcdAccumulator::combine).getAsLong();
+    }
+
+    /**
+     * Returns the least common multiple of the absolute value of the numbers.
+     *
+     * <p>This is equivalent to the repeated application of {@link #lcm(int, int)} with the
+     * exception that the result is zero if any value is zero, even if an intermediate
+     * result cannot be represented as an {@code int}.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>The result is {@code 1} if the array is empty.</li>
+     *  <li>The result is {@code 0} if any value is zero.</li>
+     * </ul>
+     *
+     * @param values Numbers.
+     * @return the least common multiple, never negative.
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code int} value.
+     * @see #lcm(IntStream)
+     * @since 1.4
+     */
+    public static int lcm(int... values) {
+        final LcmAccumulator acc = new LcmAccumulator();
+        for (final int v : values) {
+            if (v == 0) {
+                return 0;
+            }
+            acc.add(v);
+        }
+        return LcmAccumulator.toInt(acc.getAsLong());
+    }
+
+    /**
+     * Returns the least common multiple of the absolute value of the numbers.
+     *
+     * <p>This is equivalent to the repeated application of {@link #lcm(long, long)} with the
+     * exception that the result is zero if any value is zero, even if an intermediate
+     * result cannot be represented as a {@code long}.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>The result is {@code 1} if the array is empty.</li>
+     *  <li>The result is {@code 0} if any value is zero.</li>
+     * </ul>
+     *
+     * @param values Numbers.
+     * @return the least common multiple, never negative.
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code long} value.
+     * @see #lcm(LongStream)
+     * @since 1.4
+     */
+    public static long lcm(long... values) {
+        final LcmAccumulator acc = new LcmAccumulator();
+        for (final long v : values) {
+            if (v == 0) {
+                return 0;
+            }
+            acc.add(v);
+        }
+        return acc.getAsLong();
+    }
+
+    /**
+     * Returns the least common multiple of the absolute value of the numbers
+     * in the stream.
+     *
+     * <p>This uses the same algorithm as {@link #lcm(int...)}. The stream is consumed
+     * using a mutable reduction and may be processed in parallel.
+     *
+     * @param values Numbers.
+     * @return the least common multiple, never negative.
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code int} value.
+     * @see #lcm(int...)
+     * @since 1.4
+     */
+    public static int lcm(IntStream values) {
+        return LcmAccumulator.toInt(values.asLongStream()
+            .collect(LcmAccumulator::new, LcmAccumulator::add, LcmAccumulator::combine).getAsLong());
+    }
+
+    /**
+     * Returns the least common multiple of the absolute value of the numbers
+     * in the stream.
+     *
+     * <p>This uses the same algorithm as {@link #lcm(long...)}. The stream is consumed
+     * using a mutable reduction and may be processed in parallel.
+     *
+     * @param values Numbers.
+     * @return the least common multiple, never negative.
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code long} value.
+     * @see #lcm(long...)
+     * @since 1.4
+     */
+    public static long lcm(LongStream values) {
+        return values.collect(LcmAccumulator::new, LcmAccumulator::add, LcmAccumulator::combine).getAsLong();
+    }
+
     /**
      * Raise an int to an int power.
      *
@@ -595,6 +845,563 @@ public final class ArithmeticUtils {
         return q + ((r | ~(r - divisor)) >>> 63);
     }
 
+    /**
+     * Returns the product of the arguments modulo {@code m}: {@code (a * b) mod m}.
+     *
+     * <p>The result is the non-negative remainder in {@code [0, m)} of the exact
+     * product. The computation uses a 128-bit intermediate product and does not overflow.
+     *
+     * <p>For repeated operations with the same odd modulus the {@link Montgomery}
+     * arithmetic is faster.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @param m Modulus.
+     * @return {@code (a * b) mod m}
+     * @throws ArithmeticException if {@code m <= 0}.
+     * @see java.math.BigInteger#mod(BigInteger)
+     * @since 1.4
+     */
+    public static long mulMod(long a, long b, long m) {
+        checkModulus(m);
+        return mulModUnchecked(Math.floorMod(a, m), Math.floorMod(b, m), m);
+    }
+
+    /**
+     * Returns {@code a} raised to the power {@code e} modulo {@code m}: {@code a^e mod m}.
+     *
+     * <p>The result is the non-negative remainder in {@code [0, m)}. Note that
+     * {@code 0^0 mod m} is 1 if {@code m > 1}.
+     *
+     * @param a Value.
+     * @param e Exponent (must be positive or zero).
+     * @param m Modulus.
+     * @return {@code a^e mod m}
+     * @throws IllegalArgumentException if {@code e < 0}.
+     * @throws ArithmeticException if {@code m <= 0}.
+     * @see java.math.BigInteger#modPow(BigInteger, BigInteger)
+     * @since 1.4
+     */
+    public static long powMod(long a, long e, long m) {
+        if (e < 0) {
+            throw new IllegalArgumentException(NEGATIVE_EXPONENT_1 + e + NEGATIVE_EXPONENT_2);
+        }
+        checkModulus(m);
+        if (m == 1) {
+            return 0;
+        }
+        if ((m & 0x1) != 0) {
+            return Montgomery.of(m).powMod(a, e);
+        }
+        long exp = e;
+        long result = 1;
+        long k2p = Math.floorMod(a, m);
+        while (exp != 0) {
+            if ((exp & 0x1) != 0) {
+                result = mulModUnchecked(result, k2p, m);
+            }
+            k2p = mulModUnchecked(k2p, k2p, m);
+            exp >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the multiplicative inverse of {@code a} modulo {@code m}: {@code a^-1 mod m}.
+     *
+     * <p>The result {@code x} is in {@code [0, m)} and satisfies {@code (a * x) mod m = 1}.
+     * Note that the inverse modulo 1 is 0.
+     *
+     * @param a Value.
+     * @param m Modulus.
+     * @return {@code a^-1 mod m}
+     * @throws ArithmeticException if {@code m <= 0}, or {@code a} has no inverse modulo
+     * {@code m} (i.e. {@code a} and {@code m} are not relatively prime).
+     * @see java.math.BigInteger#modInverse(BigInteger)
+     * @since 1.4
+     */
+    public static long modInverse(long a, long m) {
+        checkModulus(m);
+        final long x = Math.floorMod(a, m);
+        final long inv;
+        if ((m & 0x1) != 0) {
+            inv = modInverseOdd(x, m);
+        } else {
+            // Extended Euclidean algorithm tracking the coefficient of a.
+            // All values are bounded by m.
+            long r0 = m;
+            long r1 = x;
+            long t0 = 0;
+            long t1 = 1;
+            while (r1 != 0) {
+                final long q = r0 / r1;
+                final long r = r0 - q * r1;
+                r0 = r1;
+                r1 = r;
+                final long t = t0 - q * t1;
+                t0 = t1;
+                t1 = t;
+            }
+            if (r0 != 1) {
+                inv = -1;
+            } else {
+                inv = t0 < 0 ? t0 + m : t0;
+            }
+        }
+        if (inv < 0) {
+            throw new NumbersArithmeticException("not invertible: %d mod %d", a, m);
+        }
+        return inv;
+    }
+
+    /**
+     * Computes the greatest common divisor of the absolute value of two numbers,
+     * and the coefficients of B&eacute;zout's identity {@code x} and {@code y} such that:
+     *
+     * <pre>
+     * a * x + b * y = gcd(a, b)
+     * </pre>
+     *
+     * <p>The coefficients are written to the provided array to allow the result
+     * holder to be reused. The coefficients are computed using the extended Euclidean
+     * algorithm and satisfy {@code |x| <= max(1, |b| / gcd)} and
+     * {@code |y| <= max(1, |a| / gcd)}.
+     *
+     * <p>Special cases are the same as {@link #gcd(int, int)}.
+     *
+     * @param a Number.
+     * @param b Number.
+     * @param coefficients Result holder for the coefficients {@code [x, y]}
+     * (must have a length of at least 2).
+     * @return the greatest common divisor (never negative).
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code int} value.
+     * @throws IndexOutOfBoundsException if the length of the result holder is less than 2.
+     * @since 1.4
+     */
+    public static int extendedGcd(int a, int b, int[] coefficients) {
+        // The Euclidean algorithm using truncated division supports negative values.
+        // The remainders decrease in magnitude and the last non-zero remainder is +/-gcd.
+        // Note: Overflow of MIN_VALUE / -1 occurs only for the final step to a zero
+        // remainder; the coefficients of that step are discarded.
+        int r0 = a;
+        int r1 = b;
+        int s0 = 1;
+        int s1 = 0;
+        int t0 = 0;
+        int t1 = 1;
+        while (r1 != 0) {
+            final int q = r0 / r1;
+            int tmp = r0 - q * r1;
+            r0 = r1;
+            r1 = tmp;
+            tmp = s0 - q * s1;
+            s0 = s1;
+            s1 = tmp;
+            tmp = t0 - q * t1;
+            t0 = t1;
+            t1 = tmp;
+        }
+        if (r0 < 0) {
+            if (r0 == Integer.MIN_VALUE) {
+                throw new NumbersArithmeticException(GCD_PAIR_OVERFLOW_32, a, b);
+            }
+            r0 = -r0;
+            s0 = -s0;
+            t0 = -t0;
+        }
+        coefficients[1] = t0;
+        coefficients[0] = s0;
+        return r0;
+    }
+
+    /**
+     * Computes the greatest common divisor of the absolute value of two numbers,
+     * and the coefficients of B&eacute;zout's identity {@code x} and {@code y} such that:
+     *
+     * <pre>
+     * a * x + b * y = gcd(a, b)
+     * </pre>
+     *
+     * <p>The coefficients are written to the provided array to allow the result
+     * holder to be reused. The coefficients are computed using the extended Euclidean
+     * algorithm and satisfy {@code |x| <= max(1, |b| / gcd)} and
+     * {@code |y| <= max(1, |a| / gcd)}.
+     *
+     * <p>Special cases are the same as {@link #gcd(long, long)}.
+     *
+     * @param a Number.
+     * @param b Number.
+     * @param coefficients Result holder for the coefficients {@code [x, y]}
+     * (must have a length of at least 2).
+     * @return the greatest common divisor (never negative).
+     * @throws ArithmeticException if the result cannot be represented as
+     * a non-negative {@code long} value.
+     * @throws IndexOutOfBoundsException if the length of the result holder is less than 2.
+     * @since 1.4
+     */
+    public static long extendedGcd(long a, long b, long[] coefficients) {
+        // See extendedGcd(int, int, int[])
+        long r0 = a;
+        long r1 = b;
+        long s0 = 1;
+        long s1 = 0;
+        long t0 = 0;
+        long t1 = 1;
+        while (r1 != 0) {
+            final long q = r0 / r1;
+            long tmp = r0 - q * r1;
+            r0 = r1;
+            r1 = tmp;
+            tmp = s0 - q * s1;
+            s0 = s1;
+            s1 = tmp;
+            tmp = t0 - q * t1;
+            t0 = t1;
+            t1 = tmp;
+        }
+        if (r0 < 0) {
+            if (r0 == Long.MIN_VALUE) {
+                throw new NumbersArithmeticException(GCD_PAIR_OVERFLOW_64, a, b);
+            }
+            r0 = -r0;
+            s0 = -s0;
+            t0 = -t0;
+        }
+        coefficients[1] = t0;
+        coefficients[0] = s0;
+        return r0;
+    }
+
+    /**
+     * Returns the multiplicative inverse of {@code a} modulo the odd modulus {@code m};
+     * or -1 if {@code a} is not invertible.
+     *
+     * <p>Uses the binary extended gcd which avoids division. The algorithm maintains
+     * coefficients {@code x1} and {@code x2} in {@code [0, m)} such that
+     * {@code x1 * a = u (mod m)} and {@code x2 * a = v (mod m)}, where {@code u}
+     * and {@code v} are reduced by the binary gcd method. Division of a
+     * coefficient by 2 is performed modulo {@code m} using {@code (x + m) / 2} when
+     * {@code x} is odd; this is computed as an unsigned 64-bit value which cannot overflow.
+     *
+     * @param a Value in {@code [0, m)}.
+     * @param m Odd positive modulus.
+     * @return {@code a^-1 mod m}, or -1
+     */
+    private static long modInverseOdd(long a, long m) {
+        long u = a;
+        long v = m;
+        long x1 = 1;
+        long x2 = 0;
+        while (u != 0) {
+            while ((u & 0x1) == 0) {
+                u >>= 1;
+                x1 = (x1 & 0x1) == 0 ? x1 >>> 1 : (x1 + m) >>> 1;
+            }
+            while ((v & 0x1) == 0) {
+                v >>= 1;
+                x2 = (x2 & 0x1) == 0 ? x2 >>> 1 : (x2 + m) >>> 1;
+            }
+            // u and v are odd
+            if (u >= v) {
+                u -= v;
+                x1 -= x2;
+                if (x1 < 0) {
+                    x1 += m;
+                }
+            } else {
+                v -= u;
+                x2 -= x1;
+                if (x2 < 0) {
+                    x2 += m;
+                }
+            }
+        }
+        // v = gcd(a, m)
+        return v == 1 ? x2 : -1;
+    }
+
+    /**
+     * Check the modulus is strictly positive.
+     *
+     * @param m Modulus.
+     * @throws ArithmeticException if {@code m <= 0}.
+     */
+    static void checkModulus(long m) {
+        if (m <= 0) {
+            throw new NumbersArithmeticException("modulus not positive: %d", m);
+        }
+    }
+
+    /**
+     * Returns the product of the arguments modulo {@code m}. The arguments must be in
+     * {@code [0, m)} and {@code m} must be positive.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @param m Modulus.
+     * @return {@code (a * b) mod m}
+     */
+    private static long mulModUnchecked(long a, long b, long m) {
+        final long lo = a * b;
+        final long hi = IntrinsicMath.unsignedMultiplyHigh(a, b);
+        return hi == 0 ?
+            remainderUnsigned(lo, m) :
+            remainder128(hi, lo, m);
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128-bit product of the arguments.
+     *
+     * <p>This is an implementation for Java 8 of {@code Math.unsignedMultiplyHigh}
+     * (added in Java 18).
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return the high part of the product
+     */
+    static long unsignedMultiplyHigh(long a, long b) {
+        final long a1 = a >>> 32;
+        final long a0 = a & MASK32;
+        final long b1 = b >>> 32;
+        final long b0 = b & MASK32;
+        final long p01 = a0 * b1;
+        final long p10 = a1 * b0;
+        final long mid = ((a0 * b0) >>> 32) + (p01 & MASK32) + (p10 & MASK32);
+        return a1 * b1 + (p01 >>> 32) + (p10 >>> 32) + (mid >>> 32);
+    }
+
+    /**
+     * Returns the unsigned remainder of dividing the unsigned 128-bit value
+     * {@code (hi, lo)} by the unsigned value {@code m}. The high part of the dividend
+     * must be less than the divisor: {@code hi < m} (unsigned).
+     *
+     * <p>Uses Knuth's algorithm D with 32-bit digits as described in
+     * "Hacker's Delight 2.0", section 9.4 ("divlu").
+     *
+     * @param hi High 64-bits of the dividend.
+     * @param lo Low 64-bits of the dividend.
+     * @param m Divisor.
+     * @return the remainder
+     */
+    static long remainder128(long hi, long lo, long m) {
+        // Normalize the divisor so the most significant bit is set
+        final int s = Long.numberOfLeadingZeros(m);
+        final long v = m << s;
+        final long vn1 = v >>> 32;
+        final long vn0 = v & MASK32;
+        // Shift the dividend by the same amount; the bits shifted out of hi are zero.
+        final long un32 = s == 0 ? hi : (hi << s) | (lo >>> (64 - s));
+        final long un10 = lo << s;
+        final long un1 = un10 >>> 32;
+        final long un0 = un10 & MASK32;
+
+        // First 32-bit quotient digit
+        long q1 = divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (q1 > MASK32 || Long.compareUnsigned(q1 * vn0, (rhat << 32) | un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (rhat > MASK32) {
+                break;
+            }
+        }
+        final long un21 = (un32 << 32) + un1 - q1 * v;
+
+        // Second 32-bit quotient digit
+        long q0 = divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (q0 > MASK32 || Long.compareUnsigned(q0 * vn0, (rhat << 32) | un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (rhat > MASK32) {
+                break;
+            }
+        }
+        return ((un21 << 32) + un0 - q0 * v) >>> s;
+    }
+
+    /**
+     * Computes the negated greatest common divisor of two negative odd numbers.
+     *
+     * @param p Negative odd number.
+     * @param q Negative odd number.
+     * @return the negated greatest common divisor
+     */
+    private static int negatedOddGcd(int p, int q) {
+        int a = p;
+        int b = q;
+        // See gcd(int, int)
+        while (a != b) {
+            final int delta = a - b;
+            b = Math.max(a, b);
+            a = delta > 0 ? -delta : delta;
+            a >>= Integer.numberOfTrailingZeros(a);
+        }
+        return a;
+    }
+
+    /**
+     * Computes the negated greatest common divisor of two negative odd numbers.
+     *
+     * @param p Negative odd number.
+     * @param q Negative odd number.
+     * @return the negated greatest common divisor
+     */
+    private static long negatedOddGcd(long p, long q) {
+        long a = p;
+        long b = q;
+        // See gcd(long, long)
+        while (true) {
+            final long delta = a - b;
+            if (delta == 0) {
+                return a;
+            }
+            b = Math.max(a, b);
+            a = delta > 0 ? -delta : delta;
+            a >>= Long.numberOfTrailingZeros(a);
+        }
+    }
+
+    /**
+     * Accumulates the greatest common divisor of a series of numbers.
+     */
+    private static final class GcdAccumulator implements LongSupplier {
+        /** Bitwise OR of the values: the trailing zeros are the common power of 2. */
+        private long bits;
+        /** Negated odd part of the gcd; or zero if all values are zero. */
+        private long g;
+
+        /**
+         * Adds the value.
+         *
+         * @param v Value.
+         */
+        void add(long v) {
+            if (v != 0) {
+                bits |= v;
+                g = accumulate(g, v);
+            }
+        }
+
+        /**
+         * Combines the state of another instance into this instance.
+         *
+         * @param other Other instance.
+         */
+        void combine(GcdAccumulator other) {
+            if (other.g != 0) {
+                bits |= other.bits;
+                g = accumulate(g, other.g);
+            }
+        }
+
+        @Override
+        public long getAsLong() {
+            return gcd(g, bits);
+        }
+
+        /**
+         * Accumulates the odd part of the non-zero value into the negated odd part of the gcd.
+         *
+         * @param g Negated odd part of the gcd; or zero.
+         * @param v Non-zero value.
+         * @return the negated odd part of the gcd
+         */
+        static long accumulate(long g, long v) {
+            long a = v > 0 ? -v : v;
+            a >>= Long.numberOfTrailingZeros(a);
+            return g == 0 ? a : negatedOddGcd(g, a);
+        }
+
+        /**
+         * Computes the gcd from the negated odd part and the bitwise OR of all the values.
+         *
+         * @param g Negated odd part of the gcd; or zero.
+         * @param bits Bitwise OR of the values.
+         * @return the gcd
+         * @throws ArithmeticException if the result is {@code 2^63}.
+         */
+        static long gcd(long g, long bits) {
+            final long negatedGcd = g << Long.numberOfTrailingZeros(bits);
+            if (negatedGcd == Long.MIN_VALUE) {
+                throw new NumbersArithmeticException(GCD_OVERFLOW_64);
+            }
+            return -negatedGcd;
+        }
+    }
+
+    /**
+     * Accumulates the least common multiple of a series of numbers.
+     * Overflow is recorded and reported when the result is computed
+     * to allow a zero value to be added.
+     */
+    private static final class LcmAccumulator implements LongSupplier {
+        /** The least common multiple. */
+        private long lcm = 1;
+        /** Set to true if a value is zero. */
+        private boolean zero;
+        /** Set to true if the least common multiple overflows. */
+        private boolean overflow;
+
+        /**
+         * Adds the value.
+         *
+         * @param v Value.
+         */
+        void add(long v) {
+            if (v == 0) {
+                zero = true;
+            } else if (!(zero || overflow)) {
+                // lcm = (lcm / gcd(lcm, v)) * |v|; lcm > 0 and the gcd cannot overflow.
+                // |v| is an unsigned 64-bit value.
+                final long q = lcm / ArithmeticUtils.gcd(lcm, v);
+                final long b = Math.abs(v);
+                final long lo = q * b;
+                overflow = lo < 0 || IntrinsicMath.unsignedMultiplyHigh(q, b) != 0;
+                lcm = lo;
+            }
+        }
+
+        /**
+         * Combines the state of another instance into this instance.
+         *
+         * @param other Other instance.
+         */
+        void combine(LcmAccumulator other) {
+            zero |= other.zero;
+            overflow |= other.overflow;
+            // Ignored if either instance is zero or has overflowed
+            add(other.lcm);
+        }
+
+        @Override
+        public long getAsLong() {
+            if (zero) {
+                return 0;
+            }
+            if (overflow) {
+                throw new NumbersArithmeticException(LCM_OVERFLOW_64);
+            }
+            return lcm;
+        }
+
+        /**
+         * Convert the least common multiple to an {@code int}.
+         *
+         * @param lcm Least common multiple.
+         * @return the least common multiple
+         * @throws ArithmeticException if the result cannot be represented as
+         * a non-negative {@code int} value.
+         */
+        static int toInt(long lcm) {
+            if (lcm > Integer.MAX_VALUE) {
+                throw new NumbersArithmeticException(LCM_OVERFLOW_32);
+            }
+            return (int) lcm;
+        }
+    }
+
     /**
      * Exception.
      */
@@ -439,6 +439,43 @@ public final class DD
         return new DD(z, zz);
     }
 
+    /**
+     * Returns the double-double number represented by the string.
+     *
+     * <p>The string may be a decimal number, or the format of the parts produced by
+     * {@link #toString()}. Leading and trailing whitespace is ignored.
+     *
+     * <p>A decimal number uses the syntax of {@link Double#parseDouble(String)} without
+     * support for hexadecimal numbers or a type suffix. The value is rounded to 107 bits
+     * of precision: the high part is the {@code double} closest to the value and the low
+     * part is the remainder rounded to a multiple of 2<sup>-54</sup> of the ULP of the
+     * high part (or {@link Double#MIN_VALUE} if larger). The result is normalized.
+     * Significant digits after the first 36 digits are truncated.
+     *
+     * <p>The conversion does not require a {@link BigDecimal} and is correctly rounded
+     * with the exception of values extremely close to the mid-point between two
+     * double-double numbers.
+     *
+     * <p>Examples of valid strings and the equivalent {@code DD} are shown below:
+     *
+     * <pre>
+     * "1.5"                          = DD.of(1.5)
+     * "-0.0"                         = DD.of(-0.0)
+     * "Infinity"                     = DD.of(Double.POSITIVE_INFINITY)
+     * "(1.0,1.0E-20)"                = DD.of(1.0, 1.0E-20)</pre>
+     *
+     * @param s String representation.
+     * @return the double-double
+     * @throws NullPointerException if the string is null.
+     * @throws NumberFormatException if the string does not contain a parsable double-double.
+     * @see #toDecimalString()
+     * @see #toString()
+     * @since 1.4
+     */
+    public static DD parse(String s) {
+        return DDDecimal.parse(s);
+    }
+
     // Arithmetic constructors:
 
     /**
@@ -2321,11 +2358,13 @@ public final class DD
      * <p>The format for a double-double number is {@code "(x,xx)"}, with {@code x} and
      * {@code xx} converted as if using {@link Double#toString(double)}.
      *
-     * <p>Note: A numerical string representation of a finite double-double number can be
-     * generated by conversion to a {@link BigDecimal} before formatting.
+     * <p>Note: A numerical string representation of a double-double number can be
+     * generated using {@link #toDecimalString()}, or by conversion to a {@link BigDecimal}
+     * before formatting.
      *
      * @return A string representation of the double-double number.
      * @see Double#toString(double)
+     * @see #toDecimalString()
      * @see #bigDecimalValue()
      */
     @Override
@@ -2338,6 +2377,40 @@ public final class DD
             .toString();
     }
 
+    /**
+     * Returns a decimal string representation of the double-double number.
+     *
+     * <p>The value of the number is rounded to 107 bits of precision: the low part is
+     * rounded to a multiple of 2<sup>-54</sup> of the ULP of the high part (or
+     * {@link Double#MIN_VALUE} if larger). The string is the shortest decimal that uniquely
+     * identifies the rounded value; this requires at most 34 significant digits. If there
+     * are multiple shortest decimals the one closest to the value is used.
+     *
+     * <p>The result can be converted back to the same value using {@link #parse(String)}.
+     * This is exact for any normalized double-double number with a low part representable
+     * at 107 bits of precision. This includes any {@code double} value and any
+     * double-double where the magnitude of the low part is at least a quarter of the ULP
+     * of the high part.
+     *
+     * <p>The layout of the string uses the same rules as {@link Double#toString(double)}.
+     * A number with a magnitude in [10<sup>-3</sup>, 10<sup>7</sup>) uses a plain decimal
+     * representation, otherwise computerized scientific notation is used.
+     *
+     * <pre>
+     * DD.of(1).toDecimalString()          = "1.0"
+     * DD.of(0.1).toDecimalString()        = "0.100000000000000005551115123125783"
+     * DD.parse("0.1").toDecimalString()   = "0.1"
+     * DD.of(1e10).toDecimalString()       = "1.0E10"</pre>
+     *
+     * @return A decimal string representation of the double-double number.
+     * @see #parse(String)
+     * @see Double#toString(double)
+     * @since 1.4
+     */
+    public String toDecimalString() {
+        return DDDecimal.toString(x, xx);
+    }
+
     /**
      * {@inheritDoc}
      *
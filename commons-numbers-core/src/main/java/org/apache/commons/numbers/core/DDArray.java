@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+/**
+ * An array of double-double floating-point numbers.
+ *
+ * <p>The high and low parts of the numbers are stored in parallel {@code double[]} arrays.
+ * Compared to an array of {@link DD} objects this layout is compact and cache friendly.
+ * Bulk operations update the array in-place and return {@code this} to allow method chaining;
+ * no objects are created for intermediate results.
+ * <pre>{@code
+ * // Compute a * x + y
+ * DDArray r = DDArray.of(x).multiply(a).add(DDArray.of(y));
+ * DD sum = r.sum();
+ * }</pre>
+ *
+ * <p>All element operations compute the same result as the corresponding operation in
+ * {@link DD}. Refer to {@link DD} for details of the representation of a double-double number,
+ * the accuracy of the operations and the handling of special cases, overflow and non-finite values.
+ *
+ * <p>Instances of this class are mutable and not safe for use by multiple threads.
+ *
+ * @see DD
+ * @see MutableDD
+ * @since 1.4
+ */
+public final class DDArray {
+    /** The high parts of the double-double numbers. */
+    private final double[] x;
+    /** The low parts of the double-double numbers. */
+    private final double[] xx;
+
+    /**
+     * Create an instance.
+     *
+     * @param x High parts.
+     * @param xx Low parts.
+     */
+    private DDArray(double[] x, double[] xx) {
+        this.x = x;
+        this.xx = xx;
+    }
+
+    /**
+     * Creates an array of double-double numbers with the value zero.
+     *
+     * @param size Size of the array.
+     * @return the array
+     * @throws NegativeArraySizeException if {@code size < 0}
+     */
+    public static DDArray create(int size) {
+        return new DDArray(new double[size], new double[size]);
+    }
+
+    /**
+     * Creates an array of double-double numbers {@code (x, 0)} from the values.
+     *
+     * @param values Values.
+     * @return the array
+     */
+    public static DDArray of(double[] values) {
+        return new DDArray(values.clone(), new double[values.length]);
+    }
+
+    /**
+     * Creates an array of double-double numbers from the values.
+     *
+     * @param values Values.
+     * @return the array
+     */
+    public static DDArray of(DD[] values) {
+        final DDArray a = create(values.length);
+        for (int i = 0; i < values.length; i++) {
+            a.x[i] = values[i].hi();
+            a.xx[i] = values[i].lo();
+        }
+        return a;
+    }
+
+    /**
+     * Creates a copy of this array.
+     *
+     * @return the copy
+     */
+    public DDArray copy() {
+        return new DDArray(x.clone(), xx.clone());
+    }
+
+    /**
+     * Gets the number of elements in the array.
+     *
+     * @return the size
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * Gets the high part of the double-double number at the specified index.
+     *
+     * @param index Index.
+     * @return the high part
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public double hi(int index) {
+        return x[index];
+    }
+
+    /**
+     * Gets the low part of the double-double number at the specified index.
+     *
+     * @param index Index.
+     * @return the low part
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public double lo(int index) {
+        return xx[index];
+    }
+
+    /**
+     * Gets the double-double number at the specified index.
+     *
+     * @param index Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public DD get(int index) {
+        return DD.of(x[index], xx[index]);
+    }
+
+    /**
+     * Sets the double-double number at the specified index to {@code (y, 0)}.
+     *
+     * @param index Index.
+     * @param y Value.
+     * @return {@code this}
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public DDArray set(int index, double y) {
+        x[index] = y;
+        xx[index] = 0;
+        return this;
+    }
+
+    /**
+     * Sets the double-double number at the specified index.
+     *
+     * @param index Index.
+     * @param y Value.
+     * @return {@code this}
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public DDArray set(int index, DD y) {
+        x[index] = y.hi();
+        xx[index] = y.lo();
+        return this;
+    }
+
+    /**
+     * Sets each element to the sum of the element and the corresponding element of
+     * {@code y}: {@code this[i] + y[i]}.
+     *
+     * @param y Values to be added to this array.
+     * @return {@code this}
+     * @throws IllegalArgumentException if the arrays do not have the same size.
+     * @see DD#add(DD)
+     */
+    public DDArray add(DDArray y) {
+        checkSize(y);
+        final double[] yx = y.x;
+        final double[] yxx = y.xx;
+        final MutableDD s = MutableDD.create();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = MutableDD.add(x[i], xx[i], yx[i], yxx[i], s);
+            xx[i] = s.lo();
+        }
+        return this;
+    }
+
+    /**
+     * Sets each element to the product of the element and the corresponding element of
+     * {@code y}: {@code this[i] * y[i]}.
+     *
+     * @param y Factors.
+     * @return {@code this}
+     * @throws IllegalArgumentException if the arrays do not have the same size.
+     * @see DD#multiply(DD)
+     */
+    public DDArray multiply(DDArray y) {
+        checkSize(y);
+        final double[] yx = y.x;
+        final double[] yxx = y.xx;
+        final MutableDD s = MutableDD.create();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = MutableDD.multiply(x[i], xx[i], yx[i], yxx[i], s);
+            xx[i] = s.lo();
+        }
+        return this;
+    }
+
+    /**
+     * Scales each element by the factor {@code a}: {@code this[i] * a}.
+     *
+     * @param a Factor.
+     * @return {@code this}
+     * @see DD#multiply(double)
+     */
+    public DDArray multiply(double a) {
+        final MutableDD s = MutableDD.create();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = MutableDD.multiply(x[i], xx[i], a, s);
+            xx[i] = s.lo();
+        }
+        return this;
+    }
+
+    /**
+     * Scales each element by the factor {@code a}: {@code this[i] * a}.
+     *
+     * @param a Factor.
+     * @return {@code this}
+     * @see DD#multiply(DD)
+     */
+    public DDArray multiply(DD a) {
+        final double y = a.hi();
+        final double yy = a.lo();
+        final MutableDD s = MutableDD.create();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = MutableDD.multiply(x[i], xx[i], y, yy, s);
+            xx[i] = s.lo();
+        }
+        return this;
+    }
+
+    /**
+     * Computes the sum of the elements.
+     *
+     * <p>The elements are summed in order using double-double addition. This computes
+     * the same result as the sum of the elements using {@link DD#add(DD)}.
+     *
+     * @return the sum
+     */
+    public DD sum() {
+        final MutableDD s = MutableDD.create();
+        double z = 0;
+        double zz = 0;
+        for (int i = 0; i < x.length; i++) {
+            z = MutableDD.add(z, zz, x[i], xx[i], s);
+            zz = s.lo();
+        }
+        return DD.of(z, zz);
+    }
+
+    /**
+     * Computes the dot product of this array and {@code y}: {@code sum(this[i] * y[i])}.
+     *
+     * <p>The products are summed in order using double-double addition. This computes
+     * the same result as the sum of the products using {@link DD#multiply(DD)} and
+     * {@link DD#add(DD)}.
+     *
+     * @param y Factors.
+     * @return the dot product
+     * @throws IllegalArgumentException if the arrays do not have the same size.
+     */
+    public DD dot(DDArray y) {
+        checkSize(y);
+        final double[] yx = y.x;
+        final double[] yxx = y.xx;
+        final MutableDD s = MutableDD.create();
+        double z = 0;
+        double zz = 0;
+        for (int i = 0; i < x.length; i++) {
+            final double p = MutableDD.multiply(x[i], xx[i], yx[i], yxx[i], s);
+            z = MutableDD.add(z, zz, p, s.lo(), s);
+            zz = s.lo();
+        }
+        return DD.of(z, zz);
+    }
+
+    /**
+     * Creates an array of the elements converted to a {@code double}.
+     *
+     * @return the values
+     * @see DD#doubleValue()
+     */
+    public double[] toDoubleArray() {
+        final double[] v = new double[x.length];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = x[i] + xx[i];
+        }
+        return v;
+    }
+
+    /**
+     * Creates an array of the double-double elements.
+     *
+     * @return the values
+     */
+    public DD[] toArray() {
+        final DD[] v = new DD[x.length];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = DD.of(x[i], xx[i]);
+        }
+        return v;
+    }
+
+    /**
+     * Check the argument has the same size as this array.
+     *
+     * @param y Array.
+     * @throws IllegalArgumentException if the arrays do not have the same size.
+     */
+    private void checkSize(DDArray y) {
+        if (x.length != y.x.length) {
+            throw new IllegalArgumentException("Dimension mismatch: " +
+                                               x.length + " != " + y.x.length);
+        }
+    }
+}
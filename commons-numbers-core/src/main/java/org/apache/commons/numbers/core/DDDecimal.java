@@ -0,0 +1,815 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+/**
+ * Conversion of a double-double number to and from a decimal string.
+ *
+ * <p>The decimal representation is the double-double value rounded to 107 bits of precision:
+ * the high part {@code x} is the {@code double} closest to the value and the low part
+ * {@code xx} is the remainder rounded to a multiple of 2<sup>-54</sup> of the ULP of
+ * {@code x} (or {@link Double#MIN_VALUE} if larger). This is exact for any {@code double}
+ * and for a normalized double-double where {@code |xx|} is at least a quarter of
+ * the ULP of {@code x}. All double-double numbers with this precision can be uniquely
+ * identified using at most 34 significant digits.
+ *
+ * <p>Scaling by powers of 10 uses triple-double arithmetic with approximately 150 bits
+ * of precision. This is sufficient to correctly round the decimal value with the exception
+ * of values extremely close to the mid-point between two double-double numbers.
+ *
+ * @since 1.4
+ */
+final class DDDecimal {
+    /** Maximum number of significant digits used when parsing. Further digits are truncated. */
+    private static final int MAX_DIGITS = 36;
+    /** Number of digits held in each long when parsing or formatting. */
+    private static final int LONG_DIGITS = 18;
+    /** Number of digits generated when formatting. This is split into 18 digits
+     * and 17 digits each held in a long. */
+    private static final int FORMAT_DIGITS = 35;
+    /** Maximum base 10 exponent of a finite double. */
+    private static final int MAX_EXPONENT = 308;
+    /** Minimum base 10 exponent of a non-zero double. */
+    private static final int MIN_EXPONENT = -324;
+    /** Limit on the parsed exponent. This avoids int overflow and is larger than
+     * any exponent that can create a finite non-zero result from a String. */
+    private static final int EXPONENT_LIMIT = 100_000_000;
+    /** Lower limit of the decimal exponent for a plain representation. */
+    private static final int PLAIN_MIN_EXPONENT = -3;
+    /** Upper limit (exclusive) of the decimal exponent for a plain representation. */
+    private static final int PLAIN_MAX_EXPONENT = 7;
+    /** 10^17. Used to generate 17 decimal digits. */
+    private static final double TEN_POW_17 = 1e17;
+    /** 10^17. */
+    private static final long LONG_TEN_POW_17 = 100_000_000_000_000_000L;
+    /** Scale of the unit of the low part relative to the ULP of the high part: 2^-54. */
+    private static final double LOW_UNIT = 0x1.0p-54;
+    /** Scale of the unit of the low part relative to a high part in [1, 2): 2^-106. */
+    private static final double LOW_UNIT_ONE = 0x1.0p-106;
+    /** Scale used to normalise a sub-normal number: 2^54. */
+    private static final double TWO_POW_54 = 0x1.0p54;
+    /** Exponent of the scale used to normalise a sub-normal number. */
+    private static final int TWO_POW_54_EXP = 54;
+    /** Relative error of the rounding interval when formatting. This allows for the
+     * error in the digits generated using the scaled value. */
+    private static final double SHRINK = 1 - 0x1.0p-20;
+    /** Tolerance to identify equal distances of the formatted digits from the value,
+     * in units of the final digit. A tie is resolved using the smaller magnitude. */
+    private static final double TIE_DELTA = 0x1.0p-20;
+    /** Mask to extract the 52-bit mantissa from a double. */
+    private static final long MANTISSA_MASK = 0xf_ffff_ffff_ffffL;
+    /** Mask to extract the lower 32-bits from a long. */
+    private static final long MASK32 = 0xffff_ffffL;
+    /** Mask to extract the lower 40-bits from a long. */
+    private static final long MASK40 = 0xff_ffff_ffffL;
+    /** Mask to extract the lower 16-bits from a long. */
+    private static final long MASK16 = 0xffffL;
+    /** Start of a double-double in the {@link DD#toString()} format. */
+    private static final char FORMAT_START = '(';
+    /** End of a double-double in the {@link DD#toString()} format. */
+    private static final char FORMAT_END = ')';
+    /** Separator of the parts in the {@link DD#toString()} format. */
+    private static final char FORMAT_SEP = ',';
+    /** Powers of 10 as a long. */
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+        10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+        10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L,
+    };
+    /** Interval between the coarse powers of 5. The fine powers 5^n with n below
+     * this value can be represented exactly by a long. */
+    private static final int POW5_STEP = 27;
+    /** Index of 5^0 in the coarse powers of 5. */
+    private static final int POW5_ZERO = 14;
+    /** High part of the powers of 5: {@code 5^n} for {@code n} in {@code [0, 27)}. */
+    private static final double[] POW5_HI = new double[POW5_STEP];
+    /** Low part of the powers of 5: {@code 5^n} for {@code n} in {@code [0, 27)}. */
+    private static final double[] POW5_LO = new double[POW5_STEP];
+    /** Coarse powers of 5: {@code 5^(27n)} for {@code n} in {@code [-14, 12]}.
+     * Each power is a triple-double rounded to nearest. */
+    private static final double[][] POW5_COARSE = {
+        {0x1.3d9ff863ab0d5p-878, 0x1.e04d6049b12bfp-932, -0x1.8e24f85f8ce7fp-987},
+        {0x1.0093495818b02p-815, 0x1.ae205b896d778p-870, -0x1.4ec3a9ecf0b05p-925},
+        {0x1.9e851294bb9c7p-753, -0x1.0ad6fcd9a9becp-807, 0x1.9d6e51d7cadf6p-862},
+        {0x1.4ed8b04671da5p-690, -0x1.de50d50d47f51p-745, 0x1.bc93995f23d35p-799},
+        {0x1.0e7c9eebc444ap-627, -0x1.97a588bb59180p-682, 0x1.28a4730d7b77fp-736},
+        {0x1.b4feb7eb212cdp-565, 0x1.22bce691d541bp-622, -0x1.76615cfd6b33dp-676},
+        {0x1.6100725988694p-502, -0x1.09a139435934bp-556, 0x1.59f67fc274b91p-610},
+        {0x1.1d270cc51055fp-439, -0x1.60d5c0a5c246cp-493, 0x1.774e20d811871p-549},
+        {0x1.ccb0536608d61p-377, 0x1.7d065a52d1889p-431, 0x1.4a225476ac364p-485},
+        {0x1.7424348ca1c9cp-314, -0x1.0a3686594ecf5p-368, 0x1.9c8264340307cp-422},
+        {0x1.2c9d0b1923745p-251, -0x1.aac595f8072afp-306, 0x1.f0dfd2105e4bdp-363},
+        {0x1.e5aacf2156838p-189, 0x1.517d71394ca12p-243, -0x1.18f325a894a06p-302},
+        {0x1.8851a0b548ea4p-126, -0x1.b355681eb3c3ep-181, 0x1.ae21a5a10b725p-235},
+        {0x1.3ce9a36f23c10p-63, -0x1.b788a15d9b30bp-118, 0x1.4d1f72927c701p-172},
+        {1, 0, 0},
+        {0x1.9d971e4fe8402p+62, -0x1.8c00000000000p+6, 0},
+        {0x1.4e1878814c9cep+125, -0x1.d73337b7a4d05p+71, 0x1.f649000000000p+16},
+        {0x1.0de1593369d1bp+188, 0x1.7eb4d0145d9efp+134, 0x1.ae347bf3f22acp+80},
+        {0x1.b403dcc834e12p+250, -0x1.0b0bf8c85befap+196, 0x1.9292bae9755a0p+142},
+        {0x1.6035ce8b6203dp+313, 0x1.e45ec05dcff73p+258, -0x1.80703fb386002p+202},
+        {0x1.1c835bd3f7d78p+376, 0x1.3e8a2c4789df4p+322, 0x1.1cc1c8ef5a881p+267},
+        {0x1.cba7de5054486p+438, -0x1.7e70e99737579p+383, -0x1.2d0287a519857p+328},
+        {0x1.734e940c6f9c6p+501, -0x1.1e926ac1d428fp+446, 0x1.cda4a23bec00ep+392},
+        {0x1.2bf07a143f6d4p+564, -0x1.935aa12877f55p+510, 0x1.3e63835692bdfp+455},
+        {0x1.e494034e79e5cp+626, -0x1.9821ce62634c6p+572, -0x1.b989e131dd997p+516},
+        {0x1.87706b0213d0ap+689, -0x1.f1eaf3a0fe277p+633, -0x1.fe6ffb3f22bfep+577},
+        {0x1.3c33b72569c63p+752, 0x1.d4b603d161354p+698, 0x1.a368a4a26cfa9p+642}
+    };
+
+    static {
+        long p = 1;
+        for (int i = 0; i < POW5_STEP; i++) {
+            final double hi = p;
+            POW5_HI[i] = hi;
+            POW5_LO[i] = p - (long) hi;
+            p *= 5;
+        }
+    }
+
+    /**
+     * A mutable triple-double number {@code x0 + x1 + x2}.
+     *
+     * <p>The parts are ordered by magnitude and approximately non-overlapping.
+     */
+    private static final class TD {
+        /** The high part. */
+        private double x0;
+        /** The middle part. */
+        private double x1;
+        /** The low part. */
+        private double x2;
+
+        /**
+         * Sets the number to the sum of the parts. The parts are not required to be
+         * ordered by magnitude; they are renormalized using error-free transformations
+         * so the sum is exact.
+         *
+         * @param a High part.
+         * @param b Middle part.
+         * @param c Low part.
+         * @return {@code this}
+         */
+        TD set(double a, double b, double c) {
+            final double s = b + c;
+            final double e2 = DD.twoSumLow(b, c, s);
+            final double r0 = a + s;
+            final double e1 = DD.twoSumLow(a, s, r0);
+            final double r1 = e1 + e2;
+            final double r2 = DD.twoSumLow(e1, e2, r1);
+            x0 = r0 + r1;
+            final double t = DD.fastTwoSumLow(r0, r1, x0);
+            x1 = t + r2;
+            x2 = DD.twoSumLow(t, r2, x1);
+            return this;
+        }
+
+        /**
+         * Multiply by the triple-double {@code y}.
+         *
+         * <p>Terms of the product below approximately 2<sup>-156</sup> of the
+         * result are ignored.
+         *
+         * @param y0 High part of y.
+         * @param y1 Middle part of y.
+         * @param y2 Low part of y.
+         * @return {@code this}
+         */
+        TD multiply(double y0, double y1, double y2) {
+            final double z0 = x0 * y0;
+            final double e00 = DD.twoProductLow(x0, y0, z0);
+            final double h01 = x0 * y1;
+            final double e01 = DD.twoProductLow(x0, y1, h01);
+            final double h10 = x1 * y0;
+            final double e10 = DD.twoProductLow(x1, y0, h10);
+            // Second order terms
+            final double s = h01 + h10;
+            final double t1 = DD.twoSumLow(h01, h10, s);
+            final double z1 = s + e00;
+            final double t2 = DD.twoSumLow(s, e00, z1);
+            // Third order terms
+            final double z2 = t1 + t2 + e01 + e10 + x1 * y1 + x0 * y2 + x2 * y0;
+            return set(z0, z1, z2);
+        }
+
+        /**
+         * Multiply by {@code 5^n}.
+         *
+         * @param n Power (in [-378, 350]).
+         * @return {@code this}
+         */
+        TD multiplyPow5(int n) {
+            final int q = Math.floorDiv(n, POW5_STEP);
+            final int r = n - q * POW5_STEP;
+            if (r != 0) {
+                multiply(POW5_HI[r], POW5_LO[r], 0);
+            }
+            if (q != 0) {
+                final double[] p = POW5_COARSE[q + POW5_ZERO];
+                multiply(p[0], p[1], p[2]);
+            }
+            return this;
+        }
+
+        /**
+         * Multiply by {@code 2^n}.
+         *
+         * @param n Power.
+         * @return {@code this}
+         */
+        TD scalb(int n) {
+            x0 = Math.scalb(x0, n);
+            x1 = Math.scalb(x1, n);
+            x2 = Math.scalb(x2, n);
+            return this;
+        }
+
+        /**
+         * Compare the number to the value {@code y}.
+         *
+         * @param y Value.
+         * @return a negative integer, zero, or a positive integer as the number is less than,
+         * equal to, or greater than {@code y}
+         */
+        int compareTo(double y) {
+            final double d = x0 - y;
+            if (d != 0) {
+                return d > 0 ? 1 : -1;
+            }
+            if (x1 != 0) {
+                return x1 > 0 ? 1 : -1;
+            }
+            return Double.compare(x2 + 0.0, 0.0);
+        }
+
+        /**
+         * Remove the integer part of the number and return it. The number must be positive
+         * and less than 2<sup>62</sup>. The number is updated to the fractional
+         * part in {@code [0, 1)}.
+         *
+         * @return the integer part
+         */
+        long floor() {
+            // The subtraction of the integer part is exact if |x1| >= 1
+            final double f0 = Math.floor(x0);
+            final double f1 = Math.abs(x1) < 1 ? 0 : Math.floor(x1);
+            long n = (long) f0 + (long) f1;
+            set(x0 - f0, x1 - f1, x2);
+            // Fraction is in (-1, 1): the normalized parts round to the floor of
+            // the high (or middle) part so the sum of the fractions cannot reach 1
+            if (compareTo(0) < 0) {
+                n--;
+                // Add 1 exactly; the final sum with the low part is within 2^-150
+                final double c = x2;
+                final double s = 1 + x0;
+                set(s, DD.twoSumLow(1, x0, s), x1);
+                set(x0, x1, x2 + c);
+            }
+            return n;
+        }
+
+        /**
+         * Round the number {@code v * 2^scale} to a double-double number with 107 bits
+         * of precision. The number must be positive and the result must be representable
+         * without overflow of the high part in the scaled domain.
+         *
+         * @param scale Power of 2 scale.
+         * @param negative Set to true to negate the result.
+         * @return the double-double
+         */
+        DD round(int scale, boolean negative) {
+            // Smallest representable unit in the scaled domain. This is zero
+            // if the result cannot be sub-normal.
+            final double minUnit = Math.scalb(Double.MIN_VALUE, -scale);
+            // Round to a multiple of the ULP of the high part.
+            // If the high part is a power of 2 and the value is below it then use
+            // the ULP of the lower binade. The number is normalized so the low part
+            // is zero if the middle part is zero.
+            double u = Math.ulp(x0);
+            if (x1 < 0 && isPowerOf2(x0)) {
+                u *= 0.5;
+            }
+            u = Math.max(u, minUnit);
+            final double n = Math.rint(x0 / u);
+            final double r = x0 - n * u;
+            final double s = r + x1;
+            final double t = DD.twoSumLow(r, x1, s) + x2;
+            final double k = roundingIncrement(n, s, t, u);
+            final double hi = (n + k) * u;
+            // Round the remainder to a multiple of the unit of the low part
+            final double rem = s - k * u;
+            final double g = Math.max(Math.ulp(hi) * LOW_UNIT, minUnit);
+            final double m = Math.rint(rem / g);
+            final double r2 = rem - m * g;
+            final double s2 = r2 + t;
+            final double t2 = DD.twoSumLow(r2, t, s2);
+            final double lo = (m + roundingIncrement(m, s2, t2, g)) * g;
+
+            double z = Math.scalb(hi, scale);
+            double zz = Math.scalb(lo, scale);
+            if (z == Double.POSITIVE_INFINITY) {
+                zz = 0;
+            } else {
+                // Normalize a low part equal to half the ULP of an odd high part
+                final double sum = z + zz;
+                if (sum != z && sum != Double.POSITIVE_INFINITY) {
+                    zz = DD.fastTwoSumLow(z, zz, sum);
+                    z = sum;
+                }
+            }
+            return negative ? DD.of(-z, -zz) : DD.of(z, zz);
+        }
+    }
+
+    /** No instances. */
+    private DDDecimal() {}
+
+    /**
+     * Parses the string as a double-double number.
+     *
+     * @param s String representation.
+     * @return the double-double
+     * @throws NumberFormatException if the string is not a parsable double-double.
+     * @see DD#parse(String)
+     */
+    static DD parse(String s) {
+        // Ignore leading and trailing whitespace as per Double.parseDouble
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw invalid(s);
+        }
+        if (s.charAt(start) == FORMAT_START) {
+            return parseParts(s, start, end);
+        }
+
+        int i = start;
+        char c = s.charAt(i);
+        final boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == end) {
+                throw invalid(s);
+            }
+            c = s.charAt(i);
+        }
+        if (c == 'N' || c == 'I') {
+            // NaN or Infinity
+            return DD.of(Double.parseDouble(s));
+        }
+
+        // Significand M = m1 * 10^n2 + m2 with up to 18 digits in each part.
+        // Digits beyond the maximum are ignored.
+        long m1 = 0;
+        long m2 = 0;
+        int n2 = 0;
+        int digits = 0;
+        // Base 10 exponent adjustment for the position of the decimal point
+        int scale = 0;
+        boolean valid = false;
+        for (; i < end; i++) {
+            final int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            valid = true;
+            if (digits < LONG_DIGITS) {
+                if (digits == 0 && d == 0) {
+                    // Leading zero
+                    continue;
+                }
+                m1 = m1 * 10 + d;
+            } else if (digits < MAX_DIGITS) {
+                m2 = m2 * 10 + d;
+                n2++;
+            } else {
+                scale++;
+            }
+            digits++;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            for (i++; i < end; i++) {
+                final int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                valid = true;
+                if (digits < LONG_DIGITS) {
+                    scale--;
+                    if (digits == 0 && d == 0) {
+                        // Leading zero
+                        continue;
+                    }
+                    m1 = m1 * 10 + d;
+                } else if (digits < MAX_DIGITS) {
+                    scale--;
+                    m2 = m2 * 10 + d;
+                    n2++;
+                }
+                digits++;
+            }
+        }
+        if (!valid) {
+            throw invalid(s);
+        }
+
+        int exponent = 0;
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            final int from = i;
+            for (; i < end; i++) {
+                final int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                if (exponent < EXPONENT_LIMIT) {
+                    exponent = exponent * 10 + d;
+                }
+            }
+            if (i == from) {
+                throw invalid(s);
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != end) {
+            throw invalid(s);
+        }
+
+        if (digits == 0) {
+            return negative ? DD.of(-0.0) : DD.ZERO;
+        }
+        final long e = (long) scale + exponent;
+        // Base 10 exponent of the leading digit
+        final long top = e + Math.min(digits, MAX_DIGITS) - 1;
+        if (top > MAX_EXPONENT) {
+            return negative ? DD.of(Double.NEGATIVE_INFINITY) : DD.of(Double.POSITIVE_INFINITY);
+        }
+        if (top < MIN_EXPONENT) {
+            return negative ? DD.of(-0.0) : DD.ZERO;
+        }
+
+        return valueOf(m1, m2, n2, (int) e, negative);
+    }
+
+    /**
+     * Create the double-double number {@code (m1 * 10^n2 + m2) * 10^e} rounded to
+     * 107 bits of precision. The significand must be below 10<sup>36</sup> and the
+     * magnitude of the result must be within the range of a {@code double}
+     * allowing for rounding to infinity or zero.
+     *
+     * @param m1 High digits of the significand.
+     * @param m2 Low digits of the significand.
+     * @param n2 Number of low digits (in [0, 18]).
+     * @param e Base 10 exponent.
+     * @param negative Set to true to negate the result.
+     * @return the double-double
+     */
+    private static DD valueOf(long m1, long m2, int n2, int e, boolean negative) {
+        // Exact 128-bit significand (< 10^36 < 2^120) using unsigned arithmetic
+        final long p = POW10[n2];
+        final long low = m1 * p + m2;
+        final long high = multiplyHigh(m1, p) + (Long.compareUnsigned(low, m2) < 0 ? 1 : 0);
+        // Split into 40-bit parts that are exact as a double
+        final TD v = new TD().set((high >>> 16) * 0x1.0p80,
+                                  (((high & MASK16) << 24) | (low >>> 40)) * 0x1.0p40,
+                                  low & MASK40);
+        // M * 10^e = M * 5^e * 2^e
+        return v.multiplyPow5(e).round(e, negative);
+    }
+
+    /**
+     * Parses the string in the {@link DD#toString()} format {@code "(x,xx)"}.
+     *
+     * @param s String representation.
+     * @param start Start of the string (inclusive).
+     * @param end End of the string (exclusive).
+     * @return the double-double
+     * @throws NumberFormatException if the string is not a parsable double-double.
+     */
+    private static DD parseParts(String s, int start, int end) {
+        final int sep = s.indexOf(FORMAT_SEP, start);
+        if (sep < 0 || s.charAt(end - 1) != FORMAT_END) {
+            throw invalid(s);
+        }
+        try {
+            return DD.of(Double.parseDouble(s.substring(start + 1, sep)),
+                         Double.parseDouble(s.substring(sep + 1, end - 1)));
+        } catch (final NumberFormatException ex) {
+            throw invalid(s);
+        }
+    }
+
+    /**
+     * Create an exception for an invalid string.
+     *
+     * @param s String representation.
+     * @return the exception
+     */
+    private static NumberFormatException invalid(String s) {
+        return new NumberFormatException("Invalid double-double: \"" + s + '"');
+    }
+
+    /**
+     * Returns the high 64-bits of the 128-bit product of the two arguments.
+     *
+     * @param a First value (must be positive).
+     * @param b Second value (must be positive).
+     * @return the high part of the product
+     */
+    private static long multiplyHigh(long a, long b) {
+        final long a1 = a >>> 32;
+        final long a0 = a & MASK32;
+        final long b1 = b >>> 32;
+        final long b0 = b & MASK32;
+        final long t = a1 * b0 + ((a0 * b0) >>> 32);
+        final long w = a0 * b1 + (t & MASK32);
+        return a1 * b1 + (t >>> 32) + (w >>> 32);
+    }
+
+    /**
+     * Returns the shortest decimal string that uniquely identifies the
+     * double-double number {@code (x, xx)} rounded to 107 bits of precision.
+     *
+     * @param x High part.
+     * @param xx Low part.
+     * @return the string
+     * @see DD#toDecimalString()
+     */
+    static String toString(double x, double xx) {
+        double hi = x + xx;
+        if (!Double.isFinite(hi)) {
+            return Double.toString(hi);
+        }
+        if (hi == 0) {
+            // Preserve the sign of zero
+            return Double.toString(x == 0 ? x : 0.0);
+        }
+        double lo = DD.twoSumLow(x, xx, hi);
+        final boolean negative = hi < 0;
+        if (negative) {
+            hi = -hi;
+            lo = -lo;
+        }
+
+        // Scale the number so the high part is in [1, 2).
+        // Rounding units are computed in the scaled domain.
+        int be = Math.getExponent(hi);
+        if (be < Double.MIN_EXPONENT) {
+            // Sub-normal
+            be = Math.getExponent(hi * TWO_POW_54) - TWO_POW_54_EXP;
+        }
+        final double hs = Math.scalb(hi, -be);
+        double ls = Math.scalb(lo, -be);
+        final double minUnit = Math.scalb(Double.MIN_VALUE, -be);
+        // Round the low part to 107-bit precision. The high part is unchanged: a low part
+        // close to half the ULP of the high part is already a multiple of the rounding unit.
+        ls = Math.rint(ls / Math.max(LOW_UNIT_ONE, minUnit)) * Math.max(LOW_UNIT_ONE, minUnit);
+        final double u = Math.max(Math.ulp(hs), minUnit);
+        final double g = Math.max(u * LOW_UNIT, minUnit);
+        final double uDown = isPowerOf2(hs) ? Math.max(0.5 * u, minUnit) : u;
+        // The half-width of the rounding interval around the value. When the value is
+        // on the rounding boundary of the high part the interval on that side uses
+        // the unit of the low part for the adjacent high part. This can only occur
+        // below a power of 2 high part: after normalization a tie above requires an
+        // even high part for which the adjacent high part is not a power of 2.
+        final double below = ls == -0.5 * uDown ? 0.5 * Math.max(uDown * LOW_UNIT, minUnit) : 0.5 * g;
+        final double above = 0.5 * g;
+
+        // Scale to [1, 10): v = (hs + ls) * 2^be * 10^-e
+        final TD v = new TD();
+        int e = (int) Math.floor(Math.log10(hi));
+        boolean increased = false;
+        for (;;) {
+            v.set(hs, ls, 0).multiplyPow5(-e).scalb(be - e);
+            if (v.compareTo(10) >= 0) {
+                e++;
+                increased = true;
+            } else if (v.compareTo(1) < 0) {
+                if (increased) {
+                    // The value is within the scaling error of 10^e. This is within
+                    // the rounding interval and is the shortest representation.
+                    return format(negative, new char[] {'1'}, 1, e);
+                }
+                e--;
+            } else {
+                break;
+            }
+        }
+        // Convert the interval to units of the final digit: 10^(e-34).
+        // Distances within a small relative error of the interval bound are uncertain.
+        final double units = v.x0 / hs * 1e34;
+        final double dl = below * units;
+        final double du = above * units;
+
+        // Generate 35 digits: a = d[0, 18), b = d[18, 35); f is the remaining fraction
+        final long a = v.multiply(TEN_POW_17, 0, 0).floor();
+        final long b = v.multiply(TEN_POW_17, 0, 0).floor();
+        final double f = v.x0 + v.x1;
+
+        // Find the shortest number of digits where the truncated or rounded up
+        // value is within the interval.
+        // Distances are in units of the final digit and are only required to be
+        // exact when close to the interval width.
+        // The interval width is more than 10 units of the final digit so a candidate
+        // is always found with at most 34 digits.
+        // A candidate never ends in zero: the same distance was tested with one
+        // digit less. Thus there are no trailing zeros and a round up of the low
+        // digits cannot carry into the high digits.
+        long hiDigits = a;
+        long loDigits;
+        int n;
+        for (int i = 1;; i++) {
+            final long p;
+            final double down;
+            final double up;
+            if (i <= LONG_DIGITS) {
+                p = POW10[LONG_DIGITS - i];
+                final long r = a % p;
+                down = r == 0 ? b + f : r * TEN_POW_17 + b;
+                up = r == p - 1 ? (LONG_TEN_POW_17 - b) - f : (p - r) * TEN_POW_17 - b;
+            } else {
+                p = POW10[FORMAT_DIGITS - i];
+                final long r = b % p;
+                down = r + f;
+                up = (p - r) - f;
+            }
+            boolean roundDown = down < dl * SHRINK;
+            boolean roundUp = up < du * SHRINK;
+            // Verify an uncertain candidate is parsed to the same number
+            if (!roundDown && down < dl / SHRINK) {
+                roundDown = i <= LONG_DIGITS ?
+                    isRoundTrip(a / p, 0, 0, e - i + 1, hs, ls, be) :
+                    isRoundTrip(a, b / p, i - LONG_DIGITS, e - i + 1, hs, ls, be);
+            }
+            if (!roundUp && up < du / SHRINK) {
+                roundUp = i <= LONG_DIGITS ?
+                    isRoundTrip(a / p + 1, 0, 0, e - i + 1, hs, ls, be) :
+                    isRoundTrip(a, b / p + 1, i - LONG_DIGITS, e - i + 1, hs, ls, be);
+            }
+            if (roundDown || roundUp) {
+                // Choose the closest
+                final int inc = roundUp && !(roundDown && down - up <= TIE_DELTA) ? 1 : 0;
+                if (i <= LONG_DIGITS) {
+                    hiDigits = a / p + inc;
+                    loDigits = 0;
+                } else {
+                    loDigits = b / p + inc;
+                }
+                n = i;
+                break;
+            }
+        }
+
+        // Propagate carry
+        final int loCount = Math.max(0, n - LONG_DIGITS);
+        final int hiCount = n - loCount;
+        if (hiDigits == POW10[hiCount]) {
+            hiDigits /= 10;
+            e++;
+        }
+        final char[] chars = new char[FORMAT_DIGITS];
+        for (int i = n - 1; i >= hiCount; i--) {
+            chars[i] = (char) ('0' + loDigits % 10);
+            loDigits /= 10;
+        }
+        for (int i = hiCount - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + hiDigits % 10);
+            hiDigits /= 10;
+        }
+        return format(negative, chars, n, e);
+    }
+
+    /**
+     * Test if the decimal number {@code (m1 * 10^n2 + m2) * 10^e} is parsed to the
+     * positive double-double number {@code (hi, lo) * 2^scale}.
+     *
+     * @param m1 High digits of the significand.
+     * @param m2 Low digits of the significand.
+     * @param n2 Number of low digits.
+     * @param e Base 10 exponent.
+     * @param hi High part.
+     * @param lo Low part.
+     * @param scale Power of 2 scale.
+     * @return true if the number is parsed to the double-double number
+     */
+    private static boolean isRoundTrip(long m1, long m2, int n2, int e, double hi, double lo, int scale) {
+        final DD z = valueOf(m1, m2, n2, e, false);
+        return z.hi() == Math.scalb(hi, scale) && z.lo() == Math.scalb(lo, scale);
+    }
+
+    /**
+     * Format the decimal number {@code d[0].d[1]...d[n-1] * 10^e} using the same
+     * layout as {@link Double#toString(double)}.
+     *
+     * @param negative Set to true if the number is negative.
+     * @param digits Digits.
+     * @param n Number of digits.
+     * @param e Base 10 exponent of the first digit.
+     * @return the string
+     */
+    private static String format(boolean negative, char[] digits, int n, int e) {
+        final StringBuilder sb = new StringBuilder(n + 8);
+        if (negative) {
+            sb.append('-');
+        }
+        if (e >= PLAIN_MIN_EXPONENT && e < PLAIN_MAX_EXPONENT) {
+            if (e >= 0) {
+                final int integerDigits = e + 1;
+                if (n <= integerDigits) {
+                    sb.append(digits, 0, n);
+                    for (int i = n; i < integerDigits; i++) {
+                        sb.append('0');
+                    }
+                    sb.append(".0");
+                } else {
+                    sb.append(digits, 0, integerDigits).append('.')
+                      .append(digits, integerDigits, n - integerDigits);
+                }
+            } else {
+                sb.append("0.");
+                for (int i = -1; i > e; i--) {
+                    sb.append('0');
+                }
+                sb.append(digits, 0, n);
+            }
+        } else {
+            sb.append(digits[0]).append('.');
+            if (n == 1) {
+                sb.append('0');
+            } else {
+                sb.append(digits, 1, n - 1);
+            }
+            sb.append('E').append(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compute the increment to round the number {@code n * unit + s + t} to the nearest
+     * multiple of {@code unit}, ties to even. The remainder {@code s + t} is expected
+     * to be within 1 unit of zero where {@code t} is a round-off term of {@code s}.
+     *
+     * @param n Multiple of the unit (an integer).
+     * @param s Remainder.
+     * @param t Round-off of the remainder.
+     * @param unit Unit.
+     * @return the increment (-1, 0 or 1)
+     */
+    static double roundingIncrement(double n, double s, double t, double unit) {
+        final double h = 0.5 * unit;
+        if (s > h || s == h && (t > 0 || t == 0 && isOdd(n))) {
+            return 1;
+        }
+        if (s < -h || s == -h && (t < 0 || t == 0 && isOdd(n))) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if the integer value is odd.
+     *
+     * @param n Value (an integer).
+     * @return true if odd
+     */
+    private static boolean isOdd(double n) {
+        return (((long) n) & 1) != 0;
+    }
+
+    /**
+     * Checks if the positive normal value is a power of 2.
+     *
+     * @param x Value.
+     * @return true if a power of 2
+     */
+    private static boolean isPowerOf2(double x) {
+        return (Double.doubleToRawLongBits(x) & MANTISSA_MASK) == 0;
+    }
+}
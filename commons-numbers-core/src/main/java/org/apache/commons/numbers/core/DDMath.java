@@ -20,7 +20,8 @@ package org.apache.commons.numbers.core;
  * Computes extended precision floating-point operations.
  *
  * <p>This class supplements the arithmetic operations in the {@link DD} class providing
- * greater accuracy at the cost of performance.
+ * greater accuracy at the cost of performance, and elementary functions computed to
+ * double-double precision.
  *
  * @since 1.2
  */
@@ -30,20 +31,75 @@ public final class DDMath {
     /** The limit for safe multiplication of {@code x*y}, assuming values above 1.
      * Used to maintain positive values during the power computation. */
     private static final double SAFE_MULTIPLY = 0x1.0p500;
-
-    /**
-     * Mutable double-double number used for working.
-     * This structure is used for the output argument during triple-double computations.
-     */
-    private static final class MDD {
-        /** The high part of the double-double number. */
-        private double x;
-        /** The low part of the double-double number. */
-        private double xx;
-
-        /** Package-private constructor. */
-        MDD() {}
-    }
+    /** Threshold above which exp(x) overflows: log(Double.MAX_VALUE). */
+    private static final double EXP_OVERFLOW = 709.782712893384;
+    /** Threshold below which exp(x) underflows to zero: log(Double.MIN_VALUE / 2). */
+    private static final double EXP_UNDERFLOW = -745.1332191019412;
+    /** 1 / log(2). */
+    private static final double INV_LN2 = 0x1.71547652b82fep0;
+    /** High part of log(2). */
+    private static final double LN2_HI = 0x1.62e42fefa39efp-1;
+    /** Low part of log(2). */
+    private static final double LN2_LO = 0x1.abc9e3b39803fp-56;
+    /** First part of log(2) with 42-bits. The product with an 11-bit integer is exact. */
+    private static final double LN2_1 = 0x1.62e42fefa3800p-1;
+    /** Second part of log(2) with 42-bits. The product with an 11-bit integer is exact. */
+    private static final double LN2_2 = 0x1.ef35793c76000p-45;
+    /** Third part of log(2). */
+    private static final double LN2_3 = 0x1.cc01f97b57a08p-87;
+    /** sqrt(0.5) == 1 / sqrt(2). */
+    private static final double ROOT_HALF = 0.7071067811865476;
+    /** Power of 2 scale factor for the argument to the expm1 Taylor series. */
+    private static final int EXPM1_SCALE = 1;
+    /** Highest order term of the expm1 Taylor series for {@code |x| <= log(2) / 2}. */
+    private static final int EXPM1_TERMS = 23;
+    /** 2 / pi. */
+    private static final double TWO_OVER_PI = 0x1.45f306dc9c883p-1;
+    /** pi / 4. */
+    private static final double PI_OVER_4 = 0x1.921fb54442d18p-1;
+    /** First part of pi / 2. */
+    private static final double PI_OVER_2_1 = 0x1.921fb54442d18p0;
+    /** Second part of pi / 2. */
+    private static final double PI_OVER_2_2 = 0x1.1a62633145c07p-54;
+    /** Third part of pi / 2. */
+    private static final double PI_OVER_2_3 = -0x1.f1976b7ed8fbcp-110;
+    /** Fourth part of pi / 2. */
+    private static final double PI_OVER_2_4 = 0x1.4cf98e804177dp-164;
+    /** pi / 2. */
+    private static final DD PI_OVER_2 = DD.of(PI_OVER_2_1, PI_OVER_2_2);
+    /** Number of terms of the sin and cos Taylor series for {@code |x| <= pi / 4}. */
+    private static final int SIN_COS_TERMS = 14;
+    /** Inverse factorials {@code 1 / n!}. */
+    private static final DD[] INV_FACTORIAL = {
+        DD.ONE,
+        DD.ONE,
+        DD.of(0.5),
+        DD.of(0x1.5555555555555p-3, 0x1.5555555555555p-57),
+        DD.of(0x1.5555555555555p-5, 0x1.5555555555555p-59),
+        DD.of(0x1.1111111111111p-7, 0x1.1111111111111p-63),
+        DD.of(0x1.6c16c16c16c17p-10, -0x1.f49f49f49f49fp-65),
+        DD.of(0x1.a01a01a01a01ap-13, 0x1.a01a01a01a01ap-73),
+        DD.of(0x1.a01a01a01a01ap-16, 0x1.a01a01a01a01ap-76),
+        DD.of(0x1.71de3a556c734p-19, -0x1.c154f8ddc6c00p-73),
+        DD.of(0x1.27e4fb7789f5cp-22, 0x1.cbbc05b4fa99ap-76),
+        DD.of(0x1.ae64567f544e4p-26, -0x1.c062e06d1f209p-80),
+        DD.of(0x1.1eed8eff8d898p-29, -0x1.2aec959e14c06p-83),
+        DD.of(0x1.6124613a86d09p-33, 0x1.f28e0cc748ebep-87),
+        DD.of(0x1.93974a8c07c9dp-37, 0x1.05d6f8a2efd1fp-92),
+        DD.of(0x1.ae7f3e733b81fp-41, 0x1.1d8656b0ee8cbp-97),
+        DD.of(0x1.ae7f3e733b81fp-45, 0x1.1d8656b0ee8cbp-101),
+        DD.of(0x1.952c77030ad4ap-49, 0x1.ac981465ddc6cp-103),
+        DD.of(0x1.6827863b97d97p-53, 0x1.eec01221a8b0bp-107),
+        DD.of(0x1.2f49b46814157p-57, 0x1.2650f61dbdcb4p-112),
+        DD.of(0x1.e542ba4020225p-62, 0x1.ea72b4afe3c2fp-120),
+        DD.of(0x1.71b8ef6dcf572p-66, -0x1.d043ae40c4647p-120),
+        DD.of(0x1.0ce396db7f853p-70, -0x1.aebcdbd20331cp-124),
+        DD.of(0x1.761b41316381ap-75, -0x1.3423c7d91404fp-130),
+        DD.of(0x1.f2cf01972f578p-80, -0x1.9ada5fcc1ab14p-135),
+        DD.of(0x1.3f3ccdd165fa9p-84, -0x1.58ddadf344487p-139),
+        DD.of(0x1.88e85fc6a4e5ap-89, -0x1.71c37ebd16540p-143),
+        DD.of(0x1.d1ab1c2dccea3p-94, 0x1.054d0c78aea14p-149),
+    };
 
     /** No instances. */
     private DDMath() {}
@@ -113,6 +169,407 @@ public final class DDMath {
         return computePowScaled(b, f.hi(), f.lo(), n, exp);
     }
 
+    /**
+     * Compute the exponential function {@code e^x}, where {@code e} is Euler's number.
+     *
+     * <p>The argument is reduced to {@code r = x - m * log(2)} with {@code |r| <= log(2) / 2}
+     * and the result computed using a Taylor series as {@code exp(r) * 2^m}.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN, then the result is NaN.
+     *  <li>If {@code x} is above {@code log(Double.MAX_VALUE)}, then the result is positive infinity.
+     *  <li>If {@code x} is below {@code log(Double.MIN_VALUE / 2)}, then the result is positive zero.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     * Precision may be lost if the result is sub-normal.
+     *
+     * @param x Number.
+     * @return {@code e^x}
+     * @see Math#exp(double)
+     * @since 1.4
+     */
+    public static DD exp(DD x) {
+        final double a = x.hi();
+        if (a > EXP_OVERFLOW) {
+            return DD.of(Double.POSITIVE_INFINITY);
+        }
+        // Negated condition to capture NaN
+        if (!(a >= EXP_UNDERFLOW)) {
+            return DD.of(Math.exp(a));
+        }
+        // m in [-1075, 1024] requires 11-bits
+        final double m = Math.rint(a * INV_LN2);
+        final DD s = expm1Reduced(reduceLn2(x, m));
+        return s.add(1).scalb((int) m);
+    }
+
+    /**
+     * Compute {@code e^x - 1}, where {@code e} is Euler's number.
+     *
+     * <p>For values of {@code x} near 0 the result is more accurate than
+     * {@code exp(x).subtract(1)}.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN, then the result is NaN.
+     *  <li>If {@code x} is zero, then the result is a zero with the same sign.
+     *  <li>If {@code x} is above {@code log(Double.MAX_VALUE)}, then the result is positive infinity.
+     *  <li>If {@code x} is negative infinity, then the result is -1.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     *
+     * @param x Number.
+     * @return {@code e^x - 1}
+     * @see Math#expm1(double)
+     * @since 1.4
+     */
+    public static DD expm1(DD x) {
+        final double a = x.hi();
+        if (Math.abs(a) < LN2_HI) {
+            if (a == 0) {
+                return x;
+            }
+            return expm1Reduced(x);
+        }
+        // |e^x - 1| > 0.5; the subtraction has limited cancellation
+        final DD y = exp(x);
+        return y.isFinite() ? y.subtract(1) : y;
+    }
+
+    /**
+     * Compute the natural logarithm of {@code x}.
+     *
+     * <p>The argument is reduced to {@code x = f * 2^e} with {@code f} in
+     * {@code [sqrt(0.5), sqrt(2))} and the result computed as
+     * {@code log1p(f - 1) + e * log(2)}.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN or less than zero, then the result is NaN.
+     *  <li>If {@code x} is positive infinity, then the result is positive infinity.
+     *  <li>If {@code x} is zero, then the result is negative infinity.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     *
+     * @param x Number.
+     * @return {@code log(x)}
+     * @see Math#log(double)
+     * @since 1.4
+     */
+    public static DD log(DD x) {
+        final double a = x.hi();
+        // Negated condition to capture NaN
+        if (!(a > 0 && a < Double.POSITIVE_INFINITY)) {
+            return DD.of(Math.log(a));
+        }
+        final int[] e = {0};
+        DD f = x.frexp(e);
+        // Rescale f from [0.5, 1) to [sqrt(0.5), sqrt(2))
+        int b = e[0];
+        if (f.hi() < ROOT_HALF) {
+            f = f.scalb(1);
+            b--;
+        }
+        // f - 1 is exact for f in [0.5, 2]
+        final DD y = log1pReduced(DD.ofSum(f.hi() - 1, f.lo()));
+        if (b == 0) {
+            return y;
+        }
+        // |e * log(2)| > 2 * |log(f)|; the addition has limited cancellation
+        return DD.of(LN2_HI, LN2_LO).multiply(b).add(y);
+    }
+
+    /**
+     * Compute the natural logarithm of {@code 1 + x}.
+     *
+     * <p>For values of {@code x} near 0 the result is more accurate than
+     * {@code log(DD.ONE.add(x))}.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN or less than -1, then the result is NaN.
+     *  <li>If {@code x} is positive infinity, then the result is positive infinity.
+     *  <li>If {@code x} is -1, then the result is negative infinity.
+     *  <li>If {@code x} is zero, then the result is a zero with the same sign.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     *
+     * @param x Number.
+     * @return {@code log(1 + x)}
+     * @see Math#log1p(double)
+     * @since 1.4
+     */
+    public static DD log1p(DD x) {
+        final double a = x.hi();
+        // Range where x is in [sqrt(0.5) - 1, sqrt(0.5)): 1 + x is in [sqrt(0.5), 1 + sqrt(0.5))
+        if (a >= ROOT_HALF - 1 && a < ROOT_HALF) {
+            if (a == 0) {
+                return x;
+            }
+            return log1pReduced(x);
+        }
+        if (!Double.isFinite(a)) {
+            return DD.of(Math.log1p(a));
+        }
+        // Note: The sum is exact for x in [-1, -0.5]
+        return log(x.add(1));
+    }
+
+    /**
+     * Compute the trigonometric sine of {@code x}.
+     *
+     * <p>The argument is reduced to {@code r = x - j * pi / 2} with {@code |r| <= pi / 4}
+     * and the result computed using a Taylor series for the sine or cosine of {@code r}.
+     * The reduction uses pi to approximately 215-bits of precision. The result is accurate
+     * for {@code |x|} up to approximately 2<sup>50</sup> unless {@code x} is very close to
+     * a multiple of pi.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN or infinite, then the result is NaN.
+     *  <li>If {@code x} is zero, then the result is a zero with the same sign.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     *
+     * @param x Number.
+     * @return {@code sin(x)}
+     * @see Math#sin(double)
+     * @since 1.4
+     */
+    public static DD sin(DD x) {
+        if (x.hi() == 0) {
+            return x;
+        }
+        return sinCos(x, 0);
+    }
+
+    /**
+     * Compute the trigonometric cosine of {@code x}.
+     *
+     * <p>The argument is reduced to {@code r = x - j * pi / 2} with {@code |r| <= pi / 4}
+     * and the result computed using a Taylor series for the sine or cosine of {@code r}.
+     * The reduction uses pi to approximately 215-bits of precision. The result is accurate
+     * for {@code |x|} up to approximately 2<sup>50</sup> unless {@code x} is very close to
+     * an odd multiple of pi / 2.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN or infinite, then the result is NaN.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     *
+     * @param x Number.
+     * @return {@code cos(x)}
+     * @see Math#cos(double)
+     * @since 1.4
+     */
+    public static DD cos(DD x) {
+        // cos(x) = sin(x + pi/2)
+        return sinCos(x, 1);
+    }
+
+    /**
+     * Compute the arc tangent of {@code x}; the returned angle is in the range
+     * {@code [-pi/2, pi/2]}.
+     *
+     * <p>The result is computed using a Newton iteration from the {@code double}
+     * arc tangent of the high part of {@code x}. If {@code |x| > 1} the identity
+     * {@code atan(x) = sign(x) * pi / 2 - atan(1 / x)} is used.
+     *
+     * <p>Special cases:
+     * <ul>
+     *  <li>If {@code x} is NaN, then the result is NaN.
+     *  <li>If {@code x} is zero, then the result is a zero with the same sign.
+     *  <li>If {@code x} is infinite, then the result is {@code pi / 2} with the same sign.
+     * </ul>
+     *
+     * <p>The computed result is within 4 eps of the exact result where eps is 2<sup>-106</sup>.
+     *
+     * @param x Number.
+     * @return {@code atan(x)}
+     * @see Math#atan(double)
+     * @since 1.4
+     */
+    public static DD atan(DD x) {
+        final double a = x.hi();
+        if (Math.abs(a) > 1) {
+            final DD y = Double.isInfinite(a) ?
+                PI_OVER_2 :
+                PI_OVER_2.subtract(atanReduced(x.abs().reciprocal()));
+            return a < 0 ? y.negate() : y;
+        }
+        if (a == 0) {
+            return x;
+        }
+        return atanReduced(x);
+    }
+
+    /**
+     * Compute {@code r = x - m * log(2)}.
+     *
+     * <p>This is a helper method used in {@link #exp(DD)}. The integer {@code m}
+     * must be the closest integer to {@code x / log(2)} in the range [-2047, 2047].
+     *
+     * @param x Number.
+     * @param m Multiple of log(2).
+     * @return the reduced argument
+     */
+    private static DD reduceLn2(DD x, double m) {
+        // log(2) is split so that m * LN2_1 and m * LN2_2 are exact.
+        // x.hi - m * LN2_1 is exact as the two values are within a factor of 2.
+        final DD r = DD.ofSum(x.hi() - m * LN2_1, x.lo());
+        return DD.accurateAdd(r.hi(), r.lo(), -m * LN2_2).subtract(m * LN2_3);
+    }
+
+    /**
+     * Compute {@code e^x - 1} for {@code |x| < log(2)}.
+     *
+     * <p>The argument is scaled by {@code 2^-k}, the Taylor series computed and the
+     * result recovered using {@code k} repeats of the double-angle formula
+     * {@code expm1(2y) = expm1(y) * (expm1(y) + 2)}.
+     *
+     * @param x Number.
+     * @return {@code e^x - 1}
+     */
+    private static DD expm1Reduced(DD x) {
+        final DD t = x.scalb(-EXPM1_SCALE);
+        // Horner evaluation of the Taylor series: t + t^2 * (1/2! + t/3! + t^2/4! + ...).
+        // The final addition of t limits the effect of round-off in the series.
+        final MutableDD p = MutableDD.of(INV_FACTORIAL[EXPM1_TERMS]);
+        for (int n = EXPM1_TERMS - 1; n > 1; n--) {
+            p.multiply(t).add(INV_FACTORIAL[n]);
+        }
+        p.multiply(t.square()).add(t);
+        final MutableDD q = MutableDD.create();
+        for (int i = 0; i < EXPM1_SCALE; i++) {
+            // expm1(2y) = 2 * expm1(y) + expm1(y)^2
+            q.set(p).square();
+            p.multiply(2).add(q);
+        }
+        return p.toDD();
+    }
+
+    /**
+     * Compute {@code log(1 + x)} for {@code x} in {@code [sqrt(0.5) - 1, sqrt(0.5))}.
+     *
+     * <p>The result {@code y} is computed using a Newton iteration on
+     * {@code f(y) = expm1(y) - x} from the {@code double} value {@code log1p(x)}.
+     * The iteration doubles the precision of the initial estimate.
+     *
+     * @param x Number.
+     * @return {@code log(1 + x)}
+     */
+    private static DD log1pReduced(DD x) {
+        final double y = Math.log1p(x.hi());
+        final DD e = expm1Reduced(DD.of(y));
+        // y - (e^y - 1 - x) / e^y
+        return e.subtract(x).divide(e.add(1)).negate().add(y);
+    }
+
+    /**
+     * Compute {@code sin(x + q * pi / 2)}.
+     *
+     * @param x Number.
+     * @param q Quadrant offset.
+     * @return the result
+     */
+    private static DD sinCos(DD x, int q) {
+        final double a = x.hi();
+        if (!Double.isFinite(a)) {
+            return DD.of(Double.NaN);
+        }
+        DD r = x;
+        int k = q;
+        if (Math.abs(a) > PI_OVER_4) {
+            // r = x - j * pi / 2
+            final double j = Math.rint(a * TWO_OVER_PI);
+            final DD p = DD.ofProduct(j, PI_OVER_2_1);
+            r = DD.accurateAdd(a, x.lo(), -p.hi(), -p.lo());
+            // The parts of j * pi / 2 are subtracted in order of magnitude. Each subtraction
+            // has an error relative to the result to support cancellation when x is close
+            // to j * pi / 2.
+            final DD pp = DD.ofProduct(j, PI_OVER_2_2);
+            r = DD.accurateAdd(r.hi(), r.lo(), -pp.hi(), -pp.lo());
+            final DD ppp = DD.ofProduct(j, PI_OVER_2_3);
+            r = DD.accurateAdd(r.hi(), r.lo(), -ppp.hi(), -ppp.lo() - j * PI_OVER_2_4);
+            // Exact remainder; j may be too large for an integer
+            k += (int) (j % 4);
+        }
+        switch (k & 0x3) {
+        case 0:
+            return sinReduced(r);
+        case 1:
+            return cosReduced(r);
+        case 2:
+            return sinReduced(r).negate();
+        default:
+            return cosReduced(r).negate();
+        }
+    }
+
+    /**
+     * Compute {@code sin(x)} for {@code |x| <= pi / 4}.
+     *
+     * @param x Number.
+     * @return {@code sin(x)}
+     */
+    private static DD sinReduced(DD x) {
+        // Horner evaluation of the Taylor series in z = -x^2:
+        // x + x * z * (1/3! + z/5! + z^2/7! + ...)
+        final DD z = x.square().negate();
+        final MutableDD p = MutableDD.of(INV_FACTORIAL[2 * SIN_COS_TERMS - 1]);
+        for (int n = 2 * SIN_COS_TERMS - 3; n > 1; n -= 2) {
+            p.multiply(z).add(INV_FACTORIAL[n]);
+        }
+        return p.multiply(z).multiply(x).add(x).toDD();
+    }
+
+    /**
+     * Compute {@code cos(x)} for {@code |x| <= pi / 4}.
+     *
+     * @param x Number.
+     * @return {@code cos(x)}
+     */
+    private static DD cosReduced(DD x) {
+        // Horner evaluation of the Taylor series in z = -x^2:
+        // 1 + z * (1/2! + z/4! + z^2/6! + ...)
+        final DD z = x.square().negate();
+        final MutableDD p = MutableDD.of(INV_FACTORIAL[2 * SIN_COS_TERMS - 2]);
+        for (int n = 2 * SIN_COS_TERMS - 4; n > 0; n -= 2) {
+            p.multiply(z).add(INV_FACTORIAL[n]);
+        }
+        return p.multiply(z).add(1).toDD();
+    }
+
+    /**
+     * Compute {@code atan(x)} for {@code |x| <= 1}.
+     *
+     * <p>The result {@code y} is computed using a Newton iteration on
+     * {@code f(y) = tan(y) - x} from the {@code double} value {@code atan(x)}:
+     * <pre>
+     * y' = y - (tan(y) - x) * cos^2(y)
+     *    = y + cos(y) * (x * cos(y) - sin(y))
+     * </pre>
+     *
+     * <p>The iteration doubles the precision of the initial estimate.
+     *
+     * @param x Number.
+     * @return {@code atan(x)}
+     */
+    private static DD atanReduced(DD x) {
+        final DD y = DD.of(Math.atan(x.hi()));
+        // |y| <= pi / 4 and no argument reduction is required
+        final DD c = cosReduced(y);
+        return x.multiply(c).subtract(sinReduced(y)).multiply(c).add(y);
+    }
+
     /**
      * Compute the number {@code x} (non-zero finite) raised to the power {@code n}.
      *
@@ -181,7 +638,7 @@ public final class DDMath {
         final int shift = Integer.numberOfLeadingZeros(an) + 1;
         int bits = an << shift;
         DD t;
-        final MDD m = new MDD();
+        final MutableDD m = MutableDD.create();
 
         // Multiplication is done inline with some triple precision helper routines.
         // Process remaining bits below highest set bit.
@@ -218,8 +675,8 @@ public final class DDMath {
             // Sum (2 * p12, 2 * q02, q11, r3b) -> s3          Order(eps^3)
             double s3 = 2 * (p12 + q02) + q11 + r3b;
             f0 = norm3(s0, s1, s2, s3, m);
-            f1 = m.x;
-            f2 = m.xx;
+            f1 = m.hi();
+            f2 = m.lo();
 
             // Rescale
             if (Math.abs(f0) > SAFE_MULTIPLY) {
@@ -272,8 +729,8 @@ public final class DDMath {
                 // Sum (p21, q11, q20, r3a, r3b) -> s3             Order(eps^3)
                 s3 = p21 + q11 + q20 + r3a + r3b;
                 f0 = norm3(s0, s1, s2, s3, m);
-                f1 = m.x;
-                f2 = m.xx;
+                f1 = m.hi();
+                f2 = m.lo();
                 // Avoid rescale as x2 is in [1, 2)
             }
         }
@@ -310,7 +767,7 @@ public final class DDMath {
      * @param s12 Output parts (s1, s2)
      * @return s0
      */
-    private static double norm3(double s0, double s1, double s2, double s3, MDD s12) {
+    private static double norm3(double s0, double s1, double s2, double s3, MutableDD s12) {
         double q;
         // Compress (Schewchuk Fig. 15) (s0, s1, s2, s3) -> (g0, g1, g2, g3)
         final double g0 = s0 + s1;
@@ -321,9 +778,9 @@ public final class DDMath {
         final double g3 = DD.fastTwoSumLow(q, s3, g2);
         // (g0, g1, g2, g3) -> (h0, h1, h2, h3), returned as (h0, h1, h2 + h3)
         q = g1 + g2;
-        s12.xx = DD.fastTwoSumLow(g1, g2, q) + g3;
+        final double h2 = DD.fastTwoSumLow(g1, g2, q) + g3;
         final double h0 = g0 + q;
-        s12.x = DD.fastTwoSumLow(g0, q, h0);
+        s12.set(DD.fastTwoSumLow(g0, q, h0), h2);
         return h0;
     }
 
@@ -348,29 +805,29 @@ public final class DDMath {
         // quotient q0 = x / y
         final double q0 = 1 / y;
         // remainder r0 = x - q0 * y
-        final MDD q = new MDD();
+        final MutableDD q = MutableDD.create();
         t = multiply3(y, yy, yyy, q0, q);
-        r = add3(-t, -q.x, -q.xx, 1, q);
-        rr = q.x;
-        rrr = q.xx;
+        r = add3(-t, -q.hi(), -q.lo(), 1, q);
+        rr = q.hi();
+        rrr = q.lo();
         // next quotient q1 = r0 / y
         final double q1 = r / y;
         // remainder r1 = r0 - q1 * y
         t = multiply3(y, yy, yyy, q1, q);
-        r = add3(-t, -q.x, -q.xx, r, rr, rrr, q);
-        rr = q.x;
-        rrr = q.xx;
+        r = add3(-t, -q.hi(), -q.lo(), r, rr, rrr, q);
+        rr = q.hi();
+        rrr = q.lo();
         // next quotient q2 = r1 / y
         final double q2 = r / y;
         // remainder r2 = r1 - q2 * y
         t = multiply3(y, yy, yyy, q2, q);
-        r = add3(-t, -q.x, -q.xx, r, rr, rrr, q);
+        r = add3(-t, -q.hi(), -q.lo(), r, rr, rrr, q);
         // next quotient q3 = r2 / y
         final double q3 = r / y;
         // Collect (q0, q1, q2, q3) to (s0, s1, s2)
         t = norm3(q0, q1, q2, q3, q);
         // Reduce to (s0, s1)
-        return DD.fastTwoSum(t, q.x + q.xx);
+        return DD.fastTwoSum(t, q.hi() + q.lo());
     }
 
     /**
@@ -383,7 +840,7 @@ public final class DDMath {
      * @param s12 Output parts (s1, s2)
      * @return s0
      */
-    private static double multiply3(double a0, double a1, double a2, double b, MDD s12) {
+    private static double multiply3(double a0, double a1, double a2, double b, MutableDD s12) {
         // Triple-Double x Double
         // a x b ~ a0b                 O(1) term
         //       + a1b                 O(eps) terms
@@ -431,7 +888,7 @@ public final class DDMath {
      * @param s12 Output parts (s1, s2)
      * @return s0
      */
-    private static double add3(double a0, double a1, double a2, double b, MDD s12) {
+    private static double add3(double a0, double a1, double a2, double b, MutableDD s12) {
         // Hide et al (2008) Fig.5: Quad-Double + Double without final a3.
         double u;
         final double v;
@@ -458,7 +915,7 @@ public final class DDMath {
      * @param s12 Output parts (s1, s2)
      * @return s0
      */
-    private static double add3(double a0, double a1, double a2, double b0, double b1, double b2, MDD s12) {
+    private static double add3(double a0, double a1, double a2, double b0, double b1, double b2, MutableDD s12) {
         // Hide et al (2008) Fig.6: Quad-Double + Quad-Double without final a3, b3.
         double u;
         double v;
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+/**
+ * Provides intrinsic operations for multiplication of {@code double} and {@code long} values.
+ *
+ * <p>This class provides portable implementations for Java 8. The multi-release jar
+ * contains a Java 9 version of this class that uses {@code Math.fma} and
+ * {@code Math.multiplyHigh}.
+ */
+final class IntrinsicMath {
+    /** No instances. */
+    private IntrinsicMath() {}
+
+    /**
+     * Compute the low part of the double length number {@code (z,zz)} for the exact
+     * product of {@code x} and {@code y}. The standard precision product {@code x*y}
+     * must be provided. This is functionally equivalent to {@code Math.fma(x, y, -xy)}.
+     *
+     * <p>Special cases:
+     *
+     * <ul>
+     *  <li>If {@code x * y} is sub-normal or zero then the result is 0.0.</li>
+     *  <li>If {@code x * y} is infinite or NaN then the result is NaN.</li>
+     * </ul>
+     *
+     * @param x First factor.
+     * @param y Second factor.
+     * @param xy Product of the factors (x * y).
+     * @return the low part of the product double length number
+     * @see ExtendedPrecision#productLow(double, double, double)
+     */
+    static double productLow(double x, double y, double xy) {
+        return ExtendedPrecision.productLow(x, y, xy);
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128-bit product of the arguments.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return the high part of the product
+     * @see ArithmeticUtils#unsignedMultiplyHigh(long, long)
+     */
+    static long unsignedMultiplyHigh(long a, long b) {
+        return ArithmeticUtils.unsignedMultiplyHigh(a, b);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+/**
+ * Modular arithmetic for a fixed odd modulus using Montgomery multiplication.
+ *
+ * <p>A number {@code a} is represented in Montgomery form as {@code a * R mod m} with
+ * {@code R = 2^64}. Multiplication of numbers in Montgomery form uses a reduction
+ * that requires only multiplication and avoids division by the modulus.
+ * The conversion to and from Montgomery form has a cost equivalent to a
+ * multiplication; the form is efficient for a sequence of operations, for example
+ * to compute a power.
+ *
+ * <p>Operations with arguments in standard form convert the arguments and the result:
+ * <pre>{@code
+ * Montgomery mod = Montgomery.of(m);
+ * long ab = mod.mulMod(a, b);
+ * long ae = mod.powMod(a, e);
+ * }</pre>
+ *
+ * <p>Operations in Montgomery form require arguments in {@code [0, m)}; other values
+ * create an incorrect result:
+ * <pre>{@code
+ * long x = mod.toMontgomery(a);
+ * long y = mod.toMontgomery(b);
+ * // a * b + a
+ * long r = mod.fromMontgomery(mod.add(mod.multiply(x, y), x));
+ * }</pre>
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ *
+ * @see ArithmeticUtils#mulMod(long, long, long)
+ * @see ArithmeticUtils#powMod(long, long, long)
+ * @since 1.4
+ */
+public final class Montgomery {
+    /** The modulus. */
+    private final long m;
+    /** The inverse of the modulus: {@code m^-1 mod R}. */
+    private final long mInv;
+    /** The value 1 in Montgomery form: {@code R mod m}. */
+    private final long one;
+    /** The value R in Montgomery form: {@code R^2 mod m}. */
+    private final long r2;
+
+    /**
+     * Create an instance.
+     *
+     * @param m Modulus.
+     */
+    private Montgomery(long m) {
+        this.m = m;
+        // Newton iteration for the inverse mod 2^64.
+        // m * m = 1 mod 8 for odd m; each iteration doubles the correct bits: 3, 6, 12, 24, 48, 96.
+        long inv = m;
+        for (int i = 0; i < 5; i++) {
+            inv *= 2 - m * inv;
+        }
+        mInv = inv;
+        // R mod m = (R - m) mod m
+        one = ArithmeticUtils.remainderUnsigned(-m, m);
+        // R^2 mod m = (R mod m) * R mod m
+        r2 = ArithmeticUtils.remainder128(one, 0, m);
+    }
+
+    /**
+     * Create an instance for the modulus {@code m}.
+     *
+     * @param m Modulus.
+     * @return the modular arithmetic
+     * @throws ArithmeticException if {@code m <= 0}.
+     * @throws IllegalArgumentException if {@code m} is even.
+     */
+    public static Montgomery of(long m) {
+        ArithmeticUtils.checkModulus(m);
+        if ((m & 0x1) == 0) {
+            throw new IllegalArgumentException("modulus not odd: " + m);
+        }
+        return new Montgomery(m);
+    }
+
+    /**
+     * Gets the modulus.
+     *
+     * @return the modulus
+     */
+    public long getModulus() {
+        return m;
+    }
+
+    /**
+     * Converts the value to Montgomery form: {@code a * R mod m}.
+     *
+     * @param a Value.
+     * @return the value in Montgomery form
+     */
+    public long toMontgomery(long a) {
+        // (a * R^2) * R^-1 = a * R
+        return multiply(Math.floorMod(a, m), r2);
+    }
+
+    /**
+     * Converts the value from Montgomery form: {@code x * R^-1 mod m}.
+     *
+     * @param x Value in Montgomery form.
+     * @return the value
+     */
+    public long fromMontgomery(long x) {
+        return reduce(0, x);
+    }
+
+    /**
+     * Returns the sum of the arguments modulo {@code m}. This is the same
+     * operation in standard or Montgomery form.
+     *
+     * @param x Value in {@code [0, m)}.
+     * @param y Value in {@code [0, m)}.
+     * @return {@code (x + y) mod m}
+     */
+    public long add(long x, long y) {
+        // Avoid overflow: x + y - m
+        final long r = x - (m - y);
+        return r < 0 ? r + m : r;
+    }
+
+    /**
+     * Returns the difference of the arguments modulo {@code m}. This is the same
+     * operation in standard or Montgomery form.
+     *
+     * @param x Value in {@code [0, m)}.
+     * @param y Value in {@code [0, m)}.
+     * @return {@code (x - y) mod m}
+     */
+    public long subtract(long x, long y) {
+        final long r = x - y;
+        return r < 0 ? r + m : r;
+    }
+
+    /**
+     * Returns the Montgomery product of the arguments: {@code x * y * R^-1 mod m}.
+     * If the arguments are in Montgomery form then the result is the product in
+     * Montgomery form.
+     *
+     * @param x Value in {@code [0, m)}.
+     * @param y Value in {@code [0, m)}.
+     * @return the product
+     */
+    public long multiply(long x, long y) {
+        return reduce(IntrinsicMath.unsignedMultiplyHigh(x, y), x * y);
+    }
+
+    /**
+     * Returns the argument raised to the power {@code e} in Montgomery form.
+     *
+     * @param x Value in Montgomery form in {@code [0, m)}.
+     * @param e Exponent (must be positive or zero).
+     * @return {@code x^e} in Montgomery form
+     * @throws IllegalArgumentException if {@code e < 0}.
+     */
+    public long pow(long x, long e) {
+        if (e < 0) {
+            throw new IllegalArgumentException(
+                ArithmeticUtils.NEGATIVE_EXPONENT_1 + e + ArithmeticUtils.NEGATIVE_EXPONENT_2);
+        }
+        long exp = e;
+        long result = one;
+        long k2p = x;
+        while (exp != 0) {
+            if ((exp & 0x1) != 0) {
+                result = multiply(result, k2p);
+            }
+            k2p = multiply(k2p, k2p);
+            exp >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the product of the arguments modulo {@code m}: {@code (a * b) mod m}.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return {@code (a * b) mod m}
+     * @see ArithmeticUtils#mulMod(long, long, long)
+     */
+    public long mulMod(long a, long b) {
+        // (a * b * R^-1) * R^2 * R^-1 = a * b
+        return multiply(multiply(Math.floorMod(a, m), Math.floorMod(b, m)), r2);
+    }
+
+    /**
+     * Returns {@code a} raised to the power {@code e} modulo {@code m}: {@code a^e mod m}.
+     *
+     * @param a Value.
+     * @param e Exponent (must be positive or zero).
+     * @return {@code a^e mod m}
+     * @throws IllegalArgumentException if {@code e < 0}.
+     * @see ArithmeticUtils#powMod(long, long, long)
+     */
+    public long powMod(long a, long e) {
+        return fromMontgomery(pow(toMontgomery(a), e));
+    }
+
+    /**
+     * Montgomery reduction of the unsigned 128-bit value {@code T = (hi, lo)}:
+     * {@code T * R^-1 mod m}. The value must satisfy {@code T < m * R}.
+     *
+     * @param hi High 64-bits of the value.
+     * @param lo Low 64-bits of the value.
+     * @return the reduced value in {@code [0, m)}
+     */
+    private long reduce(long hi, long lo) {
+        // q = lo * m^-1 mod R; then T - q * m is divisible by R and the
+        // low 64-bits are zero. The result (T - q * m) / R is in (-m, m).
+        final long q = lo * mInv;
+        final long r = hi - IntrinsicMath.unsignedMultiplyHigh(q, m);
+        return r < 0 ? r + m : r;
+    }
+}
@@ -0,0 +1,725 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Computes double-double floating-point operations in-place.
+ *
+ * <p>This class is a mutable equivalent of the {@link DD} class. Arithmetic operations
+ * update the value of the instance and return {@code this} to allow method chaining.
+ * This avoids creating a new object for each intermediate result when performing a long
+ * sequence of double-double operations:
+ * <pre>{@code
+ * // Evaluate the polynomial a[0] + a[1] x + a[2] x^2 + ... using Horner's method
+ * MutableDD s = MutableDD.create();
+ * for (int i = a.length; --i >= 0;) {
+ *     s.multiply(x).add(a[i]);
+ * }
+ * DD result = s.toDD();
+ * }</pre>
+ *
+ * <p>All operations compute the same result as the corresponding operation in {@link DD}.
+ * Refer to {@link DD} for details of the representation of a double-double number, the accuracy
+ * of the operations and the handling of special cases, overflow and non-finite values.
+ *
+ * <p>Instances of this class are mutable and not safe for use by multiple threads.
+ *
+ * @see DD
+ * @since 1.4
+ */
+public final class MutableDD implements DoubleSupplier {
+    // Caveat:
+    //
+    // The code below uses many additions/subtractions that may
+    // appear redundant. However, they should NOT be simplified, as they
+    // do use IEEE754 floating point arithmetic rounding properties.
+    //
+    // Operations are inlined versions of the corresponding DD operation using
+    // the primitive helper methods for the round-off of the sum and product
+    // of two doubles. Intermediate double-double values are held in local variables;
+    // where a helper method returns a double-double the high part is returned
+    // and the low part written to an output argument.
+
+    /** The high part of the double-double number. */
+    private double x;
+    /** The low part of the double-double number. */
+    private double xx;
+
+    /**
+     * Create a double-double number {@code (x, xx)}.
+     *
+     * @param x High part.
+     * @param xx Low part.
+     */
+    private MutableDD(double x, double xx) {
+        this.x = x;
+        this.xx = xx;
+    }
+
+    /**
+     * Creates a double-double number with the value zero.
+     *
+     * @return the double-double
+     */
+    public static MutableDD create() {
+        return new MutableDD(0, 0);
+    }
+
+    /**
+     * Creates the double-double number as the value {@code (x, 0)}.
+     *
+     * @param x Value.
+     * @return the double-double
+     * @see DD#of(double)
+     */
+    public static MutableDD of(double x) {
+        return new MutableDD(x, 0);
+    }
+
+    /**
+     * Creates the double-double number with the same value as the argument.
+     *
+     * @param x Value.
+     * @return the double-double
+     */
+    public static MutableDD of(DD x) {
+        return new MutableDD(x.hi(), x.lo());
+    }
+
+    /**
+     * Creates the double-double number as the value {@code (x, xx)}.
+     *
+     * <p><strong>Warning</strong>
+     *
+     * <p>The arguments are used directly. No checks are made that they represent
+     * a normalized double-double number: {@code x == x + xx}.
+     *
+     * <p>This method is exposed for testing.
+     *
+     * @param x High part.
+     * @param xx Low part.
+     * @return the double-double
+     */
+    static MutableDD of(double x, double xx) {
+        return new MutableDD(x, xx);
+    }
+
+    /**
+     * Sets the value of this number to {@code (y, 0)}.
+     *
+     * @param y Value.
+     * @return {@code this}
+     */
+    public MutableDD set(double y) {
+        return set(y, 0);
+    }
+
+    /**
+     * Sets the value of this number to the value of the argument.
+     *
+     * @param y Value.
+     * @return {@code this}
+     */
+    public MutableDD set(DD y) {
+        return set(y.hi(), y.lo());
+    }
+
+    /**
+     * Sets the value of this number to the value of the argument.
+     *
+     * @param y Value.
+     * @return {@code this}
+     */
+    public MutableDD set(MutableDD y) {
+        return set(y.x, y.xx);
+    }
+
+    /**
+     * Sets the value of this number to {@code (y, yy)}.
+     *
+     * <p>No checks are made that the arguments represent a normalized
+     * double-double number: {@code y == y + yy}.
+     *
+     * @param y High part.
+     * @param yy Low part.
+     * @return {@code this}
+     */
+    MutableDD set(double y, double yy) {
+        x = y;
+        xx = yy;
+        return this;
+    }
+
+    /**
+     * Gets the first part {@code x} of the double-double number {@code (x, xx)}.
+     * In a normalized double-double number this part will have the greatest magnitude.
+     *
+     * @return the first part
+     * @see DD#hi()
+     */
+    public double hi() {
+        return x;
+    }
+
+    /**
+     * Gets the second part {@code xx} of the double-double number {@code (x, xx)}.
+     * In a normalized double-double number this part will have the smallest magnitude.
+     *
+     * @return the second part
+     * @see DD#lo()
+     */
+    public double lo() {
+        return xx;
+    }
+
+    /**
+     * Returns {@code true} if the evaluated sum of the parts is finite.
+     *
+     * @return {@code true} if this instance represents a finite {@code double} value.
+     * @see DD#isFinite()
+     */
+    public boolean isFinite() {
+        return Double.isFinite(x + xx);
+    }
+
+    /**
+     * Get the value as a {@code double}. This is the evaluated sum of the parts.
+     *
+     * <p>Note that even when the return value is finite, this conversion can lose
+     * information about the precision of the double-double value.
+     *
+     * @return the value converted to a {@code double}
+     * @see DD#doubleValue()
+     */
+    @Override
+    public double getAsDouble() {
+        return x + xx;
+    }
+
+    /**
+     * Get the value as a {@link DD}.
+     *
+     * @return the double-double
+     */
+    public DD toDD() {
+        return DD.of(x, xx);
+    }
+
+    /**
+     * Sets this number to the negation of both parts of the double-double number.
+     *
+     * @return {@code this}
+     * @see DD#negate()
+     */
+    public MutableDD negate() {
+        return set(-x, -xx);
+    }
+
+    /**
+     * Sets this number to its absolute value.
+     *
+     * @return {@code this}
+     * @see DD#abs()
+     */
+    public MutableDD abs() {
+        // Assume |hi| > |lo|, i.e. the low part is the round-off
+        if (x < 0) {
+            return negate();
+        }
+        // NaN, positive or zero
+        // use a canonical absolute of zero
+        return x == 0 ? set(0, 0) : this;
+    }
+
+    /**
+     * Sets this number to {@code (this + y)}.
+     *
+     * @param y Value to be added to this number.
+     * @return {@code this}
+     * @see DD#add(double)
+     */
+    public MutableDD add(double y) {
+        // (s0, s1) = x + y
+        final double s0 = x + y;
+        final double s1 = DD.twoSumLow(x, y, s0);
+        // fastTwoSum(s0, s1 + xx)
+        final double u = s1 + xx;
+        final double z = s0 + u;
+        return set(z, DD.fastTwoSumLow(s0, u, z));
+    }
+
+    /**
+     * Sets this number to {@code (this + y)}.
+     *
+     * @param y Value to be added to this number.
+     * @return {@code this}
+     * @see DD#add(DD)
+     */
+    public MutableDD add(DD y) {
+        return add(y.hi(), y.lo());
+    }
+
+    /**
+     * Sets this number to {@code (this + y)}.
+     *
+     * @param y Value to be added to this number.
+     * @return {@code this}
+     * @see DD#add(DD)
+     */
+    public MutableDD add(MutableDD y) {
+        return add(y.x, y.xx);
+    }
+
+    /**
+     * Sets this number to the sum of {@code this} and {@code (y, yy)}.
+     *
+     * @param y High part of y.
+     * @param yy Low part of y.
+     * @return {@code this}
+     */
+    private MutableDD add(double y, double yy) {
+        return set(add(x, xx, y, yy, this), xx);
+    }
+
+    /**
+     * Sets this number to {@code (this + a * b)}. The product {@code a * b}
+     * is computed exactly.
+     *
+     * <p>This computes the same result as {@link #add(DD) add(DD.ofProduct(a, b))}.
+     *
+     * @param a Factor.
+     * @param b Factor.
+     * @return {@code this}
+     * @see DD#ofProduct(double, double)
+     */
+    public MutableDD addProduct(double a, double b) {
+        final double p = a * b;
+        return add(p, DD.twoProductLow(a, b, p));
+    }
+
+    /**
+     * Sets this number to {@code (this - y)}.
+     *
+     * @param y Value to be subtracted from this number.
+     * @return {@code this}
+     * @see DD#subtract(double)
+     */
+    public MutableDD subtract(double y) {
+        return add(-y);
+    }
+
+    /**
+     * Sets this number to {@code (this - y)}.
+     *
+     * @param y Value to be subtracted from this number.
+     * @return {@code this}
+     * @see DD#subtract(DD)
+     */
+    public MutableDD subtract(DD y) {
+        return add(-y.hi(), -y.lo());
+    }
+
+    /**
+     * Sets this number to {@code (this - y)}.
+     *
+     * @param y Value to be subtracted from this number.
+     * @return {@code this}
+     * @see DD#subtract(DD)
+     */
+    public MutableDD subtract(MutableDD y) {
+        return add(-y.x, -y.xx);
+    }
+
+    /**
+     * Sets this number to {@code (this * y)}.
+     *
+     * @param y Factor.
+     * @return {@code this}
+     * @see DD#multiply(double)
+     */
+    public MutableDD multiply(double y) {
+        return set(multiply(x, xx, y, this), xx);
+    }
+
+    /**
+     * Sets this number to {@code (this * y)}.
+     *
+     * @param y Factor.
+     * @return {@code this}
+     * @see DD#multiply(DD)
+     */
+    public MutableDD multiply(DD y) {
+        return set(multiply(x, xx, y.hi(), y.lo(), this), xx);
+    }
+
+    /**
+     * Sets this number to {@code (this * y)}.
+     *
+     * @param y Factor.
+     * @return {@code this}
+     * @see DD#multiply(DD)
+     */
+    public MutableDD multiply(MutableDD y) {
+        return set(multiply(x, xx, y.x, y.xx, this), xx);
+    }
+
+    /**
+     * Sets this number to {@code (this * this)}.
+     *
+     * @return {@code this}
+     * @see DD#square()
+     */
+    public MutableDD square() {
+        // Dekker mul2
+        final double hi = x * x;
+        final double lo = DD.twoSquareLow(x, hi);
+        // fastTwoSum(hi, lo + (2 * x * xx))
+        final double u = lo + (2 * x * xx);
+        final double z = hi + u;
+        return set(z, DD.fastTwoSumLow(hi, u, z));
+    }
+
+    /**
+     * Sets this number to {@code (this / y)}.
+     * If {@code y = 0} the result is undefined.
+     *
+     * @param y Divisor.
+     * @return {@code this}
+     * @see DD#divide(double)
+     */
+    public MutableDD divide(double y) {
+        // Long division
+        // quotient q0 = x / y
+        final double q0 = x / y;
+        // remainder r0 = x - q0 * y
+        double p = y * q0;
+        double pp = DD.twoProductLow(y, q0, p);
+        // High accuracy add required
+        double r = accurateAdd(x, xx, -p, -pp, this);
+        final double rr = xx;
+        // next quotient q1 = r0 / y
+        final double q1 = r / y;
+        // remainder r1 = r0 - q1 * y
+        p = y * q1;
+        pp = DD.twoProductLow(y, q1, p);
+        // accurateAdd not used as we do not need r1.xx
+        r = add(r, rr, -p, -pp, this);
+        // next quotient q2 = r1 / y
+        final double q2 = r / y;
+        // Collect (q0, q1, q2)
+        return collect(q0, q1, q2);
+    }
+
+    /**
+     * Sets this number to {@code (this / y)}.
+     * If {@code y = 0} the result is undefined.
+     *
+     * @param y Divisor.
+     * @return {@code this}
+     * @see DD#divide(DD)
+     */
+    public MutableDD divide(DD y) {
+        return divide(y.hi(), y.lo());
+    }
+
+    /**
+     * Sets this number to {@code (this / y)}.
+     * If {@code y = 0} the result is undefined.
+     *
+     * @param y Divisor.
+     * @return {@code this}
+     * @see DD#divide(DD)
+     */
+    public MutableDD divide(MutableDD y) {
+        return divide(y.x, y.xx);
+    }
+
+    /**
+     * Sets this number to the division of {@code this} by {@code (y, yy)}.
+     * If {@code y = 0} the result is undefined.
+     *
+     * @param y High part of y.
+     * @param yy Low part of y.
+     * @return {@code this}
+     */
+    private MutableDD divide(double y, double yy) {
+        final double x0 = x;
+        final double x1 = xx;
+        // Long division
+        // quotient q0 = x / y
+        final double q0 = x0 / y;
+        // remainder r0 = x - q0 * y
+        double p = multiply(y, yy, q0, this);
+        double pp = xx;
+        // High accuracy add required
+        double r = accurateAdd(x0, x1, -p, -pp, this);
+        final double rr = xx;
+        // next quotient q1 = r0 / y
+        final double q1 = r / y;
+        // remainder r1 = r0 - q1 * y
+        p = multiply(y, yy, q1, this);
+        pp = xx;
+        // accurateAdd not used as we do not need r1.xx
+        r = add(r, rr, -p, -pp, this);
+        // next quotient q2 = r1 / y
+        final double q2 = r / y;
+        // Collect (q0, q1, q2)
+        return collect(q0, q1, q2);
+    }
+
+    /**
+     * Sets this number to {@code 1 / this}.
+     * If {@code this} value is zero the result is undefined.
+     *
+     * @return {@code this}
+     * @see DD#reciprocal()
+     */
+    public MutableDD reciprocal() {
+        final double y = x;
+        final double yy = xx;
+        // As per divide using (x, xx) = (1, 0)
+        // quotient q0 = x / y
+        final double q0 = 1 / y;
+        // remainder r0 = x - q0 * y
+        double p = multiply(y, yy, q0, this);
+        double pp = xx;
+        // High accuracy add required
+        double r = accurateAdd(-p, -pp, 1, this);
+        final double rr = xx;
+        // next quotient q1 = r0 / y
+        final double q1 = r / y;
+        // remainder r1 = r0 - q1 * y
+        p = multiply(y, yy, q1, this);
+        pp = xx;
+        // accurateAdd not used as we do not need r1.xx
+        r = add(r, rr, -p, -pp, this);
+        // next quotient q2 = r1 / y
+        final double q2 = r / y;
+        // Collect (q0, q1, q2)
+        return collect(q0, q1, q2);
+    }
+
+    /**
+     * Sets this number to the square root of {@code this}.
+     *
+     * @return {@code this}
+     * @see DD#sqrt()
+     */
+    public MutableDD sqrt() {
+        // Standard sqrt
+        final double c = Math.sqrt(x);
+
+        // Here we support {negative, +infinity, nan and zero} edge cases.
+        if (DD.isNotNormal(c)) {
+            return set(c, 0);
+        }
+
+        // Dekker's double precision sqrt2 algorithm.
+        final double hc = DD.highPart(c);
+        final double lc = c - hc;
+        final double u = c * c;
+        final double uu = DD.twoSquareLow(hc, lc, u);
+        final double cc = (x - u - uu + xx) * 0.5 / c;
+
+        // fastTwoSum(c, cc)
+        final double z = c + cc;
+        return set(z, DD.fastTwoSumLow(c, cc, z));
+    }
+
+    /**
+     * Returns a string representation of the double-double number.
+     *
+     * <p>The format is the same as {@link DD#toString()}.
+     *
+     * @return A string representation of the double-double number.
+     * @see DD#toString()
+     */
+    @Override
+    public String toString() {
+        return toDD().toString();
+    }
+
+    /**
+     * Sets this number to the sum of the quotient parts {@code (q0, q1, q2)}.
+     *
+     * @param q0 First quotient.
+     * @param q1 Second quotient.
+     * @param q2 Third quotient.
+     * @return {@code this}
+     */
+    private MutableDD collect(double q0, double q1, double q2) {
+        // q = fastTwoSum(q0, q1)
+        final double q = q0 + q1;
+        final double qq = DD.fastTwoSumLow(q0, q1, q);
+        // twoSum(q, qq + q2)
+        final double u = qq + q2;
+        final double z = q + u;
+        return set(z, DD.twoSumLow(q, u, z));
+    }
+
+    /**
+     * Compute the sum of {@code (x, xx)} and {@code (y, yy)}.
+     *
+     * <p>This is an inline version of {@link DD#add(double, double, double, double)}.
+     *
+     * @param x High part of x.
+     * @param xx Low part of x.
+     * @param y High part of y.
+     * @param yy Low part of y.
+     * @param s Output low part of the sum.
+     * @return the high part of the sum
+     */
+    static double add(double x, double xx, double y, double yy, MutableDD s) {
+        // (s0, s1) = x + y
+        final double s0 = x + y;
+        final double s1 = DD.twoSumLow(x, y, s0);
+        // (t0, t1) = xx + yy
+        final double t0 = xx + yy;
+        final double t1 = DD.twoSumLow(xx, yy, t0);
+        // result = s + t
+        // (z, zz) = fastTwoSum(s0, s1 + t0)
+        double u = s1 + t0;
+        final double z = s0 + u;
+        final double zz = DD.fastTwoSumLow(s0, u, z);
+        // fastTwoSum(z, zz + t1)
+        u = zz + t1;
+        final double hi = z + u;
+        s.xx = DD.fastTwoSumLow(z, u, hi);
+        return hi;
+    }
+
+    /**
+     * Compute the sum of {@code (x, xx)} and {@code y}.
+     *
+     * <p>This is an inline version of {@link DD#accurateAdd(double, double, double)}.
+     *
+     * @param x High part of x.
+     * @param xx Low part of x.
+     * @param y y.
+     * @param s Output low part of the sum.
+     * @return the high part of the sum
+     */
+    private static double accurateAdd(double x, double xx, double y, MutableDD s) {
+        // Grow expansion (Schewchuk): (x, xx) + y -> (s0, s1, s2)
+        double u = xx + y;
+        double s2 = DD.twoSumLow(xx, y, u);
+        final double s0 = x + u;
+        final double s1 = DD.twoSumLow(x, u, s0);
+        // Compress (Schewchuk Fig. 15): (s0, s1, s2) -> (s0, s1)
+        u = s1 + s2;
+        s2 = DD.fastTwoSumLow(s1, s2, u);
+        final double v = s0 + u;
+        u = DD.fastTwoSumLow(s0, u, v);
+        // fastTwoSum(v, s2 + u)
+        u = s2 + u;
+        final double hi = v + u;
+        s.xx = DD.fastTwoSumLow(v, u, hi);
+        return hi;
+    }
+
+    /**
+     * Compute the sum of {@code (x, xx)} and {@code (y, yy)}.
+     *
+     * <p>This is an inline version of {@link DD#accurateAdd(double, double, double, double)}.
+     *
+     * @param x High part of x.
+     * @param xx Low part of x.
+     * @param y High part of y.
+     * @param yy Low part of y.
+     * @param s Output low part of the sum.
+     * @return the high part of the sum
+     */
+    private static double accurateAdd(double x, double xx, double y, double yy, MutableDD s) {
+        // Expansion sum (Schewchuk Fig 7): (x, xx) + (x, yy) -> (s0, s1, s2, s3)
+        double u = xx + yy;
+        double s3 = DD.twoSumLow(xx, yy, u);
+        double v = x + u;
+        double w = DD.twoSumLow(x, u, v);
+        // (s0, s1, s2) == (v, w, s3)
+        double s0 = v;
+        u = w + y;
+        double s2 = DD.twoSumLow(w, y, u);
+        v = s0 + u;
+        w = DD.twoSumLow(s0, u, v);
+        // s1 = w
+        s0 = v;
+        // Compress (Schewchuk Fig. 15) (s0, s1, s2, s3) -> (s0, s1)
+        u = w + s2;
+        v = DD.fastTwoSumLow(w, s2, u);
+        final double s1 = u;
+        u = v + s3;
+        s3 = DD.fastTwoSumLow(v, s3, u);
+        // s2 = u
+        v = s1 + u;
+        s2 = DD.fastTwoSumLow(s1, u, v);
+        u = s0 + v;
+        w = DD.fastTwoSumLow(s0, v, u);
+        // Here (s0, s1) = (u, w)
+        // fastTwoSum(u, s3 + s2 + w)
+        v = s3 + s2 + w;
+        final double hi = u + v;
+        s.xx = DD.fastTwoSumLow(u, v, hi);
+        return hi;
+    }
+
+    /**
+     * Compute the multiplication product of {@code (x, xx)} and {@code y}.
+     *
+     * <p>This is an inline version of {@code DD.multiply(double, double, double)}.
+     *
+     * @param x High part of x.
+     * @param xx Low part of x.
+     * @param y High part of y.
+     * @param s Output low part of the product.
+     * @return the high part of the product
+     */
+    static double multiply(double x, double xx, double y, MutableDD s) {
+        // Dekker mul2 with yy=0
+        final double hi = x * y;
+        final double lo = DD.twoProductLow(x, y, hi);
+        // fastTwoSum(hi, lo + xx * y)
+        final double u = lo + xx * y;
+        final double z = hi + u;
+        s.xx = DD.fastTwoSumLow(hi, u, z);
+        return z;
+    }
+
+    /**
+     * Compute the multiplication product of {@code (x, xx)} and {@code (y, yy)}.
+     *
+     * <p>This is an inline version of {@code DD.multiply(double, double, double, double)}.
+     *
+     * @param x High part of x.
+     * @param xx Low part of x.
+     * @param y High part of y.
+     * @param yy Low part of y.
+     * @param s Output low part of the product.
+     * @return the high part of the product
+     */
+    static double multiply(double x, double xx, double y, double yy, MutableDD s) {
+        // Dekker mul2
+        final double hi = x * y;
+        final double lo = DD.twoProductLow(x, y, hi);
+        // fastTwoSum(hi, lo + (x * yy + xx * y))
+        final double u = lo + (x * yy + xx * y);
+        final double z = hi + u;
+        s.xx = DD.fastTwoSumLow(hi, u, z);
+        return z;
+    }
+}
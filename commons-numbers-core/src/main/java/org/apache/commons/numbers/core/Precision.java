@@ -53,6 +53,15 @@ public final class Precision {
 
     /** Positive zero. */
     private static final double POSITIVE_ZERO = 0d;
+    /** Limit for the error bound of the fast rounding method. */
+    private static final double ROUND_ERROR_LIMIT = 0.25;
+    /** Size of the blocks of elements tested for a mismatch before locating the mismatch. */
+    private static final int BLOCK_SIZE = 32;
+    /** Powers of 10 that are exactly representable as a double. */
+    private static final double[] POWERS_OF_10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
 
     static {
         /*
@@ -408,6 +417,223 @@ public final class Precision {
             equals(x, y, maxUlps);
     }
 
+    /**
+     * Returns the number of ULPs between the arguments. This is the number of
+     * representable {@code double} values that must be traversed to move from {@code x}
+     * to {@code y}. Positive and negative zero are at a distance of zero.
+     *
+     * <p>The distance is consistent with {@link #equals(double, double, int)}:
+     * <pre>
+     * equals(x, y, maxUlps) == (ulpDistance(x, y) &lt;= maxUlps)
+     * </pre>
+     *
+     * @param x First value.
+     * @param y Second value.
+     * @return the ULP distance; or {@link Long#MAX_VALUE} if either value is NaN or
+     * the distance is too large to represent.
+     * @since 1.4
+     */
+    public static long ulpDistance(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return Long.MAX_VALUE;
+        }
+        // Map the bits to a signed integer ordered as the double values.
+        // The distance is an unsigned 64-bit integer that is saturated.
+        final long a = ordered(x);
+        final long b = ordered(y);
+        final long d = a >= b ? a - b : b - a;
+        return d < 0 ? Long.MAX_VALUE : d;
+    }
+
+    /**
+     * Returns {@code true} if the arrays have the same length and all the elements are
+     * equal as defined by {@link #equals(double,double,int) equals(x[i], y[i], maxUlps)}.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @param maxUlps {@code (maxUlps - 1)} is the number of floating point
+     * values between {@code x[i]} and {@code y[i]}.
+     * @return {@code true} if the arrays are equal.
+     * @see #mismatch(double[], double[], int)
+     * @since 1.4
+     */
+    public static boolean equals(double[] x, double[] y, int maxUlps) {
+        return x.length == y.length && mismatch(x, y, maxUlps) < 0;
+    }
+
+    /**
+     * Returns {@code true} if the arrays have the same length and all the elements are
+     * equal as defined by {@link #equals(double,double,double) equals(x[i], y[i], eps)}.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @param eps Amount of allowed absolute error.
+     * @return {@code true} if the arrays are equal.
+     * @see #mismatch(double[], double[], double)
+     * @since 1.4
+     */
+    public static boolean equals(double[] x, double[] y, double eps) {
+        return x.length == y.length && mismatch(x, y, eps) < 0;
+    }
+
+    /**
+     * Finds the index of the first mismatch between the arrays where the elements are not
+     * equal as defined by {@link #equals(double,double,int) equals(x[i], y[i], maxUlps)}.
+     *
+     * <p>If the arrays share a common prefix of equal elements then the returned index
+     * is the length of the smaller array; this is consistent with
+     * {@code java.util.Arrays.mismatch}.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @param maxUlps {@code (maxUlps - 1)} is the number of floating point
+     * values between {@code x[i]} and {@code y[i]}.
+     * @return the index of the first mismatch; or -1 if there is no mismatch.
+     * @since 1.4
+     */
+    public static int mismatch(double[] x, double[] y, int maxUlps) {
+        final int n = Math.min(x.length, y.length);
+        // Test blocks without branching on each element; then locate the mismatch.
+        int i = 0;
+        for (; i <= n - BLOCK_SIZE; i += BLOCK_SIZE) {
+            int c = 0;
+            for (int j = i; j < i + BLOCK_SIZE; j++) {
+                c += ulpDistance(x[j], y[j]) <= maxUlps ? 0 : 1;
+            }
+            if (c != 0) {
+                break;
+            }
+        }
+        for (; i < n; i++) {
+            if (ulpDistance(x[i], y[i]) > maxUlps) {
+                return i;
+            }
+        }
+        return x.length == y.length ? -1 : n;
+    }
+
+    /**
+     * Finds the index of the first mismatch between the arrays where the elements are not
+     * equal as defined by {@link #equals(double,double,double) equals(x[i], y[i], eps)}.
+     *
+     * <p>If the arrays share a common prefix of equal elements then the returned index
+     * is the length of the smaller array; this is consistent with
+     * {@code java.util.Arrays.mismatch}.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @param eps Amount of allowed absolute error.
+     * @return the index of the first mismatch; or -1 if there is no mismatch.
+     * @since 1.4
+     */
+    public static int mismatch(double[] x, double[] y, double eps) {
+        final int n = Math.min(x.length, y.length);
+        int i = 0;
+        for (; i <= n - BLOCK_SIZE; i += BLOCK_SIZE) {
+            int c = 0;
+            for (int j = i; j < i + BLOCK_SIZE; j++) {
+                c += equals(x[j], y[j], eps) ? 0 : 1;
+            }
+            if (c != 0) {
+                break;
+            }
+        }
+        for (; i < n; i++) {
+            if (!equals(x[i], y[i], eps)) {
+                return i;
+            }
+        }
+        return x.length == y.length ? -1 : n;
+    }
+
+    /**
+     * Counts the elements that are not equal as defined by
+     * {@link #equals(double,double,int) equals(x[i], y[i], maxUlps)}.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @param maxUlps {@code (maxUlps - 1)} is the number of floating point
+     * values between {@code x[i]} and {@code y[i]}.
+     * @return the number of mismatches.
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     * @since 1.4
+     */
+    public static int countMismatches(double[] x, double[] y, int maxUlps) {
+        checkLength(x, y);
+        int c = 0;
+        for (int i = 0; i < x.length; i++) {
+            c += ulpDistance(x[i], y[i]) <= maxUlps ? 0 : 1;
+        }
+        return c;
+    }
+
+    /**
+     * Counts the elements that are not equal as defined by
+     * {@link #equals(double,double,double) equals(x[i], y[i], eps)}.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @param eps Amount of allowed absolute error.
+     * @return the number of mismatches.
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     * @since 1.4
+     */
+    public static int countMismatches(double[] x, double[] y, double eps) {
+        checkLength(x, y);
+        int c = 0;
+        for (int i = 0; i < x.length; i++) {
+            c += equals(x[i], y[i], eps) ? 0 : 1;
+        }
+        return c;
+    }
+
+    /**
+     * Returns the maximum of the {@link #ulpDistance(double, double) ULP distance}
+     * between the elements of the arrays.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @return the maximum ULP distance; or {@link Long#MAX_VALUE} if any element is NaN.
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     * @since 1.4
+     */
+    public static long maxUlpDistance(double[] x, double[] y) {
+        checkLength(x, y);
+        long max = 0;
+        for (int i = 0; i < x.length; i++) {
+            max = Math.max(max, ulpDistance(x[i], y[i]));
+        }
+        return max;
+    }
+
+    /**
+     * Map the {@code double} value to a signed integer with the same ordering.
+     * Positive and negative zero are mapped to zero.
+     *
+     * @param x Value.
+     * @return the integer
+     */
+    private static long ordered(double x) {
+        final long bits = Double.doubleToRawLongBits(x);
+        // Negate the magnitude if the sign bit is set: (m ^ -1) - -1 = -m
+        final long sign = bits >> 63;
+        return ((bits & Long.MAX_VALUE) ^ sign) - sign;
+    }
+
+    /**
+     * Check the arrays have the same length.
+     *
+     * @param x First values.
+     * @param y Second values.
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     */
+    private static void checkLength(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Dimension mismatch: " +
+                                               x.length + " != " + y.length);
+        }
+    }
+
     /**
      * Rounds the given value to the specified number of decimal places.
      * The value is rounded using {@link RoundingMode#HALF_UP}.
@@ -465,6 +691,12 @@ public final class Precision {
      * Precision.round(30.645, 2) == 30.65
      * </pre>
      *
+     * <p>The result is computed using floating-point arithmetic when the rounding of the
+     * decimal representation can be determined exactly from {@code x}; this is the
+     * case for most values with a small scale that are not close to a rounding boundary.
+     * Otherwise the result is computed using {@link BigDecimal}. The result is the same
+     * using either method.
+     *
      * @param x Value to round.
      * @param scale Number of digits to the right of the decimal point.
      * @param roundingMode Rounding mode as defined in {@link BigDecimal}.
@@ -477,6 +709,10 @@ public final class Precision {
     public static double round(double x,
                                int scale,
                                RoundingMode roundingMode) {
+        final double r = roundFast(x, scale, roundingMode);
+        if (!Double.isNaN(r)) {
+            return r;
+        }
         try {
             final double rounded = (new BigDecimal(Double.toString(x))
                    .setScale(scale, roundingMode))
@@ -491,6 +727,75 @@ public final class Precision {
         }
     }
 
+    /**
+     * Rounds the given value to the specified number of decimal places
+     * without conversion to a decimal representation. Returns {@code NaN} if the
+     * result cannot be computed; the caller must then use the decimal representation.
+     *
+     * <p>The decimal representation {@code d} of the finite argument used by
+     * {@link #round(double, int, RoundingMode)} is within half an ULP of {@code x}.
+     * The scaled value {@code y = x * 10^scale} is computed in floating-point and
+     * the scaled decimal {@code d * 10^scale} lies within an error bound of {@code y}.
+     * When no rounding boundary (an integer for the directed modes; a half-integer for the
+     * {@code HALF_*} modes) is within the error bound, the rounded integer {@code n}
+     * of the scaled decimal is the same as the rounded integer of {@code y}.
+     * The result is {@code n / 10^scale}, which is exact as both values are exactly
+     * representable and IEEE754 division is correctly rounded. This is the same as the
+     * conversion of the rounded decimal to a {@code double}.
+     *
+     * @param x Value to round.
+     * @param scale Number of digits to the right of the decimal point.
+     * @param roundingMode Rounding mode.
+     * @return the rounded value, or {@code NaN}.
+     */
+    private static double roundFast(double x, int scale, RoundingMode roundingMode) {
+        if (scale < 0 || scale >= POWERS_OF_10.length) {
+            return Double.NaN;
+        }
+        final double p = POWERS_OF_10[scale];
+        final double y = x * p;
+        // Error bound of the scaled decimal from y:
+        // |d - x| * p <= ulp(x) * p / 2; |y - x * p| <= ulp(y) / 2 <= ulp(x) * p.
+        // This is an overestimate and is infinite or NaN for non-finite x.
+        // The limit on the error bounds |y| < 2^53 * ulp(x) * p < 2^50 so y can
+        // be split into integer and fraction parts exactly.
+        final double error = 2 * p * Math.ulp(x);
+        if (!(error < ROUND_ERROR_LIMIT)) {
+            return Double.NaN;
+        }
+        final double f = Math.floor(y);
+        // Exact
+        final double frac = y - f;
+        final double n;
+        if (roundingMode == RoundingMode.HALF_UP ||
+            roundingMode == RoundingMode.HALF_DOWN ||
+            roundingMode == RoundingMode.HALF_EVEN) {
+            if (Math.abs(frac - 0.5) <= error) {
+                return Double.NaN;
+            }
+            n = frac < 0.5 ? f : f + 1;
+        } else {
+            if (frac <= error || frac >= 1 - error) {
+                return Double.NaN;
+            }
+            if (roundingMode == RoundingMode.FLOOR) {
+                n = f;
+            } else if (roundingMode == RoundingMode.CEILING) {
+                n = f + 1;
+            } else if (roundingMode == RoundingMode.DOWN) {
+                n = y < 0 ? f + 1 : f;
+            } else if (roundingMode == RoundingMode.UP) {
+                n = y < 0 ? f : f + 1;
+            } else {
+                // UNNECESSARY (or null) must raise an exception
+                return Double.NaN;
+            }
+        }
+        final double rounded = n / p;
+        // MATH-1089: negative values rounded to zero should result in negative zero
+        return rounded == POSITIVE_ZERO ? POSITIVE_ZERO * x : rounded;
+    }
+
     /**
      * Computes a number close to {@code delta} with the property that
      * {@code (x + delta - x)} is exactly machine-representable.
@@ -633,6 +938,63 @@ public final class Precision {
                 Math.copySign(1d, a);
         }
 
+        /**
+         * Indicates whether the arrays have the same length and all the elements
+         * are considered equal.
+         *
+         * @param a Values.
+         * @param b Values.
+         * @return true if the arrays are considered equal.
+         * @see #eq(double, double)
+         * @since 1.4
+         */
+        default boolean eq(double[] a, double[] b) {
+            return a.length == b.length && mismatch(a, b) < 0;
+        }
+
+        /**
+         * Finds the index of the first mismatch between the arrays where the elements
+         * are not considered equal.
+         *
+         * <p>If the arrays share a common prefix of equal elements then the returned index
+         * is the length of the smaller array; this is consistent with
+         * {@code java.util.Arrays.mismatch}.
+         *
+         * @param a Values.
+         * @param b Values.
+         * @return the index of the first mismatch; or -1 if there is no mismatch.
+         * @see #eq(double, double)
+         * @since 1.4
+         */
+        default int mismatch(double[] a, double[] b) {
+            final int n = Math.min(a.length, b.length);
+            for (int i = 0; i < n; i++) {
+                if (!eq(a[i], b[i])) {
+                    return i;
+                }
+            }
+            return a.length == b.length ? -1 : n;
+        }
+
+        /**
+         * Counts the elements of the arrays that are not considered equal.
+         *
+         * @param a Values.
+         * @param b Values.
+         * @return the number of mismatches.
+         * @throws IllegalArgumentException if the arrays do not have the same length.
+         * @see #eq(double, double)
+         * @since 1.4
+         */
+        default int countMismatches(double[] a, double[] b) {
+            checkLength(a, b);
+            int c = 0;
+            for (int i = 0; i < a.length; i++) {
+                c += eq(a[i], b[i]) ? 0 : 1;
+            }
+            return c;
+        }
+
         /**
          * Compares two values.
          * The returned value is
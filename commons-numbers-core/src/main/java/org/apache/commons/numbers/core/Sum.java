@@ -137,7 +137,7 @@ public final class Sum
     public Sum addProduct(final double a,
                           final double b) {
         final double ab = a * b;
-        final double pLow = ExtendedPrecision.productLow(a, b, ab);
+        final double pLow = IntrinsicMath.productLow(a, b, ab);
 
         final double newSum = sum + ab;
         comp += DD.twoSumLow(sum, ab, newSum) + pLow;
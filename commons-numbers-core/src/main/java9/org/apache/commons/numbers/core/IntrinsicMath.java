@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+/**
+ * Provides intrinsic operations for multiplication of {@code double} and {@code long} values.
+ *
+ * <p>This is the Java 9 version of this class packaged in the multi-release jar.
+ * It uses {@code Math.fma} and {@code Math.multiplyHigh} which are compiled to
+ * hardware instructions on supported platforms.
+ */
+final class IntrinsicMath {
+    /** No instances. */
+    private IntrinsicMath() {}
+
+    /**
+     * Compute the low part of the double length number {@code (z,zz)} for the exact
+     * product of {@code x} and {@code y}. The standard precision product {@code x*y}
+     * must be provided.
+     *
+     * <p>Special cases:
+     *
+     * <ul>
+     *  <li>If {@code x * y} is sub-normal or zero then the result is 0.0.</li>
+     *  <li>If {@code x * y} is infinite or NaN then the result is NaN.</li>
+     * </ul>
+     *
+     * @param x First factor.
+     * @param y Second factor.
+     * @param xy Product of the factors (x * y).
+     * @return the low part of the product double length number
+     */
+    static double productLow(double x, double y, double xy) {
+        if (DD.isNotNormal(xy)) {
+            // Returns 0.0 for sub-normal xy, otherwise NaN for inf/nan:
+            return xy - xy;
+        }
+        // No intermediate overflow: the round-off of a finite normal product is exact
+        return Math.fma(x, y, -xy);
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128-bit product of the arguments.
+     *
+     * @param a Value.
+     * @param b Value.
+     * @return the high part of the product
+     */
+    static long unsignedMultiplyHigh(long a, long b) {
+        // The unsigned value of a signed argument with the sign bit set is a + 2^64:
+        // (a + 2^64) * b = a * b + 2^64 * b. Add b (and a) to the signed high part.
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
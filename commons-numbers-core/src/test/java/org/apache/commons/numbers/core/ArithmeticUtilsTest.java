@@ -19,6 +19,8 @@ package org.apache.commons.numbers.core;
 import java.util.Arrays;
 import java.math.BigInteger;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.ArraySampler;
 import org.apache.commons.rng.simple.RandomSource;
@@ -256,6 +258,97 @@ class ArithmeticUtilsTest {
         }
     }
 
+    @Test
+    void testGcdArray() {
+        Assertions.assertEquals(0, ArithmeticUtils.gcd(new int[0]));
+        Assertions.assertEquals(0, ArithmeticUtils.gcd(new long[0]));
+        Assertions.assertEquals(0, ArithmeticUtils.gcd(0, 0, 0));
+        Assertions.assertEquals(0L, ArithmeticUtils.gcd(0L, 0L, 0L));
+        Assertions.assertEquals(7, ArithmeticUtils.gcd(-7));
+        Assertions.assertEquals(7L, ArithmeticUtils.gcd(-7L));
+        Assertions.assertEquals(6, ArithmeticUtils.gcd(12, 0, -18, 30));
+        Assertions.assertEquals(6L, ArithmeticUtils.gcd(12L, 0L, -18L, 30L));
+        // Short-circuit of the odd part; the power of 2 is from all values
+        Assertions.assertEquals(2, ArithmeticUtils.gcd(6, 10, 14, 4, 8));
+        Assertions.assertEquals(1, ArithmeticUtils.gcd(6, 10, 14, 4, 8, 3));
+        Assertions.assertEquals(2L, ArithmeticUtils.gcd(6L, 10L, 14L, 4L, 8L));
+        Assertions.assertEquals(1L, ArithmeticUtils.gcd(6L, 10L, 14L, 4L, 8L, 3L));
+        // Intermediate results of 2^31 or 2^63 are allowed
+        Assertions.assertEquals(2, ArithmeticUtils.gcd(Integer.MIN_VALUE, Integer.MIN_VALUE, 6));
+        Assertions.assertEquals(2L, ArithmeticUtils.gcd(Long.MIN_VALUE, Long.MIN_VALUE, 6L));
+        Assertions.assertEquals(2, ArithmeticUtils.gcd(IntStream.of(Integer.MIN_VALUE, 0, 6)));
+        Assertions.assertEquals(2L, ArithmeticUtils.gcd(LongStream.of(Long.MIN_VALUE, 0, 6)));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.gcd(Integer.MIN_VALUE, 0, Integer.MIN_VALUE));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.gcd(Long.MIN_VALUE, 0L, Long.MIN_VALUE));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.gcd(IntStream.of(Integer.MIN_VALUE)));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.gcd(LongStream.of(Long.MIN_VALUE)));
+
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int i = 0; i < 200; i++) {
+            // Values with a common factor
+            final long f = rng.nextLong(1, 1L << rng.nextInt(1, 32));
+            final long[] longs = rng.longs(rng.nextInt(1, 100), -(1L << 30), 1L << 30).map(x -> x * f).toArray();
+            final long expected = Arrays.stream(longs).mapToObj(BigInteger::valueOf)
+                .reduce(BigInteger.ZERO, BigInteger::gcd).longValue();
+            Assertions.assertEquals(expected, ArithmeticUtils.gcd(longs));
+            Assertions.assertEquals(expected, ArithmeticUtils.gcd(Arrays.stream(longs)));
+            Assertions.assertEquals(expected, ArithmeticUtils.gcd(Arrays.stream(longs).parallel()));
+            final int[] ints = Arrays.stream(longs).mapToInt(x -> (int) (x >> 32)).toArray();
+            final int expectedInt = Arrays.stream(ints).mapToObj(BigInteger::valueOf)
+                .reduce(BigInteger.ZERO, BigInteger::gcd).intValue();
+            Assertions.assertEquals(expectedInt, ArithmeticUtils.gcd(ints));
+            Assertions.assertEquals(expectedInt, ArithmeticUtils.gcd(Arrays.stream(ints)));
+            Assertions.assertEquals(expectedInt, ArithmeticUtils.gcd(Arrays.stream(ints).parallel()));
+        }
+    }
+
+    @Test
+    void testLcmArray() {
+        Assertions.assertEquals(1, ArithmeticUtils.lcm(new int[0]));
+        Assertions.assertEquals(1L, ArithmeticUtils.lcm(new long[0]));
+        Assertions.assertEquals(7, ArithmeticUtils.lcm(-7));
+        Assertions.assertEquals(7L, ArithmeticUtils.lcm(-7L));
+        Assertions.assertEquals(60, ArithmeticUtils.lcm(4, -6, 10));
+        Assertions.assertEquals(60L, ArithmeticUtils.lcm(4L, -6L, 10L));
+        Assertions.assertEquals(60, ArithmeticUtils.lcm(IntStream.of(4, -6, 10)));
+        Assertions.assertEquals(60L, ArithmeticUtils.lcm(LongStream.of(4, -6, 10)));
+        // Zero is returned even if an intermediate result overflows
+        Assertions.assertEquals(0, ArithmeticUtils.lcm(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 0));
+        Assertions.assertEquals(0L, ArithmeticUtils.lcm(Long.MAX_VALUE, Long.MAX_VALUE - 1, 0));
+        Assertions.assertEquals(0, ArithmeticUtils.lcm(IntStream.of(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 0)));
+        Assertions.assertEquals(0L, ArithmeticUtils.lcm(LongStream.of(Long.MAX_VALUE, Long.MAX_VALUE - 1, 0)));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(Integer.MIN_VALUE, 1, 1));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(Long.MIN_VALUE, 1L, 1L));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 1));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(Long.MAX_VALUE, Long.MAX_VALUE - 1, 1L));
+        Assertions.assertThrows(ArithmeticException.class,
+            () -> ArithmeticUtils.lcm(IntStream.of(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 1)));
+        Assertions.assertThrows(ArithmeticException.class,
+            () -> ArithmeticUtils.lcm(LongStream.of(Long.MAX_VALUE, Long.MAX_VALUE - 1, 1L)));
+        Assertions.assertEquals(0L, ArithmeticUtils.lcm(LongStream.of(0, Long.MAX_VALUE, Long.MAX_VALUE - 1)));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(IntStream.of(Integer.MIN_VALUE)));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(LongStream.of(Long.MIN_VALUE)));
+
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final BigInteger maxLong = BigInteger.valueOf(Long.MAX_VALUE);
+        for (int i = 0; i < 200; i++) {
+            final long[] longs = rng.longs(rng.nextInt(1, 20), -(1L << 12), 1L << 12).toArray();
+            final BigInteger big = Arrays.stream(longs).mapToObj(BigInteger::valueOf)
+                .reduce(BigInteger.ONE, (x, y) -> y.signum() == 0 ? BigInteger.ZERO :
+                    x.multiply(y.abs()).divide(x.gcd(y)));
+            if (big.compareTo(maxLong) > 0) {
+                Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.lcm(longs));
+                Assertions.assertThrows(ArithmeticException.class,
+                    () -> ArithmeticUtils.lcm(Arrays.stream(longs).parallel()));
+            } else {
+                final long expected = big.longValue();
+                Assertions.assertEquals(expected, ArithmeticUtils.lcm(longs));
+                Assertions.assertEquals(expected, ArithmeticUtils.lcm(Arrays.stream(longs)));
+                Assertions.assertEquals(expected, ArithmeticUtils.lcm(Arrays.stream(longs).parallel()));
+            }
+        }
+    }
+
     @Test
     void testPow() {
 
@@ -662,4 +755,203 @@ class ArithmeticUtilsTest {
             }
         }
     }
+
+    @Test
+    void testMulMod() {
+        Assertions.assertEquals(6, ArithmeticUtils.mulMod(2, 3, 7));
+        Assertions.assertEquals(1, ArithmeticUtils.mulMod(-2, 3, 7));
+        Assertions.assertEquals(0, ArithmeticUtils.mulMod(12345, 6789, 1));
+        Assertions.assertEquals(1, ArithmeticUtils.mulMod(Long.MAX_VALUE - 1, Long.MAX_VALUE - 1, Long.MAX_VALUE));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.mulMod(2, 3, 0));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.mulMod(2, 3, -7));
+        final long[] longs = getLongSpecialCases();
+        for (final long m : longs) {
+            if (m <= 0) {
+                continue;
+            }
+            final BigInteger bm = BigInteger.valueOf(m);
+            for (final long a : longs) {
+                for (final long b : longs) {
+                    Assertions.assertEquals(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(bm).longValue(),
+                        ArithmeticUtils.mulMod(a, b, m), () -> a + " * " + b + " mod " + m);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPowMod() {
+        Assertions.assertEquals(1, ArithmeticUtils.powMod(0, 0, 7));
+        Assertions.assertEquals(0, ArithmeticUtils.powMod(0, 0, 1));
+        Assertions.assertEquals(4, ArithmeticUtils.powMod(2, 10, 10));
+        Assertions.assertEquals(1, ArithmeticUtils.powMod(-1, 10, 10));
+        Assertions.assertEquals(9, ArithmeticUtils.powMod(-1, 11, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ArithmeticUtils.powMod(2, -1, 7));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.powMod(2, 3, 0));
+        final UniformRandomProvider rng = RandomSource.SPLIT_MIX_64.create();
+        for (int i = 0; i < 2000; i++) {
+            // Odd and even moduli of different sizes
+            final long m = rng.nextLong(1, Long.MAX_VALUE >>> rng.nextInt(62));
+            final long a = rng.nextLong();
+            final long e = rng.nextLong(0, Long.MAX_VALUE) >>> rng.nextInt(64);
+            Assertions.assertEquals(BigInteger.valueOf(a).modPow(BigInteger.valueOf(e), BigInteger.valueOf(m)).longValue(),
+                ArithmeticUtils.powMod(a, e, m), () -> a + "^" + e + " mod " + m);
+        }
+    }
+
+    @Test
+    void testModInverse() {
+        Assertions.assertEquals(5, ArithmeticUtils.modInverse(3, 7));
+        Assertions.assertEquals(2, ArithmeticUtils.modInverse(-3, 7));
+        Assertions.assertEquals(0, ArithmeticUtils.modInverse(3, 1));
+        Assertions.assertEquals(Long.MAX_VALUE - 1, ArithmeticUtils.modInverse(Long.MAX_VALUE - 1, Long.MAX_VALUE));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.modInverse(2, 0));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.modInverse(2, -7));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.modInverse(0, 7));
+        Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.modInverse(4, 6));
+        final long[] longs = getLongSpecialCases();
+        for (final long m : longs) {
+            if (m <= 0) {
+                continue;
+            }
+            final BigInteger bm = BigInteger.valueOf(m);
+            for (final long a : longs) {
+                final BigInteger ba = BigInteger.valueOf(a);
+                if (ba.gcd(bm).equals(BigInteger.ONE)) {
+                    Assertions.assertEquals(ba.modInverse(bm).longValue(), ArithmeticUtils.modInverse(a, m),
+                        () -> a + "^-1 mod " + m);
+                } else {
+                    Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.modInverse(a, m),
+                        () -> a + "^-1 mod " + m);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testModInverseRandom() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int i = 0; i < 5000; i++) {
+            // Odd and even moduli of different sizes
+            final long m = rng.nextLong(1, Long.MAX_VALUE >>> rng.nextInt(62));
+            final long a = rng.nextLong();
+            final BigInteger ba = BigInteger.valueOf(a);
+            final BigInteger bm = BigInteger.valueOf(m);
+            if (ba.gcd(bm).equals(BigInteger.ONE)) {
+                Assertions.assertEquals(ba.modInverse(bm).longValue(), ArithmeticUtils.modInverse(a, m),
+                    () -> a + "^-1 mod " + m);
+            } else {
+                Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.modInverse(a, m),
+                    () -> a + "^-1 mod " + m);
+            }
+        }
+    }
+
+    @Test
+    void testExtendedGcd() {
+        final int[] ints = {0, 1, -1, 2, -2, 3, 6, -15, 77, 1 << 20, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, 1 << 30, 123456789};
+        final int[] xy = new int[2];
+        for (final int a : ints) {
+            for (final int b : ints) {
+                final long gcd = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValue();
+                if (gcd > Integer.MAX_VALUE) {
+                    Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.extendedGcd(a, b, xy));
+                    continue;
+                }
+                Assertions.assertEquals(gcd, ArithmeticUtils.extendedGcd(a, b, xy), () -> "gcd(" + a + ", " + b + ")");
+                assertBezout(gcd, a, b, xy[0], xy[1]);
+            }
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArithmeticUtils.extendedGcd(3, 5, new int[1]));
+    }
+
+    @Test
+    void testExtendedGcdLong() {
+        final long[] longs = getLongSpecialCases();
+        final long[] xy = new long[2];
+        for (final long a : longs) {
+            for (final long b : longs) {
+                final BigInteger gcd = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b));
+                if (gcd.bitLength() > 63) {
+                    Assertions.assertThrows(ArithmeticException.class, () -> ArithmeticUtils.extendedGcd(a, b, xy));
+                    continue;
+                }
+                Assertions.assertEquals(gcd.longValue(), ArithmeticUtils.extendedGcd(a, b, xy),
+                    () -> "gcd(" + a + ", " + b + ")");
+                assertBezout(gcd.longValue(), a, b, xy[0], xy[1]);
+            }
+        }
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int i = 0; i < 1000; i++) {
+            final long f = rng.nextLong(1, 1L << rng.nextInt(1, 32));
+            final long a = (rng.nextLong() >> 32) * f;
+            final long b = (rng.nextLong() >> 32) * f;
+            final long gcd = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValue();
+            Assertions.assertEquals(gcd, ArithmeticUtils.extendedGcd(a, b, xy), () -> "gcd(" + a + ", " + b + ")");
+            assertBezout(gcd, a, b, xy[0], xy[1]);
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArithmeticUtils.extendedGcd(3L, 5L, new long[1]));
+    }
+
+    /**
+     * Assert the coefficients satisfy {@code a * x + b * y = gcd} and are bounded.
+     *
+     * @param gcd GCD.
+     * @param a Value.
+     * @param b Value.
+     * @param x Coefficient of a.
+     * @param y Coefficient of b.
+     */
+    private static void assertBezout(long gcd, long a, long b, long x, long y) {
+        final BigInteger g = BigInteger.valueOf(gcd);
+        final BigInteger ba = BigInteger.valueOf(a);
+        final BigInteger bb = BigInteger.valueOf(b);
+        final BigInteger bx = BigInteger.valueOf(x);
+        final BigInteger by = BigInteger.valueOf(y);
+        Assertions.assertEquals(g, ba.multiply(bx).add(bb.multiply(by)),
+            () -> a + " * " + x + " + " + b + " * " + y + " != " + gcd);
+        if (gcd != 0) {
+            Assertions.assertTrue(bx.abs().compareTo(bb.abs().divide(g).max(BigInteger.ONE)) <= 0,
+                () -> "x = " + x + " for gcd(" + a + ", " + b + ")");
+            Assertions.assertTrue(by.abs().compareTo(ba.abs().divide(g).max(BigInteger.ONE)) <= 0,
+                () -> "y = " + y + " for gcd(" + a + ", " + b + ")");
+        }
+    }
+
+    @Test
+    void testUnsignedMultiplyHigh() {
+        final long[] longs = getLongSpecialCases();
+        for (final long a : longs) {
+            for (final long b : longs) {
+                final BigInteger p = toUnsignedBigInteger(a).multiply(toUnsignedBigInteger(b));
+                Assertions.assertEquals(p.shiftRight(64).longValue(), ArithmeticUtils.unsignedMultiplyHigh(a, b),
+                    () -> a + " * " + b);
+            }
+        }
+    }
+
+    @Test
+    void testRemainder128() {
+        final UniformRandomProvider rng = RandomSource.SPLIT_MIX_64.create();
+        // High part close to the divisor: the quotient digit estimate exceeds 32-bits
+        final long m1 = Long.MIN_VALUE + 0xffff_ffffL;
+        for (final long hi : new long[] {m1 - 1, m1 - 0xffff_ffffL, Long.MIN_VALUE}) {
+            for (final long lo : new long[] {0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, rng.nextLong()}) {
+                assertRemainder128(hi, lo, m1);
+            }
+        }
+        for (int i = 0; i < 5000; i++) {
+            // Divisor of any size including unsigned values above 2^63
+            final long m = rng.nextLong() >>> rng.nextInt(64) | 1L << rng.nextInt(64);
+            final long hi = Long.remainderUnsigned(rng.nextLong(), m);
+            assertRemainder128(hi, rng.nextLong(), m);
+        }
+    }
+
+    private static void assertRemainder128(long hi, long lo, long m) {
+        final BigInteger x = toUnsignedBigInteger(hi).shiftLeft(64).add(toUnsignedBigInteger(lo));
+        Assertions.assertEquals(x.mod(toUnsignedBigInteger(m)).longValue(), ArithmeticUtils.remainder128(hi, lo, m),
+            () -> "(" + hi + ", " + lo + ") % " + m);
+    }
 }
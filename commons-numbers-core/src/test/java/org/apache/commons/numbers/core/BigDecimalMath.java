@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Computes elementary functions using {@link BigDecimal} series expansions.
+ *
+ * <p>This class provides reference implementations for the functions in {@link DDMath}.
+ * The methods are tested in {@link DDMathTest}. The result is computed using guard digits
+ * and is expected to be accurate to the requested precision within a few ULP.
+ *
+ * <p><b>Note</b>
+ *
+ * <p>This class is public and has public methods to allow testing within the examples JMH module.
+ *
+ * @since 1.4
+ */
+public final class BigDecimalMath {
+    /** Maximum supported precision. */
+    private static final int MAX_PRECISION = 200;
+    /** Extra digits used for the working precision. */
+    private static final int GUARD = 10;
+    /** Power of 2 scale factor for the argument to the exp Taylor series. */
+    private static final int EXP_SCALE = 8;
+    /** Number of halving reductions applied to the argument for the atan Taylor series. */
+    private static final int ATAN_HALVINGS = 2;
+    /** 0.5. */
+    private static final BigDecimal HALF = new BigDecimal(0.5);
+    /** 2. */
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    /** Precision used for the constants. */
+    private static final MathContext MC_CONSTANTS = new MathContext(2 * MAX_PRECISION);
+    /** log(2). */
+    private static final BigDecimal LN2 = TWO.multiply(atanh(BigDecimal.ONE.divide(BigDecimal.valueOf(3),
+        MC_CONSTANTS), MC_CONSTANTS));
+    /** pi (Machin's formula). */
+    private static final BigDecimal PI = atanInverse(5, MC_CONSTANTS).multiply(BigDecimal.valueOf(16))
+        .subtract(atanInverse(239, MC_CONSTANTS).multiply(BigDecimal.valueOf(4)));
+    /** pi / 2. */
+    private static final BigDecimal PI_OVER_2 = PI.divide(TWO);
+
+    /**
+     * No instances.
+     */
+    private BigDecimalMath() {}
+
+    /**
+     * Compute {@code e^x}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    public static BigDecimal exp(BigDecimal x, MathContext mc) {
+        final MathContext w = working(mc);
+        // x = r + n * log(2)
+        final long n = Math.round(x.doubleValue() / Math.log(2));
+        final BigDecimal r = x.subtract(LN2.multiply(BigDecimal.valueOf(n)), w);
+        // exp(r) = exp(r / 2^k)^(2^k)
+        BigDecimal y = expTaylor(r.divide(BigDecimal.valueOf(1L << EXP_SCALE), w), w);
+        for (int i = 0; i < EXP_SCALE; i++) {
+            y = y.multiply(y, w);
+        }
+        return y.multiply(pow2(n), mc);
+    }
+
+    /**
+     * Compute {@code e^x - 1}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    public static BigDecimal expm1(BigDecimal x, MathContext mc) {
+        final MathContext w = working(mc);
+        if (x.abs().compareTo(BigDecimal.ONE) < 0) {
+            // Taylor series: x + x^2/2! + ...
+            BigDecimal sum = x;
+            BigDecimal term = x;
+            for (int k = 2;; k++) {
+                term = term.multiply(x).divide(BigDecimal.valueOf(k), w);
+                sum = sum.add(term, w);
+                if (isNegligible(term, sum)) {
+                    return sum.round(mc);
+                }
+            }
+        }
+        return exp(x, w).subtract(BigDecimal.ONE, mc);
+    }
+
+    /**
+     * Compute {@code log(x)}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     * @throws ArithmeticException if {@code x <= 0}
+     */
+    public static BigDecimal log(BigDecimal x, MathContext mc) {
+        if (x.signum() <= 0) {
+            throw new ArithmeticException("Non-positive argument: " + x);
+        }
+        final MathContext w = working(mc);
+        // x = f * 2^e with f in [sqrt(0.5), sqrt(2))
+        final double d = x.doubleValue();
+        long e = Math.getExponent(d);
+        if (e < Double.MIN_EXPONENT) {
+            e = Math.getExponent(d * 0x1.0p54) - 54;
+        }
+        // Exact scaling
+        BigDecimal f = x.multiply(pow2(-e));
+        if (f.doubleValue() > Math.sqrt(2)) {
+            f = f.divide(TWO);
+            e++;
+        }
+        // log(f) = 2 * atanh((f - 1) / (f + 1))
+        final BigDecimal z = f.subtract(BigDecimal.ONE).divide(f.add(BigDecimal.ONE), w);
+        return TWO.multiply(atanh(z, w)).add(LN2.multiply(BigDecimal.valueOf(e)), mc);
+    }
+
+    /**
+     * Compute {@code log(1 + x)}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     * @throws ArithmeticException if {@code x <= -1}
+     */
+    public static BigDecimal log1p(BigDecimal x, MathContext mc) {
+        if (x.abs().compareTo(HALF) < 0) {
+            // log(1 + x) = 2 * atanh(x / (2 + x))
+            final MathContext w = working(mc);
+            return TWO.multiply(atanh(x.divide(TWO.add(x), w), w)).round(mc);
+        }
+        // Exact sum
+        return log(BigDecimal.ONE.add(x), mc);
+    }
+
+    /**
+     * Compute {@code sin(x)}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    public static BigDecimal sin(BigDecimal x, MathContext mc) {
+        return sinCos(x, 0, mc);
+    }
+
+    /**
+     * Compute {@code cos(x)}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    public static BigDecimal cos(BigDecimal x, MathContext mc) {
+        return sinCos(x, 1, mc);
+    }
+
+    /**
+     * Compute {@code atan(x)}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    public static BigDecimal atan(BigDecimal x, MathContext mc) {
+        final MathContext w = working(mc);
+        if (x.abs().compareTo(BigDecimal.ONE) > 0) {
+            // atan(x) = sign(x) * pi / 2 - atan(1 / x)
+            final BigDecimal y = atan(BigDecimal.ONE.divide(x, w), w);
+            return x.signum() < 0 ?
+                PI_OVER_2.negate().subtract(y, mc) :
+                PI_OVER_2.subtract(y, mc);
+        }
+        // atan(x) = 2 * atan(x / (1 + sqrt(1 + x^2)))
+        BigDecimal z = x;
+        for (int i = 0; i < ATAN_HALVINGS; i++) {
+            z = z.divide(BigDecimal.ONE.add(sqrt(BigDecimal.ONE.add(z.multiply(z)), w)), w);
+        }
+        return atanTaylor(z, w).multiply(BigDecimal.valueOf(1L << ATAN_HALVINGS), mc);
+    }
+
+    /**
+     * Compute {@code sin(x + q * pi / 2)}.
+     *
+     * @param x Value.
+     * @param q Quadrant offset.
+     * @param mc Math context.
+     * @return the result
+     */
+    private static BigDecimal sinCos(BigDecimal x, int q, MathContext mc) {
+        final MathContext w = working(mc);
+        // x = r + n * pi / 2 using pi with extra digits for cancellation
+        final long n = Math.round(x.doubleValue() / (Math.PI / 2));
+        final BigDecimal r = x.subtract(PI_OVER_2.multiply(BigDecimal.valueOf(n)), MC_CONSTANTS);
+        final int k = (int) ((n + q) & 0x3);
+        // Taylor series: sum (-1)^i x^(2i+o) / (2i+o)!
+        final int o = (k & 0x1) == 0 ? 1 : 0;
+        final BigDecimal r2 = r.multiply(r, w).negate();
+        BigDecimal term = o == 0 ? BigDecimal.ONE : r;
+        BigDecimal sum = term;
+        for (int i = o + 1;; i += 2) {
+            term = term.multiply(r2).divide(BigDecimal.valueOf((long) i * (i + 1)), w);
+            sum = sum.add(term, w);
+            if (isNegligible(term, sum)) {
+                break;
+            }
+        }
+        return k < 2 ? sum.round(mc) : sum.negate(mc);
+    }
+
+    /**
+     * Compute {@code e^x} using the Taylor series.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    private static BigDecimal expTaylor(BigDecimal x, MathContext mc) {
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        for (int k = 1;; k++) {
+            term = term.multiply(x).divide(BigDecimal.valueOf(k), mc);
+            sum = sum.add(term, mc);
+            if (isNegligible(term, sum)) {
+                return sum;
+            }
+        }
+    }
+
+    /**
+     * Compute {@code atanh(x)} using the Taylor series. Assumes {@code |x| < 1}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    private static BigDecimal atanh(BigDecimal x, MathContext mc) {
+        return oddSeries(x, mc, false);
+    }
+
+    /**
+     * Compute {@code atan(x)} using the Taylor series. Assumes {@code |x| < 1}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    private static BigDecimal atanTaylor(BigDecimal x, MathContext mc) {
+        return oddSeries(x, mc, true);
+    }
+
+    /**
+     * Compute {@code atan(1 / n)} using the Taylor series.
+     *
+     * @param n Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    private static BigDecimal atanInverse(int n, MathContext mc) {
+        return atanTaylor(BigDecimal.ONE.divide(BigDecimal.valueOf(n), mc), mc);
+    }
+
+    /**
+     * Compute the series {@code x + x^3/3 + x^5/5 + ...} for {@code atanh(x)}, or with
+     * alternating signs for {@code atan(x)}. Assumes {@code |x| < 1}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @param alternate Set to true to alternate the sign of the series terms (atan).
+     * @return the result
+     */
+    private static BigDecimal oddSeries(BigDecimal x, MathContext mc, boolean alternate) {
+        BigDecimal x2 = x.multiply(x, mc);
+        if (alternate) {
+            x2 = x2.negate();
+        }
+        BigDecimal sum = x;
+        BigDecimal power = x;
+        for (int k = 3;; k += 2) {
+            power = power.multiply(x2, mc);
+            final BigDecimal term = power.divide(BigDecimal.valueOf(k), mc);
+            sum = sum.add(term, mc);
+            if (isNegligible(term, sum)) {
+                return sum;
+            }
+        }
+    }
+
+    /**
+     * Compute {@code sqrt(x)} using Newton's method. Assumes {@code x > 0}.
+     *
+     * @param x Value.
+     * @param mc Math context.
+     * @return the result
+     */
+    private static BigDecimal sqrt(BigDecimal x, MathContext mc) {
+        BigDecimal y = new BigDecimal(Math.sqrt(x.doubleValue()));
+        // Each iteration doubles the number of correct digits
+        for (int digits = 15; digits < 2 * mc.getPrecision(); digits *= 2) {
+            y = y.add(x.divide(y, mc)).divide(TWO, mc);
+        }
+        return y;
+    }
+
+    /**
+     * Compute {@code 2^n}.
+     *
+     * @param n Power.
+     * @return the result
+     */
+    private static BigDecimal pow2(long n) {
+        final int e = Math.toIntExact(n);
+        return e < 0 ?
+            BigDecimal.ONE.divide(new BigDecimal(BigInteger.ONE.shiftLeft(-e))) :
+            new BigDecimal(BigInteger.ONE.shiftLeft(e));
+    }
+
+    /**
+     * Checks if the term is negligible compared to the sum.
+     *
+     * @param term Term.
+     * @param sum Sum (rounded to the working precision).
+     * @return true if negligible
+     */
+    private static boolean isNegligible(BigDecimal term, BigDecimal sum) {
+        return term.signum() == 0 || term.abs().compareTo(sum.ulp()) < 0;
+    }
+
+    /**
+     * Create the working precision for the requested precision.
+     *
+     * @param mc Math context.
+     * @return the working math context
+     * @throws IllegalArgumentException if the precision is above the supported maximum
+     */
+    private static MathContext working(MathContext mc) {
+        final int p = mc.getPrecision();
+        if (p <= 0 || p > MAX_PRECISION) {
+            throw new IllegalArgumentException("Unsupported precision: " + p);
+        }
+        return new MathContext(p + GUARD);
+    }
+}
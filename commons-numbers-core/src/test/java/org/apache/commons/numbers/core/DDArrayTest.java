@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test cases for {@link DDArray}.
+ *
+ * <p>Results are expected to be binary equal to the equivalent {@link DD} operation.
+ */
+class DDArrayTest {
+    @Test
+    void testCreate() {
+        final DDArray a = DDArray.create(3);
+        Assertions.assertEquals(3, a.size());
+        for (int i = 0; i < a.size(); i++) {
+            Assertions.assertEquals(DD.ZERO, a.get(i));
+        }
+        Assertions.assertEquals(0, DDArray.create(0).size());
+        Assertions.assertThrows(NegativeArraySizeException.class, () -> DDArray.create(-1));
+    }
+
+    @Test
+    void testOfDouble() {
+        final double[] values = {1.5, -2.25, Double.NaN};
+        final DDArray a = DDArray.of(values);
+        Assertions.assertEquals(values.length, a.size());
+        for (int i = 0; i < values.length; i++) {
+            Assertions.assertEquals(DD.of(values[i]), a.get(i));
+        }
+        // Values are copied
+        values[0] = 42;
+        Assertions.assertEquals(1.5, a.hi(0));
+    }
+
+    @Test
+    void testOfDD() {
+        final DD[] values = createData(createRNG(), 10);
+        final DDArray a = DDArray.of(values);
+        Assertions.assertArrayEquals(values, a.toArray());
+        for (int i = 0; i < values.length; i++) {
+            Assertions.assertEquals(values[i].hi(), a.hi(i));
+            Assertions.assertEquals(values[i].lo(), a.lo(i));
+            Assertions.assertEquals(values[i], a.get(i));
+        }
+        Assertions.assertArrayEquals(Arrays.stream(values).mapToDouble(DD::doubleValue).toArray(),
+            a.toDoubleArray());
+    }
+
+    @Test
+    void testSet() {
+        final DDArray a = DDArray.create(2);
+        final DD x = DD.ofSum(1.23, 0x1.0p-60);
+        Assertions.assertSame(a, a.set(0, x));
+        Assertions.assertEquals(x, a.get(0));
+        Assertions.assertSame(a, a.set(0, 4.56));
+        Assertions.assertEquals(DD.of(4.56), a.get(0));
+        Assertions.assertEquals(DD.ZERO, a.get(1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> a.set(2, 1.0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> a.get(-1));
+    }
+
+    @Test
+    void testCopy() {
+        final DD[] values = createData(createRNG(), 5);
+        final DDArray a = DDArray.of(values);
+        final DDArray b = a.copy();
+        Assertions.assertNotSame(a, b);
+        Assertions.assertArrayEquals(values, b.toArray());
+        b.set(0, 1.0);
+        Assertions.assertEquals(values[0], a.get(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 100})
+    void testBinaryOperator(int size) {
+        final UniformRandomProvider rng = createRNG();
+        final DD[] x = createData(rng, size);
+        final DD[] y = createData(rng, size);
+        assertBinaryOperator(x, y, DD::add, DDArray::add);
+        assertBinaryOperator(x, y, DD::multiply, DDArray::multiply);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 100})
+    void testScale(int size) {
+        final UniformRandomProvider rng = createRNG();
+        final DD[] x = createData(rng, size);
+        final DD a = createData(rng, 1)[0];
+        assertUnaryOperator(x, v -> v.multiply(a), v -> v.multiply(a));
+        assertUnaryOperator(x, v -> v.multiply(a.hi()), v -> v.multiply(a.hi()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 100})
+    void testSumAndDot(int size) {
+        final UniformRandomProvider rng = createRNG();
+        final DD[] x = createData(rng, size);
+        final DD[] y = createData(rng, size);
+        DD sum = DD.ZERO;
+        DD dot = DD.ZERO;
+        for (int i = 0; i < size; i++) {
+            sum = sum.add(x[i]);
+            dot = dot.add(x[i].multiply(y[i]));
+        }
+        final DDArray a = DDArray.of(x);
+        Assertions.assertEquals(sum, a.sum(), "sum");
+        Assertions.assertEquals(dot, a.dot(DDArray.of(y)), "dot");
+        // Not modified
+        Assertions.assertArrayEquals(x, a.toArray());
+    }
+
+    @Test
+    void testSizeMismatch() {
+        final DDArray a = DDArray.create(3);
+        final DDArray b = DDArray.create(4);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> a.add(b));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> a.multiply(b));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> a.dot(b));
+    }
+
+    @Test
+    void testNonFinite() {
+        final DDArray a = DDArray.of(new double[] {Double.NaN, Double.POSITIVE_INFINITY, 1});
+        final DDArray b = DDArray.of(new double[] {1, 1, Double.NEGATIVE_INFINITY});
+        Assertions.assertTrue(Double.isNaN(a.dot(b).hi()));
+        Assertions.assertTrue(Double.isNaN(a.sum().hi()));
+        final DD[] x = a.toArray();
+        final DD[] y = b.toArray();
+        assertBinaryOperator(x, y, DD::add, DDArray::add);
+        assertBinaryOperator(x, y, DD::multiply, DDArray::multiply);
+    }
+
+    private static void assertBinaryOperator(DD[] x, DD[] y, BinaryOperator<DD> ddOp,
+            BinaryOperator<DDArray> arrayOp) {
+        final DDArray a = DDArray.of(x);
+        Assertions.assertSame(a, arrayOp.apply(a, DDArray.of(y)));
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(ddOp.apply(x[i], y[i]), a, i);
+        }
+    }
+
+    private static void assertUnaryOperator(DD[] x, UnaryOperator<DD> ddOp, UnaryOperator<DDArray> arrayOp) {
+        final DDArray a = DDArray.of(x);
+        Assertions.assertSame(a, arrayOp.apply(a));
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(ddOp.apply(x[i]), a, i);
+        }
+    }
+
+    /**
+     * Assert the element of the array is binary equal to the expected value.
+     *
+     * @param expected Expected value.
+     * @param actual Actual array.
+     * @param index Index.
+     */
+    private static void assertEquals(DD expected, DDArray actual, int index) {
+        Assertions.assertEquals(expected.hi(), actual.hi(index), () -> "hi: " + index);
+        Assertions.assertEquals(expected.lo(), actual.lo(index), () -> "lo: " + index);
+    }
+
+    /**
+     * Creates normalized double-double numbers in the range {@code [1, 2)} with a random sign
+     * and a random scale in {@code [2^-10, 2^10]}.
+     *
+     * @param rng Source of randomness.
+     * @param size Number of values.
+     * @return the double-double numbers
+     */
+    private static DD[] createData(UniformRandomProvider rng, int size) {
+        final DD[] data = new DD[size];
+        for (int i = 0; i < size; i++) {
+            final long bits = rng.nextLong();
+            final double x = Double.longBitsToDouble((1023L << 52) | (bits >>> 12) | (bits << 63));
+            // Round-off in +/- [0.25, 0.5) ULP
+            final double xx = 0x1.0p-54 * Math.copySign(1 + rng.nextDouble(), rng.nextInt());
+            data[i] = DD.of(x, xx).scalb(rng.nextInt(-10, 11));
+        }
+        return data;
+    }
+
+    /**
+     * Creates the source of randomness.
+     *
+     * @return the RNG
+     */
+    private static UniformRandomProvider createRNG() {
+        return RandomSource.SPLIT_MIX_64.create();
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test cases for the decimal string conversion of {@link DD} using {@link DDDecimal}.
+ *
+ * <p>Results are compared to a reference conversion using {@link BigDecimal}.
+ */
+class DDDecimalTest {
+    /** Number of random samples. */
+    private static final int SAMPLES = 1000;
+    /** Maximum number of significant digits used when parsing. */
+    private static final int MAX_DIGITS = 36;
+    /** Maximum number of significant digits required for a unique representation. */
+    private static final int MAX_FORMAT_DIGITS = 34;
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY})
+    void testToDecimalStringNonFiniteOrZero(double x) {
+        final String s = Double.toString(x);
+        Assertions.assertEquals(s, DD.of(x).toDecimalString());
+        final DD dd = DD.parse(s);
+        Assertions.assertEquals(Double.doubleToLongBits(x), Double.doubleToLongBits(dd.hi()));
+        Assertions.assertEquals(0, dd.lo());
+    }
+
+    @Test
+    void testToDecimalStringNonFiniteParts() {
+        Assertions.assertEquals("NaN", DD.of(1, Double.NaN).toDecimalString());
+        Assertions.assertEquals("Infinity", DD.of(1, Double.POSITIVE_INFINITY).toDecimalString());
+        Assertions.assertEquals("-Infinity", DD.of(Double.NEGATIVE_INFINITY, 1).toDecimalString());
+        Assertions.assertEquals("0.0", DD.of(1.5, -1.5).toDecimalString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        // Plain
+        "1.0", "-1.0", "0.1", "0.5", "123.456", "0.001", "-0.00123", "9999999.0",
+        "1234567.0", "100.0", "1.0000000000000000000000000000001",
+        "3.1415926535897932384626433832795",
+        "-0.001000000000000000000000000000001",
+        // Scientific
+        "1.0E7", "1.0E-4", "9.999E-4", "-1.23E-300", "4.5E307", "1.0E-320", "-5.0E-324",
+        "1.7976931348623157E308", "2.71828182845904523536028747135266E100",
+    })
+    void testToDecimalStringLayout(String s) {
+        final DD x = DD.parse(s);
+        Assertions.assertEquals(expected(new BigDecimal(s)), x);
+        Assertions.assertEquals(s, x.toDecimalString());
+    }
+
+    @Test
+    void testToDecimalStringDouble() {
+        Assertions.assertEquals("0.100000000000000005551115123125783", DD.of(0.1).toDecimalString());
+        Assertions.assertEquals("1.0E10", DD.of(1e10).toDecimalString());
+        Assertions.assertEquals("5.0E-324", DD.of(Double.MIN_VALUE).toDecimalString());
+        Assertions.assertEquals("1.79769313486231570814527423731704E308", DD.of(Double.MAX_VALUE).toDecimalString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "", " ", "-", "+", ".", "-.", "e1", ".e1", "1e", "1e+", "1e-", "1.2.3", "1x", "--1", "+-1",
+        "1 2", "1e1.5", "1e5x", "0x1p3", "(", "()", "(1)", "(1,2", "1,2)", "(1;2)", "(1,2,3)", "(a,1)", "(1,b)",
+    })
+    void testParseInvalid(String s) {
+        Assertions.assertThrows(NumberFormatException.class, () -> DD.parse(s));
+    }
+
+    @Test
+    void testParseNull() {
+        Assertions.assertThrows(NullPointerException.class, () -> DD.parse(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "NaN", "+NaN", "-NaN", "Infinity", "+Infinity", "-Infinity", " Infinity\t",
+    })
+    void testParseNonFinite(String s) {
+        final DD x = DD.parse(s);
+        Assertions.assertEquals(Double.doubleToLongBits(Double.parseDouble(s)), Double.doubleToLongBits(x.hi()));
+        Assertions.assertEquals(0, x.lo());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0", "-0", "+0", "0.0", "-0.0", ".0", "0.", "000.000", "0e10", "-0E-10", "0e999999999999",
+        "1e-400", "-1e-400", "2.4e-324", "-2.4703282292062327e-324", "0.00001e-320", "1e-999999999999",
+    })
+    void testParseZero(String s) {
+        final DD x = DD.parse(s);
+        Assertions.assertTrue(x.hi() == 0 && x.lo() == 0, () -> x.toString());
+        Assertions.assertEquals(s.trim().startsWith("-"), Double.doubleToLongBits(x.hi()) < 0, "sign");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "1e309", "-1e309", "1.8e308", "1e400", "1e999999999999", "100000e304",
+        "1.7976931348623158079372897140530342e308",
+    })
+    void testParseInfinite(String s) {
+        final DD x = DD.parse(s);
+        Assertions.assertEquals(s.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY, x.hi());
+        Assertions.assertEquals(0, x.lo());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "1", "+1", "-1", " 1.5 ", "1.", ".5", "-.5", "1e5", "1E+5", "1e-5", "00012.5000",
+        "0.000123", "123456789012345678", "1234567890123456789",
+        "123456789012345678901234567890123456",
+        "0.123456789012345678901234567890123456",
+        "1.797693134862315807937289714053034150e308",
+        "1.797693134862315708145274237317043567e308",
+        "2.4703282292062328e-324", "4.9e-324", "5e-324", "7.4e-324",
+        "2.225073858507201e-308", "2.2250738585072014e-308", "2.2250738585072011e-308",
+        "1.1125369292536007e-308", "1e-310", "1.23456789e-315",
+        "9007199254740993", "81129638414606681695789005144065",
+        "81129638414606681695789005144063", "81129638414606681695789005144064",
+        "0.1", "0.2", "0.3", "1e23", "8.41e21", "5e-1", "1e-22", "1e22",
+    })
+    void testParse(String s) {
+        Assertions.assertEquals(expected(new BigDecimal(s.trim())), DD.parse(s));
+    }
+
+    @Test
+    void testParseParts() {
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            // Not normalized
+            final DD x = DD.of(randomDouble(rng), randomDouble(rng));
+            final DD y = DD.parse(x.toString());
+            Assertions.assertEquals(Double.doubleToLongBits(x.hi()), Double.doubleToLongBits(y.hi()));
+            Assertions.assertEquals(Double.doubleToLongBits(x.lo()), Double.doubleToLongBits(y.lo()));
+        }
+        Assertions.assertEquals(DD.of(1.5, -0.25), DD.parse(" ( 1.5 , -0.25 ) "));
+        final DD nan = DD.parse("(NaN,NaN)");
+        Assertions.assertTrue(Double.isNaN(nan.hi()));
+        Assertions.assertTrue(Double.isNaN(nan.lo()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 17, 18, 19, 25, 34, 36})
+    void testParseRandom(int digits) {
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            final String s = randomDecimal(rng, digits, rng.nextInt(-360, 330));
+            Assertions.assertEquals(expected(new BigDecimal(s)), DD.parse(s), s);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {37, 40, 60})
+    void testParseTruncated(int digits) {
+        final UniformRandomProvider rng = createRNG();
+        final MathContext mc = new MathContext(MAX_DIGITS, RoundingMode.DOWN);
+        for (int i = 0; i < SAMPLES; i++) {
+            final String s = randomDecimal(rng, digits, rng.nextInt(-360, 330));
+            // Digits after the limit are ignored
+            Assertions.assertEquals(expected(new BigDecimal(s).round(mc)), DD.parse(s), s);
+        }
+    }
+
+    @Test
+    void testParseLeadingZeros() {
+        final String digits = "123456789012345678901234567890123456789";
+        for (int i = 0; i < 50; i++) {
+            final StringBuilder sb = new StringBuilder("0.");
+            for (int j = 0; j < i; j++) {
+                sb.append('0');
+            }
+            final String s = sb.append(digits).toString();
+            Assertions.assertEquals(DD.parse(digits + "e-" + (i + digits.length())), DD.parse(s), s);
+            Assertions.assertEquals(DD.parse(s), DD.parse("000" + s + "e0"), s);
+        }
+    }
+
+    @Test
+    void testRoundTripSpecialCases() {
+        final double u = Math.ulp(1.0);
+        assertRoundTrip(DD.of(1));
+        assertRoundTrip(DD.of(Double.MIN_VALUE));
+        assertRoundTrip(DD.of(Double.MIN_NORMAL));
+        assertRoundTrip(DD.of(Double.MAX_VALUE));
+        assertRoundTrip(DD.of(-Double.MAX_VALUE));
+        assertRoundTrip(DD.of(Double.MAX_VALUE, -Math.ulp(Double.MAX_VALUE) / 4));
+        assertRoundTrip(DD.of(0x1.0p-1000, Double.MIN_VALUE));
+        assertRoundTrip(DD.of(0x1.0p-969, Double.MIN_VALUE));
+        assertRoundTrip(DD.of(0x1.0p-969, -Double.MIN_VALUE));
+        // Low part on the rounding boundary of the high part
+        assertRoundTrip(DD.of(1, u / 2));
+        assertRoundTrip(DD.of(1, -u / 4));
+        assertRoundTrip(DD.ofSum(1 + u, u / 2));
+        assertRoundTrip(DD.ofSum(2 - u, -u / 2));
+        assertRoundTrip(DD.of(0x1.0p100, 0x1.0p47));
+        assertRoundTrip(DD.of(0x1.0p100, -0x1.0p46));
+        // Low part at the limit of the precision
+        assertRoundTrip(DD.of(1, 0x1.0p-106));
+        assertRoundTrip(DD.of(1, -0x1.0p-106));
+        assertRoundTrip(DD.of(1, u / 2 - 0x1.0p-106));
+        assertRoundTrip(DD.of(Math.PI, 0x1.0p-105));
+        assertRoundTrip(DD.of(2).sqrt());
+        assertRoundTrip(DD.of(3).reciprocal());
+        // Power of 10 estimate requires correction
+        assertRoundTrip(DD.parse("1e43"));
+        // Shortest candidate is uncertain and must be verified
+        assertRoundTrip(DD.ofSum(4.177410186E42, 3.024100361085118E26));
+        assertRoundTrip(DD.of(3.3227014900009E40, -2.1536074994036775E24));
+        assertRoundTrip(DD.ofSum(0x1.8c538d9d4f5f1p111, 0x1.4cf67b727a71ap56));
+        assertRoundTrip(DD.ofSum(0x1.fec545a727c6bp109, 0x1.785089bb4aa31p55));
+        // Uncertain candidate is parsed with a different high part
+        assertRoundTrip(DD.ofSum(0x1.d5bed6a27ad8dp108, -0x1.fffffffffffffp54));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // n, s, t, expected
+        "2, 0.25, 0, 0",
+        "2, 0.75, 0, 1",
+        "2, -0.75, 0, -1",
+        // Ties
+        "2, 0.5, 0, 0",
+        "3, 0.5, 0, 1",
+        "2, 0.5, 1e-20, 1",
+        "3, 0.5, -1e-20, 0",
+        "2, -0.5, 0, 0",
+        "3, -0.5, 0, -1",
+        "2, -0.5, -1e-20, -1",
+        "3, -0.5, 1e-20, 0",
+    })
+    void testRoundingIncrement(double n, double s, double t, double expected) {
+        Assertions.assertEquals(expected, DDDecimal.roundingIncrement(n, s, t, 1));
+        Assertions.assertEquals(expected, DDDecimal.roundingIncrement(n, s * 0x1.0p-60, t * 0x1.0p-60, 0x1.0p-60));
+    }
+
+    @Test
+    void testRoundTripDouble() {
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            assertRoundTrip(DD.of(randomDouble(rng)));
+            assertRoundTrip(DD.of(rng.nextDouble()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1074, 40, 10})
+    void testRoundTrip(int range) {
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            final double hi = Math.scalb(rng.nextDouble(1, 2), rng.nextInt(-range, range)) *
+                (rng.nextBoolean() ? 1 : -1);
+            // Random low part at 107-bit precision
+            final double g = Math.max(Math.ulp(hi) * 0x1.0p-54, Double.MIN_VALUE);
+            final DD x = DD.ofSum(hi, (rng.nextLong() >> 10) * g);
+            if (x.isFinite()) {
+                assertRoundTrip(x);
+            }
+        }
+    }
+
+    @Test
+    void testRoundTripDecimal() {
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            // Short decimals should be recovered
+            final String s = randomDecimal(rng, rng.nextInt(1, 20), rng.nextInt(-300, 300));
+            final DD x = DD.parse(s);
+            assertRoundTrip(x);
+            Assertions.assertEquals(0, new BigDecimal(s).compareTo(new BigDecimal(x.toDecimalString())),
+                () -> s + " : " + x.toDecimalString());
+        }
+    }
+
+    @Test
+    void testRoundTripPrecisionLimit() {
+        // Values with a low part not representable at 107-bit precision are rounded
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            final DD x = DD.ofSum(rng.nextDouble(1, 2), Math.scalb(rng.nextDouble(-1, 1), -rng.nextInt(54, 120)));
+            final DD y = expected(x.bigDecimalValue());
+            final String s = x.toDecimalString();
+            Assertions.assertEquals(y.toDecimalString(), s);
+            Assertions.assertEquals(y, DD.parse(s));
+        }
+    }
+
+    /**
+     * Assert the decimal string of the number is the shortest string that can be parsed
+     * to the same number, and the closest to the number if more than one exists.
+     *
+     * @param x Number.
+     */
+    private static void assertRoundTrip(DD x) {
+        final String s = x.toDecimalString();
+        Assertions.assertEquals(x, DD.parse(s), () -> x + " : " + s);
+        final BigDecimal v = x.bigDecimalValue();
+        final BigDecimal d = new BigDecimal(s);
+        Assertions.assertEquals(x, expected(d), () -> x + " : " + s);
+        final int n = d.stripTrailingZeros().precision();
+        Assertions.assertTrue(n <= MAX_FORMAT_DIGITS, () -> "Too many digits: " + s);
+        if (n > 1) {
+            // Shorter decimals must not represent the value
+            final BigDecimal lower = v.round(new MathContext(n - 1, RoundingMode.FLOOR));
+            final BigDecimal upper = v.round(new MathContext(n - 1, RoundingMode.CEILING));
+            Assertions.assertNotEquals(x, expected(lower), () -> "Shorter: " + lower + " : " + s);
+            Assertions.assertNotEquals(x, expected(upper), () -> "Shorter: " + upper + " : " + s);
+        }
+        // Closest
+        final BigDecimal closest = v.round(new MathContext(n, RoundingMode.HALF_DOWN));
+        if (x.equals(expected(closest))) {
+            Assertions.assertEquals(0, closest.compareTo(d), () -> "Not closest: " + closest + " : " + s);
+        }
+    }
+
+    /**
+     * Compute the expected double-double number rounded to 107-bit precision.
+     * The high part is the closest double and the low part is the remainder rounded
+     * to a multiple of 2^-54 ulp(hi).
+     *
+     * @param bd Value.
+     * @return the double-double
+     */
+    private static DD expected(BigDecimal bd) {
+        final double z = bd.doubleValue();
+        if (Double.isInfinite(z)) {
+            return DD.of(z);
+        }
+        final BigDecimal g = new BigDecimal(Math.max(Math.ulp(z) * 0x1.0p-54, Double.MIN_VALUE));
+        final double lo = bd.subtract(new BigDecimal(z)).divide(g).setScale(0, RoundingMode.HALF_EVEN)
+            .doubleValue() * g.doubleValue();
+        final double s = z + lo;
+        // Normalize
+        return s != z && Double.isFinite(s) ? DD.ofSum(z, lo) : DD.of(z, lo);
+    }
+
+    /**
+     * Create a random decimal string with the given number of significant digits.
+     * The decimal point is placed at a random position and the exponent adjusted
+     * so that the first digit has the specified base 10 exponent.
+     *
+     * @param rng Source of randomness.
+     * @param digits Number of digits.
+     * @param exp Base 10 exponent of the first digit.
+     * @return the string
+     */
+    private static String randomDecimal(UniformRandomProvider rng, int digits, int exp) {
+        final StringBuilder sb = new StringBuilder(digits + 10);
+        if (rng.nextBoolean()) {
+            sb.append('-');
+        }
+        // Number of digits before the decimal point
+        final int point = rng.nextInt(1, digits + 1);
+        sb.append((char) ('1' + rng.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            if (i == point) {
+                sb.append('.');
+            }
+            sb.append((char) ('0' + rng.nextInt(10)));
+        }
+        if (point == digits) {
+            sb.append('.');
+        }
+        return sb.append('e').append(exp - point + 1).toString();
+    }
+
+    /**
+     * Create a random finite double from a random bit pattern.
+     *
+     * @param rng Source of randomness.
+     * @return the double
+     */
+    private static double randomDouble(UniformRandomProvider rng) {
+        double x;
+        do {
+            x = Double.longBitsToDouble(rng.nextLong());
+        } while (!Double.isFinite(x));
+        return x;
+    }
+
+    /**
+     * Creates the source of randomness.
+     *
+     * @return the RNG
+     */
+    private static UniformRandomProvider createRNG() {
+        return RandomSource.SPLIT_MIX_64.create();
+    }
+}
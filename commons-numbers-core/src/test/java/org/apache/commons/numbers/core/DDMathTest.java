@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.function.BiFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test cases for the elementary functions in {@link DDMath}.
+ * The reference results are computed using {@link BigDecimalMath}.
+ */
+class DDMathTest {
+    /** Precision for the reference result. */
+    private static final MathContext MC = new MathContext(50);
+    /** Number of random samples. */
+    private static final int SAMPLES = 100;
+    /** Relative error of a double-double number: 2^-106. */
+    private static final double EPS = 0x1.0p-106;
+    /** Tolerance of the functions (4 eps). */
+    private static final double TOLERANCE = 4 * EPS;
+
+    /**
+     * Test the BigDecimal reference functions against known values.
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {-3.75, -1.25, -0.5, -0x1.0p-30, 0x1.0p-30, 0.25, 1, 2.5, 10, 123.5})
+    void testReference(double x) {
+        final BigDecimal bx = new BigDecimal(x);
+        assertReference(Math::exp, BigDecimalMath::exp, bx, "exp");
+        assertReference(Math::expm1, BigDecimalMath::expm1, bx, "expm1");
+        assertReference(Math::sin, BigDecimalMath::sin, bx, "sin");
+        assertReference(Math::cos, BigDecimalMath::cos, bx, "cos");
+        assertReference(Math::atan, BigDecimalMath::atan, bx, "atan");
+        if (x > 0) {
+            assertReference(Math::log, BigDecimalMath::log, bx, "log");
+        }
+        if (x > -1) {
+            assertReference(Math::log1p, BigDecimalMath::log1p, bx, "log1p");
+        }
+        // Identities
+        final BigDecimal y = BigDecimalMath.log1p(BigDecimalMath.expm1(bx, MC), MC);
+        Assertions.assertTrue(bx.subtract(y).abs().compareTo(bx.abs().movePointLeft(45)) < 0, "log1p(expm1(x))");
+    }
+
+    private static void assertReference(DoubleUnaryOperator fun, BiFunction<BigDecimal, MathContext, BigDecimal> ref,
+            BigDecimal x, String name) {
+        final double expected = fun.applyAsDouble(x.doubleValue());
+        final double actual = ref.apply(x, MC).doubleValue();
+        // Math functions are within 1 ULP
+        Assertions.assertEquals(expected, actual, Math.ulp(expected), () -> name + "(" + x + ")");
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testExp(double x, double xx) {
+        assertFunction(DDMath::exp, BigDecimalMath::exp, x, xx, "exp");
+    }
+
+    static Stream<Arguments> testExp() {
+        final UniformRandomProvider rng = createRNG();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        addUniform(builder, rng, -1, 1);
+        addUniform(builder, rng, -20, 20);
+        // Limit to a result with a normal low part
+        addUniform(builder, rng, -660, 709.5);
+        addScaled(builder, rng, -60, -1);
+        // Values close to multiples of log(2)
+        for (int m = -3; m <= 3; m++) {
+            addUniform(builder, rng, m * Math.log(2) - 0x1.0p-20, m * Math.log(2) + 0x1.0p-20);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testExpEdgeCases() {
+        assertEdgeCase(DDMath::exp, Double.NaN, Double.NaN);
+        assertEdgeCase(DDMath::exp, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        assertEdgeCase(DDMath::exp, Double.NEGATIVE_INFINITY, 0.0);
+        assertEdgeCase(DDMath::exp, 710, Double.POSITIVE_INFINITY);
+        assertEdgeCase(DDMath::exp, -746, 0.0);
+        assertEdgeCase(DDMath::exp, 0.0, 1.0);
+        assertEdgeCase(DDMath::exp, -0.0, 1.0);
+        // Result close to the overflow and underflow limits
+        Assertions.assertEquals(Math.exp(709.78), DDMath.exp(DD.of(709.78)).hi(), Math.ulp(Math.exp(709.78)));
+        Assertions.assertEquals(Math.exp(-745), DDMath.exp(DD.of(-745)).hi());
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testExpm1(double x, double xx) {
+        assertFunction(DDMath::expm1, BigDecimalMath::expm1, x, xx, "expm1");
+    }
+
+    static Stream<Arguments> testExpm1() {
+        final UniformRandomProvider rng = createRNG();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        addUniform(builder, rng, -1, 1);
+        addUniform(builder, rng, -50, 50);
+        addScaled(builder, rng, -500, -1);
+        return builder.build();
+    }
+
+    @Test
+    void testExpm1EdgeCases() {
+        assertEdgeCase(DDMath::expm1, Double.NaN, Double.NaN);
+        assertEdgeCase(DDMath::expm1, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        assertEdgeCase(DDMath::expm1, Double.NEGATIVE_INFINITY, -1.0);
+        assertEdgeCase(DDMath::expm1, 710, Double.POSITIVE_INFINITY);
+        assertEdgeCase(DDMath::expm1, -746, -1.0);
+        assertEdgeCase(DDMath::expm1, 0.0, 0.0);
+        assertEdgeCase(DDMath::expm1, -0.0, -0.0);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLog(double x, double xx) {
+        assertFunction(DDMath::log, BigDecimalMath::log, x, xx, "log");
+    }
+
+    static Stream<Arguments> testLog() {
+        final UniformRandomProvider rng = createRNG();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        addUniform(builder, rng, 0, 1);
+        addUniform(builder, rng, 0.5, 2);
+        addUniform(builder, rng, 1, 1000);
+        addUniform(builder, rng, 1 - 0x1.0p-20, 1 + 0x1.0p-20);
+        for (int i = 0; i < SAMPLES; i++) {
+            final double x = Math.scalb(Math.abs(signedNormalDouble(rng)), rng.nextInt(2098) - 1074);
+            addArguments(builder, rng, x);
+        }
+        // Sub-normal
+        addArguments(builder, rng, Double.MIN_VALUE);
+        addArguments(builder, rng, Double.MAX_VALUE);
+        return builder.build();
+    }
+
+    @Test
+    void testLogEdgeCases() {
+        assertEdgeCase(DDMath::log, Double.NaN, Double.NaN);
+        assertEdgeCase(DDMath::log, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        assertEdgeCase(DDMath::log, Double.NEGATIVE_INFINITY, Double.NaN);
+        assertEdgeCase(DDMath::log, -1, Double.NaN);
+        assertEdgeCase(DDMath::log, 0.0, Double.NEGATIVE_INFINITY);
+        assertEdgeCase(DDMath::log, -0.0, Double.NEGATIVE_INFINITY);
+        assertEdgeCase(DDMath::log, 1.0, 0.0);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testLog1p(double x, double xx) {
+        assertFunction(DDMath::log1p, BigDecimalMath::log1p, x, xx, "log1p");
+    }
+
+    static Stream<Arguments> testLog1p() {
+        final UniformRandomProvider rng = createRNG();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        addUniform(builder, rng, -1, 1);
+        addUniform(builder, rng, -0.5, 0.5);
+        addUniform(builder, rng, 1, 1000);
+        addScaled(builder, rng, -500, -1);
+        return builder.build();
+    }
+
+    @Test
+    void testLog1pEdgeCases() {
+        assertEdgeCase(DDMath::log1p, Double.NaN, Double.NaN);
+        assertEdgeCase(DDMath::log1p, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        assertEdgeCase(DDMath::log1p, Double.NEGATIVE_INFINITY, Double.NaN);
+        assertEdgeCase(DDMath::log1p, -2, Double.NaN);
+        assertEdgeCase(DDMath::log1p, -1, Double.NEGATIVE_INFINITY);
+        assertEdgeCase(DDMath::log1p, 0.0, 0.0);
+        assertEdgeCase(DDMath::log1p, -0.0, -0.0);
+        // 1 + x is exact
+        final DD x = DD.of(-1, 0x1.0p-70);
+        assertFunction(DDMath::log1p, BigDecimalMath::log1p, x.hi(), x.lo(), "log1p");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testSinCos"})
+    void testSin(double x, double xx) {
+        assertFunction(DDMath::sin, BigDecimalMath::sin, x, xx, "sin");
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testSinCos"})
+    void testCos(double x, double xx) {
+        assertFunction(DDMath::cos, BigDecimalMath::cos, x, xx, "cos");
+    }
+
+    static Stream<Arguments> testSinCos() {
+        final UniformRandomProvider rng = createRNG();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        addUniform(builder, rng, -1, 1);
+        addUniform(builder, rng, -10, 10);
+        addUniform(builder, rng, -1e6, 1e6);
+        addScaled(builder, rng, -500, -1);
+        // Values close to multiples of pi / 2
+        for (int j = -4; j <= 4; j++) {
+            addArguments(builder, rng, j * Math.PI / 2);
+        }
+        // cos(x) ~ 3.6e-18 requires pi / 2 to more than 160-bits
+        builder.add(Arguments.of(4.71238898038469, 1.800909906117887E-16));
+        builder.add(Arguments.of(4.71238898038469, 1.8078450663574502E-16));
+        return builder.build();
+    }
+
+    @Test
+    void testSinCosEdgeCases() {
+        for (final double x : new double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertEdgeCase(DDMath::sin, x, Double.NaN);
+            assertEdgeCase(DDMath::cos, x, Double.NaN);
+        }
+        assertEdgeCase(DDMath::sin, 0.0, 0.0);
+        assertEdgeCase(DDMath::sin, -0.0, -0.0);
+        assertEdgeCase(DDMath::cos, 0.0, 1.0);
+        assertEdgeCase(DDMath::cos, -0.0, 1.0);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testAtan(double x, double xx) {
+        assertFunction(DDMath::atan, BigDecimalMath::atan, x, xx, "atan");
+    }
+
+    static Stream<Arguments> testAtan() {
+        final UniformRandomProvider rng = createRNG();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        addUniform(builder, rng, -1, 1);
+        addUniform(builder, rng, -10, 10);
+        addScaled(builder, rng, -500, 500);
+        addArguments(builder, rng, 1);
+        addArguments(builder, rng, -1);
+        return builder.build();
+    }
+
+    @Test
+    void testAtanEdgeCases() {
+        final DD piOver2 = DD.ofSum(Math.PI / 2, 6.123233995736766e-17);
+        assertEdgeCase(DDMath::atan, Double.NaN, Double.NaN);
+        assertEdgeCase(DDMath::atan, 0.0, 0.0);
+        assertEdgeCase(DDMath::atan, -0.0, -0.0);
+        Assertions.assertEquals(piOver2, DDMath.atan(DD.of(Double.POSITIVE_INFINITY)));
+        Assertions.assertEquals(piOver2.negate(), DDMath.atan(DD.of(Double.NEGATIVE_INFINITY)));
+    }
+
+    /**
+     * Add random samples uniformly distributed in the range.
+     *
+     * @param builder Argument builder.
+     * @param rng Source of randomness.
+     * @param lower Lower bound.
+     * @param upper Upper bound.
+     */
+    private static void addUniform(Stream.Builder<Arguments> builder, UniformRandomProvider rng,
+            double lower, double upper) {
+        for (int i = 0; i < SAMPLES; i++) {
+            addArguments(builder, rng, rng.nextDouble(lower, upper));
+        }
+    }
+
+    /**
+     * Add random samples with a random sign and magnitude in {@code [2^lower, 2^upper)}.
+     *
+     * @param builder Argument builder.
+     * @param rng Source of randomness.
+     * @param lower Lower bound on the exponent.
+     * @param upper Upper bound on the exponent.
+     */
+    private static void addScaled(Stream.Builder<Arguments> builder, UniformRandomProvider rng,
+            int lower, int upper) {
+        for (int i = 0; i < SAMPLES; i++) {
+            addArguments(builder, rng, Math.scalb(signedNormalDouble(rng), rng.nextInt(lower, upper)));
+        }
+    }
+
+    /**
+     * Add the value with a random low part.
+     *
+     * @param builder Argument builder.
+     * @param rng Source of randomness.
+     * @param x Value.
+     */
+    private static void addArguments(Stream.Builder<Arguments> builder, UniformRandomProvider rng, double x) {
+        // Low part in +/- 0.5 ULP
+        final DD v = DD.ofSum(x, Math.ulp(x) * (rng.nextDouble() - 0.5));
+        builder.add(Arguments.of(v.hi(), v.lo()));
+    }
+
+    /**
+     * Creates a normalized double in the range {@code [1, 2)} with a random sign.
+     *
+     * @param rng Source of randomness.
+     * @return the double
+     */
+    private static double signedNormalDouble(UniformRandomProvider rng) {
+        final long bits = rng.nextLong();
+        return Double.longBitsToDouble((1023L << 52) | (bits >>> 12) | (bits << 63));
+    }
+
+    /**
+     * Assert the function result is within the tolerance of the reference result.
+     *
+     * @param fun Function.
+     * @param ref Reference function.
+     * @param x High part of the argument.
+     * @param xx Low part of the argument.
+     * @param name Function name.
+     */
+    private static void assertFunction(UnaryOperator<DD> fun, BiFunction<BigDecimal, MathContext, BigDecimal> ref,
+            double x, double xx, String name) {
+        final DD dx = DD.of(x, xx);
+        final DD y = fun.apply(dx);
+        final Supplier<String> msg = () -> String.format("%s(%s,%s)", name, x, xx);
+        // Check normalized
+        Assertions.assertEquals(y.hi(), y.hi() + y.lo(), 0.0, () -> msg.get() + " not normalized");
+        TestUtils.assertEquals(ref.apply(dx.bigDecimalValue(), MC), y, TOLERANCE, msg);
+    }
+
+    /**
+     * Assert the function result for an edge case.
+     *
+     * @param fun Function.
+     * @param x Argument.
+     * @param expected Expected result.
+     */
+    private static void assertEdgeCase(UnaryOperator<DD> fun, double x, double expected) {
+        final DD y = fun.apply(DD.of(x));
+        Assertions.assertEquals(expected, y.hi(), () -> "hi: " + x);
+        if (Double.isFinite(expected)) {
+            Assertions.assertEquals(0.0, y.lo(), () -> "lo: " + x);
+        }
+    }
+
+    /**
+     * Creates the source of randomness.
+     *
+     * @return the RNG
+     */
+    private static UniformRandomProvider createRNG() {
+        return RandomSource.SPLIT_MIX_64.create();
+    }
+}
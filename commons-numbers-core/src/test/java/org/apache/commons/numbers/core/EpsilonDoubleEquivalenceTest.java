@@ -44,6 +44,38 @@ class EpsilonDoubleEquivalenceTest {
         Assertions.assertEquals("Invalid epsilon value: -Infinity", msg);
     }
 
+    @Test
+    void testArrays() {
+        final Precision.DoubleEquivalence cmp = Precision.doubleEquivalenceOfEpsilon(1e-2);
+        // Default methods
+        final Precision.DoubleEquivalence exact = Double::compare;
+
+        final double[] a = {1, 2, 3, 4};
+        final double[] b = {1.005, 2, 3.02, 4};
+        final double[] c = {1, 2, 3};
+        Assertions.assertFalse(cmp.eq(a, b));
+        Assertions.assertEquals(2, cmp.mismatch(a, b));
+        Assertions.assertEquals(1, cmp.countMismatches(a, b));
+        Assertions.assertFalse(exact.eq(a, b));
+        Assertions.assertEquals(0, exact.mismatch(a, b));
+        Assertions.assertEquals(2, exact.countMismatches(a, b));
+
+        b[2] = 3.005;
+        Assertions.assertTrue(cmp.eq(a, b));
+        Assertions.assertEquals(-1, cmp.mismatch(a, b));
+        Assertions.assertEquals(0, cmp.countMismatches(a, b));
+        Assertions.assertTrue(exact.eq(a, a.clone()));
+        Assertions.assertEquals(-1, exact.mismatch(a, a.clone()));
+
+        // Common prefix
+        for (final Precision.DoubleEquivalence eq : new Precision.DoubleEquivalence[] {cmp, exact}) {
+            Assertions.assertFalse(eq.eq(a, c));
+            Assertions.assertEquals(3, eq.mismatch(a, c));
+            Assertions.assertEquals(3, eq.mismatch(c, a));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> eq.countMismatches(a, c));
+        }
+    }
+
     @Test
     void testSignum() {
         // arrange
@@ -147,6 +179,26 @@ class EpsilonDoubleEquivalenceTest {
         Assertions.assertEquals(1, cmp.compare(Double.NaN, Double.NEGATIVE_INFINITY));
     }
 
+    @Test
+    void testEq_NaN() {
+        final Precision.DoubleEquivalence cmp = Precision.doubleEquivalenceOfEpsilon(1e-6);
+
+        // Equality is consistent with compare
+        Assertions.assertTrue(cmp.eq(Double.NaN, Double.NaN));
+        Assertions.assertFalse(cmp.eq(0, Double.NaN));
+        Assertions.assertFalse(cmp.eq(Double.NaN, 0));
+
+        final double[] a = {1, Double.NaN, 3};
+        final double[] b = {1, Double.NaN, 3 + 1e-7};
+        Assertions.assertTrue(cmp.eq(a, b));
+        Assertions.assertEquals(-1, cmp.mismatch(a, b));
+        Assertions.assertEquals(0, cmp.countMismatches(a, b));
+        b[1] = 2;
+        Assertions.assertFalse(cmp.eq(a, b));
+        Assertions.assertEquals(1, cmp.mismatch(a, b));
+        Assertions.assertEquals(1, cmp.countMismatches(a, b));
+    }
+
     @Test
     void testCompare_infinity() {
         // arrange
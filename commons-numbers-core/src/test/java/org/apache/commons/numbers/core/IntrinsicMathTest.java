@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link IntrinsicMath} class. The same results are expected for
+ * the Java 8 and the Java 9 version of the class.
+ */
+class IntrinsicMathTest {
+    /**
+     * Test the class under test is the Java 9 version when the tests are run using the
+     * Java 9 classes of the multi-release jar. This checks the {@code java9-classes}
+     * build profile.
+     */
+    @Test
+    void testJava9Classes() throws IOException {
+        Assumptions.assumeTrue("java9".equals(System.getProperty("numbers.core.classes")));
+        final String location = IntrinsicMath.class.getProtectionDomain().getCodeSource().getLocation().toString();
+        Assertions.assertTrue(location.endsWith("/classes-java9/"), location);
+        // Class file major version: Java 8 = 52; Java 9 = 53
+        try (DataInputStream in = new DataInputStream(IntrinsicMath.class.getResourceAsStream("IntrinsicMath.class"))) {
+            // Skip the magic number and minor version
+            in.readInt();
+            in.readUnsignedShort();
+            Assertions.assertEquals(53, in.readUnsignedShort());
+        }
+    }
+
+    @Test
+    void testProductLowSpecialCases() {
+        final double[] values = {0.0, -0.0, Double.MIN_VALUE, Double.MIN_NORMAL, 1.0,
+            0x1.0p996, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN};
+        for (final double x : values) {
+            for (final double y : values) {
+                for (final double sx : new double[] {1, -1}) {
+                    final double a = x * sx;
+                    final double xy = a * y;
+                    // The sign of a zero round-off may be different
+                    Assertions.assertEquals(ExtendedPrecision.productLow(a, y, xy), IntrinsicMath.productLow(a, y, xy),
+                        0.0, () -> a + " * " + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testProductLow() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int i = 0; i < 1000; i++) {
+            final double x = Math.scalb(rng.nextDouble() - 0.5, rng.nextInt(-500, 500));
+            final double y = Math.scalb(rng.nextDouble() - 0.5, rng.nextInt(-500, 500));
+            final double xy = x * y;
+            final double expected = new BigDecimal(x).multiply(new BigDecimal(y))
+                .subtract(new BigDecimal(xy)).doubleValue();
+            Assertions.assertEquals(expected, IntrinsicMath.productLow(x, y, xy));
+        }
+    }
+
+    @Test
+    void testUnsignedMultiplyHigh() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final long[] values = {0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, rng.nextLong(), rng.nextLong()};
+        for (final long a : values) {
+            for (final long b : values) {
+                assertUnsignedMultiplyHigh(a, b);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertUnsignedMultiplyHigh(rng.nextLong(), rng.nextLong());
+        }
+    }
+
+    private static void assertUnsignedMultiplyHigh(long a, long b) {
+        final BigInteger p = toUnsignedBigInteger(a).multiply(toUnsignedBigInteger(b));
+        Assertions.assertEquals(p.shiftRight(64).longValue(), IntrinsicMath.unsignedMultiplyHigh(a, b),
+            () -> Long.toUnsignedString(a) + " * " + Long.toUnsignedString(b));
+    }
+
+    private static BigInteger toUnsignedBigInteger(long v) {
+        return new BigInteger(Long.toUnsignedString(v));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.math.BigInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test cases for {@link Montgomery}.
+ */
+class MontgomeryTest {
+    /** Number of random samples for each modulus. */
+    private static final int SAMPLES = 500;
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, -1, -3, Long.MIN_VALUE})
+    void testOfThrowsNonPositive(long m) {
+        Assertions.assertThrows(ArithmeticException.class, () -> Montgomery.of(m));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {2, 4, 1024, Long.MAX_VALUE - 1})
+    void testOfThrowsEven(long m) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Montgomery.of(m));
+    }
+
+    @Test
+    void testPowThrows() {
+        final Montgomery mod = Montgomery.of(7);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mod.pow(1, -1));
+        final IllegalArgumentException ex =
+            Assertions.assertThrows(IllegalArgumentException.class, () -> mod.powMod(1, -1));
+        // Same message as ArithmeticUtils
+        final IllegalArgumentException expected =
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ArithmeticUtils.powMod(1, -1, 7));
+        Assertions.assertEquals(expected.getMessage(), ex.getMessage());
+    }
+
+    @Test
+    void testModulusOne() {
+        final Montgomery mod = Montgomery.of(1);
+        Assertions.assertEquals(1, mod.getModulus());
+        Assertions.assertEquals(0, mod.toMontgomery(42));
+        Assertions.assertEquals(0, mod.mulMod(3, 5));
+        Assertions.assertEquals(0, mod.powMod(3, 0));
+        Assertions.assertEquals(0, mod.powMod(3, 5));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testConversion(long m) {
+        final Montgomery mod = Montgomery.of(m);
+        Assertions.assertEquals(m, mod.getModulus());
+        final BigInteger bm = BigInteger.valueOf(m);
+        final BigInteger r = BigInteger.ONE.shiftLeft(64).mod(bm);
+        final UniformRandomProvider rng = RandomSource.SPLIT_MIX_64.create();
+        for (int i = 0; i < SAMPLES; i++) {
+            final long a = rng.nextLong();
+            final long x = mod.toMontgomery(a);
+            Assertions.assertEquals(BigInteger.valueOf(a).multiply(r).mod(bm).longValue(), x);
+            Assertions.assertEquals(Math.floorMod(a, m), mod.fromMontgomery(x));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testConversion"})
+    void testArithmetic(long m) {
+        final Montgomery mod = Montgomery.of(m);
+        final BigInteger bm = BigInteger.valueOf(m);
+        final UniformRandomProvider rng = RandomSource.SPLIT_MIX_64.create();
+        for (int i = 0; i < SAMPLES; i++) {
+            final long a = rng.nextLong();
+            final long b = rng.nextLong();
+            final long e = rng.nextLong() >>> rng.nextInt(1, 64);
+            final BigInteger ba = BigInteger.valueOf(a);
+            final BigInteger bb = BigInteger.valueOf(b);
+            final long ab = ba.multiply(bb).mod(bm).longValue();
+            Assertions.assertEquals(ab, mod.mulMod(a, b), () -> a + " * " + b + " mod " + m);
+            Assertions.assertEquals(ba.modPow(BigInteger.valueOf(e), bm).longValue(), mod.powMod(a, e),
+                () -> a + "^" + e + " mod " + m);
+
+            // Montgomery form
+            final long x = mod.toMontgomery(a);
+            final long y = mod.toMontgomery(b);
+            Assertions.assertEquals(ab, mod.fromMontgomery(mod.multiply(x, y)));
+            Assertions.assertEquals(ba.add(bb).mod(bm).longValue(), mod.fromMontgomery(mod.add(x, y)));
+            Assertions.assertEquals(ba.subtract(bb).mod(bm).longValue(), mod.fromMontgomery(mod.subtract(x, y)));
+            // Same operation in standard form
+            final long a1 = Math.floorMod(a, m);
+            final long b1 = Math.floorMod(b, m);
+            Assertions.assertEquals(ba.add(bb).mod(bm).longValue(), mod.add(a1, b1));
+            Assertions.assertEquals(ba.subtract(bb).mod(bm).longValue(), mod.subtract(a1, b1));
+        }
+    }
+
+    static Stream<Long> testConversion() {
+        return LongStream.of(3, 5, 7, 101, 0xffffffffL, 0x100000001L,
+            (1L << 61) - 1, Long.MAX_VALUE - 2, Long.MAX_VALUE).boxed();
+    }
+}
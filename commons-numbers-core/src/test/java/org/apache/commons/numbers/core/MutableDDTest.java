@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for {@link MutableDD} arithmetic.
+ *
+ * <p>Results are expected to be binary equal to the equivalent {@link DD} operation.
+ */
+class MutableDDTest {
+    /** Number of random samples for arithmetic data. */
+    private static final int SAMPLES = 200;
+
+    @Test
+    void testCreate() {
+        final MutableDD s = MutableDD.create();
+        assertEquals(DD.ZERO, s, "create");
+        assertEquals(DD.of(1.23), MutableDD.of(1.23), "of(double)");
+        final DD x = DD.ofSum(1.23, 0x1.0p-60);
+        assertEquals(x, MutableDD.of(x), "of(DD)");
+    }
+
+    @Test
+    void testSet() {
+        final MutableDD s = MutableDD.create();
+        final DD x = DD.ofSum(1.23, 0x1.0p-60);
+        Assertions.assertSame(s, s.set(x));
+        assertEquals(x, s, "set(DD)");
+        Assertions.assertSame(s, s.set(4.56));
+        assertEquals(DD.of(4.56), s, "set(double)");
+        Assertions.assertSame(s, s.set(MutableDD.of(x)));
+        assertEquals(x, s, "set(MutableDD)");
+    }
+
+    @Test
+    void testConversions() {
+        final DD x = DD.ofSum(1.23, 0x1.0p-60);
+        final MutableDD s = MutableDD.of(x);
+        Assertions.assertEquals(x, s.toDD());
+        Assertions.assertEquals(x.hi(), s.hi());
+        Assertions.assertEquals(x.lo(), s.lo());
+        Assertions.assertEquals(x.doubleValue(), s.getAsDouble());
+        Assertions.assertEquals(x.isFinite(), s.isFinite());
+        Assertions.assertEquals(x.toString(), s.toString());
+        Assertions.assertFalse(MutableDD.of(Double.NaN).isFinite());
+        Assertions.assertFalse(MutableDD.of(Double.POSITIVE_INFINITY).isFinite());
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testUnaryOperator(double x, double xx) {
+        final DD dd = DD.of(x, xx);
+        assertUnaryOperator(dd, DD::negate, MutableDD::negate, "negate");
+        assertUnaryOperator(dd, DD::abs, MutableDD::abs, "abs");
+        assertUnaryOperator(dd, DD::square, MutableDD::square, "square");
+        assertUnaryOperator(dd, DD::sqrt, MutableDD::sqrt, "sqrt");
+        assertUnaryOperator(dd, DD::reciprocal, MutableDD::reciprocal, "reciprocal");
+    }
+
+    static Stream<Arguments> testUnaryOperator() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < SAMPLES; i++) {
+            final DD s = signedNormalDoubleDouble(rng);
+            builder.add(Arguments.of(s.hi(), s.lo()));
+            builder.add(Arguments.of(s.hi() * 0x1.0p-500, s.lo() * 0x1.0p-500));
+            builder.add(Arguments.of(s.hi() * 0x1.0p500, s.lo() * 0x1.0p500));
+        }
+        // Edge cases
+        final double[] values = {Double.NaN, Double.NEGATIVE_INFINITY, -0.0, 0, 1, -1, Double.MIN_VALUE,
+            Double.MIN_NORMAL, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+        for (final double x : values) {
+            builder.add(Arguments.of(x, 0.0));
+            builder.add(Arguments.of(x, -0.0));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testBinaryOperator(double x, double xx, double y, double yy) {
+        final DD a = DD.of(x, xx);
+        final DD b = DD.of(y, yy);
+        assertBinaryOperator(a, b, DD::add, MutableDD::add, MutableDD::add, "add");
+        assertBinaryOperator(a, b, DD::subtract, MutableDD::subtract, MutableDD::subtract, "subtract");
+        assertBinaryOperator(a, b, DD::multiply, MutableDD::multiply, MutableDD::multiply, "multiply");
+        assertBinaryOperator(a, b, DD::divide, MutableDD::divide, MutableDD::divide, "divide");
+        assertDoubleOperator(a, y, DD::add, MutableDD::add, "add(double)");
+        assertDoubleOperator(a, y, DD::subtract, MutableDD::subtract, "subtract(double)");
+        assertDoubleOperator(a, y, DD::multiply, MutableDD::multiply, "multiply(double)");
+        assertDoubleOperator(a, y, DD::divide, MutableDD::divide, "divide(double)");
+        assertEquals(a.add(DD.ofProduct(y, yy)), MutableDD.of(x, xx).addProduct(y, yy), "addProduct");
+    }
+
+    static Stream<Arguments> testBinaryOperator() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = createRNG();
+        final double[] scales = {1, 0x1.0p-1, 0x1.0p-10, 0x1.0p-53, 0x1.0p-100, 0x1.0p10, 0x1.0p53, 0x1.0p100};
+        for (int i = 0; i < SAMPLES; i++) {
+            final DD s = signedNormalDoubleDouble(rng);
+            final DD t = signedNormalDoubleDouble(rng);
+            final double scale = scales[i % scales.length];
+            builder.add(Arguments.of(s.hi(), s.lo(), t.hi() * scale, t.lo() * scale));
+        }
+        // Cancellation
+        final DD s = signedNormalDoubleDouble(rng);
+        builder.add(Arguments.of(s.hi(), s.lo(), -s.hi(), -s.lo()));
+        builder.add(Arguments.of(s.hi(), s.lo(), -s.hi(), s.lo()));
+        // Edge cases
+        final double[] values = {Double.NaN, Double.NEGATIVE_INFINITY, -0.0, 0, 1, Double.MIN_VALUE,
+            Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+        for (final double x : values) {
+            for (final double y : values) {
+                builder.add(Arguments.of(x, 0.0, y, 0.0));
+                builder.add(Arguments.of(x, -0.0, y, -0.0));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test the mutable instance can be used as the argument to its own operation.
+     */
+    @Test
+    void testSelfOperation() {
+        final UniformRandomProvider rng = createRNG();
+        for (int i = 0; i < 10; i++) {
+            final DD x = signedNormalDoubleDouble(rng);
+            MutableDD s = MutableDD.of(x);
+            assertEquals(x.add(x), s.add(s), "add");
+            s = MutableDD.of(x);
+            assertEquals(x.subtract(x), s.subtract(s), "subtract");
+            s = MutableDD.of(x);
+            assertEquals(x.multiply(x), s.multiply(s), "multiply");
+            s = MutableDD.of(x);
+            assertEquals(x.divide(x), s.divide(s), "divide");
+        }
+    }
+
+    /**
+     * Test a chain of operations matches the equivalent immutable computation.
+     */
+    @Test
+    void testChain() {
+        final UniformRandomProvider rng = createRNG();
+        final DD[] a = new DD[50];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = signedNormalDoubleDouble(rng);
+        }
+        final DD x = signedNormalDoubleDouble(rng).multiply(0.5);
+        // Horner's method
+        DD e = DD.ZERO;
+        final MutableDD s = MutableDD.create();
+        for (int i = a.length; --i >= 0;) {
+            e = e.multiply(x).add(a[i]);
+            Assertions.assertSame(s, s.multiply(x).add(a[i]));
+        }
+        assertEquals(e, s, "horner");
+        e = e.square().divide(x).sqrt().reciprocal();
+        s.square().divide(x).sqrt().reciprocal();
+        assertEquals(e, s, "chain");
+    }
+
+    /**
+     * Assert the result of the unary operator.
+     *
+     * @param x Argument.
+     * @param expected Expected operator.
+     * @param actual Actual operator.
+     * @param msg Message prefix.
+     */
+    private static void assertUnaryOperator(DD x,
+            Function<DD, DD> expected, Function<MutableDD, MutableDD> actual, String msg) {
+        final MutableDD s = MutableDD.of(x);
+        Assertions.assertSame(s, actual.apply(s), () -> msg + " did not return this");
+        assertEquals(expected.apply(x), s, msg + " " + x);
+    }
+
+    /**
+     * Assert the result of the binary operator.
+     *
+     * @param x Argument.
+     * @param y Argument.
+     * @param expected Expected operator.
+     * @param actual1 Actual operator.
+     * @param actual2 Actual operator.
+     * @param msg Message prefix.
+     */
+    private static void assertBinaryOperator(DD x, DD y, BiFunction<DD, DD, DD> expected,
+            BiFunction<MutableDD, DD, MutableDD> actual1,
+            BiFunction<MutableDD, MutableDD, MutableDD> actual2, String msg) {
+        final DD e = expected.apply(x, y);
+        MutableDD s = MutableDD.of(x);
+        Assertions.assertSame(s, actual1.apply(s, y), () -> msg + " did not return this");
+        assertEquals(e, s, msg + " " + x + " " + y);
+        s = MutableDD.of(x);
+        final MutableDD t = MutableDD.of(y);
+        Assertions.assertSame(s, actual2.apply(s, t), () -> msg + " did not return this");
+        assertEquals(e, s, msg + " " + x + " " + y);
+        // Argument is unchanged
+        assertEquals(y, t, msg + " argument modified");
+    }
+
+    /**
+     * Assert the result of the binary operator with a {@code double} argument.
+     *
+     * @param x Argument.
+     * @param y Argument.
+     * @param expected Expected operator.
+     * @param actual Actual operator.
+     * @param msg Message prefix.
+     */
+    private static void assertDoubleOperator(DD x, double y, BiFunction<DD, Double, DD> expected,
+            BiFunction<MutableDD, Double, MutableDD> actual, String msg) {
+        final MutableDD s = MutableDD.of(x);
+        Assertions.assertSame(s, actual.apply(s, y), () -> msg + " did not return this");
+        assertEquals(expected.apply(x, y), s, msg + " " + x + " " + y);
+    }
+
+    /**
+     * Assert the parts of the numbers are binary equal.
+     *
+     * @param expected Expected value.
+     * @param actual Actual value.
+     * @param msg Message prefix.
+     */
+    private static void assertEquals(DD expected, MutableDD actual, String msg) {
+        Assertions.assertEquals(expected.hi(), actual.hi(), () -> msg + " hi");
+        Assertions.assertEquals(expected.lo(), actual.lo(), () -> msg + " lo");
+    }
+
+    /**
+     * Creates a source of randomness.
+     *
+     * @return the uniform random provider
+     */
+    private static UniformRandomProvider createRNG() {
+        return RandomSource.SPLIT_MIX_64.create();
+    }
+
+    /**
+     * Creates a normalized double-double in the range {@code [1, 2)} with a random sign.
+     *
+     * @param rng Source of randomness.
+     * @return the double-double
+     */
+    private static DD signedNormalDoubleDouble(UniformRandomProvider rng) {
+        final double x = makeSignedNormalDouble(rng.nextLong());
+        // The roundoff must be < 0.5 ULP of the value.
+        // Generate using +/- [0.25, 0.5) ULP.
+        final double xx = 0x1.0p-54 * makeSignedNormalDouble(rng.nextLong());
+        return DD.of(x, xx);
+    }
+
+    /**
+     * Creates a normalized double in the range {@code [1, 2)} with a random sign.
+     *
+     * @param bits Random bits.
+     * @return the double
+     */
+    private static double makeSignedNormalDouble(long bits) {
+        return Double.longBitsToDouble((1023L << 52) | (bits >>> 12) | (bits << 63));
+    }
+}
@@ -18,10 +18,15 @@ package org.apache.commons.numbers.core;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 /**
  * Test cases for the {@link Precision} class.
@@ -617,6 +622,163 @@ class PrecisionTest {
         Assertions.assertEquals("-0.0", Double.toString(Precision.round(-1e-10, 0)));
     }
 
+    /**
+     * Test the rounding matches rounding of the decimal representation
+     * using BigDecimal. This targets the fast rounding path and the boundary
+     * cases where the decimal representation must be used.
+     */
+    @ParameterizedTest
+    @EnumSource(value = RoundingMode.class, mode = EnumSource.Mode.EXCLUDE, names = {"UNNECESSARY"})
+    void testRoundMatchesBigDecimal(RoundingMode mode) {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int i = 0; i < 20000; i++) {
+            final int scale = rng.nextInt(-3, 26);
+            final double x;
+            switch (i % 4) {
+            case 0:
+                // Random finite value of any magnitude
+                x = Math.scalb(rng.nextDouble() - 0.5, rng.nextInt(-1074, 1024));
+                break;
+            case 1:
+                // Random value in a typical range
+                x = (rng.nextDouble() - 0.5) * Math.pow(10, rng.nextInt(-5, 12));
+                break;
+            case 2:
+                // Decimal value with an extra digit: targets ties for the HALF modes
+                x = (rng.nextLong(-1_000_000_000L, 1_000_000_000L) * 10 + 5) / Math.pow(10, rng.nextInt(1, 12));
+                break;
+            default:
+                // Decimal value close to a rounding boundary (+/- a few ULP)
+                x = nextUp(rng.nextLong(-1_000_000_000L, 1_000_000_000L) / Math.pow(10, rng.nextInt(0, 12)),
+                           rng.nextInt(-3, 4));
+                break;
+            }
+            assertRound(x, scale, mode);
+        }
+        final double[] special = {0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL,
+            Double.MAX_VALUE, -Double.MAX_VALUE, 0.5, -0.5, 1.5, 2.5, 0x1.0p52, 0x1.0p52 + 0.5, -0x1.0p53,
+            4503599627370495.5, 0.29, 1.005, 39.245, 30.095, 50.005, 1e-10, -1e-10, 1e22, 1e23};
+        for (final double x : special) {
+            for (int scale = -3; scale <= 25; scale++) {
+                assertRound(x, scale, mode);
+            }
+        }
+    }
+
+    /**
+     * Move the value by the specified number of ULPs.
+     *
+     * @param x Value.
+     * @param ulps ULPs.
+     * @return the value
+     */
+    private static double nextUp(double x, int ulps) {
+        double y = x;
+        for (int i = 0; i < ulps; i++) {
+            y = Math.nextUp(y);
+        }
+        for (int i = 0; i > ulps; i--) {
+            y = Math.nextDown(y);
+        }
+        return y;
+    }
+
+    private static void assertRound(double x, int scale, RoundingMode mode) {
+        double expected = new BigDecimal(Double.toString(x)).setScale(scale, mode).doubleValue();
+        if (expected == 0) {
+            expected = 0.0 * x;
+        }
+        Assertions.assertEquals(expected, Precision.round(x, scale, mode),
+            () -> "round(" + x + ", " + scale + ", " + mode + ")");
+    }
+
+    @Test
+    void testUlpDistance() {
+        Assertions.assertEquals(0, Precision.ulpDistance(0.0, -0.0));
+        Assertions.assertEquals(0, Precision.ulpDistance(1.5, 1.5));
+        Assertions.assertEquals(1, Precision.ulpDistance(1.0, Math.nextUp(1.0)));
+        Assertions.assertEquals(1, Precision.ulpDistance(1.0, Math.nextDown(1.0)));
+        Assertions.assertEquals(2, Precision.ulpDistance(Double.MIN_VALUE, -Double.MIN_VALUE));
+        Assertions.assertEquals(1, Precision.ulpDistance(Double.MAX_VALUE, Double.POSITIVE_INFINITY));
+        Assertions.assertEquals(Long.MAX_VALUE, Precision.ulpDistance(Double.NaN, Double.NaN));
+        Assertions.assertEquals(Long.MAX_VALUE, Precision.ulpDistance(1, Double.NaN));
+        Assertions.assertEquals(Long.MAX_VALUE, Precision.ulpDistance(Double.NaN, 1));
+        Assertions.assertEquals(Long.MAX_VALUE, Precision.ulpDistance(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+        Assertions.assertEquals(Double.doubleToLongBits(Double.MAX_VALUE),
+            Precision.ulpDistance(0.0, Double.MAX_VALUE));
+
+        // Consistent with equals
+        final double[] values = {0.0, -0.0, 1, -1, 1e-300, -1e-300, Double.MIN_VALUE, -Double.MIN_VALUE,
+            Double.MAX_VALUE, -Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.NaN, Math.nextUp(1.0), Math.nextDown(1.0), 3 * Double.MIN_VALUE};
+        final int[] ulps = {-1, 0, 1, 2, 3, 4, Integer.MAX_VALUE};
+        for (final double x : values) {
+            for (final double y : values) {
+                for (final int maxUlps : ulps) {
+                    Assertions.assertEquals(Precision.equals(x, y, maxUlps), Precision.ulpDistance(x, y) <= maxUlps,
+                        () -> x + " " + y + " " + maxUlps);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testArrayEquals() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        // Lengths to cover the blocks of the mismatch method
+        for (final int n : new int[] {0, 1, 5, 31, 32, 33, 100}) {
+            final double[] x = rng.doubles(n, -10, 10).toArray();
+            final int[] k = rng.ints(n, -2, 3).toArray();
+            final double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                y[i] = nextUp(x[i], k[i]);
+            }
+            final double[] z = Arrays.copyOf(x, n + 1);
+            for (final int maxUlps : new int[] {0, 1, 2}) {
+                int expectedMismatch = -1;
+                int expectedCount = 0;
+                for (int i = 0; i < n; i++) {
+                    if (!Precision.equals(x[i], y[i], maxUlps)) {
+                        expectedCount++;
+                        if (expectedMismatch < 0) {
+                            expectedMismatch = i;
+                        }
+                    }
+                }
+                Assertions.assertEquals(expectedMismatch < 0, Precision.equals(x, y, maxUlps));
+                Assertions.assertEquals(expectedMismatch, Precision.mismatch(x, y, maxUlps));
+                Assertions.assertEquals(expectedCount, Precision.countMismatches(x, y, maxUlps));
+                // Common prefix
+                Assertions.assertFalse(Precision.equals(x, z, maxUlps));
+                Assertions.assertEquals(n, Precision.mismatch(x, z, maxUlps));
+                Assertions.assertEquals(n, Precision.mismatch(z, x, maxUlps));
+                Assertions.assertThrows(IllegalArgumentException.class, () -> Precision.countMismatches(x, z, maxUlps));
+            }
+            final double eps = 1e-15;
+            int expectedMismatch = -1;
+            int expectedCount = 0;
+            for (int i = 0; i < n; i++) {
+                if (!Precision.equals(x[i], y[i], eps)) {
+                    expectedCount++;
+                    if (expectedMismatch < 0) {
+                        expectedMismatch = i;
+                    }
+                }
+            }
+            Assertions.assertEquals(expectedMismatch < 0, Precision.equals(x, y, eps));
+            Assertions.assertEquals(expectedMismatch, Precision.mismatch(x, y, eps));
+            Assertions.assertEquals(expectedCount, Precision.countMismatches(x, y, eps));
+            Assertions.assertFalse(Precision.equals(x, z, eps));
+            Assertions.assertEquals(n, Precision.mismatch(x, z, eps));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Precision.countMismatches(x, z, eps));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Precision.maxUlpDistance(x, z));
+            Assertions.assertEquals(Arrays.stream(k).map(Math::abs).max().orElse(0), Precision.maxUlpDistance(x, y));
+        }
+        Assertions.assertEquals(Long.MAX_VALUE, Precision.maxUlpDistance(new double[] {1, Double.NaN}, new double[] {1, 2}));
+        Assertions.assertEquals(1, Precision.countMismatches(new double[] {1, Double.NaN}, new double[] {1, Double.NaN}, 1));
+        Assertions.assertEquals(1, Precision.mismatch(new double[] {1, Double.NaN}, new double[] {1, Double.NaN}, 1.0));
+    }
+
     @Test
     void testRepresentableDelta() {
         int nonRepresentableCount = 0;
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.BatchSelection;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the selection of the median of each row of a matrix
+ * using a batch selection compared to {@link Selection} on each row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx8192M"})
+public class BatchSelectionPerformance {
+    /** Selection on each row. */
+    private static final String SELECT = "Select";
+    /** Batch selection of rows. */
+    private static final String BATCH = "Batch";
+    /** Parallel batch selection of rows. */
+    private static final String PARALLEL_BATCH = "ParallelBatch";
+    /** Batch selection of segments of a flat array. */
+    private static final String SEGMENTS = "Segments";
+    /** Parallel batch selection of segments of a flat array. */
+    private static final String PARALLEL_SEGMENTS = "ParallelSegments";
+
+    /**
+     * Source of matrix data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Number of rows. */
+        @Param({"1000", "100000"})
+        private int rows;
+        /** Length of each row. */
+        @Param({"10", "50", "500"})
+        private int length;
+
+        /** Data. */
+        private double[] data;
+        /** Working copy of the data as rows. */
+        private double[][] x;
+        /** Working copy of the data as a flat array. */
+        private double[] y;
+
+        /**
+         * @return the rows
+         */
+        public double[][] getRows() {
+            return x;
+        }
+
+        /**
+         * @return the flat data
+         */
+        public double[] getData() {
+            return y;
+        }
+
+        /**
+         * @return the length of each row
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            data = rng.doubles((long) rows * length).toArray();
+            x = new double[rows][length];
+            y = new double[data.length];
+        }
+
+        /**
+         * Reset the working data.
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(data, i * length, x[i], 0, length);
+            }
+            System.arraycopy(data, 0, y, 0, data.length);
+        }
+    }
+
+    /**
+     * Source of the selection method.
+     */
+    @State(Scope.Benchmark)
+    public static class SelectSource {
+        /** Name of the method. */
+        @Param({SELECT, BATCH, PARALLEL_BATCH, SEGMENTS, PARALLEL_SEGMENTS})
+        private String name;
+
+        /**
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Benchmark selection of the median of each row of {@code double} data.
+     *
+     * @param source Source of the data.
+     * @param select Selection method.
+     * @return the data
+     */
+    @Benchmark
+    public Object selectMedian(DataSource source, SelectSource select) {
+        final double[][] a = source.getRows();
+        final int length = source.getLength();
+        // Lower and upper median
+        final int k1 = (length - 1) >> 1;
+        final int k2 = length >> 1;
+        switch (select.getName()) {
+        case SELECT:
+            for (final double[] x : a) {
+                Selection.select(x, new int[] {k1, k2});
+            }
+            return a;
+        case BATCH:
+            BatchSelection.selectRows(a, k1, k2);
+            return a;
+        case PARALLEL_BATCH:
+            BatchSelection.parallelSelectRows(a, k1, k2);
+            return a;
+        case SEGMENTS:
+            BatchSelection.selectSegments(source.getData(), length, k1, k2);
+            return source.getData();
+        case PARALLEL_SEGMENTS:
+            BatchSelection.parallelSelectSegments(source.getData(), length, k1, k2);
+            return source.getData();
+        default:
+            throw new IllegalStateException("Unknown selection: " + select.getName());
+        }
+    }
+}
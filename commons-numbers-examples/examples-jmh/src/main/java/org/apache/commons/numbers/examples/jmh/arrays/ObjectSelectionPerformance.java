@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.ObjectSelection;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the selection of indices in an object array ordered using
+ * a comparator, or a {@code double} key of each element.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx8192M"})
+public class ObjectSelectionPerformance {
+    /** Selection using a comparator. */
+    private static final String COMPARATOR = "Comparator";
+    /** Selection using a key extractor. */
+    private static final String KEY = "Key";
+    /** Selection of the key value from a copy of the keys. This does not reorder the
+     * elements. */
+    private static final String KEY_VALUE = "KeyValue";
+    /** JDK sort using a comparator. */
+    private static final String JDK = "JDK";
+
+    /**
+     * An element with a {@code double} key.
+     */
+    static final class Item {
+        /** Key. */
+        private final double value;
+
+        /**
+         * @param value Key.
+         */
+        Item(double value) {
+            this.value = value;
+        }
+
+        /**
+         * @return the key
+         */
+        double getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Source of array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Length of the data. */
+        @Param({"1000", "100000", "10000000"})
+        private int length;
+        /** Number of indices to select. The indices are uniformly spaced. */
+        @Param({"1", "10"})
+        private int indices;
+
+        /** Data. */
+        private Item[] data;
+        /** Working copy of the data. */
+        private Item[] x;
+        /** Indices. */
+        private int[] k;
+
+        /**
+         * @return the data
+         */
+        public Item[] getData() {
+            return x;
+        }
+
+        /**
+         * @return the indices
+         */
+        public int[] getIndices() {
+            return k.clone();
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            data = rng.doubles(length).mapToObj(Item::new).toArray(Item[]::new);
+            x = new Item[length];
+            k = new int[indices];
+            for (int i = 0; i < indices; i++) {
+                k[i] = (int) ((long) length * (i + 1) / (indices + 1));
+            }
+        }
+
+        /**
+         * Reset the working data.
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            System.arraycopy(data, 0, x, 0, data.length);
+        }
+    }
+
+    /**
+     * Source of the selection method.
+     */
+    @State(Scope.Benchmark)
+    public static class SelectSource {
+        /** Name of the method. */
+        @Param({COMPARATOR, KEY, KEY_VALUE, JDK})
+        private String name;
+
+        /**
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Benchmark selection of the indices of object data.
+     *
+     * @param source Source of the data.
+     * @param select Selection method.
+     * @return the data
+     */
+    @Benchmark
+    public Object select(DataSource source, SelectSource select) {
+        final Item[] a = source.getData();
+        final int[] k = source.getIndices();
+        switch (select.getName()) {
+        case COMPARATOR:
+            ObjectSelection.select(a, k, Comparator.comparingDouble(Item::getValue));
+            return a;
+        case KEY:
+            ObjectSelection.selectByKey(a, k, Item::getValue);
+            return a;
+        case KEY_VALUE:
+            return selectValues(a, k);
+        case JDK:
+            Arrays.sort(a, Comparator.comparingDouble(Item::getValue));
+            return a;
+        default:
+            throw new IllegalStateException("Unknown selection: " + select.getName());
+        }
+    }
+
+    /**
+     * Select the key values at the indices from a copy of the keys.
+     *
+     * @param a Data.
+     * @param k Indices.
+     * @return the values
+     */
+    private static double[] selectValues(Item[] a, int[] k) {
+        final double[] x = new double[a.length];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = a[i].getValue();
+        }
+        return Selection.selectValues(x, k);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the partial sort of the range {@code [ka, kb]} of array data
+ * compared to a full sort using {@link Arrays#sort(double[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx8192M"})
+public class PartialSortPerformance {
+    /** Partial sort. */
+    private static final String PARTIAL = "Partial";
+    /** Selection of the range bounds and a sort of the range. */
+    private static final String SELECT_SORT = "SelectSort";
+    /** JDK sort. */
+    private static final String JDK = "JDK";
+
+    /**
+     * Source of array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Length of the data. */
+        @Param({"1000", "100000", "10000000"})
+        private int length;
+        /** Start of the sorted range as a fraction of the length. */
+        @Param({"0", "0.5", "0.99"})
+        private double start;
+        /** Length of the sorted range as a fraction of the length. */
+        @Param({"0.0001", "0.001", "0.01", "0.1"})
+        private double range;
+
+        /** Data. */
+        private double[] data;
+        /** Working copy of the data. */
+        private double[] x;
+        /** Lower index to sort. */
+        private int ka;
+        /** Upper index to sort. */
+        private int kb;
+
+        /**
+         * @return the data
+         */
+        public double[] getData() {
+            return x;
+        }
+
+        /**
+         * @return the lower index to sort
+         */
+        public int getKa() {
+            return ka;
+        }
+
+        /**
+         * @return the upper index to sort
+         */
+        public int getKb() {
+            return kb;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            data = rng.doubles(length).toArray();
+            x = new double[length];
+            final int m = Math.max(1, (int) (length * range));
+            ka = Math.min((int) (length * start), length - m);
+            kb = ka + m - 1;
+        }
+
+        /**
+         * Reset the working data.
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            System.arraycopy(data, 0, x, 0, data.length);
+        }
+    }
+
+    /**
+     * Source of the sort method.
+     */
+    @State(Scope.Benchmark)
+    public static class SortSource {
+        /** Name of the method. */
+        @Param({PARTIAL, SELECT_SORT, JDK})
+        private String name;
+
+        /**
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Benchmark sorting the range {@code [ka, kb]} of {@code double} data.
+     *
+     * @param source Source of the data.
+     * @param sort Sort method.
+     * @return the data
+     */
+    @Benchmark
+    public double[] partialSort(DataSource source, SortSource sort) {
+        final double[] a = source.getData();
+        final int ka = source.getKa();
+        final int kb = source.getKb();
+        switch (sort.getName()) {
+        case PARTIAL:
+            Selection.partialSort(a, ka, kb);
+            break;
+        case SELECT_SORT:
+            Selection.select(a, new int[] {ka, kb});
+            Arrays.sort(a, ka + 1, kb);
+            break;
+        case JDK:
+            Arrays.sort(a);
+            break;
+        default:
+            throw new IllegalStateException("Unknown sort: " + sort.getName());
+        }
+        return a;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.RadixSort;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the radix sort of array data compared to
+ * {@link Arrays#sort(long[])} and {@link Arrays#parallelSort(long[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx8192M"})
+public class RadixSortPerformance {
+    /** Radix sort. */
+    private static final String RADIX = "Radix";
+    /** Parallel radix sort. */
+    private static final String PARALLEL_RADIX = "ParallelRadix";
+    /** JDK sort. */
+    private static final String JDK = "JDK";
+    /** JDK parallel sort. */
+    private static final String PARALLEL_JDK = "ParallelJDK";
+    /** Message prefix for an unknown sort. */
+    private static final String UNKNOWN_SORT = "Unknown sort: ";
+
+    /**
+     * Source of array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Length of the data. */
+        @Param({"1000", "100000", "10000000", "100000000"})
+        private int length;
+        /** Number of significant bits in the data. Smaller values allow
+         * the radix sort to skip passes. */
+        @Param({"64", "32"})
+        private int bits;
+
+        /** Data. */
+        private long[] data;
+        /** Working copy of the long data. */
+        private long[] x;
+        /** Working copy of the int data. */
+        private int[] y;
+        /** Working copy of the double data. */
+        private double[] z;
+
+        /**
+         * @return the long data
+         */
+        public long[] getLongData() {
+            return x;
+        }
+
+        /**
+         * @return the int data
+         */
+        public int[] getIntData() {
+            return y;
+        }
+
+        /**
+         * @return the double data
+         */
+        public double[] getDoubleData() {
+            return z;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            final int shift = Long.SIZE - bits;
+            data = rng.longs(length).map(v -> v >> shift).toArray();
+            x = new long[length];
+            y = new int[length];
+            z = new double[length];
+        }
+
+        /**
+         * Reset the working data.
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            final long[] a = data;
+            for (int i = 0; i < a.length; i++) {
+                final long v = a[i];
+                x[i] = v;
+                y[i] = (int) v;
+                z[i] = v;
+            }
+        }
+    }
+
+    /**
+     * Source of the sort method.
+     */
+    @State(Scope.Benchmark)
+    public static class SortSource {
+        /** Name of the method. */
+        @Param({RADIX, PARALLEL_RADIX, JDK, PARALLEL_JDK})
+        private String name;
+
+        /**
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Benchmark sorting {@code long} data.
+     *
+     * @param source Source of the data.
+     * @param sort Sort method.
+     * @return the data
+     */
+    @Benchmark
+    public long[] sortLong(DataSource source, SortSource sort) {
+        final long[] a = source.getLongData();
+        switch (sort.getName()) {
+        case RADIX:
+            RadixSort.sort(a);
+            break;
+        case PARALLEL_RADIX:
+            RadixSort.parallelSort(a);
+            break;
+        case JDK:
+            Arrays.sort(a);
+            break;
+        case PARALLEL_JDK:
+            Arrays.parallelSort(a);
+            break;
+        default:
+            throw new IllegalStateException(UNKNOWN_SORT + sort.getName());
+        }
+        return a;
+    }
+
+    /**
+     * Benchmark sorting {@code int} data.
+     *
+     * @param source Source of the data.
+     * @param sort Sort method.
+     * @return the data
+     */
+    @Benchmark
+    public int[] sortInt(DataSource source, SortSource sort) {
+        final int[] a = source.getIntData();
+        switch (sort.getName()) {
+        case RADIX:
+            RadixSort.sort(a);
+            break;
+        case PARALLEL_RADIX:
+            RadixSort.parallelSort(a);
+            break;
+        case JDK:
+            Arrays.sort(a);
+            break;
+        case PARALLEL_JDK:
+            Arrays.parallelSort(a);
+            break;
+        default:
+            throw new IllegalStateException(UNKNOWN_SORT + sort.getName());
+        }
+        return a;
+    }
+
+    /**
+     * Benchmark sorting {@code double} data.
+     *
+     * @param source Source of the data.
+     * @param sort Sort method.
+     * @return the data
+     */
+    @Benchmark
+    public double[] sortDouble(DataSource source, SortSource sort) {
+        final double[] a = source.getDoubleData();
+        switch (sort.getName()) {
+        case RADIX:
+            RadixSort.sort(a);
+            break;
+        case PARALLEL_RADIX:
+            RadixSort.parallelSort(a);
+            break;
+        case JDK:
+            Arrays.sort(a);
+            break;
+        case PARALLEL_JDK:
+            Arrays.parallelSort(a);
+            break;
+        default:
+            throw new IllegalStateException(UNKNOWN_SORT + sort.getName());
+        }
+        return a;
+    }
+}
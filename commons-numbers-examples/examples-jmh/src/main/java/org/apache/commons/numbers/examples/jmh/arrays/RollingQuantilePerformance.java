@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.RollingQuantile;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the rolling median of array data compared to
+ * selection of the median from a copy of each window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx8192M"})
+public class RollingQuantilePerformance {
+    /** Rolling quantile. */
+    private static final String ROLLING = "Rolling";
+    /** Selection from each window. */
+    private static final String SELECT = "Select";
+
+    /**
+     * Source of array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Length of the data. */
+        @Param({"1000000"})
+        private int length;
+        /** Size of the window. */
+        @Param({"11", "101", "1001"})
+        private int window;
+
+        /** Data. */
+        private double[] data;
+
+        /**
+         * @return the data
+         */
+        public double[] getData() {
+            return data;
+        }
+
+        /**
+         * @return the window size
+         */
+        public int getWindow() {
+            return window;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            data = rng.doubles(length).toArray();
+        }
+    }
+
+    /**
+     * Source of the rolling median method.
+     */
+    @State(Scope.Benchmark)
+    public static class MedianSource {
+        /** Name of the method. */
+        @Param({ROLLING, SELECT})
+        private String name;
+
+        /**
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Benchmark the rolling median of {@code double} data.
+     *
+     * @param source Source of the data.
+     * @param median Median method.
+     * @return the medians
+     */
+    @Benchmark
+    public double[] rollingMedian(DataSource source, MedianSource median) {
+        final double[] a = source.getData();
+        final int w = source.getWindow();
+        switch (median.getName()) {
+        case ROLLING:
+            return RollingQuantile.of(w).evaluate(a, 0.5);
+        case SELECT:
+            return selectMedian(a, w);
+        default:
+            throw new IllegalStateException("Unknown median: " + median.getName());
+        }
+    }
+
+    /**
+     * Compute the median of each window by selection from a copy of the window.
+     * Assumes the window size is odd.
+     *
+     * @param a Data.
+     * @param w Window size.
+     * @return the medians
+     */
+    private static double[] selectMedian(double[] a, int w) {
+        final double[] q = new double[a.length - w + 1];
+        final double[] x = new double[w];
+        final int k = w >> 1;
+        for (int i = 0; i < q.length; i++) {
+            System.arraycopy(a, i, x, 0, w);
+            Selection.select(x, k);
+            q[i] = x[k];
+        }
+        return q;
+    }
+}
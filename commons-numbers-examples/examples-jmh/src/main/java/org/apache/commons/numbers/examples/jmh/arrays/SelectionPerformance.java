@@ -23,6 +23,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
@@ -49,6 +50,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -72,6 +74,8 @@ public class SelectionPerformance {
     private static final String HEAP_SELECT = "HeapSelect";
     /** Selection method using a sort. */
     private static final String SORT_SELECT = "SortSelect";
+    /** Selection method using parallel partitioning. */
+    private static final String PARALLEL_SELECT = "ParallelSelect";
 
     // First generation partition functions.
     // These are based on the KthSelector class used in Commons Math:
@@ -2875,6 +2879,93 @@ public class SelectionPerformance {
         }
     }
 
+    /**
+     * Source of data for the parallel selection of indices. The selection is
+     * executed in a fork/join pool with the configured parallelism. This allows
+     * the scaling of the parallel selection to be compared to the sequential
+     * selection on the same data.
+     *
+     * <p>The data is copied before each invocation. JMH recommends that invocations
+     * should take at least 1 millisecond for timings to be usable; the data length
+     * should be large.
+     */
+    @State(Scope.Benchmark)
+    public static class ParallelSource {
+        /** Data length. */
+        @Param({"1000000", "10000000"})
+        private int length;
+        /** Parallelism of the pool. */
+        @Param({"1", "2", "4", "8"})
+        private int threads;
+        /** Number of indices to select. The indices are evenly spaced. */
+        @Param({"1", "10"})
+        private int k;
+        /** Selection method. */
+        @Param({SELECT, PARALLEL_SELECT})
+        private String name;
+        /** RNG seed. */
+        @Param({"-7450238124206088695"})
+        private long seed;
+
+        /** Source data. */
+        private double[] values;
+        /** Data to select from. */
+        private double[] data;
+        /** Indices. */
+        private int[] indices;
+        /** Pool used to execute the selection. */
+        private ForkJoinPool pool;
+        /** The action. */
+        private Runnable action;
+
+        /**
+         * Create the data and the pool.
+         */
+        @Setup
+        public void setup() {
+            Objects.requireNonNull(name);
+            values = RandomSource.XO_SHI_RO_128_PP.create(seed).doubles(length).toArray();
+            indices = new int[k];
+            for (int i = 0; i < k; i++) {
+                indices[i] = (int) ((i + 1L) * length / (k + 1));
+            }
+            pool = new ForkJoinPool(threads);
+            if (name.equals(SELECT)) {
+                action = () -> Selection.select(data, indices.clone());
+            } else if (name.equals(PARALLEL_SELECT)) {
+                action = () -> Selection.parallelSelect(data, indices.clone());
+            } else {
+                throw new IllegalStateException("Unknown parallel selector function: " + name);
+            }
+        }
+
+        /**
+         * Copy the data.
+         */
+        @Setup(Level.Invocation)
+        public void copyData() {
+            data = values.clone();
+        }
+
+        /**
+         * Shutdown the pool.
+         */
+        @TearDown
+        public void teardown() {
+            pool.shutdown();
+        }
+
+        /**
+         * Select the indices in the pool.
+         *
+         * @return the data
+         */
+        double[] select() {
+            pool.submit(action).join();
+            return data;
+        }
+    }
+
     /**
      * Source of an search function. This is a function that find an index
      * in a sorted list of indices, e.g. a binary search.
@@ -3255,4 +3346,16 @@ public class SelectionPerformance {
         }
         bh.consume(interval);
     }
+
+    /**
+     * Benchmark the scaling of the parallel selection of indices with the pool
+     * parallelism.
+     *
+     * @param source Source of the data.
+     * @return the data
+     */
+    @Benchmark
+    public double[] parallelSelect(ParallelSource source) {
+        return source.select();
+    }
 }
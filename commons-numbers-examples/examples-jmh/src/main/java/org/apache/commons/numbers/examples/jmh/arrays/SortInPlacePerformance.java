@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.SortInPlace;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of sorting an array and applying the same reordering
+ * to companion arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx4096M"})
+public class SortInPlacePerformance {
+    /**
+     * Source of {@code double} array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Length of the data. */
+        @Param({"1000", "100000", "10000000"})
+        private int length;
+        /** Number of companion arrays. */
+        @Param({"0", "2"})
+        private int companions;
+
+        /** Keys. */
+        private double[] keys;
+        /** Companion arrays. */
+        private double[][] data;
+
+        /** Working copy of the keys. */
+        private double[] x;
+        /** Working copy of the companion arrays. */
+        private double[][] y;
+
+        /**
+         * @return the keys
+         */
+        public double[] getX() {
+            return x;
+        }
+
+        /**
+         * @return the companion arrays
+         */
+        public double[][] getY() {
+            return y;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            keys = rng.doubles(length).toArray();
+            data = new double[companions][];
+            for (int i = 0; i < companions; i++) {
+                data[i] = rng.doubles(length).toArray();
+            }
+            x = new double[length];
+            y = new double[companions][length];
+        }
+
+        /**
+         * Reset the working data.
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            System.arraycopy(keys, 0, x, 0, length);
+            for (int i = 0; i < companions; i++) {
+                System.arraycopy(data[i], 0, y[i], 0, length);
+            }
+        }
+    }
+
+    /**
+     * Sort using the previous implementation that boxed each key with its index
+     * into an object and sorted a {@link List}.
+     *
+     * @param x Array to be sorted.
+     * @param yList Companion arrays.
+     */
+    static void boxedSort(double[] x, double[]... yList) {
+        final int len = x.length;
+        final List<PairDoubleInteger> list = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            list.add(new PairDoubleInteger(x[i], i));
+        }
+        Collections.sort(list, (o1, o2) -> Double.compare(o1.key, o2.key));
+        final int[] indices = new int[len];
+        for (int i = 0; i < len; i++) {
+            final PairDoubleInteger e = list.get(i);
+            x[i] = e.key;
+            indices[i] = e.value;
+        }
+        for (final double[] yInPlace : yList) {
+            final double[] yOrig = Arrays.copyOf(yInPlace, len);
+            for (int i = 0; i < len; i++) {
+                yInPlace[i] = yOrig[indices[i]];
+            }
+        }
+    }
+
+    /**
+     * Helper data structure holding a (double, integer) pair.
+     */
+    private static class PairDoubleInteger {
+        /** Key. */
+        private final double key;
+        /** Value. */
+        private final int value;
+
+        /**
+         * @param key Key.
+         * @param value Value.
+         */
+        PairDoubleInteger(double key, int value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Benchmark the previous boxed implementation.
+     *
+     * @param source Source of the data.
+     * @return the data
+     */
+    @Benchmark
+    public double[] boxed(DataSource source) {
+        boxedSort(source.getX(), source.getY());
+        return source.getX();
+    }
+
+    /**
+     * Benchmark {@link SortInPlace}.
+     *
+     * @param source Source of the data.
+     * @return the data
+     */
+    @Benchmark
+    public double[] sortInPlace(DataSource source) {
+        SortInPlace.ASCENDING.apply(source.getX(), source.getY());
+        return source.getX();
+    }
+
+    /**
+     * Benchmark {@link Arrays#sort(double[])} of the keys only. This is a lower
+     * bound on the sort time.
+     *
+     * @param source Source of the data.
+     * @return the data
+     */
+    @Benchmark
+    public double[] arraysSort(DataSource source) {
+        Arrays.sort(source.getX());
+        return source.getX();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.arrays.CoSort;
+import org.apache.commons.numbers.arrays.WeightedQuantile;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the weighted quantiles of array data using selection
+ * compared to a sort of the values and weights.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx8192M"})
+public class WeightedQuantilePerformance {
+    /** Weighted selection. */
+    private static final String SELECT = "Select";
+    /** Sort of the values and weights. */
+    private static final String SORT = "CoSort";
+
+    /**
+     * Source of array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Length of the data. */
+        @Param({"100000", "10000000"})
+        private int length;
+        /** Number of quantiles. */
+        @Param({"1", "5"})
+        private int quantiles;
+
+        /** Values. */
+        private double[] values;
+        /** Weights. */
+        private double[] weights;
+        /** Probabilities. */
+        private double[] p;
+
+        /**
+         * @return a copy of the values
+         */
+        public double[] getValues() {
+            return values.clone();
+        }
+
+        /**
+         * @return a copy of the weights
+         */
+        public double[] getWeights() {
+            return weights.clone();
+        }
+
+        /**
+         * @return the probabilities
+         */
+        public double[] getProbabilities() {
+            return p;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            values = rng.doubles(length).toArray();
+            weights = rng.doubles(length).toArray();
+            p = new double[quantiles];
+            for (int i = 0; i < quantiles; i++) {
+                p[i] = (i + 1.0) / (quantiles + 1);
+            }
+        }
+    }
+
+    /**
+     * Source of the weighted quantile method.
+     */
+    @State(Scope.Benchmark)
+    public static class QuantileSource {
+        /** Name of the method. */
+        @Param({SELECT, SORT})
+        private String name;
+
+        /**
+         * @return the name
+         */
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Benchmark the weighted quantiles of {@code double} data.
+     *
+     * @param source Source of the data.
+     * @param quantile Quantile method.
+     * @return the quantiles
+     */
+    @Benchmark
+    public double[] weightedQuantile(DataSource source, QuantileSource quantile) {
+        final double[] x = source.getValues();
+        final double[] w = source.getWeights();
+        final double[] p = source.getProbabilities();
+        switch (quantile.getName()) {
+        case SELECT:
+            return WeightedQuantile.withDefaults().withCopy(false).evaluate(x, w, p);
+        case SORT:
+            return sortQuantiles(x, w, p);
+        default:
+            throw new IllegalStateException("Unknown quantile: " + quantile.getName());
+        }
+    }
+
+    /**
+     * Compute the weighted quantiles by sorting the values and weights and
+     * scanning the cumulative weight. Assumes the probabilities are ascending
+     * and ignores ties of the cumulative weight with the target.
+     *
+     * @param x Values.
+     * @param w Weights.
+     * @param p Probabilities.
+     * @return the quantiles
+     */
+    private static double[] sortQuantiles(double[] x, double[] w, double[] p) {
+        CoSort.withDefaults().sort(x, w);
+        double total = 0;
+        for (final double v : w) {
+            total += v;
+        }
+        final double[] q = new double[p.length];
+        double c = 0;
+        int i = 0;
+        for (int j = 0; j < p.length; j++) {
+            final double t = p[j] * total;
+            while (c < t && i < x.length) {
+                c += w[i++];
+            }
+            q[j] = x[Math.max(0, i - 1)];
+        }
+        return q;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.core;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.core.Precision;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the comparison of {@code double[]} arrays using
+ * {@link Precision}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx512M"})
+public class ArrayEquivalencePerformance {
+    /** The maximum ULP difference for equality. */
+    private static final int MAX_ULPS = 2;
+
+    /**
+     * Arrays of values that are equal within {@link #MAX_ULPS}.
+     */
+    @State(Scope.Benchmark)
+    public static class ArrayData {
+        /** The length of the arrays. */
+        @Param({"1000", "100000"})
+        private int length;
+
+        /** The first array. */
+        private double[] x;
+        /** The second array. */
+        private double[] y;
+
+        /**
+         * Gets the first array.
+         *
+         * @return the array
+         */
+        public double[] getX() {
+            return x;
+        }
+
+        /**
+         * Gets the second array.
+         *
+         * @return the array
+         */
+        public double[] getY() {
+            return y;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            x = rng.doubles(length, -1, 1).toArray();
+            y = x.clone();
+            for (int i = 0; i < length; i++) {
+                if (rng.nextBoolean()) {
+                    y[i] = Math.nextUp(y[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare the arrays using a loop of the scalar method.
+     *
+     * @param data Data.
+     * @return the result
+     */
+    @Benchmark
+    public boolean equalsScalarLoop(ArrayData data) {
+        final double[] x = data.getX();
+        final double[] y = data.getY();
+        if (x.length != y.length) {
+            return false;
+        }
+        for (int i = 0; i < x.length; i++) {
+            if (!Precision.equals(x[i], y[i], MAX_ULPS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare the arrays using the array method.
+     *
+     * @param data Data.
+     * @return the result
+     */
+    @Benchmark
+    public boolean equalsArray(ArrayData data) {
+        return Precision.equals(data.getX(), data.getY(), MAX_ULPS);
+    }
+
+    /**
+     * Count the mismatches using the array method.
+     *
+     * @param data Data.
+     * @return the result
+     */
+    @Benchmark
+    public int countMismatches(ArrayData data) {
+        return Precision.countMismatches(data.getX(), data.getY(), 0);
+    }
+
+    /**
+     * Compute the maximum ULP distance using the array method.
+     *
+     * @param data Data.
+     * @return the result
+     */
+    @Benchmark
+    public long maxUlpDistance(ArrayData data) {
+        return Precision.maxUlpDistance(data.getX(), data.getY());
+    }
+}
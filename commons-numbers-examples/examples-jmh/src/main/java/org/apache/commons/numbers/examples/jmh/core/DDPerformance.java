@@ -29,12 +29,15 @@ import java.math.MathContext;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.commons.math3.dfp.DfpField;
+import org.apache.commons.numbers.core.BigDecimalMath;
 import org.apache.commons.numbers.core.DD;
 import org.apache.commons.numbers.core.DDExt;
 import org.apache.commons.numbers.core.DDMath;
+import org.apache.commons.numbers.core.MutableDD;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.simple.RandomSource;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -75,6 +78,12 @@ public class DDPerformance {
     static final String IMP_POW_SCALED = "powScaled";
     /** Low accuracy scaled power implementation base on {@link Math#pow(double, double)}. */
     static final String IMP_SIMPLE_POW_SCALED = "simplePowScaled";
+    /** Immutable DD implementation. */
+    static final String IMP_DD = "DD";
+    /** Mutable DD implementation. */
+    static final String IMP_MUTABLE_DD = "MutableDD";
+    /** BigDecimal implementation. */
+    static final String IMP_BIG_DECIMAL = "BigDecimal";
 
     /**
      * Interface for an {@code (double, int) -> double} function.
@@ -502,6 +511,397 @@ public class DDPerformance {
         }
     }
 
+    /**
+     * Contains the function to compute a sequence of double-double operations.
+     * The sequence is evaluated using an immutable {@link DD} or an in-place {@link MutableDD}.
+     * The data are expected to be in the range {@code [-1, 1)} so that the result of the
+     * sequence remains bounded.
+     */
+    @State(Scope.Benchmark)
+    public static class SequenceMethod {
+        /** The implementation of the function. */
+        @Param({IMP_DD, IMP_MUTABLE_DD})
+        private String implementation;
+        /** The operation. */
+        @Param({"sum", "dot", "horner", "scaledSum", "nestedSqrt"})
+        private String operation;
+
+        /** The function. */
+        private BiFunction<DD[], DD[], Object> function;
+
+        /**
+         * Gets the function.
+         *
+         * @return the function
+         */
+        public BiFunction<DD[], DD[], Object> getFunction() {
+            return function;
+        }
+
+        /**
+         * Create the function.
+         */
+        @Setup
+        public void setup() {
+            function = createFunction(implementation, operation);
+        }
+
+        /**
+         * Creates the function to compute the sequence of double-double operations.
+         *
+         * @param implementation Function implementation
+         * @param operation Operation
+         * @return the function
+         */
+        static BiFunction<DD[], DD[], Object> createFunction(String implementation, String operation) {
+            final boolean mutable;
+            if (IMP_DD.equals(implementation)) {
+                mutable = false;
+            } else if (IMP_MUTABLE_DD.equals(implementation)) {
+                mutable = true;
+            } else {
+                throw new IllegalStateException("unknown sequence implementation: " + implementation);
+            }
+            // Divisor > 1 to ensure the divide sequence is bounded
+            final DD c = DD.ofSum(2, 0x1.0p-60);
+            if ("sum".equals(operation)) {
+                return mutable ?
+                    (a, b) -> {
+                        final MutableDD s = MutableDD.create();
+                        for (final DD x : a) {
+                            s.add(x);
+                        }
+                        return s;
+                    } :
+                    (a, b) -> {
+                        DD s = DD.ZERO;
+                        for (final DD x : a) {
+                            s = s.add(x);
+                        }
+                        return s;
+                    };
+            } else if ("dot".equals(operation)) {
+                return mutable ?
+                    (a, b) -> {
+                        final MutableDD s = MutableDD.create();
+                        final MutableDD t = MutableDD.create();
+                        for (int i = 0; i < a.length; i++) {
+                            s.add(t.set(a[i]).multiply(b[i]));
+                        }
+                        return s;
+                    } :
+                    (a, b) -> {
+                        DD s = DD.ZERO;
+                        for (int i = 0; i < a.length; i++) {
+                            s = s.add(a[i].multiply(b[i]));
+                        }
+                        return s;
+                    };
+            } else if ("horner".equals(operation)) {
+                return mutable ?
+                    (a, b) -> {
+                        final MutableDD s = MutableDD.create();
+                        for (int i = 0; i < a.length; i++) {
+                            s.multiply(b[i]).add(a[i]);
+                        }
+                        return s;
+                    } :
+                    (a, b) -> {
+                        DD s = DD.ZERO;
+                        for (int i = 0; i < a.length; i++) {
+                            s = s.multiply(b[i]).add(a[i]);
+                        }
+                        return s;
+                    };
+            } else if ("scaledSum".equals(operation)) {
+                return mutable ?
+                    (a, b) -> {
+                        final MutableDD s = MutableDD.create();
+                        for (final DD x : a) {
+                            s.add(x).divide(c);
+                        }
+                        return s;
+                    } :
+                    (a, b) -> {
+                        DD s = DD.ZERO;
+                        for (final DD x : a) {
+                            s = s.add(x).divide(c);
+                        }
+                        return s;
+                    };
+            } else if ("nestedSqrt".equals(operation)) {
+                return mutable ?
+                    (a, b) -> {
+                        final MutableDD s = MutableDD.create();
+                        for (final DD x : a) {
+                            s.add(x).abs().sqrt();
+                        }
+                        return s;
+                    } :
+                    (a, b) -> {
+                        DD s = DD.ZERO;
+                        for (final DD x : a) {
+                            s = s.add(x).abs().sqrt();
+                        }
+                        return s;
+                    };
+            }
+            throw new IllegalStateException("unknown sequence operation: " + operation);
+        }
+    }
+
+    /**
+     * Contains the elementary function. The double-double implementation in {@link DDMath}
+     * is compared to a {@link BigDecimal} series expansion computed to the same precision.
+     * The data are expected to be in the range {@code [-1, 1)}; the argument to the
+     * logarithm is shifted by 2.
+     */
+    @State(Scope.Benchmark)
+    public static class FunctionMethod {
+        /** Exponential function. */
+        private static final String EXP = "exp";
+        /** Exponential function minus 1. */
+        private static final String EXPM1 = "expm1";
+        /** Natural logarithm. */
+        private static final String LOG = "log";
+        /** Natural logarithm of 1 + x. */
+        private static final String LOG1P = "log1p";
+        /** Sine. */
+        private static final String SIN = "sin";
+        /** Cosine. */
+        private static final String COS = "cos";
+        /** Arc tangent. */
+        private static final String ATAN = "atan";
+        /** Message prefix for an unknown function. */
+        private static final String UNKNOWN_FUNCTION = "unknown function: ";
+
+        /** The implementation of the function. */
+        @Param({IMP_DD, IMP_BIG_DECIMAL})
+        private String implementation;
+
+        /** The function name. */
+        @Param({EXP, EXPM1, LOG, LOG1P, SIN, COS, ATAN})
+        private String name;
+
+        /** The function. */
+        private Function<DD, Object> function;
+
+        /**
+         * Gets the function.
+         *
+         * @return the function
+         */
+        public Function<DD, Object> getFunction() {
+            return function;
+        }
+
+        /**
+         * Create the function.
+         */
+        @Setup
+        public void setup() {
+            function = createFunction(implementation, name);
+        }
+
+        /**
+         * Creates the elementary function.
+         *
+         * @param implementation Function implementation
+         * @param name Function name
+         * @return the function
+         */
+        static Function<DD, Object> createFunction(String implementation, String name) {
+            if (IMP_DD.equals(implementation)) {
+                return createDDFunction(name);
+            } else if (IMP_BIG_DECIMAL.equals(implementation)) {
+                // Precision of a double-double number is approximately 32 digits
+                final MathContext mc = MathContext.DECIMAL128;
+                final BiFunction<BigDecimal, MathContext, BigDecimal> f = createBigDecimalFunction(name);
+                if (LOG.equals(name)) {
+                    return x -> f.apply(x.add(2).bigDecimalValue(), mc);
+                }
+                return x -> f.apply(x.bigDecimalValue(), mc);
+            }
+            throw new IllegalStateException("unknown function implementation: " + implementation);
+        }
+
+        /**
+         * Creates the double-double elementary function.
+         *
+         * @param name Function name
+         * @return the function
+         */
+        private static Function<DD, Object> createDDFunction(String name) {
+            switch (name) {
+            case EXP:
+                return DDMath::exp;
+            case EXPM1:
+                return DDMath::expm1;
+            case LOG:
+                return x -> DDMath.log(x.add(2));
+            case LOG1P:
+                return DDMath::log1p;
+            case SIN:
+                return DDMath::sin;
+            case COS:
+                return DDMath::cos;
+            case ATAN:
+                return DDMath::atan;
+            default:
+                throw new IllegalStateException(UNKNOWN_FUNCTION + name);
+            }
+        }
+
+        /**
+         * Creates the BigDecimal elementary function.
+         *
+         * @param name Function name
+         * @return the function
+         */
+        private static BiFunction<BigDecimal, MathContext, BigDecimal> createBigDecimalFunction(String name) {
+            switch (name) {
+            case EXP:
+                return BigDecimalMath::exp;
+            case EXPM1:
+                return BigDecimalMath::expm1;
+            case LOG:
+                return BigDecimalMath::log;
+            case LOG1P:
+                return BigDecimalMath::log1p;
+            case SIN:
+                return BigDecimalMath::sin;
+            case COS:
+                return BigDecimalMath::cos;
+            case ATAN:
+                return BigDecimalMath::atan;
+            default:
+                throw new IllegalStateException(UNKNOWN_FUNCTION + name);
+            }
+        }
+    }
+
+    /**
+     * Contains the decimal strings of double-double numbers.
+     */
+    @State(Scope.Benchmark)
+    public static class DecimalData {
+        /** The sample size. */
+        @Param({"1000"})
+        private int n;
+
+        /** The data. */
+        private String[] data;
+
+        /**
+         * Gets the data.
+         *
+         * @return the data
+         */
+        public String[] getData() {
+            return data;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            data = createData(n);
+        }
+
+        /**
+         * Creates decimal strings of numbers where the high part is approximately uniform
+         * in the range [-1, 1). The strings are the shortest representation of the number
+         * and use up to 34 significant digits.
+         *
+         * @param n sample size
+         * @return the data
+         */
+        static String[] createData(int n) {
+            return Stream.of(OperatorData.createData(n))
+                         .map(DD::toDecimalString)
+                         .toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Contains the conversion of a double-double number to and from a decimal string.
+     * The direct conversion in {@link DD} is compared to a conversion using {@link BigDecimal}
+     * to the same precision.
+     */
+    @State(Scope.Benchmark)
+    public static class DecimalMethod {
+        /** Message prefix for an unknown implementation. */
+        private static final String UNKNOWN_IMPLEMENTATION = "unknown decimal conversion: ";
+
+        /** The implementation of the conversion. */
+        @Param({IMP_DD, IMP_BIG_DECIMAL})
+        private String implementation;
+
+        /** The format function. */
+        private Function<DD, Object> format;
+        /** The parse function. */
+        private Function<String, Object> parse;
+
+        /**
+         * Gets the format function.
+         *
+         * @return the function
+         */
+        public Function<DD, Object> getFormat() {
+            return format;
+        }
+
+        /**
+         * Gets the parse function.
+         *
+         * @return the function
+         */
+        public Function<String, Object> getParse() {
+            return parse;
+        }
+
+        /**
+         * Create the functions.
+         */
+        @Setup
+        public void setup() {
+            format = createFormat(implementation);
+            parse = createParse(implementation);
+        }
+
+        /**
+         * Creates the function to format a double-double number as a decimal string.
+         *
+         * @param implementation Function implementation
+         * @return the function
+         */
+        static Function<DD, Object> createFormat(String implementation) {
+            if (IMP_DD.equals(implementation)) {
+                return DD::toDecimalString;
+            } else if (IMP_BIG_DECIMAL.equals(implementation)) {
+                // Precision of a double-double number is approximately 32 digits
+                return x -> x.bigDecimalValue().round(MathContext.DECIMAL128).toString();
+            }
+            throw new IllegalStateException(UNKNOWN_IMPLEMENTATION + implementation);
+        }
+
+        /**
+         * Creates the function to parse a decimal string as a double-double number.
+         *
+         * @param implementation Function implementation
+         * @return the function
+         */
+        static Function<String, Object> createParse(String implementation) {
+            if (IMP_DD.equals(implementation)) {
+                return DD::parse;
+            } else if (IMP_BIG_DECIMAL.equals(implementation)) {
+                return s -> DD.from(new BigDecimal(s));
+            }
+            throw new IllegalStateException(UNKNOWN_IMPLEMENTATION + implementation);
+        }
+    }
+
     /**
      * Contains the data to computes the power function {@code (x, xx)^n}.
      */
@@ -675,7 +1075,7 @@ public class DDPerformance {
     @State(Scope.Benchmark)
     public static class PowScaledMethod {
         /** The implementation of the function. */
-        @Param({IMP_POW_SCALED, IMP_ACCURATE_POW_SCALED, IMP_SIMPLE_POW_SCALED, "BigDecimal", "Dfp"})
+        @Param({IMP_POW_SCALED, IMP_ACCURATE_POW_SCALED, IMP_SIMPLE_POW_SCALED, IMP_BIG_DECIMAL, "Dfp"})
         private String implementation;
 
         /** The function. */
@@ -714,7 +1114,7 @@ public class DDPerformance {
             } else if (IMP_SIMPLE_POW_SCALED.equals(implementation)) {
                 final long[] exp = {0};
                 return (x, n) -> DDExt.simplePowScaled(x.hi(), x.lo(), n, exp);
-            } else if ("BigDecimal".equals(implementation)) {
+            } else if (IMP_BIG_DECIMAL.equals(implementation)) {
                 return (x, n) -> new BigDecimal(x.hi()).add(new BigDecimal(x.lo())).pow(n, MathContext.DECIMAL128);
             } else if ("Dfp".equals(implementation)) {
                 final DfpField df = new DfpField(MathContext.DECIMAL128.getPrecision());
@@ -811,6 +1211,19 @@ public class DDPerformance {
         }
     }
 
+    /**
+     * Apply the function to all the numbers.
+     *
+     * @param fun Function.
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    private static void apply(Function<DD, Object> fun, DD[] data, Blackhole bh) {
+        for (final DD d : data) {
+            bh.consume(fun.apply(d));
+        }
+    }
+
     /**
      * Apply the function to all the numbers.
      *
@@ -863,6 +1276,57 @@ public class DDPerformance {
         apply(method.getFunction(), data.getData(), data.getData2(), bh);
     }
 
+    /**
+     * Benchmark a sequence of double-double operations.
+     *
+     * @param method Test method.
+     * @param data Test data.
+     * @return the result
+     */
+    @Benchmark
+    public Object sequence(SequenceMethod method, OperatorData data) {
+        return method.getFunction().apply(data.getData(), data.getData2());
+    }
+
+    /**
+     * Benchmark an elementary function.
+     *
+     * @param method Test method.
+     * @param data Test data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void function(FunctionMethod method, OperatorData data, Blackhole bh) {
+        apply(method.getFunction(), data.getData(), bh);
+    }
+
+    /**
+     * Benchmark formatting a double-double number as a decimal string.
+     *
+     * @param method Test method.
+     * @param data Test data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void format(DecimalMethod method, OperatorData data, Blackhole bh) {
+        apply(method.getFormat(), data.getData(), bh);
+    }
+
+    /**
+     * Benchmark parsing a decimal string as a double-double number.
+     *
+     * @param method Test method.
+     * @param data Test data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void parse(DecimalMethod method, DecimalData data, Blackhole bh) {
+        final Function<String, Object> fun = method.getParse();
+        for (final String s : data.getData()) {
+            bh.consume(fun.apply(s));
+        }
+    }
+
     /**
      * Benchmark a sample of the KS function.
      *
@@ -22,6 +22,7 @@ import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoublePredicate;
 import java.util.function.DoubleUnaryOperator;
 
+import org.apache.commons.numbers.core.Sum;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.simple.RandomSource;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -357,7 +358,7 @@ public class DoubleSplitPerformance {
         @Param({NONE, "multiply", "multiplyUnscaled",
             "productLow", "productLowS",
             "productLow0", "productLow1", "productLow2", "productLow3", "productLowSplit",
-            "productLowUnscaled", "fma"})
+            "productLowUnscaled", "fma", "sumOfProducts"})
         private String name;
 
         /** The function. */
@@ -411,6 +412,11 @@ public class DoubleSplitPerformance {
                 fun = (x, y) -> DoublePrecision.productLowUnscaled(x, y, x * y);
             } else if ("fma".equals(name)) {
                 fun = (x, y) -> Math.fma(x, y, -x * y);
+            } else if ("sumOfProducts".equals(name)) {
+                // Computes the round-off using Math.fma when run with the multi-release
+                // core jar on Java 9+. This includes the overhead of the summation.
+                final Sum sum = Sum.create();
+                fun = (x, y) -> sum.addProduct(x, y).getAsDouble();
             } else {
                 throw new IllegalStateException("Unknown round-off method: " + name);
             }
@@ -33,6 +33,7 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import java.util.function.IntBinaryOperator;
 import java.util.function.LongBinaryOperator;
@@ -117,6 +118,54 @@ public class GcdPerformance {
         }
     }
 
+    /**
+     * Provides arrays of random multiples of a common factor for benchmarking
+     * the gcd of an array.
+     */
+    @State(Scope.Benchmark)
+    public static class Multiples {
+        /**
+         * The random seed to use for number generation.
+         */
+        @Param("42")
+        private long seed;
+
+        /**
+         * The common factor of the values.
+         */
+        @Param({"1", "6", "1234567"})
+        private int factor;
+
+        /**
+         * The length of the array.
+         */
+        @Param("100000")
+        private int length;
+
+        /**
+         * Generated int values to be consumed by the benchmark.
+         */
+        private int[] ints;
+
+        /**
+         * Generated long values to be consumed by the benchmark.
+         */
+        private long[] longs;
+
+        /**
+         * JMH setup method to generate the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            final RestorableUniformRandomProvider rng = getRandomProvider(seed);
+            final int limit = Integer.MAX_VALUE / factor;
+            ints = rng.ints(length, -limit, limit).map(i -> i * factor).toArray();
+            longs = rng.longs(length, -Long.MAX_VALUE / factor, Long.MAX_VALUE / factor)
+                .map(i -> i * factor).toArray();
+            seed = longs[0];
+        }
+    }
+
     /**
      * Returns the random provider used to generate data for the benchmarks.
      *
@@ -204,6 +253,80 @@ public class GcdPerformance {
         calcAndConsumeGcds(longs, blackhole, GcdPerformance::gcdBigInteger);
     }
 
+    /**
+     * Benchmarks the GCD of an int array using the pairwise GCD.
+     *
+     * @param data data to consume.
+     * @return the GCD
+     */
+    @Benchmark
+    public int gcdIntArrayPairwise(Multiples data) {
+        int g = 0;
+        for (final int v : data.ints) {
+            g = ArithmeticUtils.gcd(g, v);
+        }
+        return g;
+    }
+
+    /**
+     * Benchmarks the GCD of an int array.
+     *
+     * @param data data to consume.
+     * @return the GCD
+     */
+    @Benchmark
+    public int gcdIntArray(Multiples data) {
+        return ArithmeticUtils.gcd(data.ints);
+    }
+
+    /**
+     * Benchmarks the GCD of a parallel int stream.
+     *
+     * @param data data to consume.
+     * @return the GCD
+     */
+    @Benchmark
+    public int gcdIntStreamParallel(Multiples data) {
+        return ArithmeticUtils.gcd(Arrays.stream(data.ints).parallel());
+    }
+
+    /**
+     * Benchmarks the GCD of a long array using the pairwise GCD.
+     *
+     * @param data data to consume.
+     * @return the GCD
+     */
+    @Benchmark
+    public long gcdLongArrayPairwise(Multiples data) {
+        long g = 0;
+        for (final long v : data.longs) {
+            g = ArithmeticUtils.gcd(g, v);
+        }
+        return g;
+    }
+
+    /**
+     * Benchmarks the GCD of a long array.
+     *
+     * @param data data to consume.
+     * @return the GCD
+     */
+    @Benchmark
+    public long gcdLongArray(Multiples data) {
+        return ArithmeticUtils.gcd(data.longs);
+    }
+
+    /**
+     * Benchmarks the GCD of a parallel long stream.
+     *
+     * @param data data to consume.
+     * @return the GCD
+     */
+    @Benchmark
+    public long gcdLongStreamParallel(Multiples data) {
+        return ArithmeticUtils.gcd(Arrays.stream(data.longs).parallel());
+    }
+
     /**
      * Calculates and consumes GCDs using the given implementation for benchmarking.
      *
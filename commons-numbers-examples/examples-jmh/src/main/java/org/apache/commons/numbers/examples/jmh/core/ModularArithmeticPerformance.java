@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.core;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.core.ArithmeticUtils;
+import org.apache.commons.numbers.core.Montgomery;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes a benchmark of modular arithmetic for {@code long} values
+ * using {@link ArithmeticUtils}, {@link Montgomery} and {@link BigInteger}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx512M"})
+public class ModularArithmeticPerformance {
+    /**
+     * Provides random values with a fixed odd modulus.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        /** The number of bits in the modulus. */
+        @Param({"31", "62", "63"})
+        private int bits;
+
+        /** The number of values. */
+        @Param({"1024"})
+        private int size;
+
+        /** The modulus. */
+        private long m;
+        /** The modulus as a BigInteger. */
+        private BigInteger bm;
+        /** The Montgomery arithmetic for the modulus. */
+        private Montgomery mod;
+        /** The values a. */
+        private long[] a;
+        /** The values b. */
+        private long[] b;
+        /** The values a as a BigInteger. */
+        private BigInteger[] ba;
+        /** The values b as a BigInteger. */
+        private BigInteger[] bb;
+
+        /**
+         * Gets the modulus.
+         *
+         * @return the modulus
+         */
+        public long getModulus() {
+            return m;
+        }
+
+        /**
+         * Gets the modulus as a BigInteger.
+         *
+         * @return the modulus
+         */
+        public BigInteger getBigModulus() {
+            return bm;
+        }
+
+        /**
+         * Gets the Montgomery arithmetic for the modulus.
+         *
+         * @return the Montgomery arithmetic
+         */
+        public Montgomery getMontgomery() {
+            return mod;
+        }
+
+        /**
+         * Gets the values a in {@code [0, m)}.
+         *
+         * @return the values
+         */
+        public long[] getA() {
+            return a;
+        }
+
+        /**
+         * Gets the values b in {@code [0, m)}.
+         *
+         * @return the values
+         */
+        public long[] getB() {
+            return b;
+        }
+
+        /**
+         * Gets the values a as a BigInteger.
+         *
+         * @return the values
+         */
+        public BigInteger[] getBigA() {
+            return ba;
+        }
+
+        /**
+         * Gets the values b as a BigInteger.
+         *
+         * @return the values
+         */
+        public BigInteger[] getBigB() {
+            return bb;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            // Odd modulus with the most significant bit set
+            m = (rng.nextLong() >>> (Long.SIZE - bits)) | (1L << (bits - 1)) | 1;
+            bm = BigInteger.valueOf(m);
+            mod = Montgomery.of(m);
+            a = rng.longs(size, 0, m).toArray();
+            b = rng.longs(size, 0, m).toArray();
+            ba = new BigInteger[size];
+            bb = new BigInteger[size];
+            for (int i = 0; i < size; i++) {
+                ba[i] = BigInteger.valueOf(a[i]);
+                bb[i] = BigInteger.valueOf(b[i]);
+            }
+        }
+    }
+
+    /**
+     * Compute {@code (a * b) mod m} using BigInteger.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void mulModBigInteger(Data data, Blackhole bh) {
+        final BigInteger[] a = data.getBigA();
+        final BigInteger[] b = data.getBigB();
+        final BigInteger m = data.getBigModulus();
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(a[i].multiply(b[i]).mod(m).longValue());
+        }
+    }
+
+    /**
+     * Compute {@code (a * b) mod m} using ArithmeticUtils.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void mulModArithmeticUtils(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long[] b = data.getB();
+        final long m = data.getModulus();
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(ArithmeticUtils.mulMod(a[i], b[i], m));
+        }
+    }
+
+    /**
+     * Compute {@code (a * b) mod m} using Montgomery with conversion of the arguments.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void mulModMontgomery(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long[] b = data.getB();
+        final Montgomery mod = data.getMontgomery();
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(mod.mulMod(a[i], b[i]));
+        }
+    }
+
+    /**
+     * Compute the product of all values {@code mod m} using ArithmeticUtils.
+     *
+     * @param data Data.
+     * @return the product
+     */
+    @Benchmark
+    public long productArithmeticUtils(Data data) {
+        final long[] a = data.getA();
+        final long m = data.getModulus();
+        long p = 1;
+        for (final long x : a) {
+            p = ArithmeticUtils.mulMod(p, x, m);
+        }
+        return p;
+    }
+
+    /**
+     * Compute the product of all values {@code mod m} using Montgomery form.
+     * This converts each value to Montgomery form.
+     *
+     * @param data Data.
+     * @return the product
+     */
+    @Benchmark
+    public long productMontgomery(Data data) {
+        final long[] a = data.getA();
+        final Montgomery mod = data.getMontgomery();
+        long p = mod.toMontgomery(1);
+        for (final long x : a) {
+            p = mod.multiply(p, mod.toMontgomery(x));
+        }
+        return mod.fromMontgomery(p);
+    }
+
+    /**
+     * Compute {@code a^b mod m} using BigInteger.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void powModBigInteger(Data data, Blackhole bh) {
+        final BigInteger[] a = data.getBigA();
+        final BigInteger[] b = data.getBigB();
+        final BigInteger m = data.getBigModulus();
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(a[i].modPow(b[i], m).longValue());
+        }
+    }
+
+    /**
+     * Compute {@code a^b mod m} using ArithmeticUtils.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void powModArithmeticUtils(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long[] b = data.getB();
+        final long m = data.getModulus();
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(ArithmeticUtils.powMod(a[i], b[i], m));
+        }
+    }
+
+    /**
+     * Compute {@code a^b mod m} using Montgomery with a fixed modulus.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void powModMontgomery(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long[] b = data.getB();
+        final Montgomery mod = data.getMontgomery();
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(mod.powMod(a[i], b[i]));
+        }
+    }
+
+    /**
+     * Compute {@code a^-1 mod m} using BigInteger.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void modInverseBigInteger(Data data, Blackhole bh) {
+        final BigInteger[] a = data.getBigA();
+        final BigInteger m = data.getBigModulus();
+        for (final BigInteger x : a) {
+            if (x.gcd(m).equals(BigInteger.ONE)) {
+                bh.consume(x.modInverse(m).longValue());
+            }
+        }
+    }
+
+    /**
+     * Compute {@code a^-1 mod m} using ArithmeticUtils.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void modInverseArithmeticUtils(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long m = data.getModulus();
+        for (final long x : a) {
+            if (ArithmeticUtils.gcd(x, m) == 1) {
+                bh.consume(ArithmeticUtils.modInverse(x, m));
+            }
+        }
+    }
+
+    /**
+     * Compute {@code a^-1 mod m} using the extended Euclidean algorithm.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void modInverseEuclid(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long m = data.getModulus();
+        for (final long x : a) {
+            if (ArithmeticUtils.gcd(x, m) == 1) {
+                bh.consume(modInverseEuclid(x, m));
+            }
+        }
+    }
+
+    /**
+     * Compute {@code a^-1 mod m} using the extended gcd with a reused result holder.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void modInverseExtendedGcd(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long m = data.getModulus();
+        final long[] xy = new long[2];
+        for (final long x : a) {
+            if (ArithmeticUtils.extendedGcd(x, m, xy) == 1) {
+                final long inv = xy[0];
+                bh.consume(inv < 0 ? inv + m : inv);
+            }
+        }
+    }
+
+    /**
+     * Compute the extended gcd {@code a * x + b * y = gcd(a, b)} with a reused result holder.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void extendedGcd(Data data, Blackhole bh) {
+        final long[] a = data.getA();
+        final long[] b = data.getB();
+        final long[] xy = new long[2];
+        for (int i = 0; i < a.length; i++) {
+            bh.consume(ArithmeticUtils.extendedGcd(a[i], b[i], xy));
+            bh.consume(xy[0]);
+            bh.consume(xy[1]);
+        }
+    }
+
+    /**
+     * Returns the multiplicative inverse of {@code a} modulo {@code m} using the
+     * extended Euclidean algorithm. The value must be in {@code [0, m)} and
+     * relatively prime to {@code m}.
+     *
+     * @param a Value.
+     * @param m Modulus.
+     * @return {@code a^-1 mod m}
+     */
+    private static long modInverseEuclid(long a, long m) {
+        long r0 = m;
+        long r1 = a;
+        long t0 = 0;
+        long t1 = 1;
+        while (r1 != 0) {
+            final long q = r0 / r1;
+            final long r = r0 - q * r1;
+            r0 = r1;
+            r1 = r;
+            final long t = t0 - q * t1;
+            t0 = t1;
+            t1 = t;
+        }
+        return t0 < 0 ? t0 + m : t0;
+    }
+}
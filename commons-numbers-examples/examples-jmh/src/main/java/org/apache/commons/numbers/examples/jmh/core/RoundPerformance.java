@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.numbers.core.Precision;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes a benchmark of {@link Precision#round(double, int, RoundingMode)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx512M"})
+public class RoundPerformance {
+    /** Random values. */
+    private static final String RANDOM = "random";
+    /** Decimal values with one more digit than the scale. These are ties for the HALF modes. */
+    private static final String TIES = "ties";
+    /** Decimal values with the same number of digits as the scale. */
+    private static final String DECIMAL = "decimal";
+
+    /**
+     * Data for rounding.
+     */
+    @State(Scope.Benchmark)
+    public static class RoundData {
+        /** The type of data. */
+        @Param({RANDOM, TIES, DECIMAL})
+        private String type;
+
+        /** The number of decimal places. */
+        @Param({"2", "6"})
+        private int scale;
+
+        /** The rounding mode. */
+        @Param({"HALF_UP", "FLOOR"})
+        private RoundingMode mode;
+
+        /** The number of values. */
+        @Param({"1024"})
+        private int size;
+
+        /** The data. */
+        private double[] data;
+
+        /**
+         * Gets the data.
+         *
+         * @return the data
+         */
+        public double[] getData() {
+            return data;
+        }
+
+        /**
+         * Gets the scale.
+         *
+         * @return the scale
+         */
+        public int getScale() {
+            return scale;
+        }
+
+        /**
+         * Gets the rounding mode.
+         *
+         * @return the mode
+         */
+        public RoundingMode getMode() {
+            return mode;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            final double p = Math.pow(10, scale);
+            data = new double[size];
+            for (int i = 0; i < size; i++) {
+                final double x;
+                if (RANDOM.equals(type)) {
+                    x = rng.nextDouble(-1e4, 1e4);
+                } else if (TIES.equals(type)) {
+                    x = (rng.nextLong(-100_000_000, 100_000_000) * 10 + 5) / (p * 10);
+                } else if (DECIMAL.equals(type)) {
+                    x = rng.nextLong(-100_000_000, 100_000_000) / p;
+                } else {
+                    throw new IllegalStateException("Unknown type: " + type);
+                }
+                data[i] = x;
+            }
+        }
+    }
+
+    /**
+     * Round using the decimal representation. This is the previous implementation
+     * of {@link Precision#round(double, int, RoundingMode)}.
+     *
+     * @param x Value to round.
+     * @param scale Number of digits to the right of the decimal point.
+     * @param roundingMode Rounding mode.
+     * @return the rounded value.
+     */
+    private static double roundBigDecimal(double x, int scale, RoundingMode roundingMode) {
+        try {
+            final double rounded = new BigDecimal(Double.toString(x))
+                   .setScale(scale, roundingMode)
+                   .doubleValue();
+            return rounded == 0 ? 0.0 * x : rounded;
+        } catch (NumberFormatException ex) {
+            if (Double.isInfinite(x)) {
+                return x;
+            }
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Round using BigDecimal.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void bigDecimal(RoundData data, Blackhole bh) {
+        final int scale = data.getScale();
+        final RoundingMode mode = data.getMode();
+        for (final double x : data.getData()) {
+            bh.consume(roundBigDecimal(x, scale, mode));
+        }
+    }
+
+    /**
+     * Round using Precision.
+     *
+     * @param data Data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void precision(RoundData data, Blackhole bh) {
+        final int scale = data.getScale();
+        final RoundingMode mode = data.getMode();
+        for (final double x : data.getData()) {
+            bh.consume(Precision.round(x, scale, mode));
+        }
+    }
+}
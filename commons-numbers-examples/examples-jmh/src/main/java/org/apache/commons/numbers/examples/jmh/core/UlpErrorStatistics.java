@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.core;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.apache.commons.numbers.core.DD;
+import org.apache.commons.numbers.core.Precision;
+
+/**
+ * Streaming accumulator of the error in units of least precision (ULP) of computed values
+ * against reference values.
+ *
+ * <p>The error is {@code (actual - expected) / ulp(expected)}. The reference value
+ * may be a {@code double}, in which case the error is the signed integer
+ * {@link Precision#ulpDistance(double, double) ULP distance}; or an extended
+ * precision {@link DD} or {@link BigDecimal}, in which case the error is fractional.
+ *
+ * <p>Statistics are computed for all errors: the maximum absolute error, the mean error,
+ * the mean absolute error and the root mean square (RMS) error. Absolute errors are
+ * counted in a histogram with configurable bucket limits.
+ *
+ * <p>If either value is not finite the result is not included in the statistics;
+ * it is counted as a failure unless the values are the same (e.g. both are NaN).
+ *
+ * <p>Instances are not thread-safe. Use {@link #combine(UlpErrorStatistics)} to merge
+ * the results of instances used in separate threads.
+ */
+public final class UlpErrorStatistics {
+    /** Default upper limits of the histogram buckets. */
+    private static final double[] DEFAULT_LIMITS = {0.5, 1, 2, 4, 8, 16, 32, 64, 128};
+
+    /** Upper limits (inclusive) of the histogram buckets. */
+    private final double[] limits;
+    /** Histogram of the absolute error. The final bucket is for errors above the final limit. */
+    private final long[] histogram;
+    /** Number of errors. */
+    private long n;
+    /** Number of failures. */
+    private long failures;
+    /** Sum of the error. */
+    private double sum;
+    /** Sum of the absolute error. */
+    private double sumAbs;
+    /** Sum of the squared error. */
+    private double sumSq;
+    /** Maximum absolute error. */
+    private double max;
+
+    /**
+     * Create an instance with the default histogram bucket limits:
+     * {@code [0.5, 1, 2, 4, 8, 16, 32, 64, 128]}.
+     */
+    public UlpErrorStatistics() {
+        this(DEFAULT_LIMITS);
+    }
+
+    /**
+     * Create an instance with the histogram bucket limits. Each limit is the inclusive
+     * upper bound of the absolute ULP error for the bucket. An additional bucket counts
+     * errors above the final limit.
+     *
+     * @param limits Upper limits of the buckets (in ascending order).
+     * @throws IllegalArgumentException if the limits are not finite and in strictly ascending order.
+     */
+    public UlpErrorStatistics(double... limits) {
+        for (int i = 0; i < limits.length; i++) {
+            if (!Double.isFinite(limits[i]) || i != 0 && limits[i] <= limits[i - 1]) {
+                throw new IllegalArgumentException("Invalid bucket limits: " + Arrays.toString(limits));
+            }
+        }
+        this.limits = limits.clone();
+        histogram = new long[limits.length + 1];
+    }
+
+    /**
+     * Adds the error of the actual value from the expected value.
+     * The error is the signed integer distance between the values.
+     *
+     * @param actual Actual value.
+     * @param expected Expected value.
+     * @return this instance
+     * @see Precision#ulpDistance(double, double)
+     */
+    public UlpErrorStatistics add(double actual, double expected) {
+        if (isFinite(actual, expected)) {
+            final double e = Precision.ulpDistance(actual, expected);
+            addError(actual < expected ? -e : e);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the error of the actual value from the expected value.
+     * The error is relative to the ULP of the expected value rounded to a {@code double}.
+     *
+     * @param actual Actual value.
+     * @param expected Expected value.
+     * @return this instance
+     */
+    public UlpErrorStatistics add(double actual, DD expected) {
+        final double x = expected.doubleValue();
+        if (isFinite(actual, x)) {
+            addError(expected.negate().add(actual).doubleValue() / Math.ulp(x));
+        }
+        return this;
+    }
+
+    /**
+     * Adds the error of the actual value from the expected value.
+     * The error is relative to the ULP of the expected value rounded to a {@code double}.
+     *
+     * @param actual Actual value.
+     * @param expected Expected value.
+     * @return this instance
+     */
+    public UlpErrorStatistics add(double actual, BigDecimal expected) {
+        final double x = expected.doubleValue();
+        if (isFinite(actual, x)) {
+            addError(new BigDecimal(actual).subtract(expected).doubleValue() / Math.ulp(x));
+        }
+        return this;
+    }
+
+    /**
+     * Check the values are finite. If not then a failure is recorded if the values
+     * are different.
+     *
+     * @param actual Actual value.
+     * @param expected Expected value.
+     * @return true if the values are finite
+     */
+    private boolean isFinite(double actual, double expected) {
+        if (Double.isFinite(actual) && Double.isFinite(expected)) {
+            return true;
+        }
+        if (Double.compare(actual, expected) != 0) {
+            failures++;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the error.
+     *
+     * @param e Error.
+     */
+    private void addError(double e) {
+        final double a = Math.abs(e);
+        n++;
+        sum += e;
+        sumAbs += a;
+        sumSq += e * e;
+        max = Math.max(max, a);
+        // Find the first bucket with a limit above or equal to the error
+        int i = Arrays.binarySearch(limits, a);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        histogram[i]++;
+    }
+
+    /**
+     * Combine the statistics of the other instance into this instance.
+     *
+     * @param other Other instance.
+     * @return this instance
+     * @throws IllegalArgumentException if the instances do not use the same histogram limits.
+     */
+    public UlpErrorStatistics combine(UlpErrorStatistics other) {
+        if (!Arrays.equals(limits, other.limits)) {
+            throw new IllegalArgumentException("Histogram limits do not match");
+        }
+        n += other.n;
+        failures += other.failures;
+        sum += other.sum;
+        sumAbs += other.sumAbs;
+        sumSq += other.sumSq;
+        max = Math.max(max, other.max);
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+        return this;
+    }
+
+    /**
+     * Gets the number of errors.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return n;
+    }
+
+    /**
+     * Gets the number of failures. This is the number of values that were not
+     * finite and did not match the expected value.
+     *
+     * @return the failure count
+     */
+    public long getFailureCount() {
+        return failures;
+    }
+
+    /**
+     * Gets the maximum absolute error.
+     *
+     * @return the maximum
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean error. A non-zero value indicates a bias in the error.
+     *
+     * @return the mean (or NaN if there are no errors)
+     */
+    public double getMean() {
+        return sum / n;
+    }
+
+    /**
+     * Gets the mean absolute error.
+     *
+     * @return the mean absolute error (or NaN if there are no errors)
+     */
+    public double getMeanAbs() {
+        return sumAbs / n;
+    }
+
+    /**
+     * Gets the root mean square error.
+     *
+     * @return the RMS error (or NaN if there are no errors)
+     */
+    public double getRms() {
+        return Math.sqrt(sumSq / n);
+    }
+
+    /**
+     * Gets the upper limits (inclusive) of the histogram buckets.
+     *
+     * @return the limits
+     */
+    public double[] getHistogramLimits() {
+        return limits.clone();
+    }
+
+    /**
+     * Gets the histogram of the absolute error. The count at index {@code i} is for errors
+     * in {@code (limits[i-1], limits[i]]}. The final count is for errors above the final limit.
+     *
+     * @return the histogram
+     * @see #getHistogramLimits()
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, failures=%d, max=%.4g, mean=%.4g, meanAbs=%.4g, rms=%.4g, histogram=%s",
+            n, failures, max, getMean(), getMeanAbs(), getRms(), Arrays.toString(histogram));
+    }
+}
@@ -16,13 +16,27 @@
  */
 package org.apache.commons.numbers.examples.jmh.core;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.commons.numbers.core.DD;
+import org.apache.commons.numbers.core.MutableDD;
 import org.apache.commons.numbers.examples.jmh.core.DDPerformance.DoubleInt;
 import org.apache.commons.numbers.examples.jmh.core.DDPerformance.DoubleIntFunction;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * Tests the implementations in {@link DDPerformance}.
@@ -51,4 +65,94 @@ class DDPerformanceTest {
             }
         }
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sum", "dot", "horner", "scaledSum", "nestedSqrt"})
+    void testSequence(String operation) {
+        final BiFunction<DD[], DD[], Object> f1 =
+            DDPerformance.SequenceMethod.createFunction(DDPerformance.IMP_DD, operation);
+        final BiFunction<DD[], DD[], Object> f2 =
+            DDPerformance.SequenceMethod.createFunction(DDPerformance.IMP_MUTABLE_DD, operation);
+        final DD[] a = DDPerformance.OperatorData.createData(100);
+        final DD[] b = DDPerformance.OperatorData.createData(100);
+        final DD expected = (DD) f1.apply(a, b);
+        final DD actual = ((MutableDD) f2.apply(a, b)).toDD();
+        Assertions.assertTrue(expected.isFinite(), "Sequence is not finite");
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"exp", "expm1", "log", "log1p", "sin", "cos", "atan"})
+    void testFunction(String name) {
+        final Function<DD, Object> f1 = DDPerformance.FunctionMethod.createFunction(DDPerformance.IMP_DD, name);
+        final Function<DD, Object> f2 = DDPerformance.FunctionMethod.createFunction(DDPerformance.IMP_BIG_DECIMAL, name);
+        final UlpErrorStatistics stats = new UlpErrorStatistics();
+        for (final DD x : DDPerformance.OperatorData.createData(100)) {
+            final BigDecimal expected = (BigDecimal) f2.apply(x);
+            final DD y = (DD) f1.apply(x);
+            final BigDecimal actual = y.bigDecimalValue();
+            // The BigDecimal result is computed to 34 digits; allow 8 eps relative error
+            final double error = actual.subtract(expected).divide(expected, MathContext.DECIMAL64).doubleValue();
+            Assertions.assertEquals(0, error, 0x1.0p-103, () -> name + "(" + x + ")");
+            stats.add(y.doubleValue(), expected);
+        }
+        // The double-double result rounded to a double is within 0.5 ULP (ignoring the
+        // error of the double-double computation)
+        Assertions.assertEquals(100, stats.getCount(), () -> name + " count");
+        Assertions.assertEquals(0, stats.getFailureCount(), () -> name + " failures");
+        Assertions.assertTrue(stats.getMax() <= 0.5 + 0x1.0p-40, () -> name + " " + stats);
+    }
+
+    /**
+     * Report the ULP error of the {@link Math} implementation of the elementary functions
+     * against the {@link BigDecimal} reference. This is not a test. The errors are
+     * saved to a result file which can be compared between JDK versions.
+     *
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    @Test
+    @Disabled("This method is used to output a report of the accuracy of implementations.")
+    void reportUlpErrors() throws IOException {
+        final String[] names = {"exp", "expm1", "log", "log1p", "sin", "cos", "atan"};
+        final DoubleUnaryOperator[] functions = {Math::exp, Math::expm1, x -> Math.log(x + 2), Math::log1p,
+            Math::sin, Math::cos, Math::atan};
+        final DD[] data = DDPerformance.OperatorData.createData(10000);
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get("target/ddmath_ulp.csv"))) {
+            out.append("name,n,failures,max,mean,meanAbs,rms");
+            out.newLine();
+            for (int i = 0; i < names.length; i++) {
+                final Function<DD, Object> ref =
+                    DDPerformance.FunctionMethod.createFunction(DDPerformance.IMP_BIG_DECIMAL, names[i]);
+                final UlpErrorStatistics stats = new UlpErrorStatistics();
+                final boolean log = "log".equals(names[i]);
+                for (final DD d : data) {
+                    // Use a double argument; for the logarithm x + 2 must be exact
+                    final double x = log ? (d.hi() + 2) - 2 : d.hi();
+                    stats.add(functions[i].applyAsDouble(x), (BigDecimal) ref.apply(DD.of(x)));
+                }
+                out.append(String.format("%s,%d,%d,%.4g,%.4g,%.4g,%.4g", names[i], stats.getCount(),
+                    stats.getFailureCount(), stats.getMax(), stats.getMean(), stats.getMeanAbs(), stats.getRms()));
+                out.newLine();
+            }
+        }
+    }
+
+    @Test
+    void testDecimal() {
+        final Function<DD, Object> f1 = DDPerformance.DecimalMethod.createFormat(DDPerformance.IMP_DD);
+        final Function<DD, Object> f2 = DDPerformance.DecimalMethod.createFormat(DDPerformance.IMP_BIG_DECIMAL);
+        final Function<String, Object> p1 = DDPerformance.DecimalMethod.createParse(DDPerformance.IMP_DD);
+        final Function<String, Object> p2 = DDPerformance.DecimalMethod.createParse(DDPerformance.IMP_BIG_DECIMAL);
+        for (final DD x : DDPerformance.OperatorData.createData(100)) {
+            final String s1 = (String) f1.apply(x);
+            final String s2 = (String) f2.apply(x);
+            // The shortest representation is exact
+            Assertions.assertEquals(x, p1.apply(s1), () -> x + " : " + s1);
+            Assertions.assertEquals(x, p2.apply(s1), () -> x + " : " + s1);
+            // 34 digits is within 1 ULP of the 106-bit precision
+            final DD y = (DD) p1.apply(s2);
+            Assertions.assertEquals(0, y.subtract(x).doubleValue(), Math.ulp(x.hi()) * 0x1.0p-52,
+                () -> x + " : " + s2);
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.examples.jmh.core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.apache.commons.numbers.core.DD;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link UlpErrorStatistics}.
+ */
+class UlpErrorStatisticsTest {
+    @Test
+    void testInvalidLimits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new UlpErrorStatistics(1, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new UlpErrorStatistics(2, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new UlpErrorStatistics(1, Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new UlpErrorStatistics(1, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void testEmpty() {
+        final UlpErrorStatistics s = new UlpErrorStatistics();
+        Assertions.assertEquals(0, s.getCount());
+        Assertions.assertEquals(0, s.getFailureCount());
+        Assertions.assertEquals(0, s.getMax());
+        Assertions.assertEquals(Double.NaN, s.getMean());
+        Assertions.assertEquals(Double.NaN, s.getMeanAbs());
+        Assertions.assertEquals(Double.NaN, s.getRms());
+        Assertions.assertArrayEquals(new long[s.getHistogramLimits().length + 1], s.getHistogram());
+    }
+
+    @Test
+    void testAddDouble() {
+        final UlpErrorStatistics s = new UlpErrorStatistics(0, 1, 2);
+        final double x = 1.5;
+        s.add(x, x)
+            .add(Math.nextUp(x), x)
+            .add(Math.nextDown(Math.nextDown(x)), x)
+            .add(x + 4 * Math.ulp(x), x);
+        Assertions.assertEquals(4, s.getCount());
+        Assertions.assertEquals(0, s.getFailureCount());
+        Assertions.assertEquals(4, s.getMax());
+        Assertions.assertEquals(0.75, s.getMean());
+        Assertions.assertEquals(1.75, s.getMeanAbs());
+        Assertions.assertEquals(Math.sqrt(21 / 4.0), s.getRms());
+        Assertions.assertArrayEquals(new long[] {1, 1, 1, 1}, s.getHistogram());
+    }
+
+    @Test
+    void testAddNonFinite() {
+        final UlpErrorStatistics s = new UlpErrorStatistics();
+        s.add(Double.NaN, Double.NaN)
+            .add(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY)
+            .add(Double.NaN, 1.0)
+            .add(1.0, Double.NEGATIVE_INFINITY)
+            .add(Double.POSITIVE_INFINITY, DD.of(Double.MAX_VALUE))
+            .add(Double.NaN, BigDecimal.ONE);
+        Assertions.assertEquals(0, s.getCount());
+        Assertions.assertEquals(4, s.getFailureCount());
+    }
+
+    @Test
+    void testAddExtendedPrecision() {
+        final UlpErrorStatistics s1 = new UlpErrorStatistics();
+        final UlpErrorStatistics s2 = new UlpErrorStatistics();
+        // 1/3 is not exact: error of the nearest double is fractional
+        final BigDecimal third = BigDecimal.ONE.divide(BigDecimal.valueOf(3), 40, RoundingMode.HALF_EVEN);
+        final DD ddThird = DD.of(1).divide(3);
+        final double x = 1.0 / 3;
+        s1.add(x, third);
+        s2.add(x, ddThird);
+        final double e = new BigDecimal(x).subtract(third).doubleValue() / Math.ulp(x);
+        Assertions.assertTrue(e < 0 && e >= -0.5);
+        Assertions.assertEquals(e, s1.getMean(), 1e-15);
+        Assertions.assertEquals(e, s2.getMean(), 1e-15);
+        Assertions.assertEquals(Math.abs(e), s1.getMax(), 1e-15);
+        // 1/3 is rounded down: the next value up has an error of 1 + e in (0.5, 1]
+        s1.add(Math.nextUp(x), third);
+        Assertions.assertEquals(1 + e, s1.getMax(), 1e-15);
+        Assertions.assertArrayEquals(new long[] {1, 1, 0, 0, 0, 0, 0, 0, 0, 0}, s1.getHistogram());
+    }
+
+    @Test
+    void testCombine() {
+        final UlpErrorStatistics s1 = new UlpErrorStatistics();
+        final UlpErrorStatistics s2 = new UlpErrorStatistics();
+        final UlpErrorStatistics all = new UlpErrorStatistics();
+        final double x = 123.456;
+        for (int i = -3; i <= 3; i++) {
+            final double y = x + i * Math.ulp(x);
+            (i < 0 ? s1 : s2).add(y, x);
+            all.add(y, x);
+        }
+        s1.add(Double.NaN, x);
+        all.add(Double.NaN, x);
+        s1.combine(s2);
+        Assertions.assertEquals(all.getCount(), s1.getCount());
+        Assertions.assertEquals(all.getFailureCount(), s1.getFailureCount());
+        Assertions.assertEquals(all.getMax(), s1.getMax());
+        Assertions.assertEquals(all.getMean(), s1.getMean());
+        Assertions.assertEquals(all.getMeanAbs(), s1.getMeanAbs());
+        Assertions.assertEquals(all.getRms(), s1.getRms());
+        Assertions.assertArrayEquals(all.getHistogram(), s1.getHistogram());
+        Assertions.assertEquals(all.toString(), s1.toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> s1.combine(new UlpErrorStatistics(1, 2)));
+    }
+}
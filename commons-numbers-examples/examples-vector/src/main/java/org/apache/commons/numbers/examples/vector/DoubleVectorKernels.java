@@ -0,0 +1,451 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.numbers.core.DD;
+import org.apache.commons.numbers.core.Norm;
+
+/**
+ * SIMD implementations of {@code double} array kernels using the Vector API.
+ *
+ * <p>Sums are computed using a compensated summation in each lane. The lanes
+ * are combined in double-double precision.
+ *
+ * <p>This class must only be loaded if the {@code jdk.incubator.vector} module
+ * is present.
+ */
+final class DoubleVectorKernels {
+    /** The preferred species. */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /** The preferred species for the raw bits of a {@code double}. This has the same number of lanes. */
+    private static final VectorSpecies<Long> BITS_SPECIES = LongVector.SPECIES_PREFERRED;
+    /** Number of lanes. */
+    private static final int LANES = SPECIES.length();
+    /** Maximum number of lanes supported by the partition shuffle table (2^8 shuffles). */
+    private static final int MAX_PARTITION_LANES = 8;
+    /**
+     * Shuffles to move the lanes set in a mask to the start of the vector. Indexed by
+     * the mask bits. The lanes not set in the mask are moved to the end of the vector.
+     * This is null if the number of lanes is too large.
+     */
+    private static final VectorShuffle<Double>[] PARTITION = createPartitionShuffles();
+    /**
+     * Threshold for scaling small numbers in the Euclidean norm.
+     * Values below this must be scaled up. Copied from {@link Norm}.
+     */
+    private static final double SMALL_THRESH = 0x1.0p-511;
+    /**
+     * Threshold for scaling large numbers in the Euclidean norm.
+     * Values above this must be scaled down. Copied from {@link Norm}.
+     */
+    private static final double LARGE_THRESH = 0x1.0p+496;
+    /** Exponent mask of a {@code double}: the raw bits of positive infinity. */
+    private static final long EXP_MASK = 0x7ff0_0000_0000_0000L;
+    /** Minimum length of a range to partition using vectors; smaller ranges use {@link Selection}. */
+    private static final int SELECT_THRESHOLD = 512;
+
+    /** No instances. */
+    private DoubleVectorKernels() {}
+
+    /**
+     * Checks if the SIMD implementations are supported. This requires more than one
+     * lane in the preferred species.
+     *
+     * @return true if supported
+     */
+    static boolean isSupported() {
+        return LANES > 1;
+    }
+
+    /**
+     * Creates the shuffles used to partition a vector using a mask.
+     *
+     * @return the shuffles (or null)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VectorShuffle<Double>[] createPartitionShuffles() {
+        if (LANES > MAX_PARTITION_LANES) {
+            return null;
+        }
+        final VectorShuffle<Double>[] shuffles = new VectorShuffle[1 << LANES];
+        final int[] indices = new int[LANES];
+        for (int m = 0; m < shuffles.length; m++) {
+            int i = 0;
+            for (int j = 0; j < LANES; j++) {
+                if ((m & (1 << j)) != 0) {
+                    indices[i++] = j;
+                }
+            }
+            for (int j = 0; j < LANES; j++) {
+                if ((m & (1 << j)) == 0) {
+                    indices[i++] = j;
+                }
+            }
+            shuffles[m] = VectorShuffle.fromArray(SPECIES, indices, 0);
+        }
+        return shuffles;
+    }
+
+    /**
+     * Compute the sum of the values.
+     *
+     * @param a Values.
+     * @return the sum
+     */
+    static double sum(double[] a) {
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        DoubleVector c = s;
+        final int bound = SPECIES.loopBound(a.length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            final DoubleVector t = DoubleVector.fromArray(SPECIES, a, i);
+            final DoubleVector u = s.add(t);
+            c = c.add(twoSumLow(s, t, u));
+            s = u;
+        }
+        double ts = 0;
+        double tc = 0;
+        for (; i < a.length; i++) {
+            final double t = a[i];
+            final double u = ts + t;
+            tc += twoSumLow(ts, t, u);
+            ts = u;
+        }
+        return combine(s, c, ts, tc);
+    }
+
+    /**
+     * Compute the sum of the products of the values.
+     *
+     * @param a Factors.
+     * @param b Factors.
+     * @return the sum of products
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     */
+    static double sumOfProducts(double[] a, double[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Dimension mismatch: " + a.length + " != " + b.length);
+        }
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        DoubleVector c = s;
+        final int bound = SPECIES.loopBound(a.length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            final DoubleVector x = DoubleVector.fromArray(SPECIES, a, i);
+            final DoubleVector y = DoubleVector.fromArray(SPECIES, b, i);
+            final DoubleVector p = x.mul(y);
+            final DoubleVector u = s.add(p);
+            // Round-off of the product is computed exactly using a fused multiply-add.
+            // This is not finite if the product is not finite.
+            c = c.add(twoSumLow(s, p, u).add(x.fma(y, p.neg())));
+            s = u;
+        }
+        double ts = 0;
+        double tc = 0;
+        for (; i < a.length; i++) {
+            final double p = a[i] * b[i];
+            final double u = ts + p;
+            tc += twoSumLow(ts, p, u) + Math.fma(a[i], b[i], -p);
+            ts = u;
+        }
+        return combine(s, c, ts, tc);
+    }
+
+    /**
+     * Compute the Euclidean norm of the values.
+     *
+     * <p>The sum of squares is computed without scaling. If any value requires scaling
+     * to avoid overflow or underflow, or is not finite, the result is computed using
+     * {@link Norm#L2}.
+     *
+     * @param v Values.
+     * @return the norm
+     * @throws IllegalArgumentException if the array is empty.
+     */
+    static double euclideanNorm(double[] v) {
+        if (v.length == 0) {
+            // Delegate the error for an empty array
+            return Norm.L2.of(v);
+        }
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        DoubleVector c = s;
+        final int bound = SPECIES.loopBound(v.length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            final DoubleVector x = DoubleVector.fromArray(SPECIES, v, i).abs();
+            // Negated range check to capture NaN
+            final VectorMask<Double> scale = x.compare(VectorOperators.GE, SMALL_THRESH)
+                .and(x.compare(VectorOperators.LE, LARGE_THRESH))
+                .or(x.compare(VectorOperators.EQ, 0))
+                .not();
+            if (scale.anyTrue()) {
+                return Norm.L2.of(v);
+            }
+            final DoubleVector p = x.mul(x);
+            final DoubleVector u = s.add(p);
+            c = c.add(twoSumLow(s, p, u).add(x.fma(x, p.neg())));
+            s = u;
+        }
+        double ts = 0;
+        double tc = 0;
+        for (; i < v.length; i++) {
+            final double x = Math.abs(v[i]);
+            if (!(x >= SMALL_THRESH && x <= LARGE_THRESH || x == 0)) {
+                return Norm.L2.of(v);
+            }
+            final double p = x * x;
+            final double u = ts + p;
+            tc += twoSumLow(ts, p, u) + Math.fma(x, x, -p);
+            ts = u;
+        }
+        return Math.sqrt(combine(s, c, ts, tc));
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses a quickselect with a vectorized partition of the range. Small ranges, or
+     * data with NaN or signed zeros that require the ordering of
+     * {@link Double#compare(double, double)}, are partitioned using {@link Selection}.
+     *
+     * <p>Note: This is not exposed in {@link VectorKernels}. On JDK 17 the rearrangement
+     * of lanes using a shuffle table is not faster than the scalar partition used by
+     * {@link Selection}. The method is retained to benchmark future versions of the Vector API.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     */
+    static void select(double[] a, int fromIndex, int toIndex, int k) {
+        if (PARTITION == null || toIndex - fromIndex < SELECT_THRESHOLD ||
+            containsNaNOrNegativeZero(a, fromIndex, toIndex)) {
+            Selection.select(a, fromIndex, toIndex, k);
+            return;
+        }
+        int l = fromIndex;
+        int r = toIndex - 1;
+        // Limit the number of partitions to avoid quadratic worst case performance
+        int limit = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+        while (r - l >= SELECT_THRESHOLD && --limit >= 0) {
+            final double p = pivot(a, l, r);
+            // [l, m) < p; [m, r] >= p
+            int m = partition(a, l, r, p, false);
+            if (m == l) {
+                // No values below the pivot: move values equal to the pivot to the start.
+                // This is not empty as the pivot is a value from the range.
+                // [l, m) == p; [m, r] > p
+                m = partition(a, l, r, p, true);
+                if (k < m) {
+                    return;
+                }
+                l = m;
+            } else if (k < m) {
+                r = m - 1;
+            } else {
+                l = m;
+            }
+        }
+        Selection.select(a, l, r + 1, k);
+    }
+
+    /**
+     * Checks if the range contains a NaN or negative zero.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @return true if found
+     */
+    private static boolean containsNaNOrNegativeZero(double[] a, int fromIndex, int toIndex) {
+        VectorMask<Long> found = BITS_SPECIES.maskAll(false);
+        final int bound = fromIndex + SPECIES.loopBound(toIndex - fromIndex);
+        int i = fromIndex;
+        for (; i < bound; i += LANES) {
+            final LongVector bits = DoubleVector.fromArray(SPECIES, a, i).reinterpretAsLongs();
+            found = found.or(bits.compare(VectorOperators.EQ, Long.MIN_VALUE))
+                .or(bits.and(Long.MAX_VALUE).compare(VectorOperators.GT, EXP_MASK));
+        }
+        if (found.anyTrue()) {
+            return true;
+        }
+        for (; i < toIndex; i++) {
+            final double v = a[i];
+            if (v != v || Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Choose a pivot value from the range using the median of 3 medians of 3
+     * (Tukey's ninther) of evenly spaced values.
+     *
+     * @param a Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @return the pivot
+     */
+    private static double pivot(double[] a, int l, int r) {
+        final int s = (r - l) >>> 3;
+        return med3(med3(a[l], a[l + s], a[l + 2 * s]),
+                    med3(a[l + 3 * s], a[l + 4 * s], a[l + 5 * s]),
+                    med3(a[l + 6 * s], a[l + 7 * s], a[r]));
+    }
+
+    /**
+     * Return the median of 3 values.
+     *
+     * @param x Value.
+     * @param y Value.
+     * @param z Value.
+     * @return the median
+     */
+    private static double med3(double x, double y, double z) {
+        return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+    }
+
+    /**
+     * Partition the range {@code [l, r]} around the pivot value. Values below the pivot
+     * (or equal to if {@code inclusive}) are moved to the start of the range.
+     *
+     * <p>Vectors are loaded alternately from each end of the range and each vector is
+     * partitioned by a shuffle. The full vector is written to both the free space at the
+     * start and the free space at the end; the write pointers are advanced by the number
+     * of values on each side. Vectors at each end of the range are saved to create free
+     * space of twice the vector length. A vector is loaded from the side with the least
+     * free space so both sides have enough space to write a full vector.
+     *
+     * <p>The range must have a length of at least two vectors.
+     *
+     * @param a Values.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param p Pivot.
+     * @param inclusive Set to true to partition values equal to the pivot to the start.
+     * @return the index of the first value in the upper partition
+     */
+    private static int partition(double[] a, int l, int r, double p, boolean inclusive) {
+        final VectorOperators.Comparison op = inclusive ? VectorOperators.LE : VectorOperators.LT;
+        final DoubleVector pv = DoubleVector.broadcast(SPECIES, p);
+        final DoubleVector vl = DoubleVector.fromArray(SPECIES, a, l);
+        final DoubleVector vr = DoubleVector.fromArray(SPECIES, a, r + 1 - LANES);
+        // Unread values: [left, right)
+        int left = l + LANES;
+        int right = r + 1 - LANES;
+        // Partitioned values: [l, wl) and [wr, r]
+        int wl = l;
+        int wr = r + 1;
+        while (right - left >= LANES) {
+            final DoubleVector v;
+            if (left - wl <= wr - right) {
+                v = DoubleVector.fromArray(SPECIES, a, left);
+                left += LANES;
+            } else {
+                right -= LANES;
+                v = DoubleVector.fromArray(SPECIES, a, right);
+            }
+            final VectorMask<Double> m = v.compare(op, pv);
+            final int c = m.trueCount();
+            final DoubleVector w = v.rearrange(PARTITION[(int) m.toLong()]);
+            w.intoArray(a, wl);
+            w.intoArray(a, wr - LANES);
+            wl += c;
+            wr -= LANES - c;
+        }
+        // Partition the remaining unread values and the saved vectors
+        final double[] rest = new double[3 * LANES];
+        final int n = right - left;
+        System.arraycopy(a, left, rest, 0, n);
+        vl.intoArray(rest, n);
+        vr.intoArray(rest, n + LANES);
+        for (int i = n + 2 * LANES; --i >= 0;) {
+            final double x = rest[i];
+            if (inclusive ? x <= p : x < p) {
+                a[wl++] = x;
+            } else {
+                a[--wr] = x;
+            }
+        }
+        return wl;
+    }
+
+    /**
+     * Combine the sum and compensation in each lane with the scalar sum and compensation.
+     *
+     * <p>The result is computed in double-double precision if finite; otherwise
+     * the standard IEEE754 sum of the lanes is returned.
+     *
+     * @param s Sum.
+     * @param c Compensation.
+     * @param ts Scalar sum.
+     * @param tc Scalar compensation.
+     * @return the sum
+     */
+    private static double combine(DoubleVector s, DoubleVector c, double ts, double tc) {
+        final double[] hi = s.toArray();
+        final double[] lo = c.toArray();
+        DD sum = DD.ofSum(ts, tc);
+        double simple = ts;
+        for (int i = 0; i < LANES; i++) {
+            sum = sum.add(DD.ofSum(hi[i], lo[i]));
+            simple += hi[i];
+        }
+        final double x = sum.doubleValue();
+        // Compensation can be NaN from accumulating one or more same-signed infinite values.
+        return Double.isFinite(x) ? x : simple;
+    }
+
+    /**
+     * Compute the low part of the double length number {@code (z,zz)} for the exact
+     * addition of two numbers. This is the error of the sum {@code z = a + b}.
+     *
+     * @param a First part of sum.
+     * @param b Second part of sum.
+     * @param sum Sum of the parts (a + b).
+     * @return the low part
+     */
+    private static DoubleVector twoSumLow(DoubleVector a, DoubleVector b, DoubleVector sum) {
+        final DoubleVector bVirtual = sum.sub(a);
+        final DoubleVector aVirtual = sum.sub(bVirtual);
+        return a.sub(aVirtual).add(b.sub(bVirtual));
+    }
+
+    /**
+     * Compute the low part of the double length number {@code (z,zz)} for the exact
+     * addition of two numbers. This is the error of the sum {@code z = a + b}.
+     *
+     * @param a First part of sum.
+     * @param b Second part of sum.
+     * @param sum Sum of the parts (a + b).
+     * @return the low part
+     */
+    private static double twoSumLow(double a, double b, double sum) {
+        final double bVirtual = sum - a;
+        return (a - (sum - bVirtual)) + (b - bVirtual);
+    }
+}
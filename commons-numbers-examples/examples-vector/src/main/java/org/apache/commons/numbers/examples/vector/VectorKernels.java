@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.vector;
+
+import org.apache.commons.numbers.core.Norm;
+import org.apache.commons.numbers.core.Sum;
+
+/**
+ * Array kernels that use SIMD implementations when the Vector API is available.
+ *
+ * <p>The Vector API is provided by the incubating module {@code jdk.incubator.vector}.
+ * It must be added to the runtime using {@code --add-modules jdk.incubator.vector}.
+ * If the module is not present, or the preferred vector shape cannot hold more than
+ * one {@code double}, the methods delegate to the scalar implementations in the
+ * library.
+ *
+ * <p>The SIMD implementations compute results with the same accuracy as the scalar
+ * implementations. Due to a different order of summation the results may differ
+ * in the last bit.
+ */
+public final class VectorKernels {
+    /** Name of the Vector API module. */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    /** Set to true if the SIMD implementations are used. */
+    private static final boolean VECTORIZED = isVectorApiAvailable();
+
+    /** No instances. */
+    private VectorKernels() {}
+
+    /**
+     * Checks if the Vector API is available. The check must not load the class that
+     * uses the Vector API if the module has not been added to the runtime.
+     *
+     * @return true if available
+     */
+    private static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent() &&
+            DoubleVectorKernels.isSupported();
+    }
+
+    /**
+     * Checks if the SIMD implementations are used.
+     *
+     * @return true if vectorized
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Compute the sum of the values.
+     *
+     * <p>This is equivalent to {@code Sum.of(a).getAsDouble()}.
+     *
+     * @param a Values.
+     * @return the sum
+     * @see Sum#of(double...)
+     */
+    public static double sum(double[] a) {
+        if (VECTORIZED) {
+            return DoubleVectorKernels.sum(a);
+        }
+        return Sum.of(a).getAsDouble();
+    }
+
+    /**
+     * Compute the sum of the products of the values.
+     *
+     * <p>This is equivalent to {@code Sum.ofProducts(a, b).getAsDouble()}.
+     *
+     * @param a Factors.
+     * @param b Factors.
+     * @return the sum of products
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     * @see Sum#ofProducts(double[], double[])
+     */
+    public static double sumOfProducts(double[] a, double[] b) {
+        if (VECTORIZED) {
+            return DoubleVectorKernels.sumOfProducts(a, b);
+        }
+        return Sum.ofProducts(a, b).getAsDouble();
+    }
+
+    /**
+     * Compute the Euclidean norm of the values.
+     *
+     * <p>This is equivalent to {@code Norm.L2.of(v)}.
+     *
+     * @param v Values.
+     * @return the norm
+     * @throws IllegalArgumentException if the array is empty.
+     * @see Norm#L2
+     */
+    public static double euclideanNorm(double[] v) {
+        if (VECTORIZED) {
+            return DoubleVectorKernels.euclideanNorm(v);
+        }
+        return Norm.L2.of(v);
+    }
+}
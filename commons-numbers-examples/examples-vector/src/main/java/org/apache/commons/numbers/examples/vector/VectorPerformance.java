@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.vector;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.numbers.core.Norm;
+import org.apache.commons.numbers.core.Sum;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Executes a benchmark of the SIMD implementations of array kernels against the scalar
+ * implementations in the library.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx512M", "--add-modules", "jdk.incubator.vector"})
+public class VectorPerformance {
+    /** Scalar implementation. */
+    private static final String SCALAR = "scalar";
+    /** SIMD implementation. */
+    private static final String VECTOR = "vector";
+
+    /**
+     * Arrays of random values.
+     */
+    @State(Scope.Benchmark)
+    public static class ArrayData {
+        /** The length of the arrays. */
+        @Param({"1000", "1000000"})
+        private int length;
+
+        /** The first array. */
+        private double[] x;
+        /** The second array. */
+        private double[] y;
+
+        /**
+         * Gets the first array.
+         *
+         * @return the array
+         */
+        public double[] getX() {
+            return x;
+        }
+
+        /**
+         * Gets the second array.
+         *
+         * @return the array
+         */
+        public double[] getY() {
+            return y;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            x = rng.doubles(length, -1, 1).toArray();
+            y = rng.doubles(length, -1, 1).toArray();
+        }
+    }
+
+    /**
+     * The kernel implementation.
+     */
+    @State(Scope.Benchmark)
+    public static class Kernels {
+        /** The implementation. */
+        @Param({SCALAR, VECTOR})
+        private String method;
+
+        /** Sum of the values. */
+        private ToDoubleFunction<double[]> sum;
+        /** Sum of the products of the values. */
+        private ToDoubleBiFunction<double[], double[]> sumOfProducts;
+        /** Euclidean norm. */
+        private ToDoubleFunction<double[]> norm;
+        /** Selection of an index. */
+        private ObjIntConsumer<double[]> select;
+
+        /**
+         * Create the kernels.
+         */
+        @Setup
+        public void setup() {
+            if (SCALAR.equals(method)) {
+                sum = a -> Sum.of(a).getAsDouble();
+                sumOfProducts = (a, b) -> Sum.ofProducts(a, b).getAsDouble();
+                norm = Norm.L2::of;
+                select = Selection::select;
+            } else if (VECTOR.equals(method)) {
+                if (!VectorKernels.isVectorized()) {
+                    throw new IllegalStateException("Vector API is not available");
+                }
+                sum = DoubleVectorKernels::sum;
+                sumOfProducts = DoubleVectorKernels::sumOfProducts;
+                norm = DoubleVectorKernels::euclideanNorm;
+                select = (a, k) -> DoubleVectorKernels.select(a, 0, a.length, k);
+            } else {
+                throw new IllegalStateException("Unknown method: " + method);
+            }
+        }
+    }
+
+    /**
+     * Compute the sum.
+     *
+     * @param data Data.
+     * @param kernels Kernels.
+     * @return the result
+     */
+    @Benchmark
+    public double sum(ArrayData data, Kernels kernels) {
+        return kernels.sum.applyAsDouble(data.getX());
+    }
+
+    /**
+     * Compute the sum of products.
+     *
+     * @param data Data.
+     * @param kernels Kernels.
+     * @return the result
+     */
+    @Benchmark
+    public double sumOfProducts(ArrayData data, Kernels kernels) {
+        return kernels.sumOfProducts.applyAsDouble(data.getX(), data.getY());
+    }
+
+    /**
+     * Compute the Euclidean norm.
+     *
+     * @param data Data.
+     * @param kernels Kernels.
+     * @return the result
+     */
+    @Benchmark
+    public double norm(ArrayData data, Kernels kernels) {
+        return kernels.norm.applyAsDouble(data.getX());
+    }
+
+    /**
+     * Select the median. The time includes a copy of the data.
+     *
+     * @param data Data.
+     * @param kernels Kernels.
+     * @return the result
+     */
+    @Benchmark
+    public double select(ArrayData data, Kernels kernels) {
+        final double[] a = data.getX().clone();
+        final int k = a.length >>> 1;
+        kernels.select.accept(a, k);
+        return a[k];
+    }
+}
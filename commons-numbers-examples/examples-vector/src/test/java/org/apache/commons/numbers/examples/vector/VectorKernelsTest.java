@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.vector;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.apache.commons.numbers.core.Norm;
+import org.apache.commons.numbers.core.Sum;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test cases for {@link VectorKernels}.
+ */
+class VectorKernelsTest {
+    /** Lengths of random arrays: covers lengths without a full vector and with a remainder. */
+    private static final int[] LENGTHS = {0, 1, 2, 3, 5, 8, 13, 31, 64, 100, 1001};
+
+    @Test
+    void testIsVectorized() {
+        // Tests are run with the Vector API module
+        Assertions.assertEquals(DoubleVectorKernels.isSupported(), VectorKernels.isVectorized());
+    }
+
+    @Test
+    void testSum() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (final int length : LENGTHS) {
+            for (int i = 0; i < 10; i++) {
+                final double[] a = rng.doubles(length, -1, 1).toArray();
+                BigDecimal sum = BigDecimal.ZERO;
+                for (final double x : a) {
+                    sum = sum.add(new BigDecimal(x));
+                }
+                assertClose(sum.doubleValue(), VectorKernels.sum(a), () -> "sum " + length);
+            }
+        }
+    }
+
+    @Test
+    void testSumNonFinite() {
+        final double max = Double.MAX_VALUE;
+        final double inf = Double.POSITIVE_INFINITY;
+        for (final double[] a : new double[][] {
+            {max, max, max, max, max, max, max, max, max, max},
+            {-max, -max, -max, -max, -max, -max, -max, -max, -max, -max},
+            {inf, 1, 2, 3, 4, 5, 6, 7, 8, 9, inf},
+            {1, 2, 3, 4, 5, 6, 7, 8, 9, -inf},
+            {inf, 1, 2, 3, 4, 5, 6, 7, 8, 9, -inf},
+            {1, 2, 3, 4, 5, 6, 7, 8, Double.NaN},
+        }) {
+            Assertions.assertEquals(Sum.of(a).getAsDouble(), VectorKernels.sum(a), () -> Arrays.toString(a));
+        }
+    }
+
+    @Test
+    void testSumOfProducts() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (final int length : LENGTHS) {
+            for (int i = 0; i < 10; i++) {
+                final double[] a = rng.doubles(length, -1, 1).toArray();
+                final double[] b = rng.doubles(length, -1, 1).toArray();
+                BigDecimal sum = BigDecimal.ZERO;
+                for (int j = 0; j < length; j++) {
+                    sum = sum.add(new BigDecimal(a[j]).multiply(new BigDecimal(b[j])));
+                }
+                assertClose(sum.doubleValue(), VectorKernels.sumOfProducts(a, b), () -> "sumOfProducts " + length);
+            }
+        }
+        final double[] x = {1, 2, 3};
+        final double[] y = {1, 2};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> VectorKernels.sumOfProducts(x, y));
+    }
+
+    @Test
+    void testSumOfProductsNonFinite() {
+        final double big = 0x1.0p1000;
+        final double inf = Double.POSITIVE_INFINITY;
+        final double[] ones = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+        for (final double[] a : new double[][] {
+            {big, big, big, big, big, big, big, big, big, big},
+            {inf, 1, 2, 3, 4, 5, 6, 7, 8, 9},
+            {inf, 1, 2, 3, 4, 5, 6, 7, 8, -inf},
+            {1, 2, 3, 4, 5, 6, 7, 8, 9, Double.NaN},
+        }) {
+            Assertions.assertEquals(Sum.ofProducts(a, a).getAsDouble(), VectorKernels.sumOfProducts(a, a),
+                () -> Arrays.toString(a));
+            Assertions.assertEquals(Sum.ofProducts(a, ones).getAsDouble(), VectorKernels.sumOfProducts(a, ones),
+                () -> Arrays.toString(a));
+        }
+    }
+
+    @Test
+    void testEuclideanNorm() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (final int length : LENGTHS) {
+            if (length == 0) {
+                continue;
+            }
+            for (int i = 0; i < 10; i++) {
+                final double[] a = rng.doubles(length, -1, 1).toArray();
+                assertClose(Norm.L2.of(a), VectorKernels.euclideanNorm(a), () -> "norm " + length);
+            }
+        }
+    }
+
+    @Test
+    void testEuclideanNormScaled() {
+        // Values that require scaling use the scalar method
+        for (final double x : new double[] {0x1.0p-600, 0x1.0p600, Double.MIN_VALUE, Double.MAX_VALUE,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN}) {
+            for (final int length : new int[] {3, 10, 20}) {
+                for (final int i : new int[] {0, length - 1}) {
+                    final double[] a = new double[length];
+                    Arrays.fill(a, 1.5);
+                    a[i] = x;
+                    Assertions.assertEquals(Norm.L2.of(a), VectorKernels.euclideanNorm(a), () -> Arrays.toString(a));
+                }
+            }
+        }
+        Assertions.assertEquals(0.0, VectorKernels.euclideanNorm(new double[] {0.0, -0.0}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> VectorKernels.euclideanNorm(new double[0]));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testSelect(double[] values) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final int[] indices = {0, values.length >>> 1, values.length - 1,
+            rng.nextInt(values.length), rng.nextInt(values.length)};
+        for (final int k : indices) {
+            final double[] a = values.clone();
+            DoubleVectorKernels.select(a, 0, a.length, k);
+            assertSelected(sorted, a, 0, a.length, k);
+        }
+        // Sub-range
+        final int from = values.length / 5;
+        final int to = values.length - from;
+        final double[] expected = Arrays.copyOfRange(values, from, to);
+        Arrays.sort(expected);
+        for (final int k : new int[] {from, (from + to) >>> 1, to - 1}) {
+            final double[] a = values.clone();
+            DoubleVectorKernels.select(a, from, to, k);
+            Assertions.assertArrayEquals(Arrays.copyOf(values, from), Arrays.copyOf(a, from));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(values, to, values.length),
+                Arrays.copyOfRange(a, to, values.length));
+            assertSelected(expected, Arrays.copyOfRange(a, from, to), 0, to - from, k - from);
+        }
+    }
+
+    static Stream<Arguments> testSelect() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        for (final int length : new int[] {10, 600, 5000, 100000}) {
+            // Random
+            builder.add(Arguments.of(rng.doubles(length).toArray()));
+            // Duplicates
+            builder.add(Arguments.of(rng.ints(length, 0, 5).asDoubleStream().toArray()));
+            // Constant
+            builder.add(Arguments.of(new double[length]));
+            // Sorted and reverse sorted
+            final double[] a = rng.doubles(length).sorted().toArray();
+            builder.add(Arguments.of(a));
+            final double[] b = new double[length];
+            for (int i = 0; i < length; i++) {
+                b[i] = a[length - 1 - i];
+            }
+            builder.add(Arguments.of(b));
+            // Organ pipe
+            final double[] c = new double[length];
+            for (int i = 0; i < length; i++) {
+                c[i] = Math.min(i, length - i);
+            }
+            builder.add(Arguments.of(c));
+            // Signed zeros
+            builder.add(Arguments.of(rng.ints(length, -1, 2).mapToDouble(i -> i == 0 ? -0.0 : i).toArray()));
+            // NaN
+            final double[] d = rng.doubles(length).toArray();
+            d[rng.nextInt(length)] = Double.NaN;
+            builder.add(Arguments.of(d));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the value at index {@code k} is the value in the sorted data, and the range
+     * is partitioned around {@code k}.
+     *
+     * @param sorted Sorted data.
+     * @param a Partitioned data.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @param k Index.
+     */
+    private static void assertSelected(double[] sorted, double[] a, int from, int to, int k) {
+        Assertions.assertEquals(sorted[k], a[k], () -> "k=" + k);
+        for (int i = from; i < k; i++) {
+            final int index = i;
+            Assertions.assertTrue(Double.compare(a[i], a[k]) <= 0, () -> "Not partitioned: " + index);
+        }
+        for (int i = k + 1; i < to; i++) {
+            final int index = i;
+            Assertions.assertTrue(Double.compare(a[i], a[k]) >= 0, () -> "Not partitioned: " + index);
+        }
+        final double[] b = a.clone();
+        Arrays.sort(b);
+        Assertions.assertArrayEquals(sorted, b, "Not a permutation");
+    }
+
+    /**
+     * Assert the actual value is within 1 ULP of the expected value.
+     *
+     * @param expected Expected value.
+     * @param actual Actual value.
+     * @param msg Message.
+     */
+    private static void assertClose(double expected, double actual, Supplier<String> msg) {
+        Assertions.assertEquals(expected, actual, Math.ulp(expected), msg);
+    }
+}
@@ -0,0 +1,4 @@
+package org.apache.commons.numbers.examples.vector.jmh_generated;
+public class VectorPerformance_Kernels_jmhType extends VectorPerformance_Kernels_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.apache.commons.numbers.examples.vector.jmh_generated;
+public class VectorPerformance_jmhType extends VectorPerformance_jmhType_B3 {
+}
+